@@ -39,6 +39,10 @@ public class Constants {
 	 */
 	public static final String EXPORT_JSON_ENDPOINT = "exportJson"; //$NON-NLS-1$
 
+	/** Name of the endpoint for exporting to JSON the pages of publications that are requested by DataTables tables with server-side processing.
+	 */
+	public static final String EXPORT_JSON_FOR_DATATABLES_ENDPOINT = "exportJsonForDataTables"; //$NON-NLS-1$
+
 	/** Name of the endpoint for exporting to BibTeX.
 	 */
 	public static final String EXPORT_BIBTEX_ENDPOINT = "exportBibTeX"; //$NON-NLS-1$
@@ -51,6 +55,26 @@ public class Constants {
 	 */
 	public static final String EXPORT_HTML_ENDPOINT = "exportHtml"; //$NON-NLS-1$
 
+	/** Name of the endpoint for obtaining the pictures of the downloadable PDF files.
+	 */
+	public static final String THUMBNAIL_ENDPOINT = "thumbnail"; //$NON-NLS-1$
+
+	/** Name of the endpoint for submitting a job that exports publications.
+	 */
+	public static final String SUBMIT_EXPORT_JOB_ENDPOINT = "submitExportJob"; //$NON-NLS-1$
+
+	/** Name of the endpoint for obtaining the status of a job that exports publications.
+	 */
+	public static final String GET_EXPORT_JOB_ENDPOINT = "getExportJob"; //$NON-NLS-1$
+
+	/** Name of the endpoint for obtaining the artifact of a job that exports publications.
+	 */
+	public static final String GET_EXPORT_JOB_ARTIFACT_ENDPOINT = "getExportJobArtifact"; //$NON-NLS-1$
+
+	/** Name of the endpoint for searching the publications with words.
+	 */
+	public static final String SEARCH_PUBLICATIONS_ENDPOINT = "searchPublications"; //$NON-NLS-1$
+
 	/** Name of the endpoint parameter "id".
 	 */
 	public static final String ID_ENDPOINT_PARAMETER = "id"; //$NON-NLS-1$
@@ -87,6 +111,50 @@ public class Constants {
 	 */
 	public static final String INATTACHMENT_ENDPOINT_PARAMETER = "inAttachment"; //$NON-NLS-1$
 
+	/** Name of the endpoint parameter "offset".
+	 */
+	public static final String OFFSET_ENDPOINT_PARAMETER = "offset"; //$NON-NLS-1$
+
+	/** Name of the endpoint parameter "limit".
+	 */
+	public static final String LIMIT_ENDPOINT_PARAMETER = "limit"; //$NON-NLS-1$
+
+	/** Name of the endpoint parameter "cursor".
+	 */
+	public static final String CURSOR_ENDPOINT_PARAMETER = "cursor"; //$NON-NLS-1$
+
+	/** Name of the endpoint parameter "year".
+	 */
+	public static final String YEAR_ENDPOINT_PARAMETER = "year"; //$NON-NLS-1$
+
+	/** Name of the endpoint parameter "type".
+	 */
+	public static final String TYPE_ENDPOINT_PARAMETER = "type"; //$NON-NLS-1$
+
+	/** Name of the endpoint parameter "author".
+	 */
+	public static final String AUTHOR_ENDPOINT_PARAMETER = "author"; //$NON-NLS-1$
+
+	/** Name of the endpoint parameter "format".
+	 */
+	public static final String FORMAT_ENDPOINT_PARAMETER = "format"; //$NON-NLS-1$
+
+	/** Name of the endpoint parameter "wait".
+	 */
+	public static final String WAIT_ENDPOINT_PARAMETER = "wait"; //$NON-NLS-1$
+
+	/** Name of the endpoint parameter "query".
+	 */
+	public static final String QUERY_ENDPOINT_PARAMETER = "query"; //$NON-NLS-1$
+
+	/** Name of the HTTP header that contains the total number of entities that could be exported.
+	 */
+	public static final String TOTAL_COUNT_HTTP_HEADER = "X-Total-Count"; //$NON-NLS-1$
+
+	/** Name of the HTTP header that contains the cursor to be used for obtaining the next page of entities.
+	 */
+	public static final String NEXT_CURSOR_HTTP_HEADER = "X-Next-Cursor"; //$NON-NLS-1$
+
 	/** Default basename of the files in attachment with publications.
 	 */
 	public static final String DEFAULT_PUBLICATION_ATTACHMENT_BASENAME = "publications"; //$NON-NLS-1$
@@ -16,9 +16,15 @@
 
 package fr.ciadlab.labmanager.controller.api;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import fr.ciadlab.labmanager.configuration.Constants;
 import fr.ciadlab.labmanager.controller.AbstractCredentialController;
 import org.springframework.context.support.MessageSourceAccessor;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 
 /** Abstract implementation of a JEE Controller that provides regular API.
  * 
@@ -38,4 +44,21 @@ public abstract class AbstractApiController extends AbstractCredentialController
 		super(messages, constants);
 	}
 
+	/** Change the maximum duration of the asynchronous processing of the given request, e.g., the writing
+	 * of a {@code StreamingResponseBody} that is replied by the endpoint. The duration of the other
+	 * asynchronous requests is unchanged.
+	 *
+	 * @param request the request.
+	 * @param timeout the maximum duration in milliseconds.
+	 */
+	protected static void setAsyncRequestTimeout(NativeWebRequest request, long timeout) {
+		final HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+		final HttpServletResponse servletResponse = request.getNativeResponse(HttpServletResponse.class);
+		if (servletRequest != null && servletResponse != null) {
+			final AsyncWebRequest asyncRequest = WebAsyncUtils.createAsyncWebRequest(servletRequest, servletResponse);
+			asyncRequest.setTimeout(Long.valueOf(timeout));
+			WebAsyncUtils.getAsyncManager(request).setAsyncWebRequest(asyncRequest);
+		}
+	}
+
 }
@@ -16,16 +16,23 @@
 
 package fr.ciadlab.labmanager.controller.api.admin;
 
+import static fr.ciadlab.labmanager.entities.EntityUtils.getSimilarityCandidates;
 import static fr.ciadlab.labmanager.entities.EntityUtils.isSimilarWithoutNormalization;
 import static fr.ciadlab.labmanager.entities.EntityUtils.normalizeForSimularityTest;
 
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 import fr.ciadlab.labmanager.configuration.Constants;
 import fr.ciadlab.labmanager.controller.api.AbstractApiController;
@@ -37,6 +44,7 @@ import fr.ciadlab.labmanager.io.json.SimilarPublicationProvider;
 import fr.ciadlab.labmanager.service.publication.PublicationService;
 import org.apache.jena.ext.com.google.common.base.Strings;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -49,7 +57,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /** This controller provides a tool for exporting the content of the database according
  * to a specific JSON format that is independent of any database engine.
@@ -74,40 +84,75 @@ public class JsonDatabaseExporterApiController extends AbstractApiController {
 
 	private PublicationService publicationService;
 
+	private final long streamingTimeout;
+
 	/** Constructor.
 	 *
 	 * @param messages the provider of messages.
 	 * @param constants the constants of the app.
 	 * @param exporter the exporter.
 	 * @param publicationService the service for extracting publications from a BibTeX file.
+	 * @param streamingTimeout the maximum number of seconds for streaming the JSON content of the database.
 	 */
 	public JsonDatabaseExporterApiController(
 			@Autowired MessageSourceAccessor messages,
 			@Autowired Constants constants,
 			@Autowired DatabaseToJsonExporter exporter,
-			@Autowired PublicationService publicationService) {
+			@Autowired PublicationService publicationService,
+			@Value("${labmanager.export.json-timeout:600}") int streamingTimeout) {
 		super(messages, constants);
 		this.exporter = exporter;
 		this.publicationService = publicationService;
+		this.streamingTimeout = TimeUnit.SECONDS.toMillis(Math.max(1, streamingTimeout));
 	}
 
 	/** Export the JSON.
+	 * The JSON content is streamed to the HTTP response while the database is read; it is never built in memory.
+	 * The streaming is stopped after the number of seconds that is defined by the property
+	 * {@code labmanager.export.json-timeout}.
 	 *
+	 * @param gzip indicates if the JSON content is compressed with GZIP into a {@code .json.gz} file.
+	 *     Default value is {@code false}.
 	 * @param username the name of the logged-in user.
+	 * @param request the current request.
 	 * @return The JSON data.
 	 * @throws Exception in case of error.
 	 */
 	@GetMapping("/exportDatabaseToJson")
-	public ResponseEntity<Map<String, Object>> exportDatabaseToJson(
-			@CookieValue(name = "labmanager-user-id", defaultValue = Constants.ANONYMOUS) String username) throws Exception {
+	public ResponseEntity<StreamingResponseBody> exportDatabaseToJson(
+			@RequestParam(required = false, defaultValue = "false") boolean gzip,
+			@CookieValue(name = "labmanager-user-id", defaultValue = Constants.ANONYMOUS) String username,
+			NativeWebRequest request) throws Exception {
 		getLogger().info("Opening /exportDatabaseToJson by " + username); //$NON-NLS-1$
 		ensureCredentials(username);
-		final Map<String, Object> content = this.exporter.exportFromDatabase();
-		final BodyBuilder bb = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
-				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + Constants.DEFAULT_PUBLICATION_ATTACHMENT_BASENAME + ".json\""); //$NON-NLS-1$ //$NON-NLS-2$
-		final ResponseEntity<Map<String, Object>> result = bb.body(content);
+		setAsyncRequestTimeout(request, this.streamingTimeout);
+		final BodyBuilder bb;
+		final StreamingResponseBody body;
+		if (gzip) {
+			bb = ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM)
+					.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + Constants.DEFAULT_PUBLICATION_ATTACHMENT_BASENAME + ".json.gz\""); //$NON-NLS-1$ //$NON-NLS-2$
+			body = output -> {
+				final GZIPOutputStream gzipOutput = new GZIPOutputStream(output);
+				exportDatabaseToJson(gzipOutput);
+				gzipOutput.finish();
+			};
+		} else {
+			bb = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+					.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + Constants.DEFAULT_PUBLICATION_ATTACHMENT_BASENAME + ".json\""); //$NON-NLS-1$ //$NON-NLS-2$
+			body = output -> exportDatabaseToJson(output);
+		}
+		return bb.body(body);
+	}
+
+	private void exportDatabaseToJson(OutputStream output) throws IOException {
+		try {
+			this.exporter.exportFromDatabaseToJsonStream(output);
+		} catch (IOException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new IOException(ex);
+		}
 		getLogger().info("JSON was generated from the Database only"); //$NON-NLS-1$
-		return result;
 	}
 
 	private static int getInt(Map<String, Object> source, String key) {
@@ -231,22 +276,28 @@ public class JsonDatabaseExporterApiController extends AbstractApiController {
 			@SuppressWarnings("unchecked")
 			final List<Map<String, Object>> pubs = (List<Map<String, Object>>) content.get(JsonTool.PUBLICATIONS_SECTION);
 			if (pubs != null && !pubs.isEmpty()) {
+				// Both types of duplicates need similar titles. Only the candidates for similar titles are compared.
+				final List<String> titles = new ArrayList<>(pubs.size());
+				for (final Map<String, Object> publication : pubs) {
+					titles.add(getString(publication, JsonTool.TITLE_KEY));
+				}
+				final BitSet[] candidates = getSimilarityCandidates(titles);
 				final int max = pubs.size() - 1;
 				for (int i = 0; i < max; ++i) {
 					final Map<String, Object> publication0 = pubs.get(i);
 					if (!publication0.containsKey(DUPLICATED_ENTRY_FIELD)) {
 						final int year0 = getInt(publication0, JsonTool.PUBLICATIONYEAR_KEY);
-						final String title0 = getString(publication0, JsonTool.TITLE_KEY);
+						final String title0 = titles.get(i);
 						final String doi0 = getString(publication0, JsonTool.DOI_KEY);
 						final String issn0 = getString(publication0, JsonTool.ISSN_KEY);
 						final String target0 = getTarget(publication0);
 						final boolean isNotValidated0 = !isValidated(publication0);
 						int isDup = Integer.MAX_VALUE;
-						for (int j = i + 1; j < pubs.size(); ++j) {
+						for (int j = candidates[i].nextSetBit(i + 1); j >= 0; j = candidates[i].nextSetBit(j + 1)) {
 							final Map<String, Object> publication1 = pubs.get(j);
 							if (!publication1.containsKey(DUPLICATED_ENTRY_FIELD)) {
 								final int year1 = getInt(publication1, JsonTool.PUBLICATIONYEAR_KEY);
-								final String title1 = getString(publication1, JsonTool.TITLE_KEY);
+								final String title1 = titles.get(j);
 								final String doi1 = getString(publication1, JsonTool.DOI_KEY);
 								final String issn1 = getString(publication1, JsonTool.ISSN_KEY);
 								final String target1 = getTarget(publication1);
@@ -24,6 +24,8 @@ import fr.ciadlab.labmanager.configuration.Constants;
 import fr.ciadlab.labmanager.controller.api.AbstractApiController;
 import fr.ciadlab.labmanager.entities.journal.Journal;
 import fr.ciadlab.labmanager.entities.journal.JournalQualityAnnualIndicators;
+import fr.ciadlab.labmanager.service.DataScope;
+import fr.ciadlab.labmanager.service.DataVersionTracker;
 import fr.ciadlab.labmanager.service.journal.JournalService;
 import fr.ciadlab.labmanager.utils.ranking.QuartileRanking;
 import org.apache.jena.ext.com.google.common.base.Strings;
@@ -37,6 +39,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
 
 /** REST Controller for journals.
  * 
@@ -53,19 +56,24 @@ public class JournalApiController extends AbstractApiController {
 
 	private JournalService journalService;
 
+	private DataVersionTracker dataVersionTracker;
+
 	/** Constructor for injector.
 	 * This constructor is defined for being invoked by the IOC injector.
 	 *
 	 * @param messages the accessor to the localized messages.
 	 * @param constants the constants of the app.
 	 * @param journalService the journal service.
+	 * @param dataVersionTracker the tracker of the versions of the data, for the conditional requests.
 	 */
 	public JournalApiController(
 			@Autowired MessageSourceAccessor messages,
 			@Autowired Constants constants,
-			@Autowired JournalService journalService) {
+			@Autowired JournalService journalService,
+			@Autowired DataVersionTracker dataVersionTracker) {
 		super(messages, constants);
 		this.journalService = journalService;
+		this.dataVersionTracker = dataVersionTracker;
 	}
 
 	/** Replies data about a specific journal from the database.
@@ -73,14 +81,20 @@ public class JournalApiController extends AbstractApiController {
 	 *
 	 * @param name the name of the journal.
 	 * @param id the identifier of the journal.
-	 * @return the journal.
+	 * @param request the HTTP request, for testing the ETag that is known by the client.
+	 * @return the journal, or {@code null} if the client already has the data.
 	 */
 	@GetMapping(value = "/getJournalData", produces = "application/json; charset=UTF-8")
 	@ResponseBody
-	public Journal getJournalData(@RequestParam(required = false) String name, @RequestParam(required = false) Integer id) {
+	public Journal getJournalData(@RequestParam(required = false) String name, @RequestParam(required = false) Integer id,
+			NativeWebRequest request) {
 		if (id == null && Strings.isNullOrEmpty(name)) {
 			throw new IllegalArgumentException("Name and identifier parameters are missed"); //$NON-NLS-1$
 		}
+		if (this.dataVersionTracker.checkNotModified(request, null, DataScope.JOURNAL)) {
+			// The status 304 is set by the request
+			return null;
+		}
 		if (id != null) {
 			return this.journalService.getJournalById(id.intValue());
 		}
@@ -21,7 +21,6 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -41,6 +40,8 @@ import fr.ciadlab.labmanager.entities.member.Person;
 import fr.ciadlab.labmanager.entities.member.Responsibility;
 import fr.ciadlab.labmanager.entities.organization.ResearchOrganization;
 import fr.ciadlab.labmanager.entities.organization.ResearchOrganizationType;
+import fr.ciadlab.labmanager.service.DataScope;
+import fr.ciadlab.labmanager.service.DataVersionTracker;
 import fr.ciadlab.labmanager.service.member.MembershipService;
 import fr.ciadlab.labmanager.service.organization.ResearchOrganizationService;
 import fr.ciadlab.labmanager.utils.bap.FrenchBap;
@@ -61,6 +62,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
 
 /** REST Controller for memberships.
  * 
@@ -81,6 +83,8 @@ public class MembershipApiController extends AbstractApiController {
 
 	private ChronoMembershipComparator membershipComparator;
 
+	private DataVersionTracker dataVersionTracker;
+
 	/** Constructor for injector.
 	 * This constructor is defined for being invoked by the IOC injector.
 	 *
@@ -89,17 +93,20 @@ public class MembershipApiController extends AbstractApiController {
 	 * @param membershipService the service for managing the memberships.
 	 * @param organizationService the service for accessing the organizations.
 	 * @param membershipComparator the comparator of member for determining the more recents.
+	 * @param dataVersionTracker the tracker of the versions of the data, for the conditional requests.
 	 */
 	public MembershipApiController(
 			@Autowired MessageSourceAccessor messages,
 			@Autowired Constants constants,
 			@Autowired MembershipService membershipService,
 			@Autowired ResearchOrganizationService organizationService,
-			@Autowired ChronoMembershipComparator membershipComparator) {
+			@Autowired ChronoMembershipComparator membershipComparator,
+			@Autowired DataVersionTracker dataVersionTracker) {
 		super(messages, constants);
 		this.membershipService = membershipService;
 		this.organizationService = organizationService;
 		this.membershipComparator = membershipComparator;
+		this.dataVersionTracker = dataVersionTracker;
 	}
 
 	/** Saving information of a membership. 
@@ -252,7 +259,8 @@ public class MembershipApiController extends AbstractApiController {
 	 *     {@code false}.
 	 *     If the parameter {@code forAjax} is evaluated to {@code true}, this parameter is ignored.
 	 * @param username the name of the logged-in user.
-	 * @return the JSON.
+	 * @param request the HTTP request, for testing the ETag that is known by the client.
+	 * @return the JSON, or {@code null} if the client already has the data.
 	 */
 	@GetMapping(value = "/" + Constants.EXPORT_MEMBERS_TO_JSON_ENDPOINT)
 	public ResponseEntity<Object> exportMembersToJson(
@@ -261,9 +269,14 @@ public class MembershipApiController extends AbstractApiController {
 			@RequestParam(required = false, name = Constants.INCLUDESUBORGANIZATION_ENDPOINT_PARAMETER, defaultValue = "true") boolean includeSuborganizations,
 			@RequestParam(required = false, defaultValue = "false", name = Constants.FORAJAX_ENDPOINT_PARAMETER) Boolean forAjax,
 			@RequestParam(required = false, defaultValue = "false", name = Constants.INATTACHMENT_ENDPOINT_PARAMETER) Boolean inAttachment,
-			@CookieValue(name = "labmanager-user-id", defaultValue = Constants.ANONYMOUS) String username) {
+			@CookieValue(name = "labmanager-user-id", defaultValue = Constants.ANONYMOUS) String username,
+			NativeWebRequest request) {
 		getLogger().info("Opening /" + Constants.EXPORT_MEMBERS_TO_JSON_ENDPOINT + " by " + username + " for organization " + organization); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 		readCredentials(username);
+		if (this.dataVersionTracker.checkNotModified(request, null, DataScope.PERSON, DataScope.MEMBERSHIP, DataScope.ORGANIZATION)) {
+			// The status 304 is set by the request
+			return null;
+		}
 		final boolean isAjax = forAjax != null && forAjax.booleanValue();
 		final boolean isAttachment = !isAjax && inAttachment != null && inAttachment.booleanValue();
 		final ResearchOrganizationType otherOrganizationTypeEnum =
@@ -278,13 +291,13 @@ public class MembershipApiController extends AbstractApiController {
 		//
 		// List of memberships should be built specifically for the front ends
 		final Map<Person, MutablePair<Membership, Set<ResearchOrganization>>> members = new TreeMap<>(EntityUtils.getPreferredPersonComparator());
-		final LinkedList<ResearchOrganization> organizationStack = new LinkedList<>();
-		organizationStack.push(rootOrganization);
-		while (!organizationStack.isEmpty()) {
-			final ResearchOrganization currentOrganization = organizationStack.pop();
-			if (includeSuborganizations) {
-				organizationStack.addAll(currentOrganization.getSubOrganizations());
-			}
+		final List<ResearchOrganization> organizations;
+		if (includeSuborganizations) {
+			organizations = this.organizationService.getResearchOrganizationAndSubOrganizations(organization);
+		} else {
+			organizations = Collections.singletonList(rootOrganization);
+		}
+		for (final ResearchOrganization currentOrganization : organizations) {
 			for (final Membership membership : currentOrganization.getMemberships()) {
 				if (!membership.isFuture()) {
 					final Person person = membership.getPerson();
@@ -298,7 +311,8 @@ public class MembershipApiController extends AbstractApiController {
 							pair.setLeft(membership);
 						}
 					}
-					if (otherOrganizationTypeEnum != null) {
+					// The other organizations of the person are computed only once per person
+					if (otherOrganizationTypeEnum != null && previousMembership == null) {
 						for (final Membership otherm : person.getMemberships()) {
 							final ResearchOrganization otherro = otherm.getResearchOrganization();
 							if (otherro.getId() != organization && otherOrganizationTypeEnum == otherro.getType()) {
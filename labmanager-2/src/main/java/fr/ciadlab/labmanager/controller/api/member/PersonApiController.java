@@ -23,6 +23,8 @@ import fr.ciadlab.labmanager.entities.member.Gender;
 import fr.ciadlab.labmanager.entities.member.Person;
 import fr.ciadlab.labmanager.entities.member.WebPageNaming;
 import fr.ciadlab.labmanager.entities.organization.ResearchOrganization;
+import fr.ciadlab.labmanager.service.DataScope;
+import fr.ciadlab.labmanager.service.DataVersionTracker;
 import fr.ciadlab.labmanager.service.member.PersonService;
 import fr.ciadlab.labmanager.service.organization.ResearchOrganizationService;
 import fr.ciadlab.labmanager.utils.names.PersonNameComparator;
@@ -42,6 +44,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
 
 /** REST Controller for persons.
  * <p>
@@ -69,6 +72,8 @@ public class PersonApiController extends AbstractApiController {
 
 	private VcardBuilder vcardBuilder;
 
+	private DataVersionTracker dataVersionTracker;
+
 	/** Constructor for injector.
 	 * This constructor is defined for being invoked by the IOC injector.
 	 *
@@ -78,6 +83,7 @@ public class PersonApiController extends AbstractApiController {
 	 * @param organizationService the organization service.
 	 * @param nameParser the parser of person names.
 	 * @param vcardBuilder the builder of Vcards.
+	 * @param dataVersionTracker the tracker of the versions of the data, for the conditional requests.
 	 */
 	public PersonApiController(
 			@Autowired MessageSourceAccessor messages,
@@ -85,12 +91,14 @@ public class PersonApiController extends AbstractApiController {
 			@Autowired PersonService personService,
 			@Autowired ResearchOrganizationService organizationService,
 			@Autowired PersonNameParser nameParser,
-			@Autowired VcardBuilder vcardBuilder) {
+			@Autowired VcardBuilder vcardBuilder,
+			@Autowired DataVersionTracker dataVersionTracker) {
 		super(messages, constants);
 		this.personService = personService;
 		this.organizationService = organizationService;
 		this.nameParser = nameParser;
 		this.vcardBuilder = vcardBuilder;
+		this.dataVersionTracker = dataVersionTracker;
 	}
 
 	/** Replies the information about a person as a JSON stream.
@@ -103,7 +111,8 @@ public class PersonApiController extends AbstractApiController {
 	 * @param strictName indicates if the name test must be strict (equality test) or not (similarity test).
 	 *     By default, this parameter has the value {@code false}.
 	 * @param username the name of the logged-in user.
-	 * @return the person, or {@code null} if the person with the given name was not found.
+	 * @param request the HTTP request, for testing the ETag that is known by the client.
+	 * @return the person, or {@code null} if the client already has the data.
 	 * @see PersonNameComparator
 	 */
 	@GetMapping(value = "/getPersonData", produces = "application/json; charset=UTF-8")
@@ -112,9 +121,15 @@ public class PersonApiController extends AbstractApiController {
 			@RequestParam(required = false) Integer dbId,
 			@RequestParam(required = false) String webId,
 			@RequestParam(defaultValue = "false", required = false) boolean strictName,
-			@CookieValue(name = "labmanager-user-id", defaultValue = Constants.ANONYMOUS) String username) {
+			@CookieValue(name = "labmanager-user-id", defaultValue = Constants.ANONYMOUS) String username,
+			NativeWebRequest request) {
 		getLogger().info("Opening /getPersonData by " + username + " for dbId " + dbId + " or webId " + webId); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 		ensureCredentials(username);
+		if (this.dataVersionTracker.checkNotModified(request, null,
+				DataScope.PERSON, DataScope.MEMBERSHIP, DataScope.ORGANIZATION, DataScope.PUBLICATION)) {
+			// The status 304 is set by the request
+			return null;
+		}
 		final Person person = getPersonWith(dbId, webId, null, this.personService, this.nameParser);
 		if (person == null) {
 			throw new IllegalArgumentException("Person not found"); //$NON-NLS-1$
@@ -0,0 +1,173 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.controller.api.publication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.jena.ext.com.google.common.base.Strings;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.Order;
+
+/** Parameters of a request from a DataTables table that is configured for server-side processing.
+ * The request parameters are: {@code draw}, {@code start}, {@code length}, {@code search[value]},
+ * {@code order[i][column]}, {@code order[i][dir]} and {@code columns[i][data]}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ * @see <a href="https://datatables.net/manual/server-side">DataTables server-side processing</a>
+ */
+public class DataTablesRequest {
+
+	/** Maximum number of rows that could be replied for a single request.
+	 */
+	public static final int MAX_LENGTH = 1000;
+
+	/** Default number of rows that is replied for a single request.
+	 */
+	public static final int DEFAULT_LENGTH = 10;
+
+	private static final String DRAW_PARAMETER = "draw"; //$NON-NLS-1$
+
+	private static final String START_PARAMETER = "start"; //$NON-NLS-1$
+
+	private static final String LENGTH_PARAMETER = "length"; //$NON-NLS-1$
+
+	private static final String SEARCH_PARAMETER = "search[value]"; //$NON-NLS-1$
+
+	private static final String ORDER_COLUMN_PARAMETER = "order[%d][column]"; //$NON-NLS-1$
+
+	private static final String ORDER_DIRECTION_PARAMETER = "order[%d][dir]"; //$NON-NLS-1$
+
+	private static final String COLUMN_DATA_PARAMETER = "columns[%s][data]"; //$NON-NLS-1$
+
+	private final int draw;
+
+	private final int start;
+
+	private final int length;
+
+	private final String search;
+
+	private final List<Order> orders;
+
+	/** Constructor.
+	 *
+	 * @param parameters the parameters of the HTTP request.
+	 * @param columnToProperty the mapping from the names of the DataTables columns (the {@code data} attribute
+	 *     of the columns) to the names of the sortable properties of the JPA entities. If the mapping replies
+	 *     {@code null}, the column is not considered for sorting.
+	 */
+	public DataTablesRequest(Map<String, String> parameters, Function<String, String> columnToProperty) {
+		this.draw = Math.max(0, parseInt(parameters.get(DRAW_PARAMETER), 0));
+		this.start = Math.max(0, parseInt(parameters.get(START_PARAMETER), 0));
+		final int len = parseInt(parameters.get(LENGTH_PARAMETER), DEFAULT_LENGTH);
+		// DataTables uses -1 for "all the rows"
+		this.length = len <= 0 ? MAX_LENGTH : Math.min(len, MAX_LENGTH);
+		this.search = Strings.emptyToNull(Strings.nullToEmpty(parameters.get(SEARCH_PARAMETER)).trim());
+		this.orders = new ArrayList<>();
+		int i = 0;
+		String column = parameters.get(String.format(ORDER_COLUMN_PARAMETER, Integer.valueOf(i)));
+		while (column != null) {
+			final String data = parameters.get(String.format(COLUMN_DATA_PARAMETER, column));
+			final String property = Strings.isNullOrEmpty(data) ? null : columnToProperty.apply(data);
+			if (!Strings.isNullOrEmpty(property)) {
+				final String dir = parameters.get(String.format(ORDER_DIRECTION_PARAMETER, Integer.valueOf(i)));
+				final Direction direction = Direction.fromOptionalString(dir).orElse(Direction.ASC);
+				this.orders.add(new Order(direction, property));
+			}
+			++i;
+			column = parameters.get(String.format(ORDER_COLUMN_PARAMETER, Integer.valueOf(i)));
+		}
+	}
+
+	private static int parseInt(String value, int defaultValue) {
+		if (!Strings.isNullOrEmpty(value)) {
+			try {
+				return Integer.parseInt(value.trim());
+			} catch (NumberFormatException ex) {
+				//
+			}
+		}
+		return defaultValue;
+	}
+
+	/** Replies the draw counter that must be replied to DataTables.
+	 *
+	 * @return the draw counter.
+	 */
+	public int getDraw() {
+		return this.draw;
+	}
+
+	/** Replies the index of the first row to reply.
+	 *
+	 * @return the index of the first row.
+	 */
+	public int getStart() {
+		return this.start;
+	}
+
+	/** Replies the number of rows to reply.
+	 *
+	 * @return the number of rows, never greater than {@link #MAX_LENGTH}.
+	 */
+	public int getLength() {
+		return this.length;
+	}
+
+	/** Replies the global search value.
+	 *
+	 * @return the search value, or {@code null} if there is no search value.
+	 */
+	public String getSearch() {
+		return this.search;
+	}
+
+	/** Replies the sorting criteria that are requested by DataTables.
+	 *
+	 * @return the sorting criteria, possibly unsorted.
+	 */
+	public Sort getSort() {
+		return Sort.by(this.orders);
+	}
+
+	/** Replies the page that is requested by DataTables.
+	 * DataTables provides the index of the first row; it is assumed to be a multiple of the length of the page.
+	 *
+	 * @param defaultSort the sorting criteria to be used when DataTables does not provide sortable columns.
+	 * @param tieBreak the sorting criteria that are appended to all the sorting criteria, in order to obtain
+	 *     stable pages. It may be {@code null}.
+	 * @return the page.
+	 */
+	public Pageable toPageable(Sort defaultSort, Sort tieBreak) {
+		Sort sort = this.orders.isEmpty() ? defaultSort : getSort();
+		if (tieBreak != null) {
+			sort = sort.and(tieBreak);
+		}
+		return PageRequest.of(this.start / this.length, this.length, sort);
+	}
+
+}
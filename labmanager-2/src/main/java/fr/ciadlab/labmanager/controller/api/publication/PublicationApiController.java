@@ -26,6 +26,8 @@ import fr.ciadlab.labmanager.configuration.Constants;
 import fr.ciadlab.labmanager.controller.api.AbstractApiController;
 import fr.ciadlab.labmanager.entities.publication.Publication;
 import fr.ciadlab.labmanager.io.filemanager.DownloadableFileManager;
+import fr.ciadlab.labmanager.service.DataScope;
+import fr.ciadlab.labmanager.service.DataVersionTracker;
 import fr.ciadlab.labmanager.service.member.PersonService;
 import fr.ciadlab.labmanager.service.publication.PublicationService;
 import org.apache.commons.lang3.StringUtils;
@@ -40,6 +42,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 /** REST Controller for publications.
@@ -60,6 +63,8 @@ public class PublicationApiController extends AbstractApiController {
 
 	private DownloadableFileManager fileManager;
 
+	private DataVersionTracker dataVersionTracker;
+
 	/** Constructor for injector.
 	 * This constructor is defined for being invoked by the IOC injector.
 	 *
@@ -68,17 +73,20 @@ public class PublicationApiController extends AbstractApiController {
 	 * @param publicationService the publication service.
 	 * @param personService the person service.
 	 * @param fileManager the manager of local files.
+	 * @param dataVersionTracker the tracker of the versions of the data, for the conditional requests.
 	 */
 	public PublicationApiController(
 			@Autowired MessageSourceAccessor messages,
 			@Autowired Constants constants,
 			@Autowired PublicationService publicationService,
 			@Autowired PersonService personService,
-			@Autowired DownloadableFileManager fileManager) {
+			@Autowired DownloadableFileManager fileManager,
+			@Autowired DataVersionTracker dataVersionTracker) {
 		super(messages, constants);
 		this.publicationService = publicationService;
 		this.personService = personService;
 		this.fileManager = fileManager;
+		this.dataVersionTracker = dataVersionTracker;
 	}
 
 	/** Replies data about a specific publication from the database.
@@ -89,15 +97,22 @@ public class PublicationApiController extends AbstractApiController {
 	 *
 	 * @param title the title of the publication.
 	 * @param id the identifier of the publication.
+	 * @param request the HTTP request, for testing the ETag that is known by the client.
 	 * @return the publication if a specific identifier is provided, or a list of publications that have the given title.
+	 *     It is {@code null} if the client already has the data.
 	 * @see #exportJson(HttpServletResponse, List, Integer, Integer, Integer)
 	 */
 	@GetMapping(value = "/getPublicationData", produces = "application/json; charset=UTF-8")
 	@ResponseBody
-	public Object getPublicationData(@RequestParam(required = false) String title, @RequestParam(required = false) Integer id) {
+	public Object getPublicationData(@RequestParam(required = false) String title, @RequestParam(required = false) Integer id,
+			NativeWebRequest request) {
 		if (id == null && Strings.isNullOrEmpty(title)) {
 			throw new IllegalArgumentException("Title and identifier parameters are missed"); //$NON-NLS-1$
 		}
+		if (this.dataVersionTracker.checkNotModified(request, null, DataScope.PUBLICATION, DataScope.PERSON, DataScope.JOURNAL)) {
+			// The status 304 is set by the request
+			return null;
+		}
 		if (id != null) {
 			return this.publicationService.getPublicationById(id.intValue());
 		}
@@ -19,29 +19,58 @@ package fr.ciadlab.labmanager.controller.api.publication;
 import static fr.ciadlab.labmanager.entities.EntityUtils.isSimilarWithoutNormalization;
 import static fr.ciadlab.labmanager.entities.EntityUtils.normalizeForSimularityTest;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fr.ciadlab.labmanager.configuration.Constants;
 import fr.ciadlab.labmanager.controller.api.AbstractApiController;
 import fr.ciadlab.labmanager.entities.publication.Publication;
+import fr.ciadlab.labmanager.entities.publication.PublicationDuplicateIndex;
+import fr.ciadlab.labmanager.entities.publication.PublicationType;
 import fr.ciadlab.labmanager.io.ExporterConfigurator;
 import fr.ciadlab.labmanager.io.bibtex.BibTeXConstants;
 import fr.ciadlab.labmanager.io.json.JsonTool;
 import fr.ciadlab.labmanager.io.od.OpenDocumentConstants;
+import fr.ciadlab.labmanager.repository.publication.PublicationSpecifications;
+import fr.ciadlab.labmanager.service.DataScope;
+import fr.ciadlab.labmanager.service.DataVersionTracker;
 import fr.ciadlab.labmanager.service.journal.JournalService;
 import fr.ciadlab.labmanager.service.publication.PublicationService;
+import fr.ciadlab.labmanager.service.publication.export.ExportFormat;
+import fr.ciadlab.labmanager.service.publication.export.ExportJob;
+import fr.ciadlab.labmanager.service.publication.export.ExportJobManager;
 import fr.ciadlab.labmanager.service.publication.type.JournalPaperService;
 import org.apache.jena.ext.com.google.common.base.Strings;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.support.MessageSourceAccessor;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.ResponseEntity.BodyBuilder;
@@ -52,7 +81,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /** REST Controller for exports of publications.
  * 
@@ -66,12 +97,24 @@ import org.springframework.web.multipart.MultipartFile;
 @CrossOrigin
 public class PublicationExportApiController extends AbstractApiController {
 
+	/** Default sorting criteria for the DataTables tables: per type, then per year.
+	 */
+	private static final Sort DEFAULT_DATATABLES_SORT = Sort.by(Order.asc("type"), Order.desc("publicationYear")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	/** Sorting criteria that are always appended for obtaining stable pages.
+	 */
+	private static final Sort DATATABLES_SORT_TIE_BREAK = Sort.by(Order.asc("title"), Order.asc("id")); //$NON-NLS-1$ //$NON-NLS-2$
+
 	private PublicationService publicationService;
 
 	private JournalService journalService;
 
 	private JournalPaperService journalPaperService;
 
+	private ExportJobManager exportJobManager;
+
+	private DataVersionTracker dataVersionTracker;
+
 	/** Constructor for injector.
 	 * This constructor is defined for being invoked by the IOC injector.
 	 *
@@ -80,17 +123,23 @@ public class PublicationExportApiController extends AbstractApiController {
 	 * @param publicationService the publication service.
 	 * @param journalService the tools for manipulating journals.
 	 * @param journalPaperService the journal paper service.
+	 * @param exportJobManager the manager of the export jobs.
+	 * @param dataVersionTracker the tracker of the versions of the data, for the conditional requests.
 	 */
 	public PublicationExportApiController(
 			@Autowired MessageSourceAccessor messages,
 			@Autowired Constants constants,
 			@Autowired PublicationService publicationService,
 			@Autowired JournalService journalService,
-			@Autowired JournalPaperService journalPaperService) {
+			@Autowired JournalPaperService journalPaperService,
+			@Autowired ExportJobManager exportJobManager,
+			@Autowired DataVersionTracker dataVersionTracker) {
 		super(messages, constants);
 		this.publicationService = publicationService;
 		this.journalService = journalService;
 		this.journalPaperService = journalPaperService;
+		this.exportJobManager = exportJobManager;
+		this.dataVersionTracker = dataVersionTracker;
 	}
 
 	private <T> T export(List<Integer> identifiers, Integer dbId, String webId, Integer organization,
@@ -99,6 +148,35 @@ public class PublicationExportApiController extends AbstractApiController {
 			Boolean editButtons, Boolean deleteButtons, Boolean htmlAuthors, Boolean htmlPublicationDetails,
 			Boolean htmlTypeAndCategory, ExporterCallback<T> callback) throws Exception {
 		// Prepare the exporter
+		final ExporterConfigurator configurator = createExporterConfigurator(dbId, webId, organization, journal,
+				nameHighlight, color, downloadButtons, exportButtons, editButtons, deleteButtons, htmlAuthors,
+				htmlPublicationDetails, htmlTypeAndCategory);
+		// Get the list of publications
+		final Collection<Publication> pubs;
+		if (identifiers == null || identifiers.isEmpty()) {
+			if (dbId != null && dbId.intValue() != 0) {
+				pubs = this.publicationService.getPublicationsByPersonId(dbId.intValue());
+			} else if (!Strings.isNullOrEmpty(webId)) {
+				pubs = this.publicationService.getPublicationsByPersonWebPageId(webId);
+			} else if (organization != null) {
+				pubs = this.publicationService.getPublicationsByOrganizationId(organization.intValue(), includeSuborganizations);
+			} else if (journal != null) {
+				pubs = this.journalPaperService.getJournalPapersByJournalId(journal.intValue());
+			} else {
+				pubs = this.publicationService.getAllPublications();
+			}
+		} else {
+			pubs = this.publicationService.getPublicationsByIds(identifiers);
+		}
+		// Export
+		return callback.export(pubs, configurator);
+	}
+
+	private ExporterConfigurator createExporterConfigurator(Integer dbId, String webId, Integer organization,
+			Integer journal, Boolean nameHighlight, Boolean color,
+			Boolean downloadButtons, Boolean exportButtons, 
+			Boolean editButtons, Boolean deleteButtons, Boolean htmlAuthors, Boolean htmlPublicationDetails,
+			Boolean htmlTypeAndCategory) {
 		final ExporterConfigurator configurator = new ExporterConfigurator(this.journalService);
 		if (nameHighlight != null && !nameHighlight.booleanValue()) {
 			configurator.disableSelectedPersonFormat();
@@ -145,25 +223,7 @@ public class PublicationExportApiController extends AbstractApiController {
 		if (journal != null) {
 			configurator.addUriQueryParam(Constants.JOURNAL_ENDPOINT_PARAMETER, journal);
 		}
-		// Get the list of publications
-		final Collection<Publication> pubs;
-		if (identifiers == null || identifiers.isEmpty()) {
-			if (dbId != null && dbId.intValue() != 0) {
-				pubs = this.publicationService.getPublicationsByPersonId(dbId.intValue());
-			} else if (!Strings.isNullOrEmpty(webId)) {
-				pubs = this.publicationService.getPublicationsByPersonWebPageId(webId);
-			} else if (organization != null) {
-				pubs = this.publicationService.getPublicationsByOrganizationId(organization.intValue(), includeSuborganizations);
-			} else if (journal != null) {
-				pubs = this.journalPaperService.getJournalPapersByJournalId(journal.intValue());
-			} else {
-				pubs = this.publicationService.getAllPublications();
-			}
-		} else {
-			pubs = this.publicationService.getPublicationsByIds(identifiers);
-		}
-		// Export
-		return callback.export(pubs, configurator);
+		return configurator;
 	}
 
 	/**
@@ -188,7 +248,8 @@ public class PublicationExportApiController extends AbstractApiController {
 	 * @param color indicates if the colors are enabled for producing the HTML output. 
 	 * @param inAttachment indicates if the HTML is provided as attached document or not. By default, the value is
 	 *     {@code false}.
-	 * @return the HTML description of the publications.
+	 * @param request the HTTP request, for testing the ETag that is known by the client.
+	 * @return the HTML description of the publications, or {@code null} if the client already has the data.
 	 * @throws Exception if it is impossible to redirect to the error page.
 	 */
 	@GetMapping(value = "/" + Constants.EXPORT_HTML_ENDPOINT)
@@ -202,7 +263,12 @@ public class PublicationExportApiController extends AbstractApiController {
 			@RequestParam(required = false, defaultValue = "true") boolean includeSuborganizations,
 			@RequestParam(required = false, defaultValue = "true") Boolean nameHighlight,
 			@RequestParam(required = false, defaultValue = "true") Boolean color,
-			@RequestParam(required = false, defaultValue = "false", name = Constants.INATTACHMENT_ENDPOINT_PARAMETER) Boolean inAttachment) throws Exception {
+			@RequestParam(required = false, defaultValue = "false", name = Constants.INATTACHMENT_ENDPOINT_PARAMETER) Boolean inAttachment,
+			NativeWebRequest request) throws Exception {
+		if (this.dataVersionTracker.checkNotModified(request, null, DataScope.values())) {
+			// The status 304 is set by the request
+			return null;
+		}
 		final ExporterCallback<String> cb = (pubs, configurator) -> this.publicationService.exportHtml(pubs, configurator);
 		final String content = export(identifiers, dbId, webId, organization, journal, includeSuborganizations, nameHighlight, color,
 				Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, cb);
@@ -232,7 +298,8 @@ public class PublicationExportApiController extends AbstractApiController {
 	 *     of the sub-organizations should also be exported (if value is {@code true}), or ignored (if value is {@code false}).
 	 * @param inAttachment indicates if the BibTeX is provided as attached document or not. By default, the value is
 	 *     {@code false}.
-	 * @return the BibTeX description of the publications.
+	 * @param request the HTTP request, for testing the ETag that is known by the client.
+	 * @return the BibTeX description of the publications, or {@code null} if the client already has the data.
 	 * @throws Exception if it is impossible to redirect to the error page.
 	 */
 	@GetMapping(value = "/" + Constants.EXPORT_BIBTEX_ENDPOINT)
@@ -244,7 +311,12 @@ public class PublicationExportApiController extends AbstractApiController {
 			@RequestParam(required = false, name = Constants.ORGANIZATION_ENDPOINT_PARAMETER) Integer organization,
 			@RequestParam(required = false, name = Constants.JOURNAL_ENDPOINT_PARAMETER) Integer journal,
 			@RequestParam(required = false, defaultValue = "true") boolean includeSuborganizations,
-			@RequestParam(required = false, defaultValue = "false", name = Constants.INATTACHMENT_ENDPOINT_PARAMETER) Boolean inAttachment) throws Exception {
+			@RequestParam(required = false, defaultValue = "false", name = Constants.INATTACHMENT_ENDPOINT_PARAMETER) Boolean inAttachment,
+			NativeWebRequest request) throws Exception {
+		if (this.dataVersionTracker.checkNotModified(request, null, DataScope.values())) {
+			// The status 304 is set by the request
+			return null;
+		}
 		final ExporterCallback<String> cb = (pubs, configurator) -> this.publicationService.exportBibTeX(pubs, configurator);
 		final String content = export(identifiers, dbId, webId, organization, journal, includeSuborganizations, Boolean.FALSE, Boolean.FALSE,
 				Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, cb);
@@ -277,12 +349,14 @@ public class PublicationExportApiController extends AbstractApiController {
 	 * @param color indicates if the colors are enabled for producing the ODT output. 
 	 * @param inAttachment indicates if the ODT is provided as attached document or not. By default, the value is
 	 *     {@code false}.
-	 * @return the OpenDocument description of the publications.
+	 * @param request the HTTP request, for testing the ETag that is known by the client.
+	 * @return the OpenDocument description of the publications. The document is written directly into the
+	 *     response stream. It is {@code null} if the client already has the data.
 	 * @throws Exception if it is impossible to redirect to the error page.
 	 */
 	@GetMapping(value = "/" + Constants.EXPORT_ODT_ENDPOINT)
 	@ResponseBody
-	public ResponseEntity<byte[]> exportOpenDocumentText(
+	public ResponseEntity<StreamingResponseBody> exportOpenDocumentText(
 			@RequestParam(name = Constants.ID_ENDPOINT_PARAMETER, required = false) List<Integer> identifiers,
 			@RequestParam(required = false, name = Constants.DBID_ENDPOINT_PARAMETER) Integer dbId,
 			@RequestParam(required = false, name = Constants.WEBID_ENDPOINT_PARAMETER) String webId,
@@ -291,9 +365,27 @@ public class PublicationExportApiController extends AbstractApiController {
 			@RequestParam(required = false, defaultValue = "true") boolean includeSuborganizations,
 			@RequestParam(required = false, defaultValue = "true") Boolean nameHighlight,
 			@RequestParam(required = false, defaultValue = "true") Boolean color,
-			@RequestParam(required = false, defaultValue = "false", name = Constants.INATTACHMENT_ENDPOINT_PARAMETER) Boolean inAttachment) throws Exception {
-		final ExporterCallback<byte[]> cb = (pubs, configurator) -> this.publicationService.exportOdt(pubs, configurator);
-		final byte[] content = export(identifiers, dbId, webId, organization, journal, includeSuborganizations, nameHighlight, color,
+			@RequestParam(required = false, defaultValue = "false", name = Constants.INATTACHMENT_ENDPOINT_PARAMETER) Boolean inAttachment,
+			NativeWebRequest request) throws Exception {
+		if (this.dataVersionTracker.checkNotModified(request, null, DataScope.values())) {
+			// The status 304 is set by the request
+			return null;
+		}
+		final ExporterCallback<StreamingResponseBody> cb = (pubs, configurator) -> {
+			if (pubs == null) {
+				return null;
+			}
+			return output -> {
+				try {
+					this.publicationService.exportOdtToStream(pubs, configurator, output);
+				} catch (IOException | RuntimeException ex) {
+					throw ex;
+				} catch (Exception ex) {
+					throw new IOException(ex);
+				}
+			};
+		};
+		final StreamingResponseBody content = export(identifiers, dbId, webId, organization, journal, includeSuborganizations, nameHighlight, color,
 				Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, cb);
 		BodyBuilder bb = ResponseEntity.ok().contentType(OpenDocumentConstants.ODT_MIME_TYPE);
 		if (inAttachment != null && inAttachment.booleanValue()) {
@@ -302,6 +394,197 @@ public class PublicationExportApiController extends AbstractApiController {
 		return bb.body(content);
 	}
 
+	/**
+	 * Submit a job that exports publications to BibTeX, Open Document Text or HTML.
+	 * The job is run in background and its artifact is stored until the exported data changes.
+	 * The identical exports that are submitted for the same data are coalesced into a single job.
+	 * The reply contains the identifier of the job, that is used for obtaining the status of the job
+	 * with {@link #getExportJob(String, int)}, and its artifact with {@link #getExportJobArtifact(String, Boolean)}.
+	 * This function takes one of the following parameters:<ul>
+	 * <li>{@code identifiers}: a list of publication identifiers to export.</li>
+	 * <li>{@code organization}: the identifier of a research organization for which the publications should be exported.</li>
+	 * <li>{@code author}: the identifier of an author.</li>
+	 * <li>{@code journal}: the identifier of a journal.</li>
+	 * </ul>
+	 * <p>If both author and organization identifiers are provided, the publications of the authors are prioritized.
+	 *
+	 * @param format the name of the export format, i.e. {@code bibtex}, {@code odt} or {@code html}.
+	 * @param identifiers the array of publication identifiers that should be exported.
+	 * @param dbId the database identifier of the author for who the publications must be exported.
+	 * @param webId the webpage identifier of the author for who the publications must be exported.
+	 * @param organization the identifier of the organization for which the publications must be exported.
+	 * @param journal the identifier of the journal for which the publications must be exported.
+	 * @param includeSuborganizations if the argument {@code organization} is provided, indicates if the publications
+	 *     of the sub-organizations should also be exported (if value is {@code true}), or ignored (if value is {@code false}).
+	 * @param nameHighlight indicates if the names of the authors should be highlighted depending on their status in the organization.
+	 *     It is ignored for the BibTeX format.
+	 * @param color indicates if the colors are enabled. It is ignored for the BibTeX format.
+	 * @param wait the number of seconds to wait for the end of the job before replying.
+	 * @return the description of the job, with the status 200 if the artifact is available, 202 if the job is
+	 *     not finished, and 500 if the job has failed. The status 503 is replied if there are too many jobs.
+	 * @throws Exception if the current thread is interrupted while waiting.
+	 */
+	@PostMapping(value = "/" + Constants.SUBMIT_EXPORT_JOB_ENDPOINT)
+	@ResponseBody
+	public ResponseEntity<Map<String, Object>> submitExportJob(
+			@RequestParam(name = Constants.FORMAT_ENDPOINT_PARAMETER) String format,
+			@RequestParam(name = Constants.ID_ENDPOINT_PARAMETER, required = false) List<Integer> identifiers,
+			@RequestParam(required = false, name = Constants.DBID_ENDPOINT_PARAMETER) Integer dbId,
+			@RequestParam(required = false, name = Constants.WEBID_ENDPOINT_PARAMETER) String webId,
+			@RequestParam(required = false, name = Constants.ORGANIZATION_ENDPOINT_PARAMETER) Integer organization,
+			@RequestParam(required = false, name = Constants.JOURNAL_ENDPOINT_PARAMETER) Integer journal,
+			@RequestParam(required = false, defaultValue = "true") boolean includeSuborganizations,
+			@RequestParam(required = false, defaultValue = "true") Boolean nameHighlight,
+			@RequestParam(required = false, defaultValue = "true") Boolean color,
+			@RequestParam(required = false, defaultValue = "0", name = Constants.WAIT_ENDPOINT_PARAMETER) int wait) throws Exception {
+		final ExportFormat exportFormat;
+		try {
+			exportFormat = ExportFormat.valueOfCaseInsensitive(format);
+		} catch (IllegalArgumentException ex) {
+			return ResponseEntity.badRequest().build();
+		}
+		// The BibTeX exporter does not support the formatting options
+		final Boolean highlight = exportFormat == ExportFormat.BIBTEX ? Boolean.FALSE : nameHighlight;
+		final Boolean colors = exportFormat == ExportFormat.BIBTEX ? Boolean.FALSE : color;
+		final StringBuilder fingerprint = new StringBuilder();
+		if (identifiers != null && !identifiers.isEmpty()) {
+			fingerprint.append(Constants.ID_ENDPOINT_PARAMETER).append('=').append(new TreeSet<>(identifiers));
+		}
+		fingerprint.append('&').append(Constants.DBID_ENDPOINT_PARAMETER).append('=').append(dbId);
+		fingerprint.append('&').append(Constants.WEBID_ENDPOINT_PARAMETER).append('=').append(webId);
+		fingerprint.append('&').append(Constants.ORGANIZATION_ENDPOINT_PARAMETER).append('=').append(organization);
+		fingerprint.append('&').append(Constants.JOURNAL_ENDPOINT_PARAMETER).append('=').append(journal);
+		fingerprint.append("&includeSuborganizations=").append(includeSuborganizations); //$NON-NLS-1$
+		fingerprint.append("&nameHighlight=").append(highlight); //$NON-NLS-1$
+		fingerprint.append("&color=").append(colors); //$NON-NLS-1$
+		final ExportJobManager.ArtifactWriter writer = output -> {
+			final ExporterCallback<Void> cb = (pubs, configurator) -> {
+				writeArtifact(exportFormat, pubs, configurator, output);
+				return null;
+			};
+			export(identifiers, dbId, webId, organization, journal, includeSuborganizations, highlight, colors,
+					Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, Boolean.FALSE, cb);
+		};
+		// The memberships and the organizations are read for selecting the publications of an organization
+		// and for highlighting the names of the authors
+		final DataScope[] scopes;
+		if (organization != null || (highlight != null && highlight.booleanValue())) {
+			scopes = new DataScope[] {DataScope.PUBLICATION, DataScope.PERSON, DataScope.JOURNAL, DataScope.MEMBERSHIP, DataScope.ORGANIZATION};
+		} else {
+			scopes = new DataScope[] {DataScope.PUBLICATION, DataScope.PERSON, DataScope.JOURNAL};
+		}
+		final ExportJob job;
+		try {
+			job = this.exportJobManager.submit(exportFormat, fingerprint.toString(), writer, scopes);
+		} catch (RejectedExecutionException ex) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+		if (wait > 0) {
+			this.exportJobManager.await(job, wait);
+		}
+		return replyJob(job);
+	}
+
+	private void writeArtifact(ExportFormat format, Iterable<? extends Publication> publications,
+			ExporterConfigurator configurator, OutputStream output) throws Exception {
+		final String content;
+		switch (format) {
+		case BIBTEX:
+			content = this.publicationService.exportBibTeX(publications, configurator);
+			break;
+		case HTML:
+			content = this.publicationService.exportHtml(publications, configurator);
+			break;
+		case ODT:
+			this.publicationService.exportOdtToStream(publications, configurator, output);
+			return;
+		default:
+			throw new IllegalArgumentException(format.name());
+		}
+		if (content != null) {
+			output.write(content.getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	private static ResponseEntity<Map<String, Object>> replyJob(ExportJob job) {
+		final Map<String, Object> description = new LinkedHashMap<>();
+		description.put("id", job.getId()); //$NON-NLS-1$
+		description.put("format", job.getFormat().name().toLowerCase()); //$NON-NLS-1$
+		description.put("status", job.getStatus().name().toLowerCase()); //$NON-NLS-1$
+		description.put("dataVersion", Long.valueOf(job.getDataVersion())); //$NON-NLS-1$
+		if (job.getError() != null) {
+			description.put("error", job.getError()); //$NON-NLS-1$
+		}
+		final HttpStatus status;
+		switch (job.getStatus()) {
+		case DONE:
+			status = HttpStatus.OK;
+			break;
+		case FAILED:
+			status = HttpStatus.INTERNAL_SERVER_ERROR;
+			break;
+		case PENDING:
+		case RUNNING:
+		default:
+			status = HttpStatus.ACCEPTED;
+			break;
+		}
+		return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(description);
+	}
+
+	/**
+	 * Replies the status of a job that exports publications. The caller could wait for the end of the job.
+	 *
+	 * @param id the identifier of the job, that was replied by {@link #submitExportJob}.
+	 * @param wait the number of seconds to wait for the end of the job before replying.
+	 * @return the description of the job, with the status 200 if the artifact is available, 202 if the job is
+	 *     not finished, and 500 if the job has failed. The status 404 is replied if the job is unknown;
+	 *     the jobs are forgotten when the exported data changes.
+	 * @throws Exception if the current thread is interrupted while waiting.
+	 */
+	@GetMapping(value = "/" + Constants.GET_EXPORT_JOB_ENDPOINT)
+	@ResponseBody
+	public ResponseEntity<Map<String, Object>> getExportJob(
+			@RequestParam(name = Constants.ID_ENDPOINT_PARAMETER) String id,
+			@RequestParam(required = false, defaultValue = "0", name = Constants.WAIT_ENDPOINT_PARAMETER) int wait) throws Exception {
+		final ExportJob job = ExportJobManager.isValidJobId(id) ? this.exportJobManager.getJob(id) : null;
+		if (job == null) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+		if (wait > 0) {
+			this.exportJobManager.await(job, wait);
+		}
+		return replyJob(job);
+	}
+
+	/**
+	 * Replies the artifact of a job that exports publications.
+	 *
+	 * @param id the identifier of the job, that was replied by {@link #submitExportJob}.
+	 * @param inAttachment indicates if the artifact is provided as attached document or not. By default, the value is
+	 *     {@code false}.
+	 * @return the artifact. The status 404 is replied if the job is unknown or if its artifact is not available.
+	 * @throws IOException if the artifact cannot be read.
+	 */
+	@GetMapping(value = "/" + Constants.GET_EXPORT_JOB_ARTIFACT_ENDPOINT)
+	public ResponseEntity<Resource> getExportJobArtifact(
+			@RequestParam(name = Constants.ID_ENDPOINT_PARAMETER) String id,
+			@RequestParam(required = false, defaultValue = "false", name = Constants.INATTACHMENT_ENDPOINT_PARAMETER) Boolean inAttachment) throws IOException {
+		final ExportJob job = ExportJobManager.isValidJobId(id) ? this.exportJobManager.getJob(id) : null;
+		final long length = job == null ? 0 : job.getArtifact().length();
+		// The artifact is not deleted before the stream is closed at the end of the download
+		final InputStream artifact = job == null ? null : job.openArtifact();
+		if (artifact == null) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+		BodyBuilder bb = ResponseEntity.ok().contentType(job.getFormat().getMediaType()).contentLength(length);
+		if (inAttachment != null && inAttachment.booleanValue()) {
+			bb = bb.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + Constants.DEFAULT_PUBLICATION_ATTACHMENT_BASENAME //$NON-NLS-1$
+					+ "." + job.getFormat().getFileExtension() + "\""); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return bb.body(new InputStreamResource(artifact));
+	}
+
 	/**
 	 * Export publications to JSON.
 	 * This function takes one of the following parameters:<ul>
@@ -333,14 +616,24 @@ public class PublicationExportApiController extends AbstractApiController {
 	 * @param inAttachment indicates if the JSON is provided as attached document or not. By default, the value is
 	 *     {@code false}.
 	 *     If the parameter {@code forAjax} is evaluated to {@code true}, this parameter is ignored.
+	 * @param offset the number of publications to skip before the first exported publication.
+	 * @param limit the maximum number of exported publications. If it is not provided or not positive,
+	 *     all the remaining publications are exported.
+	 * @param cursor the identifier of the last publication that was received by the caller. If it is provided,
+	 *     the publications are sorted by identifier and only the publications after the cursor are exported.
+	 *     The value {@code 0} starts from the first publication. If the {@code limit} is reached, the cursor for
+	 *     the next page is provided in the HTTP header {@code X-Next-Cursor}.
 	 * @param username the name of the logged-in user.
-	 * @return the JSON description of the publications.
+	 * @param request the HTTP request, for testing the ETag that is known by the client.
+	 * @return the JSON description of the publications. The publications are written directly into the response
+	 *     stream. The total number of publications is provided in the HTTP header {@code X-Total-Count}.
+	 *     It is {@code null} if the client already has the data.
 	 * @throws Exception if it is impossible to redirect to the error page.
 	 * @see #getPublicationData(String, Integer)
 	 */
 	@GetMapping(value = "/" + Constants.EXPORT_JSON_ENDPOINT)
 	@ResponseBody
-	public ResponseEntity<String> exportJson(
+	public ResponseEntity<StreamingResponseBody> exportJson(
 			@RequestParam(name = Constants.ID_ENDPOINT_PARAMETER, required = false) List<Integer> identifiers,
 			@RequestParam(required = false, name = Constants.DBID_ENDPOINT_PARAMETER) Integer dbId,
 			@RequestParam(required = false, name = Constants.WEBID_ENDPOINT_PARAMETER) String webId,
@@ -349,25 +642,209 @@ public class PublicationExportApiController extends AbstractApiController {
 			@RequestParam(required = false, defaultValue = "true") boolean includeSuborganizations,
 			@RequestParam(required = false, defaultValue = "false", name = Constants.FORAJAX_ENDPOINT_PARAMETER) Boolean forAjax,
 			@RequestParam(required = false, defaultValue = "false", name = Constants.INATTACHMENT_ENDPOINT_PARAMETER) Boolean inAttachment,
-			@CookieValue(name = "labmanager-user-id", defaultValue = Constants.ANONYMOUS) String username) throws Exception {
+			@RequestParam(required = false, defaultValue = "0", name = Constants.OFFSET_ENDPOINT_PARAMETER) int offset,
+			@RequestParam(required = false, defaultValue = "0", name = Constants.LIMIT_ENDPOINT_PARAMETER) int limit,
+			@RequestParam(required = false, name = Constants.CURSOR_ENDPOINT_PARAMETER) Integer cursor,
+			@CookieValue(name = "labmanager-user-id", defaultValue = Constants.ANONYMOUS) String username,
+			NativeWebRequest request) throws Exception {
 		readCredentials(username);
 		final Boolean isLoggedIn = Boolean.valueOf(isLoggedIn());
+		// The buttons in the JSON depend on the credentials
+		if (this.dataVersionTracker.checkNotModified(request, isLoggedIn.toString(), DataScope.values())) {
+			// The status 304 is set by the request
+			return null;
+		}
 		final boolean isAjax = forAjax != null && forAjax.booleanValue();
 		final Boolean isAjaxObj = Boolean.valueOf(isAjax);
 		final boolean isAttachment = !isAjax && inAttachment != null && inAttachment.booleanValue();
-		final ExporterCallback<String> cb = (pubs, configurator) -> {
-			if (isAjax) {
-				return this.publicationService.exportJson(pubs, configurator, "data"); //$NON-NLS-1$
+		final String[] rootKeys = isAjax ? new String[] {"data"} : new String[0]; //$NON-NLS-1$
+		final ExporterCallback<ResponseEntity<StreamingResponseBody>> cb = (pubs, configurator) -> {
+			final int total = count(pubs);
+			// One more publication is extracted for detecting if there is a next page
+			final List<Publication> extract = extractPage(pubs, offset, limit > 0 ? limit + 1 : 0, cursor);
+			final boolean hasNextPage = limit > 0 && extract.size() > limit;
+			final List<Publication> page = hasNextPage ? extract.subList(0, limit) : extract;
+			final StreamingResponseBody body = output -> {
+				try {
+					this.publicationService.exportJsonToStream(page, configurator, output, rootKeys);
+				} catch (IOException | RuntimeException ex) {
+					throw ex;
+				} catch (Exception ex) {
+					throw new IOException(ex);
+				}
+			};
+			BodyBuilder bb = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+			bb = bb.header(Constants.TOTAL_COUNT_HTTP_HEADER, Integer.toString(total));
+			if (cursor != null && hasNextPage) {
+				bb = bb.header(Constants.NEXT_CURSOR_HTTP_HEADER, Integer.toString(page.get(page.size() - 1).getId()));
+			}
+			if (isAttachment) {
+				bb = bb.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + Constants.DEFAULT_PUBLICATION_ATTACHMENT_BASENAME + ".json\""); //$NON-NLS-1$ //$NON-NLS-2$
 			}
-			return this.publicationService.exportJson(pubs, configurator);
+			return bb.body(body);
 		};
-		final String content = export(identifiers, dbId, webId, organization, journal, includeSuborganizations, isAjaxObj, Boolean.FALSE,
+		return export(identifiers, dbId, webId, organization, journal, includeSuborganizations, isAjaxObj, Boolean.FALSE,
 				isAjaxObj, isAjaxObj, isLoggedIn, isLoggedIn, isAjaxObj, isAjaxObj, isAjaxObj, cb);
-		BodyBuilder bb = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
-		if (isAttachment) {
-			bb = bb.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + Constants.DEFAULT_PUBLICATION_ATTACHMENT_BASENAME + ".json\""); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static int count(Iterable<? extends Publication> publications) {
+		if (publications instanceof Collection) {
+			return ((Collection<?>) publications).size();
+		}
+		int count = 0;
+		final Iterator<? extends Publication> iterator = publications.iterator();
+		while (iterator.hasNext()) {
+			iterator.next();
+			++count;
+		}
+		return count;
+	}
+
+	/** Extract a page of publications.
+	 *
+	 * @param publications the publications.
+	 * @param offset the number of publications to skip.
+	 * @param limit the maximum number of publications in the page. If it is not positive, there is no limit.
+	 * @param cursor the identifier of the last publication of the previous page, or {@code null} if the
+	 *     publications are not accessed with a cursor.
+	 * @return the publications in the page.
+	 */
+	private static List<Publication> extractPage(Iterable<? extends Publication> publications, int offset, int limit, Integer cursor) {
+		Stream<Publication> stream = StreamSupport.stream(publications.spliterator(), false).map(Publication.class::cast);
+		if (cursor != null) {
+			final int lastId = cursor.intValue();
+			stream = stream.filter(it -> it.getId() > lastId).sorted(Comparator.comparingInt(Publication::getId));
+		}
+		if (offset > 0) {
+			stream = stream.skip(offset);
+		}
+		if (limit > 0) {
+			stream = stream.limit(limit);
+		}
+		return stream.collect(Collectors.toList());
+	}
+
+	/**
+	 * Export a page of publications to JSON for a DataTables table that is configured for server-side processing.
+	 * The selection, the filtering, the sorting and the paging of the publications are done by the database.
+	 * The scope of the publications is defined by one of the following parameters:<ul>
+	 * <li>{@code organization}: the identifier of a research organization for which the publications should be exported.</li>
+	 * <li>{@code dbId} or {@code webId}: the identifier of an author.</li>
+	 * <li>{@code journal}: the identifier of a journal.</li>
+	 * </ul>
+	 * <p>If both author and organization identifiers are provided, the publications of the authors are prioritized.
+	 * <p>The DataTables parameters {@code draw}, {@code start}, {@code length}, {@code search[value]},
+	 * {@code order[i][column]}, {@code order[i][dir]} and {@code columns[i][data]} are supported.
+	 * The sortable columns are {@code title}, {@code year} and {@code category}.
+	 * The global search value is searched in the titles, the keywords, the abstracts and the names of the authors.
+	 * <p>The reply contains the DataTables keys {@code draw}, {@code recordsTotal}, {@code recordsFiltered}
+	 * and {@code data}. The publications in {@code data} have the same format as with {@link #exportJson(List, Integer, String, Integer, Integer, boolean, Boolean, Boolean, int, int, Integer, String, NativeWebRequest)}.
+	 *
+	 * @param dbId the database identifier of the author for who the publications must be exported.
+	 * @param webId the webpage identifier of the author for who the publications must be exported.
+	 * @param organization the identifier of the organization for which the publications must be exported.
+	 * @param journal the identifier of the journal for which the publications must be exported.
+	 * @param includeSuborganizations if the argument {@code organization} is provided, indicates if the publications
+	 *     of the sub-organizations should also be exported (if value is {@code true}), or ignored (if value is {@code false}).
+	 * @param year the year of publication that is used for filtering the publications.
+	 * @param types the names of the publication types that are used for filtering the publications.
+	 * @param author the identifier of an author that is used for filtering the publications.
+	 * @param allParameters all the parameters of the request, including the DataTables parameters.
+	 * @param username the name of the logged-in user.
+	 * @return the JSON description of the page of publications, or a bad request status if a type is unknown.
+	 * @throws Exception if it is impossible to redirect to the error page.
+	 */
+	@GetMapping(value = "/" + Constants.EXPORT_JSON_FOR_DATATABLES_ENDPOINT)
+	@ResponseBody
+	public ResponseEntity<JsonNode> exportJsonForDataTables(
+			@RequestParam(required = false, name = Constants.DBID_ENDPOINT_PARAMETER) Integer dbId,
+			@RequestParam(required = false, name = Constants.WEBID_ENDPOINT_PARAMETER) String webId,
+			@RequestParam(required = false, name = Constants.ORGANIZATION_ENDPOINT_PARAMETER) Integer organization,
+			@RequestParam(required = false, name = Constants.JOURNAL_ENDPOINT_PARAMETER) Integer journal,
+			@RequestParam(required = false, defaultValue = "true") boolean includeSuborganizations,
+			@RequestParam(required = false, name = Constants.YEAR_ENDPOINT_PARAMETER) Integer year,
+			@RequestParam(required = false, name = Constants.TYPE_ENDPOINT_PARAMETER) List<String> types,
+			@RequestParam(required = false, name = Constants.AUTHOR_ENDPOINT_PARAMETER) Integer author,
+			@RequestParam Map<String, String> allParameters,
+			@CookieValue(name = "labmanager-user-id", defaultValue = Constants.ANONYMOUS) String username) throws Exception {
+		readCredentials(username);
+		final Boolean isLoggedIn = Boolean.valueOf(isLoggedIn());
+		final ExporterConfigurator configurator = createExporterConfigurator(dbId, webId, organization, journal,
+				Boolean.TRUE, Boolean.FALSE, Boolean.TRUE, Boolean.TRUE, isLoggedIn, isLoggedIn,
+				Boolean.TRUE, Boolean.TRUE, Boolean.TRUE);
+		// Scope of the publications
+		final Specification<Publication> scope;
+		if (dbId != null && dbId.intValue() != 0) {
+			scope = PublicationSpecifications.hasAuthor(dbId.intValue());
+		} else if (!Strings.isNullOrEmpty(webId)) {
+			scope = PublicationSpecifications.hasAuthorWithWebPageId(webId);
+		} else if (organization != null) {
+			scope = this.publicationService.getPublicationsByOrganizationIdFilter(organization.intValue(), includeSuborganizations);
+		} else if (journal != null) {
+			scope = PublicationSpecifications.isPublishedInJournal(journal.intValue());
+		} else {
+			scope = null;
+		}
+		// Filters
+		final DataTablesRequest request = new DataTablesRequest(allParameters, PublicationExportApiController::getSortableProperty);
+		Specification<Publication> filter = Specification.where(scope);
+		boolean isFiltered = false;
+		if (year != null) {
+			filter = filter.and(PublicationSpecifications.isPublishedIn(year.intValue()));
+			isFiltered = true;
+		}
+		if (types != null && !types.isEmpty()) {
+			final Set<PublicationType> typeSet;
+			try {
+				typeSet = types.stream()
+						.filter(it -> !Strings.isNullOrEmpty(it))
+						.map(PublicationType::valueOfCaseInsensitive)
+						.collect(Collectors.toCollection(() -> EnumSet.noneOf(PublicationType.class)));
+			} catch (IllegalArgumentException ex) {
+				return ResponseEntity.badRequest().build();
+			}
+			filter = filter.and(PublicationSpecifications.hasTypeIn(typeSet));
+			isFiltered = true;
+		}
+		if (author != null && author.intValue() != 0) {
+			filter = filter.and(PublicationSpecifications.hasAuthor(author.intValue()));
+			isFiltered = true;
+		}
+		final Specification<Publication> textFilter = PublicationSpecifications.containsText(request.getSearch());
+		if (textFilter != null) {
+			filter = filter.and(textFilter);
+			isFiltered = true;
+		}
+		// Query
+		final Page<Publication> page = this.publicationService.getPublications(filter,
+				request.toPageable(DEFAULT_DATATABLES_SORT, DATATABLES_SORT_TIE_BREAK));
+		final long total = isFiltered ? this.publicationService.countPublications(scope) : page.getTotalElements();
+		// Export
+		final ObjectNode root = (ObjectNode) this.publicationService.exportJsonAsTree(page.getContent(), configurator, null, "data"); //$NON-NLS-1$
+		root.put("draw", request.getDraw()); //$NON-NLS-1$
+		root.put("recordsTotal", total); //$NON-NLS-1$
+		root.put("recordsFiltered", page.getTotalElements()); //$NON-NLS-1$
+		return ResponseEntity.ok(root);
+	}
+
+	/** Replies the name of the publication property that corresponds to the given DataTables column.
+	 *
+	 * @param column the name of the column, i.e., the {@code data} attribute of the column.
+	 * @return the name of the property, or {@code null} if the column cannot be sorted by the database.
+	 */
+	private static String getSortableProperty(String column) {
+		switch (column) {
+		case "title": //$NON-NLS-1$
+			return "title"; //$NON-NLS-1$
+		case "year": //$NON-NLS-1$
+		case "publicationYear": //$NON-NLS-1$
+			return "publicationYear"; //$NON-NLS-1$
+		case "category": //$NON-NLS-1$
+		case "type": //$NON-NLS-1$
+			return "type"; //$NON-NLS-1$
+		default:
+			return null;
 		}
-		return bb.body(content);
 	}
 
 	/** Read a BibTeX file and replies the publications as JSON.
@@ -408,8 +885,10 @@ public class PublicationExportApiController extends AbstractApiController {
 	}
 
 	private void checkDuplicates(Publication publication, ObjectNode json) {
-		final List<Publication> candidates = this.publicationService.getPublicationsByTitle(publication.getTitle());
+		final List<Publication> candidates = this.publicationService.getDuplicateCandidates(publication);
 		if (!candidates.isEmpty()) {
+			final String doiKey = PublicationDuplicateIndex.normalizeDoi(publication.getDOI());
+			final String halIdKey = PublicationDuplicateIndex.normalizeHalId(publication.getHalId());
 			final int year0 = publication.getPublicationYear();
 			final String title0 = normalizeForSimularityTest(publication.getTitle());
 			final String doi0 = normalizeForSimularityTest(publication.getDOI());
@@ -421,7 +900,10 @@ public class PublicationExportApiController extends AbstractApiController {
 				final String doi1 = normalizeForSimularityTest(candidate.getDOI());
 				final String issn1 = normalizeForSimularityTest(candidate.getISSN());
 				final String target1 = normalizeForSimularityTest(candidate.getPublicationTarget());
-				if (isSimilarWithoutNormalization(
+				// Same DOI or same HAL identifier is enough for detecting the duplicate
+				if ((doiKey != null && doiKey.equals(candidate.getDoiKey()))
+						|| (halIdKey != null && halIdKey.equals(candidate.getHalIdKey()))
+						|| isSimilarWithoutNormalization(
 						year0, title0, doi0, issn0, target0,
 						year1, title1, doi1, issn1, target1)) {
 					json.set(JsonTool.HIDDEN_INTERNAL_DATA_SOURCE_ID_KEY, json.numberNode(candidate.getId()));
@@ -0,0 +1,153 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+package fr.ciadlab.labmanager.controller.api.publication;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import fr.ciadlab.labmanager.configuration.Constants;
+import fr.ciadlab.labmanager.controller.api.AbstractApiController;
+import fr.ciadlab.labmanager.entities.publication.PublicationType;
+import fr.ciadlab.labmanager.service.DataScope;
+import fr.ciadlab.labmanager.service.DataVersionTracker;
+import fr.ciadlab.labmanager.service.publication.search.PublicationSearchIndex;
+import fr.ciadlab.labmanager.service.publication.search.PublicationSearchResult;
+import org.apache.jena.ext.com.google.common.base.Strings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.support.MessageSourceAccessor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+
+/** REST Controller for the full-text search of the publications.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ * @see PublicationSearchIndex
+ */
+@RestController
+@CrossOrigin
+public class PublicationSearchApiController extends AbstractApiController {
+
+	private static final int DEFAULT_LIMIT = 20;
+
+	private final PublicationSearchIndex searchIndex;
+
+	private final DataVersionTracker dataVersionTracker;
+
+	/** Constructor for injector.
+	 * This constructor is defined for being invoked by the IOC injector.
+	 *
+	 * @param messages the provider of messages.
+	 * @param constants the constants of the app.
+	 * @param searchIndex the full-text index of the publications.
+	 * @param dataVersionTracker the tracker of the versions of the data, for the conditional requests.
+	 */
+	public PublicationSearchApiController(
+			@Autowired MessageSourceAccessor messages,
+			@Autowired Constants constants,
+			@Autowired PublicationSearchIndex searchIndex,
+			@Autowired DataVersionTracker dataVersionTracker) {
+		super(messages, constants);
+		this.searchIndex = searchIndex;
+		this.dataVersionTracker = dataVersionTracker;
+	}
+
+	/** Search for the publications that contain all the given words in their titles, abstracts, keywords,
+	 * names of authors, or names of journals or conferences. The reply contains:<ul>
+	 * <li>{@code total}: the total number of matching publications;</li>
+	 * <li>{@code publications}: the page of matching publications, sorted by decreasing relevance;</li>
+	 * <li>{@code facets}: the numbers of matching publications per {@code years}, {@code types} and
+	 *     {@code organizations}. The facets are not restricted to the page of publications.</li>
+	 * </ul>
+	 *
+	 * @param query the words to search for.
+	 * @param year the year of the publications to reply. If it is not provided, all the years are considered.
+	 * @param type the name of the type of the publications to reply. If it is not provided, all the types are considered.
+	 * @param organization the identifier of an organization of the authors of the publications to reply.
+	 *     If it is not provided, all the organizations are considered.
+	 * @param offset the number of matching publications to skip before the first replied publication.
+	 * @param limit the maximum number of replied publications.
+	 * @param request the HTTP request, for testing the ETag that is known by the client.
+	 * @return the matching publications and the facets, or {@code null} if the client already has the data,
+	 *     or a bad request status if the type is unknown.
+	 */
+	@GetMapping(value = "/" + Constants.SEARCH_PUBLICATIONS_ENDPOINT, produces = "application/json; charset=UTF-8")
+	@ResponseBody
+	public ResponseEntity<Map<String, Object>> searchPublications(
+			@RequestParam(required = true, name = Constants.QUERY_ENDPOINT_PARAMETER) String query,
+			@RequestParam(required = false, name = Constants.YEAR_ENDPOINT_PARAMETER) Integer year,
+			@RequestParam(required = false, name = Constants.TYPE_ENDPOINT_PARAMETER) String type,
+			@RequestParam(required = false, name = Constants.ORGANIZATION_ENDPOINT_PARAMETER) Integer organization,
+			@RequestParam(required = false, defaultValue = "0", name = Constants.OFFSET_ENDPOINT_PARAMETER) int offset,
+			@RequestParam(required = false, defaultValue = "" + DEFAULT_LIMIT, name = Constants.LIMIT_ENDPOINT_PARAMETER) int limit,
+			NativeWebRequest request) {
+		final PublicationType typeObj;
+		try {
+			typeObj = Strings.isNullOrEmpty(type) ? null : PublicationType.valueOfCaseInsensitive(type);
+		} catch (IllegalArgumentException ex) {
+			return ResponseEntity.badRequest().build();
+		}
+		if (this.dataVersionTracker.checkNotModified(request, null, DataScope.values())) {
+			// The status 304 is set by the request
+			return null;
+		}
+		final PublicationSearchResult result = this.searchIndex.search(query, year, typeObj, organization,
+				offset, limit > 0 ? limit : DEFAULT_LIMIT);
+
+		final List<Map<String, Object>> publications = new ArrayList<>();
+		for (final PublicationSearchResult.Hit hit : result.getHits()) {
+			final Map<String, Object> publication = new LinkedHashMap<>();
+			publication.put("id", Integer.valueOf(hit.getId())); //$NON-NLS-1$
+			publication.put("title", hit.getTitle()); //$NON-NLS-1$
+			publication.put("year", Integer.valueOf(hit.getYear())); //$NON-NLS-1$
+			publication.put("type", hit.getType()); //$NON-NLS-1$
+			publication.put("target", hit.getTarget()); //$NON-NLS-1$
+			publication.put("authors", hit.getAuthors()); //$NON-NLS-1$
+			publication.put("score", Double.valueOf(hit.getScore())); //$NON-NLS-1$
+			publications.add(publication);
+		}
+
+		final List<Map<String, Object>> organizations = new ArrayList<>();
+		for (final Map.Entry<Integer, Integer> facet : result.getOrganizationFacets().entrySet()) {
+			final Map<String, Object> organizationFacet = new LinkedHashMap<>();
+			organizationFacet.put("id", facet.getKey()); //$NON-NLS-1$
+			organizationFacet.put("name", result.getOrganizationName(facet.getKey().intValue())); //$NON-NLS-1$
+			organizationFacet.put("count", facet.getValue()); //$NON-NLS-1$
+			organizations.add(organizationFacet);
+		}
+		final Map<String, Object> facets = new LinkedHashMap<>();
+		facets.put("years", result.getYearFacets()); //$NON-NLS-1$
+		facets.put("types", result.getTypeFacets()); //$NON-NLS-1$
+		facets.put("organizations", organizations); //$NON-NLS-1$
+
+		final Map<String, Object> reply = new LinkedHashMap<>();
+		reply.put("total", Integer.valueOf(result.getTotal())); //$NON-NLS-1$
+		reply.put("publications", publications); //$NON-NLS-1$
+		reply.put("facets", facets); //$NON-NLS-1$
+		return ResponseEntity.ok(reply);
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.controller.api.publication;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import fr.ciadlab.labmanager.configuration.Constants;
+import fr.ciadlab.labmanager.controller.api.AbstractApiController;
+import fr.ciadlab.labmanager.io.filemanager.ThumbnailSize;
+import fr.ciadlab.labmanager.io.filemanager.ThumbnailStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.support.MessageSourceAccessor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/** REST Controller for the pictures of the downloadable PDF files.
+ * The pictures are identified by the hash of their PDF files; because their content never changes,
+ * they are replied with a strong ETag and an immutable cache control.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ * @see ThumbnailStore
+ */
+@RestController
+@CrossOrigin
+public class ThumbnailApiController extends AbstractApiController {
+
+	private static final long CACHE_DURATION_DAYS = 365;
+
+	private static final String IMMUTABLE_CACHE_DIRECTIVE = ", immutable"; //$NON-NLS-1$
+
+	private final ThumbnailStore thumbnailStore;
+
+	/** Constructor for injector.
+	 * This constructor is defined for being invoked by the IOC injector.
+	 *
+	 * @param messages the provider of messages.
+	 * @param constants the constants of the app.
+	 * @param thumbnailStore the store of the pictures.
+	 */
+	public ThumbnailApiController(
+			@Autowired MessageSourceAccessor messages,
+			@Autowired Constants constants,
+			@Autowired ThumbnailStore thumbnailStore) {
+		super(messages, constants);
+		this.thumbnailStore = thumbnailStore;
+	}
+
+	/** Reply the picture with the given hash and size.
+	 *
+	 * @param hash the hash of the PDF file.
+	 * @param size the name of the size of the picture.
+	 * @param request the HTTP request, for testing the ETag that is known by the client.
+	 * @return the picture, or {@code null} if the client already has the picture.
+	 */
+	@GetMapping(value = "/" + Constants.THUMBNAIL_ENDPOINT + "/{hash}/{size}")
+	public ResponseEntity<Resource> thumbnail(
+			@PathVariable String hash,
+			@PathVariable String size,
+			WebRequest request) {
+		final ThumbnailSize thumbnailSize;
+		try {
+			thumbnailSize = ThumbnailSize.valueOfCaseInsensitive(size);
+		} catch (IllegalArgumentException ex) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+		if (!ThumbnailStore.isValidHash(hash)) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+		final String etag = "\"" + hash + "-" + thumbnailSize.getFilenamePart() + "\""; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		if (request.checkNotModified(etag)) {
+			// The status 304 is set by the request
+			return null;
+		}
+		final File file = this.thumbnailStore.getThumbnailFile(hash, thumbnailSize);
+		if (!file.isFile()) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+		final String cacheControl = CacheControl.maxAge(CACHE_DURATION_DAYS, TimeUnit.DAYS).cachePublic().getHeaderValue()
+				+ IMMUTABLE_CACHE_DIRECTIVE;
+		return ResponseEntity.ok()
+				.contentType(MediaType.IMAGE_JPEG)
+				.eTag(etag)
+				.header(HttpHeaders.CACHE_CONTROL, cacheControl)
+				.body(new FileSystemResource(file));
+	}
+
+}
@@ -46,6 +46,7 @@ import fr.ciadlab.labmanager.service.journal.JournalService;
 import fr.ciadlab.labmanager.service.member.PersonService;
 import fr.ciadlab.labmanager.service.organization.ResearchOrganizationService;
 import fr.ciadlab.labmanager.service.publication.PublicationService;
+import fr.ciadlab.labmanager.service.publication.PublicationStatsCube;
 import fr.ciadlab.labmanager.utils.RequiredFieldInForm;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jena.ext.com.google.common.base.Strings;
@@ -86,6 +87,8 @@ public class PublicationViewController extends AbstractViewController {
 
 	private JournalService journalService;
 
+	private PublicationStatsCube statsCube;
+
 	/** Constructor for injector.
 	 * This constructor is defined for being invoked by the IOC injector.
 	 *
@@ -97,6 +100,7 @@ public class PublicationViewController extends AbstractViewController {
 	 * @param personComparator the comparator of persons.
 	 * @param fileManager the manager of local files.
 	 * @param journalService the tools for manipulating journals.
+	 * @param statsCube the numbers of publications per author and year.
 	 */
 	public PublicationViewController(
 			@Autowired MessageSourceAccessor messages,
@@ -106,7 +110,8 @@ public class PublicationViewController extends AbstractViewController {
 			@Autowired ResearchOrganizationService organizationService,
 			@Autowired PersonComparator personComparator,
 			@Autowired DownloadableFileManager fileManager,
-			@Autowired JournalService journalService) {
+			@Autowired JournalService journalService,
+			@Autowired PublicationStatsCube statsCube) {
 		super(messages, constants);
 		this.publicationService = publicationService;
 		this.personService = personService;
@@ -114,6 +119,7 @@ public class PublicationViewController extends AbstractViewController {
 		this.personComparator = personComparator;
 		this.fileManager = fileManager;
 		this.journalService = journalService;
+		this.statsCube = statsCube;
 	}
 
 	/** Replies the model-view component for managing the publications.
@@ -166,6 +172,9 @@ public class PublicationViewController extends AbstractViewController {
 	 * @param enableYearFilter indicates if the filter dedicated to years is enabled.
 	 * @param enableTypeFilter indicates if the filter dedicated to types/categories is enabled.
 	 * @param enableAuthorFilter indicates if the filter dedicated to authors is enabled.
+	 * @param serverSide indicates if the filtering, the sorting and the paging of the publications are done
+	 *     by the server instead of the browser. It is recommended for large lists of publications. If it is enabled,
+	 *     the filter boxes are replaced by filter controls whose values are sent to the server.
 	 * @param username the name of the logged-in user.
 	 * @return the model-view of the list of publications.
 	 * @see #showBackPublicationList()
@@ -185,6 +194,7 @@ public class PublicationViewController extends AbstractViewController {
 			@RequestParam(required = false, defaultValue = "true") boolean enableYearFilter,
 			@RequestParam(required = false, defaultValue = "true") boolean enableTypeFilter,
 			@RequestParam(required = false, defaultValue = "true") boolean enableAuthorFilter,
+			@RequestParam(required = false, defaultValue = "false") boolean serverSide,
 			@CookieValue(name = "labmanager-user-id", defaultValue = Constants.ANONYMOUS) String username) {
 		readCredentials(username);
 		final ModelAndView modelAndView = new ModelAndView("showPublications"); //$NON-NLS-1$
@@ -204,9 +214,13 @@ public class PublicationViewController extends AbstractViewController {
 			organizationIdObj = null;
 		}
 		//
-		addUrlToPublicationListEndPoint(modelAndView, dbId, webId, organizationIdObj, journal);
+		addUrlToPublicationListEndPoint(modelAndView, dbId, webId, organizationIdObj, journal, serverSide);
 		//
-		modelAndView.addObject("enableFilters", Boolean.valueOf(enableFilters)); //$NON-NLS-1$
+		modelAndView.addObject("serverSide", Boolean.valueOf(serverSide)); //$NON-NLS-1$
+		// The filter boxes need all the publications on the client side; they are replaced by server-side filters
+		final boolean filters = enableFilters && !serverSide;
+		modelAndView.addObject("enableFilters", Boolean.valueOf(filters)); //$NON-NLS-1$
+		modelAndView.addObject("enableServerFilters", Boolean.valueOf(enableFilters && serverSide)); //$NON-NLS-1$
 		modelAndView.addObject("enableYearFilter", Boolean.valueOf(enableYearFilter)); //$NON-NLS-1$
 		modelAndView.addObject("enableTypeFilter", Boolean.valueOf(enableTypeFilter)); //$NON-NLS-1$
 		modelAndView.addObject("enableAuthorFilter", Boolean.valueOf(enableAuthorFilter)); //$NON-NLS-1$
@@ -274,28 +288,30 @@ public class PublicationViewController extends AbstractViewController {
 		final ModelAndView modelAndView = new ModelAndView("showPublicationStats"); //$NON-NLS-1$
 		initModelViewWithInternalProperties(modelAndView);
 
-		final List<Publication> publications;
+		final int personId;
 		if (dbId != null && dbId.intValue() != 0) {
-			publications = this.publicationService.getPublicationsByPersonId(dbId.intValue());
+			personId = dbId.intValue();
 		} else if (!Strings.isNullOrEmpty(webId)) {
-			publications = this.publicationService.getPublicationsByPersonWebPageId(webId);
+			final Person person = this.personService.getPersonByWebPageId(webId);
+			personId = person == null ? -1 : person.getId();
 		} else {
-			publications = this.publicationService.getAllPublications();
+			personId = 0;
 		}
 
 		final Map<Integer, PublicationsStat> statsPerYear = new TreeMap<>();
 		final PublicationsStat globalStats = new PublicationsStat(Integer.MIN_VALUE);
 
-		for (final Publication p : publications) {
-			final Integer y = Integer.valueOf(p.getPublicationYear());
-			if (annual) {
-				final PublicationsStat stats = statsPerYear.computeIfAbsent(y,
-						it -> new PublicationsStat(it.intValue()));
-				stats.increment(p.getType(), p.isRanked(), 1);
-			}
-			if (global) {
-				globalStats.increment(p.getType(), p.isRanked(), 1);
-			}
+		if (personId >= 0) {
+			this.statsCube.forEachCount(personId, (year, type, ranked, count) -> {
+				if (annual) {
+					final PublicationsStat stats = statsPerYear.computeIfAbsent(Integer.valueOf(year),
+							it -> new PublicationsStat(it.intValue()));
+					stats.increment(type, ranked, count);
+				}
+				if (global) {
+					globalStats.increment(type, ranked, count);
+				}
+			});
 		}
 
 		modelAndView.addObject("stats", statsPerYear); //$NON-NLS-1$
@@ -482,14 +498,23 @@ public class PublicationViewController extends AbstractViewController {
 	 * @param webId the webpage identifier of the author for who the publications must be exported.
 	 * @param organization the identifier of the organization for which the publications must be exported.
 	 * @param journal the identifier of the journal for which the publications must be exported.
+	 * @param serverSide indicates if the URL is the endpoint for the server-side processing of the DataTables
+	 *     tables, or the endpoint that replies all the publications at once.
 	 */
 	protected void addUrlToPublicationListEndPoint(ModelAndView modelAndView, Integer dbId, String webId,
-			Integer organization, Integer journal) {
+			Integer organization, Integer journal, boolean serverSide) {
 		final StringBuilder path = new StringBuilder();
-		path.append("/").append(getApplicationConstants().getServerName()).append("/").append(Constants.EXPORT_JSON_ENDPOINT); //$NON-NLS-1$ //$NON-NLS-2$
+		path.append("/").append(getApplicationConstants().getServerName()).append("/"); //$NON-NLS-1$ //$NON-NLS-2$
+		if (serverSide) {
+			path.append(Constants.EXPORT_JSON_FOR_DATATABLES_ENDPOINT);
+		} else {
+			path.append(Constants.EXPORT_JSON_ENDPOINT);
+		}
 		UriBuilder uriBuilder = this.uriBuilderFactory.builder();
 		uriBuilder = uriBuilder.path(path.toString());
-		uriBuilder = uriBuilder.queryParam(Constants.FORAJAX_ENDPOINT_PARAMETER, Boolean.TRUE);
+		if (!serverSide) {
+			uriBuilder = uriBuilder.queryParam(Constants.FORAJAX_ENDPOINT_PARAMETER, Boolean.TRUE);
+		}
 		if (organization != null && organization.intValue() != 0) {
 			uriBuilder = uriBuilder.queryParam(Constants.ORGANIZATION_ENDPOINT_PARAMETER, organization);
 		}
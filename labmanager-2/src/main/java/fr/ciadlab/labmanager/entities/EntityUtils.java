@@ -17,6 +17,13 @@
 package fr.ciadlab.labmanager.entities;
 
 import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import fr.ciadlab.labmanager.entities.journal.JournalComparator;
 import fr.ciadlab.labmanager.entities.member.MembershipComparator;
@@ -27,7 +34,6 @@ import fr.ciadlab.labmanager.entities.organization.ResearchOrganizationComparato
 import fr.ciadlab.labmanager.entities.publication.PublicationComparator;
 import fr.ciadlab.labmanager.entities.publication.SorensenDicePublicationComparator;
 import info.debatty.java.stringsimilarity.SorensenDice;
-import info.debatty.java.stringsimilarity.interfaces.NormalizedStringSimilarity;
 
 /** Tools and configuration for the JPA entities.
  * 
@@ -68,7 +74,11 @@ public final class EntityUtils {
 
 	private static JournalComparator JOURNAL_COMPARATOR; 
 
-	private static final NormalizedStringSimilarity SIMILARITY_COMPUTER = new SorensenDice();
+	private static final SorensenDice SIMILARITY_COMPUTER = new SorensenDice();
+
+	private static final String WHOLE_STRING_PREFIX = "="; //$NON-NLS-1$
+
+	private static final double EPSILON = 1e-9;
 
 	private EntityUtils() {
 		//
@@ -298,4 +308,88 @@ public final class EntityUtils {
 		return SIMILARITY_COMPUTER.similarity(a, b) >= SIMILARITY;
 	}
 
+	/** Replies the candidates for the similarity of the given strings.
+	 * The strings are supposed to be normalized with {@link #normalizeForSimularityTest(String)}.
+	 * For each string at index {@code i}, the replied set contains the indexes {@code j > i} of the strings
+	 * that may be similar to the string {@code i} in the sense of {@link #isSimilarWithoutNormalization(String, String)}.
+	 * Two strings that are similar are always in the candidates; but the candidates must be verified with
+	 * {@link #isSimilarWithoutNormalization(String, String)}.
+	 * <p>The candidates are determined with a prefix-filtering on the 3-grams of the strings:
+	 * two 3-gram sets with a Sorensen-Dice similarity greater than or equal to the similarity level
+	 * share at least one 3-gram within their "prefixes", when the 3-grams are sorted from the
+	 * rarest to the most frequent. A {@code null} string is a candidate for all the other strings.
+	 *
+	 * @param normalizedStrings the normalized strings.
+	 * @return for each string, the indexes of the following strings that are candidates for similarity.
+	 * @since 2.0.0
+	 * @see #isSimilarWithoutNormalization(String, String)
+	 */
+	public static BitSet[] getSimilarityCandidates(List<String> normalizedStrings) {
+		final int size = normalizedStrings.size();
+		final List<String[]> shingles = new ArrayList<>(size);
+		final Map<String, Integer> frequencies = new HashMap<>();
+		for (final String str : normalizedStrings) {
+			if (str != null) {
+				final String[] strShingles = SIMILARITY_COMPUTER.getProfile(str).keySet().toArray(new String[0]);
+				for (final String shingle : strShingles) {
+					frequencies.merge(shingle, Integer.valueOf(1), (a, b) -> Integer.valueOf(a.intValue() + b.intValue()));
+				}
+				shingles.add(strShingles);
+			} else {
+				shingles.add(null);
+			}
+		}
+		final Comparator<String> shingleOrder = (a, b) -> {
+			final int cmp = Integer.compare(frequencies.get(a).intValue(), frequencies.get(b).intValue());
+			if (cmp != 0) {
+				return cmp;
+			}
+			return a.compareTo(b);
+		};
+		// Sorensen-Dice similarity s implies the Jaccard similarity s / (2 - s)
+		final double jaccardThreshold = SIMILARITY / (2. - SIMILARITY);
+		final Map<String, BitSet> index = new HashMap<>();
+		final List<List<String>> keys = new ArrayList<>(size);
+		final BitSet wildcards = new BitSet(size);
+		for (int i = 0; i < size; ++i) {
+			final String[] strShingles = shingles.get(i);
+			if (strShingles != null) {
+				final List<String> strKeys = new ArrayList<>();
+				// The strings that are too short for having 3-grams are similar only if they are equal
+				strKeys.add(WHOLE_STRING_PREFIX + normalizedStrings.get(i));
+				if (strShingles.length > 0) {
+					Arrays.sort(strShingles, shingleOrder);
+					final int minOverlap = (int) Math.ceil(jaccardThreshold * strShingles.length - EPSILON);
+					final int prefixLength = Math.min(strShingles.length, Math.max(1, strShingles.length - minOverlap + 1));
+					for (int j = 0; j < prefixLength; ++j) {
+						strKeys.add(strShingles[j]);
+					}
+				}
+				for (final String key : strKeys) {
+					index.computeIfAbsent(key, it -> new BitSet(size)).set(i);
+				}
+				keys.add(strKeys);
+			} else {
+				wildcards.set(i);
+				keys.add(null);
+			}
+		}
+		final BitSet[] candidates = new BitSet[size];
+		for (int i = 0; i < size; ++i) {
+			final BitSet strCandidates = new BitSet(size);
+			final List<String> strKeys = keys.get(i);
+			if (strKeys != null) {
+				for (final String key : strKeys) {
+					strCandidates.or(index.get(key));
+				}
+				strCandidates.or(wildcards);
+				strCandidates.clear(0, i + 1);
+			} else if (i + 1 < size) {
+				strCandidates.set(i + 1, size);
+			}
+			candidates[i] = strCandidates;
+		}
+		return candidates;
+	}
+
 }
@@ -31,6 +31,7 @@ import java.util.function.Predicate;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
@@ -49,7 +50,11 @@ import fr.ciadlab.labmanager.entities.AttributeProvider;
 import fr.ciadlab.labmanager.entities.EntityUtils;
 import fr.ciadlab.labmanager.entities.IdentifiableEntity;
 import fr.ciadlab.labmanager.entities.publication.type.JournalPaper;
+import fr.ciadlab.labmanager.io.html.HtmlFragmentCacheListener;
 import fr.ciadlab.labmanager.io.json.JsonUtils;
+import fr.ciadlab.labmanager.service.DataVersionListener;
+import fr.ciadlab.labmanager.service.publication.PublicationStatsListener;
+import fr.ciadlab.labmanager.service.publication.search.PublicationSearchListener;
 import fr.ciadlab.labmanager.utils.HashCodeUtils;
 import fr.ciadlab.labmanager.utils.ranking.QuartileRanking;
 import org.arakhne.afc.util.IntegerList;
@@ -66,6 +71,7 @@ import org.arakhne.afc.util.ListUtil;
  */
 @Entity
 @Table(name = "Journals")
+@EntityListeners({HtmlFragmentCacheListener.class, DataVersionListener.class, PublicationStatsListener.class, PublicationSearchListener.class})
 public class Journal implements Serializable, JsonSerializable, AttributeProvider, IdentifiableEntity {
 
 	private static final long serialVersionUID = -2046765660549008074L;
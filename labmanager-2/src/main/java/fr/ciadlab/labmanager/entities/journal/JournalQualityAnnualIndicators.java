@@ -22,6 +22,7 @@ import java.util.Objects;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
@@ -32,6 +33,9 @@ import javax.persistence.Table;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.common.base.Strings;
 import fr.ciadlab.labmanager.entities.AttributeProvider;
+import fr.ciadlab.labmanager.io.html.HtmlFragmentCacheListener;
+import fr.ciadlab.labmanager.service.DataVersionListener;
+import fr.ciadlab.labmanager.service.publication.PublicationStatsListener;
 import fr.ciadlab.labmanager.utils.HashCodeUtils;
 import fr.ciadlab.labmanager.utils.ranking.QuartileRanking;
 import org.hibernate.annotations.ColumnDefault;
@@ -46,6 +50,7 @@ import org.hibernate.annotations.ColumnDefault;
  */
 @Entity
 @Table(name = "JournalAnnualIndicators")
+@EntityListeners({HtmlFragmentCacheListener.class, DataVersionListener.class, PublicationStatsListener.class})
 public class JournalQualityAnnualIndicators implements Serializable, AttributeProvider {
 
 	private static final long serialVersionUID = -3671513001937890573L;
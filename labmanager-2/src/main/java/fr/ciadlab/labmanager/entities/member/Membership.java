@@ -23,6 +23,7 @@ import java.util.Objects;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.FetchType;
@@ -37,6 +38,10 @@ import fr.ciadlab.labmanager.entities.AttributeProvider;
 import fr.ciadlab.labmanager.entities.EntityUtils;
 import fr.ciadlab.labmanager.entities.IdentifiableEntity;
 import fr.ciadlab.labmanager.entities.organization.ResearchOrganization;
+import fr.ciadlab.labmanager.io.html.HtmlFragmentCacheListener;
+import fr.ciadlab.labmanager.service.DataVersionListener;
+import fr.ciadlab.labmanager.service.organization.OrganizationMembershipClosureListener;
+import fr.ciadlab.labmanager.service.publication.search.PublicationSearchListener;
 import fr.ciadlab.labmanager.utils.HashCodeUtils;
 import fr.ciadlab.labmanager.utils.bap.FrenchBap;
 import fr.ciadlab.labmanager.utils.cnu.CnuSection;
@@ -52,6 +57,8 @@ import fr.ciadlab.labmanager.utils.conrs.ConrsSection;
  */
 @Entity
 @Table(name = "Memberships")
+@EntityListeners({HtmlFragmentCacheListener.class, DataVersionListener.class, PublicationSearchListener.class,
+	OrganizationMembershipClosureListener.class})
 public class Membership implements Serializable, AttributeProvider, Comparable<Membership>, IdentifiableEntity {
 
 	private static final long serialVersionUID = 297499358606685801L;
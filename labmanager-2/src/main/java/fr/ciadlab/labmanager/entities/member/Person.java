@@ -35,12 +35,15 @@ import java.util.stream.Stream;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
-import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.transaction.Transactional;
@@ -56,8 +59,12 @@ import fr.ciadlab.labmanager.entities.IdentifiableEntity;
 import fr.ciadlab.labmanager.entities.organization.ResearchOrganization;
 import fr.ciadlab.labmanager.entities.publication.Authorship;
 import fr.ciadlab.labmanager.entities.publication.AuthorshipComparator;
+import fr.ciadlab.labmanager.io.html.HtmlFragmentCacheListener;
 import fr.ciadlab.labmanager.io.json.JsonUtils;
 import fr.ciadlab.labmanager.io.json.JsonUtils.CachedGenerator;
+import fr.ciadlab.labmanager.service.DataVersionListener;
+import fr.ciadlab.labmanager.service.member.PersonNameIndexListener;
+import fr.ciadlab.labmanager.service.publication.search.PublicationSearchListener;
 import fr.ciadlab.labmanager.utils.HashCodeUtils;
 
 /** Represent a person.
@@ -70,10 +77,18 @@ import fr.ciadlab.labmanager.utils.HashCodeUtils;
  */
 @Entity
 @Table(name = "Persons")
+@EntityListeners({PersonNameIndexListener.class, HtmlFragmentCacheListener.class, DataVersionListener.class, PublicationSearchListener.class})
+@NamedEntityGraph(name = Person.MEMBERSHIPS_GRAPH,
+		attributeNodes = @NamedAttributeNode(value = "memberships", subgraph = "memberships"), //$NON-NLS-1$ //$NON-NLS-2$
+		subgraphs = @NamedSubgraph(name = "memberships", attributeNodes = @NamedAttributeNode("researchOrganization"))) //$NON-NLS-1$ //$NON-NLS-2$
 public class Person implements Serializable, JsonSerializable, AttributeProvider, Comparable<Person>, IdentifiableEntity {
 
 	private static final long serialVersionUID = -1312811718336186349L;
 
+	/** Name of the fetch plan that loads the persons with their memberships and the associated organizations.
+	 */
+	public static final String MEMBERSHIPS_GRAPH = "Person.memberships"; //$NON-NLS-1$
+
 	/** Base URL for gravatar pictures.
 	 */
 	public static final String GRAVATAR_URL = "https://www.gravatar.com/avatar/"; //$NON-NLS-1$
@@ -233,12 +248,12 @@ public class Person implements Serializable, JsonSerializable, AttributeProvider
 
 	/** List of research organizations for the person.
 	 */
-	@OneToMany(mappedBy = "person", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+	@OneToMany(mappedBy = "person", cascade = CascadeType.ALL)
 	private Set<Membership> memberships;
 
 	/** List of publications of the person.
 	 */
-	@OneToMany(mappedBy = "person", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+	@OneToMany(mappedBy = "person", cascade = CascadeType.ALL)
 	private Set<Authorship> authorships;
 
 	/** Construct a person with the given values.
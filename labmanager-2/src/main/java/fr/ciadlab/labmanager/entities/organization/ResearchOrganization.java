@@ -27,14 +27,17 @@ import java.util.Set;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
-import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 
@@ -47,8 +50,12 @@ import fr.ciadlab.labmanager.entities.AttributeProvider;
 import fr.ciadlab.labmanager.entities.EntityUtils;
 import fr.ciadlab.labmanager.entities.IdentifiableEntity;
 import fr.ciadlab.labmanager.entities.member.Membership;
+import fr.ciadlab.labmanager.io.html.HtmlFragmentCacheListener;
 import fr.ciadlab.labmanager.io.json.JsonUtils;
 import fr.ciadlab.labmanager.io.json.JsonUtils.CachedGenerator;
+import fr.ciadlab.labmanager.service.DataVersionListener;
+import fr.ciadlab.labmanager.service.organization.OrganizationMembershipClosureListener;
+import fr.ciadlab.labmanager.service.publication.search.PublicationSearchListener;
 import fr.ciadlab.labmanager.utils.CountryCodeUtils;
 import fr.ciadlab.labmanager.utils.HashCodeUtils;
 import org.arakhne.afc.util.CountryCode;
@@ -63,6 +70,11 @@ import org.arakhne.afc.util.CountryCode;
  */
 @Entity
 @Table(name = "ResearchOrgs")
+@EntityListeners({HtmlFragmentCacheListener.class, DataVersionListener.class, PublicationSearchListener.class,
+	OrganizationMembershipClosureListener.class})
+@NamedEntityGraph(name = ResearchOrganization.MEMBERS_GRAPH,
+		attributeNodes = @NamedAttributeNode(value = "memberships", subgraph = "memberships"), //$NON-NLS-1$ //$NON-NLS-2$
+		subgraphs = @NamedSubgraph(name = "memberships", attributeNodes = @NamedAttributeNode("person"))) //$NON-NLS-1$ //$NON-NLS-2$
 public class ResearchOrganization implements Serializable, JsonSerializable, Comparable<ResearchOrganization>, AttributeProvider, IdentifiableEntity {
 
 	/** Default country for research organizations.
@@ -75,6 +87,10 @@ public class ResearchOrganization implements Serializable, JsonSerializable, Com
 
 	private static final long serialVersionUID = -450531251083286848L;
 
+	/** Name of the fetch plan that loads the organizations with their memberships and the associated persons.
+	 */
+	public static final String MEMBERS_GRAPH = "ResearchOrganization.members"; //$NON-NLS-1$
+
 	/** Identifier of the organization.
 	 */
 	@Id
@@ -117,7 +133,7 @@ public class ResearchOrganization implements Serializable, JsonSerializable, Com
 
 	/** Members of the organization.
 	 */
-	@OneToMany(mappedBy = "researchOrganization", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+	@OneToMany(mappedBy = "researchOrganization", cascade = CascadeType.ALL)
 	private Set<Membership> memberships = new HashSet<>();
 
 	/** Reference to the super organization.
@@ -0,0 +1,141 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.entities.publication;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.jena.ext.com.google.common.base.Strings;
+
+/** In-memory index of elements that are associated to publications, and that is dedicated to the search of duplicates.
+ * <p>The elements are grouped into blocks that are identified by keys, and only the elements that share at least
+ * one key with a given publication are candidates to the search of duplicates. The blocking keys are:<ul>
+ * <li>the normalized DOI;</li>
+ * <li>each pair of consecutive significant words of the normalized title, associated to the year of publication.
+ *     The lookup is done for the year of publication and the years just before and after it.</li>
+ * </ul>
+ * <p>The elements of the publications without usable blocking key are always considered as candidates.
+ *
+ * @param <T> the type of the elements that are associated to the publications.
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ * @see PublicationDuplicateIndex
+ * @see PublicationIdentifierDuplicateIndex
+ */
+public abstract class AbstractPublicationBlockingIndex<T> {
+
+	private static final String DOI_KEY_PREFIX = "doi:"; //$NON-NLS-1$
+
+	private final Map<String, List<T>> blocks = new HashMap<>();
+
+	private final List<T> unblockedElements = new ArrayList<>();
+
+	private int size;
+
+	/** Replies the number of publications in the index.
+	 *
+	 * @return the number of publications.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/** Add the given element into the index, with the blocking keys of the given publication.
+	 *
+	 * @param publication the publication that provides the blocking keys.
+	 * @param element the element to add.
+	 */
+	protected void add(Publication publication, T element) {
+		boolean blocked = false;
+		final String doi = PublicationDuplicateIndex.normalizeDoi(publication.getDOI());
+		if (!Strings.isNullOrEmpty(doi)) {
+			this.blocks.computeIfAbsent(DOI_KEY_PREFIX + doi, it -> new ArrayList<>()).add(element);
+			blocked = true;
+		}
+		final int year = publication.getPublicationYear();
+		for (final String titleKey : PublicationDuplicateIndex.getTitleKeys(publication.getTitle())) {
+			this.blocks.computeIfAbsent(buildTitleKey(year, titleKey), it -> new ArrayList<>()).add(element);
+			blocked = true;
+		}
+		if (!blocked) {
+			this.unblockedElements.add(element);
+		}
+		++this.size;
+	}
+
+	/** Create the map that is used for collecting the candidates without duplicate.
+	 *
+	 * @return the map, with the candidates as keys.
+	 */
+	protected abstract Map<T, Boolean> createCandidateMap();
+
+	/** Replies the elements from the index that could be associated to publications similar to the given publication.
+	 * The replied elements are not tested with a similarity comparator.
+	 *
+	 * @param publication the publication to search for.
+	 * @return the candidates, never {@code null}.
+	 */
+	public Set<T> getCandidates(Publication publication) {
+		final Map<T, Boolean> candidates = createCandidateMap();
+		if (publication != null) {
+			final String doi = PublicationDuplicateIndex.normalizeDoi(publication.getDOI());
+			if (!Strings.isNullOrEmpty(doi)) {
+				addCandidates(candidates, DOI_KEY_PREFIX + doi);
+			}
+			final Set<String> titleKeys = PublicationDuplicateIndex.getTitleKeys(publication.getTitle());
+			if (titleKeys.isEmpty()) {
+				// Without title, the blocking cannot be applied
+				for (final List<T> block : this.blocks.values()) {
+					for (final T candidate : block) {
+						candidates.put(candidate, Boolean.TRUE);
+					}
+				}
+			} else {
+				final int year = publication.getPublicationYear();
+				for (final String titleKey : titleKeys) {
+					addCandidates(candidates, buildTitleKey(year - 1, titleKey));
+					addCandidates(candidates, buildTitleKey(year, titleKey));
+					addCandidates(candidates, buildTitleKey(year + 1, titleKey));
+				}
+			}
+			for (final T candidate : this.unblockedElements) {
+				candidates.put(candidate, Boolean.TRUE);
+			}
+		}
+		return candidates.keySet();
+	}
+
+	private void addCandidates(Map<T, Boolean> candidates, String key) {
+		final List<T> block = this.blocks.get(key);
+		if (block != null) {
+			for (final T candidate : block) {
+				candidates.put(candidate, Boolean.TRUE);
+			}
+		}
+	}
+
+	private static String buildTitleKey(int year, String titleKey) {
+		return Integer.toString(year) + ':' + titleKey;
+	}
+
+}
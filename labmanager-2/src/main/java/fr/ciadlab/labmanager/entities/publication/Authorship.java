@@ -21,6 +21,7 @@ import java.io.Serializable;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
@@ -30,6 +31,10 @@ import javax.persistence.Table;
 import fr.ciadlab.labmanager.entities.AttributeProvider;
 import fr.ciadlab.labmanager.entities.IdentifiableEntity;
 import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.io.html.HtmlFragmentCacheListener;
+import fr.ciadlab.labmanager.service.DataVersionListener;
+import fr.ciadlab.labmanager.service.publication.PublicationStatsListener;
+import fr.ciadlab.labmanager.service.publication.search.PublicationSearchListener;
 import fr.ciadlab.labmanager.utils.HashCodeUtils;
 
 /** Author link between a person and a research publication.
@@ -42,6 +47,7 @@ import fr.ciadlab.labmanager.utils.HashCodeUtils;
  */
 @Entity
 @Table(name = "Authorship")
+@EntityListeners({HtmlFragmentCacheListener.class, DataVersionListener.class, PublicationStatsListener.class, PublicationSearchListener.class})
 public class Authorship implements Serializable, AttributeProvider, Comparable<Authorship>, IdentifiableEntity {
 
 	private static final long serialVersionUID = -6870718668893845051L;
@@ -21,24 +21,34 @@ import java.io.Serializable;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import javax.persistence.CollectionTable;
 import javax.persistence.Column;
+import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
-import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Inheritance;
 import javax.persistence.InheritanceType;
+import javax.persistence.JoinColumn;
 import javax.persistence.Lob;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.OneToMany;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import javax.persistence.Transient;
 import javax.transaction.Transactional;
@@ -52,8 +62,12 @@ import fr.ciadlab.labmanager.entities.AttributeProvider;
 import fr.ciadlab.labmanager.entities.EntityUtils;
 import fr.ciadlab.labmanager.entities.IdentifiableEntity;
 import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.io.html.HtmlFragmentCacheListener;
 import fr.ciadlab.labmanager.io.json.JsonUtils;
 import fr.ciadlab.labmanager.io.json.JsonUtils.CachedGenerator;
+import fr.ciadlab.labmanager.service.DataVersionListener;
+import fr.ciadlab.labmanager.service.publication.PublicationStatsListener;
+import fr.ciadlab.labmanager.service.publication.search.PublicationSearchListener;
 import fr.ciadlab.labmanager.utils.HashCodeUtils;
 import fr.ciadlab.labmanager.utils.RequiredFieldInForm;
 import org.hibernate.annotations.Polymorphism;
@@ -70,13 +84,25 @@ import org.hibernate.annotations.PolymorphismType;
  * @mavenartifactid $ArtifactId$
  */
 @Entity
-@Table(name = "Publications")
+@Table(name = "Publications", indexes = {
+		@Index(name = "publication_doi_key", columnList = "doiKey"), //$NON-NLS-1$ //$NON-NLS-2$
+		@Index(name = "publication_hal_id_key", columnList = "halIdKey"), //$NON-NLS-1$ //$NON-NLS-2$
+		@Index(name = "publication_issn_key", columnList = "issnKey"), //$NON-NLS-1$ //$NON-NLS-2$
+		@Index(name = "publication_title_fingerprint", columnList = "titleFingerprint")}) //$NON-NLS-1$ //$NON-NLS-2$
+@EntityListeners({HtmlFragmentCacheListener.class, DataVersionListener.class, PublicationStatsListener.class, PublicationSearchListener.class})
+@NamedEntityGraph(name = Publication.AUTHORS_GRAPH,
+		attributeNodes = @NamedAttributeNode(value = "authorships", subgraph = "authorships"), //$NON-NLS-1$ //$NON-NLS-2$
+		subgraphs = @NamedSubgraph(name = "authorships", attributeNodes = @NamedAttributeNode("person"))) //$NON-NLS-1$ //$NON-NLS-2$
 @Inheritance(strategy = InheritanceType.JOINED)
 @Polymorphism(type = PolymorphismType.IMPLICIT)
 public abstract class Publication implements Serializable, JsonSerializable, Comparable<Publication>, AttributeProvider, IdentifiableEntity {
 
 	private static final long serialVersionUID = -5980560007123809890L;
 
+	/** Name of the fetch plan that loads the publications with their authorships and their authors.
+	 */
+	public static final String AUTHORS_GRAPH = "Publication.authors"; //$NON-NLS-1$
+
 	/** Identifier of the publication.
 	 * The generated value type is set to {@link GenerationType#AUTO} instead of {@link GenerationType#IDENTITY}
 	 * because it allows to use an inheritance strategy of type {@link InheritanceType.JOINED} and {@link InheritanceType.TABLE_PER_CLASS}.
@@ -141,6 +167,46 @@ public abstract class Publication implements Serializable, JsonSerializable, Com
 	@Column
 	private String halId;
 
+	/** Normalized DOI, for the indexed search of duplicates.
+	 *
+	 * @see PublicationDuplicateIndex#normalizeDoi(String)
+	 */
+	@Column
+	private String doiKey;
+
+	/** Normalized identifier on HAL, for the indexed search of duplicates.
+	 *
+	 * @see PublicationDuplicateIndex#normalizeHalId(String)
+	 */
+	@Column
+	private String halIdKey;
+
+	/** Normalized ISSN, for the indexed search of duplicates.
+	 *
+	 * @see PublicationDuplicateIndex#normalizeIssn(String)
+	 */
+	@Column
+	private String issnKey;
+
+	/** Fingerprint of the normalized title, for the indexed search of duplicates.
+	 *
+	 * @see PublicationDuplicateIndex#getTitleFingerprint(String)
+	 */
+	@Column(length = 64)
+	private String titleFingerprint;
+
+	/** Pairs of significant words of the normalized title, for the indexed search of the duplicates
+	 * with slightly different titles.
+	 *
+	 * @see PublicationDuplicateIndex#getTitleKeys(String)
+	 */
+	@ElementCollection
+	@CollectionTable(name = "PublicationTitleKeys", //$NON-NLS-1$
+			joinColumns = @JoinColumn(name = "publication_id"), //$NON-NLS-1$
+			indexes = @Index(name = "publication_title_key", columnList = "titleKey")) //$NON-NLS-1$ //$NON-NLS-2$
+	@Column(name = "titleKey") //$NON-NLS-1$
+	private Set<String> titleKeys = new HashSet<>();
+
 	/** Extra URL if the publication has one.
 	 */
 	@Column(length = EntityUtils.LARGE_TEXT_SIZE)
@@ -181,7 +247,7 @@ public abstract class Publication implements Serializable, JsonSerializable, Com
 
 	/** Authorships specify the authors of the publication and their position in the list of authors.
 	 */
-	@OneToMany(mappedBy = "publication", fetch = FetchType.EAGER)
+	@OneToMany(mappedBy = "publication")
 	private Set<Authorship> authorships = new HashSet<>();
 
 	@Transient
@@ -206,6 +272,11 @@ public abstract class Publication implements Serializable, JsonSerializable, Com
 		this.isbn = publication.getISBN();
 		this.issn = publication.getISSN();
 		this.doi = publication.getDOI();
+		this.doiKey = publication.getDoiKey();
+		this.halIdKey = publication.getHalIdKey();
+		this.issnKey = publication.getIssnKey();
+		this.titleFingerprint = publication.getTitleFingerprint();
+		this.titleKeys.addAll(publication.getTitleKeys());
 		this.extraUrl = publication.getExtraURL();
 		this.videoUrl = publication.getVideoURL();
 		this.dblpUrl = publication.getDblpURL();
@@ -843,6 +914,89 @@ public abstract class Publication implements Serializable, JsonSerializable, Com
 		this.halId = Strings.emptyToNull(hal);
 	}
 
+	/** Replies the normalized DOI that is stored for the indexed search of duplicates.
+	 * It is updated when the publication is saved.
+	 *
+	 * @return the normalized DOI or {@code null}.
+	 * @see PublicationDuplicateIndex#normalizeDoi(String)
+	 */
+	public String getDoiKey() {
+		return this.doiKey;
+	}
+
+	/** Replies the normalized HAL identifier that is stored for the indexed search of duplicates.
+	 * It is updated when the publication is saved.
+	 *
+	 * @return the normalized HAL identifier or {@code null}.
+	 * @see PublicationDuplicateIndex#normalizeHalId(String)
+	 */
+	public String getHalIdKey() {
+		return this.halIdKey;
+	}
+
+	/** Replies the normalized ISSN that is stored for the indexed search of duplicates.
+	 * It is updated when the publication is saved; for the publications that delegate their ISSN
+	 * to their container, e.g. the journal, it is the ISSN of the container at this time.
+	 *
+	 * @return the normalized ISSN or {@code null}.
+	 * @see PublicationDuplicateIndex#normalizeIssn(String)
+	 */
+	public String getIssnKey() {
+		return this.issnKey;
+	}
+
+	/** Replies the fingerprint of the title that is stored for the indexed search of duplicates.
+	 * It is updated when the publication is saved.
+	 *
+	 * @return the fingerprint or {@code null}.
+	 * @see PublicationDuplicateIndex#getTitleFingerprint(String)
+	 */
+	public String getTitleFingerprint() {
+		return this.titleFingerprint;
+	}
+
+	/** Replies the pairs of significant words of the title that are stored for the indexed search of duplicates.
+	 * They are updated when the publication is saved.
+	 *
+	 * @return the keys, never {@code null}.
+	 * @see PublicationDuplicateIndex#getTitleKeys(String)
+	 */
+	public Set<String> getTitleKeys() {
+		return Collections.unmodifiableSet(this.titleKeys);
+	}
+
+	/** Compute the normalized keys that are stored for the indexed search of duplicates.
+	 * This function is invoked by the JPA engine before the publication is created in the database.
+	 */
+	@PrePersist
+	public void updateDuplicateKeys() {
+		this.doiKey = PublicationDuplicateIndex.normalizeDoi(getDOI());
+		this.halIdKey = PublicationDuplicateIndex.normalizeHalId(getHalId());
+		this.issnKey = PublicationDuplicateIndex.normalizeIssn(getISSN());
+		this.titleFingerprint = PublicationDuplicateIndex.getTitleFingerprint(getTitle());
+		final Set<String> keys = PublicationDuplicateIndex.getTitleKeys(getTitle());
+		if (!this.titleKeys.equals(keys)) {
+			this.titleKeys.clear();
+			this.titleKeys.addAll(keys);
+		}
+	}
+
+	/** Compute the normalized keys that are stored for the indexed search of duplicates.
+	 * This function is invoked by the JPA engine before the publication is updated in the database.
+	 * The keys of the title are computed only if the title has changed, in order to avoid the loading
+	 * of these keys from the database for each update.
+	 */
+	@PreUpdate
+	public void updateChangedDuplicateKeys() {
+		if (Objects.equals(this.titleFingerprint, PublicationDuplicateIndex.getTitleFingerprint(getTitle()))) {
+			this.doiKey = PublicationDuplicateIndex.normalizeDoi(getDOI());
+			this.halIdKey = PublicationDuplicateIndex.normalizeHalId(getHalId());
+			this.issnKey = PublicationDuplicateIndex.normalizeIssn(getISSN());
+		} else {
+			updateDuplicateKeys();
+		}
+	}
+
 	/** Replies any extra URL that is associated to the publication.
 	 *
 	 * @return the URL or {@code null}.
@@ -0,0 +1,251 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.entities.publication;
+
+import java.text.Normalizer;
+import java.text.Normalizer.Form;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import fr.ciadlab.labmanager.utils.HashUtils;
+import org.apache.jena.ext.com.google.common.base.Strings;
+
+/** In-memory index of publications that is dedicated to the search of duplicates.
+ * <p>Comparing a publication with all the known publications is a quadratic process
+ * because the similarity computation is costly. This index groups the publications into
+ * blocks that are identified by keys, and only the publications that share at least one
+ * key with a given publication are candidates to the similarity test with the
+ * {@link PublicationComparator}. The blocking keys are:<ul>
+ * <li>the normalized DOI;</li>
+ * <li>each pair of consecutive significant words of the normalized title, associated to the year of publication.
+ *     The lookup is done for the year of publication and the years just before and after it.</li>
+ * </ul>
+ * <p>Publications without usable blocking key are always considered as candidates.
+ * <p>The index retains the publications; see {@link PublicationIdentifierDuplicateIndex} for an index of
+ * the identifiers of the publications.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public class PublicationDuplicateIndex extends AbstractPublicationBlockingIndex<Publication> {
+
+	private static final Pattern NON_ALPHANUM_PATTERN = Pattern.compile("[^a-z0-9]+"); //$NON-NLS-1$
+
+	private static final Pattern DIACRITIC_PATTERN = Pattern.compile("\\p{InCombiningDiacriticalMarks}+"); //$NON-NLS-1$
+
+	private static final Pattern HAL_VERSION_PATTERN = Pattern.compile("v[0-9]+$"); //$NON-NLS-1$
+
+	private static final int MIN_WORD_LENGTH = 3;
+
+	private final PublicationComparator comparator;
+
+	/** Constructor.
+	 *
+	 * @param comparator the comparator that is used for testing the similarity of the candidates.
+	 */
+	public PublicationDuplicateIndex(PublicationComparator comparator) {
+		assert comparator != null;
+		this.comparator = comparator;
+	}
+
+	/** Constructor.
+	 *
+	 * @param comparator the comparator that is used for testing the similarity of the candidates.
+	 * @param publications the publications to put in the index.
+	 */
+	public PublicationDuplicateIndex(PublicationComparator comparator, Collection<? extends Publication> publications) {
+		this(comparator);
+		addAll(publications);
+	}
+
+	/** Add the given publications into the index.
+	 *
+	 * @param publications the publications to add.
+	 */
+	public void addAll(Collection<? extends Publication> publications) {
+		if (publications != null) {
+			for (final Publication publication : publications) {
+				add(publication);
+			}
+		}
+	}
+
+	/** Add the given publication into the index.
+	 *
+	 * @param publication the publication to add.
+	 */
+	public void add(Publication publication) {
+		if (publication != null) {
+			add(publication, publication);
+		}
+	}
+
+	@Override
+	protected Map<Publication, Boolean> createCandidateMap() {
+		// Publication entities override equals() on their field values; identity is required here
+		return new IdentityHashMap<>();
+	}
+
+	/** Replies a publication from the index that is similar to the given publication.
+	 * The similarity is determined by the comparator that was provided to this index.
+	 *
+	 * @param publication the publication to search for.
+	 * @return the similar publication, or nothing if there is no similar publication in the index.
+	 */
+	public Optional<Publication> findSimilar(Publication publication) {
+		for (final Publication candidate : getCandidates(publication)) {
+			if (this.comparator.isSimilar(candidate, publication)) {
+				return Optional.of(candidate);
+			}
+		}
+		return Optional.empty();
+	}
+
+	/** Replies the publications from the index that are similar to the given publication.
+	 * The similarity is determined by the comparator that was provided to this index.
+	 *
+	 * @param publication the publication to search for.
+	 * @return the similar publications, never {@code null}.
+	 */
+	public List<Publication> findAllSimilar(Publication publication) {
+		final List<Publication> similars = new ArrayList<>();
+		for (final Publication candidate : getCandidates(publication)) {
+			if (this.comparator.isSimilar(candidate, publication)) {
+				similars.add(candidate);
+			}
+		}
+		return similars;
+	}
+
+	/** Normalize the given text for building blocking keys: lower case, without diacritics,
+	 * and with sequences of non-alphanumeric characters replaced by a single space.
+	 *
+	 * @param text the text to normalize.
+	 * @return the normalized text, never {@code null}.
+	 */
+	public static String normalizeText(String text) {
+		if (Strings.isNullOrEmpty(text)) {
+			return ""; //$NON-NLS-1$
+		}
+		String normalized = Normalizer.normalize(text, Form.NFD);
+		normalized = DIACRITIC_PATTERN.matcher(normalized).replaceAll(""); //$NON-NLS-1$
+		normalized = NON_ALPHANUM_PATTERN.matcher(normalized.toLowerCase()).replaceAll(" "); //$NON-NLS-1$
+		return normalized.trim();
+	}
+
+	/** Normalize the given DOI for building blocking keys. The URL prefix of the DOI is removed.
+	 *
+	 * @param doi the DOI to normalize.
+	 * @return the normalized DOI, or {@code null} if the given DOI is empty.
+	 */
+	public static String normalizeDoi(String doi) {
+		if (Strings.isNullOrEmpty(doi)) {
+			return null;
+		}
+		String normalized = doi.trim().toLowerCase();
+		final int index = normalized.indexOf("10."); //$NON-NLS-1$
+		if (index > 0) {
+			normalized = normalized.substring(index);
+		}
+		return Strings.emptyToNull(normalized);
+	}
+
+	/** Normalize the given HAL identifier for the search of duplicates. The URL prefix and the version
+	 * suffix of the identifier are removed, e.g. {@code https://hal.science/hal-01234567v2} is
+	 * normalized to {@code hal-01234567}.
+	 *
+	 * @param halId the HAL identifier to normalize.
+	 * @return the normalized identifier, or {@code null} if the given identifier is empty.
+	 */
+	public static String normalizeHalId(String halId) {
+		if (Strings.isNullOrEmpty(halId)) {
+			return null;
+		}
+		String normalized = halId.trim().toLowerCase();
+		final int index = normalized.lastIndexOf('/');
+		if (index >= 0) {
+			normalized = normalized.substring(index + 1);
+		}
+		normalized = HAL_VERSION_PATTERN.matcher(normalized).replaceFirst(""); //$NON-NLS-1$
+		return Strings.emptyToNull(normalized);
+	}
+
+	/** Normalize the given ISSN for the search of duplicates: lower case, without separator.
+	 *
+	 * @param issn the ISSN to normalize.
+	 * @return the normalized ISSN, or {@code null} if the given ISSN is empty.
+	 */
+	public static String normalizeIssn(String issn) {
+		if (Strings.isNullOrEmpty(issn)) {
+			return null;
+		}
+		return Strings.emptyToNull(NON_ALPHANUM_PATTERN.matcher(issn.toLowerCase()).replaceAll("")); //$NON-NLS-1$
+	}
+
+	/** Replies the fingerprint of the given title for the search of duplicates. The fingerprint is the hexadecimal
+	 * representation of the SHA-256 hash of the {@link #normalizeText(String) normalized title}. Two titles that differ
+	 * only on the case, the diacritics, the punctuation or the spaces have the same fingerprint.
+	 *
+	 * @param title the title.
+	 * @return the fingerprint, or {@code null} if the title has no letter or digit.
+	 */
+	public static String getTitleFingerprint(String title) {
+		final String normalized = normalizeText(title);
+		if (normalized.isEmpty()) {
+			return null;
+		}
+		return HashUtils.sha256Hex(normalized);
+	}
+
+	/** Replies the title-based blocking keys, i.e., the pairs of consecutive significant words of the normalized title.
+	 * A word is significant if it has at least three characters. If the title has a single significant word,
+	 * this word is the only key.
+	 *
+	 * @param title the title.
+	 * @return the keys, never {@code null}.
+	 */
+	public static Set<String> getTitleKeys(String title) {
+		final Set<String> keys = new LinkedHashSet<>();
+		final String normalized = normalizeText(title);
+		if (!normalized.isEmpty()) {
+			String previous = null;
+			for (final String word : normalized.split(" ")) { //$NON-NLS-1$
+				if (word.length() >= MIN_WORD_LENGTH) {
+					if (previous != null) {
+						keys.add(previous + ' ' + word);
+					}
+					previous = word;
+				}
+			}
+			if (keys.isEmpty() && previous != null) {
+				keys.add(previous);
+			}
+		}
+		return keys;
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.entities.publication;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/** In-memory index of the identifiers of publications that is dedicated to the search of duplicates.
+ * <p>Contrary to {@link PublicationDuplicateIndex}, this index does not retain the publications: only their
+ * identifiers and their blocking keys are stored. It is used for searching the duplicates among many
+ * publications from the database; the candidates are then read from the database and compared with
+ * a {@link PublicationComparator}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public class PublicationIdentifierDuplicateIndex extends AbstractPublicationBlockingIndex<Integer> {
+
+	/** Add the identifier of the given publication into the index.
+	 *
+	 * @param publication the publication to add.
+	 */
+	public void add(Publication publication) {
+		if (publication != null) {
+			add(publication, Integer.valueOf(publication.getId()));
+		}
+	}
+
+	@Override
+	protected Map<Integer, Boolean> createCandidateMap() {
+		return new HashMap<>();
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io;
+
+import java.util.Arrays;
+
+/** Table that maps a pair of a person identifier and a year to the status of the person as an exported author.
+ * The pair is encoded as a primitive {@code long} key and the status as its ordinal in a primitive {@code byte};
+ * the table is a hash table with open addressing and linear probing that does not box its keys and values.
+ * The identifiers of the persons must be strictly positive.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+final class ExportedAuthorStatusTable {
+
+	private static final ExportedAuthorStatus[] STATUSES = ExportedAuthorStatus.values();
+
+	private static final int DEFAULT_CAPACITY = 64;
+
+	/** Key of the empty slots. It is not a valid key because the person identifiers are strictly positive.
+	 */
+	private static final long EMPTY = 0L;
+
+	private long[] keys;
+
+	private byte[] statuses;
+
+	private int size;
+
+	/** Constructor.
+	 */
+	ExportedAuthorStatusTable() {
+		this.keys = new long[DEFAULT_CAPACITY];
+		this.statuses = new byte[DEFAULT_CAPACITY];
+	}
+
+	private static long key(int personId, int year) {
+		return ((long) personId << 32) | (year & 0xFFFFFFFFL);
+	}
+
+	private static int slot(long key, int mask) {
+		final long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+
+	/** Replies the number of pairs in the table.
+	 *
+	 * @return the number of pairs.
+	 */
+	int size() {
+		return this.size;
+	}
+
+	/** Replies the status of the given person for the given year.
+	 *
+	 * @param personId the identifier of the person, strictly positive.
+	 * @param year the year.
+	 * @return the status, or {@code null} if the pair is not in the table.
+	 */
+	ExportedAuthorStatus get(int personId, int year) {
+		final long key = key(personId, year);
+		final int mask = this.keys.length - 1;
+		int i = slot(key, mask);
+		long current = this.keys[i];
+		while (current != EMPTY) {
+			if (current == key) {
+				return STATUSES[this.statuses[i]];
+			}
+			i = (i + 1) & mask;
+			current = this.keys[i];
+		}
+		return null;
+	}
+
+	/** Put the status of the given person for the given year.
+	 *
+	 * @param personId the identifier of the person, strictly positive.
+	 * @param year the year.
+	 * @param status the status.
+	 */
+	void put(int personId, int year, ExportedAuthorStatus status) {
+		assert personId > 0;
+		final long key = key(personId, year);
+		final int mask = this.keys.length - 1;
+		int i = slot(key, mask);
+		long current = this.keys[i];
+		while (current != EMPTY) {
+			if (current == key) {
+				this.statuses[i] = (byte) status.ordinal();
+				return;
+			}
+			i = (i + 1) & mask;
+			current = this.keys[i];
+		}
+		this.keys[i] = key;
+		this.statuses[i] = (byte) status.ordinal();
+		++this.size;
+		// Keep the load factor under 1/2
+		if (this.size * 2 > this.keys.length) {
+			grow();
+		}
+	}
+
+	private void grow() {
+		final long[] oldKeys = this.keys;
+		final byte[] oldStatuses = this.statuses;
+		this.keys = new long[oldKeys.length * 2];
+		this.statuses = new byte[oldKeys.length * 2];
+		final int mask = this.keys.length - 1;
+		for (int j = 0; j < oldKeys.length; ++j) {
+			final long key = oldKeys[j];
+			if (key != EMPTY) {
+				int i = slot(key, mask);
+				while (this.keys[i] != EMPTY) {
+					i = (i + 1) & mask;
+				}
+				this.keys[i] = key;
+				this.statuses[i] = oldStatuses[j];
+			}
+		}
+	}
+
+	/** Remove all the pairs from the table.
+	 */
+	void clear() {
+		Arrays.fill(this.keys, EMPTY);
+		this.size = 0;
+	}
+
+}
@@ -20,6 +20,7 @@ import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
 import java.util.function.Predicate;
 
 import fr.ciadlab.labmanager.entities.member.MemberStatus;
@@ -73,6 +74,8 @@ public class ExporterConfigurator {
 
 	private final JournalService service;
 
+	private final ExportedAuthorStatusTable exportedAuthorStatuses = new ExportedAuthorStatusTable();
+
 	/** Constructor.
 	 *
 	 * @param service the journal service.
@@ -344,6 +347,7 @@ public class ExporterConfigurator {
 	 */
 	public ExporterConfigurator selectPerson(Predicate<Person> selector) {
 		this.personSelector = selector;
+		this.exportedAuthorStatuses.clear();
 		return this;
 	}
 
@@ -363,6 +367,7 @@ public class ExporterConfigurator {
 	 */
 	public ExporterConfigurator selectOrganization(Predicate<ResearchOrganization> selector) {
 		this.organizationSelector = selector;
+		this.exportedAuthorStatuses.clear();
 		return this;
 	}
 
@@ -405,6 +410,9 @@ public class ExporterConfigurator {
 
 	/** Replies the status of an exported author. If there is multiple memberships active at the same time,
 	 * the highest membership position is considered. 
+	 * <p>The status of a person for a year is computed once from the memberships of the person. It is then
+	 * stored into a table of this configurator that is consulted for the next authorships of the person in
+	 * the same export. The table is cleared when the selectors are changed.
 	 * <p>This feature may be ignored in the implementation of the exporter.
 	 *
 	 * @param person the person to test.
@@ -413,27 +421,41 @@ public class ExporterConfigurator {
 	 */
 	public ExportedAuthorStatus getExportedAuthorStatusFor(Person person, int year) {
 		if (person != null) {
-			if (this.personSelector != null && this.personSelector.test(person)) {
-				return ExportedAuthorStatus.SELECTED_PERSON;
-			}
-			ExportedAuthorStatus status = ExportedAuthorStatus.OTHER;
-			for (final Membership membership : person.getMemberships()) {
-				if (isValidPeriod(membership, year)
-						&& (this.organizationSelector == null || this.organizationSelector.test(membership.getResearchOrganization()))) {
-					if (isResearcher(membership)) {
-						status = max(status, ExportedAuthorStatus.RESEARCHER);
-					} else if (isPhDStudent(membership)) {
-						status = max(status, ExportedAuthorStatus.PHD_STUDENT);
-					} else if (isPostdocEngineer(membership)) {
-						status = max(status, ExportedAuthorStatus.POSTDOC_ENGINEER);
-					}
+			final int id = person.getId();
+			if (id > 0) {
+				ExportedAuthorStatus status = this.exportedAuthorStatuses.get(id, year);
+				if (status == null) {
+					status = computeExportedAuthorStatusFor(person, year);
+					this.exportedAuthorStatuses.put(id, year, status);
 				}
+				return status;
 			}
-			return status;
+			// The person is not saved in the database; its status cannot be stored
+			return computeExportedAuthorStatusFor(person, year);
 		}
 		return ExportedAuthorStatus.OTHER;
 	}
 
+	private ExportedAuthorStatus computeExportedAuthorStatusFor(Person person, int year) {
+		if (this.personSelector != null && this.personSelector.test(person)) {
+			return ExportedAuthorStatus.SELECTED_PERSON;
+		}
+		ExportedAuthorStatus status = ExportedAuthorStatus.OTHER;
+		for (final Membership membership : person.getMemberships()) {
+			if (isValidPeriod(membership, year)
+					&& (this.organizationSelector == null || this.organizationSelector.test(membership.getResearchOrganization()))) {
+				if (isResearcher(membership)) {
+					status = max(status, ExportedAuthorStatus.RESEARCHER);
+				} else if (isPhDStudent(membership)) {
+					status = max(status, ExportedAuthorStatus.PHD_STUDENT);
+				} else if (isPostdocEngineer(membership)) {
+					status = max(status, ExportedAuthorStatus.POSTDOC_ENGINEER);
+				}
+			}
+		}
+		return status;
+	}
+
 	/** Register a parameter that should be added to the URLs as query parameter.
 	 *
 	 * @param name the name of the parameter.
@@ -87,7 +87,9 @@ public interface BibTeX extends PublicationExporter<String> {
 	 * @see #extractPublications(String)
 	 */
 	default List<Publication> extractPublications(String bibtex, boolean keepBibTeXId, boolean assignRandomId, boolean ensureAtLeastOneMember) throws Exception {
-		return getPublicationStreamFrom(bibtex, keepBibTeXId, assignRandomId, ensureAtLeastOneMember).collect(Collectors.toList());
+		try (final Stream<Publication> stream = getPublicationStreamFrom(bibtex, keepBibTeXId, assignRandomId, ensureAtLeastOneMember)) {
+			return stream.collect(Collectors.toList());
+		}
 	}
 
 	/** Extract the publications from a BibTeX source.
@@ -108,7 +110,9 @@ public interface BibTeX extends PublicationExporter<String> {
 	 * @see #extractPublications(String)
 	 */
 	default List<Publication> extractPublications(Reader bibtex, boolean keepBibTeXId, boolean assignRandomId, boolean ensureAtLeastOneMember) throws Exception {
-		return getPublicationStreamFrom(bibtex, keepBibTeXId, assignRandomId, ensureAtLeastOneMember).collect(Collectors.toList());
+		try (final Stream<Publication> stream = getPublicationStreamFrom(bibtex, keepBibTeXId, assignRandomId, ensureAtLeastOneMember)) {
+			return stream.collect(Collectors.toList());
+		}
 	}
 
 	/** Extract the publications from a BibTeX source.
@@ -131,9 +135,8 @@ public interface BibTeX extends PublicationExporter<String> {
 	 */
 	default Stream<Publication> getPublicationStreamFrom(String bibtex, boolean keepBibTeXId, boolean assignRandomId, boolean ensureAtLeastOneMember) throws Exception {
 		if (!Strings.isNullOrEmpty(bibtex)) {
-			try (final Reader reader = new StringReader(bibtex)) {
-				return getPublicationStreamFrom(reader, keepBibTeXId, assignRandomId, ensureAtLeastOneMember);
-			}
+			// The reader is not closed here because the stream may be lazy
+			return getPublicationStreamFrom(new StringReader(bibtex), keepBibTeXId, assignRandomId, ensureAtLeastOneMember);
 		}
 		return Collections.<Publication>emptySet().stream();
 	}
@@ -151,7 +154,8 @@ public interface BibTeX extends PublicationExporter<String> {
 	 *     If this argument is {@code false}, the ids of the JPA entities will be the default values, i.e., {@code 0}.
 	 * @param ensureAtLeastOneMember if {@code true}, at least one member of a research organization is required from the
 	 *     the list of the persons. If {@code false}, the list of persons could contain no organization member.
-	 * @return the stream of publications that are detected in the BibTeX data.
+	 * @return the stream of publications that are detected in the BibTeX data. The stream may be lazy, i.e., the
+	 *     BibTeX source is read when the stream is consumed; it should be closed in order to close the reader.
 	 * @throws Exception if the BibTeX source cannot be processed.
 	 * @see #getPublicationStreamFrom(String)
 	 * @see #extractPublications(String)
@@ -0,0 +1,435 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.bibtex;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.jbibtex.BibTeXDatabase;
+import org.jbibtex.BibTeXEntry;
+import org.jbibtex.BibTeXParser;
+import org.jbibtex.CharacterFilterReader;
+import org.jbibtex.ObjectResolutionException;
+import org.jbibtex.ParseException;
+
+/** Reader of BibTeX entries that parses a BibTeX source entry by entry.
+ * <p>Contrary to {@link BibTeXParser#parse(Reader)} that builds the whole BibTeX database in memory,
+ * this reader extracts the top-level BibTeX objects one by one from the input stream, and
+ * parses each of them independently. Consequently, the memory consumption does not depend on
+ * the size of the BibTeX source.
+ * <p>The {@code @string} macros are kept in memory during the reading, because they are usually
+ * small and they may be used by any entry. The {@code @comment} and {@code @preamble} objects are ignored.
+ * <p>The cross-references are resolved with a bounded window: the source texts of the last read entries
+ * are kept for resolving the references to the previous entries; and the entries that refer to a
+ * following entry (the standard BibTeX layout) are delayed until this entry is read. If the number of delayed
+ * entries exceeds the size of the window, the oldest delayed entries are parsed without their cross-references.
+ * Because of these delays, the entries are not always replied in the order of the BibTeX source.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public class IncrementalBibTeXReader implements Closeable {
+
+	/** Default number of entries that are kept in memory for resolving the cross-references.
+	 */
+	public static final int DEFAULT_CROSSREF_WINDOW = 1000;
+
+	private static final String STRING_TYPE = "string"; //$NON-NLS-1$
+
+	private static final String COMMENT_TYPE = "comment"; //$NON-NLS-1$
+
+	private static final String PREAMBLE_TYPE = "preamble"; //$NON-NLS-1$
+
+	private static final Pattern CROSSREF_PATTERN = Pattern.compile(
+			"[,\\s]crossref\\s*=\\s*[{\"]\\s*([^{}\"\\s]+)\\s*[}\"]", //$NON-NLS-1$
+			Pattern.CASE_INSENSITIVE);
+
+	private final Reader reader;
+
+	private final int crossRefWindow;
+
+	private final StringBuilder macros = new StringBuilder();
+
+	private final Map<String, String> recentEntries;
+
+	private final Map<String, List<RawEntry>> delayedEntries = new LinkedHashMap<>();
+
+	private int delayedEntryCount;
+
+	private final LinkedList<BibTeXEntry> readyEntries = new LinkedList<>();
+
+	private boolean eof;
+
+	/** Constructor with the default size of the cross-reference window.
+	 *
+	 * @param reader the reader of the BibTeX source.
+	 */
+	public IncrementalBibTeXReader(Reader reader) {
+		this(reader, DEFAULT_CROSSREF_WINDOW);
+	}
+
+	/** Constructor.
+	 *
+	 * @param reader the reader of the BibTeX source.
+	 * @param crossRefWindow the number of entries that are kept in memory for resolving the cross-references.
+	 */
+	public IncrementalBibTeXReader(Reader reader, int crossRefWindow) {
+		this.reader = new CharacterFilterReader(new BufferedReader(reader));
+		this.crossRefWindow = Math.max(1, crossRefWindow);
+		this.recentEntries = new LinkedHashMap<>() {
+			private static final long serialVersionUID = -2619540734316281468L;
+
+			@Override
+			protected boolean removeEldestEntry(Entry<String, String> eldest) {
+				return size() > IncrementalBibTeXReader.this.crossRefWindow;
+			}
+		};
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.reader.close();
+	}
+
+	/** Replies the next BibTeX entry.
+	 *
+	 * @return the next entry, or {@code null} if there is no more entry in the BibTeX source.
+	 * @throws IOException if the BibTeX source cannot be read or parsed.
+	 */
+	public BibTeXEntry next() throws IOException {
+		while (this.readyEntries.isEmpty()) {
+			if (this.eof) {
+				return null;
+			}
+			final RawObject object = readObject();
+			if (object == null) {
+				this.eof = true;
+				// The references of the remaining delayed entries cannot be resolved
+				while (!this.delayedEntries.isEmpty()) {
+					releaseOldestDelayedEntries();
+				}
+			} else if (STRING_TYPE.equals(object.type)) {
+				this.macros.append(object.text).append('\n');
+			} else if (!COMMENT_TYPE.equals(object.type) && !PREAMBLE_TYPE.equals(object.type)) {
+				readEntry(new RawEntry(object.text));
+			}
+		}
+		return this.readyEntries.removeFirst();
+	}
+
+	/** Replies the next BibTeX entries.
+	 *
+	 * @param count the maximum number of entries to reply.
+	 * @return the next entries, or an empty list if there is no more entry in the BibTeX source.
+	 * @throws IOException if the BibTeX source cannot be read or parsed.
+	 * @see #next()
+	 */
+	public List<BibTeXEntry> next(int count) throws IOException {
+		final List<BibTeXEntry> entries = new ArrayList<>(count);
+		while (entries.size() < count) {
+			final BibTeXEntry entry = next();
+			if (entry == null) {
+				break;
+			}
+			entries.add(entry);
+		}
+		return entries;
+	}
+
+	/** Replies the lazy stream of the BibTeX entries.
+	 * The stream must be closed in order to close the BibTeX source.
+	 *
+	 * @return the stream of entries.
+	 */
+	public Stream<BibTeXEntry> stream() {
+		return toStream(() -> next());
+	}
+
+	/** Replies the lazy stream of the BibTeX entries that are grouped by batches.
+	 * The stream must be closed in order to close the BibTeX source.
+	 *
+	 * @param batchSize the maximum number of entries in each batch.
+	 * @return the stream of batches.
+	 */
+	public Stream<List<BibTeXEntry>> batchStream(int batchSize) {
+		final int size = Math.max(1, batchSize);
+		return toStream(() -> {
+			final List<BibTeXEntry> entries = next(size);
+			return entries.isEmpty() ? null : entries;
+		});
+	}
+
+	private <T> Stream<T> toStream(ElementProvider<T> provider) {
+		final Iterator<T> iterator = new Iterator<>() {
+			private T nextElement;
+
+			@Override
+			public boolean hasNext() {
+				if (this.nextElement == null) {
+					try {
+						this.nextElement = provider.next();
+					} catch (IOException ex) {
+						throw new UncheckedIOException(ex);
+					}
+				}
+				return this.nextElement != null;
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				final T element = this.nextElement;
+				this.nextElement = null;
+				return element;
+			}
+		};
+		return StreamSupport.stream(
+				Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+				false).onClose(() -> {
+					try {
+						close();
+					} catch (IOException ex) {
+						throw new UncheckedIOException(ex);
+					}
+				});
+	}
+
+	private void readEntry(RawEntry entry) throws IOException {
+		if (entry.crossRef == null) {
+			this.readyEntries.add(parseEntry(entry.key, entry.text));
+		} else {
+			final String target = this.recentEntries.get(entry.crossRef);
+			if (target != null) {
+				this.readyEntries.add(parseEntry(entry.key, target + '\n' + entry.text));
+			} else {
+				this.delayedEntries.computeIfAbsent(entry.crossRef, it -> new ArrayList<>()).add(entry);
+				++this.delayedEntryCount;
+			}
+		}
+		final String id = entry.key.toLowerCase();
+		this.recentEntries.put(id, entry.text);
+		final List<RawEntry> referencingEntries = this.delayedEntries.remove(id);
+		if (referencingEntries != null) {
+			this.delayedEntryCount -= referencingEntries.size();
+			for (final RawEntry referencingEntry : referencingEntries) {
+				this.readyEntries.add(parseEntry(referencingEntry.key, entry.text + '\n' + referencingEntry.text));
+			}
+		}
+		while (this.delayedEntryCount > this.crossRefWindow) {
+			releaseOldestDelayedEntries();
+		}
+	}
+
+	private void releaseOldestDelayedEntries() throws IOException {
+		final Iterator<List<RawEntry>> iterator = this.delayedEntries.values().iterator();
+		final List<RawEntry> entries = iterator.next();
+		iterator.remove();
+		this.delayedEntryCount -= entries.size();
+		for (final RawEntry entry : entries) {
+			this.readyEntries.add(parseEntry(entry.key, entry.text));
+		}
+	}
+
+	/** Parse the given BibTeX source and reply the entry with the given key.
+	 * The source is parsed with the {@code @string} macros only if it uses one of them.
+	 *
+	 * @param key the key of the entry to reply.
+	 * @param text the BibTeX source.
+	 * @return the entry.
+	 * @throws IOException if the source cannot be parsed.
+	 */
+	private BibTeXEntry parseEntry(String key, String text) throws IOException {
+		BibTeXDatabase database;
+		try {
+			database = parse(text);
+		} catch (ObjectResolutionException ex) {
+			if (this.macros.length() == 0) {
+				throw ex;
+			}
+			database = parse(this.macros + text);
+		}
+		for (final BibTeXEntry entry : database.getEntries().values()) {
+			if (key.equalsIgnoreCase(entry.getKey().getValue())) {
+				return entry;
+			}
+		}
+		throw new IOException("Invalid BibTeX entry: " + key); //$NON-NLS-1$
+	}
+
+	private static BibTeXDatabase parse(String text) throws IOException {
+		try (final Reader textReader = new StringReader(text)) {
+			final BibTeXParser parser = new BibTeXParser();
+			return parser.parse(textReader);
+		} catch (ParseException ex) {
+			throw new IOException(ex);
+		}
+	}
+
+	/** Read the source of the next top-level BibTeX object, i.e., the text from {@code @} to the closing
+	 * delimiter of the object. The text outside the objects is ignored, as it is done by BibTeX.
+	 *
+	 * @return the source of the object, or {@code null} if the end of the stream is reached.
+	 * @throws IOException if the stream cannot be read.
+	 */
+	private RawObject readObject() throws IOException {
+		int c = this.reader.read();
+		while (c >= 0 && c != '@') {
+			c = this.reader.read();
+		}
+		if (c < 0) {
+			return null;
+		}
+		final StringBuilder text = new StringBuilder();
+		final StringBuilder type = new StringBuilder();
+		text.append('@');
+		c = this.reader.read();
+		while (c >= 0 && c != '{' && c != '(') {
+			text.append((char) c);
+			if (!Character.isWhitespace(c)) {
+				type.append((char) c);
+			}
+			c = this.reader.read();
+		}
+		if (c >= 0) {
+			final int closingDelimiter = c == '{' ? '}' : ')';
+			text.append((char) c);
+			int depth = 0;
+			c = this.reader.read();
+			while (c >= 0) {
+				text.append((char) c);
+				if (c == '{') {
+					++depth;
+				} else if (depth == 0 && c == closingDelimiter) {
+					break;
+				} else if (c == '}') {
+					--depth;
+				}
+				c = this.reader.read();
+			}
+		}
+		// An unterminated object is given to the BibTeX parser in order to have its error message
+		return new RawObject(type.toString().toLowerCase(), text.toString());
+	}
+
+	/** Provider of the elements of a stream.
+	 *
+	 * @param <T> the type of the elements.
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	@FunctionalInterface
+	private interface ElementProvider<T> {
+
+		/** Replies the next element.
+		 *
+		 * @return the next element, or {@code null} if there is no more element.
+		 * @throws IOException if the element cannot be read.
+		 */
+		T next() throws IOException;
+
+	}
+
+	/** Source of a top-level BibTeX object.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	private static class RawObject {
+
+		final String type;
+
+		final String text;
+
+		RawObject(String type, String text) {
+			this.type = type;
+			this.text = text;
+		}
+
+	}
+
+	/** Source of a BibTeX entry, with its key and its cross-reference.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	private static class RawEntry {
+
+		final String key;
+
+		final String crossRef;
+
+		final String text;
+
+		RawEntry(String text) {
+			this.text = text;
+			int start = 0;
+			while (start < text.length() && text.charAt(start) != '{' && text.charAt(start) != '(') {
+				++start;
+			}
+			if (start < text.length()) {
+				int end = text.indexOf(',', start);
+				if (end < 0) {
+					// Entry without field, the closing delimiter is not part of the key
+					end = Math.max(start + 1, text.length() - 1);
+				}
+				this.key = text.substring(start + 1, end).trim();
+			} else {
+				this.key = ""; //$NON-NLS-1$
+			}
+			final Matcher matcher = CROSSREF_PATTERN.matcher(text);
+			if (matcher.find()) {
+				this.crossRef = matcher.group(1).toLowerCase();
+			} else {
+				this.crossRef = null;
+			}
+		}
+
+	}
+
+}
@@ -56,13 +56,15 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
 import java.time.LocalDate;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import fr.ciadlab.labmanager.entities.journal.Journal;
@@ -99,8 +101,6 @@ import org.apache.jena.ext.com.google.common.base.Strings;
 import org.jbibtex.BibTeXDatabase;
 import org.jbibtex.BibTeXEntry;
 import org.jbibtex.BibTeXFormatter;
-import org.jbibtex.BibTeXParser;
-import org.jbibtex.CharacterFilterReader;
 import org.jbibtex.DigitStringValue;
 import org.jbibtex.Key;
 import org.jbibtex.LaTeXObject;
@@ -239,6 +239,8 @@ public class JBibtexBibTeX extends AbstractBibTeX {
 
 	private ThesisService thesisService;
 
+	private int conversionBatchSize;
+
 	/** Constructor. This constructor is ready for injection.
 	 *
 	 * @param messages the accessor to the localized messages.
@@ -252,6 +254,8 @@ public class JBibtexBibTeX extends AbstractBibTeX {
 	 * @param miscDocumentService the service for misc documents.
 	 * @param reportService the service for reports.
 	 * @param thesisService the service for theses.
+	 * @param conversionBatchSize the number of BibTeX entries that are decoded in parallel. If it is {@code 1},
+	 *     the entries are decoded sequentially.
 	 */
 	public JBibtexBibTeX(
 			@Autowired MessageSourceAccessor messages,
@@ -264,7 +268,8 @@ public class JBibtexBibTeX extends AbstractBibTeX {
 			@Autowired JournalPaperService journalPaperService,
 			@Autowired MiscDocumentService miscDocumentService,
 			@Autowired ReportService reportService,
-			@Autowired ThesisService thesisService) {
+			@Autowired ThesisService thesisService,
+			@org.springframework.beans.factory.annotation.Value("${labmanager.bibtex.conversion-batch-size:64}") int conversionBatchSize) {
 		this.messages = messages;
 		this.prePublicationFactory = prePublicationFactory;
 		this.journalService = journalService;
@@ -276,6 +281,7 @@ public class JBibtexBibTeX extends AbstractBibTeX {
 		this.miscDocumentService = miscDocumentService;
 		this.reportService = reportService;
 		this.thesisService = thesisService;
+		this.conversionBatchSize = Math.max(1, conversionBatchSize);
 	}
 
 	@Override
@@ -349,23 +355,23 @@ public class JBibtexBibTeX extends AbstractBibTeX {
 	@Override
 	public Stream<Publication> getPublicationStreamFrom(Reader bibtex, boolean keepBibTeXId, boolean assignRandomId,
 			boolean ensureAtLeastOneMember) throws Exception {
-		try (Reader filteredReader = new CharacterFilterReader(bibtex)) {
-			final BibTeXParser bibtexParser = new BibTeXParser();
-			final BibTeXDatabase database = bibtexParser.parse(filteredReader);
-			if (database != null) {
-				return database.getEntries().entrySet().stream().map(it -> {
+		// The entries are parsed by batches when the stream is consumed in order to
+		// avoid to build the whole BibTeX database in memory.
+		// The LaTeX values of the entries of a batch are decoded in parallel; but the publications are
+		// created sequentially because the journals and the persons are read from the database.
+		final IncrementalBibTeXReader reader = new IncrementalBibTeXReader(bibtex);
+		final ImportCache cache = new ImportCache();
+		return reader.batchStream(this.conversionBatchSize)
+				.flatMap(batch -> batch.parallelStream().map(it -> decode(it)).collect(Collectors.toList()).stream())
+				.map(it -> {
 					try {
-						return createPublicationFor(it.getKey(), it.getValue(), keepBibTeXId, assignRandomId, ensureAtLeastOneMember);
+						return createPublicationFor(it, cache, keepBibTeXId, assignRandomId, ensureAtLeastOneMember);
 					} catch (Exception ex) {
 						throw new RuntimeException(ex);
 					}
 				});
-			}
-		}
-		return Collections.<Publication>emptyList().stream();
 	}
 
-
 	/** Replies the publication type that could support the given BibTeX entry.
 	 *
 	 * @param entry the BibTeX entry.
@@ -424,7 +430,7 @@ public class JBibtexBibTeX extends AbstractBibTeX {
 				|| KEY_VIDEO.equals(field));
 	}
 
-	private static String field(BibTeXEntry entry, Key key) throws Exception {
+	private static String decodeField(BibTeXEntry entry, Key key) throws Exception {
 		final Value value = entry.getField(key);
 		if (value != null) {
 			String strValue = value.toUserString();
@@ -436,22 +442,19 @@ public class JBibtexBibTeX extends AbstractBibTeX {
 		return null;
 	}
 
-	private static String fieldRequired(BibTeXEntry entry, Key key) throws Exception {
-		final Value value = entry.getField(key);
-		if (value != null) {
-			String strValue = value.toUserString();
-			if (isLaTeXField(key)) {
-				strValue = parseTeXString(strValue, entry);
-			}
-			strValue = Strings.emptyToNull(strValue);
-			if (!Strings.isNullOrEmpty(strValue)) {
-				return strValue;
-			}
+	private static String field(DecodedEntry entry, Key key) throws Exception {
+		return entry.getField(key);
+	}
+
+	private static String fieldRequired(DecodedEntry entry, Key key) throws Exception {
+		final String strValue = entry.getField(key);
+		if (!Strings.isNullOrEmpty(strValue)) {
+			return strValue;
 		}
 		throw new IllegalStateException("Field '" + key.getValue() + "' is required for entry: " + entry.getKey().getValue()); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
-	private static String fieldRequiredCleanPrefix(BibTeXEntry entry, Key key) throws Exception {
+	private static String fieldRequiredCleanPrefix(DecodedEntry entry, Key key) throws Exception {
 		String value = field(entry, key);
 		if (!Strings.isNullOrEmpty(value)) {
 			for (final String prefix : PREFIXES) {
@@ -466,7 +469,7 @@ public class JBibtexBibTeX extends AbstractBibTeX {
 		throw new IllegalStateException("Field '" + key.getValue() + "' is required for entry: " + entry.getKey().getValue()); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
-	private static String field(BibTeXEntry entry, String key) throws Exception {
+	private static String field(DecodedEntry entry, String key) throws Exception {
 		return field(entry, new Key(key));
 	}
 
@@ -480,7 +483,7 @@ public class JBibtexBibTeX extends AbstractBibTeX {
 		return null;
 	}
 
-	private static String orRequired(BibTeXEntry entry, Key k1, Key k2) throws Exception {
+	private static String orRequired(DecodedEntry entry, Key k1, Key k2) throws Exception {
 		final String value = or(field(entry, k1), field(entry, k2));
 		if (!Strings.isNullOrEmpty(value)) {
 			return value;
@@ -489,12 +492,12 @@ public class JBibtexBibTeX extends AbstractBibTeX {
 				+ "' is required for entry: " + entry.getKey().getValue()); //$NON-NLS-1$
 	}
 
-	private static PublicationLanguage language(BibTeXEntry entry) throws Exception {
+	private static PublicationLanguage language(DecodedEntry entry) throws Exception {
 		final String label = field(entry, new Key(KEY_LANGUAGE_NAME));
 		return PublicationLanguage.valueOfCaseInsensitive(label);
 	}
 
-	private static int year(BibTeXEntry entry) throws Exception {
+	private static int year(DecodedEntry entry) throws Exception {
 		final String yearValue = field(entry, KEY_YEAR);
 		if (Strings.isNullOrEmpty(yearValue)) {
 			throw new IllegalArgumentException("Invalid year format for: " + entry.getKey().getValue()); //$NON-NLS-1$
@@ -508,7 +511,7 @@ public class JBibtexBibTeX extends AbstractBibTeX {
 		return year;
 	}
 
-	private static LocalDate date(BibTeXEntry entry) throws Exception {
+	private static LocalDate date(DecodedEntry entry) throws Exception {
 		final int year = year(entry);
 		final String monthValue = field(entry, KEY_MONTH);
 		if (!Strings.isNullOrEmpty(monthValue)) {
@@ -568,6 +571,22 @@ public class JBibtexBibTeX extends AbstractBibTeX {
 		return null;
 	}
 
+	private Journal findJournal(Key key, String journalName, String dbId, String referencePublisher, String referenceIssn,
+			ImportCache cache) {
+		final String cacheKey = normalize(journalName) + "|" + normalize(dbId) //$NON-NLS-1$
+			+ "|" + normalize(referencePublisher) + "|" + normalize(referenceIssn); //$NON-NLS-1$ //$NON-NLS-2$
+		Journal journal = cache.journals.get(cacheKey);
+		if (journal == null) {
+			journal = findJournal(key, journalName, dbId, referencePublisher, referenceIssn);
+			cache.journals.put(cacheKey, journal);
+		}
+		return journal;
+	}
+
+	private static String normalize(String value) {
+		return Strings.nullToEmpty(value).trim().replaceAll("\\s+", " ").toLowerCase(); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
 	private Journal findJournal(Key key, String journalName, String dbId, String referencePublisher, String referenceIssn) {
 		if (!Strings.isNullOrEmpty(dbId)) {
 			try {
@@ -626,7 +645,45 @@ public class JBibtexBibTeX extends AbstractBibTeX {
 	 * @throws Exception if LaTeX code cannot be parsed.
 	 */
 	protected Publication createPublicationFor(Key key, BibTeXEntry entry, boolean keeyBibTeXId, boolean assignRandomId, boolean ensureAtLeastOneMember) throws Exception {
-		final PublicationType type = getPublicationTypeFor(entry);
+		return createPublicationFor(decode(entry), new ImportCache(), keeyBibTeXId, assignRandomId, ensureAtLeastOneMember);
+	}
+
+	/** Decode the LaTeX values of the fields of the given BibTeX entry, and detect the type of publication.
+	 * This function does not access to the database; it could be invoked in parallel for different entries.
+	 *
+	 * @param entry the BibTeX entry.
+	 * @return the decoded entry.
+	 * @since 2.0.0
+	 */
+	protected DecodedEntry decode(BibTeXEntry entry) {
+		PublicationType type = null;
+		RuntimeException typeError = null;
+		try {
+			type = getPublicationTypeFor(entry);
+		} catch (RuntimeException ex) {
+			typeError = ex;
+		}
+		return new DecodedEntry(entry, type, typeError);
+	}
+
+	/** Extract the publication from a decoded BibTeX entry.
+	 * This function does not save the publication in the database.
+	 *
+	 * @param entry the decoded entry.
+	 * @param cache the cache of the journals and persons that are already read from the database during the import.
+	 * @param keepBibTeXId indicates if the BibTeX keys should be used as the
+	 *     {@link Publication#getPreferredStringId() preferred string-based ID} of the publication.
+	 * @param assignRandomId indicates if a random identifier will be assigned to the created entities.
+	 * @param ensureAtLeastOneMember if {@code true}, at least one member of a research organization is required from the
+	 *     the list of the persons.
+	 * @return the publication.
+	 * @throws Exception if LaTeX code cannot be parsed.
+	 * @since 2.0.0
+	 */
+	protected Publication createPublicationFor(DecodedEntry entry, ImportCache cache, boolean keepBibTeXId, boolean assignRandomId,
+			boolean ensureAtLeastOneMember) throws Exception {
+		final Key key = entry.getKey();
+		final PublicationType type = entry.getPublicationType();
 		if (type != null) {
 			// Create a generic publication
 			final Publication genericPublication = this.prePublicationFactory.createPrePublication(
@@ -655,7 +712,8 @@ public class JBibtexBibTeX extends AbstractBibTeX {
 				final Journal journal = findJournal(key, journalName,
 						field(entry, KEY_INTERNAL_DB_ID),
 						field(entry, KEY_PUBLISHER),
-						genericPublication.getISSN());
+						genericPublication.getISSN(),
+						cache);
 				assert journal != null;
 				final JournalPaper journalPaper = this.journalPaperService.createJournalPaper(genericPublication,
 						field(entry, KEY_VOLUME),
@@ -745,7 +803,8 @@ public class JBibtexBibTeX extends AbstractBibTeX {
 			// Generate the author list
 			final String authorField = orRequired(entry, KEY_AUTHOR, KEY_EDITOR);
 			try {
-				final List<Person> authors = this.personService.extractPersonsFrom(authorField, true, assignRandomId, ensureAtLeastOneMember);
+				final List<Person> authors = this.personService.extractPersonsFrom(authorField, true, assignRandomId, ensureAtLeastOneMember,
+						cache.persons);
 				if (authors.isEmpty()) {
 					throw new IllegalArgumentException("No author for the BibTeX entry: " + key.getValue()); //$NON-NLS-1$
 				}
@@ -754,8 +813,8 @@ public class JBibtexBibTeX extends AbstractBibTeX {
 				throw new IllegalArgumentException("Invalid BibTeX entry: " + key.getValue() + ". " + ex.getLocalizedMessage(), ex); //$NON-NLS-1$ //$NON-NLS-2$
 			}
 
-			if (keeyBibTeXId) {
-				final String cleanKey = entry.getKey().getValue().replaceAll("[^a-zA-Z0-9_-]+", "_"); //$NON-NLS-1$ //$NON-NLS-2$
+			if (keepBibTeXId) {
+				final String cleanKey = key.getValue().replaceAll("[^a-zA-Z0-9_-]+", "_"); //$NON-NLS-1$ //$NON-NLS-2$
 				finalPublication.setPreferredStringId(cleanKey);
 			}
 
@@ -1265,4 +1324,112 @@ public class JBibtexBibTeX extends AbstractBibTeX {
 		return entry;
 	}
 
+	/** BibTeX entry with the decoded values of its fields.
+	 * The values of the fields of the entry are decoded when this object is created; the values of the
+	 * fields that are inherited from a cross-reference are decoded on demand.
+	 * The errors of decoding are thrown when the values of the fields are read, as
+	 * if the fields were decoded at this time.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	protected static class DecodedEntry {
+
+		private final BibTeXEntry entry;
+
+		private final PublicationType type;
+
+		private final RuntimeException typeError;
+
+		private final Map<Key, String> values = new HashMap<>();
+
+		private final Map<Key, Exception> errors = new HashMap<>();
+
+		/** Constructor.
+		 *
+		 * @param entry the BibTeX entry to decode.
+		 * @param type the type of publication for the entry.
+		 * @param typeError the error that occurs when detecting the type of publication, or {@code null}.
+		 */
+		DecodedEntry(BibTeXEntry entry, PublicationType type, RuntimeException typeError) {
+			this.entry = entry;
+			this.type = type;
+			this.typeError = typeError;
+			for (final Key field : entry.getFields().keySet()) {
+				decode(field);
+			}
+		}
+
+		private void decode(Key field) {
+			try {
+				this.values.put(field, decodeField(this.entry, field));
+			} catch (Exception ex) {
+				this.errors.put(field, ex);
+			}
+		}
+
+		/** Replies the key of the BibTeX entry.
+		 *
+		 * @return the key.
+		 */
+		public Key getKey() {
+			return this.entry.getKey();
+		}
+
+		/** Replies the type of publication for the BibTeX entry.
+		 *
+		 * @return the type of publication.
+		 * @throws IllegalArgumentException if the BibTeX entry is not supported.
+		 */
+		public PublicationType getPublicationType() {
+			if (this.typeError != null) {
+				throw this.typeError;
+			}
+			return this.type;
+		}
+
+		/** Replies the decoded value of the given field.
+		 *
+		 * @param field the field.
+		 * @return the value, or {@code null} if the field has no value.
+		 * @throws Exception if the LaTeX value of the field cannot be decoded.
+		 */
+		public String getField(Key field) throws Exception {
+			if (!this.values.containsKey(field) && !this.errors.containsKey(field)) {
+				decode(field);
+			}
+			final Exception error = this.errors.get(field);
+			if (error != null) {
+				throw error;
+			}
+			return this.values.get(field);
+		}
+
+	}
+
+	/** Cache of the journals and the persons that are read from the database during a single import.
+	 * A BibTeX source usually contains the same journals and authors many times.
+	 * This cache is not thread-safe; it is used by the sequential part of the import.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	protected static class ImportCache {
+
+		/** Journals that are indexed by the normalized name, database identifier, publisher and ISSN.
+		 */
+		final Map<String, Journal> journals = new HashMap<>();
+
+		/** Known persons that are indexed by their normalized names.
+		 */
+		final Map<String, Person> persons = new HashMap<>();
+
+	}
+
 }
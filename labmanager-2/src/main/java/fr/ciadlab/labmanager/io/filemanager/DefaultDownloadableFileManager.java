@@ -17,22 +17,20 @@
 package fr.ciadlab.labmanager.io.filemanager;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
-import com.aspose.pdf.Document;
-import com.aspose.pdf.Page;
-import com.aspose.pdf.devices.JpegDevice;
-import com.aspose.pdf.devices.Resolution;
+import fr.ciadlab.labmanager.utils.FileUtils;
 import org.apache.jena.ext.com.google.common.base.Strings;
 import org.arakhne.afc.vmutil.FileSystem;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure3;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
@@ -40,6 +38,8 @@ import org.springframework.web.multipart.MultipartFile;
 
 /** Utilities for managing the downloadable files. This implementation is dedicated to the WordPress service
  * of the lab.
+ * <p>The pictures of the PDF files are rendered in background by the {@link PdfThumbnailGenerator}.
+ * They are stored with multiple sizes into the {@link ThumbnailStore}.
  * 
  * @author $Author: sgalland$
  * @version $Name$ $Revision$ $Date$
@@ -65,14 +65,30 @@ public class DefaultDownloadableFileManager implements DownloadableFileManager {
 
 	private static final String AWARD_FILE_PREFIX = "Award"; //$NON-NLS-1$
 
+	private static final Pattern PDF_FILE_PATTERN = Pattern.compile(
+			Pattern.quote(PDF_FILE_PREFIX) + "([0-9]+)" + Pattern.quote(PDF_FILE_EXTENSION)); //$NON-NLS-1$
+
+	private static final Pattern AWARD_FILE_PATTERN = Pattern.compile(
+			Pattern.quote(AWARD_FILE_PREFIX) + "([0-9]+)" + Pattern.quote(PDF_FILE_EXTENSION)); //$NON-NLS-1$
+
 	private final File uploadFolder;
 
+	private final PdfThumbnailGenerator thumbnailGenerator;
+
+	private final ThumbnailStore thumbnailStore;
+
 	/** Constructor with the given stream factory.
 	 *
-	 * @param factory the factory.
 	 * @param uploadFolder the path of the upload folder. It is defined by the property {@code labmanager.file.upload-directory}.
+	 * @param thumbnailGenerator the generator of the pictures of the PDF files.
+	 * @param thumbnailStore the store of the pictures of the PDF files with multiple sizes.
 	 */
-	public DefaultDownloadableFileManager(@Value("${labmanager.file.upload-directory}") String uploadFolder) {
+	public DefaultDownloadableFileManager(
+			@Value("${labmanager.file.upload-directory}") String uploadFolder,
+			@Autowired PdfThumbnailGenerator thumbnailGenerator,
+			@Autowired ThumbnailStore thumbnailStore) {
+		this.thumbnailGenerator = thumbnailGenerator;
+		this.thumbnailStore = thumbnailStore;
 		final String f = Strings.emptyToNull(uploadFolder);
 		if (f == null) {
 			this.uploadFolder = null;
@@ -156,41 +172,56 @@ public class DefaultDownloadableFileManager implements DownloadableFileManager {
 	@Override
 	public void saveFiles(File pdfFilename, File pictureFilename, MultipartFile multipartPdfFile) throws IOException {
 		final File normalizedPdfFilename = normalizeForServerSide(pdfFilename);
-		final File pdfUploadDir = normalizedPdfFilename.getParentFile();
-		pdfUploadDir.mkdirs();
+		// The PDF file is written atomically because it may be read at the same time by the picture generator
 		try (final InputStream inputStream = multipartPdfFile.getInputStream()) {
-			final Path filePath = normalizedPdfFilename.toPath();
-			Files.copy(inputStream, filePath, StandardCopyOption.REPLACE_EXISTING);
+			FileUtils.writeAtomically(normalizedPdfFilename, output -> inputStream.transferTo(output));
 		} catch (IOException ioe) {
 			throw new IOException("Could not save PDF file: " + normalizedPdfFilename.getName(), ioe); //$NON-NLS-1$
 		}
 		//
 		final File normalizedJpgFilename = normalizeForServerSide(pictureFilename);
-		final File jpgUploadDir = normalizedJpgFilename.getParentFile();
-		jpgUploadDir.mkdirs();
-		try (final OutputStream outputStream = new FileOutputStream(normalizedJpgFilename)) {
-			convertPdfToJpeg(normalizedPdfFilename, outputStream);
+		try {
+			this.thumbnailGenerator.generateLater(normalizedPdfFilename, normalizedJpgFilename);
 		} catch (IOException ioe) {
 			throw new IOException("Could not save picture file: " + normalizedJpgFilename.getName(), ioe); //$NON-NLS-1$
 		}
 	}
 
-	private static void convertPdfToJpeg(File pdfFile, OutputStream jpgStream) throws IOException {
-		try (final InputStream pdfStream = new FileInputStream(pdfFile)) {
-			try (final Document pdfDocument = new  Document(pdfStream)) {
-				if (!pdfDocument.getPages().isEmpty()) {
-					final Resolution resolution = new Resolution(300);
-					// Create JpegDevice object where second argument indicates the quality of resultant image
-					final JpegDevice jpegDevice = new JpegDevice(resolution, 100);
-					// Convert a particular page and save the image to stream
-					try (final Page page = pdfDocument.getPages().get_Item(1)) {
-						jpegDevice.process(page, jpgStream);
-					}
+	@Override
+	public int regenerateStalePictures() {
+		// The pictures are checked in background because the hashes of all the PDF files must be computed
+		final Map<File, File> pictures = new LinkedHashMap<>();
+		collectPictures(getPdfRootFile(), PDF_FILE_PATTERN, it -> makePdfPictureFilename(it), pictures);
+		collectPictures(getAwardRootFile(), AWARD_FILE_PATTERN, it -> makeAwardPictureFilename(it), pictures);
+		if (this.thumbnailGenerator.submitAll(pictures)) {
+			return pictures.size();
+		}
+		return 0;
+	}
+
+	private void collectPictures(File root, Pattern pdfPattern, IntFunction<File> pictureFilename, Map<File, File> pictures) {
+		final File folder = normalizeForServerSide(root);
+		final File[] files = folder.listFiles();
+		if (files != null) {
+			for (final File pdfFile : files) {
+				final Matcher matcher = pdfPattern.matcher(pdfFile.getName());
+				if (matcher.matches() && pdfFile.isFile()) {
+					final int id = Integer.parseInt(matcher.group(1));
+					pictures.put(pdfFile, normalizeForServerSide(pictureFilename.apply(id)));
 				}
 			}
 		}
 	}
 
+	@Override
+	public String getThumbnailHash(File pdfFilename) {
+		final File pdfFile = normalizeForServerSide(pdfFilename);
+		if (pdfFile != null) {
+			return this.thumbnailStore.getThumbnailHash(pdfFile);
+		}
+		return null;
+	}
+
 	@Override
 	public void moveFiles(int sourceId, int targetId, Procedure3<String, String, String> callback) throws IOException {
 		final File sourcePdfRel = makePdfFilename(sourceId);
@@ -94,6 +94,8 @@ public interface DownloadableFileManager {
 	File normalizeForServerSide(File file);
 
 	/** Save the uploaded PDF file and its associated picture.
+	 * The picture may be generated in background; in this case, a placeholder picture is
+	 * provided until the generation is finished.
 	 *
 	 * @param pdfFilename the filename of the PDF file to upload.
 	 * @param pictureFilename the filename of the JPEG file to create. 
@@ -102,6 +104,24 @@ public interface DownloadableFileManager {
 	 */
 	void saveFiles(File pdfFilename, File pictureFilename, MultipartFile multipartPdfFile) throws IOException;
 
+	/** Regenerate the pictures of the uploaded PDF files when they are missing or older than their PDF files,
+	 * or when they are not in the store of pictures with multiple sizes.
+	 *
+	 * @return the number of PDF files of which the pictures are scheduled for verification.
+	 */
+	int regenerateStalePictures();
+
+	/** Replies the hash of the given PDF file in the store of pictures with multiple sizes.
+	 * The content of the PDF file is not read; the hash is known only if the pictures of the file were
+	 * generated or verified since the start of the application.
+	 *
+	 * @param pdfFilename the filename of the PDF file.
+	 * @return the hash of the PDF file, or {@code null} if the file does not exist, if it has changed, or if
+	 *     its pictures are not yet in the store.
+	 * @see ThumbnailStore
+	 */
+	String getThumbnailHash(File pdfFilename);
+
 	/** Move the uploaded files from one publication to another publication.
 	 * If the target files exist, they must not be replaced by the source files; but the source files
 	 * must disappear from the file system.
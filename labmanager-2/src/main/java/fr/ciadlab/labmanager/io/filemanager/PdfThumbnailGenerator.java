@@ -0,0 +1,355 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.filemanager;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+
+import com.aspose.pdf.Document;
+import com.aspose.pdf.Page;
+import com.aspose.pdf.Rectangle;
+import com.aspose.pdf.devices.JpegDevice;
+import com.aspose.pdf.devices.Resolution;
+import fr.ciadlab.labmanager.utils.FileUtils;
+import fr.ciadlab.labmanager.utils.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/** Generator of the JPEG pictures that represent the first pages of the uploaded PDF files.
+ * <p>The pictures are rendered in background by a bounded pool of workers, outside the HTTP requests
+ * that upload the PDF files. Until the rendering of a picture is finished, a placeholder picture is
+ * provided. The pictures are written into temporary files that are renamed when they are complete,
+ * in order to never publish partial pictures.
+ * <p>The rendered pictures are added with multiple sizes into the {@link ThumbnailStore}. A PDF file
+ * is not rendered if the store already contains the pictures of a PDF file with the same content.
+ * The picture that is associated to the uploaded file, e.g. {@code PDF123.jpg}, is a copy of
+ * the stored picture with the original size. The hashes of the PDF files whose pictures are generated or
+ * verified are recorded into the store.
+ * <p>The rendering profile is defined by the properties {@code labmanager.file.thumbnail.dpi},
+ * {@code labmanager.file.thumbnail.width} and {@code labmanager.file.thumbnail.quality}.
+ * The pool of workers is defined by the properties {@code labmanager.file.thumbnail.workers} and
+ * {@code labmanager.file.thumbnail.queue-size}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+@Component
+public class PdfThumbnailGenerator {
+
+	private static final double A4_WIDTH_INCHES = 8.27;
+
+	private static final double A4_HEIGHT_INCHES = 11.69;
+
+	private static final int PLACEHOLDER_GRAY = 0xEE;
+
+	/** Number of milliseconds that is removed from the modification date of the PDF file in order to
+	 * stamp the placeholder pictures. It is large enough for the file systems with a precision of 1 second.
+	 */
+	private static final long PLACEHOLDER_DATE_SHIFT = 2000;
+
+	private final ThumbnailStore store;
+
+	private final int dpi;
+
+	private final int width;
+
+	private final int quality;
+
+	private final ThreadPoolExecutor executor;
+
+	private final Map<File, Boolean> pendingPictures = new ConcurrentHashMap<>();
+
+	private byte[] placeholder;
+
+	/** Logger of the service. It is lazy loaded.
+	 */
+	private Logger logger;
+
+	/** Constructor.
+	 *
+	 * @param store the store of the pictures with multiple sizes.
+	 * @param dpi the resolution of the rendering, in dots per inch.
+	 * @param width the width of the pictures in pixels. If it is not positive, the width is given by the resolution.
+	 * @param quality the quality of the JPEG pictures, from 0 to 100.
+	 * @param workers the number of threads that are rendering the pictures.
+	 * @param queueSize the maximum number of pictures that are waiting for rendering.
+	 */
+	public PdfThumbnailGenerator(
+			@Autowired ThumbnailStore store,
+			@Value("${labmanager.file.thumbnail.dpi:100}") int dpi,
+			@Value("${labmanager.file.thumbnail.width:0}") int width,
+			@Value("${labmanager.file.thumbnail.quality:85}") int quality,
+			@Value("${labmanager.file.thumbnail.workers:1}") int workers,
+			@Value("${labmanager.file.thumbnail.queue-size:256}") int queueSize) {
+		this.store = store;
+		this.dpi = Math.max(1, dpi);
+		this.width = Math.max(0, width);
+		this.quality = Math.max(0, Math.min(100, quality));
+		final int nbWorkers = Math.max(1, workers);
+		this.executor = new ThreadPoolExecutor(nbWorkers, nbWorkers, 1, TimeUnit.MINUTES,
+				new ArrayBlockingQueue<>(Math.max(1, queueSize)), new NamedThreadFactory("pdf-thumbnail-", Thread.MIN_PRIORITY)); //$NON-NLS-1$
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/** Replies the logger of this service.
+	 *
+	 * @return the logger.
+	 */
+	public Logger getLogger() {
+		if (this.logger == null) {
+			this.logger = createLogger();
+		}
+		return this.logger;
+	}
+
+	/** Change the logger of this service.
+	 *
+	 * @param logger the logger.
+	 */
+	public void setLogger(Logger logger) {
+		this.logger = logger;
+	}
+
+	/** Factory method for creating the service logger.
+	 *
+	 * @return the logger.
+	 */
+	protected Logger createLogger() {
+		return LoggerFactory.getLogger(getClass());
+	}
+
+	/** Stop the workers. The pictures that are not yet rendered will be regenerated at the next start
+	 * of the application because their placeholders are older than their PDF files.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+	/** Replace the picture by a placeholder and schedule the rendering of the picture in background.
+	 * The placeholder is stamped with a date that is older than the PDF file in order to be
+	 * detected as stale by {@link #isStale(File, File)}.
+	 *
+	 * @param pdfFile the absolute path to the PDF file.
+	 * @param pictureFile the absolute path to the JPEG file to generate.
+	 * @throws IOException if the placeholder cannot be written.
+	 */
+	public void generateLater(File pdfFile, File pictureFile) throws IOException {
+		FileUtils.writeAtomically(pictureFile, output -> output.write(getPlaceholder()));
+		pictureFile.setLastModified(Math.max(0, pdfFile.lastModified() - PLACEHOLDER_DATE_SHIFT));
+		submit(pdfFile, pictureFile);
+	}
+
+	/** Schedule the rendering of the picture in background.
+	 * If the rendering of the same picture is already waiting in the queue, this function does nothing
+	 * because the waiting job will read the last version of the PDF file.
+	 *
+	 * @param pdfFile the absolute path to the PDF file.
+	 * @param pictureFile the absolute path to the JPEG file to generate.
+	 * @return {@code true} if the rendering is scheduled; {@code false} if the queue is full.
+	 */
+	public boolean submit(File pdfFile, File pictureFile) {
+		if (this.pendingPictures.putIfAbsent(pictureFile, Boolean.TRUE) == null) {
+			try {
+				this.executor.execute(() -> {
+					// The picture is removed before rendering, in order to enable a new rendering if the PDF file changes
+					this.pendingPictures.remove(pictureFile);
+					try {
+						generate(pdfFile, pictureFile);
+					} catch (Throwable ex) {
+						getLogger().error("Cannot generate the picture " + pictureFile.getName() //$NON-NLS-1$
+							+ ": " + ex.getLocalizedMessage(), ex); //$NON-NLS-1$
+					}
+				});
+			} catch (RejectedExecutionException ex) {
+				this.pendingPictures.remove(pictureFile);
+				getLogger().warn("Too many pictures to generate; the picture " + pictureFile.getName() //$NON-NLS-1$
+					+ " is postponed to the next start of the application"); //$NON-NLS-1$
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** Schedule the verification of the pictures of the given PDF files in background. The pictures that are
+	 * missing or older than their PDF files, or that are not in the store of pictures, are generated.
+	 * The verification is done by a single job, in order to not fill up the queue of the workers.
+	 *
+	 * @param pictures the absolute paths to the PDF files and to their associated JPEG files.
+	 * @return {@code true} if the verification is scheduled; {@code false} if the queue is full.
+	 */
+	public boolean submitAll(Map<File, File> pictures) {
+		if (pictures.isEmpty()) {
+			return true;
+		}
+		try {
+			this.executor.execute(() -> {
+				for (final Entry<File, File> entry : pictures.entrySet()) {
+					final File pdfFile = entry.getKey();
+					final File pictureFile = entry.getValue();
+					try {
+						if (isStale(pdfFile, pictureFile)) {
+							generate(pdfFile, pictureFile);
+						} else {
+							final String hash = this.store.getContentHash(pdfFile);
+							if (this.store.contains(hash)) {
+								this.store.recordThumbnail(pdfFile, hash);
+							} else {
+								generate(pdfFile, pictureFile);
+							}
+						}
+					} catch (Throwable ex) {
+						getLogger().error("Cannot generate the picture " + pictureFile.getName() //$NON-NLS-1$
+							+ ": " + ex.getLocalizedMessage(), ex); //$NON-NLS-1$
+					}
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			getLogger().warn("Too many pictures to generate; the verification of the pictures" //$NON-NLS-1$
+				+ " is postponed to the next start of the application"); //$NON-NLS-1$
+			return false;
+		}
+		return true;
+	}
+
+	/** Replies the number of pictures that are waiting for rendering or that are rendered.
+	 *
+	 * @return the number of pictures.
+	 */
+	public int getPendingCount() {
+		return this.executor.getQueue().size() + this.executor.getActiveCount();
+	}
+
+	/** Replies if the picture is missing or older than the PDF file.
+	 *
+	 * @param pdfFile the absolute path to the PDF file.
+	 * @param pictureFile the absolute path to the JPEG file.
+	 * @return {@code true} if the picture must be generated.
+	 */
+	public static boolean isStale(File pdfFile, File pictureFile) {
+		return !pictureFile.exists() || pictureFile.lastModified() < pdfFile.lastModified();
+	}
+
+	/** Render the picture of the PDF file synchronously.
+	 * Nothing is generated if the PDF file does not exist, e.g., if it was deleted after the scheduling,
+	 * or if it has no page.
+	 *
+	 * @param pdfFile the absolute path to the PDF file.
+	 * @param pictureFile the absolute path to the JPEG file to generate.
+	 * @throws IOException if the picture cannot be generated.
+	 */
+	public void generate(File pdfFile, File pictureFile) throws IOException {
+		if (pdfFile.exists()) {
+			final String hash = this.store.getContentHash(pdfFile);
+			if (!this.store.contains(hash)) {
+				final ByteArrayOutputStream rendering = new ByteArrayOutputStream();
+				render(pdfFile, rendering);
+				if (rendering.size() == 0) {
+					return;
+				}
+				this.store.store(hash, rendering.toByteArray(), this.quality);
+			}
+			this.store.recordThumbnail(pdfFile, hash);
+			final File original = this.store.getThumbnailFile(hash, ThumbnailSize.ORIGINAL);
+			FileUtils.writeAtomically(pictureFile, output -> Files.copy(original.toPath(), output));
+		}
+	}
+
+	/** Render the first page of the PDF file as a JPEG picture.
+	 *
+	 * @param pdfFile the absolute path to the PDF file.
+	 * @param output the stream that receives the JPEG picture.
+	 * @throws IOException if the picture cannot be rendered.
+	 */
+	protected void render(File pdfFile, OutputStream output) throws IOException {
+		try (final InputStream pdfStream = new FileInputStream(pdfFile)) {
+			try (final Document pdfDocument = new Document(pdfStream)) {
+				if (!pdfDocument.getPages().isEmpty()) {
+					final Resolution resolution = new Resolution(this.dpi);
+					try (final Page page = pdfDocument.getPages().get_Item(1)) {
+						final JpegDevice jpegDevice;
+						if (this.width > 0) {
+							final Rectangle rect = page.getRect();
+							final int height = (int) Math.round(this.width * rect.getHeight() / rect.getWidth());
+							jpegDevice = new JpegDevice(this.width, height, resolution, this.quality);
+						} else {
+							jpegDevice = new JpegDevice(resolution, this.quality);
+						}
+						jpegDevice.process(page, output);
+					}
+				}
+			}
+		}
+	}
+
+	/** Replies the JPEG picture that is provided until the rendering of a PDF file is finished.
+	 * It has the size of an A4 page that is rendered with the current profile.
+	 *
+	 * @return the content of the JPEG picture.
+	 * @throws IOException if the picture cannot be created.
+	 */
+	protected synchronized byte[] getPlaceholder() throws IOException {
+		if (this.placeholder == null) {
+			final int w;
+			final int h;
+			if (this.width > 0) {
+				w = this.width;
+				h = (int) Math.round(this.width * A4_HEIGHT_INCHES / A4_WIDTH_INCHES);
+			} else {
+				w = (int) Math.round(this.dpi * A4_WIDTH_INCHES);
+				h = (int) Math.round(this.dpi * A4_HEIGHT_INCHES);
+			}
+			final BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+			final Graphics2D g = image.createGraphics();
+			try {
+				g.setColor(new Color(PLACEHOLDER_GRAY, PLACEHOLDER_GRAY, PLACEHOLDER_GRAY));
+				g.fillRect(0, 0, w, h);
+			} finally {
+				g.dispose();
+			}
+			final ByteArrayOutputStream output = new ByteArrayOutputStream();
+			ImageIO.write(image, "jpg", output); //$NON-NLS-1$
+			this.placeholder = output.toByteArray();
+		}
+		return this.placeholder;
+	}
+
+}
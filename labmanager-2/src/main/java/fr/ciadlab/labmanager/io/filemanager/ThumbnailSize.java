@@ -0,0 +1,83 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.filemanager;
+
+import org.apache.jena.ext.com.google.common.base.Strings;
+
+/** Sizes of the pictures that are stored in the {@link ThumbnailStore}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public enum ThumbnailSize {
+
+	/** Small picture for the lists of publications.
+	 */
+	SMALL(120),
+
+	/** Medium picture for the pages of publications and the high-density screens.
+	 */
+	MEDIUM(480),
+
+	/** Picture with the size that is rendered from the PDF file.
+	 */
+	ORIGINAL(0);
+
+	private final int width;
+
+	ThumbnailSize(int width) {
+		this.width = width;
+	}
+
+	/** Replies the width of the picture in pixels.
+	 *
+	 * @return the width, or {@code 0} if the width is the one of the rendered picture.
+	 */
+	public int getWidth() {
+		return this.width;
+	}
+
+	/** Replies the name of the size that is used in the filenames and the URLs.
+	 *
+	 * @return the name.
+	 */
+	public String getFilenamePart() {
+		return name().toLowerCase();
+	}
+
+	/** Replies the size that corresponds to the given name, with a case-insensitive
+	 * test of the name.
+	 *
+	 * @param name the name of the size, to search for.
+	 * @return the size.
+	 * @throws IllegalArgumentException if the given name does not corresponds to a size.
+	 */
+	public static ThumbnailSize valueOfCaseInsensitive(String name) {
+		if (!Strings.isNullOrEmpty(name)) {
+			for (final ThumbnailSize size : values()) {
+				if (name.equalsIgnoreCase(size.name())) {
+					return size;
+				}
+			}
+		}
+		throw new IllegalArgumentException("Invalid thumbnail size: " + name); //$NON-NLS-1$
+	}
+
+}
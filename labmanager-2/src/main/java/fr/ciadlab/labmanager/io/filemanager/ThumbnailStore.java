@@ -0,0 +1,285 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.filemanager;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import fr.ciadlab.labmanager.utils.FileUtils;
+import fr.ciadlab.labmanager.utils.HashUtils;
+import org.apache.jena.ext.com.google.common.base.Strings;
+import org.arakhne.afc.vmutil.FileSystem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/** Store of the pictures of the PDF files, with multiple sizes.
+ * <p>The pictures are stored under the SHA-256 hash of the content of their PDF files.
+ * Consequently, the identical PDF files share the same pictures, and the content of a stored picture
+ * never changes. The picture with the hash {@code H} and the size {@code S} is stored into the file
+ * {@code Downloadables/Thumbnails/H[0..1]/H-S.jpg} of the upload folder.
+ * <p>The hashes of the PDF files are cached in memory; they are computed again when the size or the
+ * date of a PDF file has changed. The hashes of the PDF files whose pictures were generated or verified by
+ * the {@link PdfThumbnailGenerator} are recorded, in order to be replied by {@link #getThumbnailHash(File)}
+ * without reading the PDF files.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ * @see ThumbnailSize
+ */
+@Component
+public class ThumbnailStore {
+
+	private static final String DOWNLOADABLE_FOLDER_NAME = "Downloadables"; //$NON-NLS-1$
+
+	private static final String THUMBNAIL_FOLDER_NAME = "Thumbnails"; //$NON-NLS-1$
+
+	private static final String JPEG_FILE_EXTENSION = ".jpg"; //$NON-NLS-1$
+
+	private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}"); //$NON-NLS-1$
+
+	private final File root;
+
+	private final Map<File, HashEntry> hashes = new ConcurrentHashMap<>();
+
+	private final Map<File, HashEntry> thumbnails = new ConcurrentHashMap<>();
+
+	/** Constructor.
+	 *
+	 * @param uploadFolder the path of the upload folder. It is defined by the property {@code labmanager.file.upload-directory}.
+	 */
+	public ThumbnailStore(@Value("${labmanager.file.upload-directory}") String uploadFolder) {
+		final File relativeRoot = FileSystem.join(new File(DOWNLOADABLE_FOLDER_NAME), THUMBNAIL_FOLDER_NAME);
+		final String f = Strings.emptyToNull(uploadFolder);
+		if (f == null) {
+			this.root = relativeRoot.getAbsoluteFile();
+		} else {
+			this.root = FileSystem.join(FileSystem.convertStringToFile(f).getAbsoluteFile(), relativeRoot);
+		}
+	}
+
+	/** Replies the absolute path to the root folder of the store.
+	 *
+	 * @return the root folder.
+	 */
+	public File getRootFile() {
+		return this.root;
+	}
+
+	/** Replies if the given string is a valid hash for the store.
+	 *
+	 * @param hash the string to test.
+	 * @return {@code true} if the string is a valid hash.
+	 */
+	public static boolean isValidHash(String hash) {
+		return hash != null && HASH_PATTERN.matcher(hash).matches();
+	}
+
+	/** Replies the hash of the content of the given file.
+	 *
+	 * @param file the absolute path to the file.
+	 * @return the hash.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public String getContentHash(File file) throws IOException {
+		final long length = file.length();
+		final long lastModified = file.lastModified();
+		final HashEntry entry = this.hashes.get(file);
+		if (entry != null && entry.length == length && entry.lastModified == lastModified) {
+			return entry.hash;
+		}
+		final String hash = computeHash(file);
+		this.hashes.put(file, new HashEntry(length, lastModified, hash));
+		return hash;
+	}
+
+	/** Record that the pictures of the given PDF file are in the store under the given hash.
+	 * The hash must have been replied by {@link #getContentHash(File)} for the same file; otherwise
+	 * nothing is recorded.
+	 *
+	 * @param file the absolute path to the PDF file.
+	 * @param hash the hash of the PDF file.
+	 */
+	public void recordThumbnail(File file, String hash) {
+		final HashEntry entry = this.hashes.get(file);
+		if (entry != null && entry.hash.equals(hash)) {
+			this.thumbnails.put(file, entry);
+		}
+	}
+
+	/** Replies the hash of the given PDF file if its pictures were recorded with {@link #recordThumbnail(File, String)}
+	 * and if the file has not changed since. The content of the file is never read by this function.
+	 *
+	 * @param file the absolute path to the PDF file.
+	 * @return the hash, or {@code null} if the pictures of the file are unknown.
+	 */
+	public String getThumbnailHash(File file) {
+		final HashEntry entry = this.thumbnails.get(file);
+		if (entry != null && entry.length == file.length() && entry.lastModified == file.lastModified()) {
+			return entry.hash;
+		}
+		return null;
+	}
+
+	private static String computeHash(File file) throws IOException {
+		try (final InputStream input = Files.newInputStream(file.toPath())) {
+			return HashUtils.sha256Hex(input);
+		}
+	}
+
+	/** Replies the absolute path to the picture with the given hash and size.
+	 *
+	 * @param hash the hash of the PDF file.
+	 * @param size the size of the picture.
+	 * @return the absolute path to the picture. It may not exist.
+	 */
+	public File getThumbnailFile(String hash, ThumbnailSize size) {
+		return FileSystem.join(this.root, hash.substring(0, 2), hash + "-" + size.getFilenamePart() + JPEG_FILE_EXTENSION); //$NON-NLS-1$
+	}
+
+	/** Replies if all the sizes of the pictures with the given hash are in the store.
+	 *
+	 * @param hash the hash of the PDF file.
+	 * @return {@code true} if the pictures exist.
+	 */
+	public boolean contains(String hash) {
+		for (final ThumbnailSize size : ThumbnailSize.values()) {
+			if (!getThumbnailFile(hash, size).isFile()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** Add into the store the pictures for the given hash.
+	 * The picture with the original size is the given picture; the others are scaled down from it.
+	 * The original picture is written at last in order to be sure that the other pictures exist when it exists.
+	 *
+	 * @param hash the hash of the PDF file.
+	 * @param originalPicture the JPEG picture that is rendered from the PDF file.
+	 * @param quality the quality of the scaled JPEG pictures, from 0 to 100.
+	 * @throws IOException if the pictures cannot be written.
+	 */
+	public void store(String hash, byte[] originalPicture, int quality) throws IOException {
+		final BufferedImage original = ImageIO.read(new ByteArrayInputStream(originalPicture));
+		if (original == null) {
+			throw new IOException("Invalid JPEG picture for " + hash); //$NON-NLS-1$
+		}
+		for (final ThumbnailSize size : ThumbnailSize.values()) {
+			if (size != ThumbnailSize.ORIGINAL) {
+				final File file = getThumbnailFile(hash, size);
+				if (size.getWidth() < original.getWidth()) {
+					final BufferedImage scaled = scale(original, size.getWidth());
+					FileUtils.writeAtomically(file, output -> writeJpeg(scaled, quality, output));
+				} else {
+					FileUtils.writeAtomically(file, output -> output.write(originalPicture));
+				}
+			}
+		}
+		FileUtils.writeAtomically(getThumbnailFile(hash, ThumbnailSize.ORIGINAL),
+				output -> output.write(originalPicture));
+	}
+
+	/** Scale down the picture by successive halvings, in order to keep a good quality with the bilinear interpolation.
+	 *
+	 * @param image the picture to scale.
+	 * @param width the expected width.
+	 * @return the scaled picture.
+	 */
+	private static BufferedImage scale(BufferedImage image, int width) {
+		final int height = Math.max(1, (int) Math.round((double) width * image.getHeight() / image.getWidth()));
+		BufferedImage current = image;
+		int w = image.getWidth();
+		int h = image.getHeight();
+		do {
+			w = Math.max(width, w / 2);
+			h = Math.max(height, h / 2);
+			final BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+			final Graphics2D g = next.createGraphics();
+			try {
+				g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+				g.drawImage(current, 0, 0, w, h, null);
+			} finally {
+				g.dispose();
+			}
+			current = next;
+		} while (w != width || h != height);
+		return current;
+	}
+
+	private static void writeJpeg(BufferedImage image, int quality, OutputStream output) throws IOException {
+		final Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpg"); //$NON-NLS-1$
+		if (!writers.hasNext()) {
+			throw new IOException("No JPEG writer"); //$NON-NLS-1$
+		}
+		final ImageWriter writer = writers.next();
+		try (final ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+			writer.setOutput(imageOutput);
+			final ImageWriteParam param = writer.getDefaultWriteParam();
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			param.setCompressionQuality(quality / 100f);
+			writer.write(null, new IIOImage(image, null, null), param);
+		} finally {
+			writer.dispose();
+		}
+	}
+
+	/** Cached hash of a file.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	private static class HashEntry {
+
+		final long length;
+
+		final long lastModified;
+
+		final String hash;
+
+		HashEntry(long length, long lastModified, String hash) {
+			this.length = length;
+			this.lastModified = lastModified;
+			this.hash = hash;
+		}
+
+	}
+
+}
@@ -23,6 +23,8 @@ import java.net.URL;
 import fr.ciadlab.labmanager.configuration.Constants;
 import fr.ciadlab.labmanager.entities.publication.Publication;
 import fr.ciadlab.labmanager.io.ExporterConfigurator;
+import fr.ciadlab.labmanager.io.filemanager.DownloadableFileManager;
+import fr.ciadlab.labmanager.io.filemanager.ThumbnailSize;
 import fr.ciadlab.labmanager.utils.doi.DoiTools;
 import org.apache.jena.ext.com.google.common.base.Strings;
 import org.arakhne.afc.vmutil.FileSystem;
@@ -55,26 +57,53 @@ public class CiadHtmlPageExporter extends AbstractCiadHtmlExporter implements Ht
 
 	private static final String HTML_NEWLINE = "<br/>"; //$NON-NLS-1$
 
+	private final DownloadableFileManager fileManager;
+
 	/** Constructor.
 	 *
 	 * @param constants the accessor to the application constants.
 	 * @param messages the accessor to the localized messages.
 	 * @param doiTools the accessor to the DOI tools.
+	 * @param fileManager the manager of the downloadable files.
 	 */
-	public CiadHtmlPageExporter(@Autowired Constants constants, @Autowired MessageSourceAccessor messages, @Autowired DoiTools doiTools) {
+	public CiadHtmlPageExporter(@Autowired Constants constants, @Autowired MessageSourceAccessor messages, @Autowired DoiTools doiTools,
+			@Autowired DownloadableFileManager fileManager) {
 		super(constants, messages, doiTools);
+		this.fileManager = fileManager;
+	}
+
+	private void appendThumbnailUrl(StringBuilder html, String hash, ThumbnailSize size) {
+		html.append("/"); //$NON-NLS-1$
+		html.append(this.constants.getServerName());
+		html.append("/").append(Constants.THUMBNAIL_ENDPOINT); //$NON-NLS-1$
+		html.append("/").append(hash); //$NON-NLS-1$
+		html.append("/").append(size.getFilenamePart()); //$NON-NLS-1$
 	}
 
 	private void buildPdfDownloadLink(StringBuilder html, String path, String label) {
-		final String jpeg = FileSystem.replaceExtension(new File(path), ".jpg").toString(); //$NON-NLS-1$
 		html.append("<a class=\"btn btn-xs btn-success\" href=\"/"); //$NON-NLS-1$
 		html.append(this.constants.getServerName());
 		html.append("/"); //$NON-NLS-1$
 		html.append(path);
-		html.append("\"><img src=\"/"); //$NON-NLS-1$
-		html.append(this.constants.getServerName());
-		html.append("/"); //$NON-NLS-1$
-		html.append(jpeg);
+		final String hash = this.fileManager.getThumbnailHash(new File(path));
+		if (hash != null) {
+			// The button is small; the medium picture is used by the high-density screens
+			html.append("\"><img src=\""); //$NON-NLS-1$
+			appendThumbnailUrl(html, hash, ThumbnailSize.SMALL);
+			html.append("\" srcset=\""); //$NON-NLS-1$
+			appendThumbnailUrl(html, hash, ThumbnailSize.SMALL);
+			html.append(" ").append(ThumbnailSize.SMALL.getWidth()).append("w, "); //$NON-NLS-1$ //$NON-NLS-2$
+			appendThumbnailUrl(html, hash, ThumbnailSize.MEDIUM);
+			html.append(" ").append(ThumbnailSize.MEDIUM.getWidth()).append("w\" sizes=\""); //$NON-NLS-1$ //$NON-NLS-2$
+			html.append(ThumbnailSize.SMALL.getWidth()).append("px"); //$NON-NLS-1$
+		} else {
+			// The pictures are not yet in the store; the picture associated to the PDF file is used
+			final String jpeg = FileSystem.replaceExtension(new File(path), ".jpg").toString(); //$NON-NLS-1$
+			html.append("\"><img src=\"/"); //$NON-NLS-1$
+			html.append(this.constants.getServerName());
+			html.append("/"); //$NON-NLS-1$
+			html.append(jpeg);
+		}
 		html.append("\" class=\"publicationDetailsDownloadAttachment\" alt=\"?\"/><br/>"); //$NON-NLS-1$
 		html.append(label);
 		html.append("</a>"); //$NON-NLS-1$
@@ -0,0 +1,244 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.html;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import fr.ciadlab.labmanager.entities.publication.Publication;
+import fr.ciadlab.labmanager.io.ExporterConfigurator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/** Cache of the HTML fragments that are generated for the publications.
+ * <p>The fragments of a publication depend only on the publication, the memberships of its authors,
+ * the journal indicators, the configuration of the exporter and the locale. The buttons for downloading
+ * the files of a publication are not cached because they depend on the files that are stored on the server. They are stored with a key
+ * that is composed of the identifier of the publication, a version of the publication, the
+ * {@link ExporterConfigurator#getFingerprint() fingerprint of the configurator} and the locale.
+ * The least recently used fragments are removed when the maximum size of the cache is reached.
+ * <p>The version of a publication is increased when the publication or one of its authorships is changed;
+ * the previous fragments of the publication are then unreachable and they are removed by the eviction policy.
+ * The fragments that are generated while their publication is invalidated are returned but not cached.
+ * A change of a person, a membership, an organization or a journal invalidates the whole cache because it may change
+ * the fragments of many publications. These changes are notified by {@link HtmlFragmentCacheListener}
+ * after the commit of the transaction.
+ * <p>The numbers of lookups with and without cached fragments are published into the metrics of the actuator
+ * endpoint ({@code labmanager.html.fragment.cache.hits} and {@code labmanager.html.fragment.cache.misses}).
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+@Component
+public class HtmlFragmentCache {
+
+	private final int maximumSize;
+
+	private final Map<Key, HtmlFragments> fragments;
+
+	private final Map<Integer, Long> versions = new HashMap<>();
+
+	private long generation;
+
+	private final Counter hits;
+
+	private final Counter misses;
+
+	/** Constructor for injector.
+	 * This constructor is defined for being invoked by the IOC injector.
+	 *
+	 * @param meterRegistry the registry of the metrics that are published by the actuator.
+	 * @param maximumSize the maximum number of fragments in the cache. If it is not strictly positive,
+	 *     the fragments are never cached.
+	 */
+	public HtmlFragmentCache(
+			@Autowired MeterRegistry meterRegistry,
+			@Value("${labmanager.web.html-fragment-cache-size:4096}") int maximumSize) {
+		this.maximumSize = Math.max(0, maximumSize);
+		this.fragments = new LinkedHashMap<>(16, .75f, true) {
+			private static final long serialVersionUID = -1734526087446329361L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, HtmlFragments> eldest) {
+				return size() > HtmlFragmentCache.this.maximumSize;
+			}
+		};
+		this.hits = Counter.builder("labmanager.html.fragment.cache.hits") //$NON-NLS-1$
+				.description("Number of lookups that have found the HTML fragments of a publication") //$NON-NLS-1$
+				.register(meterRegistry);
+		this.misses = Counter.builder("labmanager.html.fragment.cache.misses") //$NON-NLS-1$
+				.description("Number of lookups that have generated the HTML fragments of a publication") //$NON-NLS-1$
+				.register(meterRegistry);
+		Gauge.builder("labmanager.html.fragment.cache.size", this, it -> it.size()) //$NON-NLS-1$
+				.description("Number of publications with HTML fragments in the cache") //$NON-NLS-1$
+				.register(meterRegistry);
+	}
+
+	/** Replies the number of fragments in the cache.
+	 *
+	 * @return the number of fragments.
+	 */
+	public int size() {
+		synchronized (this.fragments) {
+			return this.fragments.size();
+		}
+	}
+
+	/** Replies the number of lookups that have found the fragments in the cache.
+	 *
+	 * @return the number of hits.
+	 */
+	public long getHitCount() {
+		return (long) this.hits.count();
+	}
+
+	/** Replies the number of lookups that have generated the fragments.
+	 *
+	 * @return the number of misses.
+	 */
+	public long getMissCount() {
+		return (long) this.misses.count();
+	}
+
+	/** Replies the HTML fragments of the given publication. If the fragments are not in the cache,
+	 * they are generated with the given renderer and put into the cache.
+	 * The publications that are not saved in the database and the configurators without fingerprint
+	 * are never cached.
+	 *
+	 * @param publication the publication.
+	 * @param configurator the configurator of the exporter.
+	 * @param locale the locale that is used for generating the fragments.
+	 * @param renderer the generator of the fragments.
+	 * @return the fragments.
+	 */
+	public HtmlFragments getFragments(Publication publication, ExporterConfigurator configurator, Locale locale,
+			Supplier<HtmlFragments> renderer) {
+		final String fingerprint = configurator.getFingerprint();
+		if (this.maximumSize <= 0 || publication.getId() == 0 || fingerprint == null) {
+			return renderer.get();
+		}
+		// The version and the generation are captured before the rendering. The generated fragments
+		// are not cached if the publication was invalidated during the rendering because they may
+		// have been generated from the previous state of the entities
+		final Key key;
+		synchronized (this.fragments) {
+			key = new Key(publication.getId(), getVersion(publication.getId()), this.generation, fingerprint, locale);
+			final HtmlFragments cached = this.fragments.get(key);
+			if (cached != null) {
+				this.hits.increment();
+				return cached;
+			}
+		}
+		this.misses.increment();
+		final HtmlFragments generated = renderer.get();
+		synchronized (this.fragments) {
+			if (key.generation == this.generation && key.version == getVersion(key.publicationId)) {
+				this.fragments.put(key, generated);
+			}
+		}
+		return generated;
+	}
+
+	private long getVersion(int publicationId) {
+		return this.versions.getOrDefault(Integer.valueOf(publicationId), Long.valueOf(0)).longValue();
+	}
+
+	/** Invalidate the fragments of the publication with the given identifier.
+	 *
+	 * @param publicationId the identifier of the publication.
+	 */
+	public void invalidatePublication(int publicationId) {
+		synchronized (this.fragments) {
+			this.versions.merge(Integer.valueOf(publicationId), Long.valueOf(1), (a, b) -> Long.valueOf(a.longValue() + b.longValue()));
+		}
+	}
+
+	/** Invalidate all the fragments.
+	 */
+	public void invalidateAll() {
+		synchronized (this.fragments) {
+			this.fragments.clear();
+			this.versions.clear();
+			++this.generation;
+		}
+	}
+
+	/** Key of the fragments in the cache.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	private static final class Key {
+
+		private final int publicationId;
+
+		private final long version;
+
+		private final long generation;
+
+		private final String fingerprint;
+
+		private final Locale locale;
+
+		private final int hash;
+
+		Key(int publicationId, long version, long generation, String fingerprint, Locale locale) {
+			this.publicationId = publicationId;
+			this.version = version;
+			this.generation = generation;
+			this.fingerprint = fingerprint;
+			this.locale = locale;
+			this.hash = Objects.hash(Integer.valueOf(publicationId), Long.valueOf(version), Long.valueOf(generation),
+					fingerprint, locale);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return this.publicationId == other.publicationId && this.version == other.version
+					&& this.generation == other.generation && Objects.equals(this.fingerprint, other.fingerprint)
+					&& Objects.equals(this.locale, other.locale);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+	}
+
+}
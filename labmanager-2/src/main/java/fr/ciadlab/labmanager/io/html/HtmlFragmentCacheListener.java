@@ -0,0 +1,74 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.html;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import fr.ciadlab.labmanager.entities.publication.Authorship;
+import fr.ciadlab.labmanager.entities.publication.Publication;
+import fr.ciadlab.labmanager.utils.AbstractEntityListener;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/** JPA listener on the entities that are used for generating the HTML fragments of the publications.
+ * It invalidates the fragments in the {@link HtmlFragmentCache}. The changes of a publication or an authorship
+ * invalidate the fragments of the associated publication. The changes of the other entities, i.e. the persons,
+ * the memberships, the research organizations, the journals and the journal indicators, invalidate all the fragments.
+ * The fragments are invalidated after the commit of the transaction; otherwise fragments that are generated
+ * from the previous state of the database by another transaction could be cached after the invalidation.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public class HtmlFragmentCacheListener extends AbstractEntityListener<HtmlFragmentCache> {
+
+	/** Change the cache of fragments to be invalidated.
+	 *
+	 * @param fragmentCache the cache.
+	 */
+	@Autowired
+	public void setHtmlFragmentCache(HtmlFragmentCache fragmentCache) {
+		setTarget(fragmentCache);
+	}
+
+	/** Invoked when an entity was created, updated or deleted in the database.
+	 *
+	 * @param entity the changed entity.
+	 */
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	public void entityChanged(Object entity) {
+		if (entity instanceof Publication) {
+			final int id = ((Publication) entity).getId();
+			notifyTargetAfterCommit(cache -> cache.invalidatePublication(id));
+		} else if (entity instanceof Authorship) {
+			final Publication publication = ((Authorship) entity).getPublication();
+			if (publication != null) {
+				final int id = publication.getId();
+				notifyTargetAfterCommit(cache -> cache.invalidatePublication(id));
+			}
+		} else {
+			notifyTargetAfterCommit(cache -> cache.invalidateAll());
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.html;
+
+import java.util.Collections;
+import java.util.List;
+
+/** HTML fragments that are generated for a single publication by a {@link HtmlPageExporter}.
+ * The fragments are immutable; they could be shared between the exports through the {@link HtmlFragmentCache}.
+ * A fragment is {@code null} when it was not generated.
+ * The buttons for downloading the files of the publication are not part of the fragments because they
+ * depend on the files that are stored on the server, not only on the database.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public final class HtmlFragments {
+
+	private final List<String> exportButtons;
+
+	private final String editButton;
+
+	private final String deleteButton;
+
+	private final String authors;
+
+	private final String publicationDetails;
+
+	private final String links;
+
+	/** Constructor.
+	 *
+	 * @param exportButtons the buttons for exporting the publication, or {@code null}.
+	 * @param editButton the button for editing the publication, or {@code null}.
+	 * @param deleteButton the button for deleting the publication, or {@code null}.
+	 * @param authors the formatted list of authors, or {@code null}.
+	 * @param publicationDetails the formatted details of the publication, or {@code null}.
+	 * @param links the formatted links of the publication, or {@code null}.
+	 */
+	public HtmlFragments(List<String> exportButtons, String editButton, String deleteButton,
+			String authors, String publicationDetails, String links) {
+		this.exportButtons = exportButtons == null ? null : Collections.unmodifiableList(exportButtons);
+		this.editButton = editButton;
+		this.deleteButton = deleteButton;
+		this.authors = authors;
+		this.publicationDetails = publicationDetails;
+		this.links = links;
+	}
+
+	/** Replies the buttons for exporting the publication.
+	 *
+	 * @return the buttons, or {@code null} if they were not generated.
+	 */
+	public List<String> getExportButtons() {
+		return this.exportButtons;
+	}
+
+	/** Replies the button for editing the publication.
+	 *
+	 * @return the button, or {@code null} if it was not generated.
+	 */
+	public String getEditButton() {
+		return this.editButton;
+	}
+
+	/** Replies the button for deleting the publication.
+	 *
+	 * @return the button, or {@code null} if it was not generated.
+	 */
+	public String getDeleteButton() {
+		return this.deleteButton;
+	}
+
+	/** Replies the formatted list of authors.
+	 *
+	 * @return the list of authors, or {@code null} if it was not generated.
+	 */
+	public String getAuthors() {
+		return this.authors;
+	}
+
+	/** Replies the formatted details of the publication.
+	 *
+	 * @return the details, or {@code null} if they were not generated.
+	 */
+	public String getPublicationDetails() {
+		return this.publicationDetails;
+	}
+
+	/** Replies the formatted links of the publication.
+	 *
+	 * @return the links, or {@code null} if they were not generated.
+	 */
+	public String getLinks() {
+		return this.links;
+	}
+
+}
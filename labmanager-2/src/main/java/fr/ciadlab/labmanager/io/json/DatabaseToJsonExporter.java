@@ -16,7 +16,8 @@
 
 package fr.ciadlab.labmanager.io.json;
 
-import java.lang.reflect.Method;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.LocalDate;
@@ -27,11 +28,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
+import javax.persistence.EntityManager;
+
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeCreator;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fr.ciadlab.labmanager.entities.journal.Journal;
 import fr.ciadlab.labmanager.entities.journal.JournalQualityAnnualIndicators;
@@ -45,8 +52,11 @@ import fr.ciadlab.labmanager.repository.member.MembershipRepository;
 import fr.ciadlab.labmanager.repository.member.PersonRepository;
 import fr.ciadlab.labmanager.repository.organization.ResearchOrganizationRepository;
 import fr.ciadlab.labmanager.repository.publication.PublicationRepository;
+import fr.ciadlab.labmanager.utils.StreamingTransactionRunner;
+import org.apache.commons.lang3.mutable.MutableObject;
 import org.apache.jena.ext.com.google.common.base.Strings;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /** Exporter of JSON data from the database.
@@ -70,6 +80,12 @@ public class DatabaseToJsonExporter extends JsonTool {
 
 	private PublicationRepository publicationRepository;
 
+	private final EntityManager entityManager;
+
+	private final StreamingTransactionRunner transactionRunner;
+
+	private final int batchSize;
+
 	/** Constructor.
 	 * 
 	 * @param organizationRepository the accessor to the organization repository.
@@ -77,18 +93,27 @@ public class DatabaseToJsonExporter extends JsonTool {
 	 * @param membershipRepository the accessor to the membership repository.
 	 * @param journalRepository the accessor to the journal repository.
 	 * @param publicationRepository the accessor to the repository of the publications.
+	 * @param entityManager the manager of the persistence context.
+	 * @param transactionRunner the runner of the transactions in which the entities are streamed.
+	 * @param batchSize the number of entities that are streamed to JSON between two clearings of the persistence context.
 	 */
 	public DatabaseToJsonExporter(
 			@Autowired ResearchOrganizationRepository organizationRepository,
 			@Autowired PersonRepository personRepository,
 			@Autowired MembershipRepository membershipRepository,
 			@Autowired JournalRepository journalRepository,
-			@Autowired PublicationRepository publicationRepository) {
+			@Autowired PublicationRepository publicationRepository,
+			@Autowired EntityManager entityManager,
+			@Autowired StreamingTransactionRunner transactionRunner,
+			@Value("${labmanager.export.json-batch-size:100}") int batchSize) {
 		this.organizationRepository = organizationRepository;
 		this.personRepository = personRepository;
 		this.membershipRepository = membershipRepository;
 		this.journalRepository = journalRepository;
 		this.publicationRepository = publicationRepository;
+		this.entityManager = entityManager;
+		this.transactionRunner = transactionRunner;
+		this.batchSize = Math.max(1, batchSize);
 	}
 
 	/** Run the exporter.
@@ -175,15 +200,15 @@ public class DatabaseToJsonExporter extends JsonTool {
 			if (!Strings.isNullOrEmpty(id)) {
 				rec.set(ID_FIELDNAME, factory.textNode(id));
 			}
-			final Map<String, Method> meths = findGetterMethods(object.getClass());
-			for (final Entry<String, Method> entry : meths.entrySet()) {
-				final Method method = entry.getValue();
-				Object objValue = convertValue(method.invoke(object));
+			final Map<String, Function<Object, Object>> getters = EntityBinder.of(object.getClass()).getGetters();
+			for (final Entry<String, Function<Object, Object>> entry : getters.entrySet()) {
+				final Function<Object, Object> getter = entry.getValue();
+				Object objValue = convertValue(getter.apply(object));
 				if (objValue == null && complements != null && !complements.isEmpty()) {
 					final Iterator<?> iterator = complements.iterator();
 					while (iterator.hasNext() && objValue == null) {
 						final Object complement = iterator.next();
-						objValue = convertValue(method.invoke(complement));
+						objValue = convertValue(getter.apply(complement));
 					}
 				}
 				if (objValue instanceof String) {
@@ -511,4 +536,274 @@ public class DatabaseToJsonExporter extends JsonTool {
 		return null;
 	}
 
+	/** Run the exporter and write the JSON content into the given stream.
+	 * Contrary to {@link #exportFromDatabase()}, the JSON content is not built in memory. The sections are
+	 * written one after the other with a {@link JsonGenerator}, and the entities are read from the database
+	 * with streams of query results within a read-only transaction of the {@link StreamingTransactionRunner}.
+	 * The persistence context is cleared every
+	 * {@code labmanager.export.json-batch-size} entities; the references between the entities are resolved
+	 * with the database identifiers of the entities.
+	 * The content is the same as the one replied by {@link #exportFromDatabase()}, except that the entities
+	 * are sorted by database identifier.
+	 *
+	 * @param output the receiver of the JSON content. It is not closed by this function.
+	 * @throws Exception if there is problem for exporting.
+	 */
+	public void exportFromDatabaseToJsonStream(OutputStream output) throws Exception {
+		final ObjectMapper mapper = new ObjectMapper();
+		try (final JsonGenerator generator = mapper.getFactory().createGenerator(output)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			final MutableObject<Exception> error = new MutableObject<>();
+			this.transactionRunner.executeWithoutResult(status -> {
+				try {
+					streamDatabase(new StreamingContext(generator, mapper.getNodeFactory()));
+				} catch (Exception ex) {
+					error.setValue(ex);
+					status.setRollbackOnly();
+				}
+			});
+			if (error.getValue() != null) {
+				throw error.getValue();
+			}
+		}
+	}
+
+	/** Write the JSON content with the given generator.
+	 *
+	 * @param context the context of the streaming.
+	 * @throws Exception if there is problem for exporting.
+	 */
+	private void streamDatabase(StreamingContext context) throws Exception {
+		context.generator.writeStartObject();
+		streamOrganizations(context);
+		streamPersons(context);
+		streamMemberships(context);
+		streamJournals(context);
+		streamPublications(context);
+		if (context.count > 0) {
+			context.generator.writeStringField(LAST_CHANGE_FIELDNAME, LocalDate.now().toString());
+		}
+		context.generator.writeEndObject();
+	}
+
+	private void streamOrganizations(StreamingContext context) throws Exception {
+		// The JSON identifiers are computed before the streaming because an organization may reference
+		// a super organization that is after it in the stream.
+		int i = 0;
+		for (final Integer id : this.organizationRepository.findAllIdsOrderedById()) {
+			context.organizations.put(id, Integer.valueOf(i));
+			++i;
+		}
+		try (final Stream<ResearchOrganization> organizations = this.organizationRepository.streamAllOrderedById()) {
+			final Iterator<ResearchOrganization> iterator = organizations.iterator();
+			while (iterator.hasNext()) {
+				final ResearchOrganization organization = iterator.next();
+				final Integer index = context.organizations.get(Integer.valueOf(organization.getId()));
+				if (index == null) {
+					throw new IllegalStateException("Organization not found: " + organization.getAcronymOrName()); //$NON-NLS-1$
+				}
+				final ObjectNode jsonOrganization = context.factory.objectNode();
+				exportObject(jsonOrganization, RESEARCHORGANIZATION_ID_PREFIX + index, organization, jsonOrganization, null);
+				if (organization.getSuperOrganization() != null) {
+					final Integer superIndex = context.organizations.get(Integer.valueOf(organization.getSuperOrganization().getId()));
+					if (superIndex == null) {
+						throw new IllegalStateException("Organization not found: " //$NON-NLS-1$
+								+ organization.getSuperOrganization().getAcronymOrName());
+					}
+					addReference(jsonOrganization, SUPERORGANIZATION_KEY, RESEARCHORGANIZATION_ID_PREFIX + superIndex);
+				}
+				context.write(RESEARCHORGANIZATIONS_SECTION, jsonOrganization);
+			}
+		}
+		context.endSection();
+	}
+
+	private void streamPersons(StreamingContext context) throws Exception {
+		try (final Stream<Person> persons = this.personRepository.streamAllOrderedById()) {
+			final Iterator<Person> iterator = persons.iterator();
+			int i = 0;
+			while (iterator.hasNext()) {
+				final Person person = iterator.next();
+				final ObjectNode jsonPerson = context.factory.objectNode();
+				exportObject(jsonPerson, PERSON_ID_PREFIX + i, person, jsonPerson, null);
+				context.persons.put(Integer.valueOf(person.getId()), Integer.valueOf(i));
+				context.write(PERSONS_SECTION, jsonPerson);
+				++i;
+			}
+		}
+		context.endSection();
+	}
+
+	private void streamMemberships(StreamingContext context) throws Exception {
+		try (final Stream<Membership> memberships = this.membershipRepository.streamAllOrderedById()) {
+			final Iterator<Membership> iterator = memberships.iterator();
+			int i = 0;
+			while (iterator.hasNext()) {
+				final Membership membership = iterator.next();
+				final Integer personIndex = context.persons.get(Integer.valueOf(membership.getPerson().getId()));
+				final Integer organizationIndex = context.organizations.get(Integer.valueOf(membership.getResearchOrganization().getId()));
+				if (personIndex != null && organizationIndex != null) {
+					final ObjectNode jsonMembership = context.factory.objectNode();
+					exportObject(jsonMembership, MEMBERSHIP_ID_PREFIX + i, membership, jsonMembership, null);
+					// Person and organization must be added explicitly because the "exportObject" function
+					// ignore the getter functions for both.
+					addReference(jsonMembership, PERSON_KEY, PERSON_ID_PREFIX + personIndex);
+					addReference(jsonMembership, RESEARCHORGANIZATION_KEY, RESEARCHORGANIZATION_ID_PREFIX + organizationIndex);
+					context.write(MEMBERSHIPS_SECTION, jsonMembership);
+					++i;
+				}
+			}
+		}
+		context.endSection();
+	}
+
+	private void streamJournals(StreamingContext context) throws Exception {
+		try (final Stream<Journal> journals = this.journalRepository.streamAllOrderedById()) {
+			final Iterator<Journal> iterator = journals.iterator();
+			int i = 0;
+			while (iterator.hasNext()) {
+				final Journal journal = iterator.next();
+				final ObjectNode jsonJournal = context.factory.objectNode();
+				exportObject(jsonJournal, JOURNAL_ID_PREFIX + i, journal, jsonJournal, null);
+				// Add the publication indicators by hand because they are not exported implicitly by
+				// the "exportObject" function
+				final ObjectNode indicatorMap = jsonJournal.objectNode();
+				for (final JournalQualityAnnualIndicators indicators : journal.getQualityIndicators().values()) {
+					final ObjectNode jsonIndicator = indicatorMap.objectNode();
+					exportObject(jsonIndicator, null, indicators, jsonIndicator, null);
+					// Remove the year because it is not necessary into the JSON map as value and the year is the key.
+					jsonIndicator.remove(REFERENCEYEAR_KEY);
+					if (jsonIndicator.size() > 0) {
+						indicatorMap.set(Integer.toString(indicators.getReferenceYear()), jsonIndicator);
+					}
+				}
+				if (indicatorMap.size() > 0) {
+					jsonJournal.set(QUALITYINDICATORSHISTORY_KEY, indicatorMap);
+				}
+				context.journals.put(Integer.valueOf(journal.getId()), Integer.valueOf(i));
+				context.write(JOURNALS_SECTION, jsonJournal);
+				++i;
+			}
+		}
+		context.endSection();
+	}
+
+	private void streamPublications(StreamingContext context) throws Exception {
+		int i = 0;
+		try (final Stream<Publication> publications = this.publicationRepository.streamAllOrderedById()) {
+			final Iterator<Publication> iterator = publications.iterator();
+			while (iterator.hasNext()) {
+				final Publication publication = iterator.next();
+				final ObjectNode jsonPublication = context.factory.objectNode();
+				exportObject(jsonPublication, PUBLICATION_ID_PREFIX + i, publication, jsonPublication, null);
+				// Add the database identifier for information
+				if (publication.getId() > 0) {
+					jsonPublication.set(DATABASE_ID_FIELDNAME, jsonPublication.numberNode(publication.getId()));
+				}
+				// Add the authors by hand because they are not exported implicitly by
+				// the "exportObject" function.
+				final ArrayNode authorArray = jsonPublication.arrayNode();
+				for (final Person author : publication.getAuthors()) {
+					final Integer authorIndex = context.persons.get(Integer.valueOf(author.getId()));
+					if (authorIndex == null) {
+						// Unexpected behavior. But add the name as text to have it inside the output.
+						authorArray.add(author.getFullName());
+					} else {
+						authorArray.add(createReference(PERSON_ID_PREFIX + authorIndex, authorArray));
+					}
+				}
+				if (authorArray.size() > 0) {
+					jsonPublication.set(AUTHORS_KEY, authorArray);
+				}
+				// Add the journal by hand because they are not exported implicitly by
+				// the "exportObject" function
+				if (publication instanceof JournalBasedPublication) {
+					final Journal journal = ((JournalBasedPublication) publication).getJournal();
+					if (journal != null) {
+						final Integer journalIndex = context.journals.get(Integer.valueOf(journal.getId()));
+						if (journalIndex == null) {
+							jsonPublication.set(JOURNAL_KEY, jsonPublication.textNode(journal.getJournalName()));
+						} else {
+							jsonPublication.set(JOURNAL_KEY, createReference(JOURNAL_ID_PREFIX + journalIndex, jsonPublication));
+						}
+					}
+				}
+				jsonPublication.set(HIDDEN_INTERNAL_DATA_SOURCE_KEY, jsonPublication.textNode(HIDDEN_INTERNAL_DATABASE_SOURCE_VALUE));
+				context.write(PUBLICATIONS_SECTION, jsonPublication);
+				++i;
+			}
+		}
+		context.endSection();
+		getLogger().info("Exporting " + i + " publications from the database."); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/** Context of the streaming of the database to JSON.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	private class StreamingContext {
+
+		final JsonGenerator generator;
+
+		final JsonNodeFactory factory;
+
+		/** Map from the database identifiers of the organizations to their JSON indexes.
+		 */
+		final Map<Integer, Integer> organizations = new HashMap<>();
+
+		/** Map from the database identifiers of the persons to their JSON indexes.
+		 */
+		final Map<Integer, Integer> persons = new HashMap<>();
+
+		/** Map from the database identifiers of the journals to their JSON indexes.
+		 */
+		final Map<Integer, Integer> journals = new HashMap<>();
+
+		int count;
+
+		private String section;
+
+		StreamingContext(JsonGenerator generator, JsonNodeFactory factory) {
+			this.generator = generator;
+			this.factory = factory;
+		}
+
+		/** Write the given element in the given section. The section is opened if it is not the current section.
+		 * The persistence context is cleared when the number of written elements reaches the batch size.
+		 *
+		 * @param sectionName the name of the section.
+		 * @param element the element to write.
+		 * @throws IOException if the element cannot be written.
+		 */
+		void write(String sectionName, JsonNode element) throws IOException {
+			if (!sectionName.equals(this.section)) {
+				endSection();
+				this.generator.writeArrayFieldStart(sectionName);
+				this.section = sectionName;
+			}
+			this.generator.writeTree(element);
+			++this.count;
+			if (this.count % DatabaseToJsonExporter.this.batchSize == 0) {
+				this.generator.flush();
+				DatabaseToJsonExporter.this.entityManager.clear();
+			}
+		}
+
+		/** Close the current section, if any.
+		 *
+		 * @throws IOException if the section cannot be closed.
+		 */
+		void endSection() throws IOException {
+			if (this.section != null) {
+				this.generator.writeEndArray();
+				this.section = null;
+			}
+		}
+
+	}
+
 }
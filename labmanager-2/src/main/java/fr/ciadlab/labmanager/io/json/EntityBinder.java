@@ -0,0 +1,240 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.json;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/** Binder between the JSON attributes and the properties of a type of entity.
+ * The binder is built once per type with the reflection API; the constructor, the setter functions and
+ * the getter functions are then invoked through functional objects that are created with
+ * {@link LambdaMetafactory}. These functional objects are created on demand and they are shared by all the
+ * importers and exporters.
+ *
+ * @param <T> the type of the entity.
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ * @see JsonTool#findSetterMethod(Class, Set, Object)
+ * @see JsonTool#findGetterMethods(Class)
+ */
+public final class EntityBinder<T> {
+
+	private static final ClassValue<EntityBinder<?>> BINDERS = new ClassValue<>() {
+		@Override
+		protected EntityBinder<?> computeValue(Class<?> type) {
+			return new EntityBinder<>(type);
+		}
+	};
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private final Class<T> type;
+
+	private volatile Supplier<T> factory;
+
+	private final Map<String, List<Method>> setterCandidates;
+
+	private final Map<Method, BiConsumer<Object, Object>> setters = new ConcurrentHashMap<>();
+
+	private final Map<String, Function<Object, Object>> getters;
+
+	private EntityBinder(Class<T> type) {
+		this.type = type;
+		final Map<String, List<Method>> candidates = new HashMap<>();
+		for (final Method method : type.getMethods()) {
+			if (method.getParameterCount() == 1 && !method.isBridge()) {
+				candidates.computeIfAbsent(method.getName().toLowerCase(), it -> new ArrayList<>(2)).add(method);
+			}
+		}
+		this.setterCandidates = candidates;
+		final Map<String, Function<Object, Object>> getters = new LinkedHashMap<>();
+		for (final Entry<String, Method> entry : JsonTool.findGetterMethods(type).entrySet()) {
+			getters.put(entry.getKey(), createGetter(entry.getValue()));
+		}
+		this.getters = Collections.unmodifiableMap(getters);
+	}
+
+	/** Replies the binder for the given type of entity.
+	 *
+	 * @param <T> the type of the entity.
+	 * @param type the type of the entity.
+	 * @return the binder, never {@code null}.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> EntityBinder<T> of(Class<T> type) {
+		return (EntityBinder<T>) BINDERS.get(type);
+	}
+
+	/** Replies the type of the entity.
+	 *
+	 * @return the type.
+	 */
+	public Class<T> getType() {
+		return this.type;
+	}
+
+	/** Create an instance of the entity with the public constructor without argument.
+	 *
+	 * @return the new instance.
+	 * @throws NoSuchMethodException if the type has no public constructor without argument.
+	 */
+	public T newInstance() throws NoSuchMethodException {
+		Supplier<T> fct = this.factory;
+		if (fct == null) {
+			fct = createFactory(this.type);
+			this.factory = fct;
+		}
+		return fct.get();
+	}
+
+	/** Find the setter function that matches the given names and that could receive a value of the given type.
+	 * This function has the same semantic as {@link JsonTool#findSetterMethod(Class, Set, Object)}: the
+	 * setter must be unique.
+	 *
+	 * @param names the set of lower-cased names of the setter functions that could serve as candidates.
+	 * @param valueType the type of the value to give to the setter function.
+	 * @return the setter function that takes the entity and the value, or {@code null} if none was found.
+	 */
+	public BiConsumer<Object, Object> findSetter(Set<String> names, Class<?> valueType) {
+		Method found = null;
+		for (final String name : names) {
+			final List<Method> methods = this.setterCandidates.get(name);
+			if (methods != null) {
+				for (final Method method : methods) {
+					if (method.getParameterTypes()[0].isAssignableFrom(valueType)) {
+						if (found != null) {
+							return null;
+						}
+						found = method;
+					}
+				}
+			}
+		}
+		if (found == null) {
+			return null;
+		}
+		return this.setters.computeIfAbsent(found, EntityBinder::createSetter);
+	}
+
+	/** Replies the getter functions of the attributes that could be exported to JSON.
+	 * The attributes are the same as the ones replied by {@link JsonTool#findGetterMethods(Class)}.
+	 *
+	 * @return the getter functions that take the entity and reply the value. Keys are the names of the attributes.
+	 */
+	public Map<String, Function<Object, Object>> getGetters() {
+		return this.getters;
+	}
+
+	private static Class<?> wrap(Class<?> type) {
+		return MethodType.methodType(type).wrap().returnType();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Supplier<T> createFactory(Class<T> type) throws NoSuchMethodException {
+		// Ensure that the constructor is public
+		type.getConstructor();
+		try {
+			final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, LOOKUP);
+			final MethodHandle handle = lookup.findConstructor(type, MethodType.methodType(void.class));
+			final CallSite site = LambdaMetafactory.metafactory(lookup, "get", //$NON-NLS-1$
+					MethodType.methodType(Supplier.class),
+					MethodType.methodType(Object.class),
+					handle,
+					MethodType.methodType(type));
+			return (Supplier<T>) site.getTarget().invokeExact();
+		} catch (Throwable ex) {
+			return () -> {
+				try {
+					return type.getConstructor().newInstance();
+				} catch (InvocationTargetException ex0) {
+					throw new IllegalStateException(ex0.getCause());
+				} catch (ReflectiveOperationException ex0) {
+					throw new IllegalStateException(ex0);
+				}
+			};
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static BiConsumer<Object, Object> createSetter(Method method) {
+		try {
+			final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), LOOKUP);
+			final MethodHandle handle = lookup.unreflect(method);
+			final CallSite site = LambdaMetafactory.metafactory(lookup, "accept", //$NON-NLS-1$
+					MethodType.methodType(BiConsumer.class),
+					MethodType.methodType(void.class, Object.class, Object.class),
+					handle,
+					MethodType.methodType(void.class, method.getDeclaringClass(), wrap(method.getParameterTypes()[0])));
+			return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+		} catch (Throwable ex) {
+			return (object, value) -> {
+				try {
+					method.invoke(object, value);
+				} catch (InvocationTargetException ex0) {
+					throw new IllegalStateException(ex0.getCause());
+				} catch (ReflectiveOperationException ex0) {
+					throw new IllegalStateException(ex0);
+				}
+			};
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Function<Object, Object> createGetter(Method method) {
+		try {
+			final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), LOOKUP);
+			final MethodHandle handle = lookup.unreflect(method);
+			final CallSite site = LambdaMetafactory.metafactory(lookup, "apply", //$NON-NLS-1$
+					MethodType.methodType(Function.class),
+					MethodType.methodType(Object.class, Object.class),
+					handle,
+					MethodType.methodType(wrap(method.getReturnType()), method.getDeclaringClass()));
+			return (Function<Object, Object>) site.getTarget().invokeExact();
+		} catch (Throwable ex) {
+			return object -> {
+				try {
+					return method.invoke(object);
+				} catch (InvocationTargetException ex0) {
+					throw new IllegalStateException(ex0.getCause());
+				} catch (ReflectiveOperationException ex0) {
+					throw new IllegalStateException(ex0);
+				}
+			};
+		}
+	}
+
+}
@@ -17,8 +17,13 @@
 package fr.ciadlab.labmanager.io.json;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.JsonSerializer;
@@ -30,11 +35,14 @@ import fr.ciadlab.labmanager.entities.IdentifiableEntity;
 import fr.ciadlab.labmanager.entities.publication.JournalBasedPublication;
 import fr.ciadlab.labmanager.entities.publication.Publication;
 import fr.ciadlab.labmanager.io.ExporterConfigurator;
+import fr.ciadlab.labmanager.io.html.HtmlFragmentCache;
+import fr.ciadlab.labmanager.io.html.HtmlFragments;
 import fr.ciadlab.labmanager.io.html.HtmlPageExporter;
 import org.apache.jena.ext.com.google.common.base.Strings;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.stereotype.Component;
 
@@ -52,15 +60,19 @@ public class JacksonJsonExporter extends AbstractJsonExporter {
 
 	private HtmlPageExporter htmlPageExporter;
 
+	private HtmlFragmentCache fragmentCache;
+
 	/** Constructor.
 	 * 
 	 * @param messages the accessors to the localized messages.
 	 * @param htmlPageExporter the exporter for HTML pages.
-	 * @param doiTools the tools for managing the DOI.
+	 * @param fragmentCache the cache of the HTML fragments of the publications.
 	 */
-	public JacksonJsonExporter(@Autowired MessageSourceAccessor messages, @Autowired HtmlPageExporter htmlPageExporter) {
+	public JacksonJsonExporter(@Autowired MessageSourceAccessor messages, @Autowired HtmlPageExporter htmlPageExporter,
+			@Autowired HtmlFragmentCache fragmentCache) {
 		super(messages);
 		this.htmlPageExporter = htmlPageExporter;
+		this.fragmentCache = fragmentCache;
 	}
 
 	@Override
@@ -104,93 +116,166 @@ public class JacksonJsonExporter extends AbstractJsonExporter {
 			return mapper.nullNode();
 		}
 		final ArrayNode array = mapper.createArrayNode();
-		final boolean extraButtons = configurator.isDownloadButtons() || configurator.isExportButtons() || configurator.isEditButtons()
-				|| configurator.isDeleteButtons() || configurator.isFormattedAuthorList() || configurator.isFormattedPublicationDetails()
-				|| configurator.isFormattedLinks() || configurator.isTypeAndCategoryLabels();
+		final boolean extraButtons = hasExtraButtons(configurator);
 		for (final Publication publication : publications) {
-			final ObjectNode entryNode = exportPublication(publication, configurator, mapper);
-			// Add additional fields by the callback function
-			if (callback != null) {
-				callback.apply(publication, entryNode);
-			}
-			// Make aliasing of the year
-			if (entryNode.has("publicationYear")) { //$NON-NLS-1$
-				entryNode.set("year", entryNode.get("publicationYear").deepCopy()); //$NON-NLS-1$ //$NON-NLS-2$
-			}
-			// Make aliasing for the Scimago Quartiles
-			if (entryNode.has("scimagoQIndex") && publication instanceof JournalBasedPublication) { //$NON-NLS-1$
-				final JournalBasedPublication jbp = (JournalBasedPublication) publication;
-				final URL url = configurator.getJournalService().getScimagoQuartileImageURLByJournal(jbp.getJournal());
-				if (url != null) {
-					entryNode.set("scimagoQIndex_imageUrl", entryNode.textNode(url.toExternalForm())); //$NON-NLS-1$
+			array.add(exportPublicationEntry(publication, configurator, callback, mapper, extraButtons));
+		}
+		return array;
+	}
+
+	@Override
+	public void exportPublicationsToStream(Iterable<? extends Publication> publications, ExporterConfigurator configurator,
+			OutputStream output, String... rootKeys) throws Exception {
+		final ObjectMapper mapper = new ObjectMapper();
+		final JsonFactory factory = mapper.getFactory();
+		try (final JsonGenerator generator = factory.createGenerator(output, JsonEncoding.UTF8)) {
+			// The output stream is managed by the caller
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			if (rootKeys != null) {
+				for (final String rkey : rootKeys) {
+					generator.writeStartObject();
+					generator.writeFieldName(rkey);
 				}
 			}
-			// Add labels for type and category
-			if (configurator.isTypeAndCategoryLabels()) {
-				if (entryNode.has("type")) { //$NON-NLS-1$
-					entryNode.set("htmlTypeLabel", mapper.valueToTree(publication.getType().getLabel())); //$NON-NLS-1$
-				}
-				if (entryNode.has("category")) { //$NON-NLS-1$
-					entryNode.set("htmlCategoryLabel", mapper.valueToTree(publication.getType().getCategory(publication.isRanked()).getLabel())); //$NON-NLS-1$
+			if (publications == null) {
+				generator.writeNull();
+			} else {
+				final boolean extraButtons = hasExtraButtons(configurator);
+				generator.writeStartArray();
+				for (final Publication publication : publications) {
+					// Only the node of the current publication is in memory
+					final ObjectNode entryNode = exportPublicationEntry(publication, configurator, null, mapper, extraButtons);
+					mapper.writeTree(generator, entryNode);
 				}
+				generator.writeEndArray();
 			}
-			//
-			if (extraButtons) {
-				if (configurator.isDownloadButtons()) {
-					final String button0 = this.htmlPageExporter.getButtonToDownloadPublicationPDF(publication.getPathToDownloadablePDF());
-					final String button1 = this.htmlPageExporter.getButtonToDownloadPublicationAwardCertificate(publication.getPathToDownloadableAwardCertificate());
-					final ArrayNode array0 = mapper.createArrayNode();
-					if (!Strings.isNullOrEmpty(button0)) {
-						array0.add(mapper.valueToTree(button0));
-					}
-					if (!Strings.isNullOrEmpty(button1)) {
-						array0.add(mapper.valueToTree(button1));
-					}
-					entryNode.set("htmlDownloads", array0); //$NON-NLS-1$
-				}
-				if (configurator.isExportButtons()) {
-					final String button0 = this.htmlPageExporter.getButtonToExportPublicationToBibTeX(publication.getId(), configurator);
-					final String button1 = this.htmlPageExporter.getButtonToExportPublicationToOpenDocument(publication.getId(), configurator);
-					final String button2 = this.htmlPageExporter.getButtonToExportPublicationToHtml(publication.getId(), configurator);
-					final ArrayNode array0 = mapper.createArrayNode();
-					if (!Strings.isNullOrEmpty(button0)) {
-						array0.add(mapper.valueToTree(button0));
-					}
-					if (!Strings.isNullOrEmpty(button1)) {
-						array0.add(mapper.valueToTree(button1));
-					}
-					if (!Strings.isNullOrEmpty(button2)) {
-						array0.add(mapper.valueToTree(button2));
-					}
-					entryNode.set("htmlExports", array0); //$NON-NLS-1$
-				}
-				if (configurator.isEditButtons()) {
-					final String editButton = this.htmlPageExporter.getButtonToEditPublication(publication.getId());
-					if (!Strings.isNullOrEmpty(editButton)) {
-						final JsonNode editNode = mapper.valueToTree(editButton);
-						entryNode.set("htmlEdit", editNode); //$NON-NLS-1$
-					}
-				}
-				if (configurator.isDeleteButtons()) {
-					final String deleteButton = this.htmlPageExporter.getButtonToDeletePublication(publication.getId());
-					if (!Strings.isNullOrEmpty(deleteButton)) {
-						final JsonNode deleteNode = mapper.valueToTree(deleteButton);
-						entryNode.set("htmlDelete", deleteNode); //$NON-NLS-1$
-					}
-				}
-				if (configurator.isFormattedAuthorList()) {
-					entryNode.set("htmlAuthors", mapper.valueToTree(this.htmlPageExporter.generateHtmlAuthors(publication, configurator))); //$NON-NLS-1$
-				}
-				if (configurator.isFormattedPublicationDetails()) {
-					entryNode.set("htmlPublicationDetails", mapper.valueToTree(this.htmlPageExporter.generateHtmlPublicationDetails(publication, configurator))); //$NON-NLS-1$
-				}
-				if (configurator.isFormattedLinks()) {
-					entryNode.set("htmlLinks", mapper.valueToTree(this.htmlPageExporter.generateHtmlLinks(publication, configurator))); //$NON-NLS-1$
+			if (rootKeys != null) {
+				for (int i = 0; i < rootKeys.length; ++i) {
+					generator.writeEndObject();
 				}
 			}
-			array.add(entryNode);
 		}
-		return array;
+	}
+
+	private static boolean hasExtraButtons(ExporterConfigurator configurator) {
+		return configurator.isDownloadButtons() || configurator.isExportButtons() || configurator.isEditButtons()
+				|| configurator.isDeleteButtons() || configurator.isFormattedAuthorList() || configurator.isFormattedPublicationDetails()
+				|| configurator.isFormattedLinks() || configurator.isTypeAndCategoryLabels();
+	}
+
+	/** Export the given publication into a JSON node, including the additional fields and HTML fragments.
+	 * 
+	 * @param publication the publication to export.
+	 * @param configurator the configurator for the export, never {@code null}.
+	 * @param callback a function that is invoked for giving the opportunity to fill up the Json node of the publication.
+	 * @param mapper the JSON object creator and mapper.
+	 * @param extraButtons indicates if the HTML fragments must be generated.
+	 * @return the representation of the publication.
+	 * @throws Exception if the publication cannot be converted.
+	 */
+	protected ObjectNode exportPublicationEntry(Publication publication, ExporterConfigurator configurator,
+			Procedure2<Publication, ObjectNode> callback, ObjectMapper mapper, boolean extraButtons) throws Exception {
+		final ObjectNode entryNode = exportPublication(publication, configurator, mapper);
+		// Add additional fields by the callback function
+		if (callback != null) {
+			callback.apply(publication, entryNode);
+		}
+		// Make aliasing of the year
+		if (entryNode.has("publicationYear")) { //$NON-NLS-1$
+			entryNode.set("year", entryNode.get("publicationYear").deepCopy()); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		// Make aliasing for the Scimago Quartiles
+		if (entryNode.has("scimagoQIndex") && publication instanceof JournalBasedPublication) { //$NON-NLS-1$
+			final JournalBasedPublication jbp = (JournalBasedPublication) publication;
+			final URL url = configurator.getJournalService().getScimagoQuartileImageURLByJournal(jbp.getJournal());
+			if (url != null) {
+				entryNode.set("scimagoQIndex_imageUrl", entryNode.textNode(url.toExternalForm())); //$NON-NLS-1$
+			}
+		}
+		// Add labels for type and category
+		if (configurator.isTypeAndCategoryLabels()) {
+			if (entryNode.has("type")) { //$NON-NLS-1$
+				entryNode.set("htmlTypeLabel", mapper.valueToTree(publication.getType().getLabel())); //$NON-NLS-1$
+			}
+			if (entryNode.has("category")) { //$NON-NLS-1$
+				entryNode.set("htmlCategoryLabel", mapper.valueToTree(publication.getType().getCategory(publication.isRanked()).getLabel())); //$NON-NLS-1$
+			}
+		}
+		//
+		if (extraButtons) {
+			// The download buttons are not cached because they depend on the uploaded files
+			if (configurator.isDownloadButtons()) {
+				entryNode.set("htmlDownloads", mapper.valueToTree(generateDownloadButtons(publication))); //$NON-NLS-1$
+			}
+			final HtmlFragments fragments = this.fragmentCache.getFragments(publication, configurator,
+					LocaleContextHolder.getLocale(), () -> generateHtmlFragments(publication, configurator));
+			if (fragments.getExportButtons() != null) {
+				entryNode.set("htmlExports", mapper.valueToTree(fragments.getExportButtons())); //$NON-NLS-1$
+			}
+			if (!Strings.isNullOrEmpty(fragments.getEditButton())) {
+				entryNode.set("htmlEdit", mapper.valueToTree(fragments.getEditButton())); //$NON-NLS-1$
+			}
+			if (!Strings.isNullOrEmpty(fragments.getDeleteButton())) {
+				entryNode.set("htmlDelete", mapper.valueToTree(fragments.getDeleteButton())); //$NON-NLS-1$
+			}
+			if (configurator.isFormattedAuthorList()) {
+				entryNode.set("htmlAuthors", mapper.valueToTree(fragments.getAuthors())); //$NON-NLS-1$
+			}
+			if (configurator.isFormattedPublicationDetails()) {
+				entryNode.set("htmlPublicationDetails", mapper.valueToTree(fragments.getPublicationDetails())); //$NON-NLS-1$
+			}
+			if (configurator.isFormattedLinks()) {
+				entryNode.set("htmlLinks", mapper.valueToTree(fragments.getLinks())); //$NON-NLS-1$
+			}
+		}
+		return entryNode;
+	}
+
+	/** Generate the buttons for downloading the files of the given publication.
+	 * These buttons are never cached because they depend on the files that are stored on the server
+	 * and on their thumbnails.
+	 * 
+	 * @param publication the publication.
+	 * @return the buttons.
+	 */
+	protected List<String> generateDownloadButtons(Publication publication) {
+		final List<String> downloadButtons = new ArrayList<>(2);
+		addButton(downloadButtons, this.htmlPageExporter.getButtonToDownloadPublicationPDF(publication.getPathToDownloadablePDF()));
+		addButton(downloadButtons, this.htmlPageExporter.getButtonToDownloadPublicationAwardCertificate(publication.getPathToDownloadableAwardCertificate()));
+		return downloadButtons;
+	}
+
+	/** Generate the HTML fragments of the given publication that could be cached.
+	 * 
+	 * @param publication the publication.
+	 * @param configurator the configurator for the export, never {@code null}.
+	 * @return the fragments.
+	 */
+	protected HtmlFragments generateHtmlFragments(Publication publication, ExporterConfigurator configurator) {
+		List<String> exportButtons = null;
+		if (configurator.isExportButtons()) {
+			exportButtons = new ArrayList<>(3);
+			addButton(exportButtons, this.htmlPageExporter.getButtonToExportPublicationToBibTeX(publication.getId(), configurator));
+			addButton(exportButtons, this.htmlPageExporter.getButtonToExportPublicationToOpenDocument(publication.getId(), configurator));
+			addButton(exportButtons, this.htmlPageExporter.getButtonToExportPublicationToHtml(publication.getId(), configurator));
+		}
+		final String editButton = configurator.isEditButtons()
+				? this.htmlPageExporter.getButtonToEditPublication(publication.getId()) : null;
+		final String deleteButton = configurator.isDeleteButtons()
+				? this.htmlPageExporter.getButtonToDeletePublication(publication.getId()) : null;
+		final String authors = configurator.isFormattedAuthorList()
+				? this.htmlPageExporter.generateHtmlAuthors(publication, configurator) : null;
+		final String details = configurator.isFormattedPublicationDetails()
+				? this.htmlPageExporter.generateHtmlPublicationDetails(publication, configurator) : null;
+		final String links = configurator.isFormattedLinks()
+				? this.htmlPageExporter.generateHtmlLinks(publication, configurator) : null;
+		return new HtmlFragments(exportButtons, editButton, deleteButton, authors, details, links);
+	}
+
+	private static void addButton(List<String> buttons, String button) {
+		if (!Strings.isNullOrEmpty(button)) {
+			buttons.add(button);
+		}
 	}
 
 	/** Export in JSON a single publication.
@@ -16,6 +16,8 @@
 
 package fr.ciadlab.labmanager.io.json;
 
+import java.io.OutputStream;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fr.ciadlab.labmanager.entities.publication.Publication;
@@ -64,4 +66,17 @@ public interface JsonExporter extends PublicationExporter<String> {
 	JsonNode exportPublicationsAsTreeWithRootKeys(Iterable<? extends Publication> publications, ExporterConfigurator configurator,
 			Procedure2<Publication, ObjectNode> callback, String... rootKeys) throws Exception;
 
+	/** Export publications directly into the given stream. The publications are written one after the other
+	 * without building the whole JSON tree in memory.
+	 *
+	 * @param publications the publications to export.
+	 * @param configurator the configurator for the export, never {@code null}.
+	 * @param output the stream to write into. This stream is not closed by this function.
+	 * @param rootKeys the sequence of keys for building the root of the tree. The exported data is then
+	 *     output into the last created node with the {@code rootKeys}.
+	 * @throws Exception if the publication cannot be converted.
+	 */
+	void exportPublicationsToStream(Iterable<? extends Publication> publications, ExporterConfigurator configurator,
+			OutputStream output, String... rootKeys) throws Exception;
+
 }
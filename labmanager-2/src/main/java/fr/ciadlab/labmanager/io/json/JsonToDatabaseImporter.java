@@ -17,11 +17,12 @@
 package fr.ciadlab.labmanager.io.json;
 
 import java.io.InputStreamReader;
-import java.lang.reflect.Method;
 import java.net.URL;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -31,8 +32,13 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.function.BiConsumer;
 import java.util.stream.Stream;
 
+import javax.persistence.EntityManager;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.LinkedListMultimap;
@@ -46,6 +52,7 @@ import fr.ciadlab.labmanager.entities.publication.Authorship;
 import fr.ciadlab.labmanager.entities.publication.JournalBasedPublication;
 import fr.ciadlab.labmanager.entities.publication.Publication;
 import fr.ciadlab.labmanager.entities.publication.PublicationComparator;
+import fr.ciadlab.labmanager.entities.publication.PublicationIdentifierDuplicateIndex;
 import fr.ciadlab.labmanager.entities.publication.PublicationType;
 import fr.ciadlab.labmanager.repository.journal.JournalQualityAnnualIndicatorsRepository;
 import fr.ciadlab.labmanager.repository.journal.JournalRepository;
@@ -58,12 +65,16 @@ import fr.ciadlab.labmanager.service.member.PersonService;
 import fr.ciadlab.labmanager.service.publication.PublicationService;
 import fr.ciadlab.labmanager.utils.names.PersonNameParser;
 import fr.ciadlab.labmanager.utils.ranking.QuartileRanking;
-import org.apache.commons.lang3.mutable.MutableInt;
+import org.apache.commons.lang3.mutable.MutableObject;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.jena.ext.com.google.common.base.Strings;
 import org.eclipse.xtext.xbase.lib.Functions.Function3;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /** Importer of JSON data into the database.
  * 
@@ -76,6 +87,16 @@ import org.springframework.stereotype.Component;
 @Component
 public class JsonToDatabaseImporter extends JsonTool {
 
+	/** Sections of the JSON source in the order of their dependencies.
+	 */
+	private static final String[] SECTIONS = {
+		RESEARCHORGANIZATIONS_SECTION,
+		PERSONS_SECTION,
+		MEMBERSHIPS_SECTION,
+		JOURNALS_SECTION,
+		PUBLICATIONS_SECTION,
+	};
+
 	private ResearchOrganizationRepository organizationRepository;
 
 	private PersonRepository personRepository;
@@ -88,16 +109,22 @@ public class JsonToDatabaseImporter extends JsonTool {
 
 	private JournalQualityAnnualIndicatorsRepository journalIndicatorsRepository;
 
-	private PublicationRepository publicationRepository;
-
 	private PublicationService publicationService;
 
+	private PublicationRepository publicationRepository;
+
 	private PublicationComparator publicationComparator;
 
 	private AuthorshipRepository authorshipRepository;
 
 	private PersonNameParser personNameParser;
 
+	private EntityManager entityManager;
+
+	private TransactionTemplate transactionTemplate;
+
+	private final int batchSize;
+
 	private final Multimap<String, String> fieldAliases = LinkedListMultimap.create();
 
 	private boolean fake;
@@ -110,11 +137,14 @@ public class JsonToDatabaseImporter extends JsonTool {
 	 * @param membershipRepository the accessor to the membership repository.
 	 * @param journalRepository the accessor to the journal repository.
 	 * @param journalIndicatorsRepository the accessor to the repository of the journal quality annual indicators.
-	 * @param publicationRepository the accessor to the repository of the publications.
 	 * @param publicationService the service related to the publications.
+	 * @param publicationRepository the accessor to the publication repository.
 	 * @param publicationComparator the comparator of publications.
 	 * @param authorshipRepository the accessor to the authorships.
 	 * @param personNameParser the parser of person names.
+	 * @param entityManager the manager of the persistence context, that is flushed and cleared after each batch.
+	 * @param transactionManager the manager of the transactions.
+	 * @param batchSize the number of JSON elements that are imported within a single transaction.
 	 */
 	public JsonToDatabaseImporter(
 			@Autowired ResearchOrganizationRepository organizationRepository,
@@ -123,22 +153,28 @@ public class JsonToDatabaseImporter extends JsonTool {
 			@Autowired MembershipRepository membershipRepository,
 			@Autowired JournalRepository journalRepository,
 			@Autowired JournalQualityAnnualIndicatorsRepository journalIndicatorsRepository,
-			@Autowired PublicationRepository publicationRepository,
 			@Autowired PublicationService publicationService,
+			@Autowired PublicationRepository publicationRepository,
 			@Autowired PublicationComparator publicationComparator,
 			@Autowired AuthorshipRepository authorshipRepository,
-			@Autowired PersonNameParser personNameParser) {
+			@Autowired PersonNameParser personNameParser,
+			@Autowired EntityManager entityManager,
+			@Autowired PlatformTransactionManager transactionManager,
+			@Value("${labmanager.init.batch-size:100}") int batchSize) {
 		this.organizationRepository = organizationRepository;
 		this.personRepository = personRepository;
 		this.personService = personService;
 		this.membershipRepository = membershipRepository;
 		this.journalRepository = journalRepository;
 		this.journalIndicatorsRepository = journalIndicatorsRepository;
-		this.publicationRepository = publicationRepository;
 		this.publicationService = publicationService;
+		this.publicationRepository = publicationRepository;
 		this.publicationComparator = publicationComparator;
 		this.authorshipRepository = authorshipRepository;
 		this.personNameParser = personNameParser;
+		this.entityManager = entityManager;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = Math.max(1, batchSize);
 		initializeFieldAliases();
 	}
 
@@ -175,16 +211,6 @@ public class JsonToDatabaseImporter extends JsonTool {
 		return this.fieldAliases.get(sourceName);
 	}
 
-	private static <T> T getAndCast(Map<String, Object> content, String key, Class<T> type) {
-		if (content != null && !Strings.isNullOrEmpty(key)) {
-			final Object value = content.get(key);
-			if (value != null && type.isInstance(value)) {
-				return type.cast(value);
-			}
-		}
-		return null;
-	}
-
 	private static <T extends Enum<T>> T getEnum(JsonNode content, String key, Class<T> type) {
 		if (content != null && !Strings.isNullOrEmpty(key) && content.isObject()) {
 			final JsonNode value = content.get(key);
@@ -263,7 +289,8 @@ public class JsonToDatabaseImporter extends JsonTool {
 		if (!source.isObject()) {
 			throw new IllegalArgumentException("Source node for an object must be a Json map."); //$NON-NLS-1$
 		}
-		final T obj = type.getConstructor().newInstance();
+		final EntityBinder<T> binder = EntityBinder.of(type);
+		final T obj = binder.newInstance();
 		final Iterator<Entry<String, JsonNode>> iterator = source.fields();
 		while (iterator.hasNext()) {
 			final Entry<String, JsonNode> entry = iterator.next();
@@ -283,14 +310,14 @@ public class JsonToDatabaseImporter extends JsonTool {
 					return set;
 				});
 				final Object rawValue = getRawValue(jsonValue);
-				final Method method;
+				final BiConsumer<Object, Object> setter;
 				if (rawValue != null) {
-					method = findSetterMethod(type, aliases, rawValue);
+					setter = binder.findSetter(aliases, rawValue.getClass());
 				} else {
-					method = null;
+					setter = null;
 				}
-				if (method != null) {
-					method.invoke(obj, rawValue);
+				if (setter != null) {
+					setter.accept(obj, rawValue);
 				} else if (failIfNoSetter != null && failIfNoSetter.apply(key, rawValue, jsonValue).booleanValue()) {
 					throw new IllegalArgumentException("Setter function not found for the attribute: " + key //$NON-NLS-1$
 							+ "; with a value of type: " + jsonValue); //$NON-NLS-1$
@@ -301,333 +328,473 @@ public class JsonToDatabaseImporter extends JsonTool {
 	}
 
 	/** Run the importer.
+	 * The JSON source is read as a stream of tokens: the sections are imported one after the other in the order
+	 * of their dependencies, i.e., organizations, persons, memberships, journals and publications. The elements of
+	 * a section are imported by batches; each batch is imported within its own transaction and the persistence
+	 * context is flushed and cleared at the end of the batch. The size of the batches is defined by the property
+	 * {@code labmanager.init.batch-size}. The JSON identifiers of the imported elements are mapped to the database
+	 * identifiers of the entities; the entities are not retained by the importer.
+	 * <p>The JSON source is read again only if its sections are not in the order of their dependencies.
+	 * <p>If the importer {@link #isFake() is fake}, the entities are not saved and they are retained by the importer
+	 * for resolving the references; the import is run within a single transaction that is rolled back.
 	 *
 	 * @param url the URL of the JSON file to read.
 	 * @throws Exception if there is problem for importing.
 	 */
 	public void importToDatabase(URL url) throws Exception {
-		final JsonNode content;
-		try (final InputStreamReader isr = new InputStreamReader(url.openStream())) {
-			final ObjectMapper mapper = new ObjectMapper();
-			content = mapper.readTree(isr);
-		}
-		if (content != null && !content.isEmpty()) {
-			final Map<String, Object> objectRepository = new TreeMap<>();
-			final Map<String, Set<String>> aliasRepository = new TreeMap<>();
-			final int nb0 = insertOrganizations(content.get(RESEARCHORGANIZATIONS_SECTION), objectRepository, aliasRepository);
-			final int nb1 = insertPersons(content.get(PERSONS_SECTION), objectRepository, aliasRepository);
-			final int nb2 = insertMemberships(content.get(MEMBERSHIPS_SECTION), objectRepository, aliasRepository);
-			final int nb3 = insertJournals(content.get(JOURNALS_SECTION), objectRepository, aliasRepository);
-			final Pair<Integer, Integer> added = insertPublications(content.get(PUBLICATIONS_SECTION), objectRepository, aliasRepository);
-			final int nb4 = added != null ? added.getLeft().intValue() : 0;
-			final int nb5 = added != null ? added.getRight().intValue() : 0;
+		final ImportContext context = new ImportContext();
+		if (isFake()) {
+			runInTransaction(() -> importSections(url, context), true);
+		} else {
+			importSections(url, context);
+		}
+		if (context.nbSections > 0) {
 			getLogger().info("Summary of inserts: " //$NON-NLS-1$
-					+ nb0 + " organizations; " //$NON-NLS-1$
-					+ (nb1 + nb5) + " persons; " //$NON-NLS-1$
-					+ nb2 + " memberships; " //$NON-NLS-1$
-					+ nb3 + " journals; " //$NON-NLS-1$
-					+ nb4 + " publications."); //$NON-NLS-1$
+					+ context.nbOrganizations + " organizations; " //$NON-NLS-1$
+					+ context.nbPersons + " persons; " //$NON-NLS-1$
+					+ context.nbMemberships + " memberships; " //$NON-NLS-1$
+					+ context.nbJournals + " journals; " //$NON-NLS-1$
+					+ context.nbPublications + " publications."); //$NON-NLS-1$
 		}
 	}
 
-	/** Create the research organizations in the database.
+	/** Import the sections of the JSON source in the order of their dependencies.
 	 *
-	 * @param organizations the list of organizations in the Json source.
-	 * @param objectRepository the repository of the JSON elements with {@code "@id"} field.
-	 * @param aliasRepository the repository of field aliases.
-	 * @return the number of new organizations in the database.
-	 * @throws Exception if an organization cannot be created.
+	 * @param url the URL of the JSON file to read.
+	 * @param context the context of the import.
+	 * @throws Exception if there is problem for importing.
 	 */
-	protected int insertOrganizations(JsonNode organizations_, Map<String, Object> objectRepository,
-			Map<String, Set<String>> aliasRepository) throws Exception {
-		int nbNew = 0;
-		if (organizations_ != null && !organizations_.isEmpty()) {
-			getLogger().info("Inserting " + organizations_.size() + " organizations..."); //$NON-NLS-1$ //$NON-NLS-2$
-			int i = 0;
-			final List<Pair<ResearchOrganization, String>> superOrgas = new ArrayList<>();
-			for (final JsonNode orgaObject : organizations_) {
-				getLogger().info("> Organization " + (i + 1) + "/" + organizations_.size()); //$NON-NLS-1$ //$NON-NLS-2$
-				try {
-					final String id = getId(orgaObject);
-					ResearchOrganization orga = createObject(ResearchOrganization.class, orgaObject,
-							aliasRepository, null);
-					if (orga != null) {
-						final Optional<ResearchOrganization> existing = this.organizationRepository.findDistinctByAcronymOrName(orga.getAcronym(), orga.getName());
-						if (existing.isEmpty()) {
-							if (!isFake()) {
-								orga = this.organizationRepository.save(orga);
-							}
-							++nbNew;
-							getLogger().info("  + " + orga.getAcronymOrName() + " (id: " + orga.getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-							if (!Strings.isNullOrEmpty(id)) {
-								objectRepository.put(id, orga);
-							}
-							final String superOrga = getRef(orgaObject.get(SUPERORGANIZATION_KEY));
-							if (!Strings.isNullOrEmpty(superOrga)) {
-								superOrgas.add(Pair.of(orga, superOrga));
-							}
-						} else {
-							getLogger().info("  X " + existing.get().getAcronymOrName() + " (id: " + existing.get().getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-							if (!Strings.isNullOrEmpty(id)) {
-								objectRepository.put(id, existing.get());
-							}
-						}
+	private void importSections(URL url, ImportContext context) throws Exception {
+		final ObjectMapper mapper = new ObjectMapper();
+		final List<String> pendingSections = new ArrayList<>(Arrays.asList(SECTIONS));
+		while (!pendingSections.isEmpty()) {
+			final Set<String> presentSections = new TreeSet<>();
+			try (final InputStreamReader isr = new InputStreamReader(url.openStream());
+					final JsonParser parser = mapper.getFactory().createParser(isr)) {
+				final JsonToken rootToken = parser.nextToken();
+				if (rootToken == null) {
+					return;
+				}
+				if (rootToken != JsonToken.START_OBJECT) {
+					throw new IllegalArgumentException("The root of the JSON source must be a JSON object"); //$NON-NLS-1$
+				}
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					final String section = parser.getCurrentName();
+					parser.nextToken();
+					presentSections.add(section);
+					if (!pendingSections.isEmpty() && pendingSections.get(0).equals(section)) {
+						importSection(section, parser, mapper, context);
+						pendingSections.remove(0);
+						++context.nbSections;
+					} else {
+						parser.skipChildren();
 					}
+				}
+			}
+			// Sections that are not in the JSON source are ignored
+			pendingSections.retainAll(presentSections);
+			if (!pendingSections.isEmpty()) {
+				getLogger().info("Reading again the JSON source for the sections: " + pendingSections); //$NON-NLS-1$
+			}
+		}
+	}
+
+	/** Import the elements of a section. The parser is on the first token of the section's value.
+	 *
+	 * @param section the name of the section.
+	 * @param parser the JSON parser.
+	 * @param mapper the JSON mapper that is used for reading the elements.
+	 * @param context the context of the import.
+	 * @throws Exception if there is problem for importing.
+	 */
+	private void importSection(String section, JsonParser parser, ObjectMapper mapper, ImportContext context) throws Exception {
+		if (parser.currentToken() != JsonToken.START_ARRAY) {
+			throw new IllegalArgumentException("The section " + section + " must be a JSON array"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		final String label;
+		final ElementImporter importer;
+		switch (section) {
+		case RESEARCHORGANIZATIONS_SECTION:
+			label = "Organization"; //$NON-NLS-1$
+			importer = it -> insertOrganization(it, context);
+			break;
+		case PERSONS_SECTION:
+			label = "Person"; //$NON-NLS-1$
+			importer = it -> insertPerson(it, context);
+			break;
+		case MEMBERSHIPS_SECTION:
+			label = "Membership"; //$NON-NLS-1$
+			importer = it -> insertMembership(it, context);
+			break;
+		case JOURNALS_SECTION:
+			label = "Journal"; //$NON-NLS-1$
+			importer = it -> insertJournal(it, context);
+			break;
+		case PUBLICATIONS_SECTION:
+			label = "Publication"; //$NON-NLS-1$
+			importer = it -> insertPublication(it, context);
+			context.existingPublications = buildExistingPublicationIndex();
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported section: " + section); //$NON-NLS-1$
+		}
+		getLogger().info("Inserting " + section + "..."); //$NON-NLS-1$ //$NON-NLS-2$
+		final List<JsonNode> batch = new ArrayList<>(this.batchSize);
+		int index = 0;
+		JsonToken token = parser.nextToken();
+		while (token != JsonToken.END_ARRAY) {
+			if (token == null) {
+				throw new IllegalArgumentException("Unexpected end of the JSON source in section: " + section); //$NON-NLS-1$
+			}
+			batch.add(mapper.readTree(parser));
+			if (batch.size() >= this.batchSize) {
+				importBatch(section, label, index, batch, importer);
+				index += batch.size();
+				batch.clear();
+			}
+			token = parser.nextToken();
+		}
+		if (!batch.isEmpty()) {
+			importBatch(section, label, index, batch, importer);
+		}
+		if (RESEARCHORGANIZATIONS_SECTION.equals(section)) {
+			linkSuperOrganizations(context);
+		}
+	}
+
+	/** Import a batch of elements within a single transaction.
+	 *
+	 * @param section the name of the section.
+	 * @param label the label of the elements for the logs.
+	 * @param firstIndex the index of the first element of the batch in the section.
+	 * @param batch the elements to import.
+	 * @param importer the importer of a single element.
+	 * @throws Exception if there is problem for importing.
+	 */
+	private void importBatch(String section, String label, int firstIndex, List<JsonNode> batch, ElementImporter importer) throws Exception {
+		runInTransaction(() -> {
+			int i = firstIndex;
+			for (final JsonNode element : batch) {
+				getLogger().info("> " + label + " " + (i + 1)); //$NON-NLS-1$ //$NON-NLS-2$
+				try {
+					importer.importElement(element);
 				} catch (Throwable ex) {
-					throw new UnableToImportJsonException(RESEARCHORGANIZATIONS_SECTION, i, orgaObject,ex);
+					throw new UnableToImportJsonException(section, i, element, ex);
 				}
 				++i;
 			}
-			for (final Pair<ResearchOrganization, String> entry : superOrgas) {
-				final ResearchOrganization sup = getAndCast(objectRepository, entry.getRight(), ResearchOrganization.class);
-				if (sup == null) {
-					throw new IllegalArgumentException("Invalid reference to Json element with id: " + entry.getRight()); //$NON-NLS-1$
+			// Detach the entities of the batch for keeping the memory usage independent of the size of the source
+			this.entityManager.flush();
+			this.entityManager.clear();
+		}, false);
+	}
+
+	/** Build the index of the publications that are in the database before the import of the publications.
+	 * The index retains only the identifiers and the blocking keys of the publications.
+	 *
+	 * @return the index.
+	 * @throws Exception if the publications cannot be read.
+	 */
+	private PublicationIdentifierDuplicateIndex buildExistingPublicationIndex() throws Exception {
+		getLogger().info("Retreiving the existing publications..."); //$NON-NLS-1$
+		final PublicationIdentifierDuplicateIndex index = new PublicationIdentifierDuplicateIndex();
+		runInTransaction(() -> {
+			try (final Stream<Publication> publications = this.publicationRepository.streamAllOrderedById()) {
+				final Iterator<Publication> iterator = publications.iterator();
+				while (iterator.hasNext()) {
+					index.add(iterator.next());
+					if (index.size() % this.batchSize == 0) {
+						this.entityManager.clear();
+					}
 				}
-				entry.getLeft().setSuperOrganization(sup);
-				sup.getSubOrganizations().add(entry.getLeft());
-				if (!isFake()) {
-					this.organizationRepository.save(entry.getLeft());
-					this.organizationRepository.save(sup);
+			}
+		}, false);
+		return index;
+	}
+
+	/** Run the given task within a transaction.
+	 * If the task is run inside an existing transaction, it participates to this transaction.
+	 *
+	 * @param task the task to run.
+	 * @param rollback indicates if the transaction must be rolled back at the end of the task.
+	 * @throws Exception the exception that is thrown by the task.
+	 */
+	private void runInTransaction(TransactionalTask task, boolean rollback) throws Exception {
+		final MutableObject<Exception> error = new MutableObject<>();
+		this.transactionTemplate.executeWithoutResult(status -> {
+			try {
+				task.run();
+			} catch (Exception ex) {
+				error.setValue(ex);
+				status.setRollbackOnly();
+				return;
+			}
+			if (rollback) {
+				status.setRollbackOnly();
+			}
+		});
+		if (error.getValue() != null) {
+			throw error.getValue();
+		}
+	}
+
+	/** Replies the entity that is referenced by the given JSON identifier.
+	 *
+	 * @param <T> the type of the entity.
+	 * @param context the context of the import.
+	 * @param jsonId the JSON identifier.
+	 * @param type the type of the entity.
+	 * @param repository the repository of the entities.
+	 * @return the entity or {@code null} if the JSON identifier is unknown.
+	 */
+	private static <T> T findReference(ImportContext context, String jsonId, Class<T> type, JpaRepository<T, Integer> repository) {
+		final T fakeEntity = context.getFakeEntity(type, jsonId);
+		if (fakeEntity != null) {
+			return fakeEntity;
+		}
+		final Integer databaseId = context.getReference(type, jsonId);
+		if (databaseId != null) {
+			return repository.findById(databaseId).orElse(null);
+		}
+		return null;
+	}
+
+	/** Create a research organization in the database.
+	 *
+	 * @param orgaObject the organization in the Json source.
+	 * @param context the context of the import.
+	 * @throws Exception if an organization cannot be created.
+	 */
+	private void insertOrganization(JsonNode orgaObject, ImportContext context) throws Exception {
+		final String id = getId(orgaObject);
+		ResearchOrganization orga = createObject(ResearchOrganization.class, orgaObject,
+				context.aliasRepository, null);
+		if (orga != null) {
+			final Optional<ResearchOrganization> existing = this.organizationRepository.findDistinctByAcronymOrName(orga.getAcronym(), orga.getName());
+			if (existing.isEmpty()) {
+				if (isFake()) {
+					context.putFakeEntity(ResearchOrganization.class, id, orga);
+				} else {
+					orga = this.organizationRepository.save(orga);
+					context.putReference(ResearchOrganization.class, id, orga.getId());
+				}
+				++context.nbOrganizations;
+				getLogger().info("  + " + orga.getAcronymOrName() + " (id: " + orga.getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				final String superOrga = getRef(orgaObject.get(SUPERORGANIZATION_KEY));
+				if (!Strings.isNullOrEmpty(superOrga)) {
+					context.superOrganizations.add(Pair.of(Integer.valueOf(orga.getId()), superOrga));
 				}
+			} else {
+				getLogger().info("  X " + existing.get().getAcronymOrName() + " (id: " + existing.get().getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				context.putReference(ResearchOrganization.class, id, existing.get().getId());
 			}
 		}
-		return nbNew;
 	}
 
-	/** Create the persons in the database.
+	/** Link the new research organizations to their super organizations.
+	 * This is done when all the organizations are in the database.
 	 *
-	 * @param persons the list of persons in the Json source.
-	 * @param objectRepository the repository of the JSON elements with {@code "@id"} field.
-	 * @param aliasRepository the repository of field aliases.
-	 * @return the number of new persons in the database.
-	 * @throws Exception if a person cannot be created.
+	 * @param context the context of the import.
+	 * @throws Exception if a super organization cannot be found.
 	 */
-	protected int insertPersons(JsonNode persons, Map<String, Object> objectRepository,
-			Map<String, Set<String>> aliasRepository) throws Exception {
-		int nbNew = 0;
-		if (persons != null && !persons.isEmpty()) {
-			getLogger().info("Inserting " + persons.size() + " persons..."); //$NON-NLS-1$ //$NON-NLS-2$
-			int i = 0;
-			for (JsonNode personObject : persons) {
-				getLogger().info("> Person " + (i + 1) + "/" + persons.size()); //$NON-NLS-1$ //$NON-NLS-2$
-				try {
-					final String id = getId(personObject);
-					Person person = createObject(Person.class, personObject, aliasRepository, null);
-					if (person != null) {
-						final Optional<Person> existing = this.personRepository.findDistinctByFirstNameAndLastName(person.getFirstName(), person.getLastName());
-						if (existing.isEmpty()) {
-							if (!isFake()) {
-								person = this.personRepository.save(person);
-							}
-							++nbNew;
-							getLogger().info("  + " + person.getFullName() + " (id: " + person.getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-							if (!Strings.isNullOrEmpty(id)) {
-								objectRepository.put(id, person);
-							}
-						} else {
-							getLogger().info("  X " + existing.get().getFullName() + " (id: " + existing.get().getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-							if (!Strings.isNullOrEmpty(id)) {
-								objectRepository.put(id, existing.get());
-							}
-						}
+	private void linkSuperOrganizations(ImportContext context) throws Exception {
+		if (!context.superOrganizations.isEmpty()) {
+			runInTransaction(() -> {
+				for (final Pair<Integer, String> entry : context.superOrganizations) {
+					final ResearchOrganization sup = findReference(context, entry.getRight(), ResearchOrganization.class, this.organizationRepository);
+					if (sup == null) {
+						throw new IllegalArgumentException("Invalid reference to Json element with id: " + entry.getRight()); //$NON-NLS-1$
+					}
+					if (!isFake()) {
+						final ResearchOrganization orga = this.organizationRepository.findById(entry.getLeft()).orElseThrow();
+						orga.setSuperOrganization(sup);
+						this.organizationRepository.save(orga);
 					}
-				} catch (Throwable ex) {
-					throw new UnableToImportJsonException(PERSONS_SECTION, i, personObject, ex);
 				}
-				++i;
+				this.entityManager.flush();
+				this.entityManager.clear();
+			}, false);
+			context.superOrganizations.clear();
+		}
+	}
+
+	/** Create a person in the database.
+	 *
+	 * @param personObject the person in the Json source.
+	 * @param context the context of the import.
+	 * @throws Exception if a person cannot be created.
+	 */
+	private void insertPerson(JsonNode personObject, ImportContext context) throws Exception {
+		final String id = getId(personObject);
+		Person person = createObject(Person.class, personObject, context.aliasRepository, null);
+		if (person != null) {
+			final Optional<Person> existing = this.personRepository.findDistinctByFirstNameAndLastName(person.getFirstName(), person.getLastName());
+			if (existing.isEmpty()) {
+				if (isFake()) {
+					context.putFakeEntity(Person.class, id, person);
+				} else {
+					person = this.personRepository.save(person);
+					context.putReference(Person.class, id, person.getId());
+				}
+				++context.nbPersons;
+				getLogger().info("  + " + person.getFullName() + " (id: " + person.getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			} else {
+				getLogger().info("  X " + existing.get().getFullName() + " (id: " + existing.get().getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				context.putReference(Person.class, id, existing.get().getId());
 			}
 		}
-		return nbNew;
 	}
 
-	/** Create the memberships in the database.
+	/** Create a membership in the database.
 	 *
-	 * @param memberships the list of memberships in the Json source.
-	 * @param objectRepository the repository of the JSON elements with {@code "@id"} field.
-	 * @param aliasRepository the repository of field aliases.
-	 * @return the number of new memberships in the database.
+	 * @param membershipObject the membership in the Json source.
+	 * @param context the context of the import.
 	 * @throws Exception if a membership cannot be created.
 	 */
-	protected int insertMemberships(JsonNode memberships, Map<String, Object> objectRepository,
-			Map<String, Set<String>> aliasRepository) throws Exception {
-		int nbNew = 0;
-		if (memberships != null && !memberships.isEmpty()) {
-			getLogger().info("Inserting " + memberships.size() + " memberships..."); //$NON-NLS-1$ //$NON-NLS-2$
-			int i = 0;
-			for (JsonNode membershipObject : memberships) {
-				getLogger().info("> Membership " + (i + 1) + "/" + memberships.size()); //$NON-NLS-1$ //$NON-NLS-2$
-				try {
-					final String id = getId(membershipObject);
-					Membership membership = createObject(Membership.class, membershipObject, aliasRepository, null);
-					if (membership != null) {
-						final String personId = getRef(membershipObject.get(PERSON_KEY));
-						if (Strings.isNullOrEmpty(personId)) {
-							throw new IllegalArgumentException("Invalid person reference for membership with id: " + id); //$NON-NLS-1$
-						}
-						final Person targetPerson = getAndCast(objectRepository, personId, Person.class);
-						if (targetPerson == null) {
-							throw new IllegalArgumentException("Invalid person reference for membership with id: " + id); //$NON-NLS-1$
-						}
-						//
-						final String orgaId = getRef(membershipObject.get(RESEARCHORGANIZATION_KEY));
-						if (Strings.isNullOrEmpty(orgaId)) {
-							throw new IllegalArgumentException("Invalid organization reference for membership with id: " + id); //$NON-NLS-1$
-						}
-						final ResearchOrganization targetOrganization = getAndCast(objectRepository, orgaId, ResearchOrganization.class);
-						if (targetOrganization == null) {
-							throw new IllegalArgumentException("Invalid organization reference for membership with id: " + id); //$NON-NLS-1$
-						}
-						//
-						final Set<Membership> existings = this.membershipRepository.findByResearchOrganizationIdAndPersonId(
-								targetOrganization.getId(), targetPerson.getId());
-						final Membership finalmbr0 = membership;
-						final Stream<Membership> existing0 = existings.stream().filter(it -> {
-							assert it.getPerson().getId() == targetPerson.getId();
-							assert it.getResearchOrganization().getId() == targetOrganization.getId();
-							return Objects.equals(it.getMemberStatus(), finalmbr0.getMemberStatus())
-									&& Objects.equals(it.getResponsibility(), finalmbr0.getResponsibility())
-									&& Objects.equals(it.getMemberSinceWhen(), finalmbr0.getMemberSinceWhen())
-									&& Objects.equals(it.getMemberToWhen(), finalmbr0.getMemberToWhen());
-						});
-						final Optional<Membership> existing = existing0.findAny();
-						if (existing.isEmpty()) {
-							membership.setPerson(targetPerson);
-							membership.setResearchOrganization(targetOrganization);
-							targetPerson.getMemberships().add(membership);
-							targetOrganization.getMemberships().add(membership);
-							if (!isFake()) {
-								membership = this.membershipRepository.save(membership);
-							}
-							++nbNew;
-							getLogger().info("  + " + targetOrganization.getAcronymOrName() //$NON-NLS-1$
-							+ " - " + targetPerson.getFullName() //$NON-NLS-1$
-							+ " (id: " + membership.getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$
-							if (!Strings.isNullOrEmpty(id)) {
-								objectRepository.put(id, membership);
-							}
-						} else {
-							getLogger().info("  X " + targetOrganization.getAcronymOrName() //$NON-NLS-1$
-							+ " - " + targetPerson.getFullName() //$NON-NLS-1$
-							+ " (id: " + existing.get().getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$
-							if (!Strings.isNullOrEmpty(id)) {
-								objectRepository.put(id, existing.get());
-							}
-						}
-					}
-				} catch (Throwable ex) {
-					throw new UnableToImportJsonException(MEMBERSHIPS_SECTION, i, membershipObject, ex);
+	private void insertMembership(JsonNode membershipObject, ImportContext context) throws Exception {
+		final String id = getId(membershipObject);
+		Membership membership = createObject(Membership.class, membershipObject, context.aliasRepository, null);
+		if (membership != null) {
+			final String personId = getRef(membershipObject.get(PERSON_KEY));
+			if (Strings.isNullOrEmpty(personId)) {
+				throw new IllegalArgumentException("Invalid person reference for membership with id: " + id); //$NON-NLS-1$
+			}
+			final Person targetPerson = findReference(context, personId, Person.class, this.personRepository);
+			if (targetPerson == null) {
+				throw new IllegalArgumentException("Invalid person reference for membership with id: " + id); //$NON-NLS-1$
+			}
+			//
+			final String orgaId = getRef(membershipObject.get(RESEARCHORGANIZATION_KEY));
+			if (Strings.isNullOrEmpty(orgaId)) {
+				throw new IllegalArgumentException("Invalid organization reference for membership with id: " + id); //$NON-NLS-1$
+			}
+			final ResearchOrganization targetOrganization = findReference(context, orgaId, ResearchOrganization.class, this.organizationRepository);
+			if (targetOrganization == null) {
+				throw new IllegalArgumentException("Invalid organization reference for membership with id: " + id); //$NON-NLS-1$
+			}
+			//
+			final Set<Membership> existings = this.membershipRepository.findByResearchOrganizationIdAndPersonId(
+					targetOrganization.getId(), targetPerson.getId());
+			final Membership finalmbr0 = membership;
+			final Stream<Membership> existing0 = existings.stream().filter(it -> {
+				assert it.getPerson().getId() == targetPerson.getId();
+				assert it.getResearchOrganization().getId() == targetOrganization.getId();
+				return Objects.equals(it.getMemberStatus(), finalmbr0.getMemberStatus())
+						&& Objects.equals(it.getResponsibility(), finalmbr0.getResponsibility())
+						&& Objects.equals(it.getMemberSinceWhen(), finalmbr0.getMemberSinceWhen())
+						&& Objects.equals(it.getMemberToWhen(), finalmbr0.getMemberToWhen());
+			});
+			final Optional<Membership> existing = existing0.findAny();
+			if (existing.isEmpty()) {
+				// The membership is the owner of the associations; the collections of memberships
+				// of the person and of the organization are not loaded.
+				membership.setPerson(targetPerson);
+				membership.setResearchOrganization(targetOrganization);
+				if (isFake()) {
+					context.putFakeEntity(Membership.class, id, membership);
+				} else {
+					membership = this.membershipRepository.save(membership);
+					context.putReference(Membership.class, id, membership.getId());
 				}
-				++i;
+				++context.nbMemberships;
+				getLogger().info("  + " + targetOrganization.getAcronymOrName() //$NON-NLS-1$
+				+ " - " + targetPerson.getFullName() //$NON-NLS-1$
+				+ " (id: " + membership.getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+			} else {
+				getLogger().info("  X " + targetOrganization.getAcronymOrName() //$NON-NLS-1$
+				+ " - " + targetPerson.getFullName() //$NON-NLS-1$
+				+ " (id: " + existing.get().getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+				context.putReference(Membership.class, id, existing.get().getId());
 			}
 		}
-		return nbNew;
 	}
 
-	/** Create the journals in the database.
+	/** Create a journal in the database.
 	 *
-	 * @param journals the list of journals in the Json source.
-	 * @param objectRepository the repository of the JSON elements with {@code "@id"} field.
-	 * @param aliasRepository the repository of field aliases.
-	 * @return the number of new journals in the database.
-	 * @throws Exception if a membership cannot be created.
+	 * @param journalObject the journal in the Json source.
+	 * @param context the context of the import.
+	 * @throws Exception if a journal cannot be created.
 	 */
-	protected int insertJournals(JsonNode journals, Map<String, Object> objectRepository,
-			Map<String, Set<String>> aliasRepository) throws Exception {
-		int nbNew = 0;
-		if (journals != null && !journals.isEmpty()) {
-			getLogger().info("Inserting " + journals.size() + " journals..."); //$NON-NLS-1$ //$NON-NLS-2$
-			int i = 0;
-			for (JsonNode journalObject : journals) {
-				getLogger().info("> Journal " + (i + 1) + "/" + journals.size()); //$NON-NLS-1$ //$NON-NLS-2$
-				try {
-					final String id = getId(journalObject);
-					Journal journal = createObject(Journal.class, journalObject, aliasRepository, null);
-					if (journal != null) {
-						final Optional<Journal> existing = this.journalRepository.findByJournalName(journal.getJournalName());
-						if (existing.isEmpty()) {
-							if (!isFake()) {
-								journal = this.journalRepository.save(journal);
+	private void insertJournal(JsonNode journalObject, ImportContext context) throws Exception {
+		final String id = getId(journalObject);
+		Journal journal = createObject(Journal.class, journalObject, context.aliasRepository, null);
+		if (journal != null) {
+			final Optional<Journal> existing = this.journalRepository.findByJournalName(journal.getJournalName());
+			if (existing.isEmpty()) {
+				if (!isFake()) {
+					journal = this.journalRepository.save(journal);
+				}
+				// Create the quality indicators
+				final JsonNode history = journalObject.get(QUALITYINDICATORSHISTORY_KEY);
+				if (history != null && !history.isEmpty()) {
+					final Iterator<Entry<String, JsonNode>> iterator = history.fields();
+					while (iterator.hasNext()) {
+						final Entry<String, JsonNode> historyEntry = iterator.next();
+						final int year = Integer.parseInt(historyEntry.getKey());
+						String str = null;
+						if (historyEntry.getValue() != null) {
+							final JsonNode n = historyEntry.getValue().get(SCIMAGOQINDEX_KEY);
+							if (n != null) {
+								str = n.asText();
 							}
-							// Create the quality indicators
-							final JsonNode history = journalObject.get(QUALITYINDICATORSHISTORY_KEY);
-							if (history != null && !history.isEmpty()) {
-								final Iterator<Entry<String, JsonNode>> iterator = history.fields();
-								while (iterator.hasNext()) {
-									final Entry<String, JsonNode> historyEntry = iterator.next();
-									final int year = Integer.parseInt(historyEntry.getKey());
-									String str = null;
-									if (historyEntry.getValue() != null) {
-										final JsonNode n = historyEntry.getValue().get(SCIMAGOQINDEX_KEY);
-										if (n != null) {
-											str = n.asText();
-										}
-									}
-									JournalQualityAnnualIndicators indicators = null; 
-									if (!Strings.isNullOrEmpty(str) ) {
-										final QuartileRanking scimago = QuartileRanking.valueOfCaseInsensitive(str);
-										if (scimago != null) {
-											indicators = journal.setScimagoQIndexByYear(year, scimago);
-										}
-									}
-									str = null;
-									if (historyEntry.getValue() != null) {
-										final JsonNode n = historyEntry.getValue().get(WOSQINDEX_KEY);
-										if (n != null) {
-											str = n.asText();
-										}
-									}
-									if (!Strings.isNullOrEmpty(str)) {
-										final QuartileRanking wos = QuartileRanking.valueOfCaseInsensitive(str);
-										if (wos != null) {
-											final JournalQualityAnnualIndicators oindicators = indicators;
-											indicators = journal.setWosQIndexByYear(year, wos);
-											assert oindicators == null || oindicators == indicators;
-										}
-									}
-									Number flt = null;
-									if (historyEntry.getValue() != null) {
-										final JsonNode n = historyEntry.getValue().get(IMPACTFACTOR_KEY);
-										if (n != null) {
-											flt = Double.valueOf(n.asDouble());
-										}
-									}
-									if (flt != null) {
-										final float impactFactor = flt.floatValue();
-										if (impactFactor > 0) {
-											final JournalQualityAnnualIndicators oindicators = indicators;
-											indicators = journal.setImpactFactorByYear(year, impactFactor);
-											assert oindicators == null || oindicators == indicators;
-										}
-									}
-									if (indicators != null && !isFake()) {
-										this.journalIndicatorsRepository.save(indicators);
-									}
-								}
+						}
+						JournalQualityAnnualIndicators indicators = null; 
+						if (!Strings.isNullOrEmpty(str) ) {
+							final QuartileRanking scimago = QuartileRanking.valueOfCaseInsensitive(str);
+							if (scimago != null) {
+								indicators = journal.setScimagoQIndexByYear(year, scimago);
 							}
-							// Save again the journal for saving the links to the quality indicators
-							if (!isFake()) {
-								journal = this.journalRepository.save(journal);
+						}
+						str = null;
+						if (historyEntry.getValue() != null) {
+							final JsonNode n = historyEntry.getValue().get(WOSQINDEX_KEY);
+							if (n != null) {
+								str = n.asText();
 							}
-							++nbNew;
-							//
-							getLogger().info("  + " + journal.getJournalName() + " (id: " + journal.getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-							if (!Strings.isNullOrEmpty(id)) {
-								objectRepository.put(id, journal);
+						}
+						if (!Strings.isNullOrEmpty(str)) {
+							final QuartileRanking wos = QuartileRanking.valueOfCaseInsensitive(str);
+							if (wos != null) {
+								final JournalQualityAnnualIndicators oindicators = indicators;
+								indicators = journal.setWosQIndexByYear(year, wos);
+								assert oindicators == null || oindicators == indicators;
 							}
-						} else {
-							getLogger().info("  X " + existing.get().getJournalName() + " (id: " + existing.get().getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-							if (!Strings.isNullOrEmpty(id)) {
-								objectRepository.put(id, existing.get());
+						}
+						Number flt = null;
+						if (historyEntry.getValue() != null) {
+							final JsonNode n = historyEntry.getValue().get(IMPACTFACTOR_KEY);
+							if (n != null) {
+								flt = Double.valueOf(n.asDouble());
+							}
+						}
+						if (flt != null) {
+							final float impactFactor = flt.floatValue();
+							if (impactFactor > 0) {
+								final JournalQualityAnnualIndicators oindicators = indicators;
+								indicators = journal.setImpactFactorByYear(year, impactFactor);
+								assert oindicators == null || oindicators == indicators;
 							}
 						}
+						if (indicators != null && !isFake()) {
+							this.journalIndicatorsRepository.save(indicators);
+						}
 					}
-				} catch (Throwable ex) {
-					throw new UnableToImportJsonException(JOURNALS_SECTION, i, journalObject, ex);
 				}
-				++i;
+				if (isFake()) {
+					context.putFakeEntity(Journal.class, id, journal);
+				} else {
+					// Save again the journal for saving the links to the quality indicators
+					journal = this.journalRepository.save(journal);
+					context.putReference(Journal.class, id, journal.getId());
+				}
+				++context.nbJournals;
+				//
+				getLogger().info("  + " + journal.getJournalName() + " (id: " + journal.getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			} else {
+				getLogger().info("  X " + existing.get().getJournalName() + " (id: " + existing.get().getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				context.putReference(Journal.class, id, existing.get().getId());
 			}
 		}
-		return nbNew;
 	}
 
 	private static int parseMonthField(JsonNode value) {
@@ -667,87 +834,81 @@ public class JsonToDatabaseImporter extends JsonTool {
 		return 0;
 	}
 
-	/** Create the publications (and additional authors) in the database.
+	/** Create a publication (and additional authors) in the database.
 	 *
-	 * @param publications the list of publications in the Json source.
-	 * @param objectRepository the repository of the JSON elements with {@code "@id"} field.
-	 * @param aliasRepository the repository of field aliases.
-	 * @return the pair of numbers, never {@code null}. The first number is the number of added publication; the
-	 *     second number is the is the number of added persons.
-	 * @throws Exception if a membership cannot be created.
+	 * @param publicationObject the publication in the Json source.
+	 * @param context the context of the import.
+	 * @throws Exception if a publication cannot be created.
 	 */
-	protected Pair<Integer, Integer> insertPublications(JsonNode publications, Map<String, Object> objectRepository,
-			Map<String, Set<String>> aliasRepository) throws Exception {
-		int nbNewPublications = 0;
-		final MutableInt nbNewPersons = new MutableInt();
-		if (publications != null && !publications.isEmpty()) {
-			getLogger().info("Retreiving the existing publications..."); //$NON-NLS-1$
-			final List<Publication> allPublications = this.publicationRepository.findAll();
-			getLogger().info("Inserting " + publications.size() + " publications..."); //$NON-NLS-1$ //$NON-NLS-2$
-			int i = 0;
-			for (JsonNode publicationObject : publications) {
-				getLogger().info("> Publication " + (i + 1) + "/" + publications.size()); //$NON-NLS-1$ //$NON-NLS-2$
-				try {
-					final String id = getId(publicationObject);
-					final Publication publication = createPublicationInstance(id,
-							publicationObject, objectRepository, aliasRepository);
-					// Test if the publication is already inside the database
-					final Publication readOnlyPublication = publication;
-					final Optional<Publication> existing = allPublications.stream().filter(
-							it -> this.publicationComparator.isSimilar(it, readOnlyPublication)).findAny();
-					if (existing.isEmpty()) {
-						// Save the publication
-						if (!isFake()) {
-							this.publicationService.save(publication);
-						}
-						++nbNewPublications;
-						if (!Strings.isNullOrEmpty(id)) {
-							objectRepository.put(id, publication);
-						}
-						//
-						getLogger().info("  + " + publication.getTitle() + " (id: " + publication.getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	private void insertPublication(JsonNode publicationObject, ImportContext context) throws Exception {
+		final String id = getId(publicationObject);
+		final Publication publication = createPublicationInstance(id, publicationObject, context);
+		// Test if the publication is already inside the database
+		final Optional<Publication> existing = findExistingPublication(publication, context);
+		if (existing.isEmpty()) {
+			// Save the publication
+			if (isFake()) {
+				context.putFakeEntity(Publication.class, id, publication);
+			} else {
+				this.publicationService.save(publication);
+				context.putReference(Publication.class, id, publication.getId());
+			}
+			++context.nbPublications;
+			//
+			getLogger().info("  + " + publication.getTitle() + " (id: " + publication.getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 
-						// Attach authors
-						final JsonNode authors = publicationObject.get(AUTHORS_KEY);
-						if (authors == null || authors.isEmpty()) {
-							throw new IllegalArgumentException("No author for publication with id: " + id); //$NON-NLS-1$
-						}
-						int authorRank = 0;
-						final Iterator<JsonNode> iterator = authors.elements();
-						while (iterator.hasNext()) {
-							final JsonNode authorObject = iterator.next();
-							final Person targetAuthor = findOrCreateAuthor(authorObject, objectRepository, nbNewPersons);
-							if (targetAuthor == null) {
-								throw new IllegalArgumentException("Invalid author reference for publication with id: " + id); //$NON-NLS-1$
-							}
-							//
-							Authorship authorship = new Authorship();
-							authorship.setPerson(targetAuthor);
-							authorship.setPublication(publication);
-							authorship.setAuthorRank(authorRank);
-							if (!isFake()) {
-								authorship = this.authorshipRepository.save(authorship);
-							}
-							++authorRank;
-						}
-					} else {
-						// Publication is already in the database
-						getLogger().info("  X " + existing.get().getTitle() + " (id: " + existing.get().getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-						if (!Strings.isNullOrEmpty(id)) {
-							objectRepository.put(id, existing.get());
-						}
-					}
-				} catch (Throwable ex) {
-					throw new UnableToImportJsonException(PUBLICATIONS_SECTION, i, publicationObject, ex);
+			// Attach authors
+			final JsonNode authors = publicationObject.get(AUTHORS_KEY);
+			if (authors == null || authors.isEmpty()) {
+				throw new IllegalArgumentException("No author for publication with id: " + id); //$NON-NLS-1$
+			}
+			int authorRank = 0;
+			final Iterator<JsonNode> iterator = authors.elements();
+			while (iterator.hasNext()) {
+				final JsonNode authorObject = iterator.next();
+				final Person targetAuthor = findOrCreateAuthor(authorObject, context);
+				if (targetAuthor == null) {
+					throw new IllegalArgumentException("Invalid author reference for publication with id: " + id); //$NON-NLS-1$
 				}
-				++i;
+				//
+				final Authorship authorship = new Authorship();
+				authorship.setPerson(targetAuthor);
+				authorship.setPublication(publication);
+				authorship.setAuthorRank(authorRank);
+				if (!isFake()) {
+					this.authorshipRepository.save(authorship);
+				}
+				++authorRank;
 			}
+		} else {
+			// Publication is already in the database
+			getLogger().info("  X " + existing.get().getTitle() + " (id: " + existing.get().getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			context.putReference(Publication.class, id, existing.get().getId());
 		}
-		return Pair.of(Integer.valueOf(nbNewPublications), nbNewPersons.toInteger());
 	}
 
-	private Publication createPublicationInstance(String id, JsonNode publicationObject, Map<String, Object> objectRepository,
-			Map<String, Set<String>> aliasRepository) throws Exception {
+	/** Search for a publication that was in the database before the import and that is similar to the given publication.
+	 * The candidates are the publications that share a blocking key with the given publication in the index of
+	 * the existing publications. They are read from the database by batches and compared with the publication comparator.
+	 *
+	 * @param publication the publication to search for.
+	 * @param context the context of the import.
+	 * @return the similar publication.
+	 */
+	private Optional<Publication> findExistingPublication(Publication publication, ImportContext context) {
+		final List<Integer> candidates = new ArrayList<>(context.existingPublications.getCandidates(publication));
+		for (int i = 0; i < candidates.size(); i += this.batchSize) {
+			final List<Integer> identifiers = candidates.subList(i, Math.min(candidates.size(), i + this.batchSize));
+			for (final Publication candidate : this.publicationRepository.findAllById(identifiers)) {
+				if (this.publicationComparator.isSimilar(candidate, publication)) {
+					return Optional.of(candidate);
+				}
+			}
+		}
+		return Optional.empty();
+	}
+
+	private Publication createPublicationInstance(String id, JsonNode publicationObject, ImportContext context) throws Exception {
 		// Retrieve the elements that characterize the type of the publication
 		final PublicationType type = getEnum(publicationObject, TYPE_KEY, PublicationType.class);
 		if (type == null) {
@@ -758,7 +919,7 @@ public class JsonToDatabaseImporter extends JsonTool {
 
 		// Create the publication
 		Publication publication = createObject(publicationClass, publicationObject,
-				aliasRepository, (attrName, attrValue, attrNode) -> {
+				context.aliasRepository, (attrName, attrValue, attrNode) -> {
 					// Keys "authors" and "journal" are not directly set. They have a specific
 					// code for associating authors and journals to the publication
 					return Boolean.valueOf(!AUTHORS_KEY.equalsIgnoreCase(attrName) && !JOURNAL_KEY.equalsIgnoreCase(attrName)
@@ -785,7 +946,7 @@ public class JsonToDatabaseImporter extends JsonTool {
 			if (Strings.isNullOrEmpty(journalId)) {
 				throw new IllegalArgumentException("Invalid journal reference for publication with id: " + id); //$NON-NLS-1$
 			}
-			targetJournal = getAndCast(objectRepository, journalId, Journal.class);
+			targetJournal = findReference(context, journalId, Journal.class, this.journalRepository);
 			if (targetJournal == null) {
 				throw new IllegalArgumentException("Invalid journal reference for publication with id: " + id); //$NON-NLS-1$
 			}
@@ -810,7 +971,7 @@ public class JsonToDatabaseImporter extends JsonTool {
 		return publication;
 	}
 
-	private Person findOrCreateAuthor(JsonNode authorObject, Map<String, Object> objectRepository, MutableInt nbNewPersons) {
+	private Person findOrCreateAuthor(JsonNode authorObject, ImportContext context) {
 		assert authorObject != null;
 		final String authorId = getRef(authorObject);
 		Person targetAuthor = null;
@@ -828,16 +989,151 @@ public class JsonToDatabaseImporter extends JsonTool {
 				if (!isFake()) {
 					newAuthor = this.personRepository.save(newAuthor);
 				}
-				nbNewPersons.increment();
+				++context.nbPersons;
 				targetAuthor = newAuthor;
 			} else {
 				targetAuthor = optPerson;
 			}
 		} else {
 			// The author is a referenced to a defined person
-			targetAuthor = getAndCast(objectRepository, authorId, Person.class);
+			targetAuthor = findReference(context, authorId, Person.class, this.personRepository);
 		}
 		return targetAuthor;
 	}
 
-}
\ No newline at end of file
+	/** Task that is run within a transaction.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	@FunctionalInterface
+	private interface TransactionalTask {
+
+		/** Run the task.
+		 *
+		 * @throws Exception if the task cannot be run.
+		 */
+		void run() throws Exception;
+
+	}
+
+	/** Importer of a single element of a JSON section.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	@FunctionalInterface
+	private interface ElementImporter {
+
+		/** Import the given element.
+		 *
+		 * @param element the JSON element.
+		 * @throws Exception if the element cannot be imported.
+		 */
+		void importElement(JsonNode element) throws Exception;
+
+	}
+
+	/** Context of an import. It maps the JSON identifiers of the imported elements to the identifiers of the
+	 * entities in the database, for each type of entity. The entities themselves are not retained, except
+	 * the entities of a fake import that are not saved in the database.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	private static final class ImportContext {
+
+		/** Repository of the field aliases.
+		 */
+		final Map<String, Set<String>> aliasRepository = new TreeMap<>();
+
+		/** New organizations with the JSON identifier of their super organizations.
+		 */
+		final List<Pair<Integer, String>> superOrganizations = new ArrayList<>();
+
+		/** Index of the publications that are in the database before the import of the publications.
+		 */
+		PublicationIdentifierDuplicateIndex existingPublications;
+
+		private final Map<Class<?>, Map<String, Integer>> references = new HashMap<>();
+
+		private final Map<Class<?>, Map<String, Object>> fakeEntities = new HashMap<>();
+
+		int nbSections;
+
+		int nbOrganizations;
+
+		int nbPersons;
+
+		int nbMemberships;
+
+		int nbJournals;
+
+		int nbPublications;
+
+		/** Map the given JSON identifier to the given database identifier.
+		 *
+		 * @param type the type of the entity.
+		 * @param jsonId the JSON identifier. If it is empty, the function does nothing.
+		 * @param databaseId the identifier of the entity in the database.
+		 */
+		void putReference(Class<?> type, String jsonId, int databaseId) {
+			if (!Strings.isNullOrEmpty(jsonId)) {
+				this.references.computeIfAbsent(type, it -> new HashMap<>()).put(jsonId, Integer.valueOf(databaseId));
+			}
+		}
+
+		/** Replies the database identifier that is mapped to the given JSON identifier.
+		 *
+		 * @param type the type of the entity.
+		 * @param jsonId the JSON identifier.
+		 * @return the identifier of the entity in the database, or {@code null} if the JSON identifier is unknown.
+		 */
+		Integer getReference(Class<?> type, String jsonId) {
+			final Map<String, Integer> map = this.references.get(type);
+			if (map != null) {
+				return map.get(jsonId);
+			}
+			return null;
+		}
+
+		/** Map the given JSON identifier to the given entity that is created by a fake import,
+		 * i.e., that is not saved in the database.
+		 *
+		 * @param type the type of the entity.
+		 * @param jsonId the JSON identifier. If it is empty, the function does nothing.
+		 * @param entity the entity.
+		 */
+		void putFakeEntity(Class<?> type, String jsonId, Object entity) {
+			if (!Strings.isNullOrEmpty(jsonId)) {
+				this.fakeEntities.computeIfAbsent(type, it -> new HashMap<>()).put(jsonId, entity);
+			}
+		}
+
+		/** Replies the entity that is created by a fake import and that is mapped to the given JSON identifier.
+		 *
+		 * @param <T> the type of the entity.
+		 * @param type the type of the entity.
+		 * @param jsonId the JSON identifier.
+		 * @return the entity, or {@code null} if the JSON identifier is not mapped to an entity of a fake import.
+		 */
+		<T> T getFakeEntity(Class<T> type, String jsonId) {
+			final Map<String, Object> map = this.fakeEntities.get(type);
+			if (map != null) {
+				return type.cast(map.get(jsonId));
+			}
+			return null;
+		}
+
+	}
+
+}
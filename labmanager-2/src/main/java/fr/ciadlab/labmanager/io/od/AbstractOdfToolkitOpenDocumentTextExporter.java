@@ -17,6 +17,8 @@
 package fr.ciadlab.labmanager.io.od;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.time.LocalDate;
@@ -37,18 +39,16 @@ import fr.ciadlab.labmanager.entities.publication.type.Report;
 import fr.ciadlab.labmanager.entities.publication.type.Thesis;
 import fr.ciadlab.labmanager.io.ExportedAuthorStatus;
 import fr.ciadlab.labmanager.io.ExporterConfigurator;
+import fr.ciadlab.labmanager.io.od.OpenDocumentTextStreamWriter.TextElement;
 import org.apache.jena.ext.com.google.common.base.Strings;
 import org.odftoolkit.odfdom.doc.OdfTextDocument;
-import org.odftoolkit.odfdom.dom.element.style.StyleTextPropertiesElement;
-import org.odftoolkit.odfdom.dom.element.text.TextAElement;
-import org.odftoolkit.odfdom.dom.element.text.TextListElement;
-import org.odftoolkit.odfdom.dom.element.text.TextListItemElement;
-import org.odftoolkit.odfdom.dom.element.text.TextPElement;
-import org.odftoolkit.odfdom.dom.element.text.TextSpanElement;
 import org.odftoolkit.odfdom.type.Color;
 import org.springframework.context.support.MessageSourceAccessor;
 
 /** Exporter of publications to Open Document Text based on the ODF toolkit.
+ * The ODF toolkit generates the template document, i.e. an empty text document.
+ * The publications are written into the content of the document by a {@link OpenDocumentTextStreamWriter};
+ * the document model of all the publications is never built in memory.
  * 
  * @author $Author: sgalland$
  * @version $Name$ $Revision$ $Date$
@@ -73,6 +73,8 @@ public abstract class AbstractOdfToolkitOpenDocumentTextExporter implements Open
 	 */
 	protected final MessageSourceAccessor messages;
 
+	private byte[] template;
+
 	/** Constructor.
 	 *
 	 * @param messages the accessor to the localized message.
@@ -97,24 +99,60 @@ public abstract class AbstractOdfToolkitOpenDocumentTextExporter implements Open
 		return this.messages.getMessage(MESSAGES_PREFIX + "RIGHT_QUOTES"); //$NON-NLS-1$
 	}
 
-	@SuppressWarnings("resource")
 	@Override
 	public byte[] exportPublications(Iterable<? extends Publication> publications, ExporterConfigurator configurator) throws Exception {
 		if (publications == null) {
 			return null;
 		}
-		final OdfTextDocument odt = OdfTextDocument.newTextDocument();
-		final TextListElement list = odt.getContentRoot().newTextListElement();
-		for (final Publication publication : publications) {
-			exportPublication(list, publication, configurator);
+		try (final ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+			exportPublicationsToStream(publications, configurator, output);
+			return output.toByteArray();
 		}
-		final byte[] content;
+	}
+
+	@Override
+	public void exportPublicationsToStream(Iterable<? extends Publication> publications, ExporterConfigurator configurator,
+			OutputStream output) throws Exception {
+		try (final OpenDocumentTextStreamWriter odt = new OpenDocumentTextStreamWriter(output, getTemplate())) {
+			if (publications != null) {
+				for (final Publication publication : publications) {
+					exportPublication(odt, publication, configurator);
+				}
+			}
+		}
+	}
+
+	/** Replies the template document in which the publications are written.
+	 * The template is created at the first call by {@link #createTemplate()}.
+	 *
+	 * @return the content of the template ODT file.
+	 * @throws Exception if the template cannot be created.
+	 */
+	protected synchronized byte[] getTemplate() throws Exception {
+		if (this.template == null) {
+			this.template = createTemplate();
+		}
+		return this.template;
+	}
+
+	/** Create the template document in which the publications are written.
+	 * By default, the template is an empty text document that is generated by the ODF toolkit.
+	 * The content of the template is replaced by the exported publications; the other parts
+	 * of the template, e.g. the styles and the metadata, are copied.
+	 *
+	 * @return the content of the template ODT file.
+	 * @throws Exception if the template cannot be created.
+	 */
+	@SuppressWarnings("static-method")
+	protected byte[] createTemplate() throws Exception {
+		final OdfTextDocument odt = OdfTextDocument.newTextDocument();
 		try (final ByteArrayOutputStream output = new ByteArrayOutputStream()) {
 			odt.save(output);
 			output.flush();
-			content = output.toByteArray();
+			return output.toByteArray();
+		} finally {
+			odt.close();
 		}
-		return content;
 	}
 
 	/** Export in ODT a single publication.
@@ -122,12 +160,12 @@ public abstract class AbstractOdfToolkitOpenDocumentTextExporter implements Open
 	 * @param odt the receiver of the ODT content.
 	 * @param publication the publication, never {@code null}.
 	 * @param configurator the configurator for the exporter.
+	 * @throws IOException if the publication cannot be written.
 	 */
-	public void exportPublication(TextListElement odt, Publication publication, ExporterConfigurator configurator) {
+	public void exportPublication(OpenDocumentTextStreamWriter odt, Publication publication, ExporterConfigurator configurator) throws IOException {
 		assert odt != null;
 		assert publication != null;
-		final TextListItemElement item = odt.newTextListItemElement();
-		final TextPElement odtText = item.newTextPElement();
+		final TextElement odtText = odt.newListItemParagraph();
 		final java.util.Locale loc = java.util.Locale.getDefault();
 		try {
 			java.util.Locale.setDefault(publication.getMajorLanguage().getLocale());
@@ -145,7 +183,7 @@ public abstract class AbstractOdfToolkitOpenDocumentTextExporter implements Open
 	 * @param year the year of the publication associated to the author.
 	 * @param configurator the configurator for the exporter.
 	 */
-	protected static void formatAuthorName(TextPElement odtText, Person person, int year, ExporterConfigurator configurator) {
+	protected static void formatAuthorName(TextElement odtText, Person person, int year, ExporterConfigurator configurator) {
 		assert configurator != null;
 		final ExportedAuthorStatus status = configurator.getExportedAuthorStatusFor(person, year);
 		final StringBuilder innerName = new StringBuilder();
@@ -153,7 +191,7 @@ public abstract class AbstractOdfToolkitOpenDocumentTextExporter implements Open
 		innerName.append(" "); //$NON-NLS-1$
 		innerName.append(person.getLastName().toUpperCase());
 
-		TextSpanElement span;
+		TextElement span;
 		switch (status) {
 		case SELECTED_PERSON:
 			span = newTextBoldUnderline(odtText);
@@ -186,10 +224,10 @@ public abstract class AbstractOdfToolkitOpenDocumentTextExporter implements Open
 	 * @return {@code true} if the receiver is changed.
 	 */
 	@SuppressWarnings("static-method")
-	protected boolean appendDoiLink(TextPElement receiver, String doi, String prefix) {
+	protected boolean appendDoiLink(TextElement receiver, String doi, String prefix) {
 		if (!Strings.isNullOrEmpty(doi)) {
 			receiver.newTextNode(prefix);
-			final TextAElement aElement = receiver.newTextAElement("https://doi.org/" + doi, null); //$NON-NLS-1$
+			final TextElement aElement = receiver.newLink("https://doi.org/" + doi); //$NON-NLS-1$
 			aElement.newTextNode(doi);
 			return true;
 		}
@@ -201,11 +239,8 @@ public abstract class AbstractOdfToolkitOpenDocumentTextExporter implements Open
 	 * @param odtText the container.
 	 * @return the formating element.
 	 */
-	protected static TextSpanElement newTextUnderline(TextPElement odtText) {
-		final TextSpanElement odtSpan = odtText.newTextSpanElement();
-		odtSpan.setProperty(StyleTextPropertiesElement.TextUnderlineType, "single"); //$NON-NLS-1$
-		odtSpan.setProperty(StyleTextPropertiesElement.TextUnderlineStyle, "solid"); //$NON-NLS-1$
-		return odtSpan;
+	protected static TextElement newTextUnderline(TextElement odtText) {
+		return odtText.newSpan(OpenDocumentTextStyle.UNDERLINE);
 	}
 
 	/** Replies a text that is italic.
@@ -213,10 +248,8 @@ public abstract class AbstractOdfToolkitOpenDocumentTextExporter implements Open
 	 * @param odtText the container.
 	 * @return the formating element.
 	 */
-	protected static TextSpanElement newTextItalic(TextPElement odtText) {
-		final TextSpanElement odtSpan = odtText.newTextSpanElement();
-		odtSpan.setProperty(StyleTextPropertiesElement.FontStyle, "italic"); //$NON-NLS-1$
-		return odtSpan;
+	protected static TextElement newTextItalic(TextElement odtText) {
+		return odtText.newSpan(OpenDocumentTextStyle.ITALIC);
 	}
 
 	/** Replies a text that is bold.
@@ -224,10 +257,8 @@ public abstract class AbstractOdfToolkitOpenDocumentTextExporter implements Open
 	 * @param odtText the container.
 	 * @return the formating element.
 	 */
-	protected static TextSpanElement newTextBold(TextPElement odtText) {
-		final TextSpanElement odtSpan = odtText.newTextSpanElement();
-		odtSpan.setProperty(StyleTextPropertiesElement.FontWeight, "bold"); //$NON-NLS-1$
-		return odtSpan;
+	protected static TextElement newTextBold(TextElement odtText) {
+		return odtText.newSpan(OpenDocumentTextStyle.BOLD);
 	}
 
 	/** Replies a text that is bold and underlined.
@@ -235,12 +266,8 @@ public abstract class AbstractOdfToolkitOpenDocumentTextExporter implements Open
 	 * @param odtText the container.
 	 * @return the formating element.
 	 */
-	protected static TextSpanElement newTextBoldUnderline(TextPElement odtText) {
-		final TextSpanElement odtSpan = odtText.newTextSpanElement();
-		odtSpan.setProperty(StyleTextPropertiesElement.FontWeight, "bold"); //$NON-NLS-1$
-		odtSpan.setProperty(StyleTextPropertiesElement.TextUnderlineType, "single"); //$NON-NLS-1$
-		odtSpan.setProperty(StyleTextPropertiesElement.TextUnderlineStyle, "solid"); //$NON-NLS-1$
-		return odtSpan;
+	protected static TextElement newTextBoldUnderline(TextElement odtText) {
+		return odtText.newSpan(OpenDocumentTextStyle.BOLD_UNDERLINE);
 	}
 
 	/** Replies the title with a format compliant with the HTML output.
@@ -249,7 +276,7 @@ public abstract class AbstractOdfToolkitOpenDocumentTextExporter implements Open
 	 * @param title the title.
 	 * @param configurator the configurator of the exporter.
 	 */
-	protected abstract void formatTitle(TextPElement odtText, String title, ExporterConfigurator configurator);
+	protected abstract void formatTitle(TextElement odtText, String title, ExporterConfigurator configurator);
 
 	/** Replies the string representation of the given number if it is strictly positive.
 	 * 
@@ -271,7 +298,7 @@ public abstract class AbstractOdfToolkitOpenDocumentTextExporter implements Open
 	 * @param values the values to add.
 	 * @return {@code true} if a value was added.
 	 */
-	protected static boolean append(TextPElement receiver, String separator, String... values) {
+	protected static boolean append(TextElement receiver, String separator, String... values) {
 		assert receiver != null;
 		assert separator != null;
 		assert values != null;
@@ -297,7 +324,7 @@ public abstract class AbstractOdfToolkitOpenDocumentTextExporter implements Open
 	 * @param values the values to add.
 	 * @return {@code true} if a value was added.
 	 */
-	protected static boolean append(TextPElement receiver, String value) {
+	protected static boolean append(TextElement receiver, String value) {
 		return append(receiver, "", value); //$NON-NLS-1$
 	}
 
@@ -309,7 +336,7 @@ public abstract class AbstractOdfToolkitOpenDocumentTextExporter implements Open
 	 * @param impactFactor the journal's impact factor.
 	 * @return {@code true} if the receiver has changed.
 	 */
-	protected boolean appendRanks(TextPElement receiver, Object scimago, Object wos, float impactFactor) {
+	protected boolean appendRanks(TextElement receiver, Object scimago, Object wos, float impactFactor) {
 		final String impactFactorStr = formatNumberIfStrictlyPositive(impactFactor);
 		String rank = null;
 		if (scimago != null && wos != null) {
@@ -359,70 +386,70 @@ public abstract class AbstractOdfToolkitOpenDocumentTextExporter implements Open
 	 * @param odt the receiver of the ODT content.
 	 * @param publication the publication, never {@code null}.
 	 */
-	protected abstract void exportDescription(TextPElement odt, Book publication);
+	protected abstract void exportDescription(TextElement odt, Book publication);
 
 	/** Export in ODT the description of a single book chapter.
 	 *
 	 * @param odt the receiver of the ODT content.
 	 * @param publication the publication, never {@code null}.
 	 */
-	protected abstract void exportDescription(TextPElement odt, BookChapter publication);
+	protected abstract void exportDescription(TextElement odt, BookChapter publication);
 
 	/** Export in ODT the description of a single conference paper.
 	 *
 	 * @param odt the receiver of the ODT content.
 	 * @param publication the publication, never {@code null}.
 	 */
-	protected abstract void exportDescription(TextPElement odt, ConferencePaper publication);
+	protected abstract void exportDescription(TextElement odt, ConferencePaper publication);
 
 	/** Export in ODT the description of a single journal paper.
 	 *
 	 * @param odt the receiver of the ODT content.
 	 * @param publication the publication, never {@code null}.
 	 */
-	protected abstract void exportDescription(TextPElement odt, JournalPaper publication);
+	protected abstract void exportDescription(TextElement odt, JournalPaper publication);
 
 	/** Export in ODT the description of a single journal edition.
 	 *
 	 * @param odt the receiver of the ODT content.
 	 * @param publication the publication, never {@code null}.
 	 */
-	protected abstract void exportDescription(TextPElement odt, JournalEdition publication);
+	protected abstract void exportDescription(TextElement odt, JournalEdition publication);
 
 	/** Export in ODT the description of a single key-note.
 	 *
 	 * @param odt the receiver of the ODT content.
 	 * @param publication the publication, never {@code null}.
 	 */
-	protected abstract void exportDescription(TextPElement odt, KeyNote publication);
+	protected abstract void exportDescription(TextElement odt, KeyNote publication);
 
 	/** Export in ODT the description of a single report.
 	 *
 	 * @param odt the receiver of the ODT content.
 	 * @param publication the publication, never {@code null}.
 	 */
-	protected abstract void exportDescription(TextPElement odt, Report publication);
+	protected abstract void exportDescription(TextElement odt, Report publication);
 
 	/** Export in ODT the description of a single thesis.
 	 *
 	 * @param odt the receiver of the ODT content.
 	 * @param publication the publication, never {@code null}.
 	 */
-	protected abstract void exportDescription(TextPElement odt, Thesis publication);
+	protected abstract void exportDescription(TextElement odt, Thesis publication);
 
 	/** Export in ODT the description of a single patent.
 	 *
 	 * @param odt the receiver of the ODT content.
 	 * @param publication the publication, never {@code null}.
 	 */
-	protected abstract void exportDescription(TextPElement odt, Patent publication);
+	protected abstract void exportDescription(TextElement odt, Patent publication);
 
 	/** Export in ODT the description of a single document.
 	 *
 	 * @param odt the receiver of the ODT content.
 	 * @param publication the publication, never {@code null}.
 	 */
-	protected abstract void exportDescription(TextPElement odt, MiscDocument publication);
+	protected abstract void exportDescription(TextElement odt, MiscDocument publication);
 
 
 	/** Export in ODT the description of a single publication.
@@ -431,7 +458,7 @@ public abstract class AbstractOdfToolkitOpenDocumentTextExporter implements Open
 	 * @param publication the publication, never {@code null}.
 	 * @param configurator the configurator of the exporter.
 	 */
-	protected void exportDescription(TextPElement odtText, Publication publication, ExporterConfigurator configurator) {
+	protected void exportDescription(TextElement odtText, Publication publication, ExporterConfigurator configurator) {
 		formatTitle(odtText, publication.getTitle(), configurator);
 
 		final Class<? extends Publication> publicationClass = publication.getType().getInstanceType();
@@ -482,7 +509,7 @@ public abstract class AbstractOdfToolkitOpenDocumentTextExporter implements Open
 	 * @param configurator the configurator for the exporter.
 	 */
 	@SuppressWarnings("static-method")
-	protected void exportAuthors(TextPElement odtText, Publication publication, ExporterConfigurator configurator) {
+	protected void exportAuthors(TextElement odtText, Publication publication, ExporterConfigurator configurator) {
 		assert configurator != null;
 		final int year = publication.getPublicationYear();
 		boolean first = true;
@@ -28,10 +28,8 @@ import fr.ciadlab.labmanager.entities.publication.type.Patent;
 import fr.ciadlab.labmanager.entities.publication.type.Report;
 import fr.ciadlab.labmanager.entities.publication.type.Thesis;
 import fr.ciadlab.labmanager.io.ExporterConfigurator;
+import fr.ciadlab.labmanager.io.od.OpenDocumentTextStreamWriter.TextElement;
 import org.apache.jena.ext.com.google.common.base.Strings;
-import org.odftoolkit.odfdom.dom.element.style.StyleTextPropertiesElement;
-import org.odftoolkit.odfdom.dom.element.text.TextPElement;
-import org.odftoolkit.odfdom.dom.element.text.TextSpanElement;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.support.MessageSourceAccessor;
@@ -61,10 +59,12 @@ public class DefaultOdfToolkitOpenDocumentTextExporter extends AbstractOdfToolki
 	}
 	
 	@Override
-	protected void formatTitle(TextPElement odtText, String title, ExporterConfigurator configurator) {
-		final TextSpanElement odtSpan = newTextItalic(odtText);
+	protected void formatTitle(TextElement odtText, String title, ExporterConfigurator configurator) {
+		final TextElement odtSpan;
 		if (configurator.isColoredTitle()) {
-			odtSpan.setProperty(StyleTextPropertiesElement.Color, CIAD_GREEN.toString());
+			odtSpan = odtText.newSpan(OpenDocumentTextStyle.CIAD_GREEN_ITALIC);
+		} else {
+			odtSpan = newTextItalic(odtText);
 		}
 		odtSpan.newTextNode(getLeftQuotes());
 		odtSpan.newTextNode(title);
@@ -74,7 +74,7 @@ public class DefaultOdfToolkitOpenDocumentTextExporter extends AbstractOdfToolki
 	}
 
 	@Override
-	protected void exportDescription(TextPElement odtText, Book publication) {
+	protected void exportDescription(TextElement odtText, Book publication) {
 		if (append(odtText, ", ", //$NON-NLS-1$
 				publication.getEdition(),
 				decorateBefore(publication.getVolume(), this.messages.getMessage(MESSAGES_PREFIX + "VOLUME_PREFIX")), //$NON-NLS-1$
@@ -105,7 +105,7 @@ public class DefaultOdfToolkitOpenDocumentTextExporter extends AbstractOdfToolki
 	}
 
 	@Override
-	protected void exportDescription(TextPElement odtText, BookChapter publication) {
+	protected void exportDescription(TextElement odtText, BookChapter publication) {
 		if (append(odtText, ", ", //$NON-NLS-1$
 				publication.getEdition(),
 				decorateBefore(publication.getVolume(), this.messages.getMessage(MESSAGES_PREFIX + "VOLUME_PREFIX")), //$NON-NLS-1$
@@ -136,7 +136,7 @@ public class DefaultOdfToolkitOpenDocumentTextExporter extends AbstractOdfToolki
 	}
 
 	@Override
-	protected void exportDescription(TextPElement odtText, ConferencePaper publication) {
+	protected void exportDescription(TextElement odtText, ConferencePaper publication) {
 		if (append(odtText, decorateBefore(publication.getScientificEventName(), this.messages.getMessage(MESSAGES_PREFIX + "CONFERENCE_PREFIX")))) { //$NON-NLS-1$
 			odtText.newTextNode(". "); //$NON-NLS-1$
 		}
@@ -172,7 +172,7 @@ public class DefaultOdfToolkitOpenDocumentTextExporter extends AbstractOdfToolki
 	}
 
 	@Override
-	protected void exportDescription(TextPElement odtText, JournalPaper publication) {
+	protected void exportDescription(TextElement odtText, JournalPaper publication) {
 		final Journal journal = publication.getJournal();
 		if (journal != null && append(odtText, ",", //$NON-NLS-1$
 				decorateBefore(journal.getJournalName(), this.messages.getMessage(MESSAGES_PREFIX + "JOURNAL_PREFIX")), //$NON-NLS-1$
@@ -200,7 +200,7 @@ public class DefaultOdfToolkitOpenDocumentTextExporter extends AbstractOdfToolki
 	}
 
 	@Override
-	protected void exportDescription(TextPElement odtText, JournalEdition publication) {
+	protected void exportDescription(TextElement odtText, JournalEdition publication) {
 		final Journal journal = publication.getJournal();
 		if (journal != null && append(odtText,
 				decorateBefore(journal.getJournalName(), this.messages.getMessage(MESSAGES_PREFIX + "JOURNAL_PREFIX")))) { //$NON-NLS-1$
@@ -236,7 +236,7 @@ public class DefaultOdfToolkitOpenDocumentTextExporter extends AbstractOdfToolki
 	}
 
 	@Override
-	protected void exportDescription(TextPElement odtText, KeyNote publication) {
+	protected void exportDescription(TextElement odtText, KeyNote publication) {
 		if (append(odtText, decorateBefore(publication.getScientificEventName(), this.messages.getMessage(MESSAGES_PREFIX + "CONFERENCE_PREFIX")))) { //$NON-NLS-1$
 			odtText.newTextNode(". "); //$NON-NLS-1$
 		}
@@ -259,7 +259,7 @@ public class DefaultOdfToolkitOpenDocumentTextExporter extends AbstractOdfToolki
 	}
 
 	@Override
-	protected void exportDescription(TextPElement odtText, Report publication) {
+	protected void exportDescription(TextElement odtText, Report publication) {
 		if (append(odtText, ", ", //$NON-NLS-1$
 				publication.getReportType(),
 				decorateBefore(publication.getReportNumber(), this.messages.getMessage(MESSAGES_PREFIX + "NUMBER_PREFIX")))) { //$NON-NLS-1$
@@ -281,7 +281,7 @@ public class DefaultOdfToolkitOpenDocumentTextExporter extends AbstractOdfToolki
 	}
 
 	@Override
-	protected void exportDescription(TextPElement odtText, Thesis publication) {
+	protected void exportDescription(TextElement odtText, Thesis publication) {
 		if (append(odtText, ", ", //$NON-NLS-1$
 				this.messages.getMessage(MESSAGES_PREFIX + publication.getType().name()),
 				publication.getInstitution(),
@@ -299,7 +299,7 @@ public class DefaultOdfToolkitOpenDocumentTextExporter extends AbstractOdfToolki
 	}
 
 	@Override
-	protected void exportDescription(TextPElement odtText, Patent publication) {
+	protected void exportDescription(TextElement odtText, Patent publication) {
 		if (append(odtText, " ", //$NON-NLS-1$
 				this.messages.getMessage(MESSAGES_PREFIX + publication.getType().name()),
 				publication.getPatentNumber())) {
@@ -329,7 +329,7 @@ public class DefaultOdfToolkitOpenDocumentTextExporter extends AbstractOdfToolki
 	}
 
 	@Override
-	protected void exportDescription(TextPElement odtText, MiscDocument publication) {
+	protected void exportDescription(TextElement odtText, MiscDocument publication) {
 		if (append(odtText, " ", //$NON-NLS-1$
 				publication.getDocumentType(),
 				publication.getDocumentNumber())) {
@@ -16,6 +16,8 @@
 
 package fr.ciadlab.labmanager.io.od;
 
+import java.io.OutputStream;
+
 import fr.ciadlab.labmanager.entities.publication.Publication;
 import fr.ciadlab.labmanager.io.ExporterConfigurator;
 import fr.ciadlab.labmanager.io.PublicationExporter;
@@ -72,4 +74,17 @@ public interface OpenDocumentTextExporter extends PublicationExporter<byte[]> {
 	@Override
 	byte[] exportPublications(Iterable<? extends Publication> publications, ExporterConfigurator configurator) throws Exception;
 
+	/** Write the ODT representation of the publications that are given as argument into the given stream.
+	 * The document is written progressively; neither the document model of all the publications
+	 * nor the whole ODT file is built in memory.
+	 *
+	 * @param publications the publications to export. If it is {@code null}, an empty document is written.
+	 * @param configurator the configurator for the export, never {@code null}.
+	 * @param output the stream to write into. This stream is not closed by this function.
+	 * @throws Exception if the publication cannot be converted to ODT.
+	 * @see #exportPublications(Iterable, ExporterConfigurator)
+	 */
+	void exportPublicationsToStream(Iterable<? extends Publication> publications, ExporterConfigurator configurator,
+			OutputStream output) throws Exception;
+
 }
@@ -0,0 +1,355 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.od;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/** Writer of an Open Document Text that is a list of paragraphs. The document is written directly into
+ * a ZIP output stream: only the current XML element is in memory, whatever the number of paragraphs.
+ * <p>The entries of the document, except {@code content.xml}, are copied from a template document,
+ * usually an empty text document that is generated with the ODF toolkit. The entry {@code content.xml}
+ * is generated by this writer with the automatic styles of {@link OpenDocumentTextStyle}.
+ * <p>The XML elements are closed when a text is written into one of their ancestors; it is then
+ * not possible to write into a closed element.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public class OpenDocumentTextStreamWriter implements Closeable {
+
+	/** Name of the ZIP entry that contains the content of the document.
+	 */
+	public static final String CONTENT_ENTRY = "content.xml"; //$NON-NLS-1$
+
+	/** Name of the ZIP entry that contains the MIME type of the document.
+	 */
+	public static final String MIMETYPE_ENTRY = "mimetype"; //$NON-NLS-1$
+
+	private static final String DEFAULT_ODF_VERSION = "1.2"; //$NON-NLS-1$
+
+	private static final Pattern ODF_VERSION_PATTERN = Pattern.compile("office:version=\"([^\"]+)\""); //$NON-NLS-1$
+
+	private static final String OFFICE_PREFIX = "office"; //$NON-NLS-1$
+
+	private static final String OFFICE_NS = "urn:oasis:names:tc:opendocument:xmlns:office:1.0"; //$NON-NLS-1$
+
+	private static final String STYLE_PREFIX = "style"; //$NON-NLS-1$
+
+	private static final String STYLE_NS = "urn:oasis:names:tc:opendocument:xmlns:style:1.0"; //$NON-NLS-1$
+
+	private static final String TEXT_PREFIX = "text"; //$NON-NLS-1$
+
+	private static final String TEXT_NS = "urn:oasis:names:tc:opendocument:xmlns:text:1.0"; //$NON-NLS-1$
+
+	private static final String FO_PREFIX = "fo"; //$NON-NLS-1$
+
+	private static final String FO_NS = "urn:oasis:names:tc:opendocument:xmlns:xsl-fo-compatible:1.0"; //$NON-NLS-1$
+
+	private static final String XLINK_PREFIX = "xlink"; //$NON-NLS-1$
+
+	private static final String XLINK_NS = "http://www.w3.org/1999/xlink"; //$NON-NLS-1$
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final ZipOutputStream zip;
+
+	private final ZipInputStream template;
+
+	private XMLStreamWriter xml;
+
+	/** Number of XML elements that are opened inside the list of paragraphs.
+	 */
+	private int depth;
+
+	/** Identifiers of the XML elements that are opened inside the list of paragraphs, from the outermost.
+	 */
+	private int[] openElements = new int[8];
+
+	private int nextElementId;
+
+	/** Constructor. The beginning of the document is written into the output stream.
+	 *
+	 * @param output the output stream. It is not closed by this writer.
+	 * @param template the content of the template document, an ODT file.
+	 * @throws IOException if the document cannot be written.
+	 */
+	public OpenDocumentTextStreamWriter(OutputStream output, byte[] template) throws IOException {
+		this.zip = new ZipOutputStream(output);
+		this.template = new ZipInputStream(new ByteArrayInputStream(template));
+		try {
+			copyTemplateUntilContent();
+		} catch (XMLStreamException ex) {
+			throw new IOException(ex);
+		}
+	}
+
+	private void copyTemplateUntilContent() throws IOException, XMLStreamException {
+		ZipEntry entry = this.template.getNextEntry();
+		while (entry != null) {
+			final byte[] data = this.template.readAllBytes();
+			if (CONTENT_ENTRY.equals(entry.getName())) {
+				this.zip.putNextEntry(new ZipEntry(CONTENT_ENTRY));
+				startContent(extractOdfVersion(data));
+				return;
+			}
+			copyEntry(entry.getName(), data);
+			entry = this.template.getNextEntry();
+		}
+		throw new IOException("No " + CONTENT_ENTRY + " in the template document"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private void copyTemplateAfterContent() throws IOException {
+		ZipEntry entry = this.template.getNextEntry();
+		while (entry != null) {
+			copyEntry(entry.getName(), this.template.readAllBytes());
+			entry = this.template.getNextEntry();
+		}
+	}
+
+	private void copyEntry(String name, byte[] data) throws IOException {
+		final ZipEntry newEntry = new ZipEntry(name);
+		if (MIMETYPE_ENTRY.equals(name)) {
+			// The MIME type must not be compressed in order to be readable at a fixed offset
+			final CRC32 crc = new CRC32();
+			crc.update(data);
+			newEntry.setMethod(ZipEntry.STORED);
+			newEntry.setSize(data.length);
+			newEntry.setCompressedSize(data.length);
+			newEntry.setCrc(crc.getValue());
+		}
+		this.zip.putNextEntry(newEntry);
+		this.zip.write(data);
+		this.zip.closeEntry();
+	}
+
+	private static String extractOdfVersion(byte[] content) {
+		final String header = new String(content, 0, Math.min(content.length, BUFFER_SIZE), StandardCharsets.UTF_8);
+		final Matcher matcher = ODF_VERSION_PATTERN.matcher(header);
+		if (matcher.find()) {
+			return matcher.group(1);
+		}
+		return DEFAULT_ODF_VERSION;
+	}
+
+	private void startContent(String odfVersion) throws XMLStreamException {
+		// The XML writer must not close the ZIP stream
+		final OutputStream entryStream = new FilterOutputStream(this.zip) {
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				this.out.write(b, off, len);
+			}
+
+			@Override
+			public void close() throws IOException {
+				flush();
+			}
+		};
+		this.xml = XMLOutputFactory.newInstance().createXMLStreamWriter(entryStream, StandardCharsets.UTF_8.name());
+		this.xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0"); //$NON-NLS-1$
+		this.xml.writeStartElement(OFFICE_PREFIX, "document-content", OFFICE_NS); //$NON-NLS-1$
+		this.xml.writeNamespace(OFFICE_PREFIX, OFFICE_NS);
+		this.xml.writeNamespace(STYLE_PREFIX, STYLE_NS);
+		this.xml.writeNamespace(TEXT_PREFIX, TEXT_NS);
+		this.xml.writeNamespace(FO_PREFIX, FO_NS);
+		this.xml.writeNamespace(XLINK_PREFIX, XLINK_NS);
+		this.xml.writeAttribute(OFFICE_PREFIX, OFFICE_NS, "version", odfVersion); //$NON-NLS-1$
+		writeAutomaticStyles();
+		this.xml.writeStartElement(OFFICE_PREFIX, "body", OFFICE_NS); //$NON-NLS-1$
+		this.xml.writeStartElement(OFFICE_PREFIX, "text", OFFICE_NS); //$NON-NLS-1$
+		this.xml.writeStartElement(TEXT_PREFIX, "list", TEXT_NS); //$NON-NLS-1$
+	}
+
+	private void writeAutomaticStyles() throws XMLStreamException {
+		this.xml.writeStartElement(OFFICE_PREFIX, "automatic-styles", OFFICE_NS); //$NON-NLS-1$
+		for (final OpenDocumentTextStyle style : OpenDocumentTextStyle.values()) {
+			this.xml.writeStartElement(STYLE_PREFIX, "style", STYLE_NS); //$NON-NLS-1$
+			this.xml.writeAttribute(STYLE_PREFIX, STYLE_NS, "name", style.getStyleName()); //$NON-NLS-1$
+			this.xml.writeAttribute(STYLE_PREFIX, STYLE_NS, "family", "text"); //$NON-NLS-1$ //$NON-NLS-2$
+			this.xml.writeEmptyElement(STYLE_PREFIX, "text-properties", STYLE_NS); //$NON-NLS-1$
+			final String[] properties = style.getTextProperties();
+			for (int i = 0; i < properties.length; i += 2) {
+				final String qualifiedName = properties[i];
+				final int separator = qualifiedName.indexOf(':');
+				final String prefix = qualifiedName.substring(0, separator);
+				final String namespace = FO_PREFIX.equals(prefix) ? FO_NS : STYLE_NS;
+				this.xml.writeAttribute(prefix, namespace, qualifiedName.substring(separator + 1), properties[i + 1]);
+			}
+			this.xml.writeEndElement();
+		}
+		this.xml.writeEndElement();
+	}
+
+	/** Close the XML elements that are inside the given element.
+	 *
+	 * @param element the element in which the next text will be written, or {@code null} for the list of paragraphs.
+	 * @throws XMLStreamException if the elements cannot be closed.
+	 */
+	private void closeElements(TextElement element) throws XMLStreamException {
+		final int targetDepth;
+		if (element == null) {
+			targetDepth = 0;
+		} else {
+			targetDepth = element.elementDepth;
+			if (targetDepth > this.depth || this.openElements[targetDepth - 1] != element.elementId) {
+				throw new IllegalStateException("The element is already closed"); //$NON-NLS-1$
+			}
+		}
+		if (this.xml == null) {
+			throw new IllegalStateException("The document is already closed"); //$NON-NLS-1$
+		}
+		while (this.depth > targetDepth) {
+			this.xml.writeEndElement();
+			--this.depth;
+		}
+	}
+
+	private TextElement startElement(TextElement parent, String localName) throws XMLStreamException {
+		closeElements(parent);
+		this.xml.writeStartElement(TEXT_PREFIX, localName, TEXT_NS);
+		if (this.depth == this.openElements.length) {
+			this.openElements = Arrays.copyOf(this.openElements, this.depth * 2);
+		}
+		final int id = ++this.nextElementId;
+		this.openElements[this.depth] = id;
+		++this.depth;
+		return new TextElement(this.depth, id);
+	}
+
+	/** Start a new item in the list of paragraphs and replies the paragraph of this item.
+	 * All the elements of the previous item are closed.
+	 *
+	 * @return the paragraph of the item.
+	 * @throws IOException if the item cannot be written.
+	 */
+	public TextElement newListItemParagraph() throws IOException {
+		try {
+			final TextElement item = startElement(null, "list-item"); //$NON-NLS-1$
+			return startElement(item, "p"); //$NON-NLS-1$
+		} catch (XMLStreamException ex) {
+			throw new IOException(ex);
+		}
+	}
+
+	/** Finish the document. The output stream that was given to the constructor is not closed.
+	 *
+	 * @throws IOException if the document cannot be written.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (this.xml != null) {
+			try {
+				closeElements(null);
+				// Close the list, the text, the body and the document
+				this.xml.writeEndDocument();
+				this.xml.close();
+			} catch (XMLStreamException ex) {
+				throw new IOException(ex);
+			}
+			this.xml = null;
+			this.zip.closeEntry();
+			copyTemplateAfterContent();
+			this.zip.finish();
+			this.zip.flush();
+		}
+	}
+
+	/** XML element of the document content in which texts could be written.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	public final class TextElement {
+
+		private final int elementDepth;
+
+		private final int elementId;
+
+		private TextElement(int depth, int id) {
+			this.elementDepth = depth;
+			this.elementId = id;
+		}
+
+		/** Append a text at the end of this element. All the child elements are closed.
+		 *
+		 * @param text the text to append.
+		 */
+		public void newTextNode(String text) {
+			try {
+				closeElements(this);
+				OpenDocumentTextStreamWriter.this.xml.writeCharacters(text);
+			} catch (XMLStreamException ex) {
+				throw new UncheckedIOException(new IOException(ex));
+			}
+		}
+
+		/** Append a span with the given style at the end of this element.
+		 *
+		 * @param style the style of the span.
+		 * @return the span.
+		 */
+		public TextElement newSpan(OpenDocumentTextStyle style) {
+			try {
+				final TextElement span = startElement(this, "span"); //$NON-NLS-1$
+				OpenDocumentTextStreamWriter.this.xml.writeAttribute(TEXT_PREFIX, TEXT_NS, "style-name", style.getStyleName()); //$NON-NLS-1$
+				return span;
+			} catch (XMLStreamException ex) {
+				throw new UncheckedIOException(new IOException(ex));
+			}
+		}
+
+		/** Append an hyperlink at the end of this element.
+		 *
+		 * @param url the target of the link.
+		 * @return the link.
+		 */
+		public TextElement newLink(String url) {
+			try {
+				final TextElement link = startElement(this, "a"); //$NON-NLS-1$
+				OpenDocumentTextStreamWriter.this.xml.writeAttribute(XLINK_PREFIX, XLINK_NS, "type", "simple"); //$NON-NLS-1$ //$NON-NLS-2$
+				OpenDocumentTextStreamWriter.this.xml.writeAttribute(XLINK_PREFIX, XLINK_NS, "href", url); //$NON-NLS-1$
+				return link;
+			} catch (XMLStreamException ex) {
+				throw new UncheckedIOException(new IOException(ex));
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.od;
+
+/** Styles of the text spans that are written by the {@link OpenDocumentTextStreamWriter}.
+ * Each style is declared once as an automatic style at the beginning of the document content.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public enum OpenDocumentTextStyle {
+
+	/** Bold text.
+	 */
+	BOLD("Bold", //$NON-NLS-1$
+			"fo:font-weight", "bold"), //$NON-NLS-1$ //$NON-NLS-2$
+
+	/** Italic text.
+	 */
+	ITALIC("Italic", //$NON-NLS-1$
+			"fo:font-style", "italic"), //$NON-NLS-1$ //$NON-NLS-2$
+
+	/** Underlined text.
+	 */
+	UNDERLINE("Underline", //$NON-NLS-1$
+			"style:text-underline-type", "single", //$NON-NLS-1$ //$NON-NLS-2$
+			"style:text-underline-style", "solid"), //$NON-NLS-1$ //$NON-NLS-2$
+
+	/** Bold and underlined text.
+	 */
+	BOLD_UNDERLINE("BoldUnderline", //$NON-NLS-1$
+			"fo:font-weight", "bold", //$NON-NLS-1$ //$NON-NLS-2$
+			"style:text-underline-type", "single", //$NON-NLS-1$ //$NON-NLS-2$
+			"style:text-underline-style", "solid"), //$NON-NLS-1$ //$NON-NLS-2$
+
+	/** Italic text with the green color of the CIAD lab.
+	 *
+	 * @see AbstractOdfToolkitOpenDocumentTextExporter#CIAD_GREEN
+	 */
+	CIAD_GREEN_ITALIC("CiadGreenItalic", //$NON-NLS-1$
+			"fo:font-style", "italic", //$NON-NLS-1$ //$NON-NLS-2$
+			"fo:color", AbstractOdfToolkitOpenDocumentTextExporter.CIAD_GREEN.toString()); //$NON-NLS-1$
+
+	private final String styleName;
+
+	private final String[] textProperties;
+
+	OpenDocumentTextStyle(String styleName, String... textProperties) {
+		assert textProperties.length % 2 == 0;
+		this.styleName = styleName;
+		this.textProperties = textProperties;
+	}
+
+	/** Replies the name of the automatic style in the document content.
+	 *
+	 * @return the style name.
+	 */
+	public String getStyleName() {
+		return this.styleName;
+	}
+
+	/** Replies the qualified names and the values of the text properties of the style.
+	 * The names are at the even indexes and the values are at the odd indexes.
+	 *
+	 * @return the text properties.
+	 */
+	String[] getTextProperties() {
+		return this.textProperties;
+	}
+
+}
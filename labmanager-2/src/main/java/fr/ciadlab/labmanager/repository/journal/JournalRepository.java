@@ -18,9 +18,14 @@ package fr.ciadlab.labmanager.repository.journal;
 
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 import fr.ciadlab.labmanager.entities.journal.Journal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 /** JPA repository for journals.
  * 
@@ -46,4 +51,17 @@ public interface JournalRepository extends JpaRepository<Journal, Integer> {
 	 */
 	Optional<Journal> findByJournalName(String name);
 
+	/** Replies all the journals, ordered by identifier, as a stream of read-only entities.
+	 * The results are read from the database while the stream is consumed; the stream must be consumed
+	 * within a transaction and closed.
+	 *
+	 * @return the stream of the journals.
+	 */
+	@QueryHints({
+		@QueryHint(name = "org.hibernate.fetchSize", value = "100"), //$NON-NLS-1$ //$NON-NLS-2$
+		@QueryHint(name = "org.hibernate.readOnly", value = "true") //$NON-NLS-1$ //$NON-NLS-2$
+	})
+	@Query("SELECT j FROM Journal j ORDER BY j.id") //$NON-NLS-1$
+	Stream<Journal> streamAllOrderedById();
+
 }
@@ -18,9 +18,14 @@ package fr.ciadlab.labmanager.repository.member;
 
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 import fr.ciadlab.labmanager.entities.member.Membership;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 /** JPA repository for the membership relations.
  *
@@ -48,4 +53,26 @@ public interface MembershipRepository extends JpaRepository<Membership, Integer>
 	 */
 	Set<Membership> findByResearchOrganizationIdAndPersonId(int researchoOrganizationId, int personId);
 
+	/** Find the identifiers of the persons who have a membership in the organization with the given identifier.
+	 * Only the identifiers are loaded from the database, not the persons.
+	 *
+	 * @param researchOrganizationId the identifier of the organization.
+	 * @return the identifiers of the persons.
+	 */
+	@Query("SELECT DISTINCT m.person.id FROM Membership m WHERE m.researchOrganization.id = ?1") //$NON-NLS-1$
+	Set<Integer> findDistinctPersonIdsByResearchOrganizationId(int researchOrganizationId);
+
+	/** Replies all the memberships, ordered by identifier, as a stream of read-only entities.
+	 * The results are read from the database while the stream is consumed; the stream must be consumed
+	 * within a transaction and closed.
+	 *
+	 * @return the stream of the memberships.
+	 */
+	@QueryHints({
+		@QueryHint(name = "org.hibernate.fetchSize", value = "100"), //$NON-NLS-1$ //$NON-NLS-2$
+		@QueryHint(name = "org.hibernate.readOnly", value = "true") //$NON-NLS-1$ //$NON-NLS-2$
+	})
+	@Query("SELECT m FROM Membership m JOIN FETCH m.person JOIN FETCH m.researchOrganization ORDER BY m.id") //$NON-NLS-1$
+	Stream<Membership> streamAllOrderedById();
+
 }
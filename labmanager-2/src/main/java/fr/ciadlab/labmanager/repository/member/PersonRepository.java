@@ -16,13 +16,20 @@
 
 package fr.ciadlab.labmanager.repository.member;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 import fr.ciadlab.labmanager.entities.member.MemberStatus;
 import fr.ciadlab.labmanager.entities.member.Person;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 /** JPA Repository for the persons.
  * 
@@ -80,8 +87,21 @@ public interface PersonRepository extends JpaRepository<Person, Integer> {
 	 * @param id the identifier of the organization.
 	 * @return the persons.
 	 */
+	@EntityGraph(Person.MEMBERSHIPS_GRAPH)
+	@QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false")) //$NON-NLS-1$ //$NON-NLS-2$
 	Set<Person> findDistinctByMembershipsResearchOrganizationId(int id);
 
+	/** Replies the persons with the given identifiers, with their memberships.
+	 * The duplicate persons that are caused by the fetch of the memberships are removed in memory.
+	 *
+	 * @param identifiers the identifiers of the persons.
+	 * @return the persons.
+	 * @see Person#MEMBERSHIPS_GRAPH
+	 */
+	@EntityGraph(Person.MEMBERSHIPS_GRAPH)
+	@QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false")) //$NON-NLS-1$ //$NON-NLS-2$
+	Set<Person> findDistinctByIdIn(Collection<Integer> identifiers);
+
 	/** Replies the persons who authored the publication with the given identifier.
 	 *
 	 * @param id the identifier of the publication.
@@ -89,4 +109,17 @@ public interface PersonRepository extends JpaRepository<Person, Integer> {
 	 */
 	List<Person> findByAuthorshipsPublicationIdOrderByAuthorshipsAuthorRank(int id);
 
+	/** Replies all the persons, ordered by identifier, as a stream of read-only entities.
+	 * The results are read from the database while the stream is consumed; the stream must be consumed
+	 * within a transaction and closed.
+	 *
+	 * @return the stream of the persons.
+	 */
+	@QueryHints({
+		@QueryHint(name = "org.hibernate.fetchSize", value = "100"), //$NON-NLS-1$ //$NON-NLS-2$
+		@QueryHint(name = "org.hibernate.readOnly", value = "true") //$NON-NLS-1$ //$NON-NLS-2$
+	})
+	@Query("SELECT p FROM Person p ORDER BY p.id") //$NON-NLS-1$
+	Stream<Person> streamAllOrderedById();
+
 }
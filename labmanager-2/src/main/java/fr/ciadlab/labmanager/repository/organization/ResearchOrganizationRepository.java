@@ -16,10 +16,18 @@
 
 package fr.ciadlab.labmanager.repository.organization;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 import fr.ciadlab.labmanager.entities.organization.ResearchOrganization;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 /** JPA Repository for the research organizations.
  * 
@@ -54,4 +62,35 @@ public interface ResearchOrganizationRepository extends JpaRepository<ResearchOr
 	 */
 	Optional<ResearchOrganization> findDistinctByName(String name);
 
+	/** Find the research organizations with the given identifiers, with their memberships and members.
+	 * The duplicate organizations that are caused by the fetch of the memberships are removed in memory.
+	 *
+	 * @param identifiers the identifiers of the organizations.
+	 * @return the research organizations.
+	 * @see ResearchOrganization#MEMBERS_GRAPH
+	 */
+	@EntityGraph(ResearchOrganization.MEMBERS_GRAPH)
+	@QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false")) //$NON-NLS-1$ //$NON-NLS-2$
+	List<ResearchOrganization> findDistinctByIdIn(Collection<Integer> identifiers);
+
+	/** Replies the identifiers of all the organizations, ordered by identifier.
+	 *
+	 * @return the identifiers.
+	 */
+	@Query("SELECT o.id FROM ResearchOrganization o ORDER BY o.id") //$NON-NLS-1$
+	List<Integer> findAllIdsOrderedById();
+
+	/** Replies all the organizations, ordered by identifier, as a stream of read-only entities.
+	 * The results are read from the database while the stream is consumed; the stream must be consumed
+	 * within a transaction and closed.
+	 *
+	 * @return the stream of the organizations.
+	 */
+	@QueryHints({
+		@QueryHint(name = "org.hibernate.fetchSize", value = "100"), //$NON-NLS-1$ //$NON-NLS-2$
+		@QueryHint(name = "org.hibernate.readOnly", value = "true") //$NON-NLS-1$ //$NON-NLS-2$
+	})
+	@Query("SELECT o FROM ResearchOrganization o ORDER BY o.id") //$NON-NLS-1$
+	Stream<ResearchOrganization> streamAllOrderedById();
+
 }
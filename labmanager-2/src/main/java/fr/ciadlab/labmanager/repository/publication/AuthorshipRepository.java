@@ -19,8 +19,12 @@ package fr.ciadlab.labmanager.repository.publication;
 import java.util.List;
 import java.util.Optional;
 
+import javax.transaction.Transactional;
+
 import fr.ciadlab.labmanager.entities.publication.Authorship;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 /** JPA repository for the authorship relations.
  * 
@@ -47,4 +51,33 @@ public interface AuthorshipRepository extends JpaRepository<Authorship, Integer>
 	 */
 	List<Authorship> findByPublicationId(int publicationId);
 
+	/** Replies if an authorship exists for the given person identifier and publication identifier.
+	 *
+	 * @param personId the identifier of the person.
+	 * @param publicationId the publication of the publication.
+	 * @return {@code true} if the person is an author of the publication.
+	 */
+	boolean existsByPersonIdAndPublicationId(int personId, int publicationId);
+
+	/** Count the authorships that are linked to the publication with the given identifier.
+	 *
+	 * @param publicationId the publication of the publication.
+	 * @return the number of authors of the publication.
+	 */
+	long countByPublicationId(int publicationId);
+
+	/** Increment the ranks of the authors of the publication with the given identifier, starting from the given rank.
+	 * The ranks are changed with a single update statement; the authorships that are already loaded are not
+	 * changed by this function.
+	 *
+	 * @param publicationId the publication of the publication.
+	 * @param fromRank the first rank to be incremented.
+	 * @return the number of changed authorships.
+	 */
+	@Modifying
+	@Transactional
+	@Query("UPDATE Authorship a SET a.authorRank = a.authorRank + 1 " //$NON-NLS-1$
+			+ "WHERE a.publication.id = ?1 AND a.authorRank >= ?2") //$NON-NLS-1$
+	int incrementAuthorRanks(int publicationId, int fromRank);
+
 }
@@ -16,13 +16,25 @@
 
 package fr.ciadlab.labmanager.repository.publication;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 import fr.ciadlab.labmanager.entities.publication.Publication;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 /** JPA repository for a publication.
+ * <p>The publications could be selected with the specifications that are provided by {@link PublicationSpecifications}.
+ * <p>The lists of publications are loaded with their authors (see {@link Publication#AUTHORS_GRAPH}). The duplicate
+ * publications that are caused by the fetch of the authorships are removed in memory, because the {@code DISTINCT}
+ * operator cannot be applied to the large text columns of the publications by all the database engines.
  * 
  * @author $Author: sgalland$
  * @author $Author: tmartine$
@@ -30,13 +42,27 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * @mavengroupid $GroupId$
  * @mavenartifactid $ArtifactId$
  */
-public interface PublicationRepository extends JpaRepository<Publication, Integer> {
+public interface PublicationRepository extends JpaRepository<Publication, Integer>, JpaSpecificationExecutor<Publication> {
+
+	/** Replies all the publications with their authors.
+	 *
+	 * @return the list of publications.
+	 */
+	@Override
+	@EntityGraph(Publication.AUTHORS_GRAPH)
+	@Query("SELECT DISTINCT p FROM Publication p") //$NON-NLS-1$
+	@QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false")) //$NON-NLS-1$ //$NON-NLS-2$
+	List<Publication> findAll();
 
 	/** Replies the list of publications for the person with the given identifier.
 	 *
 	 * @param personId the identifier of the person.
 	 * @return the list of publications.
 	 */
+	@EntityGraph(Publication.AUTHORS_GRAPH)
+	@Query("SELECT DISTINCT p FROM Publication p WHERE p.id IN " //$NON-NLS-1$
+			+ "(SELECT a.publication.id FROM Authorship a WHERE a.person.id = ?1)") //$NON-NLS-1$
+	@QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false")) //$NON-NLS-1$ //$NON-NLS-2$
 	List<Publication> findAllByAuthorshipsPersonId(int personId);
 
 	/** Replies the list of publications for the person with the given webpage identifier.
@@ -44,6 +70,10 @@ public interface PublicationRepository extends JpaRepository<Publication, Intege
 	 * @param webpageId the identifier of the webpage of the person.
 	 * @return the list of publications.
 	 */
+	@EntityGraph(Publication.AUTHORS_GRAPH)
+	@Query("SELECT DISTINCT p FROM Publication p WHERE p.id IN " //$NON-NLS-1$
+			+ "(SELECT a.publication.id FROM Authorship a WHERE a.person.webPageId = ?1)") //$NON-NLS-1$
+	@QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false")) //$NON-NLS-1$ //$NON-NLS-2$
 	List<Publication> findAllByAuthorshipsPersonWebPageId(String webpageId);
 
 	/** Replies the list of publications for the persons with the given identifiers.
@@ -51,6 +81,10 @@ public interface PublicationRepository extends JpaRepository<Publication, Intege
 	 * @param personIds the list of identifiers of the authors.
 	 * @return the list of publications.
 	 */
+	@EntityGraph(Publication.AUTHORS_GRAPH)
+	@Query("SELECT DISTINCT p FROM Publication p WHERE p.id IN " //$NON-NLS-1$
+			+ "(SELECT a.publication.id FROM Authorship a WHERE a.person.id IN ?1)") //$NON-NLS-1$
+	@QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false")) //$NON-NLS-1$ //$NON-NLS-2$
 	Set<Publication> findAllByAuthorshipsPersonIdIn(Set<Integer> personIds);
 	
 	/** Replies the list of publications with the given title.
@@ -60,4 +94,53 @@ public interface PublicationRepository extends JpaRepository<Publication, Intege
 	 */
 	List<Publication> findAllByTitleIgnoreCase(String title);
 
+	/** Replies the publications that have the given normalized DOI, the given normalized HAL identifier, or the
+	 * given title fingerprint. The search uses the indexes of the normalized keys of the publications.
+	 * The {@code null} arguments match no publication.
+	 *
+	 * @param doiKey the normalized DOI.
+	 * @param halIdKey the normalized HAL identifier.
+	 * @param titleFingerprint the fingerprint of the title.
+	 * @return the list of publications.
+	 * @see Publication#updateDuplicateKeys()
+	 */
+	@Query("SELECT p FROM Publication p WHERE p.doiKey = ?1 OR p.halIdKey = ?2 OR p.titleFingerprint = ?3") //$NON-NLS-1$
+	List<Publication> findAllByDuplicateKeys(String doiKey, String halIdKey, String titleFingerprint);
+
+	/** Replies the publications that were published between the given years and that have at least one of the given
+	 * pairs of significant words in their titles. The search uses the index of the title keys of the publications.
+	 * It is used for finding the publications with slightly different titles.
+	 *
+	 * @param titleKeys the pairs of significant words of the normalized title. It must not be empty.
+	 * @param minYear the lowest year of publication.
+	 * @param maxYear the highest year of publication.
+	 * @return the list of publications.
+	 * @see Publication#getTitleKeys()
+	 */
+	@Query("SELECT p FROM Publication p WHERE p.publicationYear BETWEEN ?2 AND ?3 " //$NON-NLS-1$
+			+ "AND p.id IN (SELECT q.id FROM Publication q JOIN q.titleKeys k WHERE k IN ?1)") //$NON-NLS-1$
+	List<Publication> findAllByTitleKeys(Collection<String> titleKeys, int minYear, int maxYear);
+
+	/** Replies the publications without title fingerprint or without title keys, i.e. the publications that were
+	 * saved before the introduction of the normalized keys, or the publications without significant title.
+	 *
+	 * @return the list of publications.
+	 * @see Publication#updateDuplicateKeys()
+	 */
+	@Query("SELECT p FROM Publication p WHERE p.titleFingerprint IS NULL OR p.titleKeys IS EMPTY") //$NON-NLS-1$
+	List<Publication> findAllWithoutDuplicateKeys();
+
+	/** Replies all the publications, ordered by identifier, as a stream of read-only entities.
+	 * The results are read from the database while the stream is consumed; the stream must be consumed
+	 * within a transaction and closed.
+	 *
+	 * @return the stream of the publications.
+	 */
+	@QueryHints({
+		@QueryHint(name = "org.hibernate.fetchSize", value = "100"), //$NON-NLS-1$ //$NON-NLS-2$
+		@QueryHint(name = "org.hibernate.readOnly", value = "true") //$NON-NLS-1$ //$NON-NLS-2$
+	})
+	@Query("SELECT p FROM Publication p ORDER BY p.id") //$NON-NLS-1$
+	Stream<Publication> streamAllOrderedById();
+
 }
@@ -0,0 +1,205 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.repository.publication;
+
+import java.util.Collection;
+import java.util.Locale;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
+import fr.ciadlab.labmanager.entities.publication.Authorship;
+import fr.ciadlab.labmanager.entities.publication.Publication;
+import fr.ciadlab.labmanager.entities.publication.PublicationType;
+import fr.ciadlab.labmanager.entities.publication.type.JournalPaper;
+import org.apache.jena.ext.com.google.common.base.Strings;
+import org.springframework.data.jpa.domain.Specification;
+
+/** Factory of JPA specifications for selecting publications with {@link PublicationRepository}.
+ * <p>The criteria on the authors are written with sub-queries on the authorships, in order
+ * to avoid duplicate publications in the paged results.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public final class PublicationSpecifications {
+
+	private static final char LIKE_ESCAPE = '\\';
+
+	private PublicationSpecifications() {
+		//
+	}
+
+	/** Replies the specification that selects the publications of the given year.
+	 *
+	 * @param year the year of publication.
+	 * @return the specification.
+	 */
+	public static Specification<Publication> isPublishedIn(int year) {
+		return (root, query, builder) -> builder.equal(root.get("publicationYear"), Integer.valueOf(year)); //$NON-NLS-1$
+	}
+
+	/** Replies the specification that selects the publications with one of the given types.
+	 *
+	 * @param types the types of publications.
+	 * @return the specification.
+	 */
+	public static Specification<Publication> hasTypeIn(Collection<PublicationType> types) {
+		return (root, query, builder) -> root.get("type").in(types); //$NON-NLS-1$
+	}
+
+	/** Replies the specification that selects the publications with the given identifiers.
+	 *
+	 * @param identifiers the identifiers of the publications.
+	 * @return the specification.
+	 */
+	public static Specification<Publication> hasIdentifierIn(Collection<Integer> identifiers) {
+		return (root, query, builder) -> root.get("id").in(identifiers); //$NON-NLS-1$
+	}
+
+	/** Replies the specification that selects the publications of the author with the given identifier.
+	 *
+	 * @param personId the identifier of the author.
+	 * @return the specification.
+	 */
+	public static Specification<Publication> hasAuthor(int personId) {
+		return (root, query, builder) -> root.get("id").in(authorships(query, //$NON-NLS-1$
+				authorship -> builder.equal(authorship.get("person").get("id"), Integer.valueOf(personId)))); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/** Replies the specification that selects the publications of the author with the given webpage identifier.
+	 *
+	 * @param webpageId the identifier of the webpage of the author.
+	 * @return the specification.
+	 */
+	public static Specification<Publication> hasAuthorWithWebPageId(String webpageId) {
+		return (root, query, builder) -> root.get("id").in(authorships(query, //$NON-NLS-1$
+				authorship -> builder.equal(authorship.get("person").get("webPageId"), webpageId))); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/** Replies the specification that selects the publications with at least one author in the given set.
+	 *
+	 * @param personIds the identifiers of the authors.
+	 * @return the specification.
+	 */
+	public static Specification<Publication> hasAuthorIn(Collection<Integer> personIds) {
+		return (root, query, builder) -> {
+			if (personIds.isEmpty()) {
+				return builder.disjunction();
+			}
+			return root.get("id").in(authorships(query, //$NON-NLS-1$
+					authorship -> authorship.get("person").get("id").in(personIds))); //$NON-NLS-1$ //$NON-NLS-2$
+		};
+	}
+
+	/** Replies the specification that selects the papers that are published in the journal with the given identifier.
+	 *
+	 * @param journalId the identifier of the journal.
+	 * @return the specification.
+	 */
+	public static Specification<Publication> isPublishedInJournal(int journalId) {
+		return (root, query, builder) -> {
+			final Subquery<Integer> subquery = query.subquery(Integer.class);
+			final Root<JournalPaper> paper = subquery.from(JournalPaper.class);
+			subquery.select(paper.<Integer>get("id")).where( //$NON-NLS-1$
+					builder.equal(paper.get("journal").get("id"), Integer.valueOf(journalId))); //$NON-NLS-1$ //$NON-NLS-2$
+			return root.get("id").in(subquery); //$NON-NLS-1$
+		};
+	}
+
+	/** Replies the specification that selects the publications that contains the given text in their
+	 * titles, keywords, abstracts, or in the names of their authors. The test is case insensitive.
+	 *
+	 * @param text the text to search for.
+	 * @return the specification, or {@code null} if the text is empty.
+	 */
+	public static Specification<Publication> containsText(String text) {
+		if (Strings.isNullOrEmpty(text) || text.isBlank()) {
+			return null;
+		}
+		final String pattern = toLikePattern(text.trim());
+		return (root, query, builder) -> {
+			final Subquery<Integer> authors = authorships(query, authorship -> builder.or(
+					like(builder, authorship.get("person").<String>get("lastName"), pattern), //$NON-NLS-1$ //$NON-NLS-2$
+					like(builder, authorship.get("person").<String>get("firstName"), pattern))); //$NON-NLS-1$ //$NON-NLS-2$
+			return builder.or(
+					like(builder, root.<String>get("title"), pattern), //$NON-NLS-1$
+					like(builder, root.<String>get("keywords"), pattern), //$NON-NLS-1$
+					like(builder, root.<String>get("abstractText"), pattern), //$NON-NLS-1$
+					root.get("id").in(authors)); //$NON-NLS-1$
+		};
+	}
+
+	/** Build the case-insensitive pattern for a LIKE operator that matches the given text at any position.
+	 * The special characters of the LIKE operator are escaped.
+	 *
+	 * @param text the text to search for.
+	 * @return the pattern.
+	 */
+	static String toLikePattern(String text) {
+		final StringBuilder pattern = new StringBuilder();
+		pattern.append('%');
+		for (final char c : text.toLowerCase(Locale.ROOT).toCharArray()) {
+			if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+				pattern.append(LIKE_ESCAPE);
+			}
+			pattern.append(c);
+		}
+		pattern.append('%');
+		return pattern.toString();
+	}
+
+	private static Predicate like(CriteriaBuilder builder, Expression<String> expression, String pattern) {
+		return builder.like(builder.lower(expression), pattern, LIKE_ESCAPE);
+	}
+
+	private static Subquery<Integer> authorships(CriteriaQuery<?> query, AuthorshipCriterion criterion) {
+		final Subquery<Integer> subquery = query.subquery(Integer.class);
+		final Root<Authorship> authorship = subquery.from(Authorship.class);
+		subquery.select(authorship.get("publication").<Integer>get("id")); //$NON-NLS-1$ //$NON-NLS-2$
+		subquery.where(criterion.toPredicate(authorship));
+		return subquery;
+	}
+
+	/** Criterion on the authorships of a publication.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	@FunctionalInterface
+	private interface AuthorshipCriterion {
+
+		/** Build the predicate on the authorship.
+		 *
+		 * @param authorship the root of the authorships in the sub-query.
+		 * @return the predicate.
+		 */
+		Predicate toPredicate(Root<Authorship> authorship);
+
+	}
+
+}
@@ -0,0 +1,682 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.runners;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.sql.DataSource;
+
+import fr.ciadlab.labmanager.utils.HashUtils;
+import org.apache.jena.ext.com.google.common.base.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/** Binary snapshot of the content of the database.
+ * The snapshot is written after the import of the JSON data source, with the hash of this source.
+ * It contains the rows of all the tables of the database, in the order of the foreign keys.
+ * The snapshot is loaded with JDBC batch inserts into an empty database, without running the import of
+ * the JSON data source.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ * @see JsonDatabaseInitializer
+ */
+@Component
+public class DatabaseSnapshot {
+
+	private static final int MAGIC_NUMBER = 0x4c4d4442;
+
+	private static final int FORMAT_VERSION = 1;
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private static final int BATCH_SIZE = 500;
+
+	private static final byte NULL_VALUE = 0;
+
+	private static final byte BOOLEAN_VALUE = 1;
+
+	private static final byte BYTE_VALUE = 2;
+
+	private static final byte SHORT_VALUE = 3;
+
+	private static final byte INT_VALUE = 4;
+
+	private static final byte LONG_VALUE = 5;
+
+	private static final byte FLOAT_VALUE = 6;
+
+	private static final byte DOUBLE_VALUE = 7;
+
+	private static final byte DECIMAL_VALUE = 8;
+
+	private static final byte STRING_VALUE = 9;
+
+	private static final byte BYTES_VALUE = 10;
+
+	private static final byte DATE_VALUE = 11;
+
+	private static final byte TIME_VALUE = 12;
+
+	private static final byte TIMESTAMP_VALUE = 13;
+
+	private final DataSource dataSource;
+
+	private Logger logger;
+
+	/** Constructor for injector.
+	 * This constructor is defined for being invoked by the IOC injector.
+	 *
+	 * @param dataSource the source of JDBC connections to the database.
+	 */
+	public DatabaseSnapshot(@Autowired DataSource dataSource) {
+		this.dataSource = dataSource;
+	}
+
+	/** Replies the logger of this service.
+	 *
+	 * @return the logger.
+	 */
+	public Logger getLogger() {
+		if (this.logger == null) {
+			this.logger = createLogger();
+		}
+		return this.logger;
+	}
+
+	/** Change the logger of this service.
+	 *
+	 * @param logger the logger.
+	 */
+	public void setLogger(Logger logger) {
+		this.logger = logger;
+	}
+
+	/** Factory method for creating the service logger.
+	 *
+	 * @return the logger.
+	 */
+	protected Logger createLogger() {
+		return LoggerFactory.getLogger(getClass());
+	}
+
+	/** Compute the hash of the content at the given URL.
+	 *
+	 * @param url the URL of the content.
+	 * @return the hexadecimal representation of the SHA-256 hash of the content.
+	 * @throws IOException if the content cannot be read.
+	 */
+	public static String computeHash(URL url) throws IOException {
+		try (final InputStream is = url.openStream()) {
+			return HashUtils.sha256Hex(is);
+		}
+	}
+
+	/** Replies the hash of the data source that is stored in the given snapshot.
+	 *
+	 * @param snapshot the snapshot file.
+	 * @return the hash, or {@code null} if the file is not a valid snapshot.
+	 */
+	public static String readHash(File snapshot) {
+		if (snapshot != null && snapshot.canRead()) {
+			try (final DataInputStream input = openInput(snapshot)) {
+				return readHeader(input);
+			} catch (IOException ex) {
+				//
+			}
+		}
+		return null;
+	}
+
+	private static DataInputStream openInput(File snapshot) throws IOException {
+		return new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(snapshot))));
+	}
+
+	private static String readHeader(DataInputStream input) throws IOException {
+		if (input.readInt() != MAGIC_NUMBER || input.readInt() != FORMAT_VERSION) {
+			throw new IOException("Invalid database snapshot format"); //$NON-NLS-1$
+		}
+		return input.readUTF();
+	}
+
+	/** Replies if the database contains no entity, i.e., all the tables with a primary key are empty.
+	 * The tables without primary key, e.g. the table of the identifier generators, are ignored.
+	 *
+	 * @return {@code true} if the database contains no entity.
+	 * @throws SQLException if the database cannot be read.
+	 */
+	public boolean isDatabaseEmpty() throws SQLException {
+		try (final Connection connection = this.dataSource.getConnection()) {
+			final String quote = getIdentifierQuote(connection.getMetaData());
+			for (final TableInfo table : readTables(connection)) {
+				if (!table.primaryKeys.isEmpty()) {
+					try (final Statement statement = connection.createStatement();
+							final ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + quote(table.name, quote))) { //$NON-NLS-1$
+						if (rs.next() && rs.getLong(1) > 0) {
+							return false;
+						}
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/** Write the snapshot of the database into the given file.
+	 * The snapshot is written into a temporary file that replaces the given file when it is complete.
+	 *
+	 * @param snapshot the snapshot file.
+	 * @param hash the hash of the data source that is the origin of the database content.
+	 * @throws IOException if the snapshot cannot be written.
+	 * @throws SQLException if the database cannot be read.
+	 */
+	public void write(File snapshot, String hash) throws IOException, SQLException {
+		final File tmpFile = new File(snapshot.getParentFile(), snapshot.getName() + ".tmp"); //$NON-NLS-1$
+		try {
+			try (final Connection connection = this.dataSource.getConnection();
+					final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tmpFile))))) {
+				output.writeInt(MAGIC_NUMBER);
+				output.writeInt(FORMAT_VERSION);
+				output.writeUTF(hash);
+				final String quote = getIdentifierQuote(connection.getMetaData());
+				final List<TableInfo> tables = readTables(connection);
+				output.writeInt(tables.size());
+				for (final TableInfo table : tables) {
+					output.writeUTF(table.name);
+					try (final Statement statement = connection.createStatement();
+							final ResultSet rs = statement.executeQuery("SELECT * FROM " + quote(table.name, quote))) { //$NON-NLS-1$
+						final ResultSetMetaData metadata = rs.getMetaData();
+						final int columnCount = metadata.getColumnCount();
+						output.writeInt(columnCount);
+						for (int i = 1; i <= columnCount; ++i) {
+							output.writeUTF(metadata.getColumnName(i));
+							output.writeInt(metadata.getColumnType(i));
+						}
+						int rows = 0;
+						while (rs.next()) {
+							output.writeBoolean(true);
+							for (int i = 1; i <= columnCount; ++i) {
+								writeValue(output, rs.getObject(i));
+							}
+							++rows;
+						}
+						output.writeBoolean(false);
+						getLogger().debug("Snapshot of " + table.name + ": " + rows + " rows"); //$NON-NLS-1$ //$NON-NLS-2$
+					}
+				}
+			}
+			Files.move(tmpFile.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tmpFile.toPath());
+		}
+	}
+
+	/** Load the given snapshot into the database. The rows of the tables that are not related to entities,
+	 * e.g. the table of the identifier generators, are replaced by the rows of the snapshot.
+	 * The snapshot is loaded within a single transaction.
+	 *
+	 * @param snapshot the snapshot file.
+	 * @return {@code true} if the snapshot was loaded; {@code false} if the database does not support the
+	 *     loading of the snapshot.
+	 * @throws IOException if the snapshot cannot be read.
+	 * @throws SQLException if the snapshot cannot be written into the database.
+	 * @see #isRestorable(DatabaseMetaData)
+	 */
+	public boolean restore(File snapshot) throws IOException, SQLException {
+		try (final Connection connection = this.dataSource.getConnection()) {
+			final DatabaseMetaData dbMetadata = connection.getMetaData();
+			if (!isRestorable(dbMetadata)) {
+				getLogger().info("The database snapshot cannot be loaded into " + dbMetadata.getDatabaseProductName()); //$NON-NLS-1$
+				return false;
+			}
+			final String quote = getIdentifierQuote(dbMetadata);
+			final List<TableInfo> currentTables = readTables(connection);
+			final Map<String, TableInfo> tablesByName = new TreeMap<>();
+			for (final TableInfo table : currentTables) {
+				tablesByName.put(table.name, table);
+			}
+			final boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try (final DataInputStream input = openInput(snapshot)) {
+				readHeader(input);
+				// Remove the rows that are not entities, from the children to the parents
+				for (int i = currentTables.size() - 1; i >= 0; --i) {
+					try (final Statement statement = connection.createStatement()) {
+						statement.executeUpdate("DELETE FROM " + quote(currentTables.get(i).name, quote)); //$NON-NLS-1$
+					}
+				}
+				final int tableCount = input.readInt();
+				for (int t = 0; t < tableCount; ++t) {
+					final String tableName = input.readUTF();
+					final TableInfo table = tablesByName.get(tableName);
+					if (table == null) {
+						throw new IOException("Table of the snapshot not found in the database: " + tableName); //$NON-NLS-1$
+					}
+					restoreTable(connection, input, table, quote);
+				}
+				connection.commit();
+			} catch (IOException | SQLException | RuntimeException ex) {
+				connection.rollback();
+				throw ex;
+			} finally {
+				connection.setAutoCommit(autoCommit);
+			}
+		}
+		return true;
+	}
+
+	private void restoreTable(Connection connection, DataInputStream input, TableInfo table, String quote) throws IOException, SQLException {
+		final int columnCount = input.readInt();
+		final String[] columns = new String[columnCount];
+		final int[] types = new int[columnCount];
+		final List<Integer> selfReferences = new ArrayList<>();
+		final List<Integer> primaryKeys = new ArrayList<>();
+		final StringBuilder insert = new StringBuilder();
+		insert.append("INSERT INTO ").append(quote(table.name, quote)).append(" ("); //$NON-NLS-1$ //$NON-NLS-2$
+		for (int i = 0; i < columnCount; ++i) {
+			columns[i] = input.readUTF();
+			types[i] = input.readInt();
+			if (i > 0) {
+				insert.append(", "); //$NON-NLS-1$
+			}
+			insert.append(quote(columns[i], quote));
+			if (table.selfReferences.contains(columns[i])) {
+				selfReferences.add(Integer.valueOf(i));
+			}
+			if (table.primaryKeys.contains(columns[i])) {
+				primaryKeys.add(Integer.valueOf(i));
+			}
+		}
+		insert.append(") VALUES ("); //$NON-NLS-1$
+		for (int i = 0; i < columnCount; ++i) {
+			insert.append(i > 0 ? ", ?" : "?"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		insert.append(")"); //$NON-NLS-1$
+		if (!selfReferences.isEmpty() && primaryKeys.size() != table.primaryKeys.size()) {
+			throw new IOException("Primary key of the table " + table.name + " is not in the snapshot"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		// The references to rows of the same table are set when all the rows are inserted
+		final List<Object[]> deferredReferences = new ArrayList<>();
+		int rows = 0;
+		try (final PreparedStatement statement = connection.prepareStatement(insert.toString())) {
+			final Object[] values = new Object[columnCount];
+			int batch = 0;
+			while (input.readBoolean()) {
+				boolean hasSelfReference = false;
+				for (int i = 0; i < columnCount; ++i) {
+					values[i] = readValue(input);
+				}
+				for (final Integer index : selfReferences) {
+					final int i = index.intValue();
+					if (values[i] != null) {
+						hasSelfReference = true;
+					}
+				}
+				if (hasSelfReference) {
+					deferredReferences.add(values.clone());
+					for (final Integer index : selfReferences) {
+						values[index.intValue()] = null;
+					}
+				}
+				for (int i = 0; i < columnCount; ++i) {
+					setValue(statement, i + 1, values[i], types[i]);
+				}
+				statement.addBatch();
+				++rows;
+				++batch;
+				if (batch >= BATCH_SIZE) {
+					statement.executeBatch();
+					batch = 0;
+				}
+			}
+			if (batch > 0) {
+				statement.executeBatch();
+			}
+		}
+		if (!deferredReferences.isEmpty()) {
+			final StringBuilder update = new StringBuilder();
+			update.append("UPDATE ").append(quote(table.name, quote)).append(" SET "); //$NON-NLS-1$ //$NON-NLS-2$
+			boolean first = true;
+			for (final Integer index : selfReferences) {
+				if (!first) {
+					update.append(", "); //$NON-NLS-1$
+				}
+				update.append(quote(columns[index.intValue()], quote)).append(" = ?"); //$NON-NLS-1$
+				first = false;
+			}
+			update.append(" WHERE "); //$NON-NLS-1$
+			first = true;
+			for (final Integer index : primaryKeys) {
+				if (!first) {
+					update.append(" AND "); //$NON-NLS-1$
+				}
+				update.append(quote(columns[index.intValue()], quote)).append(" = ?"); //$NON-NLS-1$
+				first = false;
+			}
+			try (final PreparedStatement statement = connection.prepareStatement(update.toString())) {
+				for (final Object[] values : deferredReferences) {
+					int parameter = 1;
+					for (final Integer index : selfReferences) {
+						setValue(statement, parameter, values[index.intValue()], types[index.intValue()]);
+						++parameter;
+					}
+					for (final Integer index : primaryKeys) {
+						setValue(statement, parameter, values[index.intValue()], types[index.intValue()]);
+						++parameter;
+					}
+					statement.addBatch();
+				}
+				statement.executeBatch();
+			}
+		}
+		getLogger().debug("Snapshot loaded into " + table.name + ": " + rows + " rows"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/** Replies if the snapshot could be loaded into the database.
+	 * When the snapshot is loaded, the identifier generators of the entities must be consistent with
+	 * the loaded rows. This is the case when the generators are stored into tables (the table
+	 * {@code hibernate_sequence} of Hibernate) and when the auto-increment counters follow the
+	 * explicitly inserted identifiers, i.e., for MySQL and MariaDB. The sequences and the identity columns
+	 * of the other database engines are not restored.
+	 *
+	 * @param metadata the metadata of the database.
+	 * @return {@code true} if the snapshot could be loaded.
+	 * @throws SQLException if the metadata cannot be read.
+	 */
+	@SuppressWarnings("static-method")
+	protected boolean isRestorable(DatabaseMetaData metadata) throws SQLException {
+		final String product = metadata.getDatabaseProductName();
+		return "MySQL".equalsIgnoreCase(product) || "MariaDB".equalsIgnoreCase(product); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static String getIdentifierQuote(DatabaseMetaData metadata) throws SQLException {
+		final String quote = metadata.getIdentifierQuoteString();
+		if (Strings.isNullOrEmpty(quote) || quote.isBlank()) {
+			return ""; //$NON-NLS-1$
+		}
+		return quote;
+	}
+
+	private static String quote(String identifier, String quote) {
+		return quote + identifier + quote;
+	}
+
+	/** Read the tables of the database, sorted in order to have the tables that are referenced
+	 * by foreign keys before the tables that are referencing them.
+	 *
+	 * @param connection the connection to the database.
+	 * @return the tables.
+	 * @throws SQLException if the metadata cannot be read.
+	 */
+	private static List<TableInfo> readTables(Connection connection) throws SQLException {
+		final DatabaseMetaData metadata = connection.getMetaData();
+		final String catalog = connection.getCatalog();
+		final String schema = connection.getSchema();
+		final Map<String, TableInfo> tables = new TreeMap<>();
+		try (final ResultSet rs = metadata.getTables(catalog, schema, "%", new String[] {"TABLE"})) { //$NON-NLS-1$ //$NON-NLS-2$
+			while (rs.next()) {
+				final String name = rs.getString("TABLE_NAME"); //$NON-NLS-1$
+				tables.put(name, new TableInfo(name));
+			}
+		}
+		for (final TableInfo table : tables.values()) {
+			try (final ResultSet rs = metadata.getPrimaryKeys(catalog, schema, table.name)) {
+				while (rs.next()) {
+					table.primaryKeys.add(rs.getString("COLUMN_NAME")); //$NON-NLS-1$
+				}
+			}
+			try (final ResultSet rs = metadata.getImportedKeys(catalog, schema, table.name)) {
+				while (rs.next()) {
+					final String parent = rs.getString("PKTABLE_NAME"); //$NON-NLS-1$
+					if (table.name.equals(parent)) {
+						table.selfReferences.add(rs.getString("FKCOLUMN_NAME")); //$NON-NLS-1$
+					} else if (tables.containsKey(parent)) {
+						table.parents.add(parent);
+					}
+				}
+			}
+		}
+		// Topological sort of the tables; the tables in a cycle of foreign keys are added at the end
+		final Map<String, TableInfo> remaining = new LinkedHashMap<>(tables);
+		final List<TableInfo> sorted = new ArrayList<>(tables.size());
+		final Set<String> added = new TreeSet<>();
+		boolean changed = true;
+		while (!remaining.isEmpty() && changed) {
+			changed = false;
+			final List<TableInfo> candidates = new ArrayList<>(remaining.values());
+			for (final TableInfo table : candidates) {
+				if (added.containsAll(table.parents)) {
+					sorted.add(table);
+					added.add(table.name);
+					remaining.remove(table.name);
+					changed = true;
+				}
+			}
+		}
+		sorted.addAll(remaining.values());
+		return Collections.unmodifiableList(sorted);
+	}
+
+	private static void writeValue(DataOutputStream output, Object value) throws IOException, SQLException {
+		if (value == null) {
+			output.writeByte(NULL_VALUE);
+		} else if (value instanceof Boolean) {
+			output.writeByte(BOOLEAN_VALUE);
+			output.writeBoolean(((Boolean) value).booleanValue());
+		} else if (value instanceof Byte) {
+			output.writeByte(BYTE_VALUE);
+			output.writeByte(((Byte) value).byteValue());
+		} else if (value instanceof Short) {
+			output.writeByte(SHORT_VALUE);
+			output.writeShort(((Short) value).shortValue());
+		} else if (value instanceof Integer) {
+			output.writeByte(INT_VALUE);
+			output.writeInt(((Integer) value).intValue());
+		} else if (value instanceof Long) {
+			output.writeByte(LONG_VALUE);
+			output.writeLong(((Long) value).longValue());
+		} else if (value instanceof Float) {
+			output.writeByte(FLOAT_VALUE);
+			output.writeFloat(((Float) value).floatValue());
+		} else if (value instanceof Double) {
+			output.writeByte(DOUBLE_VALUE);
+			output.writeDouble(((Double) value).doubleValue());
+		} else if (value instanceof BigDecimal || value instanceof BigInteger) {
+			output.writeByte(DECIMAL_VALUE);
+			writeString(output, value.toString());
+		} else if (value instanceof String) {
+			output.writeByte(STRING_VALUE);
+			writeString(output, (String) value);
+		} else if (value instanceof Clob) {
+			final Clob clob = (Clob) value;
+			output.writeByte(STRING_VALUE);
+			try (final Reader reader = clob.getCharacterStream()) {
+				final StringBuilder text = new StringBuilder();
+				final char[] buffer = new char[BUFFER_SIZE];
+				int n = reader.read(buffer);
+				while (n >= 0) {
+					text.append(buffer, 0, n);
+					n = reader.read(buffer);
+				}
+				writeString(output, text.toString());
+			}
+		} else if (value instanceof byte[]) {
+			output.writeByte(BYTES_VALUE);
+			writeBytes(output, (byte[]) value);
+		} else if (value instanceof Blob) {
+			final Blob blob = (Blob) value;
+			output.writeByte(BYTES_VALUE);
+			writeBytes(output, blob.getBytes(1, (int) blob.length()));
+		} else if (value instanceof Date) {
+			output.writeByte(DATE_VALUE);
+			output.writeLong(((Date) value).toLocalDate().toEpochDay());
+		} else if (value instanceof Timestamp) {
+			final Timestamp timestamp = (Timestamp) value;
+			output.writeByte(TIMESTAMP_VALUE);
+			output.writeLong(timestamp.getTime());
+			output.writeInt(timestamp.getNanos());
+		} else if (value instanceof Time) {
+			output.writeByte(TIME_VALUE);
+			output.writeLong(((Time) value).getTime());
+		} else {
+			throw new IOException("Unsupported type of value in the database snapshot: " + value.getClass().getName()); //$NON-NLS-1$
+		}
+	}
+
+	private static void writeString(DataOutputStream output, String value) throws IOException {
+		writeBytes(output, value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void writeBytes(DataOutputStream output, byte[] value) throws IOException {
+		output.writeInt(value.length);
+		output.write(value);
+	}
+
+	private static Object readValue(DataInputStream input) throws IOException {
+		final byte type = input.readByte();
+		switch (type) {
+		case NULL_VALUE:
+			return null;
+		case BOOLEAN_VALUE:
+			return Boolean.valueOf(input.readBoolean());
+		case BYTE_VALUE:
+			return Byte.valueOf(input.readByte());
+		case SHORT_VALUE:
+			return Short.valueOf(input.readShort());
+		case INT_VALUE:
+			return Integer.valueOf(input.readInt());
+		case LONG_VALUE:
+			return Long.valueOf(input.readLong());
+		case FLOAT_VALUE:
+			return Float.valueOf(input.readFloat());
+		case DOUBLE_VALUE:
+			return Double.valueOf(input.readDouble());
+		case DECIMAL_VALUE:
+			return new BigDecimal(readString(input));
+		case STRING_VALUE:
+			return readString(input);
+		case BYTES_VALUE:
+			return readBytes(input);
+		case DATE_VALUE:
+			return Date.valueOf(LocalDate.ofEpochDay(input.readLong()));
+		case TIME_VALUE:
+			return new Time(input.readLong());
+		case TIMESTAMP_VALUE:
+			final Timestamp timestamp = new Timestamp(input.readLong());
+			timestamp.setNanos(input.readInt());
+			return timestamp;
+		default:
+			throw new IOException("Invalid type of value in the database snapshot: " + type); //$NON-NLS-1$
+		}
+	}
+
+	private static String readString(DataInputStream input) throws IOException {
+		return new String(readBytes(input), StandardCharsets.UTF_8);
+	}
+
+	private static byte[] readBytes(DataInputStream input) throws IOException {
+		final byte[] value = new byte[input.readInt()];
+		input.readFully(value);
+		return value;
+	}
+
+	private static void setValue(PreparedStatement statement, int index, Object value, int sqlType) throws SQLException {
+		if (value == null) {
+			statement.setNull(index, sqlType);
+		} else if (value instanceof String) {
+			statement.setString(index, (String) value);
+		} else if (value instanceof byte[]) {
+			statement.setBytes(index, (byte[]) value);
+		} else if (value instanceof Date) {
+			statement.setDate(index, (Date) value);
+		} else if (value instanceof Timestamp) {
+			statement.setTimestamp(index, (Timestamp) value);
+		} else if (value instanceof Time) {
+			statement.setTime(index, (Time) value);
+		} else {
+			statement.setObject(index, value);
+		}
+	}
+
+	/** Description of a table of the database.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	private static final class TableInfo {
+
+		final String name;
+
+		final Set<String> primaryKeys = new TreeSet<>();
+
+		final Set<String> selfReferences = new TreeSet<>();
+
+		final Set<String> parents = new TreeSet<>();
+
+		TableInfo(String name) {
+			this.name = name;
+		}
+
+	}
+
+}
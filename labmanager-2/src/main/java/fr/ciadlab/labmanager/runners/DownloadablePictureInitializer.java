@@ -0,0 +1,99 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.runners;
+
+import fr.ciadlab.labmanager.io.filemanager.DownloadableFileManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/** This component regenerates, at the start of the application, the pictures of the uploaded PDF files
+ * that are missing or older than their PDF files, e.g., the pictures that were not generated before the
+ * previous stop of the application.
+ * The pictures are generated in background.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+@Component
+public class DownloadablePictureInitializer implements ApplicationRunner {
+
+	/** Logger of the service. It is lazy loaded.
+	 */
+	private Logger logger;
+
+	private final DownloadableFileManager fileManager;
+
+	private final boolean enabled;
+
+	/** Constructor.
+	 *
+	 * @param fileManager the manager of the downloadable files.
+	 * @param enabled from configuration file, indicates if the regeneration of the pictures is enabled or not.
+	 */
+	public DownloadablePictureInitializer(
+			@Autowired DownloadableFileManager fileManager,
+			@Value("${labmanager.file.thumbnail.reconcile:true}") boolean enabled) {
+		this.fileManager = fileManager;
+		this.enabled = enabled;
+	}
+
+	/** Replies the logger of this service.
+	 *
+	 * @return the logger.
+	 */
+	public Logger getLogger() {
+		if (this.logger == null) {
+			this.logger = createLogger();
+		}
+		return this.logger;
+	}
+
+	/** Change the logger of this service.
+	 *
+	 * @param logger the logger.
+	 */
+	public void setLogger(Logger logger) {
+		this.logger = logger;
+	}
+
+	/** Factory method for creating the service logger.
+	 *
+	 * @return the logger.
+	 */
+	protected Logger createLogger() {
+		return LoggerFactory.getLogger(getClass());
+	}
+
+	@Override
+	public void run(ApplicationArguments args) throws Exception {
+		if (this.enabled) {
+			final int n = this.fileManager.regenerateStalePictures();
+			getLogger().info("Pictures of the uploaded files to regenerate: " + n); //$NON-NLS-1$
+		} else {
+			getLogger().info("Regeneration of the pictures of the uploaded files is disabled"); //$NON-NLS-1$
+		}
+	}
+
+}
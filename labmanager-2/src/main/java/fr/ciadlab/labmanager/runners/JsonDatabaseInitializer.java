@@ -21,6 +21,7 @@ import java.io.InputStream;
 import java.net.URL;
 
 import fr.ciadlab.labmanager.io.json.JsonToDatabaseImporter;
+import fr.ciadlab.labmanager.service.DataViewInvalidator;
 import org.apache.jena.ext.com.google.common.base.Strings;
 import org.arakhne.afc.vmutil.FileSystem;
 import org.arakhne.afc.vmutil.Resources;
@@ -35,6 +36,16 @@ import org.springframework.stereotype.Component;
 /** This component fill up the database with JSON format that is independent of the database engine.
  * It is searching for a file with the name {@code data-<platform>.json} at the
  * root folder of the class-path.
+ * <p>If the binary snapshot is enabled, the initialization follows one of these paths:<ul>
+ * <li>the snapshot is missing or was built from another data source: the data source is imported, and a new
+ *     snapshot is written;</li>
+ * <li>the snapshot was built from the same data source and the database is not empty: the initialization is skipped;</li>
+ * <li>the snapshot was built from the same data source and the database is empty: the snapshot is loaded with JDBC,
+ *     and the in-memory views of the database are invalidated because the JPA listeners are not notified;</li>
+ * <li>the snapshot cannot be loaded by the database engine, e.g. Derby for which the identifier generators
+ *     cannot be restored (see {@link DatabaseSnapshot#isRestorable(java.sql.DatabaseMetaData)}), or its loading has
+ *     failed: the data source is imported as if there were no snapshot.</li>
+ * </ul>
  * 
  * @author $Author: sgalland$
  * @version $Name$ $Revision$ $Date$
@@ -47,6 +58,8 @@ public class JsonDatabaseInitializer implements ApplicationRunner {
 
 	private static final String DATA_FILENAME = "data.json"; //$NON-NLS-1$
 
+	private static final String SNAPSHOT_FILENAME = "data.snapshot"; //$NON-NLS-1$
+
 	/** Logger of the service. It is lazy loaded.
 	 */
 	private Logger logger;
@@ -57,19 +70,35 @@ public class JsonDatabaseInitializer implements ApplicationRunner {
 
 	private final boolean enabled;
 
+	private final DatabaseSnapshot snapshot;
+
+	private final boolean snapshotEnabled;
+
+	private final DataViewInvalidator viewInvalidator;
+
 	/** Constructor.
 	 * 
 	 * @param importer the importer of JSON.
+	 * @param snapshot the manager of the binary snapshot of the database.
+	 * @param viewInvalidator the invalidator of the in-memory views of the database, that is used when the snapshot is loaded.
 	 * @param dataSourceFolder the folder in the local file system in which the data source file could be located.
 	 * @param enabled from configuration file, indicates if the data import is enabled or not.
+	 * @param snapshotEnabled from configuration file, indicates if the binary snapshot of the imported data
+	 *     is written and used for avoiding the import of an unchanged data source.
 	 */
 	public JsonDatabaseInitializer(
 			@Autowired JsonToDatabaseImporter importer,
+			@Autowired DatabaseSnapshot snapshot,
+			@Autowired DataViewInvalidator viewInvalidator,
 			@Value("${labmanager.init.data-source}") String dataSourceFolder,
-			@Value("${labmanager.init.enable}") boolean enabled) {
+			@Value("${labmanager.init.enable}") boolean enabled,
+			@Value("${labmanager.init.snapshot:true}") boolean snapshotEnabled) {
 		this.importer = importer;
+		this.snapshot = snapshot;
+		this.viewInvalidator = viewInvalidator;
 		this.dataSourceFolder = dataSourceFolder;
 		this.enabled = enabled;
+		this.snapshotEnabled = snapshotEnabled;
 	}
 
 	/** Replies the logger of this service.
@@ -159,13 +188,48 @@ public class JsonDatabaseInitializer implements ApplicationRunner {
 		return getDataScriptURLInLocalFileSystem();
 	}
 
+	/** Replies the file of the binary snapshot of the database.
+	 *
+	 * @return the file or {@code null} if the snapshot is disabled or there is no local folder.
+	 */
+	protected File getSnapshotFile() {
+		if (this.snapshotEnabled && !Strings.isNullOrEmpty(this.dataSourceFolder)) {
+			try {
+				final File root = FileSystem.convertStringToFile(this.dataSourceFolder);
+				if (root != null && root.isDirectory() && root.canWrite()) {
+					return FileSystem.join(root, SNAPSHOT_FILENAME);
+				}
+			} catch (Throwable ex) {
+				//
+			}
+		}
+		return null;
+	}
+
 	@Override
 	public void run(ApplicationArguments args) throws Exception {
 		if (this.enabled) {
 			final URL url = getDataScriptURL();
 			if (url != null) {
-				getLogger().info("Database initialization with: " + url.toExternalForm()); //$NON-NLS-1$
-				this.importer.importToDatabase(url);
+				final File snapshotFile = getSnapshotFile();
+				if (snapshotFile == null) {
+					getLogger().info("Database initialization without snapshot with: " + url.toExternalForm()); //$NON-NLS-1$
+					this.importer.importToDatabase(url);
+				} else {
+					final String hash = DatabaseSnapshot.computeHash(url);
+					if (!loadSnapshot(snapshotFile, hash)) {
+						getLogger().info("Database initialization with: " + url.toExternalForm()); //$NON-NLS-1$
+						this.importer.importToDatabase(url);
+						if (!this.importer.isFake()) {
+							try {
+								this.snapshot.write(snapshotFile, hash);
+								getLogger().info("Database snapshot written into: " + snapshotFile.getAbsolutePath()); //$NON-NLS-1$
+							} catch (Throwable ex) {
+								getLogger().warn("Cannot write the database snapshot: " + ex.getLocalizedMessage(), ex); //$NON-NLS-1$
+							}
+						}
+					}
+				}
 			} else {
 				getLogger().info("Database initialization is skipped because of lake of data source"); //$NON-NLS-1$
 			}
@@ -174,4 +238,36 @@ public class JsonDatabaseInitializer implements ApplicationRunner {
 		}
 	}
 
+	/** Use the snapshot of the database if it was built from the same data source.
+	 * If the database already contains the entities, the import is skipped. If the database is empty,
+	 * the snapshot is loaded into the database, and the in-memory views of the database are invalidated.
+	 *
+	 * @param snapshotFile the file of the snapshot.
+	 * @param hash the hash of the data source.
+	 * @return {@code true} if the import of the data source is not needed.
+	 */
+	private boolean loadSnapshot(File snapshotFile, String hash) {
+		if (!hash.equals(DatabaseSnapshot.readHash(snapshotFile))) {
+			getLogger().info("The database snapshot is missing or was built from another data source: " //$NON-NLS-1$
+					+ snapshotFile.getAbsolutePath());
+			return false;
+		}
+		try {
+			if (!this.snapshot.isDatabaseEmpty()) {
+				getLogger().info("Database initialization is skipped because the database is not empty and" //$NON-NLS-1$
+						+ " the data source has not changed since the snapshot: " + snapshotFile.getAbsolutePath()); //$NON-NLS-1$
+				return true;
+			}
+			if (this.snapshot.restore(snapshotFile)) {
+				this.viewInvalidator.invalidateAll();
+				getLogger().info("Database initialization with the snapshot: " + snapshotFile.getAbsolutePath()); //$NON-NLS-1$
+				return true;
+			}
+			getLogger().info("The database snapshot cannot be loaded by the database engine; the data source is imported"); //$NON-NLS-1$
+		} catch (Throwable ex) {
+			getLogger().warn("Cannot load the database snapshot; the data source is imported: " + ex.getLocalizedMessage(), ex); //$NON-NLS-1$
+		}
+		return false;
+	}
+
 }
@@ -0,0 +1,48 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+package fr.ciadlab.labmanager.service;
+
+/** Scopes of the data whose versions are tracked by the {@link DataVersionTracker}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public enum DataScope {
+
+	/** Publications and their authorships.
+	 */
+	PUBLICATION,
+
+	/** Persons.
+	 */
+	PERSON,
+
+	/** Memberships of the persons to the organizations.
+	 */
+	MEMBERSHIP,
+
+	/** Journals and their quality indicators.
+	 */
+	JOURNAL,
+
+	/** Research organizations.
+	 */
+	ORGANIZATION;
+
+}
@@ -0,0 +1,92 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+package fr.ciadlab.labmanager.service;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import fr.ciadlab.labmanager.entities.journal.Journal;
+import fr.ciadlab.labmanager.entities.journal.JournalQualityAnnualIndicators;
+import fr.ciadlab.labmanager.entities.member.Membership;
+import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.entities.organization.ResearchOrganization;
+import fr.ciadlab.labmanager.entities.publication.Authorship;
+import fr.ciadlab.labmanager.entities.publication.Publication;
+import fr.ciadlab.labmanager.utils.AbstractEntityListener;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/** JPA listener on the entities whose versions are tracked by the {@link DataVersionTracker}.
+ * Any change increments the version of the scope of the entity and the global version.
+ * The versions are incremented after the commit of the transaction; otherwise a client could
+ * receive the previous state of the database with the new version, and keep it in its cache.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public class DataVersionListener extends AbstractEntityListener<DataVersionTracker> {
+
+	/** Change the tracker of the data versions to be notified.
+	 *
+	 * @param dataVersionTracker the tracker.
+	 */
+	@Autowired
+	public void setDataVersionTracker(DataVersionTracker dataVersionTracker) {
+		setTarget(dataVersionTracker);
+	}
+
+	/** Replies the scope of the given entity.
+	 *
+	 * @param entity the entity.
+	 * @return the scope, or {@code null} if the entity is not tracked.
+	 */
+	static DataScope getScope(Object entity) {
+		if (entity instanceof Publication || entity instanceof Authorship) {
+			return DataScope.PUBLICATION;
+		}
+		if (entity instanceof Person) {
+			return DataScope.PERSON;
+		}
+		if (entity instanceof Membership) {
+			return DataScope.MEMBERSHIP;
+		}
+		if (entity instanceof Journal || entity instanceof JournalQualityAnnualIndicators) {
+			return DataScope.JOURNAL;
+		}
+		if (entity instanceof ResearchOrganization) {
+			return DataScope.ORGANIZATION;
+		}
+		return null;
+	}
+
+	/** Invoked when an entity was created, updated or deleted in the database.
+	 *
+	 * @param entity the changed entity.
+	 */
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	public void entityChanged(Object entity) {
+		final DataScope scope = getScope(entity);
+		if (scope != null) {
+			notifyTargetAfterCommit(tracker -> tracker.dataChanged(scope));
+		}
+	}
+
+}
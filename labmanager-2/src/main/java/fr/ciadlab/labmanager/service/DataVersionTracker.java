@@ -0,0 +1,187 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+package fr.ciadlab.labmanager.service;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.servlet.http.HttpServletResponse;
+
+import fr.ciadlab.labmanager.utils.HashUtils;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+
+/** Tracker of the versions of the data in the database.
+ * <p>The tracker maintains a global version that is incremented each time an entity is changed, and
+ * a version per {@link DataScope scope} that is incremented each time an entity of the scope is changed.
+ * The versions are maintained by the {@link DataVersionListener}. They are not persisted; the date of the
+ * start of the tracker is part of the ETags in order to not reuse the ETags of a previous run of the application.
+ * <p>The read endpoints use the tracker for replying strong ETags and {@code Last-Modified} dates, and for
+ * replying the status 304 to the conditional requests before reading the database.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+@Component
+public class DataVersionTracker {
+
+	/** Number of bytes of the hash of the request that are put in the ETags.
+	 */
+	private static final int ETAG_HASH_SIZE = 8;
+
+	private static final String NO_CACHE = CacheControl.noCache().getHeaderValue();
+
+	private final String epoch;
+
+	private final AtomicLong version = new AtomicLong();
+
+	private final AtomicLongArray scopeVersions;
+
+	private final AtomicLongArray scopeModificationDates;
+
+	/** Constructor.
+	 */
+	public DataVersionTracker() {
+		final long now = System.currentTimeMillis();
+		this.epoch = Long.toHexString(now);
+		final int nbScopes = DataScope.values().length;
+		this.scopeVersions = new AtomicLongArray(nbScopes);
+		this.scopeModificationDates = new AtomicLongArray(nbScopes);
+		for (int i = 0; i < nbScopes; ++i) {
+			this.scopeModificationDates.set(i, now);
+		}
+	}
+
+	/** Replies the global version of the data.
+	 *
+	 * @return the version.
+	 */
+	public long getVersion() {
+		return this.version.get();
+	}
+
+	/** Replies the version of the data in the given scope.
+	 *
+	 * @param scope the scope.
+	 * @return the version.
+	 */
+	public long getVersion(DataScope scope) {
+		return this.scopeVersions.get(scope.ordinal());
+	}
+
+	/** Replies the combined version of the data in the given scopes. It is the sum of the versions of
+	 * the scopes; it increases each time an entity of one of the scopes is changed.
+	 *
+	 * @param scopes the scopes.
+	 * @return the version.
+	 */
+	public long getCombinedVersion(DataScope... scopes) {
+		long version = 0;
+		for (final DataScope scope : scopes) {
+			version += getVersion(scope);
+		}
+		return version;
+	}
+
+	/** Replies the date of the last change of the data in the given scopes.
+	 * If the data was not changed since the start of the tracker, the start date is replied.
+	 *
+	 * @param scopes the scopes.
+	 * @return the date in milliseconds since the epoch.
+	 */
+	public long getLastModified(DataScope... scopes) {
+		long date = 0;
+		for (final DataScope scope : scopes) {
+			date = Math.max(date, this.scopeModificationDates.get(scope.ordinal()));
+		}
+		return date;
+	}
+
+	/** Invoked when an entity of the given scope has changed.
+	 *
+	 * @param scope the scope of the entity.
+	 */
+	public void dataChanged(DataScope scope) {
+		final int index = scope.ordinal();
+		this.scopeModificationDates.accumulateAndGet(index, System.currentTimeMillis(), Math::max);
+		this.scopeVersions.incrementAndGet(index);
+		this.version.incrementAndGet();
+	}
+
+	/** Replies the strong ETag of a resource that is built from the data in the given scopes.
+	 * The ETag changes when the data in one of the scopes changes.
+	 *
+	 * @param resource the identifier of the resource, e.g. the URL and the parameters of the request.
+	 * @param scopes the scopes of the data in the resource.
+	 * @return the ETag, with its quotes.
+	 */
+	public String getETag(String resource, DataScope... scopes) {
+		final StringBuilder etag = new StringBuilder();
+		etag.append('"').append(this.epoch);
+		for (final DataScope scope : scopes) {
+			etag.append('-').append(Long.toHexString(getVersion(scope)));
+		}
+		etag.append('-').append(hash(resource)).append('"');
+		return etag.toString();
+	}
+
+	/** Check if the resource of the given request has changed since the version that is known by the client.
+	 * The resource is identified by the URL and the parameters of the request, the locale, and the given variant.
+	 * The ETag, the {@code Last-Modified} date and a {@code Cache-Control} that forces the revalidation are set
+	 * in the response. If the resource has not changed, the status 304 is set by the request and the caller
+	 * should reply without body.
+	 *
+	 * @param request the request.
+	 * @param variant a string that identifies the variant of the resource for the same request, e.g. the
+	 *     resource for the logged-in users. It may be {@code null}.
+	 * @param scopes the scopes of the data in the resource.
+	 * @return {@code true} if the resource has not changed.
+	 */
+	public boolean checkNotModified(NativeWebRequest request, String variant, DataScope... scopes) {
+		final StringBuilder resource = new StringBuilder();
+		resource.append(request.getDescription(false));
+		final Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+		for (final Entry<String, String[]> parameter : parameters.entrySet()) {
+			resource.append('&').append(parameter.getKey());
+			for (final String value : parameter.getValue()) {
+				resource.append('=').append(value);
+			}
+		}
+		resource.append('|').append(LocaleContextHolder.getLocale().toLanguageTag());
+		if (variant != null) {
+			resource.append('|').append(variant);
+		}
+		final HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+		if (response != null && response.getHeader(HttpHeaders.CACHE_CONTROL) == null) {
+			response.setHeader(HttpHeaders.CACHE_CONTROL, NO_CACHE);
+		}
+		return request.checkNotModified(getETag(resource.toString(), scopes), getLastModified(scopes));
+	}
+
+	private static String hash(String value) {
+		return HashUtils.sha256Hex(value).substring(0, ETAG_HASH_SIZE * 2);
+	}
+
+}
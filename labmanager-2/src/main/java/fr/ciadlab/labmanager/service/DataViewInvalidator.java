@@ -0,0 +1,95 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.service;
+
+import fr.ciadlab.labmanager.io.html.HtmlFragmentCache;
+import fr.ciadlab.labmanager.service.member.PersonNameIndex;
+import fr.ciadlab.labmanager.service.organization.OrganizationMembershipClosure;
+import fr.ciadlab.labmanager.service.publication.PublicationStatsCube;
+import fr.ciadlab.labmanager.service.publication.search.PublicationSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/** Invalidator of all the in-memory views of the database.
+ * <p>The views are maintained by JPA listeners. When the database is changed without JPA, e.g., when a
+ * snapshot is loaded with JDBC, the listeners are not notified and the views must be invalidated with
+ * {@link #invalidateAll()}: the index of the person names, the closure of the organization memberships,
+ * the search index and the statistics of the publications, and the cache of the HTML fragments are
+ * rebuilt at their next queries, and the versions of all the {@link DataScope scopes} are incremented.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+@Component
+public class DataViewInvalidator {
+
+	private final PersonNameIndex personNameIndex;
+
+	private final OrganizationMembershipClosure organizationClosure;
+
+	private final PublicationSearchIndex searchIndex;
+
+	private final PublicationStatsCube statsCube;
+
+	private final HtmlFragmentCache fragmentCache;
+
+	private final DataVersionTracker dataVersionTracker;
+
+	/** Constructor for injector.
+	 * This constructor is defined for being invoked by the IOC injector.
+	 *
+	 * @param personNameIndex the index of the person names.
+	 * @param organizationClosure the closure of the organization memberships.
+	 * @param searchIndex the search index of the publications.
+	 * @param statsCube the statistics of the publications.
+	 * @param fragmentCache the cache of the HTML fragments of the publications.
+	 * @param dataVersionTracker the tracker of the data versions.
+	 */
+	public DataViewInvalidator(
+			@Autowired PersonNameIndex personNameIndex,
+			@Autowired OrganizationMembershipClosure organizationClosure,
+			@Autowired PublicationSearchIndex searchIndex,
+			@Autowired PublicationStatsCube statsCube,
+			@Autowired HtmlFragmentCache fragmentCache,
+			@Autowired DataVersionTracker dataVersionTracker) {
+		this.personNameIndex = personNameIndex;
+		this.organizationClosure = organizationClosure;
+		this.searchIndex = searchIndex;
+		this.statsCube = statsCube;
+		this.fragmentCache = fragmentCache;
+		this.dataVersionTracker = dataVersionTracker;
+	}
+
+	/** Invalidate all the in-memory views of the database.
+	 * The data versions are incremented at last, in order to not associate the new versions to
+	 * the previous content of the views.
+	 */
+	public void invalidateAll() {
+		this.personNameIndex.invalidate();
+		this.organizationClosure.invalidate();
+		this.searchIndex.invalidateAll();
+		this.statsCube.invalidateAll();
+		this.fragmentCache.invalidateAll();
+		for (final DataScope scope : DataScope.values()) {
+			this.dataVersionTracker.dataChanged(scope);
+		}
+	}
+
+}
@@ -0,0 +1,475 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.service.journal;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+
+import com.google.common.base.Strings;
+import fr.ciadlab.labmanager.entities.journal.Journal;
+import fr.ciadlab.labmanager.entities.journal.JournalQualityAnnualIndicators;
+import fr.ciadlab.labmanager.repository.journal.JournalQualityAnnualIndicatorsRepository;
+import fr.ciadlab.labmanager.repository.journal.JournalRepository;
+import fr.ciadlab.labmanager.utils.FileUtils;
+import fr.ciadlab.labmanager.utils.NamedThreadFactory;
+import fr.ciadlab.labmanager.utils.net.NetConnection;
+import fr.ciadlab.labmanager.utils.ranking.QuartileRanking;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** Harvester of the Scimago quartiles of the journals, running in background.
+ * <p>The harvesting is incremental: only the journals with a Scimago identifier and without Scimago quartile
+ * for the current year, or with a quartile that was downloaded more than {@code max-age} days ago,
+ * are refreshed. The images that are provided by the Scimago website are downloaded by a bounded pool
+ * of workers; a failed download is retried with an exponential backoff. The downloaded images are
+ * cached on disk, in files that are named with the Scimago identifier and the date of the download,
+ * e.g., {@code 12345_2023-01-31}. The cached images that are not older than {@code max-age} days
+ * are used in place of the website. The quartiles are saved by batches of journals, each batch within
+ * its own transaction.
+ * <p>The harvester is configured by the properties {@code labmanager.journal.ranking-refresh.*}.
+ * The base URL of the Scimago images could be changed, e.g., for using a local server.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+@Component
+public class JournalRankingRefresher {
+
+	private static final String CACHE_FILE_SEPARATOR = "_"; //$NON-NLS-1$
+
+	private final JournalRepository journalRepository;
+
+	private final JournalQualityAnnualIndicatorsRepository indicatorRepository;
+
+	private final NetConnection netConnection;
+
+	private final TransactionTemplate readTransactionTemplate;
+
+	private final TransactionTemplate writeTransactionTemplate;
+
+	private final boolean enabled;
+
+	private final long initialDelay;
+
+	private final long period;
+
+	private final String baseUrl;
+
+	private final File cacheDirectory;
+
+	private final int maxAttempts;
+
+	private final long backoff;
+
+	private final int maxAge;
+
+	private final int batchSize;
+
+	private final ThreadPoolExecutor executor;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	private ScheduledExecutorService scheduler;
+
+	/** Logger of the service. It is lazy loaded.
+	 */
+	private Logger logger;
+
+	/** Constructor.
+	 *
+	 * @param journalRepository the repository of the journals.
+	 * @param indicatorRepository the repository of the journal indicators.
+	 * @param netConnection the tools for accessing the network.
+	 * @param transactionManager the manager of the transactions.
+	 * @param enabled indicates if the periodic harvesting is enabled.
+	 * @param initialDelay the number of minutes between the start of the application and the first harvesting.
+	 * @param period the number of hours between two harvestings.
+	 * @param baseUrl the prefix of the URL of the Scimago images, that is followed by the Scimago identifier of a journal.
+	 * @param cacheDirectory the folder in which the downloaded images are cached.
+	 * @param workers the maximum number of concurrent downloads.
+	 * @param maxAttempts the maximum number of attempts for downloading an image.
+	 * @param backoff the number of milliseconds to wait before the second attempt; it is doubled at each attempt.
+	 * @param maxAge the number of days after which a downloaded image is considered as stale.
+	 * @param batchSize the number of journals that are saved within a single transaction.
+	 */
+	public JournalRankingRefresher(
+			@Autowired JournalRepository journalRepository,
+			@Autowired JournalQualityAnnualIndicatorsRepository indicatorRepository,
+			@Autowired NetConnection netConnection,
+			@Autowired PlatformTransactionManager transactionManager,
+			@Value("${labmanager.journal.ranking-refresh.enable:false}") boolean enabled,
+			@Value("${labmanager.journal.ranking-refresh.initial-delay:10}") long initialDelay,
+			@Value("${labmanager.journal.ranking-refresh.period:24}") long period,
+			@Value("${labmanager.journal.ranking-refresh.base-url:" + JournalService.SCIMAGO_URL_PREFIX + "}") String baseUrl,
+			@Value("${labmanager.journal.ranking-refresh.cache-directory:${java.io.tmpdir}/labmanager-scimago}") String cacheDirectory,
+			@Value("${labmanager.journal.ranking-refresh.workers:4}") int workers,
+			@Value("${labmanager.journal.ranking-refresh.max-attempts:3}") int maxAttempts,
+			@Value("${labmanager.journal.ranking-refresh.backoff:1000}") long backoff,
+			@Value("${labmanager.journal.ranking-refresh.max-age:30}") int maxAge,
+			@Value("${labmanager.journal.ranking-refresh.batch-size:50}") int batchSize) {
+		this.journalRepository = journalRepository;
+		this.indicatorRepository = indicatorRepository;
+		this.netConnection = netConnection;
+		this.readTransactionTemplate = new TransactionTemplate(transactionManager);
+		this.readTransactionTemplate.setReadOnly(true);
+		this.writeTransactionTemplate = new TransactionTemplate(transactionManager);
+		this.enabled = enabled;
+		this.initialDelay = Math.max(0, initialDelay);
+		this.period = period;
+		this.baseUrl = baseUrl;
+		this.cacheDirectory = new File(cacheDirectory);
+		this.maxAttempts = Math.max(1, maxAttempts);
+		this.backoff = Math.max(0, backoff);
+		this.maxAge = Math.max(0, maxAge);
+		this.batchSize = Math.max(1, batchSize);
+		final int nbWorkers = Math.max(1, workers);
+		this.executor = new ThreadPoolExecutor(nbWorkers, nbWorkers, 1, TimeUnit.MINUTES,
+				new LinkedBlockingQueue<>(), new NamedThreadFactory("scimago-fetch-", Thread.MIN_PRIORITY)); //$NON-NLS-1$
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/** Replies the logger of this service.
+	 *
+	 * @return the logger.
+	 */
+	public Logger getLogger() {
+		if (this.logger == null) {
+			this.logger = createLogger();
+		}
+		return this.logger;
+	}
+
+	/** Change the logger of this service.
+	 *
+	 * @param logger the logger.
+	 */
+	public void setLogger(Logger logger) {
+		this.logger = logger;
+	}
+
+	/** Factory method for creating the service logger.
+	 *
+	 * @return the logger.
+	 */
+	protected Logger createLogger() {
+		return LoggerFactory.getLogger(getClass());
+	}
+
+	/** Start the periodic harvesting when the application is ready, if it is enabled.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void start() {
+		if (this.enabled && this.period > 0 && this.scheduler == null) {
+			this.scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("scimago-refresh-", Thread.MIN_PRIORITY)); //$NON-NLS-1$
+			this.scheduler.scheduleWithFixedDelay(() -> {
+				try {
+					refresh();
+				} catch (Throwable ex) {
+					getLogger().error("Cannot refresh the Scimago quartiles: " + ex.getLocalizedMessage(), ex); //$NON-NLS-1$
+				}
+			}, TimeUnit.MINUTES.toMillis(this.initialDelay), TimeUnit.HOURS.toMillis(this.period), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/** Stop the periodic harvesting and the pending downloads.
+	 */
+	@PreDestroy
+	public synchronized void shutdown() {
+		if (this.scheduler != null) {
+			this.scheduler.shutdownNow();
+			this.scheduler = null;
+		}
+		this.executor.shutdownNow();
+	}
+
+	/** Replies the current date. It is the date that is used for selecting the year of the quartiles
+	 * and for naming the cached images.
+	 *
+	 * @return the current date.
+	 */
+	protected LocalDate getCurrentDate() {
+		return LocalDate.now();
+	}
+
+	/** Refresh the Scimago quartiles of the journals that have no quartile for the current year, or
+	 * a stale quartile. This function does nothing if another refresh is running.
+	 *
+	 * @return the number of journals that were updated.
+	 * @throws InterruptedException if the thread is interrupted while waiting for the downloads.
+	 */
+	public int refresh() throws InterruptedException {
+		if (!this.running.compareAndSet(false, true)) {
+			return 0;
+		}
+		try {
+			final LocalDate today = getCurrentDate();
+			final int year = today.getYear();
+			final Map<String, List<Integer>> candidates = this.readTransactionTemplate.execute(
+					it -> findJournalsToRefresh(year, today));
+			if (candidates == null || candidates.isEmpty()) {
+				return 0;
+			}
+
+			// The journals with the same Scimago identifier share the same download
+			final CompletionService<Pair<String, QuartileRanking>> downloads = new ExecutorCompletionService<>(this.executor);
+			for (final String scimagoId : candidates.keySet()) {
+				downloads.submit(() -> Pair.of(scimagoId, fetchQuartile(scimagoId, today)));
+			}
+
+			final List<Pair<Integer, QuartileRanking>> batch = new ArrayList<>(this.batchSize);
+			int updated = 0;
+			int failures = 0;
+			for (int i = 0; i < candidates.size(); ++i) {
+				final Future<Pair<String, QuartileRanking>> future = downloads.take();
+				try {
+					final Pair<String, QuartileRanking> result = future.get();
+					if (result.getRight() != null) {
+						for (final Integer journalId : candidates.get(result.getLeft())) {
+							batch.add(Pair.of(journalId, result.getRight()));
+							if (batch.size() >= this.batchSize) {
+								updated += save(batch, year);
+								batch.clear();
+							}
+						}
+					}
+				} catch (ExecutionException ex) {
+					++failures;
+					getLogger().warn("Cannot download the Scimago quartile: " + ex.getCause().getLocalizedMessage()); //$NON-NLS-1$
+				}
+			}
+			if (!batch.isEmpty()) {
+				updated += save(batch, year);
+			}
+			getLogger().info("Scimago quartiles refreshed for " + updated + " journals; " //$NON-NLS-1$ //$NON-NLS-2$
+					+ failures + " downloads have failed"); //$NON-NLS-1$
+			return updated;
+		} finally {
+			this.running.set(false);
+		}
+	}
+
+	/** Replies the journals that must be refreshed, grouped by Scimago identifier.
+	 *
+	 * @param year the current year.
+	 * @param today the current date.
+	 * @return the identifiers of the journals per Scimago identifier.
+	 */
+	protected Map<String, List<Integer>> findJournalsToRefresh(int year, LocalDate today) {
+		final Map<String, List<Integer>> candidates = new TreeMap<>();
+		for (final Journal journal : this.journalRepository.findAll()) {
+			final String scimagoId = Strings.emptyToNull(journal.getScimagoId());
+			if (scimagoId != null) {
+				final JournalQualityAnnualIndicators indicators = journal.getQualityIndicatorsForYear(year);
+				if (indicators == null || indicators.getScimagoQIndex() == null || isStale(scimagoId, today)) {
+					candidates.computeIfAbsent(scimagoId, it -> new ArrayList<>()).add(Integer.valueOf(journal.getId()));
+				}
+			}
+		}
+		return candidates;
+	}
+
+	/** Replies if the last image that was downloaded for the given journal is older than the maximum age.
+	 * If the image was never downloaded, it is assumed that the quartile of the journal was provided by
+	 * another source, and it is not stale.
+	 *
+	 * @param scimagoId the Scimago identifier of the journal.
+	 * @param today the current date.
+	 * @return {@code true} if the image must be downloaded again.
+	 */
+	protected boolean isStale(String scimagoId, LocalDate today) {
+		final LocalDate date = getLastCacheDate(scimagoId);
+		return date != null && date.plusDays(this.maxAge).isBefore(today);
+	}
+
+	/** Replies the quartile of the journal with the given identifier, from the cache or from the Scimago website.
+	 *
+	 * @param scimagoId the Scimago identifier of the journal.
+	 * @param today the current date.
+	 * @return the quartile, or {@code null} if the image does not show up a quartile.
+	 * @throws IOException if the image cannot be downloaded.
+	 * @throws InterruptedException if the thread is interrupted while waiting for a new attempt.
+	 */
+	protected QuartileRanking fetchQuartile(String scimagoId, LocalDate today) throws IOException, InterruptedException {
+		byte[] content = null;
+		final LocalDate date = getLastCacheDate(scimagoId);
+		if (date != null && !date.plusDays(this.maxAge).isBefore(today)) {
+			try {
+				content = Files.readAllBytes(getCacheFile(scimagoId, date).toPath());
+			} catch (IOException ex) {
+				content = null;
+			}
+		}
+		if (content == null) {
+			content = download(scimagoId);
+			writeCache(scimagoId, today, content);
+		}
+		final BufferedImage image = ImageIO.read(new ByteArrayInputStream(content));
+		if (image == null) {
+			return null;
+		}
+		return JournalService.getScimagoQuartileFromImage(image);
+	}
+
+	/** Download the image of the journal with the given identifier from the Scimago website.
+	 * The download is retried with an exponential backoff.
+	 *
+	 * @param scimagoId the Scimago identifier of the journal.
+	 * @return the content of the image.
+	 * @throws IOException if the image cannot be downloaded after all the attempts.
+	 * @throws InterruptedException if the thread is interrupted while waiting for a new attempt.
+	 */
+	protected byte[] download(String scimagoId) throws IOException, InterruptedException {
+		final URL url = new URL(this.baseUrl + URLEncoder.encode(scimagoId, StandardCharsets.UTF_8));
+		long delay = this.backoff;
+		int attempt = 1;
+		while (true) {
+			try {
+				return this.netConnection.getContentFromURL(url);
+			} catch (IOException ex) {
+				if (attempt >= this.maxAttempts) {
+					throw ex;
+				}
+			}
+			++attempt;
+			Thread.sleep(delay);
+			delay *= 2;
+		}
+	}
+
+	/** Save the quartiles of the given journals within a single transaction.
+	 *
+	 * @param batch the identifiers of the journals and their quartiles.
+	 * @param year the year of the quartiles.
+	 * @return the number of journals that were updated.
+	 */
+	protected int save(List<Pair<Integer, QuartileRanking>> batch, int year) {
+		final Integer count = this.writeTransactionTemplate.execute(it -> {
+			int n = 0;
+			for (final Pair<Integer, QuartileRanking> entry : batch) {
+				final Journal journal = this.journalRepository.findById(entry.getLeft()).orElse(null);
+				if (journal != null) {
+					final JournalQualityAnnualIndicators indicators = journal.setScimagoQIndexByYear(year, entry.getRight());
+					this.indicatorRepository.save(indicators);
+					this.journalRepository.save(journal);
+					++n;
+				}
+			}
+			return Integer.valueOf(n);
+		});
+		return count == null ? 0 : count.intValue();
+	}
+
+	/** Replies the file in which the image of a journal is cached.
+	 *
+	 * @param scimagoId the Scimago identifier of the journal.
+	 * @param date the date of the download.
+	 * @return the file.
+	 */
+	protected File getCacheFile(String scimagoId, LocalDate date) {
+		return new File(this.cacheDirectory, getCachePrefix(scimagoId) + date.toString());
+	}
+
+	private static String getCachePrefix(String scimagoId) {
+		return URLEncoder.encode(scimagoId, StandardCharsets.UTF_8) + CACHE_FILE_SEPARATOR;
+	}
+
+	/** Replies the date of the last image that was cached for the given journal.
+	 *
+	 * @param scimagoId the Scimago identifier of the journal.
+	 * @return the date of the download, or {@code null} if there is no image in the cache.
+	 */
+	protected LocalDate getLastCacheDate(String scimagoId) {
+		final String prefix = getCachePrefix(scimagoId);
+		final String[] names = this.cacheDirectory.list((dir, name) -> name.startsWith(prefix) && !name.endsWith(FileUtils.TEMP_FILE_EXTENSION));
+		LocalDate last = null;
+		if (names != null) {
+			for (final String name : names) {
+				try {
+					final LocalDate date = LocalDate.parse(name.substring(prefix.length()));
+					if (last == null || date.isAfter(last)) {
+						last = date;
+					}
+				} catch (DateTimeParseException ex) {
+					// Not a cached image
+				}
+			}
+		}
+		return last;
+	}
+
+	/** Write the image of a journal into the cache, and remove the older images of the same journal.
+	 * The image is written into a temporary file that is renamed when it is complete.
+	 *
+	 * @param scimagoId the Scimago identifier of the journal.
+	 * @param date the date of the download.
+	 * @param content the content of the image.
+	 */
+	protected void writeCache(String scimagoId, LocalDate date, byte[] content) {
+		final File file = getCacheFile(scimagoId, date);
+		try {
+			FileUtils.writeAtomically(file, output -> output.write(content));
+			final String prefix = getCachePrefix(scimagoId);
+			final File[] oldFiles = this.cacheDirectory.listFiles((dir, name) -> name.startsWith(prefix)
+					&& !name.endsWith(FileUtils.TEMP_FILE_EXTENSION) && !name.equals(file.getName()));
+			if (oldFiles != null) {
+				for (final File oldFile : oldFiles) {
+					oldFile.delete();
+				}
+			}
+		} catch (IOException ex) {
+			// The cache is an optimization; the quartile is saved even if the image cannot be cached
+			getLogger().warn("Cannot cache the Scimago image " + file.getName() + ": " + ex.getLocalizedMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+}
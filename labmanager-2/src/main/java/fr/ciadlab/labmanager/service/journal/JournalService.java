@@ -329,20 +329,7 @@ public class JournalService extends AbstractService {
 					final URL url = getScimagoQuartileImageURLByJournal(journal);
 					if (url != null) {
 						final BufferedImage image = this.netConnection.getImageFromURL(url);
-						final int rgba = image.getRGB(5, 55);
-						final int red = (rgba >> 16) & 0xff;
-						switch (red) {
-						case 164:
-							return QuartileRanking.Q1;
-						case 232:
-							return QuartileRanking.Q2;
-						case 251:
-							return QuartileRanking.Q3;
-						case 221:
-							return QuartileRanking.Q4;
-						default:
-							//
-						}
+						return getScimagoQuartileFromImage(image);
 					}
 				} catch (Throwable ex) {
 					getLogger().warn(ex.getLocalizedMessage(), ex);
@@ -352,6 +339,31 @@ public class JournalService extends AbstractService {
 		return null;
 	}
 
+	/** Replies the quartile that is shown up by the given Scimago image.
+	 * The quartile is given by the color of a specific pixel of the image.
+	 *
+	 * @param image the image that is provided by the Scimago website.
+	 * @return the quartile or {@code null} if none cannot be found.
+	 * @since 2.0.0
+	 */
+	public static QuartileRanking getScimagoQuartileFromImage(BufferedImage image) {
+		final int rgba = image.getRGB(5, 55);
+		final int red = (rgba >> 16) & 0xff;
+		switch (red) {
+		case 164:
+			return QuartileRanking.Q1;
+		case 232:
+			return QuartileRanking.Q2;
+		case 251:
+			return QuartileRanking.Q3;
+		case 221:
+			return QuartileRanking.Q4;
+		default:
+			//
+		}
+		return null;
+	}
+
 	/** Save the given quality indicators for the journal.
 	 *
 	 * @param journal the journal.
@@ -17,11 +17,9 @@
 package fr.ciadlab.labmanager.service.member;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Deque;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -44,6 +42,7 @@ import fr.ciadlab.labmanager.repository.member.MembershipRepository;
 import fr.ciadlab.labmanager.repository.member.PersonRepository;
 import fr.ciadlab.labmanager.repository.organization.ResearchOrganizationRepository;
 import fr.ciadlab.labmanager.service.AbstractService;
+import fr.ciadlab.labmanager.service.organization.OrganizationMembershipClosure;
 import fr.ciadlab.labmanager.utils.bap.FrenchBap;
 import fr.ciadlab.labmanager.utils.cnu.CnuSection;
 import fr.ciadlab.labmanager.utils.conrs.ConrsSection;
@@ -69,6 +68,8 @@ public class MembershipService extends AbstractService {
 
 	private PersonRepository personRepository;
 
+	private OrganizationMembershipClosure organizationClosure;
+
 	/** Constructor for injector.
 	 * This constructor is defined for being invoked by the IOC injector.
 	 *
@@ -77,17 +78,20 @@ public class MembershipService extends AbstractService {
 	 * @param organizationRepository the organization repository.
 	 * @param membershipRepository the membership repository.
 	 * @param personRepository the person repository.
+	 * @param organizationClosure the cache of the members of the organizations and their suborganizations.
 	 */
 	public MembershipService(
 			@Autowired MessageSourceAccessor messages,
 			@Autowired Constants constants,
 			@Autowired ResearchOrganizationRepository organizationRepository,
 			@Autowired MembershipRepository membershipRepository,
-			@Autowired PersonRepository personRepository) {
+			@Autowired PersonRepository personRepository,
+			@Autowired OrganizationMembershipClosure organizationClosure) {
 		super(messages, constants);
 		this.organizationRepository = organizationRepository;
 		this.membershipRepository = membershipRepository;
 		this.personRepository = personRepository;
+		this.organizationClosure = organizationClosure;
 	}
 
 	/** Replies the members of the organization.
@@ -355,24 +359,26 @@ public class MembershipService extends AbstractService {
 	 * @see #getDirectMembersOf(int)
 	 */
 	public Set<Person> getMembersOf(int organizationId) {
-		final Optional<ResearchOrganization> optOrg = this.organizationRepository.findById(Integer.valueOf(organizationId));
-		if (optOrg.isPresent()) {
-			final ResearchOrganization organization = optOrg.get();
-
-			final Set<Person> persons = new HashSet<>();
-
-			final Deque<ResearchOrganization> organizationCandidates = new LinkedList<>();
-			organizationCandidates.add(organization);
-
-			do {
-				final ResearchOrganization currentOrganization = organizationCandidates.removeFirst();
-				persons.addAll(getDirectMembersOf(currentOrganization.getId()));
-				organizationCandidates.addAll(currentOrganization.getSubOrganizations());
-			} while (!organizationCandidates.isEmpty());
-
-			return persons;
+		final Set<Integer> identifiers = getMemberIdentifiersOf(organizationId, true);
+		if (identifiers.isEmpty()) {
+			return Collections.emptySet();
 		}
-		return Collections.emptySet();
+		return this.personRepository.findDistinctByIdIn(identifiers);
+	}
+
+	/** Replies the identifiers of the persons in the organization of the given identifier.
+	 * The identifiers are provided by a cache of the organization hierarchy; the persons are not loaded
+	 * from the database.
+	 * 
+	 * @param organizationId the identifier of the organization.
+	 * @param includeSubOrganizations indicates if the members of the suborganizations are considered.
+	 * @return the identifiers of the persons.
+	 * @see #getMembersOf(int)
+	 * @see #getDirectMembersOf(int)
+	 */
+	public Set<Integer> getMemberIdentifiersOf(int organizationId, boolean includeSubOrganizations) {
+		final int[] identifiers = this.organizationClosure.getMembers(organizationId, includeSubOrganizations);
+		return Arrays.stream(identifiers).boxed().collect(Collectors.toUnmodifiableSet());
 	}
 
 	/** Replies the persons in the organization of the given name, with the given status.
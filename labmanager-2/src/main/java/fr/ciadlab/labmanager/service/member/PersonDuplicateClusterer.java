@@ -0,0 +1,369 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.service.member;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import com.google.common.base.Strings;
+import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.utils.names.PersonNameComparator;
+import fr.ciadlab.labmanager.utils.names.PersonNameParser;
+import fr.ciadlab.labmanager.utils.names.SorensenDicePersonNameComparator;
+
+/** Engine for building the groups of persons with similar names.
+ * <p>Comparing all the pairs of persons is quadratic. This engine computes the normalized names and
+ * their 3-grams once, and determines the pairs of candidates with a prefix-filtering on the 3-grams:
+ * for two persons to be similar, their last names (or the last name of the first person and the first name
+ * of the second person) must have a Sorensen-Dice similarity that is at least {@code 2 * level - 1}, where
+ * {@code level} is the similarity level of the name comparator. Two 3-gram sets that reach this
+ * similarity share at least one 3-gram within their "prefixes", when the 3-grams are sorted from the
+ * rarest to the most frequent. Only the candidate pairs are verified with the name comparator, in parallel.
+ * <p>The groups that are replied are the same as the ones built by the exhaustive pairwise comparison:
+ * each person that is not already in a group is the reference of a new group that contains the persons,
+ * located after the reference in the list, that have a name similar to the reference's name.
+ * <p>The blocking is applied only when the name comparator is based on the Sorensen-Dice similarity with
+ * a level greater than {@code 0.5}. Otherwise, all the pairs of persons are verified.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public class PersonDuplicateClusterer {
+
+	private static final int SHINGLE_SIZE = 3;
+
+	private static final int PARALLEL_THRESHOLD = 256;
+
+	private static final double EPSILON = 1e-9;
+
+	private static final String WHOLE_NAME_PREFIX = "="; //$NON-NLS-1$
+
+	private final PersonNameParser nameParser;
+
+	private final PersonNameComparator nameComparator;
+
+	private final ForkJoinPool pool;
+
+	/** Constructor. The verification of the candidates is run in the common fork-join pool.
+	 *
+	 * @param nameParser the parser of person names.
+	 * @param nameComparator the comparator of person names.
+	 */
+	public PersonDuplicateClusterer(PersonNameParser nameParser, PersonNameComparator nameComparator) {
+		this(nameParser, nameComparator, ForkJoinPool.commonPool());
+	}
+
+	/** Constructor.
+	 *
+	 * @param nameParser the parser of person names.
+	 * @param nameComparator the comparator of person names.
+	 * @param pool the fork-join pool that is used for verifying the candidate pairs.
+	 */
+	public PersonDuplicateClusterer(PersonNameParser nameParser, PersonNameComparator nameComparator, ForkJoinPool pool) {
+		assert nameParser != null;
+		assert nameComparator != null;
+		assert pool != null;
+		this.nameParser = nameParser;
+		this.nameComparator = nameComparator;
+		this.pool = pool;
+	}
+
+	/** Build the groups of persons with similar names.
+	 *
+	 * @param persons the persons to group. The order of the persons determines the references of the groups.
+	 * @param comparator the comparator that is used for sorting the persons in each group.
+	 * @return the groups of persons with at least two persons in each group.
+	 */
+	public List<Set<Person>> cluster(List<? extends Person> persons, Comparator<? super Person> comparator) {
+		final int size = persons.size();
+		if (size < 2) {
+			return new ArrayList<>();
+		}
+		final long[] candidates = getCandidatePairs(persons);
+		final BitSet[] similars = verifyCandidatePairs(persons, candidates);
+
+		final List<Set<Person>> groups = new ArrayList<>();
+		final BitSet consumed = new BitSet(size);
+		for (int i = 0; i < size - 1; ++i) {
+			if (!consumed.get(i)) {
+				final Set<Person> group = new TreeSet<>(comparator);
+				group.add(persons.get(i));
+				final BitSet others = similars[i];
+				if (others != null) {
+					for (int j = others.nextSetBit(i + 1); j >= 0; j = others.nextSetBit(j + 1)) {
+						if (!consumed.get(j)) {
+							group.add(persons.get(j));
+							// Consume the other person to avoid to be treated twice times
+							consumed.set(j);
+						}
+					}
+				}
+				if (group.size() > 1) {
+					groups.add(group);
+				}
+			}
+		}
+		return groups;
+	}
+
+	/** Replies if the blocking of the candidates could be applied.
+	 *
+	 * @return {@code true} if the blocking is enabled.
+	 */
+	protected boolean isBlockingEnabled() {
+		return isBlockingSupported(this.nameComparator);
+	}
+
+	/** Replies if the blocking on the 3-grams of the names could be applied with the given comparator.
+	 *
+	 * @param nameComparator the comparator of names.
+	 * @return {@code true} if the blocking could be applied.
+	 */
+	static boolean isBlockingSupported(PersonNameComparator nameComparator) {
+		return nameComparator instanceof SorensenDicePersonNameComparator
+				&& nameComparator.getSimilarityLevel() > 0.5;
+	}
+
+	/** Replies the minimum Jaccard similarity between the 3-gram sets of the last names of two similar persons.
+	 *
+	 * @param nameComparator the comparator of names.
+	 * @return the minimum Jaccard similarity.
+	 */
+	static double getMinimumJaccardSimilarity(PersonNameComparator nameComparator) {
+		final double diceThreshold = 2. * nameComparator.getSimilarityLevel() - 1.;
+		return diceThreshold / (2. - diceThreshold);
+	}
+
+	/** Replies the minimum number of 3-grams that must be shared with a name of the given number of 3-grams.
+	 *
+	 * @param size the number of 3-grams in the name.
+	 * @param jaccardSimilarity the minimum Jaccard similarity.
+	 * @return the minimum number of shared 3-grams.
+	 */
+	static int getMinimumOverlap(int size, double jaccardSimilarity) {
+		return (int) Math.ceil(jaccardSimilarity * size - EPSILON);
+	}
+
+	/** Replies the 3-grams of the given name.
+	 *
+	 * @param name the normalized name.
+	 * @return the sorted 3-grams.
+	 */
+	static String[] getShingles(String name) {
+		final Set<String> set = new TreeSet<>();
+		for (int i = 0; i <= name.length() - SHINGLE_SIZE; ++i) {
+			set.add(name.substring(i, i + SHINGLE_SIZE));
+		}
+		return set.toArray(new String[set.size()]);
+	}
+
+	private BitSet[] verifyCandidatePairs(List<? extends Person> persons, long[] candidates) {
+		final BitSet[] similars = new BitSet[persons.size()];
+		if (candidates.length > 0) {
+			final List<Long> verified;
+			if (candidates.length >= PARALLEL_THRESHOLD) {
+				verified = this.pool.submit(() -> Arrays.stream(candidates).parallel()
+						.filter(it -> isSimilar(persons, it))
+						.boxed()
+						.collect(Collectors.toList())).join();
+			} else {
+				verified = Arrays.stream(candidates)
+						.filter(it -> isSimilar(persons, it))
+						.boxed()
+						.collect(Collectors.toList());
+			}
+			for (final Long pair : verified) {
+				final int i = first(pair.longValue());
+				BitSet set = similars[i];
+				if (set == null) {
+					set = new BitSet(persons.size());
+					similars[i] = set;
+				}
+				set.set(second(pair.longValue()));
+			}
+		}
+		return similars;
+	}
+
+	private boolean isSimilar(List<? extends Person> persons, long pair) {
+		final Person reference = persons.get(first(pair));
+		final Person other = persons.get(second(pair));
+		return this.nameComparator.isSimilar(
+				reference.getFirstName(), reference.getLastName(),
+				other.getFirstName(), other.getLastName());
+	}
+
+	private static long pair(int i, int j) {
+		return ((long) i << 32) | (j & 0xffffffffL);
+	}
+
+	private static int first(long pair) {
+		return (int) (pair >>> 32);
+	}
+
+	private static int second(long pair) {
+		return (int) pair;
+	}
+
+	/** Replies the pairs of persons that are candidates for being similar.
+	 * Each pair is encoded into a {@code long} value, with the index of the reference person
+	 * in the high-order bits, and the index of the other person in the low-order bits.
+	 * The index of the reference is always lower than the index of the other person.
+	 *
+	 * @param persons the persons.
+	 * @return the candidate pairs.
+	 */
+	long[] getCandidatePairs(List<? extends Person> persons) {
+		final int size = persons.size();
+		if (!isBlockingEnabled()) {
+			final long[] pairs = new long[size * (size - 1) / 2];
+			int k = 0;
+			for (int i = 0; i < size - 1; ++i) {
+				for (int j = i + 1; j < size; ++j) {
+					pairs[k] = pair(i, j);
+					++k;
+				}
+			}
+			return pairs;
+		}
+
+		// Compute the normalized names and their 3-grams once
+		final NameProfile[] lastNames = new NameProfile[size];
+		final NameProfile[] firstNames = new NameProfile[size];
+		final Map<String, Integer> frequencies = new HashMap<>();
+		for (int i = 0; i < size; ++i) {
+			final Person person = persons.get(i);
+			if (!Strings.isNullOrEmpty(person.getFirstName()) && !Strings.isNullOrEmpty(person.getLastName())) {
+				lastNames[i] = new NameProfile(this.nameParser.normalizeName(person.getLastName()));
+				firstNames[i] = new NameProfile(this.nameParser.normalizeName(person.getFirstName()));
+				lastNames[i].countShingles(frequencies);
+				firstNames[i].countShingles(frequencies);
+			}
+		}
+
+		// Build the inverted index of the prefixes
+		final double jaccardThreshold = getMinimumJaccardSimilarity(this.nameComparator);
+		final Comparator<String> shingleOrder = (a, b) -> {
+			final int cmp = Integer.compare(frequencies.get(a).intValue(), frequencies.get(b).intValue());
+			if (cmp != 0) {
+				return cmp;
+			}
+			return a.compareTo(b);
+		};
+		final Map<String, List<Integer>> index = new HashMap<>();
+		final List<List<String>> queries = new ArrayList<>(size);
+		for (int i = 0; i < size; ++i) {
+			if (lastNames[i] != null) {
+				final List<String> lastKeys = lastNames[i].getKeys(shingleOrder, jaccardThreshold);
+				final List<String> firstKeys = firstNames[i].getKeys(shingleOrder, jaccardThreshold);
+				final Integer boxedIndex = Integer.valueOf(i);
+				for (final String key : lastKeys) {
+					index.computeIfAbsent(key, it -> new ArrayList<>()).add(boxedIndex);
+				}
+				for (final String key : firstKeys) {
+					index.computeIfAbsent(key, it -> new ArrayList<>()).add(boxedIndex);
+				}
+				queries.add(lastKeys);
+			} else {
+				queries.add(Collections.emptyList());
+			}
+		}
+
+		// Search for the candidates
+		final List<Long> pairs = new ArrayList<>();
+		final BitSet selected = new BitSet(size);
+		for (int i = 0; i < size - 1; ++i) {
+			selected.clear();
+			for (final String key : queries.get(i)) {
+				final List<Integer> postings = index.get(key);
+				if (postings != null) {
+					for (final Integer j : postings) {
+						final int jj = j.intValue();
+						if (jj > i && !selected.get(jj)) {
+							selected.set(jj);
+							pairs.add(Long.valueOf(pair(i, jj)));
+						}
+					}
+				}
+			}
+		}
+		return pairs.stream().mapToLong(it -> it.longValue()).toArray();
+	}
+
+	/** Normalized name with its 3-grams.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	private static class NameProfile {
+
+		private final String name;
+
+		private final String[] shingles;
+
+		NameProfile(String name) {
+			this.name = Strings.nullToEmpty(name);
+			this.shingles = getShingles(this.name);
+		}
+
+		void countShingles(Map<String, Integer> frequencies) {
+			for (final String shingle : this.shingles) {
+				frequencies.merge(shingle, Integer.valueOf(1), (a, b) -> Integer.valueOf(a.intValue() + b.intValue()));
+			}
+		}
+
+		/** Replies the blocking keys: the whole name, and the prefix of the sorted 3-grams.
+		 *
+		 * @param order the global order of the 3-grams.
+		 * @param jaccardThreshold the minimum Jaccard similarity between the 3-gram sets of two similar names.
+		 * @return the keys.
+		 */
+		List<String> getKeys(Comparator<String> order, double jaccardThreshold) {
+			final List<String> keys = new ArrayList<>();
+			keys.add(WHOLE_NAME_PREFIX + this.name);
+			final int size = this.shingles.length;
+			if (size > 0) {
+				final String[] sorted = this.shingles.clone();
+				Arrays.sort(sorted, order);
+				final int minOverlap = getMinimumOverlap(size, jaccardThreshold);
+				final int prefixLength = Math.min(size, Math.max(1, size - minOverlap + 1));
+				for (int i = 0; i < prefixLength; ++i) {
+					keys.add(sorted[i]);
+				}
+			}
+			return keys;
+		}
+
+	}
+
+}
@@ -0,0 +1,364 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.service.member;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.google.common.base.Strings;
+import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.repository.member.PersonRepository;
+import fr.ciadlab.labmanager.utils.names.PersonNameComparator;
+import fr.ciadlab.labmanager.utils.names.PersonNameParser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/** In-memory index of the names of the persons that is dedicated to the search of persons with similar names.
+ * <p>The index maps the 3-grams of the normalized first and last names, and the normalized names themselves,
+ * to the identifiers of the persons. For a query, only the persons that share enough 3-grams with the
+ * normalized last name of the query are compared with the {@link PersonNameComparator}.
+ * <p>The index is loaded from the database at the first query. It is then maintained by
+ * {@link PersonNameIndexListener} when persons are created, updated or deleted, including when persons are merged.
+ * <p>The numbers of lookups with and without similar person are published into the metrics of the actuator
+ * endpoint ({@code labmanager.person.name.index.hits} and {@code labmanager.person.name.index.misses}).
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+@Component
+public class PersonNameIndex {
+
+	private static final String WHOLE_NAME_PREFIX = "="; //$NON-NLS-1$
+
+	private static final double EXACT_MATCH = 2.;
+
+	private final PersonRepository personRepository;
+
+	private final PersonNameParser nameParser;
+
+	private final PersonNameComparator nameComparator;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<Integer, Entry> entries = new HashMap<>();
+
+	private final Map<String, Set<Integer>> postings = new HashMap<>();
+
+	private final Counter hits;
+
+	private final Counter misses;
+
+	private boolean loaded;
+
+	private long sequence;
+
+	/** Constructor for injector.
+	 * This constructor is defined for being invoked by the IOC injector.
+	 *
+	 * @param personRepository the person repository that is used for loading the index.
+	 * @param nameParser the parser of person names.
+	 * @param nameComparator the comparator of person names.
+	 * @param meterRegistry the registry of the metrics that are published by the actuator.
+	 */
+	public PersonNameIndex(
+			@Autowired PersonRepository personRepository,
+			@Autowired PersonNameParser nameParser,
+			@Autowired PersonNameComparator nameComparator,
+			@Autowired MeterRegistry meterRegistry) {
+		this.personRepository = personRepository;
+		this.nameParser = nameParser;
+		this.nameComparator = nameComparator;
+		this.hits = Counter.builder("labmanager.person.name.index.hits") //$NON-NLS-1$
+				.description("Number of lookups for similar names that have found a person") //$NON-NLS-1$
+				.register(meterRegistry);
+		this.misses = Counter.builder("labmanager.person.name.index.misses") //$NON-NLS-1$
+				.description("Number of lookups for similar names that have not found a person") //$NON-NLS-1$
+				.register(meterRegistry);
+		Gauge.builder("labmanager.person.name.index.size", this, it -> it.size()) //$NON-NLS-1$
+				.description("Number of persons in the index of the names") //$NON-NLS-1$
+				.register(meterRegistry);
+	}
+
+	/** Replies the number of persons in the index.
+	 *
+	 * @return the number of persons.
+	 */
+	public int size() {
+		this.lock.readLock().lock();
+		try {
+			return this.entries.size();
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/** Replies the number of lookups that have found a similar person.
+	 *
+	 * @return the number of hits.
+	 */
+	public long getHitCount() {
+		return (long) this.hits.count();
+	}
+
+	/** Replies the number of lookups that have not found a similar person.
+	 *
+	 * @return the number of misses.
+	 */
+	public long getMissCount() {
+		return (long) this.misses.count();
+	}
+
+	/** Force the index to be reloaded from the database at the next query.
+	 */
+	public void invalidate() {
+		this.lock.writeLock().lock();
+		try {
+			clear();
+			this.loaded = false;
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	private void clear() {
+		this.entries.clear();
+		this.postings.clear();
+		this.sequence = 0;
+	}
+
+	private void ensureLoaded() {
+		this.lock.readLock().lock();
+		try {
+			if (this.loaded) {
+				return;
+			}
+		} finally {
+			this.lock.readLock().unlock();
+		}
+		this.lock.writeLock().lock();
+		try {
+			if (!this.loaded) {
+				clear();
+				for (final Person person : this.personRepository.findAll()) {
+					put(person.getId(), this.sequence++, person.getFirstName(), person.getLastName());
+				}
+				this.loaded = true;
+			}
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/** Add or replace the names of the given person into the index.
+	 * If the index is not yet loaded from the database, this function does nothing.
+	 *
+	 * @param person the person.
+	 */
+	public void update(Person person) {
+		if (person != null && person.getId() != 0) {
+			this.lock.writeLock().lock();
+			try {
+				if (this.loaded) {
+					// Keep the insertion rank of the person for the tie-break between equally similar persons
+					final Entry old = removeEntry(Integer.valueOf(person.getId()));
+					final long rank = old != null ? old.sequence : this.sequence++;
+					put(person.getId(), rank, person.getFirstName(), person.getLastName());
+				}
+			} finally {
+				this.lock.writeLock().unlock();
+			}
+		}
+	}
+
+	/** Remove the person with the given identifier from the index.
+	 *
+	 * @param identifier the identifier of the person.
+	 */
+	public void remove(int identifier) {
+		this.lock.writeLock().lock();
+		try {
+			removeEntry(Integer.valueOf(identifier));
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	private Entry removeEntry(Integer identifier) {
+		final Entry entry = this.entries.remove(identifier);
+		if (entry != null) {
+			for (final String key : entry.keys) {
+				final Set<Integer> ids = this.postings.get(key);
+				if (ids != null) {
+					ids.remove(identifier);
+					if (ids.isEmpty()) {
+						this.postings.remove(key);
+					}
+				}
+			}
+		}
+		return entry;
+	}
+
+	private void put(int identifier, long rank, String firstName, String lastName) {
+		if (identifier != 0) {
+			final Integer id = Integer.valueOf(identifier);
+			final Entry entry = new Entry(id.intValue(), rank, firstName, lastName);
+			final String normalizedFirstName = this.nameParser.normalizeName(Strings.nullToEmpty(firstName));
+			final String normalizedLastName = this.nameParser.normalizeName(Strings.nullToEmpty(lastName));
+			addKeys(entry.keys, normalizedLastName);
+			addKeys(entry.keys, normalizedFirstName);
+			for (final String key : entry.keys) {
+				this.postings.computeIfAbsent(key, it -> new HashSet<>()).add(id);
+			}
+			this.entries.put(id, entry);
+		}
+	}
+
+	private static void addKeys(Collection<String> keys, String normalizedName) {
+		keys.add(WHOLE_NAME_PREFIX + normalizedName);
+		for (final String shingle : PersonDuplicateClusterer.getShingles(normalizedName)) {
+			keys.add(shingle);
+		}
+	}
+
+	/** Replies the identifier of the person with the name that is the most similar to the given name.
+	 * The similarity is determined by the {@link PersonNameComparator}. A person with exactly the given name
+	 * is preferred to the other persons. If multiple persons have the same similarity, the person that was
+	 * added first into the index is replied.
+	 *
+	 * @param firstName the first name of the person to search for.
+	 * @param lastName the last name of the person to search for.
+	 * @return the identifier of the most similar person, or {@code 0} if no person has a similar name.
+	 */
+	public int findMostSimilar(String firstName, String lastName) {
+		if (Strings.isNullOrEmpty(firstName) || Strings.isNullOrEmpty(lastName)) {
+			this.misses.increment();
+			return 0;
+		}
+		ensureLoaded();
+		final Collection<Entry> candidates;
+		this.lock.readLock().lock();
+		try {
+			candidates = getCandidates(this.nameParser.normalizeName(lastName));
+		} finally {
+			this.lock.readLock().unlock();
+		}
+		Entry best = null;
+		double bestSimilarity = 0.;
+		for (final Entry candidate : candidates) {
+			// The comparator replies the similarity level for equal names; they must be preferred to the other names
+			final double similarity;
+			if (Objects.equals(firstName, candidate.firstName) && Objects.equals(lastName, candidate.lastName)) {
+				similarity = EXACT_MATCH;
+			} else {
+				similarity = this.nameComparator.getSimilarity(
+						firstName, lastName, candidate.firstName, candidate.lastName);
+			}
+			if (similarity >= this.nameComparator.getSimilarityLevel()
+					&& (best == null || similarity > bestSimilarity
+					|| (similarity == bestSimilarity && candidate.sequence < best.sequence))) {
+				best = candidate;
+				bestSimilarity = similarity;
+			}
+		}
+		if (best != null) {
+			this.hits.increment();
+			return best.id;
+		}
+		this.misses.increment();
+		return 0;
+	}
+
+	private Collection<Entry> getCandidates(String normalizedLastName) {
+		if (!PersonDuplicateClusterer.isBlockingSupported(this.nameComparator)) {
+			return new ArrayList<>(this.entries.values());
+		}
+		// The last name of the query must be similar to the last name or to the first name
+		// of the candidate. Both names are indexed with the same keys.
+		final Set<Entry> candidates = new HashSet<>();
+		final Set<Integer> sameName = this.postings.get(WHOLE_NAME_PREFIX + normalizedLastName);
+		if (sameName != null) {
+			for (final Integer id : sameName) {
+				candidates.add(this.entries.get(id));
+			}
+		}
+		final String[] shingles = PersonDuplicateClusterer.getShingles(normalizedLastName);
+		if (shingles.length > 0) {
+			final int minOverlap = Math.max(1, PersonDuplicateClusterer.getMinimumOverlap(shingles.length,
+					PersonDuplicateClusterer.getMinimumJaccardSimilarity(this.nameComparator)));
+			final Map<Integer, MutableInt> overlaps = new HashMap<>();
+			for (final String shingle : shingles) {
+				final Set<Integer> ids = this.postings.get(shingle);
+				if (ids != null) {
+					for (final Integer id : ids) {
+						overlaps.computeIfAbsent(id, it -> new MutableInt()).increment();
+					}
+				}
+			}
+			for (final Map.Entry<Integer, MutableInt> overlap : overlaps.entrySet()) {
+				if (overlap.getValue().intValue() >= minOverlap) {
+					candidates.add(this.entries.get(overlap.getKey()));
+				}
+			}
+		}
+		return candidates;
+	}
+
+	/** Names of a person in the index.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	private static class Entry {
+
+		final int id;
+
+		final long sequence;
+
+		final String firstName;
+
+		final String lastName;
+
+		final Set<String> keys = new HashSet<>();
+
+		Entry(int id, long sequence, String firstName, String lastName) {
+			this.id = id;
+			this.sequence = sequence;
+			this.firstName = firstName;
+			this.lastName = lastName;
+		}
+
+	}
+
+}
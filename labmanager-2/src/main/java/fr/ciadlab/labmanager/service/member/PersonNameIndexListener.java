@@ -0,0 +1,69 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.service.member;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.utils.AbstractEntityListener;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/** JPA listener on the {@link Person} entities that keeps the {@link PersonNameIndex} up-to-date.
+ * A saved person is re-indexed with its current names, and a deleted person is removed from the index.
+ * The index is updated when the transaction that has changed the persons is committed, in order to
+ * ignore the changes that are rolled back.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public class PersonNameIndexListener extends AbstractEntityListener<PersonNameIndex> {
+
+	/** Change the index of names to be updated.
+	 *
+	 * @param nameIndex the index.
+	 */
+	@Autowired
+	public void setPersonNameIndex(PersonNameIndex nameIndex) {
+		setTarget(nameIndex);
+	}
+
+	/** Invoked when a person was created or updated in the database.
+	 *
+	 * @param person the person.
+	 */
+	@PostPersist
+	@PostUpdate
+	public void personSaved(Person person) {
+		notifyTargetAfterCommit(index -> index.update(person));
+	}
+
+	/** Invoked when a person was deleted from the database.
+	 *
+	 * @param person the person.
+	 */
+	@PostRemove
+	public void personRemoved(Person person) {
+		final int id = person.getId();
+		notifyTargetAfterCommit(index -> index.remove(id));
+	}
+
+}
@@ -20,10 +20,9 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.regex.Pattern;
 
 import com.google.common.base.Strings;
@@ -67,6 +66,10 @@ public class PersonService extends AbstractService {
 
 	private PersonNameComparator nameComparator;
 
+	private PersonDuplicateClusterer duplicateClusterer;
+
+	private PersonNameIndex nameIndex;
+
 	/** Constructor for injector.
 	 * This constructor is defined for being invoked by the IOC injector.
 	 *
@@ -77,6 +80,7 @@ public class PersonService extends AbstractService {
 	 * @param personRepository the person repository.
 	 * @param nameParser the parser of person names.
 	 * @param nameComparator the comparator of person names.
+	 * @param nameIndex the index of the person names that is used for finding similar names.
 	 */
 	public PersonService(
 			@Autowired MessageSourceAccessor messages,
@@ -85,13 +89,16 @@ public class PersonService extends AbstractService {
 			@Autowired AuthorshipRepository authorshipRepository,
 			@Autowired PersonRepository personRepository,
 			@Autowired PersonNameParser nameParser,
-			@Autowired PersonNameComparator nameComparator) {
+			@Autowired PersonNameComparator nameComparator,
+			@Autowired PersonNameIndex nameIndex) {
 		super(messages, constants);
 		this.publicationRepository = publicationRepository;
 		this.authorshipRepository = authorshipRepository;
 		this.personRepository = personRepository;
 		this.nameParser = nameParser;
 		this.nameComparator = nameComparator;
+		this.duplicateClusterer = new PersonDuplicateClusterer(nameParser, nameComparator);
+		this.nameIndex = nameIndex;
 	}
 
 	/** Replies the list of all the persons from the database.
@@ -342,7 +349,7 @@ public class PersonService extends AbstractService {
 	}
 
 	/** Replies the person with a similar name to the givan last name and givan first name.
-	 * If there is multiple persons with similar last name and first name, one is replied.
+	 * If there is multiple persons with similar last name and first name, the most similar is replied.
 	 * <p>The name matching is based on similarity of names.
 	 * For using a strict equality test on the names, see {@link #getPersonIdByName(String, String)}.
 	 *
@@ -350,12 +357,18 @@ public class PersonService extends AbstractService {
 	 * @param lastName the last name of the person.
 	 * @return the person, or {@code null} if no person has the given name.
 	 * @see #getPersonIdBySimilarName(String, String)
+	 * @see PersonNameIndex
 	 */
 	public Person getPersonBySimilarName(String firstName, String lastName) {
-		for (final Person person : this.personRepository.findAll()) {
-			if (this.nameComparator.isSimilar(firstName, lastName, person.getFirstName(), person.getLastName())) {
-				return person;
+		int id = this.nameIndex.findMostSimilar(firstName, lastName);
+		while (id != 0) {
+			final Optional<Person> person = this.personRepository.findById(Integer.valueOf(id));
+			if (person.isPresent()) {
+				return person.get();
 			}
+			// The index is not synchronized with the database
+			this.nameIndex.remove(id);
+			id = this.nameIndex.findMostSimilar(firstName, lastName);
 		}
 		return null;
 	}
@@ -379,6 +392,29 @@ public class PersonService extends AbstractService {
 	 * @see #containsAMember(List)
 	 */
 	public List<Person> extractPersonsFrom(String authorText, boolean useNameSimilarity, boolean assignRandomId, boolean ensureAtLeastOneMember) {
+		return extractPersonsFrom(authorText, useNameSimilarity, assignRandomId, ensureAtLeastOneMember, null);
+	}
+
+	/** Extract the list of the authors with a cache of the known persons.
+	 * <p>This function is similar to {@link #extractPersonsFrom(String, boolean, boolean, boolean)}, except that the persons
+	 * that are read from the database are stored into the given cache, and the cache is used before searching in the
+	 * database. The keys of the cache are the normalized first and last names. The unknown persons are not stored into the cache.
+	 * 
+	 * @param authorText the list of authors to parse.
+	 * @param useNameSimilarity indicates of the member search from their name is based on similar names, if {@code true};
+	 *     or on exact names, if {@code false}.
+	 * @param assignRandomId indicates if a random identifier will be assigned to the created entities.
+	 *     If this argument is {@code true}, a numeric id will be computed and assign to all the JPA entities.
+	 *     If this argument is {@code false}, the ids of the JPA entities will be the default values, i.e., {@code 0}.
+	 * @param ensureAtLeastOneMember if {@code true}, at least one member of a research organization is required from the
+	 *     the list of the persons. If {@code false}, the list of persons could contain no organization member.
+	 * @param cache the cache of the known persons, or {@code null} if no cache is used. It is usually shared by
+	 *     the extractions that are done during a single import.
+	 * @return the list of authors.
+	 * @since 2.0.0
+	 */
+	public List<Person> extractPersonsFrom(String authorText, boolean useNameSimilarity, boolean assignRandomId, boolean ensureAtLeastOneMember,
+			Map<String, Person> cache) {
 		final MutableInt memberCount = new MutableInt();
 		final List<Person> persons = new ArrayList<>();
 		this.nameParser.parseNames(authorText, (fn, von, ln, pos) -> {
@@ -390,15 +426,23 @@ public class PersonService extends AbstractService {
 				firstname.append(von);
 			}
 			//
-			final int id;
-			if (useNameSimilarity) {
-				id = getPersonIdBySimilarName(firstname.toString(), ln);
-			} else {
-				id = getPersonIdByName(firstname.toString(), ln);
-			}
-			Person person = null;
-			if (id != 0) {
-				person = getPersonById(id);
+			final String cacheKey = cache != null
+					? (useNameSimilarity ? "~" : "=") + normalizeName(firstname.toString()) + "|" + normalizeName(ln) //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					: null;
+			Person person = cacheKey != null ? cache.get(cacheKey) : null;
+			if (person == null) {
+				final int id;
+				if (useNameSimilarity) {
+					id = getPersonIdBySimilarName(firstname.toString(), ln);
+				} else {
+					id = getPersonIdByName(firstname.toString(), ln);
+				}
+				if (id != 0) {
+					person = getPersonById(id);
+					if (person != null && cacheKey != null) {
+						cache.put(cacheKey, person);
+					}
+				}
 			}
 			if (person == null) {
 				person = new Person();
@@ -418,6 +462,10 @@ public class PersonService extends AbstractService {
 		return persons;
 	}
 
+	private static String normalizeName(String name) {
+		return Strings.nullToEmpty(name).trim().replaceAll("\\s+", " ").toLowerCase(); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
 	/** Replies the duplicate person names.
 	 * The replied list contains groups of persons who have similar names.
 	 *
@@ -426,39 +474,10 @@ public class PersonService extends AbstractService {
 	 * @return the duplicate persons.
 	 */
 	public List<Set<Person>> getPersonDuplicates(Comparator<? super Person> comparator) {
-		// Each list represents a group of authors that could be duplicate
-		final List<Set<Person>> matchingAuthors = new ArrayList<>();
-
-		// Copy the list of authors into another list in order to enable its
-		// modification during the function's process
+		// Copy the list of authors into another list in order to have a stable order during the function's process
 		final List<Person> authorsList = new ArrayList<>(this.personRepository.findAll());
-
 		final Comparator<? super Person> theComparator = comparator == null ? EntityUtils.getPreferredPersonComparator() : comparator;
-
-		for (int i = 0; i < authorsList.size() - 1; ++i) {
-			final Person referencePerson = authorsList.get(i);
-
-			final Set<Person> currentMatching = new TreeSet<>(theComparator);
-			currentMatching.add(referencePerson);
-
-			final ListIterator<Person> iterator2 = authorsList.listIterator(i + 1);
-			while (iterator2.hasNext()) {
-				final Person otherPerson = iterator2.next();
-				if (this.nameComparator.isSimilar(
-						referencePerson.getFirstName(), referencePerson.getLastName(),
-						otherPerson.getFirstName(), otherPerson.getLastName())) {
-					currentMatching.add(otherPerson);
-					// Consume the other person to avoid to be treated twice times
-					iterator2.remove();
-				}
-			}
-
-			if (currentMatching.size() > 1) {
-				matchingAuthors.add(currentMatching);
-			}
-		}
-
-		return matchingAuthors;
+		return this.duplicateClusterer.cluster(authorsList, theComparator);
 	}
 
 	/** Replies if the given list of authors contains at least one person who is associated to a research organization,
@@ -0,0 +1,317 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.service.organization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import fr.ciadlab.labmanager.entities.organization.ResearchOrganization;
+import fr.ciadlab.labmanager.repository.member.MembershipRepository;
+import fr.ciadlab.labmanager.repository.organization.ResearchOrganizationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/** Cache of the closure of the research organizations, i.e., for each organization, the set of all its
+ * suborganizations at any depth, and the identifiers of the persons that are members of the organization
+ * or of one of its suborganizations.
+ * <p>The hierarchy of the organizations is loaded from the database at the first query. The identifiers
+ * of the direct members of an organization are loaded from the database when they are needed. The sets of
+ * identifiers are stored into sorted arrays of integers.
+ * <p>The cache is updated by {@link OrganizationMembershipClosureListener} when organizations or memberships
+ * are created, updated or deleted, including the cascading deletions and the imports of data. Only the cached values
+ * for the changed organization and its super organizations are dropped. The changes are applied when the
+ * transaction that has changed the database is committed, in order to ignore the changes that are rolled back.
+ * Deleted persons may remain in the cache until the next change of the memberships of their organizations;
+ * because the identifiers of the persons are never reused, they are ignored when the persons are retrieved
+ * from the database.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+@Component
+public class OrganizationMembershipClosure {
+
+	private static final int[] EMPTY = new int[0];
+
+	private final ResearchOrganizationRepository organizationRepository;
+
+	private final MembershipRepository membershipRepository;
+
+	private final Map<Integer, Integer> superOrganizations = new HashMap<>();
+
+	private final Map<Integer, Set<Integer>> subOrganizations = new HashMap<>();
+
+	private final Map<Integer, int[]> directMembers = new HashMap<>();
+
+	private final Map<Integer, int[]> descendants = new HashMap<>();
+
+	private final Map<Integer, int[]> members = new HashMap<>();
+
+	private boolean loaded;
+
+	/** Constructor for injector.
+	 * This constructor is defined for being invoked by the IOC injector.
+	 *
+	 * @param organizationRepository the repository of the research organizations.
+	 * @param membershipRepository the repository of the memberships.
+	 */
+	public OrganizationMembershipClosure(
+			@Autowired ResearchOrganizationRepository organizationRepository,
+			@Autowired MembershipRepository membershipRepository) {
+		this.organizationRepository = organizationRepository;
+		this.membershipRepository = membershipRepository;
+	}
+
+	/** Force the closure to be reloaded from the database at the next query.
+	 */
+	public synchronized void invalidate() {
+		this.superOrganizations.clear();
+		this.subOrganizations.clear();
+		this.directMembers.clear();
+		this.descendants.clear();
+		this.members.clear();
+		this.loaded = false;
+	}
+
+	private void ensureLoaded() {
+		if (!this.loaded) {
+			for (final ResearchOrganization organization : this.organizationRepository.findAll()) {
+				final Integer id = Integer.valueOf(organization.getId());
+				final Set<Integer> subs = this.subOrganizations.computeIfAbsent(id, it -> new TreeSet<>());
+				for (final ResearchOrganization sub : organization.getSubOrganizations()) {
+					final Integer subId = Integer.valueOf(sub.getId());
+					subs.add(subId);
+					this.superOrganizations.put(subId, id);
+				}
+			}
+			this.loaded = true;
+		}
+	}
+
+	/** Replies if the organization with the given identifier is known.
+	 *
+	 * @param organization the identifier of the organization.
+	 * @return {@code true} if the organization is known.
+	 */
+	public synchronized boolean contains(int organization) {
+		ensureLoaded();
+		return this.subOrganizations.containsKey(Integer.valueOf(organization));
+	}
+
+	/** Replies the identifiers of the given organization and of all its suborganizations at any depth.
+	 *
+	 * @param organization the identifier of the organization.
+	 * @return the sorted identifiers of the organizations, or an empty array if the organization is unknown.
+	 */
+	public synchronized int[] getOrganizations(int organization) {
+		ensureLoaded();
+		return getDescendants(Integer.valueOf(organization)).clone();
+	}
+
+	private int[] getDescendants(Integer organization) {
+		int[] closure = this.descendants.get(organization);
+		if (closure == null) {
+			if (!this.subOrganizations.containsKey(organization)) {
+				return EMPTY;
+			}
+			final BitSet visited = new BitSet();
+			final LinkedList<Integer> candidates = new LinkedList<>();
+			candidates.add(organization);
+			while (!candidates.isEmpty()) {
+				final Integer current = candidates.removeFirst();
+				// The test on the visited organizations protects against loops in the hierarchy
+				if (!visited.get(current.intValue())) {
+					visited.set(current.intValue());
+					final Set<Integer> subs = this.subOrganizations.get(current);
+					if (subs != null) {
+						candidates.addAll(subs);
+					}
+				}
+			}
+			closure = visited.stream().toArray();
+			this.descendants.put(organization, closure);
+		}
+		return closure;
+	}
+
+	/** Replies the identifiers of the persons who are members of the given organization.
+	 *
+	 * @param organization the identifier of the organization.
+	 * @param includeSubOrganizations indicates if the members of the suborganizations are considered.
+	 * @return the sorted identifiers of the persons, or an empty array if the organization is unknown.
+	 */
+	public synchronized int[] getMembers(int organization, boolean includeSubOrganizations) {
+		ensureLoaded();
+		final Integer id = Integer.valueOf(organization);
+		if (!this.subOrganizations.containsKey(id)) {
+			return EMPTY;
+		}
+		if (!includeSubOrganizations) {
+			return getDirectMembers(id).clone();
+		}
+		int[] closure = this.members.get(id);
+		if (closure == null) {
+			final int[] organizations = getDescendants(id);
+			if (organizations.length == 1) {
+				closure = getDirectMembers(id);
+			} else {
+				int size = 0;
+				final int[][] memberArrays = new int[organizations.length][];
+				for (int i = 0; i < organizations.length; ++i) {
+					memberArrays[i] = getDirectMembers(Integer.valueOf(organizations[i]));
+					size += memberArrays[i].length;
+				}
+				final int[] all = new int[size];
+				int offset = 0;
+				for (final int[] array : memberArrays) {
+					System.arraycopy(array, 0, all, offset, array.length);
+					offset += array.length;
+				}
+				closure = sortedUnique(all);
+			}
+			this.members.put(id, closure);
+		}
+		return closure.clone();
+	}
+
+	private int[] getDirectMembers(Integer organization) {
+		int[] ids = this.directMembers.get(organization);
+		if (ids == null) {
+			final Collection<Integer> persons = this.membershipRepository.findDistinctPersonIdsByResearchOrganizationId(organization.intValue());
+			ids = sortedUnique(persons.stream().mapToInt(it -> it.intValue()).toArray());
+			this.directMembers.put(organization, ids);
+		}
+		return ids;
+	}
+
+	private static int[] sortedUnique(int[] array) {
+		if (array.length <= 1) {
+			return array;
+		}
+		Arrays.sort(array);
+		int n = 1;
+		for (int i = 1; i < array.length; ++i) {
+			if (array[i] != array[n - 1]) {
+				array[n++] = array[i];
+			}
+		}
+		return n == array.length ? array : Arrays.copyOf(array, n);
+	}
+
+	/** Drop the cached values of the given organization and of its super organizations.
+	 *
+	 * @param organization the identifier of the changed organization.
+	 * @param structure indicates if the hierarchy of the organizations has changed.
+	 */
+	private void invalidateUpward(Integer organization, boolean structure) {
+		final Set<Integer> visited = new HashSet<>();
+		Integer current = organization;
+		while (current != null && visited.add(current)) {
+			this.members.remove(current);
+			if (structure) {
+				this.descendants.remove(current);
+			}
+			current = this.superOrganizations.get(current);
+		}
+	}
+
+	/** Invoked when a membership of the given person in the given organization was created, updated or deleted.
+	 * The members of the organization, and of the other organizations in which the person is cached as a member,
+	 * will be reloaded from the database when they are needed. The other organizations are considered because
+	 * the membership may have been moved from one of them.
+	 *
+	 * @param person the identifier of the person, or {@code 0} if it is unknown.
+	 * @param organization the identifier of the organization, or {@code 0} if it is unknown.
+	 */
+	public synchronized void membershipChanged(int person, int organization) {
+		if (this.loaded) {
+			if (person == 0 || organization == 0) {
+				// The membership was detached before its deletion
+				this.directMembers.clear();
+				this.members.clear();
+				return;
+			}
+			final List<Integer> changed = new ArrayList<>();
+			changed.add(Integer.valueOf(organization));
+			for (final Entry<Integer, int[]> entry : this.directMembers.entrySet()) {
+				if (entry.getKey().intValue() != organization && Arrays.binarySearch(entry.getValue(), person) >= 0) {
+					changed.add(entry.getKey());
+				}
+			}
+			for (final Integer id : changed) {
+				this.directMembers.remove(id);
+				invalidateUpward(id, false);
+			}
+		}
+	}
+
+	/** Invoked when the given organization was created or updated. If the super organization has changed,
+	 * the organization is moved in the hierarchy, and the cached values of the previous and new super
+	 * organizations are dropped.
+	 *
+	 * @param organization the identifier of the organization.
+	 * @param superOrganization the identifier of the super organization, or {@code 0} if none.
+	 */
+	public synchronized void organizationChanged(int organization, int superOrganization) {
+		if (this.loaded) {
+			final Integer id = Integer.valueOf(organization);
+			final Integer superId = superOrganization == 0 ? null : Integer.valueOf(superOrganization);
+			if (superId != null && !this.subOrganizations.containsKey(superId)) {
+				// The super organization is not yet notified
+				invalidate();
+				return;
+			}
+			this.subOrganizations.computeIfAbsent(id, it -> new TreeSet<>());
+			final Integer previousSuper = this.superOrganizations.get(id);
+			if (!Objects.equals(previousSuper, superId)) {
+				if (previousSuper != null) {
+					invalidateUpward(previousSuper, true);
+					this.subOrganizations.get(previousSuper).remove(id);
+					this.superOrganizations.remove(id);
+				}
+				if (superId != null) {
+					this.subOrganizations.get(superId).add(id);
+					this.superOrganizations.put(id, superId);
+					invalidateUpward(superId, true);
+				}
+			}
+		}
+	}
+
+	/** Invoked when the given organization was deleted. The closure is reloaded at the next query.
+	 *
+	 * @param organization the identifier of the organization.
+	 */
+	public void organizationRemoved(int organization) {
+		invalidate();
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+
+package fr.ciadlab.labmanager.service.organization;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import fr.ciadlab.labmanager.entities.member.Membership;
+import fr.ciadlab.labmanager.entities.organization.ResearchOrganization;
+import fr.ciadlab.labmanager.utils.AbstractEntityListener;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/** JPA listener on the {@link ResearchOrganization} and {@link Membership} entities that keeps the
+ * {@link OrganizationMembershipClosure} up-to-date. A saved organization is moved in the hierarchy
+ * if its super organization has changed; a deleted organization forces the reloading of the closure.
+ * A changed membership drops the cached members of its organization.
+ * The closure is updated when the transaction is committed, in order to ignore the changes that are rolled back.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public class OrganizationMembershipClosureListener extends AbstractEntityListener<OrganizationMembershipClosure> {
+
+	/** Change the closure to be updated.
+	 *
+	 * @param closure the closure.
+	 */
+	@Autowired
+	public void setOrganizationMembershipClosure(OrganizationMembershipClosure closure) {
+		setTarget(closure);
+	}
+
+	/** Invoked when an organization or a membership was created or updated in the database.
+	 *
+	 * @param entity the saved entity.
+	 */
+	@PostPersist
+	@PostUpdate
+	public void entitySaved(Object entity) {
+		if (entity instanceof ResearchOrganization) {
+			final ResearchOrganization organization = (ResearchOrganization) entity;
+			final int id = organization.getId();
+			final int superId = organization.getSuperOrganization() == null ? 0 : organization.getSuperOrganization().getId();
+			notifyTargetAfterCommit(closure -> closure.organizationChanged(id, superId));
+		} else if (entity instanceof Membership) {
+			membershipChanged((Membership) entity);
+		}
+	}
+
+	/** Invoked when an organization or a membership was deleted from the database.
+	 *
+	 * @param entity the deleted entity.
+	 */
+	@PostRemove
+	public void entityRemoved(Object entity) {
+		if (entity instanceof ResearchOrganization) {
+			final int id = ((ResearchOrganization) entity).getId();
+			notifyTargetAfterCommit(closure -> closure.organizationRemoved(id));
+		} else if (entity instanceof Membership) {
+			membershipChanged((Membership) entity);
+		}
+	}
+
+	private void membershipChanged(Membership membership) {
+		final int personId = membership.getPerson() == null ? 0 : membership.getPerson().getId();
+		final int organizationId = membership.getResearchOrganization() == null ? 0 : membership.getResearchOrganization().getId();
+		notifyTargetAfterCommit(closure -> closure.membershipChanged(personId, organizationId));
+	}
+
+}
@@ -16,8 +16,11 @@
 
 package fr.ciadlab.labmanager.service.organization;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import com.google.common.base.Strings;
 import fr.ciadlab.labmanager.configuration.Constants;
@@ -43,19 +46,24 @@ public class ResearchOrganizationService extends AbstractService {
 
 	private final ResearchOrganizationRepository organizationRepository;
 
+	private final OrganizationMembershipClosure organizationClosure;
+
 	/** Constructor for injector.
 	 * This constructor is defined for being invoked by the IOC injector.
 	 *
 	 * @param messages the provider of localized messages.
 	 * @param constants the accessor to the live constants.
 	 * @param organizationRepository the organization repository.
+	 * @param organizationClosure the cache of the hierarchy of the organizations.
 	 */
 	public ResearchOrganizationService(
 			@Autowired MessageSourceAccessor messages,
 			@Autowired Constants constants,
-			@Autowired ResearchOrganizationRepository organizationRepository) {
+			@Autowired ResearchOrganizationRepository organizationRepository,
+			@Autowired OrganizationMembershipClosure organizationClosure) {
 		super(messages, constants);
 		this.organizationRepository = organizationRepository;
+		this.organizationClosure = organizationClosure;
 	}
 
 	/** Replies all the research organizations.
@@ -102,6 +110,21 @@ public class ResearchOrganizationService extends AbstractService {
 		return this.organizationRepository.findDistinctByAcronymOrName(text, text);
 	}
 
+	/** Replies the research organization with the given identifier and all its suborganizations at any depth.
+	 * The hierarchy of the organizations is provided by a cache, and the organizations are loaded with their members
+	 * in a single query.
+	 *
+	 * @param identifier the identifier of the organization.
+	 * @return the organization and its suborganizations, or an empty list if the organization is unknown.
+	 */
+	public List<ResearchOrganization> getResearchOrganizationAndSubOrganizations(int identifier) {
+		final int[] identifiers = this.organizationClosure.getOrganizations(identifier);
+		if (identifiers.length == 0) {
+			return Collections.emptyList();
+		}
+		return this.organizationRepository.findDistinctByIdIn(Arrays.stream(identifiers).boxed().collect(Collectors.toList()));
+	}
+
 	/** Create a research organization.
 	 *
 	 * @param acronym the new acronym for the research organization.
@@ -0,0 +1,134 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+package fr.ciadlab.labmanager.service.publication;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import fr.ciadlab.labmanager.utils.TransactionUtils;
+
+/** Queue of the changes of the publications that must be applied to an in-memory view of the publications.
+ * <p>The changes are queued when the transaction that has changed the entities is committed, in order to ignore
+ * the changes that are rolled back and to not read the database before the changes are visible. Outside of
+ * a transaction, the changes are queued immediately.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public class PublicationChangeQueue {
+
+	private final Set<Integer> publications = new HashSet<>();
+
+	private boolean all;
+
+	/** Constructor.
+	 *
+	 * @param all indicates if the queue starts with a change of all the publications, i.e. if the view
+	 *     must be built from the database at the first {@link #poll()}.
+	 */
+	public PublicationChangeQueue(boolean all) {
+		this.all = all;
+	}
+
+	/** Queue the change of the publication with the given identifier.
+	 *
+	 * @param publicationId the identifier of the publication.
+	 */
+	public void publicationChanged(int publicationId) {
+		final Integer id = Integer.valueOf(publicationId);
+		TransactionUtils.afterCommit(() -> {
+			synchronized (this) {
+				if (!this.all) {
+					this.publications.add(id);
+				}
+			}
+		});
+	}
+
+	/** Queue a change of all the publications.
+	 */
+	public void invalidateAll() {
+		TransactionUtils.afterCommit(() -> {
+			synchronized (this) {
+				this.all = true;
+				this.publications.clear();
+			}
+		});
+	}
+
+	/** Replies if no change is queued.
+	 *
+	 * @return {@code true} if the in-memory view is up-to-date.
+	 */
+	public synchronized boolean isEmpty() {
+		return !this.all && this.publications.isEmpty();
+	}
+
+	/** Remove the queued changes and reply them.
+	 *
+	 * @return the changes.
+	 */
+	public synchronized Changes poll() {
+		final Changes changes = new Changes(this.all, new ArrayList<>(this.publications));
+		this.all = false;
+		this.publications.clear();
+		return changes;
+	}
+
+	/** Changes that were removed from a {@link PublicationChangeQueue}.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	public static final class Changes {
+
+		private final boolean all;
+
+		private final List<Integer> publications;
+
+		Changes(boolean all, List<Integer> publications) {
+			this.all = all;
+			this.publications = Collections.unmodifiableList(publications);
+		}
+
+		/** Replies if all the publications have changed.
+		 *
+		 * @return {@code true} if the view must be built again from the database.
+		 */
+		public boolean isAll() {
+			return this.all;
+		}
+
+		/** Replies the identifiers of the changed publications. It is empty if {@link #isAll()} replies {@code true}.
+		 *
+		 * @return the identifiers.
+		 */
+		public List<Integer> getPublications() {
+			return this.publications;
+		}
+
+	}
+
+}
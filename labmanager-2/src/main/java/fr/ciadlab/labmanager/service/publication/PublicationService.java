@@ -18,12 +18,16 @@ package fr.ciadlab.labmanager.service.publication;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +36,9 @@ import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.transaction.Transactional;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -41,6 +48,7 @@ import fr.ciadlab.labmanager.entities.member.Person;
 import fr.ciadlab.labmanager.entities.publication.Authorship;
 import fr.ciadlab.labmanager.entities.publication.JournalBasedPublication;
 import fr.ciadlab.labmanager.entities.publication.Publication;
+import fr.ciadlab.labmanager.entities.publication.PublicationDuplicateIndex;
 import fr.ciadlab.labmanager.entities.publication.PublicationLanguage;
 import fr.ciadlab.labmanager.entities.publication.PublicationType;
 import fr.ciadlab.labmanager.entities.publication.type.Book;
@@ -63,6 +71,7 @@ import fr.ciadlab.labmanager.repository.journal.JournalRepository;
 import fr.ciadlab.labmanager.repository.member.PersonRepository;
 import fr.ciadlab.labmanager.repository.publication.AuthorshipRepository;
 import fr.ciadlab.labmanager.repository.publication.PublicationRepository;
+import fr.ciadlab.labmanager.repository.publication.PublicationSpecifications;
 import fr.ciadlab.labmanager.service.AbstractService;
 import fr.ciadlab.labmanager.service.member.MembershipService;
 import fr.ciadlab.labmanager.service.member.PersonService;
@@ -81,9 +90,18 @@ import fr.ciadlab.labmanager.utils.names.PersonNameParser;
 import org.apache.commons.lang3.mutable.MutableBoolean;
 import org.apache.jena.ext.com.google.common.base.Strings;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure2;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.context.support.MessageSourceAccessor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 /** Service for managing the publications.
@@ -143,6 +161,10 @@ public class PublicationService extends AbstractService {
 
 	private ThesisService thesisService;
 
+	private TransactionTemplate transactionTemplate;
+
+	private int importChunkSize;
+
 	/** Constructor for injector.
 	 * This constructor is defined for being invoked by the IOC injector.
 	 *
@@ -172,6 +194,8 @@ public class PublicationService extends AbstractService {
 	 * @param patentService the service for patents.
 	 * @param reportService the service for reports.
 	 * @param thesisService the service for theses.
+	 * @param transactionManager the manager of the transactions, for importing the publications by chunks.
+	 * @param importChunkSize the number of BibTeX entries between two progress reports of the import.
 	 */
 	public PublicationService(
 			@Autowired MessageSourceAccessor messages,
@@ -197,7 +221,9 @@ public class PublicationService extends AbstractService {
 			@Autowired MiscDocumentService miscDocumentService,
 			@Autowired PatentService patentService,
 			@Autowired ReportService reportService,
-			@Autowired ThesisService thesisService) {
+			@Autowired ThesisService thesisService,
+			@Autowired PlatformTransactionManager transactionManager,
+			@Value("${labmanager.bibtex.import-chunk-size:200}") int importChunkSize) {
 		super(messages, constants);
 		this.publicationRepository = publicationRepository;
 		this.prePublicationFactory = prePublicationFactory;
@@ -222,6 +248,8 @@ public class PublicationService extends AbstractService {
 		this.patentService = patentService;
 		this.reportService = reportService;
 		this.thesisService = thesisService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.importChunkSize = Math.max(1, importChunkSize);
 	}
 
 	/** Replies all the publications from the database.
@@ -257,14 +285,43 @@ public class PublicationService extends AbstractService {
 	 * @return the publications.
 	 */
 	public Set<Publication> getPublicationsByOrganizationId(int identifier, boolean includeSubOrganizations) {
-		final Set<Person> members;
-		if (includeSubOrganizations) {
-			members = this.membershipService.getMembersOf(identifier);
-		} else {
-			members = this.membershipService.getDirectMembersOf(identifier);
-		}
-		final Set<Integer> identifiers = members.stream().map(it -> Integer.valueOf(it.getId())).collect(Collectors.toUnmodifiableSet());
-		return this.publicationRepository.findAllByAuthorshipsPersonIdIn(identifiers);
+		return this.publicationRepository.findAllByAuthorshipsPersonIdIn(
+				this.membershipService.getMemberIdentifiersOf(identifier, includeSubOrganizations));
+	}
+
+	/** Replies the specification that selects the publications that are attached to a person involved in the given organization.
+	 * This specification could be combined with the specifications from {@link PublicationSpecifications}.
+	 *
+	 * @param identifier the identifier of the organization.
+	 * @param includeSubOrganizations indicates if the members of the suborganizations are considered.
+	 * @return the specification.
+	 * @see #getPublications(Specification, Pageable)
+	 */
+	public Specification<Publication> getPublicationsByOrganizationIdFilter(int identifier, boolean includeSubOrganizations) {
+		return PublicationSpecifications.hasAuthorIn(
+				this.membershipService.getMemberIdentifiersOf(identifier, includeSubOrganizations));
+	}
+
+	/** Replies a page of the publications from the database that are matching the given specification.
+	 * The filtering, the sorting and the paging are done by the database.
+	 *
+	 * @param filter the specification of the publications to reply, or {@code null} for all the publications.
+	 * @param pageable the definition of the page to reply, including the sorting criteria.
+	 * @return the page of publications.
+	 * @see PublicationSpecifications
+	 */
+	public Page<Publication> getPublications(Specification<Publication> filter, Pageable pageable) {
+		return this.publicationRepository.findAll(filter, pageable);
+	}
+
+	/** Replies the number of publications from the database that are matching the given specification.
+	 *
+	 * @param filter the specification of the publications to count, or {@code null} for all the publications.
+	 * @return the number of publications.
+	 * @see PublicationSpecifications
+	 */
+	public long countPublications(Specification<Publication> filter) {
+		return this.publicationRepository.count(filter);
 	}
 
 	/** Replies the publication with the given identifier.
@@ -298,6 +355,58 @@ public class PublicationService extends AbstractService {
 		return this.publicationRepository.findAllByTitleIgnoreCase(title);
 	}
 
+	/** Replies the publications that may be duplicates of the given publication.
+	 * The candidates are the publications with the same normalized DOI, the same normalized HAL identifier
+	 * or the same title fingerprint as the given publication, and the publications that were published
+	 * the same year, the year before or the year after, with at least one pair of significant words in common
+	 * in their titles (see {@link PublicationDuplicateIndex}). They are retrieved with the indexes of the
+	 * publication table. The caller is in charge of the fine-grained comparison of the candidates.
+	 *
+	 * @param publication the publication to search for, that may be not saved in the database.
+	 * @return the candidates for duplicate.
+	 * @since 2.0.0
+	 */
+	public List<Publication> getDuplicateCandidates(Publication publication) {
+		final String doiKey = PublicationDuplicateIndex.normalizeDoi(publication.getDOI());
+		final String halIdKey = PublicationDuplicateIndex.normalizeHalId(publication.getHalId());
+		final String titleFingerprint = PublicationDuplicateIndex.getTitleFingerprint(publication.getTitle());
+		final Set<String> titleKeys = PublicationDuplicateIndex.getTitleKeys(publication.getTitle());
+		final Map<Integer, Publication> candidates = new LinkedHashMap<>();
+		if (doiKey != null || halIdKey != null || titleFingerprint != null) {
+			for (final Publication candidate : this.publicationRepository.findAllByDuplicateKeys(doiKey, halIdKey, titleFingerprint)) {
+				candidates.putIfAbsent(Integer.valueOf(candidate.getId()), candidate);
+			}
+		}
+		if (!titleKeys.isEmpty()) {
+			final int year = publication.getPublicationYear();
+			for (final Publication candidate : this.publicationRepository.findAllByTitleKeys(titleKeys, year - 1, year + 1)) {
+				candidates.putIfAbsent(Integer.valueOf(candidate.getId()), candidate);
+			}
+		}
+		return new ArrayList<>(candidates.values());
+	}
+
+	/** Compute the normalized keys that are used for detecting duplicates for the publications that
+	 * were saved without them. This function is invoked when the application is started.
+	 *
+	 * @return the number of updated publications.
+	 * @since 2.0.0
+	 * @see Publication#updateDuplicateKeys()
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional
+	public int updateDuplicateKeys() {
+		final List<Publication> publications = this.publicationRepository.findAllWithoutDuplicateKeys();
+		for (final Publication publication : publications) {
+			publication.updateDuplicateKeys();
+		}
+		if (!publications.isEmpty()) {
+			this.publicationRepository.saveAll(publications);
+			getLogger().info("Duplicate keys computed for " + publications.size() + " publications"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return publications.size();
+	}
+
 	/** Replies the authors of the publication with the given identifier.
 	 * 
 	 * @param publicationId the identifier of the publication.
@@ -335,47 +444,123 @@ public class PublicationService extends AbstractService {
 			final Optional<Publication> optPub = this.publicationRepository.findById(Integer.valueOf(publicationId));
 			if (optPub.isPresent()) {
 				final Publication publication = optPub.get();
-				// No need to add the authorship if the person is already linked to the publication
 				final Set<Authorship> currentAuthors = publication.getAuthorshipsRaw();
-				final Optional<Authorship> ro = currentAuthors.stream().filter(
-						it -> it.getPerson().getId() == personId).findAny();
-				if (ro.isEmpty()) {
-					final Person person = optPerson.get();
-					final Authorship authorship = new Authorship();
-					authorship.setPerson(person);
-					authorship.setPublication(publication);
-					final int realRank;
-					if (updateOtherAuthorshipRanks) {
-						if (rank > currentAuthors.size()) {
-							// Insert at the end
-							realRank = currentAuthors.size();
-						} else {
-							// Need to be inserted
-							realRank = rank < 0 ? 0 : rank;
-							for (final Authorship currentAuthor : currentAuthors) {
-								final int orank = currentAuthor.getAuthorRank();
-								if (orank >= rank) {
-									currentAuthor.setAuthorRank(orank + 1);
-									this.authorshipRepository.save(currentAuthor);
-								}
-							}
-						}
-					} else {
-						realRank = rank;
-					}
-					authorship.setAuthorRank(realRank);
-					currentAuthors.add(authorship);
-					publication.getAuthorshipsRaw().add(authorship);
-					this.authorshipRepository.save(authorship);
-					this.personRepository.save(person);
-					this.publicationRepository.save(publication);
-					return authorship;
+				if (Hibernate.isInitialized(currentAuthors)) {
+					return addAuthorshipInMemory(optPerson.get(), publication, currentAuthors, rank, updateOtherAuthorshipRanks);
 				}
+				return addAuthorshipInDatabase(optPerson.get(), publication, rank, updateOtherAuthorshipRanks);
 			}
 		}
 		return null;
 	}
 
+	/** Link a person and a publication when the authorships of the publication are already loaded.
+	 * The loaded authorships are updated, and the changed authorships are saved with a single batch.
+	 */
+	private Authorship addAuthorshipInMemory(Person person, Publication publication, Set<Authorship> currentAuthors,
+			int rank, boolean updateOtherAuthorshipRanks) {
+		// No need to add the authorship if the person is already linked to the publication
+		final Optional<Authorship> ro = currentAuthors.stream().filter(
+				it -> it.getPerson().getId() == person.getId()).findAny();
+		if (ro.isPresent()) {
+			return null;
+		}
+		final List<Authorship> changedAuthorships = new ArrayList<>();
+		final int realRank;
+		if (updateOtherAuthorshipRanks) {
+			if (rank > currentAuthors.size()) {
+				// Insert at the end
+				realRank = currentAuthors.size();
+			} else {
+				// Need to be inserted
+				realRank = rank < 0 ? 0 : rank;
+				for (final Authorship currentAuthor : currentAuthors) {
+					final int orank = currentAuthor.getAuthorRank();
+					if (orank >= rank) {
+						currentAuthor.setAuthorRank(orank + 1);
+						changedAuthorships.add(currentAuthor);
+					}
+				}
+			}
+		} else {
+			realRank = rank;
+		}
+		final Authorship authorship = new Authorship();
+		authorship.setPerson(person);
+		authorship.setPublication(publication);
+		authorship.setAuthorRank(realRank);
+		currentAuthors.add(authorship);
+		if (!changedAuthorships.isEmpty()) {
+			this.authorshipRepository.saveAll(changedAuthorships);
+		}
+		this.authorshipRepository.save(authorship);
+		return authorship;
+	}
+
+	/** Link a person and a publication when the authorships of the publication are not loaded.
+	 * The authorships are not loaded; the ranks of the other authors are changed with a single update statement.
+	 */
+	private Authorship addAuthorshipInDatabase(Person person, Publication publication, int rank, boolean updateOtherAuthorshipRanks) {
+		// No need to add the authorship if the person is already linked to the publication
+		if (this.authorshipRepository.existsByPersonIdAndPublicationId(person.getId(), publication.getId())) {
+			return null;
+		}
+		final int realRank;
+		if (updateOtherAuthorshipRanks) {
+			final int size = (int) this.authorshipRepository.countByPublicationId(publication.getId());
+			if (rank > size) {
+				// Insert at the end
+				realRank = size;
+			} else {
+				// Need to be inserted
+				realRank = rank < 0 ? 0 : rank;
+				this.authorshipRepository.incrementAuthorRanks(publication.getId(), realRank);
+			}
+		} else {
+			realRank = rank;
+		}
+		final Authorship authorship = new Authorship();
+		authorship.setPerson(person);
+		authorship.setPublication(publication);
+		authorship.setAuthorRank(realRank);
+		this.authorshipRepository.save(authorship);
+		return authorship;
+	}
+
+	/** Link the given persons to the publication, after the current authors of the publication.
+	 * The authorships are saved with a single batch of insert statements, and the ranks of the
+	 * current authors are not changed. The persons who are already authors of the publication are ignored.
+	 *
+	 * @param publication the publication, that must be already saved in the database.
+	 * @param authors the ordered list of the persons to add as authors. They must be already saved in the database.
+	 * @return the added authorships.
+	 */
+	public List<Authorship> addAuthorships(Publication publication, List<? extends Person> authors) {
+		final Set<Authorship> currentAuthorships = publication.getAuthorshipsRaw();
+		final Set<Integer> currentAuthors = new HashSet<>();
+		int rank = 0;
+		for (final Authorship authorship : currentAuthorships) {
+			currentAuthors.add(Integer.valueOf(authorship.getPerson().getId()));
+			rank = Math.max(rank, authorship.getAuthorRank() + 1);
+		}
+		final List<Authorship> newAuthorships = new ArrayList<>(authors.size());
+		for (final Person author : authors) {
+			if (currentAuthors.add(Integer.valueOf(author.getId()))) {
+				final Authorship authorship = new Authorship();
+				authorship.setPerson(author);
+				authorship.setPublication(publication);
+				authorship.setAuthorRank(rank);
+				newAuthorships.add(authorship);
+				++rank;
+			}
+		}
+		if (!newAuthorships.isEmpty()) {
+			this.authorshipRepository.saveAll(newAuthorships);
+			currentAuthorships.addAll(newAuthorships);
+		}
+		return newAuthorships;
+	}
+
 	/** Remove the publication with the given identifier.
 	 *
 	 * @param identifier the identifier of the publication to remove.
@@ -443,14 +628,10 @@ public class PublicationService extends AbstractService {
 					this.journalRepository.save(jour);
 				}
 			}
-			if (authors != null) {
+			if (authors != null && !authors.isEmpty()) {
 				// Create the list of authors from the temporary (not yet saved) list. 
-				int rank = 0;
-				for (final Person author : authors) {
-					this.personRepository.save(author);
-					addAuthorship(author.getId(), publication.getId(), rank, false);
-					++rank;
-				}
+				this.personRepository.saveAll(authors);
+				addAuthorships(publication, authors);
 			}
 		}
 	}
@@ -496,111 +677,225 @@ public class PublicationService extends AbstractService {
 	 * @see BibTeX
 	 * @see "https://en.wikipedia.org/wiki/BibTeX"
 	 */
-	@SuppressWarnings("null")
 	public List<Integer> importPublications(Reader bibtex, Map<String, PublicationType> importedEntriesWithExpectedType) throws Exception {
-		// Holds the publications that we are trying to import.
-		// The publications are not yet imported into the database.
-		final List<Publication> importablePublications = readPublicationsFromBibTeX(bibtex, true, false, true);
+		return importPublications(bibtex, importedEntriesWithExpectedType, null);
+	}
 
+	/** Import publications from a BibTeX string. The format of the BibTeX is a standard that is briefly described
+	 * on {@link "https://en.wikipedia.org/wiki/BibTeX"}.
+	 * If multiple BibTeX entries are defined into the given input string, each of them is subject
+	 * of an importation tentative. If the import process is successful, the database identifier of the publication
+	 * is replied.
+	 * <p>The BibTeX entries are read incrementally, and they are imported by chunks. Each publication is imported
+	 * within its own transaction, in order to not cancel the other publications of the chunk when the import of a
+	 * publication fails. The size of the chunks, which defines the frequency of the progress reports, is defined by
+	 * the property {@code labmanager.bibtex.import-chunk-size}.
+	 *
+	 * @param bibtex the stream that contains the BibTeX description of the publications.
+	 * @param importedEntriesWithExpectedType a map that list the entries to import (keys corresponds to the BibTeX keys) and the
+	 *      expected publication type (as the map values) or {@code null} map value if we accept the "default" publication type.
+	 *      If this argument is {@code null} or the map is empty, then all the BibTeX entries will be imported.
+	 * @param progress the callback that is invoked after the import of each chunk, with the number of read BibTeX entries
+	 *      and the number of imported publications as arguments. It may be {@code null}.
+	 * @return the list of the identifiers of the publications that are successfully imported.
+	 * @throws Exception if it is impossible to parse the given BibTeX source.
+	 * @see BibTeX
+	 * @see "https://en.wikipedia.org/wiki/BibTeX"
+	 * @since 2.0.0
+	 */
+	public List<Integer> importPublications(Reader bibtex, Map<String, PublicationType> importedEntriesWithExpectedType,
+			Procedure2<Integer, Integer> progress) throws Exception {
 		//Holds the IDs of the successfully imported IDs. We'll need it for type differenciation later.
 		final List<Integer> importedPublicationIdentifiers = new ArrayList<>();
 
-		//We are going to try to import every publication in the list
+		//We are going to try to import every publication in the stream
 		final List<Throwable> errors = new LinkedList<>();
 		final boolean forceImport = importedEntriesWithExpectedType == null || importedEntriesWithExpectedType.isEmpty();
-		for (final Publication publication : importablePublications) {
-			try {
-				// Test if this publication should be imported
-				final boolean isImport;
-				final PublicationType expectedType;
-				if (forceImport) {
-					isImport = true;
-					if (importedEntriesWithExpectedType != null) {
-						expectedType = importedEntriesWithExpectedType.get(publication.getPreferredStringId());
-					} else {
-						expectedType = null;
+
+		// Holds the publications that we are trying to import.
+		// The publications are not yet imported into the database.
+		try (final Stream<Publication> importablePublications = this.bibtex.getPublicationStreamFrom(bibtex, true, false, true)) {
+			final Iterator<Publication> iterator = importablePublications.iterator();
+			final List<Publication> chunk = new ArrayList<>(this.importChunkSize);
+			int readEntries = 0;
+			while (iterator.hasNext()) {
+				chunk.add(iterator.next());
+				++readEntries;
+				if (chunk.size() >= this.importChunkSize || !iterator.hasNext()) {
+					for (final Publication publication : chunk) {
+						importPublicationInTransaction(publication, forceImport, importedEntriesWithExpectedType,
+								importedPublicationIdentifiers, errors);
 					}
-				} else {
-					assert importedEntriesWithExpectedType != null;
-					isImport = importedEntriesWithExpectedType.containsKey(publication.getPreferredStringId());
-					if (isImport) {
-						expectedType = importedEntriesWithExpectedType.get(publication.getPreferredStringId());
-					} else {
-						expectedType = null;
+					chunk.clear();
+					getLogger().info("BibTeX import: " + readEntries + " entries read, " //$NON-NLS-1$ //$NON-NLS-2$
+							+ importedPublicationIdentifiers.size() + " publications imported"); //$NON-NLS-1$
+					if (progress != null) {
+						progress.apply(Integer.valueOf(readEntries), Integer.valueOf(importedPublicationIdentifiers.size()));
 					}
 				}
+			}
+		}
+
+		if (!errors.isEmpty()) {
+			throw new ComposedException(errors);
+		}
+		return importedPublicationIdentifiers;
+	}
+
+	/** Import a single publication that is extracted from a BibTeX source, within its own transaction.
+	 * The transaction is rolled back if the publication cannot be imported.
+	 *
+	 * @param publication the publication to import.
+	 * @param forceImport indicates if all the publications are imported.
+	 * @param importedEntriesWithExpectedType a map that list the entries to import and the expected publication types.
+	 * @param importedPublicationIdentifiers the list of the identifiers of the imported publications that is filled by this function.
+	 * @param errors the list of the errors that is filled by this function.
+	 */
+	private void importPublicationInTransaction(Publication publication, boolean forceImport,
+			Map<String, PublicationType> importedEntriesWithExpectedType,
+			List<Integer> importedPublicationIdentifiers, List<Throwable> errors) {
+		final List<Integer> identifiers = new ArrayList<>(1);
+		final List<Throwable> publicationErrors = new ArrayList<>(1);
+		try {
+			this.transactionTemplate.executeWithoutResult(status -> {
+				importPublication(publication, forceImport, importedEntriesWithExpectedType, identifiers, publicationErrors);
+				if (!publicationErrors.isEmpty()) {
+					status.setRollbackOnly();
+				}
+			});
+			importedPublicationIdentifiers.addAll(identifiers);
+		} catch (RuntimeException ex) {
+			// The transaction cannot be committed, e.g., because of a constraint violation
+			if (publicationErrors.isEmpty()) {
+				final Throwable ex0 = new IllegalArgumentException("Unable to import the publication from BibTeX: " //$NON-NLS-1$
+						+ publication.getTitle(), ex);
+				getLogger().error(ex0.getLocalizedMessage(), ex0);
+				publicationErrors.add(ex0);
+			}
+		}
+		errors.addAll(publicationErrors);
+	}
+
+	/** Import a single publication that is extracted from a BibTeX source.
+	 *
+	 * @param publication the publication to import.
+	 * @param forceImport indicates if all the publications are imported.
+	 * @param importedEntriesWithExpectedType a map that list the entries to import and the expected publication types.
+	 * @param importedPublicationIdentifiers the list of the identifiers of the imported publications that is filled by this function.
+	 * @param errors the list of the errors that is filled by this function.
+	 */
+	@SuppressWarnings("null")
+	private void importPublication(Publication publication, boolean forceImport, Map<String, PublicationType> importedEntriesWithExpectedType,
+			List<Integer> importedPublicationIdentifiers, List<Throwable> errors) {
+		try {
+			// Test if this publication should be imported
+			final boolean isImport;
+			final PublicationType expectedType;
+			if (forceImport) {
+				isImport = true;
+				if (importedEntriesWithExpectedType != null) {
+					expectedType = importedEntriesWithExpectedType.get(publication.getPreferredStringId());
+				} else {
+					expectedType = null;
+				}
+			} else {
+				assert importedEntriesWithExpectedType != null;
+				isImport = importedEntriesWithExpectedType.containsKey(publication.getPreferredStringId());
 				if (isImport) {
-					// Change the publication type according to the expected type provided as argument of this function
-					if (expectedType != null) {
-						if (!publication.getType().isCompatibleWith(expectedType)) {
-							throw new IllegalArgumentException(
-									getMessage("publicationService.IncompatibleBibTeXEntryType", //$NON-NLS-1$
-											publication.getPreferredStringId(),
-											publication.getType().name(),
-											publication.getType().getLabel(),
-											expectedType.name(),
-											expectedType.getLabel()));
-						}
-						publication.setType(expectedType);
+					expectedType = importedEntriesWithExpectedType.get(publication.getPreferredStringId());
+				} else {
+					expectedType = null;
+				}
+			}
+			if (isImport) {
+				// Change the publication type according to the expected type provided as argument of this function
+				if (expectedType != null) {
+					if (!publication.getType().isCompatibleWith(expectedType)) {
+						throw new IllegalArgumentException(
+								getMessage("publicationService.IncompatibleBibTeXEntryType", //$NON-NLS-1$
+										publication.getPreferredStringId(),
+										publication.getType().name(),
+										publication.getType().getLabel(),
+										expectedType.name(),
+										expectedType.getLabel()));
 					}
+					publication.setType(expectedType);
+				}
 
-					// Add the publication to the database and get the new assigned identifier
-					this.publicationRepository.save(publication);
-					final int publicationId = publication.getId();
-					final Integer publicationIdObj = Integer.valueOf(publicationId);
+				// Add the publication to the database and get the new assigned identifier
+				this.publicationRepository.save(publication);
+				final int publicationId = publication.getId();
+				final Integer publicationIdObj = Integer.valueOf(publicationId);
 		
-					// Adding the id of the current publication to the list
-					importedPublicationIdentifiers.add(publicationIdObj);
+				// Adding the id of the current publication to the list
+				importedPublicationIdentifiers.add(publicationIdObj);
 		
-					// For every authors assigned to this publication, save them into the database
-					final List<Person> authors = publication.getAuthors();
-					publication.setTemporaryAuthors(null);
-					int rank = 0;
+				// For every authors assigned to this publication, save them into the database
+				final List<Person> authors = publication.getAuthors();
+				publication.setTemporaryAuthors(null);
+				try {
+					final List<Person> newAuthors = new ArrayList<>();
+					final List<Integer> knownAuthors = new ArrayList<>();
+					final Person[] resolvedAuthors = new Person[authors.size()];
+					int i = 0;
 					for (final Person author : authors) {
-						try {
-							// Search for a person with a "similar name"
-							int personId = this.personService.getPersonIdBySimilarName(
-									author.getFirstName(), author.getLastName());
-							// Create new author if is not inside the database.
-							// If we've already got the author with the abbreviated first name in DB, 
-							// but the one parsed have the full version, it creates a new author
-							if (personId == 0) {
-								this.personRepository.save(author);
-								personId = author.getId();
-							}
-							// Assigning authorship
-							addAuthorship(personId, publicationId, rank, false);
-							this.publicationRepository.save(publication);
-		
-							// Check if the newly imported pub has at least one authorship.
-							// If not, it's a bad case and the pub have to be removed and marked as failed
-							if (getAuthorsFor(publicationId).isEmpty()) {
-								throw new IllegalArgumentException("No author for publication id=" + publicationId); //$NON-NLS-1$
-							}
-							++rank;
-						} catch (Exception ex) {
-							// Even if a larger try catch for exceptions exists, we need to delete
-							// first the imported publication and linked authorship
-							importedPublicationIdentifiers.remove(publicationIdObj);
-							for (final Authorship toRemove : this.authorshipRepository.findByPublicationId(publicationId)) {
-								this.authorshipRepository.deleteById(Integer.valueOf(toRemove.getId()));
+						// Search for a person with a "similar name"
+						final int personId = this.personService.getPersonIdBySimilarName(
+								author.getFirstName(), author.getLastName());
+						// Create new author if is not inside the database.
+						// If we've already got the author with the abbreviated first name in DB, 
+						// but the one parsed have the full version, it creates a new author
+						if (personId == 0) {
+							newAuthors.add(author);
+							resolvedAuthors[i] = author;
+						} else {
+							knownAuthors.add(Integer.valueOf(personId));
+						}
+						++i;
+					}
+					// The new authors are saved and the known authors are loaded with single requests
+					if (!newAuthors.isEmpty()) {
+						this.personRepository.saveAll(newAuthors);
+					}
+					if (!knownAuthors.isEmpty()) {
+						final Map<Integer, Person> persons = new HashMap<>();
+						for (final Person person : this.personRepository.findAllById(knownAuthors)) {
+							persons.put(Integer.valueOf(person.getId()), person);
+						}
+						final Iterator<Integer> knownIterator = knownAuthors.iterator();
+						for (i = 0; i < resolvedAuthors.length; ++i) {
+							if (resolvedAuthors[i] == null) {
+								resolvedAuthors[i] = persons.get(knownIterator.next());
 							}
-							this.publicationRepository.deleteById(publicationIdObj);
-							throw ex;
 						}
 					}
+					final List<Person> orderedAuthors = Arrays.stream(resolvedAuthors).filter(it -> it != null).collect(Collectors.toList());
+					// Assigning authorships
+					final List<Authorship> authorships = addAuthorships(publication, orderedAuthors);
+
+					// Check if the newly imported pub has at least one authorship.
+					// If not, it's a bad case and the pub have to be removed and marked as failed
+					if (authorships.isEmpty()) {
+						throw new IllegalArgumentException("No author for publication id=" + publicationId); //$NON-NLS-1$
+					}
+				} catch (Exception ex) {
+					// Even if a larger try catch for exceptions exists, we need to delete
+					// first the imported publication and linked authorship
+					importedPublicationIdentifiers.remove(publicationIdObj);
+					final List<Authorship> toRemove = this.authorshipRepository.findByPublicationId(publicationId);
+					if (!toRemove.isEmpty()) {
+						this.authorshipRepository.deleteAll(toRemove);
+					}
+					this.publicationRepository.deleteById(publicationIdObj);
+					throw ex;
 				}
-			} catch (Throwable ex) {
-				final Throwable ex0 = new IllegalArgumentException("Unable to import the publication from BibTeX: " //$NON-NLS-1$
-						+ publication.getTitle(), ex);
-				getLogger().error(ex0.getLocalizedMessage(), ex0);
-				errors.add(ex0);
 			}
+		} catch (Throwable ex) {
+			final Throwable ex0 = new IllegalArgumentException("Unable to import the publication from BibTeX: " //$NON-NLS-1$
+					+ publication.getTitle(), ex);
+			getLogger().error(ex0.getLocalizedMessage(), ex0);
+			errors.add(ex0);
 		}
-		if (!errors.isEmpty()) {
-			throw new ComposedException(errors);
-		}
-		return importedPublicationIdentifiers;
 	}
 
 	/**
@@ -647,6 +942,20 @@ public class PublicationService extends AbstractService {
 		return this.odt.exportPublications(publications, configurator);
 	}
 
+	/**
+	 * Export function for Open Document Text that writes the publications directly into the given stream.
+	 * The ODT document of all the publications is not built in memory.
+	 *
+	 * @param publications the array of publications that should be exported.
+	 * @param configurator the configurator of the exporter.
+	 * @param output the stream to write into. This stream is not closed by this function.
+	 * @throws Exception if it is impossible to generate the ODT for the publications.
+	 */
+	public void exportOdtToStream(Iterable<? extends Publication> publications, ExporterConfigurator configurator,
+			OutputStream output) throws Exception {
+		this.odt.exportPublicationsToStream(publications, configurator, output);
+	}
+
 	/**
 	 * Export function for JSON using a list of publication identifiers.
 	 *
@@ -664,6 +973,22 @@ public class PublicationService extends AbstractService {
 		return this.json.exportPublicationsWithRootKeys(publications, configurator, rootKeys);
 	}
 
+	/**
+	 * Export function for JSON that writes the publications directly into the given stream.
+	 * The JSON tree of all the publications is not built in memory.
+	 *
+	 * @param publications the array of publications that should be exported.
+	 * @param configurator the configurator of the exporter.
+	 * @param output the stream to write into. This stream is not closed by this function.
+	 * @param rootKeys the sequence of keys for building the root of the tree. The exported data is then
+	 *     output into the last created node with the {@code rootKeys}.
+	 * @throws Exception if it is impossible to generate the JSON for the publications.
+	 */
+	public void exportJsonToStream(Iterable<? extends Publication> publications, ExporterConfigurator configurator,
+			OutputStream output, String... rootKeys) throws Exception {
+		this.json.exportPublicationsToStream(publications, configurator, output, rootKeys);
+	}
+
 	/**
 	 * Export function for JSON using a list of publication identifiers.
 	 *
@@ -1239,6 +1564,8 @@ public class PublicationService extends AbstractService {
 				it -> Integer.valueOf(it.getPerson().getId()),
 				it -> it);
 		final Map<Integer, Authorship> oldIds = oldAuthorships.stream().collect(col);
+		final List<Authorship> changedAuthorships = new ArrayList<>();
+		final Set<Integer> addedAuthors = new HashSet<>();
 		final Pattern idPattern = Pattern.compile("\\d+"); //$NON-NLS-1$
 		int rank = 0;
 		for (final String author : authors) {
@@ -1277,24 +1604,28 @@ public class PublicationService extends AbstractService {
 				person = optPers.get();
 			}
 			assert person != null;
-			oldIds.remove(Integer.valueOf(person.getId()));
-			final Person fperson = person;
-			final Optional<Authorship> optAut = oldAuthorships.stream().filter(it -> it.getPerson().getId() == fperson.getId()).findFirst();
-			if (optAut.isPresent()) {
-				// Author is already present in the authorships
-				final Authorship authorship = optAut.get();
-				authorship.setPerson(person);
-				authorship.setAuthorRank(rank);
-				authorship.setPublication(publication);
-				this.authorshipRepository.save(authorship);
-				oldIds.remove(Integer.valueOf(authorship.getId()));
-				getLogger().info("Author \"" + person.getFullName() //$NON-NLS-1$
-						+ "\" updated for the publication with id " //$NON-NLS-1$
-						+ publication.getId());
-			} else {
-				// Author was not associated yet
-				addAuthorship(person.getId(), publication.getId(), rank, false);
-				getLogger().info("Author \"" + person.getFullName()+ "\" added to publication with id " + publication.getId()); //$NON-NLS-1$ //$NON-NLS-2$
+			final Integer personKey = Integer.valueOf(person.getId());
+			if (addedAuthors.add(personKey)) {
+				final Authorship oldAuthorship = oldIds.remove(personKey);
+				if (oldAuthorship != null) {
+					// Author is already present in the authorships; only its rank may change
+					if (oldAuthorship.getAuthorRank() != rank) {
+						oldAuthorship.setAuthorRank(rank);
+						changedAuthorships.add(oldAuthorship);
+					}
+					getLogger().info("Author \"" + person.getFullName() //$NON-NLS-1$
+							+ "\" updated for the publication with id " //$NON-NLS-1$
+							+ publication.getId());
+				} else {
+					// Author was not associated yet
+					final Authorship authorship = new Authorship();
+					authorship.setPerson(person);
+					authorship.setPublication(publication);
+					authorship.setAuthorRank(rank);
+					publication.getAuthorshipsRaw().add(authorship);
+					changedAuthorships.add(authorship);
+					getLogger().info("Author \"" + person.getFullName()+ "\" added to publication with id " + publication.getId()); //$NON-NLS-1$ //$NON-NLS-2$
+				}
 			}
 			++rank;
 		}
@@ -1302,11 +1633,16 @@ public class PublicationService extends AbstractService {
 		for (final Authorship oldAutshp : oldIds.values()) {
 			publication.getAuthorshipsRaw().remove(oldAutshp);
 			final Person oldAuthor = oldAutshp.getPerson();
-			oldAuthor.getAuthorships().remove(oldAutshp);
-			oldAutshp.setPerson(null);
-			oldAutshp.setPublication(null);
-			this.personRepository.save(oldAuthor);
-			this.authorshipRepository.deleteById(Integer.valueOf(oldAutshp.getId()));
+			if (Hibernate.isInitialized(oldAuthor.getAuthorships())) {
+				oldAuthor.getAuthorships().remove(oldAutshp);
+			}
+		}
+		// The new, changed and removed authorships are written with batches of statements
+		if (!changedAuthorships.isEmpty()) {
+			this.authorshipRepository.saveAll(changedAuthorships);
+		}
+		if (!oldIds.isEmpty()) {
+			this.authorshipRepository.deleteAll(oldIds.values());
 		}
 		this.publicationRepository.save(publication);
 		this.authorshipRepository.flush();
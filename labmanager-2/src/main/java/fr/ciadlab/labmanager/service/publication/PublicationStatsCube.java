@@ -0,0 +1,234 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+package fr.ciadlab.labmanager.service.publication;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import fr.ciadlab.labmanager.entities.publication.Authorship;
+import fr.ciadlab.labmanager.entities.publication.Publication;
+import fr.ciadlab.labmanager.entities.publication.PublicationType;
+import fr.ciadlab.labmanager.repository.publication.PublicationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** Aggregated numbers of publications per author, year, type of publication and ranking.
+ * <p>The cube contains a cell for each couple (author, year) with the numbers of publications for each type
+ * and ranking, and a cell for each year with the numbers of all the publications. It is built from the database
+ * on the first query. Then, the changes of the publications and the authorships are notified by the
+ * {@link PublicationStatsListener}, and only the changed publications are read again from the database before
+ * the next query. A change of a journal or of a journal indicator may change the ranking of many publications;
+ * the whole cube is then built again on the next query.
+ * The changes are queued in a {@link PublicationChangeQueue} until the transaction is committed.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+@Component
+public class PublicationStatsCube {
+
+	/** Identifier that is used for the cells of all the publications.
+	 */
+	private static final Integer ALL_AUTHORS = Integer.valueOf(0);
+
+	private static final int NB_TYPES = PublicationType.values().length;
+
+	private final PublicationRepository publicationRepository;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final Map<Integer, Entry> entries = new HashMap<>();
+
+	private final Map<Integer, Map<Integer, int[]>> cells = new HashMap<>();
+
+	private final PublicationChangeQueue changes = new PublicationChangeQueue(true);
+
+	/** Constructor for injector.
+	 * This constructor is defined for being invoked by the IOC injector.
+	 *
+	 * @param publicationRepository the repository of the publications.
+	 * @param transactionManager the manager of the transactions in which the publications are read.
+	 */
+	public PublicationStatsCube(
+			@Autowired PublicationRepository publicationRepository,
+			@Autowired PlatformTransactionManager transactionManager) {
+		this.publicationRepository = publicationRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+	}
+
+	/** Notify the cube that the publication with the given identifier has changed, or that one of its
+	 * authorships has changed.
+	 *
+	 * @param publicationId the identifier of the publication.
+	 */
+	public void publicationChanged(int publicationId) {
+		this.changes.publicationChanged(publicationId);
+	}
+
+	/** Notify the cube that data that may change the numbers of many publications has changed.
+	 */
+	public void invalidateAll() {
+		this.changes.invalidateAll();
+	}
+
+	/** Invoke the given consumer for each non-zero number of publications of the given author.
+	 * The changes that were notified since the last query are applied before.
+	 *
+	 * @param personId the identifier of the author, or {@code 0} for all the publications.
+	 * @param consumer the consumer of the numbers of publications.
+	 */
+	public synchronized void forEachCount(int personId, CountConsumer consumer) {
+		refresh();
+		final Map<Integer, int[]> years = this.cells.get(Integer.valueOf(personId));
+		if (years != null) {
+			final PublicationType[] types = PublicationType.values();
+			for (final Map.Entry<Integer, int[]> year : new TreeMap<>(years).entrySet()) {
+				final int[] counts = year.getValue();
+				for (int i = 0; i < counts.length; ++i) {
+					if (counts[i] > 0) {
+						consumer.accept(year.getKey().intValue(), types[i / 2], i % 2 != 0, counts[i]);
+					}
+				}
+			}
+		}
+	}
+
+	/** Apply the notified changes. This function must be invoked with the lock on this cube.
+	 */
+	private void refresh() {
+		final PublicationChangeQueue.Changes changed = this.changes.poll();
+		final List<Integer> publications = changed.getPublications();
+		if (changed.isAll()) {
+			this.entries.clear();
+			this.cells.clear();
+			this.transactionTemplate.executeWithoutResult(status -> {
+				for (final Publication publication : this.publicationRepository.findAll()) {
+					put(publication.getId(), new Entry(publication));
+				}
+			});
+		} else if (!publications.isEmpty()) {
+			this.transactionTemplate.executeWithoutResult(status -> {
+				final Map<Integer, Publication> loaded = new HashMap<>();
+				for (final Publication publication : this.publicationRepository.findAllById(publications)) {
+					loaded.put(Integer.valueOf(publication.getId()), publication);
+				}
+				for (final Integer id : publications) {
+					final Publication publication = loaded.get(id);
+					put(id.intValue(), publication == null ? null : new Entry(publication));
+				}
+			});
+		}
+	}
+
+	/** Replace the entry of the publication and update the cells.
+	 *
+	 * @param publicationId the identifier of the publication.
+	 * @param entry the new entry, or {@code null} if the publication was deleted.
+	 */
+	private void put(int publicationId, Entry entry) {
+		final Integer id = Integer.valueOf(publicationId);
+		final Entry old = entry == null ? this.entries.remove(id) : this.entries.put(id, entry);
+		if (old != null) {
+			add(old, -1);
+		}
+		if (entry != null) {
+			add(entry, 1);
+		}
+	}
+
+	private void add(Entry entry, int delta) {
+		final int index = entry.type.ordinal() * 2 + (entry.ranked ? 1 : 0);
+		final Integer year = Integer.valueOf(entry.year);
+		add(ALL_AUTHORS, year, index, delta);
+		for (final int author : entry.authors) {
+			add(Integer.valueOf(author), year, index, delta);
+		}
+	}
+
+	private void add(Integer personId, Integer year, int index, int delta) {
+		final Map<Integer, int[]> years = this.cells.computeIfAbsent(personId, it -> new HashMap<>());
+		final int[] counts = years.computeIfAbsent(year, it -> new int[NB_TYPES * 2]);
+		counts[index] += delta;
+	}
+
+	/** Consumer of the numbers of publications that are stored in a {@link PublicationStatsCube}.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	@FunctionalInterface
+	public interface CountConsumer {
+
+		/** Invoked for a number of publications.
+		 *
+		 * @param year the year of publication.
+		 * @param type the type of the publications.
+		 * @param ranked indicates if the publications are ranked.
+		 * @param count the number of publications, always strictly positive.
+		 */
+		void accept(int year, PublicationType type, boolean ranked, int count);
+
+	}
+
+	/** Data of a publication that are aggregated in the cube.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	private static final class Entry {
+
+		final int year;
+
+		final PublicationType type;
+
+		final boolean ranked;
+
+		final int[] authors;
+
+		Entry(Publication publication) {
+			this.year = publication.getPublicationYear();
+			this.type = publication.getType();
+			this.ranked = publication.isRanked();
+			final Collection<Authorship> authorships = publication.getAuthorshipsRaw();
+			final Set<Integer> persons = new HashSet<>();
+			for (final Authorship authorship : authorships) {
+				if (authorship.getPerson() != null) {
+					persons.add(Integer.valueOf(authorship.getPerson().getId()));
+				}
+			}
+			this.authors = persons.stream().mapToInt(it -> it.intValue()).toArray();
+		}
+
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+package fr.ciadlab.labmanager.service.publication;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import fr.ciadlab.labmanager.entities.publication.Authorship;
+import fr.ciadlab.labmanager.entities.publication.Publication;
+import fr.ciadlab.labmanager.utils.AbstractEntityListener;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/** JPA listener on the entities that are aggregated in the {@link PublicationStatsCube}.
+ * The changes of a publication or an authorship are notified for the associated publication. The changes of
+ * the other entities, i.e. the journals and the journal indicators that define the ranking of the publications,
+ * are notified as changes of all the publications.
+ * The notifications are only queued; the cube reads the changed publications when it is queried.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public class PublicationStatsListener extends AbstractEntityListener<PublicationStatsCube> {
+
+	/** Change the cube of statistics to be notified.
+	 *
+	 * @param statsCube the cube.
+	 */
+	@Autowired
+	public void setPublicationStatsCube(PublicationStatsCube statsCube) {
+		setTarget(statsCube);
+	}
+
+	/** Invoked when an entity was created, updated or deleted in the database.
+	 *
+	 * @param entity the changed entity.
+	 */
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	public void entityChanged(Object entity) {
+		if (entity instanceof Publication) {
+			final int id = ((Publication) entity).getId();
+			notifyTarget(cube -> cube.publicationChanged(id));
+		} else if (entity instanceof Authorship) {
+			// The publication is detached from the authorship when its author is deleted
+			final Publication publication = ((Authorship) entity).getPublication();
+			if (publication != null) {
+				final int id = publication.getId();
+				notifyTarget(cube -> cube.publicationChanged(id));
+			} else {
+				notifyTarget(cube -> cube.invalidateAll());
+			}
+		} else {
+			notifyTarget(cube -> cube.invalidateAll());
+		}
+	}
+
+}
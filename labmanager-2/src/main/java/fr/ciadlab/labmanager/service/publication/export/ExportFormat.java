@@ -0,0 +1,89 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+package fr.ciadlab.labmanager.service.publication.export;
+
+import fr.ciadlab.labmanager.io.bibtex.BibTeXConstants;
+import fr.ciadlab.labmanager.io.od.OpenDocumentConstants;
+import org.apache.jena.ext.com.google.common.base.Strings;
+import org.springframework.http.MediaType;
+
+/** Formats of the artifacts that are generated by the export jobs.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ * @see ExportJobManager
+ */
+public enum ExportFormat {
+
+	/** BibTeX document.
+	 */
+	BIBTEX("bib", BibTeXConstants.MIME_TYPE_UTF8), //$NON-NLS-1$
+
+	/** Open Document Text.
+	 */
+	ODT("odt", OpenDocumentConstants.ODT_MIME_TYPE), //$NON-NLS-1$
+
+	/** HTML document.
+	 */
+	HTML("html", MediaType.TEXT_HTML); //$NON-NLS-1$
+
+	private final String fileExtension;
+
+	private final MediaType mediaType;
+
+	ExportFormat(String fileExtension, MediaType mediaType) {
+		this.fileExtension = fileExtension;
+		this.mediaType = mediaType;
+	}
+
+	/** Replies the extension of the artifact files, without the dot.
+	 *
+	 * @return the file extension.
+	 */
+	public String getFileExtension() {
+		return this.fileExtension;
+	}
+
+	/** Replies the media type of the artifacts.
+	 *
+	 * @return the media type.
+	 */
+	public MediaType getMediaType() {
+		return this.mediaType;
+	}
+
+	/** Replies the format that corresponds to the given name, with a case-insensitive
+	 * test of the name.
+	 *
+	 * @param name the name of the format, to search for.
+	 * @return the format.
+	 * @throws IllegalArgumentException if the given name does not corresponds to a format.
+	 */
+	public static ExportFormat valueOfCaseInsensitive(String name) {
+		if (!Strings.isNullOrEmpty(name)) {
+			for (final ExportFormat format : values()) {
+				if (name.equalsIgnoreCase(format.name())) {
+					return format;
+				}
+			}
+		}
+		throw new IllegalArgumentException("Invalid export format: " + name); //$NON-NLS-1$
+	}
+
+}
@@ -0,0 +1,241 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+package fr.ciadlab.labmanager.service.publication.export;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import fr.ciadlab.labmanager.service.DataScope;
+
+/** Job that generates the artifact of an export of publications.
+ * The identical exports that are requested for the same version of the data are coalesced into a single job.
+ * <p>The artifact is read with {@link #openArtifact()}. When the job is discarded by the {@link ExportJobManager},
+ * its artifact is deleted after the end of the readings that are in progress.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ * @see ExportJobManager
+ */
+public class ExportJob {
+
+	private final String id;
+
+	private final ExportFormat format;
+
+	private final DataScope[] scopes;
+
+	private final long dataVersion;
+
+	private final File artifact;
+
+	private final CountDownLatch completion = new CountDownLatch(1);
+
+	private volatile ExportJobStatus status = ExportJobStatus.PENDING;
+
+	private volatile String error;
+
+	/** Number of readings of the artifact that are in progress. It is protected by the synchronization on the job.
+	 */
+	private int readers;
+
+	/** Indicates if the job was discarded. It is protected by the synchronization on the job.
+	 */
+	private boolean discarded;
+
+	/** Constructor.
+	 *
+	 * @param id the identifier of the job.
+	 * @param format the format of the artifact.
+	 * @param scopes the scopes of the exported data.
+	 * @param dataVersion the combined version of the data in the given scopes from which the artifact is generated.
+	 * @param artifact the file of the artifact.
+	 */
+	ExportJob(String id, ExportFormat format, DataScope[] scopes, long dataVersion, File artifact) {
+		this.id = id;
+		this.format = format;
+		this.scopes = scopes;
+		this.dataVersion = dataVersion;
+		this.artifact = artifact;
+	}
+
+	/** Replies the identifier of the job.
+	 *
+	 * @return the identifier.
+	 */
+	public String getId() {
+		return this.id;
+	}
+
+	/** Replies the format of the artifact.
+	 *
+	 * @return the format.
+	 */
+	public ExportFormat getFormat() {
+		return this.format;
+	}
+
+	/** Replies the scopes of the exported data.
+	 *
+	 * @return the scopes.
+	 */
+	DataScope[] getScopes() {
+		return this.scopes;
+	}
+
+	/** Replies the combined version of the data in the exported scopes from which the artifact is generated.
+	 *
+	 * @return the data version.
+	 * @see ExportJobManager#getDataVersion(DataScope...)
+	 */
+	public long getDataVersion() {
+		return this.dataVersion;
+	}
+
+	/** Replies the status of the job.
+	 *
+	 * @return the status.
+	 */
+	public ExportJobStatus getStatus() {
+		return this.status;
+	}
+
+	/** Replies the message of the error that has stopped the job.
+	 *
+	 * @return the error message, or {@code null} if the job has not failed.
+	 */
+	public String getError() {
+		return this.error;
+	}
+
+	/** Replies the file of the artifact. The file is complete only when the status is {@link ExportJobStatus#DONE}.
+	 *
+	 * @return the file.
+	 */
+	public File getArtifact() {
+		return this.artifact;
+	}
+
+	/** Replies if the artifact of the job is available.
+	 *
+	 * @return {@code true} if the job is done, not discarded, and its artifact exists.
+	 */
+	public synchronized boolean isAvailable() {
+		return !this.discarded && this.status == ExportJobStatus.DONE && this.artifact.isFile();
+	}
+
+	/** Open the artifact for reading. The artifact is not deleted until the replied stream is closed,
+	 * even if the job is discarded in between.
+	 *
+	 * @return the stream of the artifact, or {@code null} if the artifact is not available.
+	 * @throws IOException if the artifact cannot be opened.
+	 */
+	public InputStream openArtifact() throws IOException {
+		synchronized (this) {
+			if (!isAvailable()) {
+				return null;
+			}
+			++this.readers;
+		}
+		try {
+			return new FilterInputStream(new FileInputStream(this.artifact)) {
+				private boolean closed;
+
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					} finally {
+						if (!this.closed) {
+							this.closed = true;
+							release();
+						}
+					}
+				}
+			};
+		} catch (IOException | RuntimeException ex) {
+			release();
+			throw ex;
+		}
+	}
+
+	/** Invoked when a reading of the artifact is finished.
+	 */
+	private synchronized void release() {
+		--this.readers;
+		if (this.discarded && this.readers == 0) {
+			this.artifact.delete();
+		}
+	}
+
+	/** Discard the job. The artifact is deleted immediately if it is not read, or at the end
+	 * of the last reading otherwise.
+	 */
+	synchronized void discard() {
+		this.discarded = true;
+		if (this.readers == 0) {
+			this.artifact.delete();
+		}
+	}
+
+	/** Wait for the end of the job.
+	 *
+	 * @param timeout the maximum time to wait.
+	 * @param unit the unit of the timeout.
+	 * @return {@code true} if the job is finished, with or without success.
+	 * @throws InterruptedException if the current thread is interrupted while waiting.
+	 */
+	public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+		return this.completion.await(timeout, unit);
+	}
+
+	/** Mark the job as running.
+	 */
+	void started() {
+		this.status = ExportJobStatus.RUNNING;
+	}
+
+	/** Mark the job as done.
+	 */
+	void succeeded() {
+		this.status = ExportJobStatus.DONE;
+		this.completion.countDown();
+	}
+
+	/** Mark the job as failed.
+	 *
+	 * @param error the error that has stopped the job.
+	 */
+	void failed(Throwable error) {
+		final String message = error.getLocalizedMessage();
+		this.error = message == null ? error.getClass().getSimpleName() : message;
+		this.status = ExportJobStatus.FAILED;
+		this.completion.countDown();
+	}
+
+	@Override
+	public String toString() {
+		return this.id + "." + this.format.getFileExtension() + "[" + this.status + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+}
@@ -0,0 +1,366 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+package fr.ciadlab.labmanager.service.publication.export;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import fr.ciadlab.labmanager.service.DataScope;
+import fr.ciadlab.labmanager.service.DataVersionTracker;
+import fr.ciadlab.labmanager.utils.FileUtils;
+import fr.ciadlab.labmanager.utils.HashUtils;
+import fr.ciadlab.labmanager.utils.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** Manager of the jobs that generate the artifacts of the large exports of publications.
+ * <p>A job is identified by the format of the export, the fingerprint of the export query, the locale
+ * and the versions of the data in the scopes that are read by the export. The identical exports that are
+ * requested concurrently or later for the same versions of the data are coalesced into a single job.
+ * The versions of the scopes are maintained by the {@link DataVersionTracker}.
+ * <p>The jobs are run in background by a bounded pool of workers, within read-only transactions.
+ * The artifacts are written into temporary files that are renamed when they are complete, in order to
+ * never publish partial artifacts. The artifacts that were generated from a previous version of the data are
+ * deleted, as well as the oldest artifacts when there are too many of them; the artifacts that are
+ * downloaded are deleted at the end of the download.
+ * <p>The pool of workers is defined by the properties {@code labmanager.export.workers} and
+ * {@code labmanager.export.queue-size}. The folder of the artifacts is defined by the property
+ * {@code labmanager.export.artifact-directory}; the artifacts that it contains are deleted when the
+ * application starts. The other files of the folder are not touched.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+@Component
+public class ExportJobManager {
+
+	private static final String JOB_ID_REGEX = "[0-9a-f]{64}"; //$NON-NLS-1$
+
+	private static final Pattern JOB_ID_PATTERN = Pattern.compile(JOB_ID_REGEX);
+
+	/** Pattern of the names of the artifacts and of their temporary files.
+	 */
+	private static final Pattern ARTIFACT_NAME_PATTERN = createArtifactNamePattern();
+
+	private final DataVersionTracker dataVersionTracker;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final File directory;
+
+	private final int maxArtifacts;
+
+	private final long maxWait;
+
+	private final ThreadPoolExecutor executor;
+
+	/** Jobs per identifier, in the order of their submissions.
+	 */
+	private final Map<String, ExportJob> jobs = new LinkedHashMap<>();
+
+	/** Logger of the service. It is lazy loaded.
+	 */
+	private Logger logger;
+
+	/** Constructor.
+	 *
+	 * @param dataVersionTracker the tracker of the versions of the data.
+	 * @param transactionManager the manager of the transactions in which the artifacts are generated.
+	 * @param directory the folder in which the artifacts are stored.
+	 * @param workers the number of threads that are generating the artifacts.
+	 * @param queueSize the maximum number of jobs that are waiting for a worker.
+	 * @param maxArtifacts the maximum number of artifacts that are kept in the folder.
+	 * @param maxWait the maximum number of seconds a client could wait for the end of a job.
+	 */
+	public ExportJobManager(
+			@Autowired DataVersionTracker dataVersionTracker,
+			@Autowired PlatformTransactionManager transactionManager,
+			@Value("${labmanager.export.artifact-directory:${java.io.tmpdir}/labmanager-exports}") String directory,
+			@Value("${labmanager.export.workers:2}") int workers,
+			@Value("${labmanager.export.queue-size:32}") int queueSize,
+			@Value("${labmanager.export.max-artifacts:64}") int maxArtifacts,
+			@Value("${labmanager.export.max-wait:60}") int maxWait) {
+		this.dataVersionTracker = dataVersionTracker;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+		this.directory = new File(directory);
+		this.maxArtifacts = Math.max(1, maxArtifacts);
+		this.maxWait = Math.max(0, maxWait);
+		final int nbWorkers = Math.max(1, workers);
+		this.executor = new ThreadPoolExecutor(nbWorkers, nbWorkers, 1, TimeUnit.MINUTES,
+				new ArrayBlockingQueue<>(Math.max(1, queueSize)), new NamedThreadFactory("publication-export-")); //$NON-NLS-1$
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/** Replies the logger of this service.
+	 *
+	 * @return the logger.
+	 */
+	public Logger getLogger() {
+		if (this.logger == null) {
+			this.logger = createLogger();
+		}
+		return this.logger;
+	}
+
+	/** Change the logger of this service.
+	 *
+	 * @param logger the logger.
+	 */
+	public void setLogger(Logger logger) {
+		this.logger = logger;
+	}
+
+	/** Factory method for creating the service logger.
+	 *
+	 * @return the logger.
+	 */
+	protected Logger createLogger() {
+		return LoggerFactory.getLogger(getClass());
+	}
+
+	private static Pattern createArtifactNamePattern() {
+		final StringBuilder extensions = new StringBuilder();
+		for (final ExportFormat format : ExportFormat.values()) {
+			if (extensions.length() > 0) {
+				extensions.append('|');
+			}
+			extensions.append(Pattern.quote(format.getFileExtension()));
+		}
+		return Pattern.compile(JOB_ID_REGEX + "\\.(?:" + extensions + ")(?:[0-9]*" //$NON-NLS-1$ //$NON-NLS-2$
+				+ Pattern.quote(FileUtils.TEMP_FILE_EXTENSION) + ")?"); //$NON-NLS-1$
+	}
+
+	/** Delete the artifacts that were generated before the start of the application. Their data versions
+	 * cannot be compared to the current data versions. Only the files with the names of artifacts, or
+	 * of their temporary files, are deleted.
+	 */
+	@PostConstruct
+	public void deleteArtifacts() {
+		final File[] files = this.directory.listFiles(
+				file -> file.isFile() && ARTIFACT_NAME_PATTERN.matcher(file.getName()).matches());
+		if (files != null) {
+			for (final File file : files) {
+				file.delete();
+			}
+		}
+	}
+
+	/** Stop the workers. The jobs that are not finished are lost.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+	/** Replies the current combined version of the data in the given scopes.
+	 *
+	 * @param scopes the scopes of the exported data.
+	 * @return the data version.
+	 * @see DataVersionTracker#getCombinedVersion(DataScope...)
+	 */
+	public long getDataVersion(DataScope... scopes) {
+		return this.dataVersionTracker.getCombinedVersion(scopes);
+	}
+
+	/** Replies if the given string has the syntax of a job identifier.
+	 *
+	 * @param id the string to test.
+	 * @return {@code true} if the string could be a job identifier.
+	 */
+	public static boolean isValidJobId(String id) {
+		return id != null && JOB_ID_PATTERN.matcher(id).matches();
+	}
+
+	/** Submit an export job. If an identical export was already submitted for the current versions of the data
+	 * in the given scopes, and if it has not failed, the already submitted job is replied and the given writer
+	 * is not invoked. The writer is invoked by a worker within a read-only transaction, and with the locale
+	 * of the caller.
+	 *
+	 * @param format the format of the artifact.
+	 * @param fingerprint the fingerprint of the export query, that identifies the exported publications
+	 *     and the options of the export.
+	 * @param writer the writer of the artifact.
+	 * @param scopes the scopes of the data that are read by the writer. The artifact becomes obsolete
+	 *     when the data in one of these scopes changes.
+	 * @return the job.
+	 * @throws RejectedExecutionException if the queue of the workers is full.
+	 */
+	public ExportJob submit(ExportFormat format, String fingerprint, ArtifactWriter writer, DataScope... scopes) {
+		final Locale locale = LocaleContextHolder.getLocale();
+		final StringBuilder versions = new StringBuilder();
+		long version = 0;
+		for (final DataScope scope : scopes) {
+			final long scopeVersion = this.dataVersionTracker.getVersion(scope);
+			versions.append(scope.name()).append('=').append(scopeVersion).append(';');
+			version += scopeVersion;
+		}
+		final String id = computeJobId(format, fingerprint, locale, versions.toString());
+		final ExportJob job;
+		synchronized (this.jobs) {
+			final ExportJob existing = this.jobs.get(id);
+			if (existing != null && (!existing.getStatus().isFinished() || existing.isAvailable())) {
+				return existing;
+			}
+			job = new ExportJob(id, format, scopes.clone(), version,
+					new File(this.directory, id + "." + format.getFileExtension())); //$NON-NLS-1$
+			this.jobs.put(id, job);
+			deleteObsoleteJobs();
+		}
+		try {
+			this.executor.execute(() -> run(job, writer, locale));
+		} catch (RejectedExecutionException ex) {
+			synchronized (this.jobs) {
+				this.jobs.remove(id);
+			}
+			throw ex;
+		}
+		return job;
+	}
+
+	/** Replies the job with the given identifier.
+	 *
+	 * @param id the identifier of the job.
+	 * @return the job, or {@code null} if there is no job with the given identifier.
+	 */
+	public ExportJob getJob(String id) {
+		synchronized (this.jobs) {
+			return this.jobs.get(id);
+		}
+	}
+
+	/** Wait for the end of the given job. The waiting time is bounded by the property
+	 * {@code labmanager.export.max-wait}.
+	 *
+	 * @param job the job to wait for.
+	 * @param wait the number of seconds to wait.
+	 * @return {@code true} if the job is finished, with or without success.
+	 * @throws InterruptedException if the current thread is interrupted while waiting.
+	 */
+	public boolean await(ExportJob job, int wait) throws InterruptedException {
+		final long seconds = Math.max(0, Math.min(wait, this.maxWait));
+		return job.await(seconds, TimeUnit.SECONDS);
+	}
+
+	/** Replies the number of jobs that are waiting for a worker or that are running.
+	 *
+	 * @return the number of jobs.
+	 */
+	public int getPendingCount() {
+		return this.executor.getQueue().size() + this.executor.getActiveCount();
+	}
+
+	/** Remove the finished jobs that were generated from a previous version of their data, and the oldest
+	 * finished jobs when there are too many of them. The artifacts of the removed jobs are deleted when
+	 * they are no more downloaded. This function must be invoked within a synchronization on the jobs.
+	 */
+	private void deleteObsoleteJobs() {
+		int finishedJobs = 0;
+		for (final ExportJob job : this.jobs.values()) {
+			if (job.getStatus().isFinished()) {
+				++finishedJobs;
+			}
+		}
+		final Iterator<ExportJob> iterator = this.jobs.values().iterator();
+		while (iterator.hasNext()) {
+			final ExportJob job = iterator.next();
+			if (job.getStatus().isFinished()
+					&& (job.getDataVersion() < getDataVersion(job.getScopes()) || finishedJobs > this.maxArtifacts)) {
+				iterator.remove();
+				--finishedJobs;
+				job.discard();
+			}
+		}
+	}
+
+	private void run(ExportJob job, ArtifactWriter writer, Locale locale) {
+		job.started();
+		LocaleContextHolder.setLocale(locale);
+		try {
+			this.transactionTemplate.executeWithoutResult(status -> {
+				try {
+					FileUtils.writeAtomically(job.getArtifact(), output -> {
+						try {
+							writer.write(output);
+						} catch (IOException | RuntimeException ex) {
+							throw ex;
+						} catch (Exception ex) {
+							throw new IOException(ex);
+						}
+					});
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			});
+			job.succeeded();
+		} catch (Throwable ex) {
+			final Throwable error = ex instanceof UncheckedIOException ? ex.getCause() : ex;
+			getLogger().error("Cannot generate the export " + job + ": " + error.getLocalizedMessage(), error); //$NON-NLS-1$ //$NON-NLS-2$
+			job.failed(error);
+		} finally {
+			LocaleContextHolder.resetLocaleContext();
+		}
+	}
+
+	private static String computeJobId(ExportFormat format, String fingerprint, Locale locale, String versions) {
+		final String key = format.name() + '\n' + fingerprint + '\n' + locale.toLanguageTag() + '\n' + versions;
+		return HashUtils.sha256Hex(key);
+	}
+
+	/** Writer of the artifact of an export job.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	@FunctionalInterface
+	public interface ArtifactWriter {
+
+		/** Write the artifact.
+		 *
+		 * @param output the stream to write in. It must not be closed by the writer.
+		 * @throws Exception if the artifact cannot be written.
+		 */
+		void write(OutputStream output) throws Exception;
+
+	}
+
+}
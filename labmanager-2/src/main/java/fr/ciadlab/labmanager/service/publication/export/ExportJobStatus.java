@@ -0,0 +1,53 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+package fr.ciadlab.labmanager.service.publication.export;
+
+/** Status of an export job.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ * @see ExportJob
+ */
+public enum ExportJobStatus {
+
+	/** The job is waiting in the queue of the workers.
+	 */
+	PENDING,
+
+	/** The artifact of the job is being generated.
+	 */
+	RUNNING,
+
+	/** The artifact of the job is available.
+	 */
+	DONE,
+
+	/** The artifact of the job cannot be generated.
+	 */
+	FAILED;
+
+	/** Replies if the job is finished, with or without success.
+	 *
+	 * @return {@code true} if the job is finished.
+	 */
+	public boolean isFinished() {
+		return this == DONE || this == FAILED;
+	}
+
+}
@@ -0,0 +1,500 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+package fr.ciadlab.labmanager.service.publication.search;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import fr.ciadlab.labmanager.entities.journal.Journal;
+import fr.ciadlab.labmanager.entities.member.Membership;
+import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.entities.organization.ResearchOrganization;
+import fr.ciadlab.labmanager.entities.publication.Authorship;
+import fr.ciadlab.labmanager.entities.publication.JournalBasedPublication;
+import fr.ciadlab.labmanager.entities.publication.Publication;
+import fr.ciadlab.labmanager.entities.publication.PublicationDuplicateIndex;
+import fr.ciadlab.labmanager.entities.publication.PublicationType;
+import fr.ciadlab.labmanager.repository.publication.PublicationRepository;
+import fr.ciadlab.labmanager.service.publication.PublicationChangeQueue;
+import fr.ciadlab.labmanager.utils.TransactionUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.jena.ext.com.google.common.base.Strings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** In-memory inverted index of the publications that is dedicated to the full-text search.
+ * <p>The index maps the normalized words of the titles, the abstracts, the keywords, the names of the authors and
+ * the targets of the publications (journals, conferences, etc.) to the identifiers of the publications. The words
+ * of each field are weighted in order to prefer the publications that contain the searched words in their titles.
+ * A publication matches a query if it contains all the words of the query; the matching publications are sorted
+ * according to the BM25 score of the words.
+ * <p>The index is built from the database when the application is started. Then, the changes of the publications
+ * and the authorships are notified by the {@link PublicationSearchListener}, and only the changed publications
+ * are read again from the database before the next query. A change of a person, of one of its memberships, of an
+ * organization or of a journal is notified with the identifier of the changed entity; the publications that are
+ * linked to this entity in the index are read again from the database. The changes are queued until the
+ * transaction is committed. The index is locked for writing only if changes are pending; otherwise the queries
+ * are run concurrently.
+ * <p>The number of publications in the index is published into the metrics of the actuator
+ * endpoint ({@code labmanager.publication.search.index.size}).
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+@Component
+public class PublicationSearchIndex {
+
+	private static final float TITLE_WEIGHT = 3f;
+
+	private static final float AUTHOR_WEIGHT = 2f;
+
+	private static final float KEYWORD_WEIGHT = 2f;
+
+	private static final float TARGET_WEIGHT = 1.5f;
+
+	private static final float ABSTRACT_WEIGHT = 1f;
+
+	private static final double BM25_K1 = 1.2;
+
+	private static final double BM25_B = .75;
+
+	private final PublicationRepository publicationRepository;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final PublicationChangeQueue changes = new PublicationChangeQueue(true);
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<Integer, IndexedPublication> documents = new HashMap<>();
+
+	private final Map<String, Map<Integer, Float>> postings = new HashMap<>();
+
+	private final Map<Integer, String> organizationNames = new HashMap<>();
+
+	private double totalLength;
+
+	private final RelatedChanges relatedChanges = new RelatedChanges();
+
+	/** Constructor for injector.
+	 * This constructor is defined for being invoked by the IOC injector.
+	 *
+	 * @param publicationRepository the repository of the publications.
+	 * @param transactionManager the manager of the transactions in which the publications are read.
+	 * @param meterRegistry the registry of the metrics that are published by the actuator.
+	 */
+	public PublicationSearchIndex(
+			@Autowired PublicationRepository publicationRepository,
+			@Autowired PlatformTransactionManager transactionManager,
+			@Autowired MeterRegistry meterRegistry) {
+		this.publicationRepository = publicationRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+		Gauge.builder("labmanager.publication.search.index.size", this, it -> it.size()) //$NON-NLS-1$
+				.description("Number of publications in the full-text search index") //$NON-NLS-1$
+				.register(meterRegistry);
+	}
+
+	/** Replies the number of publications in the index.
+	 *
+	 * @return the number of publications.
+	 */
+	public int size() {
+		this.lock.readLock().lock();
+		try {
+			return this.documents.size();
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/** Notify the index that the publication with the given identifier has changed, or that one of its
+	 * authorships has changed.
+	 *
+	 * @param publicationId the identifier of the publication.
+	 */
+	public void publicationChanged(int publicationId) {
+		this.changes.publicationChanged(publicationId);
+	}
+
+	/** Notify the index that the person with the given identifier, or one of its memberships, has changed.
+	 * The publications of the person are indexed again.
+	 *
+	 * @param personId the identifier of the person.
+	 */
+	public void personChanged(int personId) {
+		relatedEntityChanged(this.relatedChanges.persons, personId);
+	}
+
+	/** Notify the index that the organization with the given identifier has changed.
+	 * The publications of the members of the organization are indexed again.
+	 *
+	 * @param organizationId the identifier of the organization.
+	 */
+	public void organizationChanged(int organizationId) {
+		relatedEntityChanged(this.relatedChanges.organizations, organizationId);
+	}
+
+	/** Notify the index that the journal with the given identifier has changed.
+	 * The publications in the journal are indexed again.
+	 *
+	 * @param journalId the identifier of the journal.
+	 */
+	public void journalChanged(int journalId) {
+		relatedEntityChanged(this.relatedChanges.journals, journalId);
+	}
+
+	private void relatedEntityChanged(Set<Integer> changed, int identifier) {
+		final Integer id = Integer.valueOf(identifier);
+		TransactionUtils.afterCommit(() -> {
+			synchronized (this.relatedChanges) {
+				changed.add(id);
+			}
+		});
+	}
+
+	/** Notify the index that data that may change the indexed data of many publications has changed.
+	 */
+	public void invalidateAll() {
+		this.changes.invalidateAll();
+	}
+
+	private boolean hasPendingChanges() {
+		if (!this.changes.isEmpty()) {
+			return true;
+		}
+		synchronized (this.relatedChanges) {
+			return !this.relatedChanges.isEmpty();
+		}
+	}
+
+	/** Build the index when the application is started, in order to not build it during the first query.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void refresh() {
+		this.lock.writeLock().lock();
+		try {
+			final PublicationChangeQueue.Changes changed = this.changes.poll();
+			final RelatedChanges related;
+			synchronized (this.relatedChanges) {
+				related = new RelatedChanges(this.relatedChanges);
+				this.relatedChanges.clear();
+			}
+			if (changed.isAll()) {
+				this.documents.clear();
+				this.postings.clear();
+				this.organizationNames.clear();
+				this.totalLength = 0;
+				this.transactionTemplate.executeWithoutResult(status -> {
+					for (final Publication publication : this.publicationRepository.findAll()) {
+						put(publication.getId(), publication);
+					}
+				});
+			} else {
+				final Set<Integer> publications = new LinkedHashSet<>(changed.getPublications());
+				if (!related.isEmpty()) {
+					for (final IndexedPublication document : this.documents.values()) {
+						if (related.isLinkedTo(document)) {
+							publications.add(Integer.valueOf(document.id));
+						}
+					}
+				}
+				if (!publications.isEmpty()) {
+					this.transactionTemplate.executeWithoutResult(status -> {
+						final Map<Integer, Publication> loaded = new HashMap<>();
+						for (final Publication publication : this.publicationRepository.findAllById(publications)) {
+							loaded.put(Integer.valueOf(publication.getId()), publication);
+						}
+						for (final Integer id : publications) {
+							put(id.intValue(), loaded.get(id));
+						}
+					});
+				}
+			}
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/** Replace the indexed data of the publication.
+	 *
+	 * @param publicationId the identifier of the publication.
+	 * @param publication the publication, or {@code null} if the publication was deleted.
+	 */
+	private void put(int publicationId, Publication publication) {
+		final Integer id = Integer.valueOf(publicationId);
+		final IndexedPublication old = this.documents.remove(id);
+		if (old != null) {
+			for (final String term : old.terms.keySet()) {
+				final Map<Integer, Float> ids = this.postings.get(term);
+				if (ids != null) {
+					ids.remove(id);
+					if (ids.isEmpty()) {
+						this.postings.remove(term);
+					}
+				}
+			}
+			this.totalLength -= old.length;
+		}
+		if (publication != null) {
+			final IndexedPublication document = new IndexedPublication(publication, this.organizationNames);
+			for (final Map.Entry<String, Float> term : document.terms.entrySet()) {
+				this.postings.computeIfAbsent(term.getKey(), it -> new HashMap<>()).put(id, term.getValue());
+			}
+			this.totalLength += document.length;
+			this.documents.put(id, document);
+		}
+	}
+
+	/** Split the given text into normalized words: lower case, without diacritics and without punctuation.
+	 *
+	 * @param text the text to split.
+	 * @return the words, never {@code null}.
+	 * @see PublicationDuplicateIndex#normalizeText(String)
+	 */
+	public static List<String> tokenize(String text) {
+		final List<String> words = new ArrayList<>();
+		final String normalized = PublicationDuplicateIndex.normalizeText(text);
+		if (!normalized.isEmpty()) {
+			for (final String word : normalized.split(" ")) { //$NON-NLS-1$
+				if (!word.isEmpty()) {
+					words.add(word);
+				}
+			}
+		}
+		return words;
+	}
+
+	/** Search for the publications that contain all the words of the given query.
+	 * The changes that were notified since the last query are applied before.
+	 *
+	 * @param query the words to search for.
+	 * @param year the year of the publications to reply, or {@code null} for all the years.
+	 * @param type the type of the publications to reply, or {@code null} for all the types.
+	 * @param organization the identifier of an organization of the authors of the publications to reply,
+	 *     or {@code null} for all the organizations.
+	 * @param offset the number of matching publications to skip before the first replied publication.
+	 * @param limit the maximum number of replied publications. If it is not positive, all the matching
+	 *     publications are replied.
+	 * @return the result of the search.
+	 */
+	public PublicationSearchResult search(String query, Integer year, PublicationType type, Integer organization,
+			int offset, int limit) {
+		if (hasPendingChanges()) {
+			refresh();
+		}
+		final Set<String> words = new LinkedHashSet<>(tokenize(query));
+		final PublicationSearchResult result = new PublicationSearchResult();
+		if (words.isEmpty()) {
+			return result;
+		}
+		this.lock.readLock().lock();
+		try {
+			// Start with the rarest word in order to reduce the number of candidates
+			final List<Map<Integer, Float>> lists = new ArrayList<>(words.size());
+			for (final String word : words) {
+				final Map<Integer, Float> ids = this.postings.get(word);
+				if (ids == null) {
+					return result;
+				}
+				lists.add(ids);
+			}
+			lists.sort(Comparator.comparingInt(Map::size));
+			final int count = this.documents.size();
+			final double averageLength = this.totalLength / count;
+			final List<PublicationSearchResult.Hit> hits = new ArrayList<>();
+			for (final Integer id : lists.get(0).keySet()) {
+				final IndexedPublication document = this.documents.get(id);
+				if (document.matches(year, type, organization)) {
+					double score = 0.;
+					for (final Map<Integer, Float> ids : lists) {
+						final Float frequency = ids.get(id);
+						if (frequency == null) {
+							score = Double.NaN;
+							break;
+						}
+						score += getScore(frequency.doubleValue(), ids.size(), count, document.length / averageLength);
+					}
+					if (!Double.isNaN(score)) {
+						hits.add(new PublicationSearchResult.Hit(document, score));
+						result.count(document, this.organizationNames);
+					}
+				}
+			}
+			hits.sort(null);
+			final int start = Math.min(Math.max(0, offset), hits.size());
+			final int end = limit > 0 ? Math.min(hits.size(), start + limit) : hits.size();
+			result.setHits(hits.size(), hits.subList(start, end));
+			return result;
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	private static double getScore(double frequency, int documentFrequency, int documentCount, double relativeLength) {
+		final double idf = Math.log(1. + (documentCount - documentFrequency + .5) / (documentFrequency + .5));
+		return idf * frequency * (BM25_K1 + 1.) / (frequency + BM25_K1 * (1. - BM25_B + BM25_B * relativeLength));
+	}
+
+	/** Indexed data of a publication.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	static final class IndexedPublication {
+
+		final int id;
+
+		final String title;
+
+		final int year;
+
+		final PublicationType type;
+
+		final String target;
+
+		final List<String> authors = new ArrayList<>();
+
+		final Set<Integer> persons = new HashSet<>();
+
+		final Set<Integer> organizations = new HashSet<>();
+
+		final int journal;
+
+		final Map<String, Float> terms = new HashMap<>();
+
+		final float length;
+
+		IndexedPublication(Publication publication, Map<Integer, String> organizationNames) {
+			this.id = publication.getId();
+			this.title = publication.getTitle();
+			this.year = publication.getPublicationYear();
+			this.type = publication.getType();
+			this.target = publication.getPublicationTarget();
+			final Journal journalEntity = publication instanceof JournalBasedPublication
+					? ((JournalBasedPublication) publication).getJournal() : null;
+			this.journal = journalEntity == null ? 0 : journalEntity.getId();
+			final LocalDate yearStart = LocalDate.of(this.year, 1, 1);
+			final LocalDate yearEnd = LocalDate.of(this.year, 12, 31);
+			float len = 0f;
+			len += addTerms(this.title, TITLE_WEIGHT);
+			len += addTerms(publication.getKeywords(), KEYWORD_WEIGHT);
+			len += addTerms(this.target, TARGET_WEIGHT);
+			len += addTerms(publication.getAbstractText(), ABSTRACT_WEIGHT);
+			for (final Authorship authorship : publication.getAuthorships()) {
+				final Person person = authorship.getPerson();
+				if (person != null) {
+					this.persons.add(Integer.valueOf(person.getId()));
+					this.authors.add(person.getFullName());
+					len += addTerms(person.getFullName(), AUTHOR_WEIGHT);
+					for (final Membership membership : person.getMemberships()) {
+						final ResearchOrganization organization = membership.getResearchOrganization();
+						if (organization != null && membership.isActiveIn(yearStart, yearEnd)) {
+							this.organizations.add(Integer.valueOf(organization.getId()));
+							organizationNames.put(Integer.valueOf(organization.getId()), organization.getAcronymOrName());
+						}
+					}
+				}
+			}
+			this.length = len;
+		}
+
+		private float addTerms(String text, float weight) {
+			if (Strings.isNullOrEmpty(text)) {
+				return 0f;
+			}
+			final List<String> words = tokenize(text);
+			for (final String word : words) {
+				this.terms.merge(word, Float.valueOf(weight), (a, b) -> Float.valueOf(a.floatValue() + b.floatValue()));
+			}
+			return words.size() * weight;
+		}
+
+		boolean matches(Integer year, PublicationType type, Integer organization) {
+			return (year == null || year.intValue() == this.year)
+					&& (type == null || type == this.type)
+					&& (organization == null || this.organizations.contains(organization));
+		}
+
+	}
+
+	/** Identifiers of the persons, the organizations and the journals that have changed since the last
+	 * refresh of the index.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	private static final class RelatedChanges {
+
+		final Set<Integer> persons = new HashSet<>();
+
+		final Set<Integer> organizations = new HashSet<>();
+
+		final Set<Integer> journals = new HashSet<>();
+
+		RelatedChanges() {
+			//
+		}
+
+		RelatedChanges(RelatedChanges changes) {
+			this.persons.addAll(changes.persons);
+			this.organizations.addAll(changes.organizations);
+			this.journals.addAll(changes.journals);
+		}
+
+		boolean isEmpty() {
+			return this.persons.isEmpty() && this.organizations.isEmpty() && this.journals.isEmpty();
+		}
+
+		void clear() {
+			this.persons.clear();
+			this.organizations.clear();
+			this.journals.clear();
+		}
+
+		boolean isLinkedTo(IndexedPublication document) {
+			return this.journals.contains(Integer.valueOf(document.journal))
+					|| !Collections.disjoint(this.persons, document.persons)
+					|| !Collections.disjoint(this.organizations, document.organizations);
+		}
+
+	}
+
+}
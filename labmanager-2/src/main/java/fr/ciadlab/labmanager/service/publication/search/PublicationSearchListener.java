@@ -0,0 +1,97 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+package fr.ciadlab.labmanager.service.publication.search;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import fr.ciadlab.labmanager.entities.journal.Journal;
+import fr.ciadlab.labmanager.entities.member.Membership;
+import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.entities.organization.ResearchOrganization;
+import fr.ciadlab.labmanager.entities.publication.Authorship;
+import fr.ciadlab.labmanager.entities.publication.Publication;
+import fr.ciadlab.labmanager.utils.AbstractEntityListener;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/** JPA listener on the entities whose fields are indexed by the {@link PublicationSearchIndex}.
+ * The changes of a publication or an authorship are notified for the associated publication. The changes of
+ * a person, a membership, an organization or a journal are notified for the changed entity, i.e., for the
+ * person of the membership; the index finds the publications that are linked to this entity.
+ * The notifications are only queued; the index re-reads the changed publications before the next search.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public class PublicationSearchListener extends AbstractEntityListener<PublicationSearchIndex> {
+
+	/** Change the search index to be notified.
+	 *
+	 * @param searchIndex the index.
+	 */
+	@Autowired
+	public void setPublicationSearchIndex(PublicationSearchIndex searchIndex) {
+		setTarget(searchIndex);
+	}
+
+	/** Invoked when an entity was created, updated or deleted in the database.
+	 *
+	 * @param entity the changed entity.
+	 */
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	public void entityChanged(Object entity) {
+		if (entity instanceof Publication) {
+			final int id = ((Publication) entity).getId();
+			notifyTarget(index -> index.publicationChanged(id));
+		} else if (entity instanceof Authorship) {
+			// The publication is detached from the authorship when its author is deleted
+			final Publication publication = ((Authorship) entity).getPublication();
+			if (publication != null) {
+				final int id = publication.getId();
+				notifyTarget(index -> index.publicationChanged(id));
+			} else {
+				notifyTarget(index -> index.invalidateAll());
+			}
+		} else if (entity instanceof Person) {
+			final int id = ((Person) entity).getId();
+			notifyTarget(index -> index.personChanged(id));
+		} else if (entity instanceof Membership) {
+			// The person is detached from the membership before its deletion
+			final Person person = ((Membership) entity).getPerson();
+			if (person != null) {
+				final int id = person.getId();
+				notifyTarget(index -> index.personChanged(id));
+			} else {
+				notifyTarget(index -> index.invalidateAll());
+			}
+		} else if (entity instanceof ResearchOrganization) {
+			final int id = ((ResearchOrganization) entity).getId();
+			notifyTarget(index -> index.organizationChanged(id));
+		} else if (entity instanceof Journal) {
+			final int id = ((Journal) entity).getId();
+			notifyTarget(index -> index.journalChanged(id));
+		} else {
+			notifyTarget(index -> index.invalidateAll());
+		}
+	}
+
+}
@@ -0,0 +1,227 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+package fr.ciadlab.labmanager.service.publication.search;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import fr.ciadlab.labmanager.entities.publication.PublicationType;
+import fr.ciadlab.labmanager.service.publication.search.PublicationSearchIndex.IndexedPublication;
+
+/** Result of a search into the {@link PublicationSearchIndex}.
+ * It contains a page of the matching publications, sorted by decreasing score, and the numbers of matching
+ * publications per year, type and organization (facets).
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public class PublicationSearchResult {
+
+	private int total;
+
+	private List<Hit> hits = Collections.emptyList();
+
+	private final Map<Integer, Integer> yearFacets = new TreeMap<>(Collections.reverseOrder());
+
+	private final Map<PublicationType, Integer> typeFacets = new EnumMap<>(PublicationType.class);
+
+	private final Map<Integer, Integer> organizationFacets = new TreeMap<>();
+
+	private final Map<Integer, String> organizationNames = new TreeMap<>();
+
+	/** Constructor of an empty result.
+	 */
+	PublicationSearchResult() {
+		//
+	}
+
+	/** Count the given matching publication in the facets.
+	 *
+	 * @param publication the matching publication.
+	 * @param names the names of the organizations.
+	 */
+	void count(IndexedPublication publication, Map<Integer, String> names) {
+		this.yearFacets.merge(Integer.valueOf(publication.year), Integer.valueOf(1), Integer::sum);
+		this.typeFacets.merge(publication.type, Integer.valueOf(1), Integer::sum);
+		for (final Integer organization : publication.organizations) {
+			this.organizationFacets.merge(organization, Integer.valueOf(1), Integer::sum);
+			this.organizationNames.put(organization, names.get(organization));
+		}
+	}
+
+	/** Change the page of matching publications.
+	 *
+	 * @param total the total number of matching publications.
+	 * @param hits the matching publications in the page.
+	 */
+	void setHits(int total, List<Hit> hits) {
+		this.total = total;
+		this.hits = Collections.unmodifiableList(hits);
+	}
+
+	/** Replies the total number of matching publications.
+	 *
+	 * @return the number of publications.
+	 */
+	public int getTotal() {
+		return this.total;
+	}
+
+	/** Replies the matching publications in the page, sorted by decreasing score.
+	 *
+	 * @return the publications.
+	 */
+	public List<Hit> getHits() {
+		return this.hits;
+	}
+
+	/** Replies the numbers of matching publications per year, from the most recent year.
+	 *
+	 * @return the numbers of publications.
+	 */
+	public Map<Integer, Integer> getYearFacets() {
+		return Collections.unmodifiableMap(this.yearFacets);
+	}
+
+	/** Replies the numbers of matching publications per type.
+	 *
+	 * @return the numbers of publications.
+	 */
+	public Map<PublicationType, Integer> getTypeFacets() {
+		return Collections.unmodifiableMap(this.typeFacets);
+	}
+
+	/** Replies the numbers of matching publications per identifier of organization. A publication is counted for
+	 * an organization if one of its authors was member of the organization during the year of publication.
+	 *
+	 * @return the numbers of publications.
+	 * @see #getOrganizationName(int)
+	 */
+	public Map<Integer, Integer> getOrganizationFacets() {
+		return Collections.unmodifiableMap(this.organizationFacets);
+	}
+
+	/** Replies the acronym or the name of the organization with the given identifier.
+	 *
+	 * @param organization the identifier of an organization in the {@link #getOrganizationFacets() facets}.
+	 * @return the acronym or the name, or {@code null} if the organization is not in the facets.
+	 */
+	public String getOrganizationName(int organization) {
+		return this.organizationNames.get(Integer.valueOf(organization));
+	}
+
+	/** Matching publication.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	public static final class Hit implements Comparable<Hit> {
+
+		private final IndexedPublication publication;
+
+		private final double score;
+
+		/** Constructor.
+		 *
+		 * @param publication the matching publication.
+		 * @param score the score of the publication.
+		 */
+		Hit(IndexedPublication publication, double score) {
+			this.publication = publication;
+			this.score = score;
+		}
+
+		/** Replies the identifier of the publication.
+		 *
+		 * @return the identifier.
+		 */
+		public int getId() {
+			return this.publication.id;
+		}
+
+		/** Replies the title of the publication.
+		 *
+		 * @return the title.
+		 */
+		public String getTitle() {
+			return this.publication.title;
+		}
+
+		/** Replies the year of the publication.
+		 *
+		 * @return the year.
+		 */
+		public int getYear() {
+			return this.publication.year;
+		}
+
+		/** Replies the type of the publication.
+		 *
+		 * @return the type.
+		 */
+		public PublicationType getType() {
+			return this.publication.type;
+		}
+
+		/** Replies the target of the publication, e.g. the journal or the conference.
+		 *
+		 * @return the target.
+		 */
+		public String getTarget() {
+			return this.publication.target;
+		}
+
+		/** Replies the full names of the authors of the publication, in the order of the authors.
+		 *
+		 * @return the names.
+		 */
+		public List<String> getAuthors() {
+			return Collections.unmodifiableList(this.publication.authors);
+		}
+
+		/** Replies the score of the publication for the query. The greater the score, the more relevant the publication.
+		 *
+		 * @return the score.
+		 */
+		public double getScore() {
+			return this.score;
+		}
+
+		@Override
+		public int compareTo(Hit o) {
+			int cmp = Double.compare(o.score, this.score);
+			if (cmp != 0) {
+				return cmp;
+			}
+			cmp = Integer.compare(o.getYear(), getYear());
+			if (cmp != 0) {
+				return cmp;
+			}
+			return Integer.compare(getId(), o.getId());
+		}
+
+	}
+
+}
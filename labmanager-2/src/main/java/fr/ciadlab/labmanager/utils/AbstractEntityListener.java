@@ -0,0 +1,77 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+
+package fr.ciadlab.labmanager.utils;
+
+import java.util.function.Consumer;
+
+/** Base class of the JPA entity listeners that forward the changes of the entities to an in-memory
+ * structure of the application, e.g. an index, a cache or a version tracker.
+ * <p>The entity listeners are instantiated by Hibernate through the Spring bean container, which injects
+ * the structure with the {@code @Autowired} setter of the subclass. When an entity listener is instantiated
+ * without injection, e.g. by an entity manager that is created outside of the application context,
+ * the structure is unknown and the changes of the entities are ignored.
+ * <p>Hibernate searches for the callback methods ({@code @PostPersist}, {@code @PostUpdate},
+ * {@code @PostRemove}) among the methods that are declared by the listener class itself; these methods must
+ * be declared by the subclasses.
+ *
+ * @param <T> the type of the structure to be notified.
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public abstract class AbstractEntityListener<T> {
+
+	private T target;
+
+	/** Change the structure to be notified.
+	 *
+	 * @param target the structure.
+	 */
+	protected void setTarget(T target) {
+		this.target = target;
+	}
+
+	/** Notify the structure immediately. Nothing is done if the structure was not injected.
+	 *
+	 * @param notification the notification of the structure.
+	 */
+	protected void notifyTarget(Consumer<? super T> notification) {
+		final T target = this.target;
+		if (target != null) {
+			notification.accept(target);
+		}
+	}
+
+	/** Notify the structure when the current transaction is committed. Nothing is done if the structure was not
+	 * injected or if the transaction is rolled back.
+	 * The values that are read from the entity must be computed before invoking this function
+	 * because the entity may be detached or changed when the transaction is committed.
+	 *
+	 * @param notification the notification of the structure.
+	 * @see TransactionUtils#afterCommit(Runnable)
+	 */
+	protected void notifyTargetAfterCommit(Consumer<? super T> notification) {
+		final T target = this.target;
+		if (target != null) {
+			TransactionUtils.afterCommit(() -> notification.accept(target));
+		}
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+
+package fr.ciadlab.labmanager.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/** Utilities for writing files.
+ * 
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public final class FileUtils {
+
+	/** Extension of the temporary files that are created by {@link #writeAtomically(File, ContentWriter)}.
+	 */
+	public static final String TEMP_FILE_EXTENSION = ".tmp"; //$NON-NLS-1$
+
+	private FileUtils() {
+		//
+	}
+
+	/** Write a file into a temporary file in the same folder, and rename the temporary file when it is complete.
+	 * The readers of the file never see a partially written content. The temporary file is deleted if the
+	 * content cannot be written.
+	 *
+	 * @param file the file to write.
+	 * @param writer the writer of the file content.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public static void writeAtomically(File file, ContentWriter writer) throws IOException {
+		final File folder = file.getAbsoluteFile().getParentFile();
+		folder.mkdirs();
+		final Path tempFile = Files.createTempFile(folder.toPath(), file.getName(), TEMP_FILE_EXTENSION);
+		try {
+			try (final OutputStream output = Files.newOutputStream(tempFile)) {
+				writer.write(output);
+			}
+			try {
+				Files.move(tempFile, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException ex) {
+				Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	/** Writer of the content of a file.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 * @since 2.0.0
+	 */
+	@FunctionalInterface
+	public interface ContentWriter {
+
+		/** Write the content.
+		 *
+		 * @param output the stream to write in. It must not be closed by the writer.
+		 * @throws IOException if the content cannot be written.
+		 */
+		void write(OutputStream output) throws IOException;
+
+	}
+
+}
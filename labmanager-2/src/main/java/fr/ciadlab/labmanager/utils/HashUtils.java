@@ -0,0 +1,91 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+
+package fr.ciadlab.labmanager.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/** Utilities for computing the SHA-256 hashes of strings and contents.
+ * 
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public final class HashUtils {
+
+	private static final String SHA256_ALGORITHM = "SHA-256"; //$NON-NLS-1$
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray(); //$NON-NLS-1$
+
+	private static final int BUFFER_SIZE = 65536;
+
+	private HashUtils() {
+		//
+	}
+
+	/** Compute the SHA-256 hash of the UTF-8 bytes of the given string.
+	 *
+	 * @param value the string to hash.
+	 * @return the lower-case hexadecimal representation of the hash.
+	 */
+	public static String sha256Hex(String value) {
+		return toHex(createSha256Digest().digest(value.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/** Compute the SHA-256 hash of the content of the given stream. The stream is read until its end,
+	 * but it is not closed.
+	 *
+	 * @param input the stream to read.
+	 * @return the lower-case hexadecimal representation of the hash.
+	 * @throws IOException if the stream cannot be read.
+	 */
+	public static String sha256Hex(InputStream input) throws IOException {
+		final MessageDigest digest = createSha256Digest();
+		final byte[] buffer = new byte[BUFFER_SIZE];
+		int n = input.read(buffer);
+		while (n >= 0) {
+			digest.update(buffer, 0, n);
+			n = input.read(buffer);
+		}
+		return toHex(digest.digest());
+	}
+
+	private static MessageDigest createSha256Digest() {
+		try {
+			return MessageDigest.getInstance(SHA256_ALGORITHM);
+		} catch (NoSuchAlgorithmException ex) {
+			// SHA-256 is required on every Java platform
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		final char[] hex = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; ++i) {
+			hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+			hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+		}
+		return new String(hex);
+	}
+
+}
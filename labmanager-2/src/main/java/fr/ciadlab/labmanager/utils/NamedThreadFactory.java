@@ -0,0 +1,66 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+
+package fr.ciadlab.labmanager.utils;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Factory of daemon threads that are named with a prefix and a sequence number. The threads
+ * of the background workers are daemons in order to never prevent the shutdown of the application.
+ * 
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+public class NamedThreadFactory implements ThreadFactory {
+
+	private final String prefix;
+
+	private final int priority;
+
+	private final AtomicInteger count = new AtomicInteger();
+
+	/** Constructor of a factory of threads with the normal priority.
+	 *
+	 * @param prefix the prefix of the names of the threads.
+	 */
+	public NamedThreadFactory(String prefix) {
+		this(prefix, Thread.NORM_PRIORITY);
+	}
+
+	/** Constructor.
+	 *
+	 * @param prefix the prefix of the names of the threads.
+	 * @param priority the priority of the threads.
+	 */
+	public NamedThreadFactory(String prefix, int priority) {
+		this.prefix = prefix;
+		this.priority = priority;
+	}
+
+	@Override
+	public Thread newThread(Runnable runnable) {
+		final Thread thread = new Thread(runnable, this.prefix + this.count.incrementAndGet());
+		thread.setDaemon(true);
+		thread.setPriority(this.priority);
+		return thread;
+	}
+
+}
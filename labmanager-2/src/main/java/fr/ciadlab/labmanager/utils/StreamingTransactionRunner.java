@@ -0,0 +1,162 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.utils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.jena.ext.com.google.common.base.Strings;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** Runner of the read-only transactions that stream large query results, e.g., the JSON backup of the database.
+ * <p>The streams of query results are really streamed by some JDBC drivers only if a specific option is
+ * enabled on the connection, e.g., {@code useCursorFetch=true} for MySQL. Because this option changes the
+ * way all the queries are run, it is not enabled on the connections of the application. The options are
+ * defined by the property {@code labmanager.export.streaming-connection-properties}. When they are defined,
+ * the transactions of this runner use the connections of a dedicated pool, that is created from the
+ * properties {@code spring.datasource.*} and the given options, and that is used for nothing else.
+ * Otherwise, the transactions use the connections of the application.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ * @since 2.0.0
+ */
+@Component
+public class StreamingTransactionRunner {
+
+	/** Maximum number of connections in the dedicated pool.
+	 */
+	private static final int MAX_CONNECTIONS = 2;
+
+	private final PlatformTransactionManager transactionManager;
+
+	private final EntityManagerFactory entityManagerFactory;
+
+	private final DataSourceProperties dataSourceProperties;
+
+	private final String connectionProperties;
+
+	private HikariDataSource dataSource;
+
+	/** Constructor.
+	 *
+	 * @param transactionManager the manager of the transactions.
+	 * @param entityManagerFactory the factory of the persistence contexts.
+	 * @param dataSourceProperties the properties of the data source of the application.
+	 * @param connectionProperties the options of the connections that enable the streaming of the query results,
+	 *     e.g., {@code useCursorFetch=true}. If it is empty, the connections of the application are used.
+	 */
+	public StreamingTransactionRunner(
+			@Autowired PlatformTransactionManager transactionManager,
+			@Autowired EntityManagerFactory entityManagerFactory,
+			@Autowired DataSourceProperties dataSourceProperties,
+			@Value("${labmanager.export.streaming-connection-properties:}") String connectionProperties) {
+		this.transactionManager = transactionManager;
+		this.entityManagerFactory = entityManagerFactory;
+		this.dataSourceProperties = dataSourceProperties;
+		this.connectionProperties = Strings.nullToEmpty(connectionProperties).trim();
+	}
+
+	/** Close the dedicated pool of connections.
+	 */
+	@PreDestroy
+	public synchronized void shutdown() {
+		if (this.dataSource != null) {
+			this.dataSource.close();
+			this.dataSource = null;
+		}
+	}
+
+	/** Replies the URL of the database with the given options of the connections.
+	 *
+	 * @param url the URL of the database.
+	 * @param properties the options of the connections, e.g., {@code useCursorFetch=true}.
+	 * @return the URL with the options.
+	 */
+	static String buildUrl(String url, String properties) {
+		if (Strings.isNullOrEmpty(properties)) {
+			return url;
+		}
+		return url + (url.indexOf('?') >= 0 ? '&' : '?') + properties;
+	}
+
+	private synchronized HikariDataSource getDataSource() {
+		if (this.dataSource == null) {
+			final HikariDataSource source = this.dataSourceProperties.initializeDataSourceBuilder()
+					.type(HikariDataSource.class)
+					.url(buildUrl(this.dataSourceProperties.determineUrl(), this.connectionProperties))
+					.build();
+			source.setPoolName("streaming"); //$NON-NLS-1$
+			source.setMaximumPoolSize(MAX_CONNECTIONS);
+			source.setMinimumIdle(0);
+			this.dataSource = source;
+		}
+		return this.dataSource;
+	}
+
+	/** Run the given action within a read-only transaction. The repositories and the entity manager of the
+	 * application that are invoked by the action are bound to the transaction.
+	 *
+	 * @param action the action to run.
+	 * @throws RuntimeException if the action has failed, or if the transaction cannot be created.
+	 */
+	public void executeWithoutResult(Consumer<TransactionStatus> action) {
+		final TransactionTemplate template = new TransactionTemplate(this.transactionManager);
+		template.setReadOnly(true);
+		if (this.connectionProperties.isEmpty()) {
+			template.executeWithoutResult(action);
+			return;
+		}
+		// The persistence context is opened on a connection of the dedicated pool, and bound to the thread
+		// before the start of the transaction in order to be used by the transaction manager
+		try (final Connection connection = getDataSource().getConnection()) {
+			final EntityManager entityManager = this.entityManagerFactory.unwrap(SessionFactory.class)
+					.withOptions().connection(connection).openSession();
+			try {
+				TransactionSynchronizationManager.bindResource(this.entityManagerFactory, new EntityManagerHolder(entityManager));
+				try {
+					template.executeWithoutResult(action);
+				} finally {
+					TransactionSynchronizationManager.unbindResource(this.entityManagerFactory);
+				}
+			} finally {
+				entityManager.close();
+			}
+		} catch (SQLException ex) {
+			throw new CannotCreateTransactionException("Cannot open a streaming connection", ex); //$NON-NLS-1$
+		}
+	}
+
+}
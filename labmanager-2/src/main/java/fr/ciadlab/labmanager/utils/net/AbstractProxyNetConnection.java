@@ -40,6 +40,14 @@ public abstract class AbstractProxyNetConnection implements NetConnection {
 
 	@Override
 	public BufferedImage getImageFromURL(URL url) throws IOException {
+		final byte[] response = getContentFromURL(url);
+		try (final ByteArrayInputStream bis = new ByteArrayInputStream(response)) {
+			return ImageIO.read(bis);
+		}
+	}
+
+	@Override
+	public byte[] getContentFromURL(URL url) throws IOException {
 		final Proxy proxy = new Proxy(getProxyType(), new InetSocketAddress(getProxyAddress(), getProxyPort()));
 		final URLConnection connection = url.openConnection(proxy);
 		connection.connect();
@@ -51,10 +59,7 @@ public abstract class AbstractProxyNetConnection implements NetConnection {
 					out.write(buf, 0, n);
 				}
 			}
-			final byte[] response = out.toByteArray();
-			try (final ByteArrayInputStream bis = new ByteArrayInputStream(response)) {
-				return ImageIO.read(bis);
-			}
+			return out.toByteArray();
 		}
 	}
 
@@ -18,6 +18,7 @@ package fr.ciadlab.labmanager.utils.net;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 
 import javax.imageio.ImageIO;
@@ -43,5 +44,13 @@ public class DirectNetConnection implements NetConnection {
         return ImageIO.read(url);
     }
 
+	@Override
+	public byte[] getContentFromURL(URL url) throws IOException {
+		assert url != null;
+		try (final InputStream is = url.openStream()) {
+			return is.readAllBytes();
+		}
+	}
+
 }
 
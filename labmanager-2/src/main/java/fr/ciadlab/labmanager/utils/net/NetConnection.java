@@ -38,5 +38,14 @@ public interface NetConnection {
 	 */
 	BufferedImage getImageFromURL(URL url) throws IOException;
 
+	/** Read the raw content that is referenced by the given URL.
+	 *
+	 * @param url the url of the content to be read.
+	 * @return the bytes of the content.
+	 * @throws IOException if the content cannot be read. The exception gives details on the reason of the failure.
+	 * @since 2.0.0
+	 */
+	byte[] getContentFromURL(URL url) throws IOException;
+
 }
 
@@ -93,6 +93,15 @@ function formatPublicationDetails(d, config) {
  *     * `enableFilters` indicates if the filter pane is enabled. Default is true.
  *     * `searchPanes` the array of additional search panes. They are displayed if `enableFilters` is true.
  *     * `enableAuthorFilter` indicates if the filter pane dedicated to author names is enabled. Default is true.
+ *     * `serverSide` indicates if the filtering, the sorting and the paging are done by the server. In this case,
+ *       `url` must be the endpoint that supports the DataTables server-side protocol, and the filter panes are
+ *       replaced by the search box of the table and by the controls that are described by `serverFilters`.
+ *       Default is false.
+ *     * `serverFilters` the map for the configuration of the filter controls that are sent to the server when
+ *       `serverSide` is true. Keys are `enableYearFilter`, `enableTypeFilter`, `enableAuthorFilter`, `labels`
+ *       (the labels of the controls, with the keys `year`, `type`, `author` and `all`), `types` (the map
+ *       of the labels of the publication types per type name) and `authors` (the map of the author names
+ *       per author identifier).
  * @return the DataTable object.
  */
 function initPublicationDataTable(config) {
@@ -108,10 +117,16 @@ function initPublicationDataTable(config) {
 	});
 	(!('publicationDetails' in config)) && (config['publicationDetails'] = formatPublicationDetails);
 	(!('enableDetails' in config)) && (config['enableDetails'] = true);
+	(!('serverSide' in config)) && (config['serverSide'] = false);
+	(!('serverFilters' in config)) && (config['serverFilters'] = {});
+	if (config['serverSide']) {
+		// The filter panes need all the data on the client side
+		config['enableFilters'] = false;
+	}
 
 	var dtconfig = {
 		"ajax": config['url'],
-		dom: config['enableFilters'] ? 'Ptp' : 'tp',
+		dom: config['enableFilters'] ? 'Ptp' : (config['serverSide'] ? 'ftp' : 'tp'),
 		scrollCollapse: true,
 		paging: true,
 		responsive: true,
@@ -179,6 +194,27 @@ function initPublicationDataTable(config) {
 		},
 	};
 
+	var $serverFilters = null;
+	if (config['serverSide']) {
+		dtconfig['serverSide'] = true;
+		dtconfig['processing'] = true;
+		dtconfig['columnDefs'] = [];
+		$serverFilters = __createServerSideFilters(config);
+		dtconfig['ajax'] = {
+			url: config['url'],
+			data: (d) => {
+				if ($serverFilters) {
+					$serverFilters.find('[data-filter]').each((index, elt) => {
+						var value = $(elt).val();
+						if (value) {
+							d[$(elt).attr('data-filter')] = value;
+						}
+					});
+				}
+			},
+		};
+	}
+
 	if (config['enableFilters']) {
 		var n = 0;
 		if (config['enableYearFilter']) {
@@ -205,6 +241,11 @@ function initPublicationDataTable(config) {
 	}
 
 	var dtable = config['obj'].DataTable(dtconfig);
+	if ($serverFilters) {
+		$serverFilters.on('change', '[data-filter]', () => {
+			dtable.ajax.reload();
+		});
+	}
 	// Toggle the visibility
 	dtable.column(2).visible(false);
 	dtable.column(3).visible(false);
@@ -232,6 +273,49 @@ function initPublicationDataTable(config) {
 	return dtable;
 }
 
+/** Create the controls of the filters that are sent to the server when the table is configured
+ * for server-side processing. The controls are inserted before the table.
+ * @param config the configuration of the table. See `initPublicationDataTable`.
+ * @return the jQuery object that contains the controls, or `null` if no filter is enabled.
+ */
+function __createServerSideFilters(config) {
+	var filters = config['serverFilters'];
+	var labels = filters['labels'] || {};
+	var $filters = $('<div class="form-row mb-3"></div>');
+	var n = 0;
+	if (filters['enableYearFilter']) {
+		var $year = $('<input type="number" class="form-control form-control-sm" data-filter="year"/>')
+			.attr('placeholder', labels['year']).attr('title', labels['year']);
+		$filters.append($('<div class="col"></div>').append($year));
+		n++;
+	}
+	if (filters['enableTypeFilter'] && filters['types']) {
+		$filters.append(__createServerSideSelect('type', labels['type'], labels['all'], filters['types']));
+		n++;
+	}
+	if (filters['enableAuthorFilter'] && filters['authors']) {
+		$filters.append(__createServerSideSelect('author', labels['author'], labels['all'], filters['authors']));
+		n++;
+	}
+	if (n == 0) {
+		return null;
+	}
+	config['obj'].before($filters);
+	return $filters;
+}
+
+function __createServerSideSelect(name, label, allLabel, options) {
+	var $select = $('<select class="form-control form-control-sm"></select>')
+		.attr('data-filter', name).attr('title', label);
+	$select.append($('<option value=""></option>').text(label + ': ' + allLabel));
+	Object.keys(options).sort((x, y) => {
+		return String(options[x]).localeCompare(String(options[y]));
+	}).forEach((key) => {
+		$select.append($('<option></option>').attr('value', key).text(options[key]));
+	});
+	return $('<div class="col"></div>').append($select);
+}
+
 function __getComponentAndSelection(config) {
 	var $component = null;
 	var componentSelector = null;
@@ -0,0 +1,143 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.controller.api.publication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Order;
+
+/** Tests for {@link DataTablesRequest}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class DataTablesRequestTest {
+
+	private Map<String, String> parameters;
+
+	private Function<String, String> columns;
+
+	@BeforeEach
+	public void setUp() {
+		this.parameters = new HashMap<>();
+		this.parameters.put("columns[0][data]", "");
+		this.parameters.put("columns[1][data]", "title");
+		this.parameters.put("columns[2][data]", "authors");
+		this.parameters.put("columns[3][data]", "year");
+		this.columns = it -> {
+			switch (it) {
+			case "title":
+				return "title";
+			case "year":
+				return "publicationYear";
+			default:
+				return null;
+			}
+		};
+	}
+
+	@Test
+	public void defaults() {
+		final DataTablesRequest request = new DataTablesRequest(this.parameters, this.columns);
+		assertEquals(0, request.getDraw());
+		assertEquals(0, request.getStart());
+		assertEquals(DataTablesRequest.DEFAULT_LENGTH, request.getLength());
+		assertNull(request.getSearch());
+		assertTrue(request.getSort().isUnsorted());
+	}
+
+	@Test
+	public void paging() {
+		this.parameters.put("draw", "3");
+		this.parameters.put("start", "40");
+		this.parameters.put("length", "20");
+		final DataTablesRequest request = new DataTablesRequest(this.parameters, this.columns);
+		assertEquals(3, request.getDraw());
+		final Pageable pageable = request.toPageable(Sort.by("id"), null);
+		assertEquals(2, pageable.getPageNumber());
+		assertEquals(20, pageable.getPageSize());
+		assertEquals(40, pageable.getOffset());
+		assertEquals(Sort.by("id"), pageable.getSort());
+	}
+
+	@Test
+	public void length_all() {
+		this.parameters.put("length", "-1");
+		assertEquals(DataTablesRequest.MAX_LENGTH, new DataTablesRequest(this.parameters, this.columns).getLength());
+	}
+
+	@Test
+	public void length_tooLarge() {
+		this.parameters.put("length", "100000");
+		assertEquals(DataTablesRequest.MAX_LENGTH, new DataTablesRequest(this.parameters, this.columns).getLength());
+	}
+
+	@Test
+	public void length_invalid() {
+		this.parameters.put("length", "abc");
+		assertEquals(DataTablesRequest.DEFAULT_LENGTH, new DataTablesRequest(this.parameters, this.columns).getLength());
+	}
+
+	@Test
+	public void search() {
+		this.parameters.put("search[value]", "  agent ");
+		assertEquals("agent", new DataTablesRequest(this.parameters, this.columns).getSearch());
+	}
+
+	@Test
+	public void search_blank() {
+		this.parameters.put("search[value]", "   ");
+		assertNull(new DataTablesRequest(this.parameters, this.columns).getSearch());
+	}
+
+	@Test
+	public void order() {
+		this.parameters.put("order[0][column]", "3");
+		this.parameters.put("order[0][dir]", "desc");
+		this.parameters.put("order[1][column]", "2");
+		this.parameters.put("order[1][dir]", "asc");
+		this.parameters.put("order[2][column]", "1");
+		this.parameters.put("order[2][dir]", "asc");
+		final DataTablesRequest request = new DataTablesRequest(this.parameters, this.columns);
+		assertEquals(Sort.by(Order.desc("publicationYear"), Order.asc("title")), request.getSort());
+		assertEquals(Sort.by(Order.desc("publicationYear"), Order.asc("title"), Order.asc("id")),
+				request.toPageable(Sort.by("type"), Sort.by("id")).getSort());
+	}
+
+	@Test
+	public void order_notSortable() {
+		this.parameters.put("order[0][column]", "2");
+		this.parameters.put("order[0][dir]", "asc");
+		final DataTablesRequest request = new DataTablesRequest(this.parameters, this.columns);
+		assertTrue(request.getSort().isUnsorted());
+		assertEquals(Sort.by("type").and(Sort.by("id")), request.toPageable(Sort.by("type"), Sort.by("id")).getSort());
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link EntityUtils}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class EntityUtilsTest {
+
+	private static void assertSameAsPairwiseComparison(List<String> strings) {
+		final BitSet[] candidates = EntityUtils.getSimilarityCandidates(strings);
+		assertEquals(strings.size(), candidates.length);
+		for (int i = 0; i < strings.size(); ++i) {
+			assertTrue(candidates[i].nextSetBit(0) < 0 || candidates[i].nextSetBit(0) > i);
+			for (int j = i + 1; j < strings.size(); ++j) {
+				if (EntityUtils.isSimilarWithoutNormalization(strings.get(i), strings.get(j))) {
+					assertTrue(candidates[i].get(j), "Missed candidate: " + strings.get(i) + " / " + strings.get(j));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void getSimilarityCandidates_empty() {
+		assertEquals(0, EntityUtils.getSimilarityCandidates(new ArrayList<>()).length);
+	}
+
+	@Test
+	public void getSimilarityCandidates() {
+		final List<String> strings = Arrays.asList(
+				"multi-agent simulation of autonomous vehicles in urban areas",
+				"holonic organization for the modelling of traffic",
+				"multi-agent simulation of autonomous vehicle in urban areas",
+				"ab",
+				null,
+				"ab",
+				"holonic organization for the design of smart grids",
+				"multiagent simulation of autonomous vehicles in urban areas");
+		final BitSet[] candidates = EntityUtils.getSimilarityCandidates(strings);
+		assertSameAsPairwiseComparison(strings);
+		// Similar titles
+		assertTrue(candidates[0].get(2));
+		assertTrue(candidates[0].get(7));
+		// Short strings
+		assertTrue(candidates[3].get(5));
+		// Null string is candidate for all
+		assertTrue(candidates[0].get(4));
+		assertTrue(candidates[4].get(5));
+		assertTrue(candidates[4].get(7));
+		// Different titles are filtered out
+		assertFalse(candidates[0].get(1));
+		assertFalse(candidates[1].get(6));
+	}
+
+	@Test
+	public void getSimilarityCandidates_random() {
+		final Random random = new Random(1234);
+		final String[] words = {"agent", "holonic", "traffic", "simulation", "vehicle", "model", "smart", "grid", "a", "of"};
+		final List<String> strings = new ArrayList<>();
+		for (int i = 0; i < 200; ++i) {
+			final StringBuilder str = new StringBuilder();
+			final int n = 1 + random.nextInt(6);
+			for (int j = 0; j < n; ++j) {
+				if (j > 0) {
+					str.append(' ');
+				}
+				str.append(words[random.nextInt(words.length)]);
+			}
+			strings.add(str.toString());
+			if (random.nextInt(4) == 0) {
+				// Near duplicate
+				strings.add(str.toString() + "s");
+			}
+		}
+		assertSameAsPairwiseComparison(strings);
+	}
+
+}
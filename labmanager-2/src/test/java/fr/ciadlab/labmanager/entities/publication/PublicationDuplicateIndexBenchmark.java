@@ -0,0 +1,179 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.entities.publication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import fr.ciadlab.labmanager.entities.publication.type.ConferencePaper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/** Micro-benchmark that compares the linear search of duplicate publications, as it was done
+ * by the JSON importer, with the search based on {@link PublicationDuplicateIndex}.
+ * The corpus is synthetic and generated with a fixed seed.
+ *
+ * <p>This benchmark is not a unit test. It could be launched with the {@link #main(String[])} function
+ * from the test class-path.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PublicationDuplicateIndexBenchmark {
+
+	private static final String[] WORDS = {
+		"agent", "multi", "simulation", "traffic", "holonic", "organization", "learning", "deep",
+		"reinforcement", "energy", "management", "vehicle", "autonomous", "urban", "mobility", "model",
+		"framework", "approach", "distributed", "optimization", "network", "smart", "grid", "planning",
+		"behavior", "crowd", "evacuation", "ontology", "semantic", "platform", "cooperative", "control",
+		"fuel", "cell", "hybrid", "electric", "prognostic", "diagnosis", "scheduling", "robot",
+	};
+
+	private static final int NB_QUERIES = 10;
+
+	@Param({ "10000", "50000" })
+	public int corpusSize;
+
+	private List<Publication> corpus;
+
+	private List<Publication> queries;
+
+	private PublicationComparator comparator;
+
+	private PublicationDuplicateIndex index;
+
+	private static Publication createPublication(Random random, int id) {
+		final StringBuilder title = new StringBuilder();
+		final int nbWords = 6 + random.nextInt(8);
+		for (int i = 0; i < nbWords; ++i) {
+			if (i > 0) {
+				title.append(' ');
+			}
+			title.append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		final ConferencePaper pub = new ConferencePaper();
+		pub.setId(id);
+		pub.setType(PublicationType.INTERNATIONAL_CONFERENCE_PAPER);
+		pub.setTitle(title.toString());
+		pub.setPublicationYear(2000 + random.nextInt(22));
+		pub.setScientificEventName("Conference " + random.nextInt(200));
+		if (random.nextBoolean()) {
+			pub.setDOI("10.1000/" + id);
+		}
+		return pub;
+	}
+
+	private static Publication createNearDuplicate(Publication source) {
+		final ConferencePaper pub = new ConferencePaper();
+		pub.setType(source.getType());
+		pub.setTitle(source.getTitle().toUpperCase());
+		pub.setPublicationYear(source.getPublicationYear());
+		pub.setScientificEventName(((ConferencePaper) source).getScientificEventName());
+		pub.setDOI(source.getDOI());
+		return pub;
+	}
+
+	/** Generate the synthetic corpus and the queries.
+	 */
+	@Setup
+	public void setUp() {
+		final Random random = new Random(1234);
+		this.comparator = new SorensenDicePublicationComparator();
+		this.corpus = new ArrayList<>(this.corpusSize);
+		for (int i = 0; i < this.corpusSize; ++i) {
+			this.corpus.add(createPublication(random, i + 1));
+		}
+		this.queries = new ArrayList<>(NB_QUERIES);
+		for (int i = 0; i < NB_QUERIES; ++i) {
+			if (i % 2 == 0) {
+				this.queries.add(createNearDuplicate(this.corpus.get(random.nextInt(this.corpusSize))));
+			} else {
+				this.queries.add(createPublication(random, this.corpusSize + i + 1));
+			}
+		}
+		this.index = new PublicationDuplicateIndex(this.comparator, this.corpus);
+	}
+
+	/** Search the duplicates with a linear scan of the corpus.
+	 *
+	 * @param blackhole the consumer of the results.
+	 */
+	@Benchmark
+	public void linearSearch(Blackhole blackhole) {
+		for (final Publication query : this.queries) {
+			final Optional<Publication> existing = this.corpus.stream().filter(
+					it -> this.comparator.isSimilar(it, query)).findAny();
+			blackhole.consume(existing);
+		}
+	}
+
+	/** Search the duplicates with the blocking-key index.
+	 *
+	 * @param blackhole the consumer of the results.
+	 */
+	@Benchmark
+	public void indexedSearch(Blackhole blackhole) {
+		for (final Publication query : this.queries) {
+			blackhole.consume(this.index.findSimilar(query));
+		}
+	}
+
+	/** Build the blocking-key index for the corpus.
+	 *
+	 * @param blackhole the consumer of the results.
+	 */
+	@Benchmark
+	public void indexBuilding(Blackhole blackhole) {
+		blackhole.consume(new PublicationDuplicateIndex(this.comparator, this.corpus));
+	}
+
+	/** Launch the benchmark.
+	 *
+	 * @param args the command-line arguments.
+	 * @throws Exception if the benchmark cannot be run.
+	 */
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(PublicationDuplicateIndexBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+
+}
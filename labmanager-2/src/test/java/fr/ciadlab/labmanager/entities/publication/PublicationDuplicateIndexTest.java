@@ -0,0 +1,178 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.entities.publication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link PublicationDuplicateIndex}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class PublicationDuplicateIndexTest {
+
+	private Publication p0;
+
+	private Publication p1;
+
+	private Publication p2;
+
+	private Publication p3;
+
+	private PublicationDuplicateIndex test;
+
+	private static Publication createPublication(String title, int year, String doi) {
+		final Publication pub = mock(Publication.class);
+		when(pub.getTitle()).thenReturn(title);
+		when(pub.getPublicationYear()).thenReturn(year);
+		when(pub.getDOI()).thenReturn(doi);
+		when(pub.getType()).thenReturn(PublicationType.INTERNATIONAL_JOURNAL_PAPER);
+		when(pub.getWherePublishedShortDescription()).thenReturn("Journal of Tests");
+		return pub;
+	}
+
+	@BeforeEach
+	public void setUp() {
+		this.p0 = createPublication("Multi-agent simulation of autonomous vehicles in urban areas", 2020, "10.1000/abc");
+		this.p1 = createPublication("Holonic organization for the modeling of traffic", 2019, null);
+		this.p2 = createPublication("Deep reinforcement learning for energy management", 2021, "https://doi.org/10.1000/xyz");
+		this.p3 = createPublication("", 2018, null);
+		this.test = new PublicationDuplicateIndex(new SorensenDicePublicationComparator(),
+				Arrays.asList(this.p0, this.p1, this.p2, this.p3));
+	}
+
+	@Test
+	public void size() {
+		assertEquals(4, this.test.size());
+	}
+
+	@Test
+	public void normalizeText() {
+		assertEquals("", PublicationDuplicateIndex.normalizeText(null));
+		assertEquals("", PublicationDuplicateIndex.normalizeText(""));
+		assertEquals("systeme multi agent a base d etat", PublicationDuplicateIndex.normalizeText("Système Multi-Agent à base d'état"));
+	}
+
+	@Test
+	public void normalizeDoi() {
+		assertNull(PublicationDuplicateIndex.normalizeDoi(null));
+		assertNull(PublicationDuplicateIndex.normalizeDoi(""));
+		assertEquals("10.1000/abc", PublicationDuplicateIndex.normalizeDoi("10.1000/ABC"));
+		assertEquals("10.1000/abc", PublicationDuplicateIndex.normalizeDoi("https://doi.org/10.1000/abc"));
+	}
+
+	@Test
+	public void normalizeHalId() {
+		assertNull(PublicationDuplicateIndex.normalizeHalId(null));
+		assertNull(PublicationDuplicateIndex.normalizeHalId(""));
+		assertEquals("hal-01234567", PublicationDuplicateIndex.normalizeHalId("hal-01234567"));
+		assertEquals("hal-01234567", PublicationDuplicateIndex.normalizeHalId("HAL-01234567v2"));
+		assertEquals("hal-01234567", PublicationDuplicateIndex.normalizeHalId("https://hal.science/hal-01234567v12"));
+	}
+
+	@Test
+	public void normalizeIssn() {
+		assertNull(PublicationDuplicateIndex.normalizeIssn(null));
+		assertNull(PublicationDuplicateIndex.normalizeIssn(" - "));
+		assertEquals("1234567x", PublicationDuplicateIndex.normalizeIssn("1234-567X"));
+	}
+
+	@Test
+	public void getTitleFingerprint() {
+		assertNull(PublicationDuplicateIndex.getTitleFingerprint(null));
+		assertNull(PublicationDuplicateIndex.getTitleFingerprint(" ?! "));
+		final String fingerprint = PublicationDuplicateIndex.getTitleFingerprint("Multi-Agent Simulation");
+		assertEquals(64, fingerprint.length());
+		assertEquals(fingerprint, PublicationDuplicateIndex.getTitleFingerprint("multi agent  simulation."));
+		assertEquals(fingerprint, PublicationDuplicateIndex.getTitleFingerprint("Multi-Agent Simulation"));
+		assertFalse(fingerprint.equals(PublicationDuplicateIndex.getTitleFingerprint("Multi-Agent Simulations")));
+	}
+
+	@Test
+	public void getTitleKeys() {
+		assertTrue(PublicationDuplicateIndex.getTitleKeys(null).isEmpty());
+		assertEquals(Set.of("agents"), PublicationDuplicateIndex.getTitleKeys("Of agents"));
+		assertEquals(Set.of("multi agent", "agent systems"), PublicationDuplicateIndex.getTitleKeys("Multi-agent systems"));
+	}
+
+	@Test
+	public void getCandidates_sameTitleNearYear() {
+		final Publication pub = createPublication("Multi-Agent Simulation of Autonomous Vehicles in Urban Areas", 2021, null);
+		final Set<Publication> candidates = this.test.getCandidates(pub);
+		assertTrue(candidates.contains(this.p0));
+		assertFalse(candidates.contains(this.p1));
+		assertFalse(candidates.contains(this.p2));
+		// No blocking key
+		assertTrue(candidates.contains(this.p3));
+	}
+
+	@Test
+	public void getCandidates_sameTitleFarYear() {
+		final Publication pub = createPublication("Multi-agent simulation of autonomous vehicles in urban areas", 2010, null);
+		final Set<Publication> candidates = this.test.getCandidates(pub);
+		assertFalse(candidates.contains(this.p0));
+		assertFalse(candidates.contains(this.p1));
+		assertFalse(candidates.contains(this.p2));
+		assertTrue(candidates.contains(this.p3));
+	}
+
+	@Test
+	public void getCandidates_sameDoi() {
+		final Publication pub = createPublication("Another title", 2010, "10.1000/XYZ");
+		final Set<Publication> candidates = this.test.getCandidates(pub);
+		assertFalse(candidates.contains(this.p0));
+		assertFalse(candidates.contains(this.p1));
+		assertTrue(candidates.contains(this.p2));
+	}
+
+	@Test
+	public void findSimilar_similar() {
+		final Publication pub = createPublication("Holonic organization for the modelling of traffic", 2019, null);
+		final Optional<Publication> similar = this.test.findSimilar(pub);
+		assertTrue(similar.isPresent());
+		assertSame(this.p1, similar.get());
+	}
+
+	@Test
+	public void findSimilar_notSimilar() {
+		final Publication pub = createPublication("Holonic organization for the design of smart grids", 2019, null);
+		assertFalse(this.test.findSimilar(pub).isPresent());
+	}
+
+	@Test
+	public void findAllSimilar() {
+		final Publication pub = createPublication("Holonic organization for the modelling of traffic", 2019, null);
+		assertEquals(Arrays.asList(this.p1), this.test.findAllSimilar(pub));
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.entities.publication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link PublicationIdentifierDuplicateIndex}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class PublicationIdentifierDuplicateIndexTest {
+
+	private PublicationIdentifierDuplicateIndex test;
+
+	private static Publication createPublication(int id, String title, int year, String doi) {
+		final Publication pub = mock(Publication.class);
+		when(pub.getId()).thenReturn(id);
+		when(pub.getTitle()).thenReturn(title);
+		when(pub.getPublicationYear()).thenReturn(year);
+		when(pub.getDOI()).thenReturn(doi);
+		return pub;
+	}
+
+	@BeforeEach
+	public void setUp() {
+		this.test = new PublicationIdentifierDuplicateIndex();
+		this.test.add(createPublication(10, "Multi-agent simulation of autonomous vehicles in urban areas", 2020, "10.1000/abc"));
+		this.test.add(createPublication(20, "Holonic organization for the modeling of traffic", 2019, null));
+		this.test.add(createPublication(30, "Deep reinforcement learning for energy management", 2021, "https://doi.org/10.1000/xyz"));
+		this.test.add(createPublication(40, "", 2018, null));
+		this.test.add(null);
+	}
+
+	@Test
+	public void size() {
+		assertEquals(4, this.test.size());
+	}
+
+	@Test
+	public void getCandidates_sameTitleNearYear() {
+		final Publication pub = createPublication(0, "Multi-Agent Simulations of Autonomous Vehicles", 2021, null);
+		assertEquals(Set.of(10, 40), this.test.getCandidates(pub));
+	}
+
+	@Test
+	public void getCandidates_sameTitleFarYear() {
+		final Publication pub = createPublication(0, "Multi-agent simulation of autonomous vehicles in urban areas", 2010, null);
+		assertEquals(Set.of(40), this.test.getCandidates(pub));
+	}
+
+	@Test
+	public void getCandidates_sameDoi() {
+		final Publication pub = createPublication(0, "Another title", 2010, "10.1000/XYZ");
+		assertEquals(Set.of(30, 40), this.test.getCandidates(pub));
+	}
+
+	@Test
+	public void getCandidates_noTitle() {
+		final Publication pub = createPublication(0, "", 2010, null);
+		assertEquals(Set.of(10, 20, 30, 40), this.test.getCandidates(pub));
+	}
+
+}
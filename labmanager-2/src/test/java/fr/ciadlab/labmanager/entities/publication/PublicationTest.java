@@ -27,6 +27,8 @@ import static org.mockito.Mockito.when;
 
 import java.net.URL;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
 
 import fr.ciadlab.labmanager.entities.member.Person;
 import org.junit.jupiter.api.BeforeEach;
@@ -560,4 +562,65 @@ public class PublicationTest {
 		assertFalse(this.test.getManualValidationForced());
 	}
 
+	@Test
+	public void updateDuplicateKeys() {
+		assertNull(this.test.getDoiKey());
+		assertNull(this.test.getHalIdKey());
+		assertNull(this.test.getTitleFingerprint());
+
+		this.test.setDOI("https://doi.org/10.1000/XYZ");
+		this.test.setHalId("hal-01234567v2");
+		this.test.setTitle("Multi-Agent Simulation");
+		this.test.updateDuplicateKeys();
+
+		assertEquals("10.1000/xyz", this.test.getDoiKey());
+		assertEquals("hal-01234567", this.test.getHalIdKey());
+		assertEquals(PublicationDuplicateIndex.getTitleFingerprint("multi agent simulation"), this.test.getTitleFingerprint());
+		assertEquals(new HashSet<>(Arrays.asList("multi agent", "agent simulation")), this.test.getTitleKeys());
+	}
+
+	@Test
+	public void copyConstructor_duplicateKeys() {
+		this.test.setDOI("https://doi.org/10.1000/XYZ");
+		this.test.setHalId("hal-01234567v2");
+		this.test.setTitle("Multi-Agent Simulation");
+		this.test.updateDuplicateKeys();
+
+		final Publication copy = new Publication(this.test) {
+			@Override
+			public boolean isRanked() {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public String getWherePublishedShortDescription() {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public String getPublicationTarget() {
+				throw new UnsupportedOperationException();
+			}
+		};
+
+		assertEquals("10.1000/xyz", copy.getDoiKey());
+		assertEquals("hal-01234567", copy.getHalIdKey());
+		assertEquals(this.test.getTitleFingerprint(), copy.getTitleFingerprint());
+		assertEquals(new HashSet<>(Arrays.asList("multi agent", "agent simulation")), copy.getTitleKeys());
+	}
+
+	@Test
+	public void updateChangedDuplicateKeys() {
+		this.test.setTitle("Multi-Agent Simulation");
+		this.test.updateDuplicateKeys();
+
+		this.test.setDOI("10.1000/XYZ");
+		this.test.setTitle("Multi-Agent Simulation of Traffic");
+		this.test.updateChangedDuplicateKeys();
+
+		assertEquals("10.1000/xyz", this.test.getDoiKey());
+		assertEquals(PublicationDuplicateIndex.getTitleFingerprint("multi agent simulation of traffic"), this.test.getTitleFingerprint());
+		assertEquals(new HashSet<>(Arrays.asList("multi agent", "agent simulation", "simulation traffic")), this.test.getTitleKeys());
+	}
+
 }
@@ -0,0 +1,99 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link ExportedAuthorStatusTable}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class ExportedAuthorStatusTableTest {
+
+	private ExportedAuthorStatusTable test;
+
+	@BeforeEach
+	public void setUp() {
+		this.test = new ExportedAuthorStatusTable();
+	}
+
+	private static ExportedAuthorStatus status(int personId, int year) {
+		final ExportedAuthorStatus[] statuses = ExportedAuthorStatus.values();
+		return statuses[(personId + year) % statuses.length];
+	}
+
+	@Test
+	public void get_empty() {
+		assertEquals(0, this.test.size());
+		assertNull(this.test.get(1, 2022));
+	}
+
+	@Test
+	public void put() {
+		this.test.put(1, 2022, ExportedAuthorStatus.RESEARCHER);
+		this.test.put(1, 2021, ExportedAuthorStatus.PHD_STUDENT);
+		this.test.put(2, 2022, ExportedAuthorStatus.OTHER);
+		assertEquals(3, this.test.size());
+		assertSame(ExportedAuthorStatus.RESEARCHER, this.test.get(1, 2022));
+		assertSame(ExportedAuthorStatus.PHD_STUDENT, this.test.get(1, 2021));
+		assertSame(ExportedAuthorStatus.OTHER, this.test.get(2, 2022));
+		assertNull(this.test.get(2, 2021));
+	}
+
+	@Test
+	public void put_replace() {
+		this.test.put(1, 2022, ExportedAuthorStatus.RESEARCHER);
+		this.test.put(1, 2022, ExportedAuthorStatus.SELECTED_PERSON);
+		assertEquals(1, this.test.size());
+		assertSame(ExportedAuthorStatus.SELECTED_PERSON, this.test.get(1, 2022));
+	}
+
+	@Test
+	public void put_grow() {
+		for (int id = 1; id <= 500; ++id) {
+			for (int year = 2000; year < 2010; ++year) {
+				this.test.put(id, year, status(id, year));
+			}
+		}
+		assertEquals(5000, this.test.size());
+		for (int id = 1; id <= 500; ++id) {
+			for (int year = 2000; year < 2010; ++year) {
+				assertSame(status(id, year), this.test.get(id, year));
+			}
+		}
+		assertNull(this.test.get(501, 2000));
+	}
+
+	@Test
+	public void clear() {
+		this.test.put(1, 2022, ExportedAuthorStatus.RESEARCHER);
+		this.test.put(2, 2022, ExportedAuthorStatus.OTHER);
+		this.test.clear();
+		assertEquals(0, this.test.size());
+		assertNull(this.test.get(1, 2022));
+	}
+
+}
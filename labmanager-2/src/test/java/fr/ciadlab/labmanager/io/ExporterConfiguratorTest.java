@@ -16,11 +16,17 @@
 
 package fr.ciadlab.labmanager.io;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
@@ -73,6 +79,42 @@ public class ExporterConfiguratorTest {
 		assertFalse(this.test.hasOrganizationSelector());
 	}
 
+	@Test
+	public void getFingerprint_default() {
+		assertNotNull(this.test.getFingerprint());
+		assertEquals(this.test.getFingerprint(), new ExporterConfigurator(mock(JournalService.class)).getFingerprint());
+	}
+
+	@Test
+	public void getFingerprint_flags() {
+		final String fingerprint = this.test.getFingerprint();
+		this.test.disableEditButtons();
+		assertNotEquals(fingerprint, this.test.getFingerprint());
+		final String fingerprint2 = this.test.getFingerprint();
+		this.test.disableDeleteButtons();
+		assertNotEquals(fingerprint2, this.test.getFingerprint());
+	}
+
+	@Test
+	public void getFingerprint_queryParams() {
+		final ExporterConfigurator other = new ExporterConfigurator(mock(JournalService.class));
+		this.test.selectPerson(it -> it.getId() == 12);
+		this.test.addUriQueryParam("dbId", 12);
+		this.test.addUriQueryParam("organization", "x");
+		other.selectPerson(it -> it.getId() == 12);
+		other.addUriQueryParam("organization", "x");
+		other.addUriQueryParam("dbId", 12);
+		assertEquals(this.test.getFingerprint(), other.getFingerprint());
+		other.addUriQueryParam("dbId", 34);
+		assertNotEquals(this.test.getFingerprint(), other.getFingerprint());
+	}
+
+	@Test
+	public void getFingerprint_selectorWithoutQueryParam() {
+		this.test.selectOrganization(it -> true);
+		assertNull(this.test.getFingerprint());
+	}
+
 	@Test
 	public void getExportedAuthorStatusFor_null() {
 		assertSame(ExportedAuthorStatus.OTHER, this.test.getExportedAuthorStatusFor(null, 2022));
@@ -102,6 +144,30 @@ public class ExporterConfiguratorTest {
 		assertSame(ExportedAuthorStatus.RESEARCHER, this.test.getExportedAuthorStatusFor(person, 2022));
 	}
 
+	@Test
+	public void getExportedAuthorStatusFor_storedStatus() {
+		Person person = mock(Person.class);
+		when(person.getId()).thenReturn(123);
+
+		Membership m0 = mock(Membership.class);
+		when(m0.getMemberStatus()).thenReturn(MemberStatus.PHD_STUDENT);
+		when(m0.getResearchOrganization()).thenReturn(mock(ResearchOrganization.class));
+		when(m0.isActiveIn(any(), any())).thenReturn(true);
+
+		when(person.getMemberships()).thenReturn(new HashSet<>(Arrays.asList(m0)));
+
+		assertSame(ExportedAuthorStatus.PHD_STUDENT, this.test.getExportedAuthorStatusFor(person, 2022));
+		assertSame(ExportedAuthorStatus.PHD_STUDENT, this.test.getExportedAuthorStatusFor(person, 2022));
+		verify(person, times(1)).getMemberships();
+
+		assertSame(ExportedAuthorStatus.PHD_STUDENT, this.test.getExportedAuthorStatusFor(person, 2021));
+		verify(person, times(2)).getMemberships();
+
+		// The stored statuses are forgotten when the selectors are changed
+		this.test.selectPerson(it -> it.getId() == 123);
+		assertSame(ExportedAuthorStatus.SELECTED_PERSON, this.test.getExportedAuthorStatusFor(person, 2022));
+	}
+
 	@Test
 	public void getExportedAuthorStatusFor_postdoc_noPersonSelector_noOrganizationSelector() {
 		ResearchOrganization orga0 = mock(ResearchOrganization.class);
@@ -0,0 +1,145 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.bibtex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jbibtex.BibTeXEntry;
+import org.jbibtex.Key;
+import org.jbibtex.Value;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link IncrementalBibTeXReader}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class IncrementalBibTeXReaderTest {
+
+	private static List<BibTeXEntry> read(String bibtex, int window) {
+		try (final Stream<BibTeXEntry> stream = new IncrementalBibTeXReader(new StringReader(bibtex), window).stream()) {
+			return stream.collect(Collectors.toList());
+		}
+	}
+
+	private static List<BibTeXEntry> read(String bibtex) {
+		return read(bibtex, IncrementalBibTeXReader.DEFAULT_CROSSREF_WINDOW);
+	}
+
+	private static String key(BibTeXEntry entry) {
+		return entry.getKey().getValue();
+	}
+
+	private static String field(BibTeXEntry entry, String name) {
+		final Value value = entry.getField(new Key(name));
+		return value == null ? null : value.toUserString();
+	}
+
+	@Test
+	public void next_empty() throws IOException {
+		try (final IncrementalBibTeXReader reader = new IncrementalBibTeXReader(new StringReader(""))) {
+			assertNull(reader.next());
+			assertNull(reader.next());
+		}
+	}
+
+	@Test
+	public void next() throws IOException {
+		try (final IncrementalBibTeXReader reader = new IncrementalBibTeXReader(new StringReader(
+				"Some text that is ignored\n"
+				+ "@article{a1, title = {First}, year = 2020}\n"
+				+ "@misc(a2, title = {Second {with} braces}, year = 2021)\n"))) {
+			BibTeXEntry entry = reader.next();
+			assertNotNull(entry);
+			assertEquals("a1", key(entry));
+			assertEquals("First", field(entry, "title"));
+			entry = reader.next();
+			assertNotNull(entry);
+			assertEquals("a2", key(entry));
+			assertEquals("2021", field(entry, "year"));
+			assertNull(reader.next());
+		}
+	}
+
+	@Test
+	public void stream_commentAndPreamble() {
+		List<BibTeXEntry> entries = read(
+				"@comment{This is a comment}\n"
+				+ "@preamble{\"\\newcommand{\\noopsort}[1]{}\"}\n"
+				+ "@article{a1, title = {First}}\n");
+		assertEquals(1, entries.size());
+		assertEquals("a1", key(entries.get(0)));
+	}
+
+	@Test
+	public void stream_macro() {
+		List<BibTeXEntry> entries = read(
+				"@article{a1, title = {First}}\n"
+				+ "@string{jai = {Journal of Artificial Intelligence}}\n"
+				+ "@article{a2, title = {Second}, journal = jai}\n");
+		assertEquals(2, entries.size());
+		assertEquals("a1", key(entries.get(0)));
+		assertEquals("a2", key(entries.get(1)));
+		assertEquals("Journal of Artificial Intelligence", field(entries.get(1), "journal"));
+	}
+
+	@Test
+	public void stream_crossRefBackward() {
+		List<BibTeXEntry> entries = read(
+				"@proceedings{conf, booktitle = {The Conference}, year = 2022}\n"
+				+ "@inproceedings{p1, title = {Paper}, crossref = {conf}}\n");
+		assertEquals(2, entries.size());
+		assertEquals("conf", key(entries.get(0)));
+		assertEquals("p1", key(entries.get(1)));
+		assertEquals("The Conference", field(entries.get(1), "booktitle"));
+	}
+
+	@Test
+	public void stream_crossRefForward() {
+		List<BibTeXEntry> entries = read(
+				"@inproceedings{p1, title = {Paper 1}, crossref = {conf}}\n"
+				+ "@article{a1, title = {Article}}\n"
+				+ "@inproceedings{p2, title = {Paper 2}, crossref = \"conf\"}\n"
+				+ "@proceedings{conf, booktitle = {The Conference}, year = 2022}\n");
+		assertEquals(4, entries.size());
+		// The entries with cross-references are replied after the referenced entry
+		assertEquals("a1", key(entries.get(0)));
+		assertEquals("conf", key(entries.get(1)));
+		assertEquals("p1", key(entries.get(2)));
+		assertEquals("The Conference", field(entries.get(2), "booktitle"));
+		assertEquals("p2", key(entries.get(3)));
+		assertEquals("2022", field(entries.get(3), "year"));
+	}
+
+	@Test
+	public void stream_invalidEntry() {
+		assertThrows(RuntimeException.class, () -> read("@article{a1, title = {First}"));
+	}
+
+}
@@ -0,0 +1,302 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.bibtex;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import fr.ciadlab.labmanager.configuration.BaseMessageSource;
+import fr.ciadlab.labmanager.entities.journal.Journal;
+import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.entities.publication.Publication;
+import fr.ciadlab.labmanager.entities.publication.type.ConferencePaper;
+import fr.ciadlab.labmanager.entities.publication.type.JournalPaper;
+import fr.ciadlab.labmanager.service.journal.JournalService;
+import fr.ciadlab.labmanager.service.member.PersonService;
+import fr.ciadlab.labmanager.service.publication.PrePublicationFactory;
+import fr.ciadlab.labmanager.service.publication.type.BookChapterService;
+import fr.ciadlab.labmanager.service.publication.type.BookService;
+import fr.ciadlab.labmanager.service.publication.type.ConferencePaperService;
+import fr.ciadlab.labmanager.service.publication.type.JournalPaperService;
+import fr.ciadlab.labmanager.service.publication.type.MiscDocumentService;
+import fr.ciadlab.labmanager.service.publication.type.ReportService;
+import fr.ciadlab.labmanager.service.publication.type.ThesisService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/** Micro-benchmark of the conversion of the BibTeX entries to publications by {@link JBibtexBibTeX}.
+ * The BibTeX source is a synthetic sample of 5000 entries that is generated with a fixed seed.
+ * The conversion is measured with a sequential decoding of the entries (batches of 1 entry) and
+ * with a parallel decoding of the batches of entries.
+ * The services are mocked; the database accesses for the journals and the persons are simulated
+ * by a fixed amount of CPU work.
+ *
+ * <p>This benchmark is not a unit test. It could be launched with the {@link #main(String[])} function
+ * from the test class-path.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JBibtexBibTeXBenchmark {
+
+	private static final int SAMPLE_SIZE = 5000;
+
+	private static final String[] WORDS = {
+		"agent", "multi", "simulation", "traffic", "holonic", "organization", "learning", "deep",
+		"reinforcement", "energy", "management", "vehicle", "autonomous", "urban", "mobility", "model",
+		"framework", "approach", "distributed", "optimization", "network", "smart", "grid", "planning",
+		"behavior", "crowd", "evacuation", "ontology", "semantic", "platform", "cooperative", "control",
+		"fuel", "cell", "hybrid", "electric", "prognostic", "diagnosis", "scheduling", "robot",
+		"{AI}", "{SARL}",
+	};
+
+	private static final String[] FIRST_NAMES = {
+		"Pierre", "Marie", "Jean", "Sara", "Lei", "Amir", "Olivier", "Fabrice", "H{\\'e}l{\\`e}ne", "Ren{\\'e}",
+		"Fran{\\c c}ois", "Yazan",
+	};
+
+	private static final String[] LAST_NAMES = {
+		"Mercier", "Laurent", "Bertrand", "Dupont", "Hilaire", "M{\\\"u}ller", "Mualla", "Koukam", "Morel",
+		"Vincent", "Michel", "Galland",
+	};
+
+	private static final String[] PUBLISHERS = { "IEEE", "Elsevier", "Springer" };
+
+	private static final String[] MONTHS = {
+		"jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec",
+	};
+
+	private static final String[] JOURNAL_MACROS = { "jaamas", "eaai" };
+
+	/** Amount of CPU work that simulates a query to the database.
+	 */
+	private static final long DATABASE_TOKENS = 20000;
+
+	@Param({ "1", "64" })
+	public int conversionBatchSize;
+
+	private String bibtex;
+
+	private JBibtexBibTeX converter;
+
+	private static String pick(Random random, String[] values) {
+		return values[random.nextInt(values.length)];
+	}
+
+	private static String createWords(Random random, int min, int max, String separator) {
+		final StringBuilder words = new StringBuilder();
+		final int nbWords = min + random.nextInt(max - min + 1);
+		for (int i = 0; i < nbWords; ++i) {
+			if (i > 0) {
+				words.append(separator);
+			}
+			words.append(pick(random, WORDS));
+		}
+		return words.toString();
+	}
+
+	private static String capitalize(String text) {
+		return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+	}
+
+	/** Generate the synthetic BibTeX entries: journal papers and conference papers with multiple authors,
+	 * string macros and LaTeX accents.
+	 *
+	 * @param size the number of entries.
+	 * @return the BibTeX source.
+	 */
+	private static String createSample(int size) {
+		final Random random = new Random(1234);
+		final StringBuilder bibtex = new StringBuilder();
+		bibtex.append("@string{jaamas = {Autonomous Agents and Multi-Agent Systems}}\n\n");
+		bibtex.append("@string{eaai = {Engineering Applications of Artificial Intelligence}}\n\n");
+		for (int i = 0; i < size; ++i) {
+			final int year = 2000 + random.nextInt(22);
+			final String key = String.format("pub%04d_%d", i, year);
+			final boolean isArticle = random.nextInt(5) < 3;
+			bibtex.append(isArticle ? "@article{" : "@inproceedings{").append(key).append(",\n");
+			bibtex.append("\ttitle = {").append(capitalize(createWords(random, 4, 12, " "))).append("},\n");
+			final StringBuilder authors = new StringBuilder();
+			final int nbAuthors = 1 + random.nextInt(5);
+			for (int j = 0; j < nbAuthors; ++j) {
+				if (j > 0) {
+					authors.append(" and ");
+				}
+				authors.append(pick(random, LAST_NAMES)).append(", ").append(pick(random, FIRST_NAMES));
+			}
+			bibtex.append("\tauthor = {").append(authors).append("},\n");
+			if (isArticle) {
+				if (random.nextInt(20) == 0) {
+					bibtex.append("\tjournal = ").append(pick(random, JOURNAL_MACROS)).append(",\n");
+				} else {
+					bibtex.append("\tjournal = {Journal of ").append(capitalize(createWords(random, 2, 3, " "))).append("},\n");
+				}
+				bibtex.append("\tpublisher = {").append(pick(random, PUBLISHERS)).append("},\n");
+			} else {
+				bibtex.append("\tbooktitle = {International Conference on ").append(capitalize(createWords(random, 2, 3, " "))).append("},\n");
+			}
+			bibtex.append("\tyear = ").append(year).append(",\n");
+			bibtex.append("\tmonth = ").append(pick(random, MONTHS)).append(",\n");
+			if (isArticle) {
+				bibtex.append("\tvolume = {").append(1 + random.nextInt(60)).append("},\n");
+				bibtex.append("\tnumber = {").append(1 + random.nextInt(12)).append("},\n");
+			}
+			final int firstPage = 1 + random.nextInt(600);
+			bibtex.append("\tpages = {").append(firstPage).append("--").append(firstPage + 5 + random.nextInt(15)).append("},\n");
+			if (!isArticle) {
+				bibtex.append("\taddress = {Belfort, France},\n");
+			}
+			bibtex.append("\tkeywords = {").append(createWords(random, 3, 3, ", ")).append("},\n");
+			bibtex.append("\tlanguage = {english},\n");
+			if (isArticle) {
+				bibtex.append("\tdoi = {10.1000/").append(key).append("},\n");
+			}
+			bibtex.append("}\n\n");
+		}
+		return bibtex.toString();
+	}
+
+	/** Generate the sample and create the converter.
+	 *
+	 * @throws Exception if the converter cannot be created.
+	 */
+	@Setup
+	public void setUp() throws Exception {
+		this.bibtex = createSample(SAMPLE_SIZE);
+
+		final PrePublicationFactory prePublicationFactory = mock(PrePublicationFactory.class);
+		when(prePublicationFactory.createPrePublication(
+				any(), any(), any(), any(), any(), anyInt(), any(), any(), any(),
+				any(), any(), any(), any(), any(), any(), any())).thenAnswer(it -> {
+					final JournalPaper publication = new JournalPaper();
+					publication.setType(it.getArgument(0));
+					publication.setTitle(it.getArgument(1));
+					return publication;
+				});
+
+		final JournalPaperService journalPaperService = mock(JournalPaperService.class);
+		when(journalPaperService.createJournalPaper(
+				any(), any(), any(), any(), any(), any(), anyBoolean())).thenAnswer(it -> {
+					final JournalPaper paper = new JournalPaper(it.getArgument(0), it.getArgument(1), it.getArgument(2),
+							it.getArgument(3), it.getArgument(4));
+					paper.setJournal(it.getArgument(5));
+					return paper;
+				});
+
+		final ConferencePaperService conferencePaperService = mock(ConferencePaperService.class);
+		when(conferencePaperService.createConferencePaper(
+				any(), any(), any(), any(), any(), any(), any(),
+				any(), any(), any(), anyBoolean())).thenAnswer(it -> new ConferencePaper(it.getArgument(0), it.getArgument(1),
+						it.getArgument(2), it.getArgument(3), it.getArgument(4), it.getArgument(5), it.getArgument(7),
+						it.getArgument(8), it.getArgument(6), it.getArgument(9)));
+
+		final JournalService journalService = mock(JournalService.class);
+		when(journalService.getJournalsByName(any())).thenAnswer(it -> {
+			Blackhole.consumeCPU(DATABASE_TOKENS);
+			final Journal journal = new Journal();
+			journal.setJournalName(it.getArgument(0));
+			return Collections.singleton(journal);
+		});
+
+		final PersonService personService = mock(PersonService.class);
+		when(personService.extractPersonsFrom(any(), anyBoolean(), anyBoolean(), anyBoolean(), any())).thenAnswer(it -> {
+			final Map<String, Person> cache = it.getArgument(4);
+			final List<Person> persons = new ArrayList<>();
+			for (final String name : ((String) it.getArgument(0)).split("\\s+and\\s+")) {
+				persons.add(cache.computeIfAbsent(name, key -> {
+					Blackhole.consumeCPU(DATABASE_TOKENS);
+					final Person person = new Person();
+					person.setLastName(key);
+					return person;
+				}));
+			}
+			return persons;
+		});
+
+		this.converter = new JBibtexBibTeX(
+				BaseMessageSource.getStaticMessageSourceAccessor(),
+				prePublicationFactory,
+				journalService,
+				personService,
+				mock(BookService.class),
+				mock(BookChapterService.class),
+				conferencePaperService,
+				journalPaperService,
+				mock(MiscDocumentService.class),
+				mock(ReportService.class),
+				mock(ThesisService.class),
+				this.conversionBatchSize);
+	}
+
+	/** Convert all the entries of the sample.
+	 *
+	 * @param blackhole the consumer of the results.
+	 * @throws Exception if the sample cannot be converted.
+	 */
+	@Benchmark
+	public void convert(Blackhole blackhole) throws Exception {
+		try (final Stream<Publication> publications = this.converter.getPublicationStreamFrom(
+				new StringReader(this.bibtex), true, false, false)) {
+			publications.forEach(it -> blackhole.consume(it));
+		}
+	}
+
+	/** Launch the benchmark.
+	 *
+	 * @param args the command-line arguments.
+	 * @throws Exception if the benchmark cannot be run.
+	 */
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(JBibtexBibTeXBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+
+}
@@ -20,6 +20,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.ArgumentMatchers.anyBoolean;
@@ -29,6 +30,7 @@ import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,6 +41,7 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -79,6 +82,7 @@ import org.jbibtex.LaTeXPrinter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.support.MessageSourceAccessor;
 
@@ -141,7 +145,8 @@ public class JBibtexBibTeXTest {
 				this.journalPaperService,
 				this.miscDocumentService,
 				this.reportService,
-				this.thesisService);
+				this.thesisService,
+				64);
 	}
 
 	/** This test is defined for validating that a bug is still present in the JBibtex library.
@@ -286,8 +291,9 @@ public class JBibtexBibTeXTest {
 
 	private Stream<Publication> getPublicationStreamFromTest(String filename) throws Exception {
 		URL url = Resources.getResource(JBibtexBibTeXTest.class.getPackageName().replaceAll("\\.", "/") + "/" + filename);
+		// The stream is lazy; it must be consumed before the reader is closed
 		try (Reader r = new InputStreamReader(url.openStream())) {
-			return this.test.getPublicationStreamFrom(r, false, false, false);
+			return this.test.getPublicationStreamFrom(r, false, false, false).collect(Collectors.toList()).stream();
 		}
 	}
 
@@ -322,7 +328,7 @@ public class JBibtexBibTeXTest {
 
 		Person p0 = mock(Person.class);
 		Person p1 = mock(Person.class);
-		when(this.personService.extractPersonsFrom(any(), anyBoolean(), anyBoolean(), anyBoolean())).thenReturn(Arrays.asList(p0, p1));
+		when(this.personService.extractPersonsFrom(any(), anyBoolean(), anyBoolean(), anyBoolean(), any())).thenReturn(Arrays.asList(p0, p1));
 
 		Stream<Publication> pubs = getPublicationStreamFromTest("bibtex_n.bib");
 		assertNotNull(pubs);
@@ -364,7 +370,8 @@ public class JBibtexBibTeXTest {
 				eq("Rehioui, Hajjar and Idrissi, Abdellah and Koukam, Abderrafiaa"),
 				eq(true),
 				eq(false),
-				eq(false));
+				eq(false),
+				notNull());
 
 		p = list.get(1);
 		assertTrue(p instanceof ConferencePaper);
@@ -402,7 +409,68 @@ public class JBibtexBibTeXTest {
 				eq("Andres, Emmanuel and Talha, Samy"),
 				eq(true),
 				eq(false),
-				eq(false));
+				eq(false),
+				notNull());
+	}
+
+	@Test
+	public void getPublicationStreamFrom_importCache() throws Exception {
+		when(this.prePublicationFactory.createPrePublication(
+				any(), any(), any(), any(), any(), anyInt(), any(), any(), any(),
+				any(), any(), any(), any(), any(), any(), any())).thenAnswer(it -> mock(Publication.class));
+		when(this.journalPaperService.createJournalPaper(
+				any(), any(), any(), any(), any(), any(), anyBoolean())).thenAnswer(it -> mock(JournalPaper.class));
+		Journal journal = mock(Journal.class);
+		when(this.journalService.getJournalsByName(any())).thenReturn(Collections.singleton(journal));
+		when(this.personService.extractPersonsFrom(any(), anyBoolean(), anyBoolean(), anyBoolean(), any())).thenReturn(
+				Arrays.asList(mock(Person.class)));
+
+		List<Publication> list;
+		try (Stream<Publication> pubs = this.test.getPublicationStreamFrom(lines(
+				"@article{a1, title = {T\\'etle 1}, year = 2020, journal = {Journal of AI}, author = {Doe, John}}",
+				"@article{a2, title = {Title 2}, year = 2021, journal = {Journal  of AI}, author = {Doe, John}}",
+				"@article{a3, title = {Title 3}, year = 2022, journal = {Journal of AI}, author = {Doe, John and Smith, Jane}}"),
+				false, false, false)) {
+			list = pubs.collect(Collectors.toList());
+		}
+
+		assertEquals(3, list.size());
+		// The journal is read once from the database for the whole import
+		verify(this.journalService).getJournalsByName(any());
+		verify(this.prePublicationFactory).createPrePublication(
+				any(), eq("Tétle 1"), any(), any(), any(), anyInt(), any(), any(), any(),
+				any(), any(), any(), any(), any(), any(), any());
+		// The cache of the persons is shared by the entries
+		ArgumentCaptor<Map<String, Person>> cache = ArgumentCaptor.forClass(Map.class);
+		verify(this.personService, times(3)).extractPersonsFrom(any(), anyBoolean(), anyBoolean(), anyBoolean(), cache.capture());
+		assertSame(cache.getAllValues().get(0), cache.getAllValues().get(1));
+		assertSame(cache.getAllValues().get(0), cache.getAllValues().get(2));
+	}
+
+	@Test
+	public void getPublicationStreamFrom_sequential() throws Exception {
+		this.test = new JBibtexBibTeX(this.messages, this.prePublicationFactory, this.journalService, this.personService,
+				this.bookService, this.bookChapterService, this.conferencePaperService, this.journalPaperService,
+				this.miscDocumentService, this.reportService, this.thesisService, 1);
+		when(this.prePublicationFactory.createPrePublication(
+				any(), any(), any(), any(), any(), anyInt(), any(), any(), any(),
+				any(), any(), any(), any(), any(), any(), any())).thenAnswer(it -> mock(Publication.class));
+		when(this.miscDocumentService.createMiscDocument(
+				any(), any(), any(), any(), any(), any(), any(), anyBoolean())).thenAnswer(it -> mock(MiscDocument.class));
+		when(this.personService.extractPersonsFrom(any(), anyBoolean(), anyBoolean(), anyBoolean(), any())).thenReturn(
+				Arrays.asList(mock(Person.class)));
+
+		List<Publication> list;
+		try (Stream<Publication> pubs = this.test.getPublicationStreamFrom(lines(
+				"@misc{m1, title = {Misc 1}, year = 2020, howpublished = {Web}, author = {Doe, John}}",
+				"@misc{m2, title = {Misc 2}, year = 2021, howpublished = {Web}, author = {Doe, John}}"),
+				false, false, false)) {
+			list = pubs.collect(Collectors.toList());
+		}
+
+		assertEquals(2, list.size());
+		assertTrue(list.get(0) instanceof MiscDocument);
+		assertTrue(list.get(1) instanceof MiscDocument);
 	}
 
 	private String lines(String... lines) {
@@ -19,14 +19,28 @@ package fr.ciadlab.labmanager.io.filemanager;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
-
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.arakhne.afc.vmutil.FileSystem;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.multipart.MultipartFile;
 
 /** Tests for {@link DefaultDownloadableFileManager}.
  * 
@@ -44,11 +58,24 @@ public class DefaultDownloadableFileManagerTest {
 
 	private File root;
 
+	private PdfThumbnailGenerator generator;
+
+	private ThumbnailStore store;
+
 	@BeforeEach
 	public void setUp() throws IOException {
 		this.stream = new ByteArrayOutputStream();
 		this.root = new File(File.listRoots()[0], "rootuploads");
-		this.test = new DefaultDownloadableFileManager(this.root.toString());
+		this.generator = mock(PdfThumbnailGenerator.class);
+		this.store = mock(ThumbnailStore.class);
+		this.test = new DefaultDownloadableFileManager(this.root.toString(), this.generator, this.store);
+	}
+
+	private static File touch(File file, long date) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), new byte[] {1, 2, 3});
+		file.setLastModified(date);
+		return file;
 	}
 
 	@Test
@@ -85,4 +112,76 @@ public class DefaultDownloadableFileManagerTest {
 		assertNotNull(this.test.makeAwardFilename(123));
 	}
 
+	@Test
+	public void saveFiles(@TempDir Path folder) throws Exception {
+		this.test = new DefaultDownloadableFileManager(folder.toString(), this.generator, this.store);
+		final MultipartFile upload = mock(MultipartFile.class);
+		when(upload.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[] {1, 2, 3, 4}));
+		final File pdf = this.test.makePdfFilename(123);
+		final File jpg = this.test.makePdfPictureFilename(123);
+
+		this.test.saveFiles(pdf, jpg, upload);
+
+		final File absPdf = this.test.normalizeForServerSide(pdf);
+		assertEquals(4, absPdf.length());
+		verify(this.generator).generateLater(eq(absPdf), eq(this.test.normalizeForServerSide(jpg)));
+		// No temporary file remains
+		assertEquals(1, absPdf.getParentFile().list().length);
+	}
+
+	@Test
+	public void regenerateStalePictures(@TempDir Path folder) throws Exception {
+		this.test = new DefaultDownloadableFileManager(folder.toString(), this.generator, this.store);
+		when(this.generator.submitAll(any())).thenReturn(true);
+		final File pdf1 = touch(this.test.normalizeForServerSide(this.test.makePdfFilename(1)), 10000);
+		final File pdf2 = touch(this.test.normalizeForServerSide(this.test.makePdfFilename(2)), 10000);
+		touch(this.test.normalizeForServerSide(this.test.makePdfPictureFilename(2)), 20000);
+		final File award3 = touch(this.test.normalizeForServerSide(this.test.makeAwardFilename(3)), 10000);
+		touch(new File(pdf1.getParentFile(), "other.pdf"), 10000);
+
+		assertEquals(3, this.test.regenerateStalePictures());
+
+		final Map<File, File> expected = new HashMap<>();
+		expected.put(pdf1, this.test.normalizeForServerSide(this.test.makePdfPictureFilename(1)));
+		expected.put(pdf2, this.test.normalizeForServerSide(this.test.makePdfPictureFilename(2)));
+		expected.put(award3, this.test.normalizeForServerSide(this.test.makeAwardPictureFilename(3)));
+		verify(this.generator).submitAll(eq(expected));
+	}
+
+	@Test
+	public void regenerateStalePictures_queueFull(@TempDir Path folder) throws Exception {
+		this.test = new DefaultDownloadableFileManager(folder.toString(), this.generator, this.store);
+		touch(this.test.normalizeForServerSide(this.test.makePdfFilename(1)), 10000);
+		assertEquals(0, this.test.regenerateStalePictures());
+	}
+
+	@Test
+	public void regenerateStalePictures_noFolder(@TempDir Path folder) throws Exception {
+		this.test = new DefaultDownloadableFileManager(folder.toString(), this.generator, this.store);
+		when(this.generator.submitAll(any())).thenReturn(true);
+		assertEquals(0, this.test.regenerateStalePictures());
+		verify(this.generator).submitAll(eq(Collections.emptyMap()));
+	}
+
+	@Test
+	public void getThumbnailHash(@TempDir Path folder) throws Exception {
+		this.test = new DefaultDownloadableFileManager(folder.toString(), this.generator, this.store);
+		final File pdf = this.test.makePdfFilename(1);
+		final File absPdf = touch(this.test.normalizeForServerSide(pdf), 10000);
+		when(this.store.getThumbnailHash(eq(absPdf))).thenReturn(null, "abc");
+
+		assertNull(this.test.getThumbnailHash(pdf));
+		assertEquals("abc", this.test.getThumbnailHash(pdf));
+		// The PDF file is never hashed in the request
+		verify(this.store, never()).getContentHash(any());
+	}
+
+	@Test
+	public void getThumbnailHash_noFile(@TempDir Path folder) throws Exception {
+		this.test = new DefaultDownloadableFileManager(folder.toString(), this.generator, this.store);
+		assertNull(this.test.getThumbnailHash(this.test.makePdfFilename(1)));
+		verify(this.store, never()).getContentHash(any());
+		verify(this.store).getThumbnailHash(any());
+	}
+
 }
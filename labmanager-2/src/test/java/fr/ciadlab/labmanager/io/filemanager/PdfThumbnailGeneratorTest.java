@@ -0,0 +1,292 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.filemanager;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Tests for {@link PdfThumbnailGenerator}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class PdfThumbnailGeneratorTest {
+
+	private static byte[] PICTURE;
+
+	@TempDir
+	public Path folder;
+
+	private File pdf;
+
+	private File jpg;
+
+	private CountDownLatch started;
+
+	private CountDownLatch rendering;
+
+	private CountDownLatch rendered;
+
+	private ThumbnailStore store;
+
+	private volatile int renderings;
+
+	private PdfThumbnailGenerator test;
+
+	@BeforeAll
+	public static void setUpPicture() throws IOException {
+		final BufferedImage image = new BufferedImage(1000, 1414, BufferedImage.TYPE_INT_RGB);
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		ImageIO.write(image, "jpg", output);
+		PICTURE = output.toByteArray();
+	}
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		this.store = new ThumbnailStore(this.folder.resolve("uploads").toString());
+		this.pdf = this.folder.resolve("PDF1.pdf").toFile();
+		Files.write(this.pdf.toPath(), new byte[] {1, 2, 3});
+		this.pdf.setLastModified(100000);
+		this.jpg = this.folder.resolve("PDF1.jpg").toFile();
+		this.started = new CountDownLatch(1);
+		this.rendering = new CountDownLatch(0);
+		this.rendered = new CountDownLatch(1);
+		this.test = new PdfThumbnailGenerator(this.store, 50, 0, 80, 1, 1) {
+			@Override
+			protected void render(File pdfFile, OutputStream output) throws IOException {
+				PdfThumbnailGeneratorTest.this.renderings++;
+				PdfThumbnailGeneratorTest.this.started.countDown();
+				try {
+					PdfThumbnailGeneratorTest.this.rendering.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException ex) {
+					throw new IOException(ex);
+				}
+				output.write(PICTURE);
+				PdfThumbnailGeneratorTest.this.rendered.countDown();
+			}
+		};
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.test.shutdown();
+	}
+
+	@Test
+	public void isStale() throws IOException {
+		assertTrue(PdfThumbnailGenerator.isStale(this.pdf, this.jpg));
+		Files.write(this.jpg.toPath(), PICTURE);
+		this.jpg.setLastModified(50000);
+		assertTrue(PdfThumbnailGenerator.isStale(this.pdf, this.jpg));
+		this.jpg.setLastModified(100000);
+		assertFalse(PdfThumbnailGenerator.isStale(this.pdf, this.jpg));
+	}
+
+	@Test
+	public void generate() throws IOException {
+		this.test.generate(this.pdf, this.jpg);
+		assertArrayEquals(PICTURE, Files.readAllBytes(this.jpg.toPath()));
+		assertEquals(3, this.folder.toFile().list().length);
+
+		final String hash = this.store.getContentHash(this.pdf);
+		assertTrue(this.store.contains(hash));
+		assertEquals(hash, this.store.getThumbnailHash(this.pdf));
+		assertArrayEquals(PICTURE, Files.readAllBytes(this.store.getThumbnailFile(hash, ThumbnailSize.ORIGINAL).toPath()));
+		assertEquals(120, ImageIO.read(this.store.getThumbnailFile(hash, ThumbnailSize.SMALL)).getWidth());
+		assertEquals(480, ImageIO.read(this.store.getThumbnailFile(hash, ThumbnailSize.MEDIUM)).getWidth());
+	}
+
+	@Test
+	public void generate_samePdfContent() throws IOException {
+		final File pdf2 = this.folder.resolve("PDF2.pdf").toFile();
+		Files.copy(this.pdf.toPath(), pdf2.toPath());
+		final File jpg2 = this.folder.resolve("PDF2.jpg").toFile();
+
+		this.test.generate(this.pdf, this.jpg);
+		this.test.generate(pdf2, jpg2);
+
+		assertEquals(1, this.renderings);
+		assertArrayEquals(PICTURE, Files.readAllBytes(jpg2.toPath()));
+	}
+
+	@Test
+	public void generate_noPage() throws IOException {
+		this.test = new PdfThumbnailGenerator(this.store, 50, 0, 80, 1, 1) {
+			@Override
+			protected void render(File pdfFile, OutputStream output) throws IOException {
+				//
+			}
+		};
+		this.test.generate(this.pdf, this.jpg);
+		assertFalse(this.jpg.exists());
+		assertFalse(this.store.contains(this.store.getContentHash(this.pdf)));
+		assertNull(this.store.getThumbnailHash(this.pdf));
+	}
+
+	@Test
+	public void generate_noPdf() throws IOException {
+		this.pdf.delete();
+		this.test.generate(this.pdf, this.jpg);
+		assertFalse(this.jpg.exists());
+	}
+
+	@Test
+	public void generate_error() throws IOException {
+		Files.write(this.jpg.toPath(), PICTURE);
+		this.test = new PdfThumbnailGenerator(this.store, 50, 0, 80, 1, 1) {
+			@Override
+			protected void render(File pdfFile, OutputStream output) throws IOException {
+				output.write(1);
+				throw new IOException();
+			}
+		};
+		assertThrows(IOException.class, () -> this.test.generate(this.pdf, this.jpg));
+		// The previous picture is unchanged
+		assertArrayEquals(PICTURE, Files.readAllBytes(this.jpg.toPath()));
+		assertEquals(2, this.folder.toFile().list().length);
+	}
+
+	@Test
+	public void getPlaceholder() throws IOException {
+		final BufferedImage image = ImageIO.read(new ByteArrayInputStream(this.test.getPlaceholder()));
+		assertNotNull(image);
+		assertEquals(414, image.getWidth());
+		assertEquals(585, image.getHeight());
+	}
+
+	@Test
+	public void getPlaceholder_width() throws IOException {
+		this.test = new PdfThumbnailGenerator(this.store, 50, 200, 80, 1, 1);
+		final BufferedImage image = ImageIO.read(new ByteArrayInputStream(this.test.getPlaceholder()));
+		assertEquals(200, image.getWidth());
+		assertEquals(283, image.getHeight());
+	}
+
+	@Test
+	public void generateLater() throws Exception {
+		this.rendering = new CountDownLatch(1);
+		this.test.generateLater(this.pdf, this.jpg);
+
+		// The placeholder is provided and it is stale until the end of the rendering
+		assertArrayEquals(this.test.getPlaceholder(), Files.readAllBytes(this.jpg.toPath()));
+		assertTrue(PdfThumbnailGenerator.isStale(this.pdf, this.jpg));
+
+		this.rendering.countDown();
+		assertTrue(this.rendered.await(5, TimeUnit.SECONDS));
+		waitForPendingJobs();
+		assertArrayEquals(PICTURE, Files.readAllBytes(this.jpg.toPath()));
+		assertFalse(PdfThumbnailGenerator.isStale(this.pdf, this.jpg));
+	}
+
+	@Test
+	public void submit_queueFull() throws Exception {
+		this.rendering = new CountDownLatch(1);
+		final File jpg2 = this.folder.resolve("PDF2.jpg").toFile();
+		final File jpg3 = this.folder.resolve("PDF3.jpg").toFile();
+		assertTrue(this.test.submit(this.pdf, this.jpg));
+		// Wait for the first job to be taken by the single worker
+		assertTrue(this.started.await(5, TimeUnit.SECONDS));
+		assertTrue(this.test.submit(this.pdf, jpg2));
+		assertFalse(this.test.submit(this.pdf, jpg3));
+		this.rendering.countDown();
+	}
+
+	@Test
+	public void submit_alreadyWaiting() throws Exception {
+		this.rendering = new CountDownLatch(1);
+		final File jpg2 = this.folder.resolve("PDF2.jpg").toFile();
+		assertTrue(this.test.submit(this.pdf, this.jpg));
+		assertTrue(this.started.await(5, TimeUnit.SECONDS));
+		assertTrue(this.test.submit(this.pdf, jpg2));
+		// The queue is full, but the same picture is already waiting
+		assertTrue(this.test.submit(this.pdf, jpg2));
+		assertEquals(2, this.test.getPendingCount());
+		this.rendering.countDown();
+	}
+
+	@Test
+	public void submitAll() throws Exception {
+		// Up-to-date picture, but the store does not contain the pictures
+		Files.write(this.jpg.toPath(), new byte[] {1});
+		this.jpg.setLastModified(200000);
+		// Up-to-date picture with pictures in the store
+		final File pdf2 = this.folder.resolve("PDF2.pdf").toFile();
+		Files.write(pdf2.toPath(), new byte[] {4, 5, 6});
+		pdf2.setLastModified(100000);
+		this.store.store(this.store.getContentHash(pdf2), PICTURE, 80);
+		final File jpg2 = this.folder.resolve("PDF2.jpg").toFile();
+		Files.write(jpg2.toPath(), new byte[] {2});
+		jpg2.setLastModified(200000);
+		// Missing picture with pictures in the store
+		final File pdf3 = this.folder.resolve("PDF3.pdf").toFile();
+		Files.copy(pdf2.toPath(), pdf3.toPath());
+		final File jpg3 = this.folder.resolve("PDF3.jpg").toFile();
+
+		final Map<File, File> pictures = new LinkedHashMap<>();
+		pictures.put(this.pdf, this.jpg);
+		pictures.put(pdf2, jpg2);
+		pictures.put(pdf3, jpg3);
+		assertTrue(this.test.submitAll(pictures));
+		waitForPendingJobs();
+
+		assertEquals(1, this.renderings);
+		assertArrayEquals(PICTURE, Files.readAllBytes(this.jpg.toPath()));
+		assertArrayEquals(new byte[] {2}, Files.readAllBytes(jpg2.toPath()));
+		assertArrayEquals(PICTURE, Files.readAllBytes(jpg3.toPath()));
+		// The hashes of the verified files are recorded
+		assertNotNull(this.store.getThumbnailHash(this.pdf));
+		assertNotNull(this.store.getThumbnailHash(pdf2));
+		assertNotNull(this.store.getThumbnailHash(pdf3));
+	}
+
+	private void waitForPendingJobs() throws InterruptedException {
+		final long end = System.currentTimeMillis() + 5000;
+		while (this.test.getPendingCount() > 0 && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+	}
+
+}
@@ -0,0 +1,174 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.filemanager;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.arakhne.afc.vmutil.FileSystem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Tests for {@link ThumbnailStore}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class ThumbnailStoreTest {
+
+	/** SHA-256 of the bytes {@code abc}.
+	 */
+	private static final String ABC_HASH = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+	@TempDir
+	public Path folder;
+
+	private ThumbnailStore test;
+
+	@BeforeEach
+	public void setUp() {
+		this.test = new ThumbnailStore(this.folder.toString());
+	}
+
+	private static byte[] createPicture(int width, int height) throws IOException {
+		final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		ImageIO.write(image, "jpg", output);
+		return output.toByteArray();
+	}
+
+	@Test
+	public void getRootFile() {
+		assertEquals(FileSystem.join(this.folder.toFile(), "Downloadables", "Thumbnails"), this.test.getRootFile());
+	}
+
+	@Test
+	public void isValidHash() {
+		assertTrue(ThumbnailStore.isValidHash(ABC_HASH));
+		assertFalse(ThumbnailStore.isValidHash(null));
+		assertFalse(ThumbnailStore.isValidHash("abc"));
+		assertFalse(ThumbnailStore.isValidHash(ABC_HASH.toUpperCase()));
+		assertFalse(ThumbnailStore.isValidHash("../" + ABC_HASH.substring(3)));
+	}
+
+	@Test
+	public void getContentHash() throws IOException {
+		final File file = this.folder.resolve("a.pdf").toFile();
+		Files.write(file.toPath(), "abc".getBytes());
+		assertEquals(ABC_HASH, this.test.getContentHash(file));
+	}
+
+	@Test
+	public void getContentHash_changedFile() throws IOException {
+		final File file = this.folder.resolve("a.pdf").toFile();
+		Files.write(file.toPath(), "abc".getBytes());
+		file.setLastModified(10000);
+		assertEquals(ABC_HASH, this.test.getContentHash(file));
+		Files.write(file.toPath(), "abd".getBytes());
+		file.setLastModified(20000);
+		assertNotEquals(ABC_HASH, this.test.getContentHash(file));
+	}
+
+	@Test
+	public void getContentHash_noFile() {
+		assertThrows(IOException.class, () -> this.test.getContentHash(this.folder.resolve("a.pdf").toFile()));
+	}
+
+	@Test
+	public void recordThumbnail() throws IOException {
+		final File file = this.folder.resolve("a.pdf").toFile();
+		Files.write(file.toPath(), "abc".getBytes());
+		assertNull(this.test.getThumbnailHash(file));
+		this.test.recordThumbnail(file, ABC_HASH);
+		// The hash was not computed
+		assertNull(this.test.getThumbnailHash(file));
+		this.test.recordThumbnail(file, this.test.getContentHash(file));
+		assertEquals(ABC_HASH, this.test.getThumbnailHash(file));
+	}
+
+	@Test
+	public void recordThumbnail_changedFile() throws IOException {
+		final File file = this.folder.resolve("a.pdf").toFile();
+		Files.write(file.toPath(), "abc".getBytes());
+		file.setLastModified(10000);
+		this.test.recordThumbnail(file, this.test.getContentHash(file));
+		Files.write(file.toPath(), "abd".getBytes());
+		file.setLastModified(20000);
+		assertNull(this.test.getThumbnailHash(file));
+	}
+
+	@Test
+	public void getThumbnailFile() {
+		assertEquals(FileSystem.join(this.test.getRootFile(), "ba", ABC_HASH + "-small.jpg"),
+				this.test.getThumbnailFile(ABC_HASH, ThumbnailSize.SMALL));
+		assertEquals(FileSystem.join(this.test.getRootFile(), "ba", ABC_HASH + "-original.jpg"),
+				this.test.getThumbnailFile(ABC_HASH, ThumbnailSize.ORIGINAL));
+	}
+
+	@Test
+	public void store() throws IOException {
+		final byte[] picture = createPicture(1000, 1500);
+		assertFalse(this.test.contains(ABC_HASH));
+
+		this.test.store(ABC_HASH, picture, 80);
+
+		assertTrue(this.test.contains(ABC_HASH));
+		assertArrayEquals(picture, Files.readAllBytes(this.test.getThumbnailFile(ABC_HASH, ThumbnailSize.ORIGINAL).toPath()));
+		final BufferedImage small = ImageIO.read(this.test.getThumbnailFile(ABC_HASH, ThumbnailSize.SMALL));
+		assertEquals(120, small.getWidth());
+		assertEquals(180, small.getHeight());
+		final BufferedImage medium = ImageIO.read(this.test.getThumbnailFile(ABC_HASH, ThumbnailSize.MEDIUM));
+		assertEquals(480, medium.getWidth());
+		assertEquals(720, medium.getHeight());
+	}
+
+	@Test
+	public void store_smallPicture() throws IOException {
+		final byte[] picture = createPicture(200, 300);
+
+		this.test.store(ABC_HASH, picture, 80);
+
+		assertEquals(120, ImageIO.read(this.test.getThumbnailFile(ABC_HASH, ThumbnailSize.SMALL)).getWidth());
+		// The picture is not scaled up
+		assertArrayEquals(picture, Files.readAllBytes(this.test.getThumbnailFile(ABC_HASH, ThumbnailSize.MEDIUM).toPath()));
+	}
+
+	@Test
+	public void store_invalidPicture() {
+		assertThrows(IOException.class, () -> this.test.store(ABC_HASH, new byte[] {1, 2, 3}, 80));
+		assertFalse(this.test.contains(ABC_HASH));
+	}
+
+}
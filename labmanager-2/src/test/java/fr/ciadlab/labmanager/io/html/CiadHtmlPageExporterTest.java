@@ -16,9 +16,12 @@
 
 package fr.ciadlab.labmanager.io.html;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -39,6 +42,7 @@ import fr.ciadlab.labmanager.entities.publication.PublicationType;
 import fr.ciadlab.labmanager.entities.publication.type.ConferencePaper;
 import fr.ciadlab.labmanager.entities.publication.type.JournalPaper;
 import fr.ciadlab.labmanager.io.ExporterConfigurator;
+import fr.ciadlab.labmanager.io.filemanager.DownloadableFileManager;
 import fr.ciadlab.labmanager.utils.doi.DoiTools;
 import fr.ciadlab.labmanager.utils.ranking.QuartileRanking;
 import org.junit.jupiter.api.BeforeEach;
@@ -62,6 +66,8 @@ public class CiadHtmlPageExporterTest {
 
 	private DoiTools doiTools;
 
+	private DownloadableFileManager fileManager;
+
 	private CiadHtmlPageExporter test;
 
 	@BeforeEach
@@ -69,7 +75,41 @@ public class CiadHtmlPageExporterTest {
 		this.messages = BaseMessageSource.getStaticMessageSourceAccessor();
 		this.doiTools = mock(DoiTools.class);
 		when(this.doiTools.getDOIUrlFromDOINumber(any())).thenReturn(new URL("https://doi.org/XXX"));
-		this.test = new CiadHtmlPageExporter(new Constants(), this.messages, this.doiTools);
+		this.fileManager = mock(DownloadableFileManager.class);
+		this.test = new CiadHtmlPageExporter(new Constants(), this.messages, this.doiTools, this.fileManager);
+	}
+
+	@Test
+	public void getButtonToDownloadPublicationPDF_empty() throws Exception {
+		assertEquals("", this.test.getButtonToDownloadPublicationPDF(null));
+		assertEquals("", this.test.getButtonToDownloadPublicationPDF(""));
+	}
+
+	@Test
+	public void getButtonToDownloadPublicationPDF_noThumbnail() throws Exception {
+		final String html = this.test.getButtonToDownloadPublicationPDF("Downloadables/PDFs/PDF123.pdf");
+		assertEquals("<a class=\"btn btn-xs btn-success\" href=\"/LabManagerApi/Downloadables/PDFs/PDF123.pdf\">"
+				+ "<img src=\"/LabManagerApi/Downloadables/PDFs/PDF123.jpg\" class=\"publicationDetailsDownloadAttachment\" alt=\"?\"/><br/>"
+				+ "PDF</a>", html);
+	}
+
+	@Test
+	public void getButtonToDownloadPublicationPDF_thumbnail() throws Exception {
+		when(this.fileManager.getThumbnailHash(eq(new File("Downloadables/PDFs/PDF123.pdf")))).thenReturn("abc");
+		final String html = this.test.getButtonToDownloadPublicationPDF("Downloadables/PDFs/PDF123.pdf");
+		assertEquals("<a class=\"btn btn-xs btn-success\" href=\"/LabManagerApi/Downloadables/PDFs/PDF123.pdf\">"
+				+ "<img src=\"/LabManagerApi/thumbnail/abc/small\" "
+				+ "srcset=\"/LabManagerApi/thumbnail/abc/small 120w, /LabManagerApi/thumbnail/abc/medium 480w\" sizes=\"120px\" "
+				+ "class=\"publicationDetailsDownloadAttachment\" alt=\"?\"/><br/>"
+				+ "PDF</a>", html);
+	}
+
+	@Test
+	public void getButtonToDownloadPublicationAwardCertificate_thumbnail() throws Exception {
+		when(this.fileManager.getThumbnailHash(eq(new File("Downloadables/Awards/Award123.pdf")))).thenReturn("abc");
+		final String html = this.test.getButtonToDownloadPublicationAwardCertificate("Downloadables/Awards/Award123.pdf");
+		assertTrue(html.contains("<img src=\"/LabManagerApi/thumbnail/abc/small\""));
+		assertTrue(html.endsWith("Award</a>"));
 	}
 
 	@Test
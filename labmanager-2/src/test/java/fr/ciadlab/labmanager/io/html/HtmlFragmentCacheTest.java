@@ -0,0 +1,212 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.html;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import fr.ciadlab.labmanager.entities.member.Membership;
+import fr.ciadlab.labmanager.entities.publication.Authorship;
+import fr.ciadlab.labmanager.entities.publication.Publication;
+import fr.ciadlab.labmanager.io.ExporterConfigurator;
+import fr.ciadlab.labmanager.service.journal.JournalService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link HtmlFragmentCache}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class HtmlFragmentCacheTest {
+
+	private ExporterConfigurator configurator;
+
+	private AtomicInteger renderings;
+
+	private Supplier<HtmlFragments> renderer;
+
+	private HtmlFragmentCache test;
+
+	private static Publication createPublication(int id) {
+		final Publication pub = mock(Publication.class);
+		lenient().when(pub.getId()).thenReturn(id);
+		return pub;
+	}
+
+	@BeforeEach
+	public void setUp() {
+		this.configurator = new ExporterConfigurator(mock(JournalService.class));
+		this.renderings = new AtomicInteger();
+		this.renderer = () -> {
+			this.renderings.incrementAndGet();
+			return new HtmlFragments(null, null, null, null, null, null);
+		};
+		this.test = new HtmlFragmentCache(new SimpleMeterRegistry(), 2);
+	}
+
+	private HtmlFragments get(Publication publication) {
+		return this.test.getFragments(publication, this.configurator, Locale.FRANCE, this.renderer);
+	}
+
+	@Test
+	public void getFragments() {
+		final Publication pub = createPublication(12);
+		final HtmlFragments fragments = get(pub);
+		assertSame(fragments, get(pub));
+		assertEquals(1, this.renderings.get());
+		assertEquals(1, this.test.size());
+		assertEquals(1, this.test.getHitCount());
+		assertEquals(1, this.test.getMissCount());
+	}
+
+	@Test
+	public void getFragments_otherLocale() {
+		final Publication pub = createPublication(12);
+		final HtmlFragments fragments = get(pub);
+		assertNotSame(fragments, this.test.getFragments(pub, this.configurator, Locale.US, this.renderer));
+		assertEquals(2, this.renderings.get());
+	}
+
+	@Test
+	public void getFragments_otherConfigurator() {
+		final Publication pub = createPublication(12);
+		get(pub);
+		this.configurator.disableFormattedLinks();
+		get(pub);
+		assertEquals(2, this.renderings.get());
+	}
+
+	@Test
+	public void getFragments_notSavedPublication() {
+		final Publication pub = createPublication(0);
+		get(pub);
+		get(pub);
+		assertEquals(2, this.renderings.get());
+		assertEquals(0, this.test.size());
+	}
+
+	@Test
+	public void getFragments_noFingerprint() {
+		this.configurator.selectPerson(it -> true);
+		final Publication pub = createPublication(12);
+		get(pub);
+		get(pub);
+		assertEquals(2, this.renderings.get());
+		assertEquals(0, this.test.size());
+	}
+
+	@Test
+	public void getFragments_leastRecentlyUsed() {
+		final Publication pub1 = createPublication(12);
+		final Publication pub2 = createPublication(34);
+		final Publication pub3 = createPublication(56);
+		get(pub1);
+		get(pub2);
+		get(pub1);
+		get(pub3);
+		assertEquals(2, this.test.size());
+		assertEquals(3, this.renderings.get());
+		// pub2 was the least recently used
+		get(pub1);
+		assertEquals(3, this.renderings.get());
+		get(pub2);
+		assertEquals(4, this.renderings.get());
+	}
+
+	@Test
+	public void invalidatePublication() {
+		final Publication pub1 = createPublication(12);
+		final Publication pub2 = createPublication(34);
+		get(pub1);
+		get(pub2);
+		this.test.invalidatePublication(12);
+		get(pub1);
+		get(pub2);
+		assertEquals(3, this.renderings.get());
+	}
+
+	@Test
+	public void invalidateAll() {
+		final Publication pub1 = createPublication(12);
+		final Publication pub2 = createPublication(34);
+		get(pub1);
+		get(pub2);
+		this.test.invalidateAll();
+		assertEquals(0, this.test.size());
+		get(pub1);
+		get(pub2);
+		assertEquals(4, this.renderings.get());
+	}
+
+	@Test
+	public void invalidatePublication_duringRendering() {
+		final Publication pub = createPublication(12);
+		final HtmlFragments fragments = this.test.getFragments(pub, this.configurator, Locale.FRANCE, () -> {
+			this.test.invalidatePublication(12);
+			return this.renderer.get();
+		});
+		assertEquals(0, this.test.size());
+		assertNotSame(fragments, get(pub));
+		assertEquals(2, this.renderings.get());
+		assertEquals(1, this.test.size());
+	}
+
+	@Test
+	public void invalidateAll_duringRendering() {
+		final Publication pub = createPublication(12);
+		this.test.getFragments(pub, this.configurator, Locale.FRANCE, () -> {
+			this.test.invalidateAll();
+			return this.renderer.get();
+		});
+		assertEquals(0, this.test.size());
+		get(pub);
+		assertEquals(2, this.renderings.get());
+	}
+
+	@Test
+	public void listener() {
+		final HtmlFragmentCacheListener listener = new HtmlFragmentCacheListener();
+		listener.setHtmlFragmentCache(this.test);
+		final Publication pub1 = createPublication(12);
+		final Publication pub2 = createPublication(34);
+		get(pub1);
+		get(pub2);
+
+		final Authorship authorship = mock(Authorship.class);
+		lenient().when(authorship.getPublication()).thenReturn(pub2);
+		listener.entityChanged(authorship);
+		get(pub1);
+		get(pub2);
+		assertEquals(3, this.renderings.get());
+
+		listener.entityChanged(mock(Membership.class));
+		assertEquals(0, this.test.size());
+	}
+
+}
@@ -0,0 +1,224 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.ciadlab.labmanager.entities.journal.Journal;
+import fr.ciadlab.labmanager.entities.member.Membership;
+import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.entities.organization.ResearchOrganization;
+import fr.ciadlab.labmanager.entities.publication.Authorship;
+import fr.ciadlab.labmanager.entities.publication.type.JournalPaper;
+import fr.ciadlab.labmanager.repository.journal.JournalRepository;
+import fr.ciadlab.labmanager.repository.member.MembershipRepository;
+import fr.ciadlab.labmanager.repository.member.PersonRepository;
+import fr.ciadlab.labmanager.repository.organization.ResearchOrganizationRepository;
+import fr.ciadlab.labmanager.repository.publication.PublicationRepository;
+import fr.ciadlab.labmanager.utils.StreamingTransactionRunner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.helpers.NOPLogger;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/** Tests for {@link DatabaseToJsonExporter}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class DatabaseToJsonExporterTest {
+
+	private ResearchOrganizationRepository organizationRepository;
+
+	private PersonRepository personRepository;
+
+	private MembershipRepository membershipRepository;
+
+	private JournalRepository journalRepository;
+
+	private PublicationRepository publicationRepository;
+
+	private EntityManager entityManager;
+
+	private PlatformTransactionManager transactionManager;
+
+	private DatabaseToJsonExporter test;
+
+	@BeforeEach
+	public void setUp() {
+		this.organizationRepository = mock(ResearchOrganizationRepository.class);
+		when(this.organizationRepository.streamAllOrderedById()).thenAnswer(it -> Stream.empty());
+		this.personRepository = mock(PersonRepository.class);
+		when(this.personRepository.streamAllOrderedById()).thenAnswer(it -> Stream.empty());
+		this.membershipRepository = mock(MembershipRepository.class);
+		when(this.membershipRepository.streamAllOrderedById()).thenAnswer(it -> Stream.empty());
+		this.journalRepository = mock(JournalRepository.class);
+		when(this.journalRepository.streamAllOrderedById()).thenAnswer(it -> Stream.empty());
+		this.publicationRepository = mock(PublicationRepository.class);
+		when(this.publicationRepository.streamAllOrderedById()).thenAnswer(it -> Stream.empty());
+		this.entityManager = mock(EntityManager.class);
+		this.transactionManager = mock(PlatformTransactionManager.class);
+		when(this.transactionManager.getTransaction(any())).thenAnswer(it -> new SimpleTransactionStatus());
+		this.test = new DatabaseToJsonExporter(
+				this.organizationRepository,
+				this.personRepository,
+				this.membershipRepository,
+				this.journalRepository,
+				this.publicationRepository,
+				this.entityManager,
+				new StreamingTransactionRunner(this.transactionManager, null, null, ""),
+				2);
+		this.test.setLogger(NOPLogger.NOP_LOGGER);
+	}
+
+	private JsonNode exportToJsonStream() throws Exception {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		this.test.exportFromDatabaseToJsonStream(output);
+		return new ObjectMapper().readTree(output.toByteArray());
+	}
+
+	@Test
+	public void exportFromDatabaseToJsonStream_empty() throws Exception {
+		final JsonNode root = exportToJsonStream();
+		assertTrue(root.isObject());
+		assertEquals(0, root.size());
+		verify(this.transactionManager).commit(any());
+	}
+
+	@Test
+	public void exportFromDatabaseToJsonStream() throws Exception {
+		final ResearchOrganization o1 = new ResearchOrganization();
+		o1.setId(10);
+		o1.setAcronym("CIAD");
+		final ResearchOrganization o2 = new ResearchOrganization();
+		o2.setId(20);
+		o2.setAcronym("UTBM");
+		o1.setSuperOrganization(o2);
+		when(this.organizationRepository.findAllIdsOrderedById()).thenReturn(Arrays.asList(10, 20));
+		when(this.organizationRepository.streamAllOrderedById()).thenAnswer(it -> Stream.of(o1, o2));
+
+		final Person p1 = new Person();
+		p1.setId(5);
+		p1.setFirstName("Stephane");
+		p1.setLastName("Galland");
+		final Person p2 = new Person();
+		p2.setId(7);
+		p2.setFirstName("Jean");
+		p2.setLastName("Dupont");
+		when(this.personRepository.streamAllOrderedById()).thenAnswer(it -> Stream.of(p1, p2));
+
+		final Membership m1 = new Membership();
+		m1.setId(1);
+		m1.setPerson(p2);
+		m1.setResearchOrganization(o1);
+		when(this.membershipRepository.streamAllOrderedById()).thenAnswer(it -> Stream.of(m1));
+
+		final Journal j1 = new Journal();
+		j1.setId(3);
+		j1.setJournalName("Journal of Tests");
+		when(this.journalRepository.streamAllOrderedById()).thenAnswer(it -> Stream.of(j1));
+
+		final JournalPaper pub1 = new JournalPaper();
+		pub1.setId(100);
+		pub1.setTitle("My title");
+		pub1.setJournal(j1);
+		pub1.setAuthorships(new HashSet<>(Arrays.asList(new Authorship(pub1, p2, 0), new Authorship(pub1, p1, 1))));
+		when(this.publicationRepository.streamAllOrderedById()).thenAnswer(it -> Stream.of(pub1));
+
+		final JsonNode root = exportToJsonStream();
+
+		final JsonNode organizations = root.get(JsonTool.RESEARCHORGANIZATIONS_SECTION);
+		assertEquals(2, organizations.size());
+		assertEquals("/ro#0", organizations.get(0).get("@id").asText());
+		assertEquals("CIAD", organizations.get(0).get("acronym").asText());
+		assertEquals("/ro#1", organizations.get(0).get("superOrganization").get("@id").asText());
+		assertEquals("/ro#1", organizations.get(1).get("@id").asText());
+		assertFalse(organizations.get(1).has("superOrganization"));
+
+		final JsonNode persons = root.get(JsonTool.PERSONS_SECTION);
+		assertEquals(2, persons.size());
+		assertEquals("/pers#0", persons.get(0).get("@id").asText());
+		assertEquals("Galland", persons.get(0).get("lastName").asText());
+		assertEquals("/pers#1", persons.get(1).get("@id").asText());
+
+		final JsonNode memberships = root.get(JsonTool.MEMBERSHIPS_SECTION);
+		assertEquals(1, memberships.size());
+		assertEquals("/mbr#0", memberships.get(0).get("@id").asText());
+		assertEquals("/pers#1", memberships.get(0).get("person").get("@id").asText());
+		assertEquals("/ro#0", memberships.get(0).get("researchOrganization").get("@id").asText());
+
+		final JsonNode journals = root.get(JsonTool.JOURNALS_SECTION);
+		assertEquals(1, journals.size());
+		assertEquals("/jour#0", journals.get(0).get("@id").asText());
+
+		final JsonNode publications = root.get(JsonTool.PUBLICATIONS_SECTION);
+		assertEquals(1, publications.size());
+		final JsonNode publication = publications.get(0);
+		assertEquals("/publi#0", publication.get("@id").asText());
+		assertEquals("My title", publication.get("title").asText());
+		assertEquals(100, publication.get("_database-id").asInt());
+		assertEquals("/jour#0", publication.get("journal").get("@id").asText());
+		assertEquals(2, publication.get("authors").size());
+		assertEquals("/pers#1", publication.get("authors").get(0).get("@id").asText());
+		assertEquals("/pers#0", publication.get("authors").get(1).get("@id").asText());
+		assertEquals(JsonTool.HIDDEN_INTERNAL_DATABASE_SOURCE_VALUE, publication.get(JsonTool.HIDDEN_INTERNAL_DATA_SOURCE_KEY).asText());
+
+		assertNotNull(root.get("_last-update-date"));
+
+		// 7 entities with batches of 2 entities
+		verify(this.entityManager, times(3)).clear();
+		verify(this.transactionManager).commit(any());
+	}
+
+	@Test
+	public void exportFromDatabaseToJsonStream_error() throws Exception {
+		final ResearchOrganization o1 = new ResearchOrganization();
+		o1.setId(10);
+		o1.setAcronym("CIAD");
+		when(this.organizationRepository.findAllIdsOrderedById()).thenReturn(Collections.emptyList());
+		when(this.organizationRepository.streamAllOrderedById()).thenAnswer(it -> Stream.of(o1));
+
+		assertThrows(IllegalStateException.class, () -> exportToJsonStream());
+
+		verify(this.transactionManager).commit(argThat(it -> it.isRollbackOnly()));
+	}
+
+}
@@ -0,0 +1,231 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.json;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.entities.publication.type.JournalPaper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/** Micro-benchmark that compares the binding of the entities with the reflection API, as it was done
+ * by the JSON importer and exporter, with the binding based on {@link EntityBinder}.
+ * The import creates an entity and calls its setter functions for each attribute of a JSON object.
+ * The export calls the getter functions of an entity. The results are given per entity.
+ *
+ * <p>This benchmark is not a unit test. It could be launched with the {@link #main(String[])} function
+ * from the test class-path.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EntityBinderBenchmark {
+
+	private static final int NB_ENTITIES = 1000;
+
+	@Param({ "person", "journalPaper" })
+	public String entityType;
+
+	private Class<?> type;
+
+	private List<ObjectNode> sources;
+
+	private List<Object> entities;
+
+	private Map<String, Set<String>> aliases;
+
+	/** Create the JSON objects and the entities.
+	 *
+	 * @throws Exception if the entities cannot be created.
+	 */
+	@Setup
+	public void setUp() throws Exception {
+		final ObjectMapper mapper = new ObjectMapper();
+		this.sources = new ArrayList<>(NB_ENTITIES);
+		for (int i = 0; i < NB_ENTITIES; ++i) {
+			final ObjectNode node = mapper.createObjectNode();
+			if ("person".equals(this.entityType)) {
+				node.put("firstName", "First" + i);
+				node.put("lastName", "Last" + i);
+				node.put("email", "first.last" + i + "@ciad-lab.fr");
+				node.put("orcid", "0000-0000-0000-" + i);
+				node.put("gravatarId", "g" + i);
+				node.put("officePhone", "+33 3 84 00 00 00");
+				node.put("googleScholarHindex", i % 40);
+				node.put("wosHindex", i % 30);
+			} else {
+				node.put("title", "Title of the paper " + i);
+				node.put("publicationYear", 2000 + i % 22);
+				node.put("doi", "10.1000/" + i);
+				node.put("issn", "1234-5678");
+				node.put("volume", Integer.toString(i % 50));
+				node.put("number", Integer.toString(i % 12));
+				node.put("pages", "1-" + i);
+				node.put("manualValidationForced", (i % 2) == 0);
+			}
+			this.sources.add(node);
+		}
+		this.type = "person".equals(this.entityType) ? Person.class : JournalPaper.class;
+		this.aliases = new HashMap<>();
+		this.entities = new ArrayList<>(NB_ENTITIES);
+		for (final ObjectNode source : this.sources) {
+			this.entities.add(importWithBinder(source));
+		}
+	}
+
+	private Set<String> getAliases(String key) {
+		return this.aliases.computeIfAbsent(key, it -> {
+			final Set<String> set = new TreeSet<>();
+			set.add(JsonTool.SETTER_FUNCTION_PREFIX + key.toLowerCase());
+			return set;
+		});
+	}
+
+	private Object importWithReflection(ObjectNode source) throws Exception {
+		final Object entity = this.type.getConstructor().newInstance();
+		final Iterator<Entry<String, JsonNode>> iterator = source.fields();
+		while (iterator.hasNext()) {
+			final Entry<String, JsonNode> entry = iterator.next();
+			final Object value = JsonTool.getRawValue(entry.getValue());
+			final Method method = JsonTool.findSetterMethod(this.type, getAliases(entry.getKey()), value);
+			if (method != null) {
+				method.invoke(entity, value);
+			}
+		}
+		return entity;
+	}
+
+	private Object importWithBinder(ObjectNode source) throws Exception {
+		final EntityBinder<?> binder = EntityBinder.of(this.type);
+		final Object entity = binder.newInstance();
+		final Iterator<Entry<String, JsonNode>> iterator = source.fields();
+		while (iterator.hasNext()) {
+			final Entry<String, JsonNode> entry = iterator.next();
+			final Object value = JsonTool.getRawValue(entry.getValue());
+			final BiConsumer<Object, Object> setter = binder.findSetter(getAliases(entry.getKey()), value.getClass());
+			if (setter != null) {
+				setter.accept(entity, value);
+			}
+		}
+		return entity;
+	}
+
+	/** Import the JSON objects with the reflection API.
+	 *
+	 * @param blackhole the consumer of the results.
+	 * @throws Exception if the entities cannot be created.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(NB_ENTITIES)
+	public void importReflection(Blackhole blackhole) throws Exception {
+		for (final ObjectNode source : this.sources) {
+			blackhole.consume(importWithReflection(source));
+		}
+	}
+
+	/** Import the JSON objects with the entity binder.
+	 *
+	 * @param blackhole the consumer of the results.
+	 * @throws Exception if the entities cannot be created.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(NB_ENTITIES)
+	public void importBinder(Blackhole blackhole) throws Exception {
+		for (final ObjectNode source : this.sources) {
+			blackhole.consume(importWithBinder(source));
+		}
+	}
+
+	/** Read the attributes of the entities with the reflection API.
+	 *
+	 * @param blackhole the consumer of the results.
+	 * @throws Exception if the attributes cannot be read.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(NB_ENTITIES)
+	public void exportReflection(Blackhole blackhole) throws Exception {
+		for (final Object entity : this.entities) {
+			for (final Entry<String, Method> entry : JsonTool.findGetterMethods(entity.getClass()).entrySet()) {
+				blackhole.consume(JsonTool.convertValue(entry.getValue().invoke(entity)));
+			}
+		}
+	}
+
+	/** Read the attributes of the entities with the entity binder.
+	 *
+	 * @param blackhole the consumer of the results.
+	 * @throws Exception if the attributes cannot be read.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(NB_ENTITIES)
+	public void exportBinder(Blackhole blackhole) throws Exception {
+		for (final Object entity : this.entities) {
+			for (final Entry<String, Function<Object, Object>> entry : EntityBinder.of(entity.getClass()).getGetters().entrySet()) {
+				blackhole.consume(JsonTool.convertValue(entry.getValue().apply(entity)));
+			}
+		}
+	}
+
+	/** Launch the benchmark.
+	 *
+	 * @param args the command-line arguments.
+	 * @throws Exception if the benchmark cannot be run.
+	 */
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(EntityBinderBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+
+}
@@ -0,0 +1,223 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.entities.publication.type.JournalPaper;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link EntityBinder}.
+ * 
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class EntityBinderTest {
+
+	private static Set<String> names(String... names) {
+		return new TreeSet<>(Arrays.asList(names));
+	}
+
+	@Test
+	public void of() {
+		final EntityBinder<Bean> binder = EntityBinder.of(Bean.class);
+		assertNotNull(binder);
+		assertSame(Bean.class, binder.getType());
+		assertSame(binder, EntityBinder.of(Bean.class));
+	}
+
+	@Test
+	public void newInstance() throws Exception {
+		final EntityBinder<Bean> binder = EntityBinder.of(Bean.class);
+		final Bean b1 = binder.newInstance();
+		final Bean b2 = binder.newInstance();
+		assertNotNull(b1);
+		assertNotNull(b2);
+		assertNotSame(b1, b2);
+	}
+
+	@Test
+	public void newInstance_noDefaultConstructor() throws Exception {
+		assertThrows(NoSuchMethodException.class, () -> EntityBinder.of(NoDefaultConstructorBean.class).newInstance());
+	}
+
+	@Test
+	public void findSetter_string() throws Exception {
+		final EntityBinder<Bean> binder = EntityBinder.of(Bean.class);
+		final BiConsumer<Object, Object> setter = binder.findSetter(names("setname"), String.class);
+		assertNotNull(setter);
+		final Bean bean = binder.newInstance();
+		setter.accept(bean, "xyz");
+		assertEquals("xyz", bean.getName());
+	}
+
+	@Test
+	public void findSetter_alias() throws Exception {
+		final EntityBinder<Bean> binder = EntityBinder.of(Bean.class);
+		final BiConsumer<Object, Object> setter = binder.findSetter(names("setlabel", "setname"), String.class);
+		assertNotNull(setter);
+		final Bean bean = binder.newInstance();
+		setter.accept(bean, "xyz");
+		assertEquals("xyz", bean.getName());
+	}
+
+	@Test
+	public void findSetter_overloaded() throws Exception {
+		final EntityBinder<Bean> binder = EntityBinder.of(Bean.class);
+		final Bean bean = binder.newInstance();
+
+		final BiConsumer<Object, Object> setter0 = binder.findSetter(names("setyear"), Integer.class);
+		assertNotNull(setter0);
+		setter0.accept(bean, Integer.valueOf(2022));
+		assertEquals(2022, bean.getYear());
+
+		final BiConsumer<Object, Object> setter1 = binder.findSetter(names("setyear"), String.class);
+		assertNotNull(setter1);
+		setter1.accept(bean, "1999");
+		assertEquals(1999, bean.getYear());
+	}
+
+	@Test
+	public void findSetter_primitiveOnly() throws Exception {
+		// Same as JsonTool.findSetterMethod: the boxed value is not assignable to a primitive type
+		assertNull(EntityBinder.of(Bean.class).findSetter(names("setcount"), Integer.class));
+	}
+
+	@Test
+	public void findSetter_ambiguous() throws Exception {
+		assertNull(EntityBinder.of(Bean.class).findSetter(names("setname", "setlabel", "settitle"), String.class));
+	}
+
+	@Test
+	public void findSetter_unknown() throws Exception {
+		final EntityBinder<Bean> binder = EntityBinder.of(Bean.class);
+		assertNull(binder.findSetter(names("setunknown"), String.class));
+		assertNull(binder.findSetter(names("setname"), Boolean.class));
+		assertNull(binder.findSetter(Collections.emptySet(), String.class));
+	}
+
+	@Test
+	public void findSetter_cached() throws Exception {
+		final EntityBinder<Bean> binder = EntityBinder.of(Bean.class);
+		assertSame(binder.findSetter(names("setname"), String.class), binder.findSetter(names("setname"), String.class));
+	}
+
+	@Test
+	public void getGetters() throws Exception {
+		final EntityBinder<Bean> binder = EntityBinder.of(Bean.class);
+		final Map<String, Function<Object, Object>> getters = binder.getGetters();
+		assertEquals(JsonTool.findGetterMethods(Bean.class).keySet(), getters.keySet());
+
+		final Bean bean = binder.newInstance();
+		bean.setName("xyz");
+		bean.setYear(Integer.valueOf(2022));
+		assertEquals("xyz", getters.get("name").apply(bean));
+		assertEquals(Integer.valueOf(2022), getters.get("year").apply(bean));
+	}
+
+	@Test
+	public void getGetters_entities() throws Exception {
+		assertEquals(JsonTool.findGetterMethods(Person.class).keySet(), EntityBinder.of(Person.class).getGetters().keySet());
+		assertEquals(JsonTool.findGetterMethods(JournalPaper.class).keySet(), EntityBinder.of(JournalPaper.class).getGetters().keySet());
+	}
+
+	@Test
+	public void getGetters_inherited() throws Exception {
+		final JournalPaper paper = EntityBinder.of(JournalPaper.class).newInstance();
+		paper.setTitle("My title");
+		paper.setVolume("12");
+		final Map<String, Function<Object, Object>> getters = EntityBinder.of(JournalPaper.class).getGetters();
+		assertEquals("My title", getters.get("title").apply(paper));
+		assertEquals("12", getters.get("volume").apply(paper));
+	}
+
+	/** Bean for the tests.
+	 */
+	public static class Bean {
+
+		private String name;
+
+		private int year;
+
+		private int count;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public void setTitle(String title) {
+			this.name = title;
+		}
+
+		public int getYear() {
+			return this.year;
+		}
+
+		public void setYear(int year) {
+			this.year = year;
+		}
+
+		public void setYear(Number year) {
+			this.year = year.intValue();
+		}
+
+		public void setYear(String year) {
+			this.year = Integer.parseInt(year);
+		}
+
+		public int getCount() {
+			return this.count;
+		}
+
+		public void setCount(int count) {
+			this.count = count;
+		}
+
+	}
+
+	/** Bean without default constructor for the tests.
+	 */
+	public static class NoDefaultConstructorBean {
+
+		public NoDefaultConstructorBean(String name) {
+			//
+		}
+
+	}
+
+}
@@ -0,0 +1,159 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fr.ciadlab.labmanager.entities.publication.Publication;
+import fr.ciadlab.labmanager.io.ExporterConfigurator;
+import fr.ciadlab.labmanager.io.html.HtmlFragmentCache;
+import fr.ciadlab.labmanager.io.html.HtmlPageExporter;
+import fr.ciadlab.labmanager.service.journal.JournalService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.MessageSourceAccessor;
+
+/** Tests for {@link JacksonJsonExporter}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class JacksonJsonExporterTest {
+
+	private HtmlPageExporter htmlPageExporter;
+
+	private HtmlFragmentCache fragmentCache;
+
+	private ExporterConfigurator configurator;
+
+	private List<Publication> publications;
+
+	private JacksonJsonExporter test;
+
+	private static Publication createPublication(int id) {
+		final Publication pub = mock(Publication.class);
+		lenient().when(pub.getId()).thenReturn(id);
+		return pub;
+	}
+
+	@BeforeEach
+	public void setUp() {
+		this.htmlPageExporter = mock(HtmlPageExporter.class);
+		lenient().when(this.htmlPageExporter.getButtonToEditPublication(anyInt())).thenReturn("<edit/>");
+		lenient().when(this.htmlPageExporter.getButtonToDeletePublication(anyInt())).thenReturn("<delete/>");
+		this.configurator = new ExporterConfigurator(mock(JournalService.class));
+		this.publications = Arrays.asList(createPublication(12), createPublication(34), createPublication(56));
+		this.fragmentCache = new HtmlFragmentCache(new SimpleMeterRegistry(), 16);
+		this.test = new JacksonJsonExporter(mock(MessageSourceAccessor.class), this.htmlPageExporter, this.fragmentCache) {
+			@Override
+			public ObjectNode exportPublication(Publication publication, ExporterConfigurator configurator, ObjectMapper mapper) {
+				final ObjectNode node = mapper.createObjectNode();
+				node.put("id", publication.getId());
+				node.put("publicationYear", 2000 + publication.getId());
+				return node;
+			}
+		};
+	}
+
+	private String exportToStream(List<Publication> publications, String... rootKeys) throws Exception {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		this.test.exportPublicationsToStream(publications, this.configurator, output, rootKeys);
+		return new String(output.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void exportPublicationsToStream_noRootKey() throws Exception {
+		final String expected = this.test.exportPublicationsWithRootKeys(this.publications, this.configurator);
+		assertEquals(expected, exportToStream(this.publications));
+	}
+
+	@Test
+	public void exportPublicationsToStream_rootKeys() throws Exception {
+		final String expected = this.test.exportPublicationsWithRootKeys(this.publications, this.configurator, "a", "data");
+		assertEquals(expected, exportToStream(this.publications, "a", "data"));
+	}
+
+	@Test
+	public void exportPublicationsToStream_null() throws Exception {
+		assertEquals("{\"data\":null}", exportToStream(null, "data"));
+	}
+
+	@Test
+	public void exportPublicationsToStream_content() throws Exception {
+		final ObjectMapper mapper = new ObjectMapper();
+		final ObjectNode root = (ObjectNode) mapper.readTree(exportToStream(this.publications, "data"));
+		assertEquals(3, root.get("data").size());
+		assertEquals(34, root.get("data").get(1).get("id").asInt());
+		assertEquals(2034, root.get("data").get(1).get("year").asInt());
+		assertEquals("<edit/>", root.get("data").get(1).get("htmlEdit").asText());
+		assertEquals("<delete/>", root.get("data").get(1).get("htmlDelete").asText());
+	}
+
+	@Test
+	public void exportPublicationsToStream_fragmentCache() throws Exception {
+		final String first = exportToStream(this.publications, "data");
+		final String second = exportToStream(this.publications, "data");
+		assertEquals(first, second);
+		verify(this.htmlPageExporter, times(1)).getButtonToEditPublication(34);
+		assertEquals(3, this.fragmentCache.getHitCount());
+		assertEquals(3, this.fragmentCache.getMissCount());
+
+		this.fragmentCache.invalidatePublication(34);
+		assertEquals(first, exportToStream(this.publications, "data"));
+		verify(this.htmlPageExporter, times(2)).getButtonToEditPublication(34);
+		verify(this.htmlPageExporter, times(1)).getButtonToEditPublication(12);
+	}
+
+	@Test
+	public void exportPublicationsToStream_fragmentCacheOtherConfigurator() throws Exception {
+		exportToStream(this.publications, "data");
+		this.configurator = new ExporterConfigurator(mock(JournalService.class)).disableDeleteButtons();
+		final ObjectNode root = (ObjectNode) new ObjectMapper().readTree(exportToStream(this.publications, "data"));
+		assertEquals("<edit/>", root.get("data").get(1).get("htmlEdit").asText());
+		assertFalse(root.get("data").get(1).has("htmlDelete"));
+		verify(this.htmlPageExporter, times(2)).getButtonToEditPublication(34);
+	}
+
+	@Test
+	public void exportPublicationsToStream_downloadButtonsNotCached() throws Exception {
+		lenient().when(this.htmlPageExporter.getButtonToDownloadPublicationPDF(any())).thenReturn("<pdf1/>");
+		exportToStream(this.publications, "data");
+		lenient().when(this.htmlPageExporter.getButtonToDownloadPublicationPDF(any())).thenReturn("<pdf2/>");
+		final ObjectNode root = (ObjectNode) new ObjectMapper().readTree(exportToStream(this.publications, "data"));
+		assertEquals("<pdf2/>", root.get("data").get(1).get("htmlDownloads").get(0).asText());
+		verify(this.htmlPageExporter, times(1)).getButtonToEditPublication(34);
+	}
+
+}
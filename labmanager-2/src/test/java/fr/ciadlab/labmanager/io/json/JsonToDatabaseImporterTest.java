@@ -0,0 +1,327 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+
+import fr.ciadlab.labmanager.entities.journal.Journal;
+import fr.ciadlab.labmanager.entities.member.Membership;
+import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.entities.organization.ResearchOrganization;
+import fr.ciadlab.labmanager.entities.publication.Authorship;
+import fr.ciadlab.labmanager.entities.publication.Publication;
+import fr.ciadlab.labmanager.entities.publication.PublicationComparator;
+import fr.ciadlab.labmanager.entities.publication.type.JournalPaper;
+import fr.ciadlab.labmanager.repository.journal.JournalQualityAnnualIndicatorsRepository;
+import fr.ciadlab.labmanager.repository.journal.JournalRepository;
+import fr.ciadlab.labmanager.repository.member.MembershipRepository;
+import fr.ciadlab.labmanager.repository.member.PersonRepository;
+import fr.ciadlab.labmanager.repository.organization.ResearchOrganizationRepository;
+import fr.ciadlab.labmanager.repository.publication.AuthorshipRepository;
+import fr.ciadlab.labmanager.repository.publication.PublicationRepository;
+import fr.ciadlab.labmanager.service.member.PersonService;
+import fr.ciadlab.labmanager.service.publication.PublicationService;
+import fr.ciadlab.labmanager.utils.names.PersonNameParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.helpers.NOPLogger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/** Tests for {@link JsonToDatabaseImporter}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class JsonToDatabaseImporterTest {
+
+	@TempDir
+	public Path folder;
+
+	private ResearchOrganizationRepository organizationRepository;
+
+	private PersonRepository personRepository;
+
+	private MembershipRepository membershipRepository;
+
+	private JournalRepository journalRepository;
+
+	private PublicationService publicationService;
+
+	private PublicationRepository publicationRepository;
+
+	private PublicationComparator publicationComparator;
+
+	private AuthorshipRepository authorshipRepository;
+
+	private EntityManager entityManager;
+
+	private PlatformTransactionManager transactionManager;
+
+	private Map<Integer, ResearchOrganization> organizations;
+
+	private Map<Integer, Person> persons;
+
+	private Map<Integer, Membership> memberships;
+
+	private Map<Integer, Journal> journals;
+
+	private List<Authorship> authorships;
+
+	private JsonToDatabaseImporter test;
+
+	private static <T> Map<Integer, T> mockRepository(JpaRepository<T, Integer> repository, ObjIntConsumer<T> idSetter) {
+		final Map<Integer, T> store = new HashMap<>();
+		when(repository.save(any())).thenAnswer(it -> {
+			final T entity = it.getArgument(0);
+			if (!store.containsValue(entity)) {
+				final int id = store.size() + 1;
+				idSetter.accept(entity, id);
+				store.put(Integer.valueOf(id), entity);
+			}
+			return entity;
+		});
+		when(repository.findById(any())).thenAnswer(it -> Optional.ofNullable(store.get(it.getArgument(0))));
+		return store;
+	}
+
+	@BeforeEach
+	public void setUp() {
+		this.organizationRepository = mock(ResearchOrganizationRepository.class);
+		this.organizations = mockRepository(this.organizationRepository, ResearchOrganization::setId);
+		this.personRepository = mock(PersonRepository.class);
+		this.persons = mockRepository(this.personRepository, Person::setId);
+		this.membershipRepository = mock(MembershipRepository.class);
+		this.memberships = mockRepository(this.membershipRepository, Membership::setId);
+		this.journalRepository = mock(JournalRepository.class);
+		this.journals = mockRepository(this.journalRepository, Journal::setId);
+		this.publicationService = mock(PublicationService.class);
+		this.publicationRepository = mock(PublicationRepository.class);
+		this.publicationComparator = mock(PublicationComparator.class);
+		this.authorshipRepository = mock(AuthorshipRepository.class);
+		this.authorships = new ArrayList<>();
+		when(this.authorshipRepository.save(any())).thenAnswer(it -> {
+			this.authorships.add(it.getArgument(0));
+			return it.getArgument(0);
+		});
+		this.entityManager = mock(EntityManager.class);
+		this.transactionManager = mock(PlatformTransactionManager.class);
+		when(this.transactionManager.getTransaction(any())).thenAnswer(it -> new SimpleTransactionStatus());
+		this.test = new JsonToDatabaseImporter(
+				this.organizationRepository,
+				this.personRepository,
+				mock(PersonService.class),
+				this.membershipRepository,
+				this.journalRepository,
+				mock(JournalQualityAnnualIndicatorsRepository.class),
+				this.publicationService,
+				this.publicationRepository,
+				this.publicationComparator,
+				this.authorshipRepository,
+				mock(PersonNameParser.class),
+				this.entityManager,
+				this.transactionManager,
+				2);
+		this.test.setLogger(NOPLogger.NOP_LOGGER);
+	}
+
+	private URL createSource(String json) throws Exception {
+		final Path file = this.folder.resolve("data.json");
+		Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+		return file.toUri().toURL();
+	}
+
+	private static final String ORGANIZATIONS = "\"researchOrganizations\": ["
+			+ "{\"@id\": \"/ro#0\", \"acronym\": \"UTBM\", \"name\": \"University\"},"
+			+ "{\"@id\": \"/ro#1\", \"acronym\": \"CIAD\", \"name\": \"Laboratory\", \"superOrganization\": {\"@id\": \"/ro#0\"}}"
+			+ "]";
+
+	private static final String PERSONS = "\"persons\": ["
+			+ "{\"@id\": \"/pers#0\", \"firstName\": \"Stephane\", \"lastName\": \"Galland\"},"
+			+ "{\"@id\": \"/pers#1\", \"firstName\": \"Jane\", \"lastName\": \"Doe\"},"
+			+ "{\"@id\": \"/pers#2\", \"firstName\": \"John\", \"lastName\": \"Doe\"}"
+			+ "]";
+
+	private static final String MEMBERSHIPS = "\"memberships\": ["
+			+ "{\"@id\": \"/mbr#0\", \"person\": {\"@id\": \"/pers#1\"}, \"researchOrganization\": {\"@id\": \"/ro#1\"}}"
+			+ "]";
+
+	@Test
+	public void importToDatabase_emptySource() throws Exception {
+		this.test.importToDatabase(createSource("{}"));
+		verify(this.transactionManager, never()).getTransaction(any());
+	}
+
+	@Test
+	public void importToDatabase() throws Exception {
+		this.test.importToDatabase(createSource("{" + ORGANIZATIONS + "," + PERSONS + "," + MEMBERSHIPS + "}"));
+
+		assertEquals(2, this.organizations.size());
+		final ResearchOrganization utbm = this.organizations.get(1);
+		final ResearchOrganization ciad = this.organizations.get(2);
+		assertEquals("UTBM", utbm.getAcronym());
+		assertEquals("CIAD", ciad.getAcronym());
+		assertSame(utbm, ciad.getSuperOrganization());
+		assertNull(utbm.getSuperOrganization());
+
+		assertEquals(3, this.persons.size());
+		assertEquals("Galland", this.persons.get(1).getLastName());
+
+		assertEquals(1, this.memberships.size());
+		final Membership membership = this.memberships.get(1);
+		assertSame(this.persons.get(2), membership.getPerson());
+		assertSame(ciad, membership.getResearchOrganization());
+
+		// 1 batch of organizations, 1 for the super organizations, 2 batches of persons, 1 batch of memberships
+		verify(this.transactionManager, times(5)).getTransaction(any());
+		verify(this.transactionManager, times(5)).commit(any());
+		verify(this.entityManager, times(5)).flush();
+		verify(this.entityManager, times(5)).clear();
+	}
+
+	@Test
+	public void importToDatabase_unorderedSections() throws Exception {
+		this.test.importToDatabase(createSource("{" + MEMBERSHIPS + "," + PERSONS + "," + ORGANIZATIONS + "}"));
+
+		assertEquals(2, this.organizations.size());
+		assertEquals(3, this.persons.size());
+		assertEquals(1, this.memberships.size());
+		final Membership membership = this.memberships.get(1);
+		assertEquals("Jane", membership.getPerson().getFirstName());
+		assertEquals("CIAD", membership.getResearchOrganization().getAcronym());
+	}
+
+	@Test
+	public void importToDatabase_existingPerson() throws Exception {
+		final Person existing = new Person();
+		existing.setFirstName("Jane");
+		existing.setLastName("Doe");
+		this.personRepository.save(existing);
+		when(this.personRepository.findDistinctByFirstNameAndLastName("Jane", "Doe")).thenReturn(Optional.of(existing));
+
+		this.test.importToDatabase(createSource("{" + ORGANIZATIONS + "," + PERSONS + "," + MEMBERSHIPS + "}"));
+
+		assertEquals(3, this.persons.size());
+		assertSame(existing, this.memberships.get(1).getPerson());
+	}
+
+	@Test
+	public void importToDatabase_invalidReference() throws Exception {
+		final String json = "{" + PERSONS + ",\"memberships\": ["
+				+ "{\"@id\": \"/mbr#0\", \"person\": {\"@id\": \"/pers#1\"}, \"researchOrganization\": {\"@id\": \"/ro#5\"}}"
+				+ "]}";
+		assertThrows(UnableToImportJsonException.class, () -> this.test.importToDatabase(createSource(json)));
+		assertTrue(this.memberships.isEmpty());
+		verify(this.transactionManager).commit(argThat(it -> it.isRollbackOnly()));
+	}
+
+	private static final String PUBLICATIONS = PERSONS + ","
+			+ "\"journals\": [{\"@id\": \"/jour#0\", \"journalName\": \"Journal of Agents\"}],"
+			+ "\"publications\": [{\"@id\": \"/publi#0\", \"type\": \"INTERNATIONAL_JOURNAL_PAPER\","
+			+ "\"title\": \"Agent-based simulation\", \"publicationYear\": 2020, \"journal\": {\"@id\": \"/jour#0\"},"
+			+ "\"authors\": [{\"@id\": \"/pers#2\"}, {\"@id\": \"/pers#0\"}]}]";
+
+	@Test
+	public void importToDatabase_publications() throws Exception {
+		this.test.importToDatabase(createSource("{" + PUBLICATIONS + "}"));
+
+		verify(this.publicationRepository).streamAllOrderedById();
+		verify(this.publicationService).save(any());
+		assertEquals(1, this.journals.size());
+		assertEquals(2, this.authorships.size());
+		final Authorship first = this.authorships.get(0);
+		assertTrue(first.getPublication() instanceof JournalPaper);
+		assertEquals("Agent-based simulation", first.getPublication().getTitle());
+		assertSame(this.journals.get(1), ((JournalPaper) first.getPublication()).getJournal());
+		assertSame(this.persons.get(3), first.getPerson());
+		assertEquals(0, first.getAuthorRank());
+		assertSame(this.persons.get(1), this.authorships.get(1).getPerson());
+		assertEquals(1, this.authorships.get(1).getAuthorRank());
+	}
+
+	@Test
+	public void importToDatabase_existingPublication() throws Exception {
+		final Publication existing = mock(Publication.class);
+		when(existing.getId()).thenReturn(42);
+		when(existing.getTitle()).thenReturn("Agent based simulations");
+		when(existing.getPublicationYear()).thenReturn(2021);
+		final Publication other = mock(Publication.class);
+		when(other.getId()).thenReturn(43);
+		when(other.getTitle()).thenReturn("Deep learning for traffic");
+		when(other.getPublicationYear()).thenReturn(2020);
+		when(this.publicationRepository.streamAllOrderedById()).thenReturn(Stream.of(existing, other));
+		when(this.publicationRepository.findAllById(any())).thenReturn(Arrays.asList(existing));
+		when(this.publicationComparator.isSimilar(same(existing), any())).thenReturn(true);
+
+		this.test.importToDatabase(createSource("{" + PUBLICATIONS + "}"));
+
+		verify(this.publicationRepository).findAllById(eq(Arrays.asList(42)));
+		verify(this.publicationService, never()).save(any());
+		assertTrue(this.authorships.isEmpty());
+	}
+
+	@Test
+	public void importToDatabase_fake() throws Exception {
+		this.test.setFake(true);
+
+		this.test.importToDatabase(createSource("{" + ORGANIZATIONS + "," + MEMBERSHIPS + "," + PUBLICATIONS + "}"));
+
+		// Nothing is saved, and the whole import is run inside a single transaction that is rolled back
+		verify(this.transactionManager, times(1)).commit(argThat(it -> it.isRollbackOnly()));
+		assertTrue(this.organizations.isEmpty());
+		assertTrue(this.persons.isEmpty());
+		assertTrue(this.memberships.isEmpty());
+		assertTrue(this.journals.isEmpty());
+		assertTrue(this.authorships.isEmpty());
+		verify(this.publicationService, never()).save(any());
+		verify(this.publicationService, never()).updateDuplicateKeys();
+	}
+
+}
@@ -0,0 +1,184 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.io.od;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import fr.ciadlab.labmanager.io.od.OpenDocumentTextStreamWriter.TextElement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/** Tests for {@link OpenDocumentTextStreamWriter}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class OpenDocumentTextStreamWriterTest {
+
+	private static final String TEXT_NS = "urn:oasis:names:tc:opendocument:xmlns:text:1.0";
+
+	private static final String XLINK_NS = "http://www.w3.org/1999/xlink";
+
+	private byte[] template;
+
+	private ClosingFlagOutputStream output;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (final ZipOutputStream zip = new ZipOutputStream(bytes)) {
+			putEntry(zip, "mimetype", "application/vnd.oasis.opendocument.text");
+			putEntry(zip, "content.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+					+ "<office:document-content xmlns:office=\"urn:oasis:names:tc:opendocument:xmlns:office:1.0\" "
+					+ "office:version=\"1.3\"><office:body><office:text/></office:body></office:document-content>");
+			putEntry(zip, "styles.xml", "<styles/>");
+		}
+		this.template = bytes.toByteArray();
+		this.output = new ClosingFlagOutputStream();
+	}
+
+	private static void putEntry(ZipOutputStream zip, String name, String content) throws Exception {
+		zip.putNextEntry(new ZipEntry(name));
+		zip.write(content.getBytes(StandardCharsets.UTF_8));
+		zip.closeEntry();
+	}
+
+	private Map<String, byte[]> readEntries(Map<String, Integer> methods) throws Exception {
+		final Map<String, byte[]> entries = new LinkedHashMap<>();
+		try (final ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(this.output.toByteArray()))) {
+			ZipEntry entry = zip.getNextEntry();
+			while (entry != null) {
+				entries.put(entry.getName(), zip.readAllBytes());
+				if (methods != null) {
+					methods.put(entry.getName(), entry.getMethod());
+				}
+				entry = zip.getNextEntry();
+			}
+		}
+		return entries;
+	}
+
+	private Document readContent() throws Exception {
+		final byte[] content = readEntries(null).get("content.xml");
+		assertNotNull(content);
+		final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		return factory.newDocumentBuilder().parse(new ByteArrayInputStream(content));
+	}
+
+	@Test
+	public void close_emptyDocument() throws Exception {
+		new OpenDocumentTextStreamWriter(this.output, this.template).close();
+
+		final Map<String, Integer> methods = new LinkedHashMap<>();
+		final Map<String, byte[]> entries = readEntries(methods);
+		assertEquals("mimetype", entries.keySet().iterator().next());
+		assertEquals(ZipEntry.STORED, methods.get("mimetype").intValue());
+		assertEquals("<styles/>", new String(entries.get("styles.xml"), StandardCharsets.UTF_8));
+		assertFalse(this.output.closed);
+
+		final Document doc = readContent();
+		assertEquals("1.3", doc.getDocumentElement().getAttributeNS(
+				"urn:oasis:names:tc:opendocument:xmlns:office:1.0", "version"));
+		assertEquals(1, doc.getElementsByTagNameNS(TEXT_NS, "list").getLength());
+		assertEquals(0, doc.getElementsByTagNameNS(TEXT_NS, "list-item").getLength());
+		assertEquals(OpenDocumentTextStyle.values().length,
+				doc.getElementsByTagNameNS("urn:oasis:names:tc:opendocument:xmlns:style:1.0", "style").getLength());
+	}
+
+	@Test
+	public void newListItemParagraph() throws Exception {
+		try (final OpenDocumentTextStreamWriter writer = new OpenDocumentTextStreamWriter(this.output, this.template)) {
+			final TextElement p0 = writer.newListItemParagraph();
+			p0.newTextNode("A & B, ");
+			p0.newSpan(OpenDocumentTextStyle.BOLD).newTextNode("bold");
+			p0.newTextNode(". ");
+			final TextElement link = p0.newLink("https://doi.org/10.1234/abc");
+			link.newSpan(OpenDocumentTextStyle.ITALIC).newTextNode("doi");
+			final TextElement p1 = writer.newListItemParagraph();
+			p1.newTextNode("second <item>");
+		}
+
+		final Document doc = readContent();
+		final NodeList items = doc.getElementsByTagNameNS(TEXT_NS, "list-item");
+		assertEquals(2, items.getLength());
+		assertEquals("A & B, bold. doi", items.item(0).getTextContent());
+		assertEquals("second <item>", items.item(1).getTextContent());
+
+		final NodeList spans = doc.getElementsByTagNameNS(TEXT_NS, "span");
+		assertEquals(2, spans.getLength());
+		assertEquals("Bold", ((Element) spans.item(0)).getAttributeNS(TEXT_NS, "style-name"));
+		assertEquals("Italic", ((Element) spans.item(1)).getAttributeNS(TEXT_NS, "style-name"));
+
+		final NodeList links = doc.getElementsByTagNameNS(TEXT_NS, "a");
+		assertEquals(1, links.getLength());
+		final Element a = (Element) links.item(0);
+		assertEquals("https://doi.org/10.1234/abc", a.getAttributeNS(XLINK_NS, "href"));
+		assertEquals("simple", a.getAttributeNS(XLINK_NS, "type"));
+		assertTrue(spans.item(1).getParentNode() == a);
+		assertFalse(this.output.closed);
+	}
+
+	@Test
+	public void newTextNode_closedElement() throws Exception {
+		try (final OpenDocumentTextStreamWriter writer = new OpenDocumentTextStreamWriter(this.output, this.template)) {
+			final TextElement p0 = writer.newListItemParagraph();
+			writer.newListItemParagraph();
+			assertThrows(IllegalStateException.class, () -> p0.newTextNode("abc"));
+		}
+	}
+
+	/** Output stream that records if it was closed.
+	 *
+	 * @author $Author: sgalland$
+	 * @version $Name$ $Revision$ $Date$
+	 * @mavengroupid $GroupId$
+	 * @mavenartifactid $ArtifactId$
+	 */
+	private static class ClosingFlagOutputStream extends ByteArrayOutputStream {
+
+		boolean closed;
+
+		@Override
+		public void close() {
+			this.closed = true;
+		}
+
+	}
+
+}
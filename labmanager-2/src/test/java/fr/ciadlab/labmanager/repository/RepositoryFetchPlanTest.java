@@ -0,0 +1,249 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import fr.ciadlab.labmanager.entities.member.Membership;
+import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.entities.organization.ResearchOrganization;
+import fr.ciadlab.labmanager.entities.publication.Authorship;
+import fr.ciadlab.labmanager.entities.publication.Publication;
+import fr.ciadlab.labmanager.entities.publication.PublicationType;
+import fr.ciadlab.labmanager.entities.publication.type.MiscDocument;
+import fr.ciadlab.labmanager.repository.member.PersonRepository;
+import fr.ciadlab.labmanager.repository.organization.ResearchOrganizationRepository;
+import fr.ciadlab.labmanager.repository.publication.PublicationRepository;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/** Tests for the fetch plans of {@link PublicationRepository}, {@link PersonRepository} and
+ * {@link ResearchOrganizationRepository}. The tests count the SQL statements with the Hibernate
+ * statistics in order to detect the regressions to N+1 loading of the associations.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.DerbyTenSevenDialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.file.path=target"
+})
+public class RepositoryFetchPlanTest {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private PublicationRepository publicationRepository;
+
+	@Autowired
+	private PersonRepository personRepository;
+
+	@Autowired
+	private ResearchOrganizationRepository organizationRepository;
+
+	private ResearchOrganization o1;
+
+	private ResearchOrganization o2;
+
+	private Person p1;
+
+	private Person p2;
+
+	private Person p3;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	public void setUp() {
+		this.o1 = createOrganization("O1");
+		this.o2 = createOrganization("O2");
+		this.p1 = createPerson("Stephane", "Galland");
+		this.p2 = createPerson("Abderrafiaa", "Koukam");
+		this.p3 = createPerson("Vincent", "Hilaire");
+		createMembership(this.p1, this.o1);
+		createMembership(this.p1, this.o2);
+		createMembership(this.p2, this.o1);
+		createMembership(this.p3, this.o2);
+		createPublication("Publication 1", this.p1, this.p2);
+		createPublication("Publication 2", this.p2, this.p3);
+		createPublication("Publication 3", this.p1, this.p2, this.p3);
+		this.entityManager.flush();
+		this.entityManager.clear();
+
+		this.statistics = this.entityManager.getEntityManager().getEntityManagerFactory()
+				.unwrap(SessionFactory.class).getStatistics();
+		this.statistics.clear();
+	}
+
+	private ResearchOrganization createOrganization(String acronym) {
+		final ResearchOrganization orga = new ResearchOrganization();
+		orga.setAcronym(acronym);
+		orga.setName(acronym);
+		return this.entityManager.persist(orga);
+	}
+
+	private Person createPerson(String firstName, String lastName) {
+		final Person person = new Person();
+		person.setFirstName(firstName);
+		person.setLastName(lastName);
+		return this.entityManager.persist(person);
+	}
+
+	private void createMembership(Person person, ResearchOrganization orga) {
+		final Membership membership = new Membership();
+		membership.setPerson(person);
+		membership.setResearchOrganization(orga);
+		this.entityManager.persist(membership);
+	}
+
+	private void createPublication(String title, Person... authors) {
+		final MiscDocument publication = new MiscDocument();
+		publication.setType(PublicationType.RESEARCH_TOOL);
+		publication.setTitle(title);
+		publication.setPublicationYear(2022);
+		this.entityManager.persist(publication);
+		int rank = 0;
+		for (final Person author : authors) {
+			final Authorship authorship = new Authorship();
+			authorship.setPublication(publication);
+			authorship.setPerson(author);
+			authorship.setAuthorRank(rank);
+			this.entityManager.persist(authorship);
+			++rank;
+		}
+	}
+
+	private static int countAuthorNames(Iterable<Publication> publications) {
+		int n = 0;
+		for (final Publication publication : publications) {
+			for (final Person author : publication.getAuthors()) {
+				assertNotNull(author.getLastName());
+				++n;
+			}
+		}
+		return n;
+	}
+
+	@Test
+	public void findById_lazyAssociations() {
+		final Person person = this.personRepository.findById(Integer.valueOf(this.p1.getId())).get();
+		assertFalse(Hibernate.isInitialized(person.getMemberships()));
+		assertFalse(Hibernate.isInitialized(person.getAuthorships()));
+		assertEquals(1, this.statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void publicationList() {
+		final List<Publication> publications = this.publicationRepository.findAll();
+		assertEquals(3, publications.size());
+		assertEquals(7, countAuthorNames(publications));
+		assertEquals(1, this.statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void publicationsOfPerson() {
+		final List<Publication> publications = this.publicationRepository.findAllByAuthorshipsPersonId(this.p3.getId());
+		assertEquals(2, publications.size());
+		assertEquals(5, countAuthorNames(publications));
+		assertEquals(1, this.statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void publicationsOfPersons() {
+		final Set<Publication> publications = this.publicationRepository.findAllByAuthorshipsPersonIdIn(
+				Set.of(Integer.valueOf(this.p1.getId()), Integer.valueOf(this.p3.getId())));
+		assertEquals(3, publications.size());
+		assertEquals(7, countAuthorNames(publications));
+		assertEquals(1, this.statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void publicationPage() {
+		// Pages cannot fetch the authorships with a join; they are loaded by batch
+		final Page<Publication> page = this.publicationRepository.findAll(
+				(root, query, builder) -> null, PageRequest.of(0, 2, Sort.by("title"))); //$NON-NLS-1$
+		assertEquals(2, page.getNumberOfElements());
+		assertEquals(3, page.getTotalElements());
+		assertEquals(4, countAuthorNames(page.getContent()));
+		// Selection of the page, count of the publications, and batch of authorships
+		assertEquals(3, this.statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void membersOfOrganization() {
+		final Set<Person> persons = this.personRepository.findDistinctByIdIn(
+				Arrays.asList(Integer.valueOf(this.p1.getId()), Integer.valueOf(this.p2.getId())));
+		assertEquals(2, persons.size());
+		int n = 0;
+		for (final Person person : persons) {
+			for (final Membership membership : person.getMemberships()) {
+				assertNotNull(membership.getResearchOrganization().getAcronym());
+				++n;
+			}
+		}
+		assertEquals(3, n);
+		assertEquals(1, this.statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void directMembersOfOrganization() {
+		final Set<Person> persons = this.personRepository.findDistinctByMembershipsResearchOrganizationId(this.o2.getId());
+		assertEquals(2, persons.size());
+		for (final Person person : persons) {
+			assertTrue(Hibernate.isInitialized(person.getMemberships()));
+		}
+		assertEquals(1, this.statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void organizationsWithMembers() {
+		final List<ResearchOrganization> organizations = this.organizationRepository.findDistinctByIdIn(
+				Arrays.asList(Integer.valueOf(this.o1.getId()), Integer.valueOf(this.o2.getId())));
+		assertEquals(2, organizations.size());
+		int n = 0;
+		for (final ResearchOrganization organization : organizations) {
+			for (final Membership membership : organization.getMemberships()) {
+				assertNotNull(membership.getPerson().getLastName());
+				++n;
+			}
+		}
+		assertEquals(4, n);
+		assertEquals(1, this.statistics.getPrepareStatementCount());
+	}
+
+}
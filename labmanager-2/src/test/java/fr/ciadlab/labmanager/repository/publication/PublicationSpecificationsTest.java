@@ -0,0 +1,57 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.repository.publication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link PublicationSpecifications}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class PublicationSpecificationsTest {
+
+	@Test
+	public void toLikePattern() {
+		assertEquals("%multi-agent%", PublicationSpecifications.toLikePattern("Multi-Agent"));
+	}
+
+	@Test
+	public void toLikePattern_escape() {
+		assertEquals("%100\\% a\\_b\\\\c%", PublicationSpecifications.toLikePattern("100% a_b\\c"));
+	}
+
+	@Test
+	public void containsText_empty() {
+		assertNull(PublicationSpecifications.containsText(null));
+		assertNull(PublicationSpecifications.containsText(""));
+		assertNull(PublicationSpecifications.containsText("  "));
+	}
+
+	@Test
+	public void containsText() {
+		assertNotNull(PublicationSpecifications.containsText("agent"));
+	}
+
+}
@@ -0,0 +1,226 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.runners;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/** Tests for {@link DatabaseSnapshot}.
+ * 
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class DatabaseSnapshotTest {
+
+	private static final AtomicInteger DATABASE_ID = new AtomicInteger();
+
+	@TempDir
+	Path folder;
+
+	private DataSource dataSource;
+
+	private DatabaseSnapshot test;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		this.dataSource = new DriverManagerDataSource(
+				"jdbc:derby:memory:snapshot" + DATABASE_ID.incrementAndGet() + ";create=true");
+		execute(
+				"CREATE TABLE orgas (id INT NOT NULL PRIMARY KEY, name VARCHAR(50), super_id INT,"
+				+ " CONSTRAINT fk_super FOREIGN KEY (super_id) REFERENCES orgas(id))",
+				"CREATE TABLE persons (id INT NOT NULL PRIMARY KEY, name VARCHAR(50), birth DATE,"
+				+ " bio CLOB, active BOOLEAN, score DOUBLE)",
+				"CREATE TABLE mbrs (id INT NOT NULL PRIMARY KEY, person_id INT REFERENCES persons(id),"
+				+ " orga_id INT REFERENCES orgas(id))",
+				"CREATE TABLE seq (next_val BIGINT)");
+		// The restoring of the identifier generators is not supported by Derby
+		this.test = new DatabaseSnapshot(this.dataSource) {
+			@Override
+			protected boolean isRestorable(DatabaseMetaData metadata) throws SQLException {
+				return true;
+			}
+		};
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.test = null;
+		this.dataSource = null;
+	}
+
+	private void execute(String... statements) throws SQLException {
+		try (Connection connection = this.dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			for (final String sql : statements) {
+				statement.executeUpdate(sql);
+			}
+		}
+	}
+
+	private String query(String sql) throws SQLException {
+		final StringBuilder result = new StringBuilder();
+		try (Connection connection = this.dataSource.getConnection(); Statement statement = connection.createStatement();
+				ResultSet rs = statement.executeQuery(sql)) {
+			final int columns = rs.getMetaData().getColumnCount();
+			while (rs.next()) {
+				for (int i = 1; i <= columns; ++i) {
+					result.append(rs.getString(i)).append(i < columns ? "," : ";");
+				}
+			}
+		}
+		return result.toString();
+	}
+
+	private void fillDatabase() throws SQLException {
+		execute(
+				"INSERT INTO orgas VALUES (1, 'CIAD', 2), (2, 'UTBM', NULL), (3, 'UBFC', 2)",
+				"INSERT INTO persons VALUES (10, 'Stephane', '1978-01-21', 'Bio with accents: éè', TRUE, 1.5),"
+				+ " (11, 'Jean', NULL, NULL, FALSE, NULL)",
+				"INSERT INTO mbrs VALUES (20, 10, 1), (21, 11, 3)",
+				"INSERT INTO seq VALUES (22)");
+	}
+
+	private void clearDatabase() throws SQLException {
+		execute(
+				"DELETE FROM mbrs",
+				"DELETE FROM persons",
+				"UPDATE orgas SET super_id = NULL",
+				"DELETE FROM orgas",
+				"DELETE FROM seq",
+				"INSERT INTO seq VALUES (1)");
+	}
+
+	@Test
+	public void computeHash() throws Exception {
+		final File file1 = this.folder.resolve("a.json").toFile();
+		Files.write(file1.toPath(), "{\"a\":1}".getBytes(StandardCharsets.UTF_8));
+		final File file2 = this.folder.resolve("b.json").toFile();
+		Files.write(file2.toPath(), "{\"a\":2}".getBytes(StandardCharsets.UTF_8));
+		final URL url1 = file1.toURI().toURL();
+		final String hash = DatabaseSnapshot.computeHash(url1);
+		assertEquals(64, hash.length());
+		assertEquals(hash, DatabaseSnapshot.computeHash(url1));
+		assertNotEquals(hash, DatabaseSnapshot.computeHash(file2.toURI().toURL()));
+	}
+
+	@Test
+	public void readHash_noFile() throws Exception {
+		assertNull(DatabaseSnapshot.readHash(null));
+		assertNull(DatabaseSnapshot.readHash(this.folder.resolve("none.snapshot").toFile()));
+	}
+
+	@Test
+	public void readHash_invalidFile() throws Exception {
+		final File file = this.folder.resolve("invalid.snapshot").toFile();
+		Files.write(file.toPath(), "invalid".getBytes(StandardCharsets.UTF_8));
+		assertNull(DatabaseSnapshot.readHash(file));
+	}
+
+	@Test
+	public void isDatabaseEmpty() throws Exception {
+		execute("INSERT INTO seq VALUES (1)");
+		assertTrue(this.test.isDatabaseEmpty());
+		execute("INSERT INTO orgas VALUES (1, 'CIAD', NULL)");
+		assertFalse(this.test.isDatabaseEmpty());
+	}
+
+	@Test
+	public void write() throws Exception {
+		fillDatabase();
+		final File file = this.folder.resolve("data.snapshot").toFile();
+		this.test.write(file, "abc123");
+		assertTrue(file.isFile());
+		assertFalse(new File(file.getParentFile(), "data.snapshot.tmp").exists());
+		assertEquals("abc123", DatabaseSnapshot.readHash(file));
+	}
+
+	@Test
+	public void restore() throws Exception {
+		fillDatabase();
+		final File file = this.folder.resolve("data.snapshot").toFile();
+		this.test.write(file, "abc123");
+		clearDatabase();
+		assertTrue(this.test.isDatabaseEmpty());
+
+		assertTrue(this.test.restore(file));
+
+		assertFalse(this.test.isDatabaseEmpty());
+		assertEquals("1,CIAD,2;2,UTBM,null;3,UBFC,2;", query("SELECT * FROM orgas ORDER BY id"));
+		assertEquals("10,Stephane," + Date.valueOf(LocalDate.of(1978, 1, 21)) + ",Bio with accents: éè,true,1.5;"
+				+ "11,Jean,null,null,false,null;", query("SELECT * FROM persons ORDER BY id"));
+		assertEquals("20,10,1;21,11,3;", query("SELECT * FROM mbrs ORDER BY id"));
+		assertEquals("22;", query("SELECT * FROM seq"));
+	}
+
+	@Test
+	public void restore_notRestorable() throws Exception {
+		fillDatabase();
+		final File file = this.folder.resolve("data.snapshot").toFile();
+		this.test.write(file, "abc123");
+		clearDatabase();
+
+		final DatabaseSnapshot derby = new DatabaseSnapshot(this.dataSource);
+		assertFalse(derby.restore(file));
+
+		assertTrue(this.test.isDatabaseEmpty());
+		assertEquals("1;", query("SELECT * FROM seq"));
+	}
+
+	@Test
+	public void restore_unknownTable() throws Exception {
+		fillDatabase();
+		final File file = this.folder.resolve("data.snapshot").toFile();
+		this.test.write(file, "abc123");
+		clearDatabase();
+		execute("DROP TABLE seq");
+
+		assertThrows(IOException.class, () -> this.test.restore(file));
+
+		// The transaction is rolled back
+		assertTrue(this.test.isDatabaseEmpty());
+	}
+
+}
@@ -0,0 +1,166 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.runners;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import fr.ciadlab.labmanager.io.json.JsonToDatabaseImporter;
+import fr.ciadlab.labmanager.service.DataViewInvalidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.helpers.NOPLogger;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/** Tests for {@link JsonDatabaseInitializer}.
+ * 
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class JsonDatabaseInitializerTest {
+
+	private static final AtomicInteger DATABASE_ID = new AtomicInteger();
+
+	@TempDir
+	Path folder;
+
+	private DataSource dataSource;
+
+	private URL dataUrl;
+
+	private File snapshotFile;
+
+	private JsonToDatabaseImporter importer;
+
+	private DataViewInvalidator viewInvalidator;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		this.dataSource = new DriverManagerDataSource(
+				"jdbc:derby:memory:initializer" + DATABASE_ID.incrementAndGet() + ";create=true");
+		execute("CREATE TABLE orgas (id INT NOT NULL PRIMARY KEY, name VARCHAR(50))");
+		final File dataFile = this.folder.resolve("data.json").toFile();
+		Files.write(dataFile.toPath(), "{}".getBytes(StandardCharsets.UTF_8));
+		this.dataUrl = dataFile.toURI().toURL();
+		this.snapshotFile = this.folder.resolve("data.snapshot").toFile();
+		this.importer = mock(JsonToDatabaseImporter.class);
+		this.viewInvalidator = mock(DataViewInvalidator.class);
+	}
+
+	private void execute(String... statements) throws SQLException {
+		try (Connection connection = this.dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			for (final String sql : statements) {
+				statement.executeUpdate(sql);
+			}
+		}
+	}
+
+	/** Create a snapshot manager that could load the snapshots into Derby, as MySQL does.
+	 */
+	private DatabaseSnapshot createRestorableSnapshot() {
+		return new DatabaseSnapshot(this.dataSource) {
+			@Override
+			protected boolean isRestorable(DatabaseMetaData metadata) throws SQLException {
+				return true;
+			}
+		};
+	}
+
+	private void run(DatabaseSnapshot snapshot) throws Exception {
+		snapshot.setLogger(NOPLogger.NOP_LOGGER);
+		final JsonDatabaseInitializer test = new JsonDatabaseInitializer(this.importer, snapshot, this.viewInvalidator,
+				this.folder.toString(), true, true);
+		test.setLogger(NOPLogger.NOP_LOGGER);
+		test.run(null);
+	}
+
+	@Test
+	public void run_noSnapshot() throws Exception {
+		run(createRestorableSnapshot());
+		verify(this.importer).importToDatabase(any());
+		assertEquals(DatabaseSnapshot.computeHash(this.dataUrl), DatabaseSnapshot.readHash(this.snapshotFile));
+		verifyNoInteractions(this.viewInvalidator);
+	}
+
+	@Test
+	public void run_otherDataSource() throws Exception {
+		final DatabaseSnapshot snapshot = createRestorableSnapshot();
+		snapshot.write(this.snapshotFile, "abc123");
+		run(snapshot);
+		verify(this.importer).importToDatabase(any());
+		assertEquals(DatabaseSnapshot.computeHash(this.dataUrl), DatabaseSnapshot.readHash(this.snapshotFile));
+		verifyNoInteractions(this.viewInvalidator);
+	}
+
+	@Test
+	public void run_sameDataSource_notEmpty() throws Exception {
+		final DatabaseSnapshot snapshot = createRestorableSnapshot();
+		execute("INSERT INTO orgas VALUES (1, 'CIAD')");
+		snapshot.write(this.snapshotFile, DatabaseSnapshot.computeHash(this.dataUrl));
+		run(snapshot);
+		verify(this.importer, never()).importToDatabase(any());
+		verifyNoInteractions(this.viewInvalidator);
+	}
+
+	@Test
+	public void run_sameDataSource_empty() throws Exception {
+		final DatabaseSnapshot snapshot = createRestorableSnapshot();
+		execute("INSERT INTO orgas VALUES (1, 'CIAD')");
+		snapshot.write(this.snapshotFile, DatabaseSnapshot.computeHash(this.dataUrl));
+		execute("DELETE FROM orgas");
+		run(snapshot);
+		verify(this.importer, never()).importToDatabase(any());
+		assertFalse(snapshot.isDatabaseEmpty());
+		// The JPA listeners are not notified of the rows that are loaded with JDBC
+		verify(this.viewInvalidator).invalidateAll();
+	}
+
+	@Test
+	public void run_sameDataSource_notRestorable() throws Exception {
+		// The snapshots cannot be loaded into Derby; the data source is imported
+		final DatabaseSnapshot snapshot = new DatabaseSnapshot(this.dataSource);
+		snapshot.write(this.snapshotFile, DatabaseSnapshot.computeHash(this.dataUrl));
+		run(snapshot);
+		verify(this.importer).importToDatabase(any());
+		assertTrue(snapshot.isDatabaseEmpty());
+		verifyNoInteractions(this.viewInvalidator);
+	}
+
+}
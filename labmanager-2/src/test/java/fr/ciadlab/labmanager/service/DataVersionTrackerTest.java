@@ -0,0 +1,216 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+package fr.ciadlab.labmanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import fr.ciadlab.labmanager.entities.journal.Journal;
+import fr.ciadlab.labmanager.entities.journal.JournalQualityAnnualIndicators;
+import fr.ciadlab.labmanager.entities.member.Membership;
+import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.entities.organization.ResearchOrganization;
+import fr.ciadlab.labmanager.entities.publication.Authorship;
+import fr.ciadlab.labmanager.entities.publication.Publication;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/** Tests for {@link DataVersionTracker}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class DataVersionTrackerTest {
+
+	private DataVersionTracker test;
+
+	@BeforeEach
+	public void setUp() {
+		this.test = new DataVersionTracker();
+	}
+
+	private static MockHttpServletRequest createRequest(String etag, String journalId) {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/getJournalData");
+		request.setParameter("id", journalId);
+		if (etag != null) {
+			request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+		}
+		return request;
+	}
+
+	/** Run the conditional request and reply the ETag that is replied, or {@code null} if the status 304 is replied.
+	 */
+	private String check(String etag, String journalId, String variant, DataScope... scopes) {
+		final MockHttpServletResponse response = new MockHttpServletResponse();
+		final boolean notModified = this.test.checkNotModified(
+				new ServletWebRequest(createRequest(etag, journalId), response), variant, scopes);
+		assertEquals(notModified, response.getStatus() == HttpStatus.NOT_MODIFIED.value());
+		assertEquals("no-cache", response.getHeader(HttpHeaders.CACHE_CONTROL));
+		assertNotNull(response.getHeader(HttpHeaders.LAST_MODIFIED));
+		final String replied = response.getHeader(HttpHeaders.ETAG);
+		assertNotNull(replied);
+		return notModified ? null : replied;
+	}
+
+	@Test
+	public void dataChanged() {
+		assertEquals(0, this.test.getVersion());
+		this.test.dataChanged(DataScope.JOURNAL);
+		this.test.dataChanged(DataScope.JOURNAL);
+		this.test.dataChanged(DataScope.PERSON);
+		assertEquals(3, this.test.getVersion());
+		assertEquals(2, this.test.getVersion(DataScope.JOURNAL));
+		assertEquals(1, this.test.getVersion(DataScope.PERSON));
+		assertEquals(0, this.test.getVersion(DataScope.PUBLICATION));
+	}
+
+	@Test
+	public void getCombinedVersion() {
+		assertEquals(0, this.test.getCombinedVersion(DataScope.JOURNAL, DataScope.PERSON));
+		this.test.dataChanged(DataScope.JOURNAL);
+		this.test.dataChanged(DataScope.PERSON);
+		this.test.dataChanged(DataScope.PUBLICATION);
+		assertEquals(2, this.test.getCombinedVersion(DataScope.JOURNAL, DataScope.PERSON));
+		assertEquals(0, this.test.getCombinedVersion(DataScope.ORGANIZATION));
+		assertEquals(0, this.test.getCombinedVersion());
+	}
+
+	@Test
+	public void getLastModified() {
+		final long start = this.test.getLastModified(DataScope.JOURNAL);
+		assertTrue(start > 0);
+		this.test.dataChanged(DataScope.PERSON);
+		assertEquals(start, this.test.getLastModified(DataScope.JOURNAL));
+		assertTrue(this.test.getLastModified(DataScope.JOURNAL, DataScope.PERSON) >= start);
+	}
+
+	@Test
+	public void getETag() {
+		final String etag = this.test.getETag("a", DataScope.JOURNAL);
+		assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+		assertEquals(etag, this.test.getETag("a", DataScope.JOURNAL));
+		assertNotEquals(etag, this.test.getETag("b", DataScope.JOURNAL));
+		this.test.dataChanged(DataScope.PERSON);
+		assertEquals(etag, this.test.getETag("a", DataScope.JOURNAL));
+		this.test.dataChanged(DataScope.JOURNAL);
+		assertNotEquals(etag, this.test.getETag("a", DataScope.JOURNAL));
+	}
+
+	@Test
+	public void getETag_otherRun() throws Exception {
+		final String etag = this.test.getETag("a", DataScope.JOURNAL);
+		Thread.sleep(2);
+		assertNotEquals(etag, new DataVersionTracker().getETag("a", DataScope.JOURNAL));
+	}
+
+	@Test
+	public void checkNotModified() {
+		final String etag = check(null, "12", null, DataScope.JOURNAL);
+		assertNull(check(etag, "12", null, DataScope.JOURNAL));
+		// Other parameters
+		assertNotNull(check(etag, "34", null, DataScope.JOURNAL));
+		// Other variant
+		assertNotNull(check(etag, "12", "true", DataScope.JOURNAL));
+		// Change in another scope
+		this.test.dataChanged(DataScope.PUBLICATION);
+		assertNull(check(etag, "12", null, DataScope.JOURNAL));
+		// Change in the scope
+		this.test.dataChanged(DataScope.JOURNAL);
+		final String etag2 = check(etag, "12", null, DataScope.JOURNAL);
+		assertNotNull(etag2);
+		assertNotEquals(etag, etag2);
+		assertNull(check(etag2, "12", null, DataScope.JOURNAL));
+	}
+
+	@Test
+	public void listener() {
+		final DataVersionListener listener = new DataVersionListener();
+		listener.entityChanged(mock(Publication.class));
+		assertEquals(0, this.test.getVersion());
+
+		listener.setDataVersionTracker(this.test);
+		listener.entityChanged(mock(Publication.class));
+		listener.entityChanged(mock(Authorship.class));
+		listener.entityChanged(mock(JournalQualityAnnualIndicators.class));
+		listener.entityChanged(new Object());
+		assertEquals(3, this.test.getVersion());
+		assertEquals(2, this.test.getVersion(DataScope.PUBLICATION));
+		assertEquals(1, this.test.getVersion(DataScope.JOURNAL));
+	}
+
+	@Test
+	public void listener_commit() {
+		final DataVersionListener listener = new DataVersionListener();
+		listener.setDataVersionTracker(this.test);
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			listener.entityChanged(mock(Publication.class));
+			assertEquals(0, this.test.getVersion());
+			for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCommit();
+			}
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		assertEquals(1, this.test.getVersion());
+		assertEquals(1, this.test.getVersion(DataScope.PUBLICATION));
+	}
+
+	@Test
+	public void listener_rollback() {
+		final DataVersionListener listener = new DataVersionListener();
+		listener.setDataVersionTracker(this.test);
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			listener.entityChanged(mock(Publication.class));
+			for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+			}
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		assertEquals(0, this.test.getVersion());
+	}
+
+	@Test
+	public void listener_getScope() {
+		assertSame(DataScope.PUBLICATION, DataVersionListener.getScope(mock(Publication.class)));
+		assertSame(DataScope.PUBLICATION, DataVersionListener.getScope(mock(Authorship.class)));
+		assertSame(DataScope.PERSON, DataVersionListener.getScope(mock(Person.class)));
+		assertSame(DataScope.MEMBERSHIP, DataVersionListener.getScope(mock(Membership.class)));
+		assertSame(DataScope.JOURNAL, DataVersionListener.getScope(mock(Journal.class)));
+		assertSame(DataScope.JOURNAL, DataVersionListener.getScope(mock(JournalQualityAnnualIndicators.class)));
+		assertSame(DataScope.ORGANIZATION, DataVersionListener.getScope(mock(ResearchOrganization.class)));
+		assertNull(DataVersionListener.getScope(new Object()));
+	}
+
+}
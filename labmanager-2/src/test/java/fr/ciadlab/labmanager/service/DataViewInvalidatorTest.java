@@ -0,0 +1,63 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import fr.ciadlab.labmanager.io.html.HtmlFragmentCache;
+import fr.ciadlab.labmanager.service.member.PersonNameIndex;
+import fr.ciadlab.labmanager.service.organization.OrganizationMembershipClosure;
+import fr.ciadlab.labmanager.service.publication.PublicationStatsCube;
+import fr.ciadlab.labmanager.service.publication.search.PublicationSearchIndex;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link DataViewInvalidator}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class DataViewInvalidatorTest {
+
+	@Test
+	public void invalidateAll() {
+		final PersonNameIndex personNameIndex = mock(PersonNameIndex.class);
+		final OrganizationMembershipClosure organizationClosure = mock(OrganizationMembershipClosure.class);
+		final PublicationSearchIndex searchIndex = mock(PublicationSearchIndex.class);
+		final PublicationStatsCube statsCube = mock(PublicationStatsCube.class);
+		final HtmlFragmentCache fragmentCache = mock(HtmlFragmentCache.class);
+		final DataVersionTracker dataVersionTracker = new DataVersionTracker();
+		final DataViewInvalidator test = new DataViewInvalidator(personNameIndex, organizationClosure,
+				searchIndex, statsCube, fragmentCache, dataVersionTracker);
+
+		test.invalidateAll();
+
+		verify(personNameIndex).invalidate();
+		verify(organizationClosure).invalidate();
+		verify(searchIndex).invalidateAll();
+		verify(statsCube).invalidateAll();
+		verify(fragmentCache).invalidateAll();
+		for (final DataScope scope : DataScope.values()) {
+			assertEquals(1, dataVersionTracker.getVersion(scope));
+		}
+	}
+
+}
@@ -0,0 +1,343 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.service.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import fr.ciadlab.labmanager.entities.journal.Journal;
+import fr.ciadlab.labmanager.repository.journal.JournalQualityAnnualIndicatorsRepository;
+import fr.ciadlab.labmanager.repository.journal.JournalRepository;
+import fr.ciadlab.labmanager.utils.net.DirectNetConnection;
+import fr.ciadlab.labmanager.utils.ranking.QuartileRanking;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/** Tests for {@link JournalRankingRefresher}.
+ * The Scimago website is replaced by a local HTTP server that provides generated images.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class JournalRankingRefresherTest {
+
+	private static final int MAX_AGE = 30;
+
+	@TempDir
+	public Path folder;
+
+	private HttpServer server;
+
+	private Map<String, QuartileRanking> quartiles;
+
+	private Map<String, AtomicInteger> failures;
+
+	private Map<String, AtomicInteger> requests;
+
+	private List<Journal> journals;
+
+	private JournalRepository journalRepository;
+
+	private JournalQualityAnnualIndicatorsRepository indicatorRepository;
+
+	private PlatformTransactionManager transactionManager;
+
+	private LocalDate today;
+
+	private JournalRankingRefresher test;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		this.quartiles = new ConcurrentHashMap<>();
+		this.failures = new ConcurrentHashMap<>();
+		this.requests = new ConcurrentHashMap<>();
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		this.server.createContext("/scimago", this::handle);
+		this.server.start();
+
+		this.journals = new ArrayList<>();
+		this.journalRepository = mock(JournalRepository.class);
+		when(this.journalRepository.findAll()).thenAnswer(it -> new ArrayList<>(this.journals));
+		when(this.journalRepository.findById(any())).thenAnswer(it -> {
+			final int id = ((Integer) it.getArgument(0)).intValue();
+			return this.journals.stream().filter(journal -> journal.getId() == id).findFirst();
+		});
+		this.indicatorRepository = mock(JournalQualityAnnualIndicatorsRepository.class);
+		this.transactionManager = mock(PlatformTransactionManager.class);
+		when(this.transactionManager.getTransaction(any())).thenAnswer(it -> new SimpleTransactionStatus());
+
+		this.today = LocalDate.now();
+		this.test = createRefresher(2);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.test.shutdown();
+		this.server.stop(0);
+	}
+
+	private JournalRankingRefresher createRefresher(int batchSize) {
+		final String baseUrl = "http://" + this.server.getAddress().getHostString() + ":"
+				+ this.server.getAddress().getPort() + "/scimago?id=";
+		final JournalRankingRefresher refresher = new JournalRankingRefresher(this.journalRepository, this.indicatorRepository,
+				new DirectNetConnection(), this.transactionManager, false, 0, 24, baseUrl,
+				this.folder.toFile().getAbsolutePath(), 2, 3, 1, MAX_AGE, batchSize) {
+			@Override
+			protected LocalDate getCurrentDate() {
+				return JournalRankingRefresherTest.this.today;
+			}
+		};
+		refresher.setLogger(mock(Logger.class));
+		return refresher;
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		final String query = exchange.getRequestURI().getQuery();
+		final String id = query.substring(query.indexOf('=') + 1);
+		this.requests.computeIfAbsent(id, it -> new AtomicInteger()).incrementAndGet();
+		final AtomicInteger failure = this.failures.get(id);
+		final QuartileRanking quartile = this.quartiles.get(id);
+		if ((failure != null && failure.getAndDecrement() > 0) || quartile == null) {
+			exchange.sendResponseHeaders(503, -1);
+			exchange.close();
+			return;
+		}
+		final byte[] content = createImage(quartile);
+		exchange.getResponseHeaders().add("Content-Type", "image/png");
+		exchange.sendResponseHeaders(200, content.length);
+		try (final OutputStream output = exchange.getResponseBody()) {
+			output.write(content);
+		}
+	}
+
+	private static byte[] createImage(QuartileRanking quartile) throws IOException {
+		final int red;
+		switch (quartile) {
+		case Q1:
+			red = 164;
+			break;
+		case Q2:
+			red = 232;
+			break;
+		case Q3:
+			red = 251;
+			break;
+		default:
+			red = 221;
+			break;
+		}
+		final BufferedImage image = new BufferedImage(10, 60, BufferedImage.TYPE_INT_RGB);
+		for (int x = 0; x < image.getWidth(); ++x) {
+			for (int y = 0; y < image.getHeight(); ++y) {
+				image.setRGB(x, y, red << 16);
+			}
+		}
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", output);
+		return output.toByteArray();
+	}
+
+	private Journal addJournal(int id, String scimagoId) {
+		final Journal journal = new Journal();
+		journal.setId(id);
+		journal.setScimagoId(scimagoId);
+		this.journals.add(journal);
+		return journal;
+	}
+
+	private int requests(String id) {
+		final AtomicInteger count = this.requests.get(id);
+		return count == null ? 0 : count.get();
+	}
+
+	private File cacheFile(String id, LocalDate date) {
+		return this.folder.resolve(id + "_" + date).toFile();
+	}
+
+	@Test
+	public void getScimagoQuartileFromImage() throws Exception {
+		for (final QuartileRanking quartile : QuartileRanking.values()) {
+			final BufferedImage image = ImageIO.read(new ByteArrayInputStream(createImage(quartile)));
+			assertSame(quartile, JournalService.getScimagoQuartileFromImage(image));
+		}
+	}
+
+	@Test
+	public void refresh_missingQuartiles() throws Exception {
+		final int year = this.today.getYear();
+		this.quartiles.put("123", QuartileRanking.Q1);
+		this.quartiles.put("456", QuartileRanking.Q3);
+		final Journal j1 = addJournal(1, "123");
+		final Journal j2 = addJournal(2, "456");
+		final Journal j3 = addJournal(3, null);
+
+		assertEquals(2, this.test.refresh());
+
+		assertSame(QuartileRanking.Q1, j1.getScimagoQIndexByYear(year));
+		assertSame(QuartileRanking.Q3, j2.getScimagoQIndexByYear(year));
+		assertNull(j3.getScimagoQIndexByYear(year));
+		assertEquals(1, requests("123"));
+		assertEquals(1, requests("456"));
+		assertTrue(cacheFile("123", this.today).isFile());
+		assertTrue(cacheFile("456", this.today).isFile());
+		verify(this.indicatorRepository, times(2)).save(any());
+		verify(this.journalRepository).save(j1);
+		verify(this.journalRepository).save(j2);
+	}
+
+	@Test
+	public void refresh_upToDateQuartile() throws Exception {
+		final int year = this.today.getYear();
+		this.quartiles.put("123", QuartileRanking.Q1);
+		final Journal j1 = addJournal(1, "123");
+		j1.setScimagoQIndexByYear(year, QuartileRanking.Q2);
+
+		assertEquals(0, this.test.refresh());
+
+		assertSame(QuartileRanking.Q2, j1.getScimagoQIndexByYear(year));
+		assertEquals(0, requests("123"));
+		verify(this.journalRepository, never()).save(any());
+	}
+
+	@Test
+	public void refresh_staleQuartile() throws Exception {
+		final int year = this.today.getYear();
+		this.quartiles.put("123", QuartileRanking.Q1);
+		final Journal j1 = addJournal(1, "123");
+		j1.setScimagoQIndexByYear(year, QuartileRanking.Q2);
+		final File oldFile = cacheFile("123", this.today.minusDays(MAX_AGE + 1));
+		Files.write(oldFile.toPath(), createImage(QuartileRanking.Q2));
+
+		assertEquals(1, this.test.refresh());
+
+		assertSame(QuartileRanking.Q1, j1.getScimagoQIndexByYear(year));
+		assertEquals(1, requests("123"));
+		assertFalse(oldFile.exists());
+		assertTrue(cacheFile("123", this.today).isFile());
+	}
+
+	@Test
+	public void refresh_cachedImage() throws Exception {
+		final int year = this.today.getYear();
+		this.quartiles.put("123", QuartileRanking.Q1);
+		final Journal j1 = addJournal(1, "123");
+		Files.write(cacheFile("123", this.today.minusDays(MAX_AGE)).toPath(), createImage(QuartileRanking.Q4));
+
+		assertEquals(1, this.test.refresh());
+
+		assertSame(QuartileRanking.Q4, j1.getScimagoQIndexByYear(year));
+		assertEquals(0, requests("123"));
+	}
+
+	@Test
+	public void refresh_sharedScimagoId() throws Exception {
+		final int year = this.today.getYear();
+		this.quartiles.put("123", QuartileRanking.Q2);
+		final Journal j1 = addJournal(1, "123");
+		final Journal j2 = addJournal(2, "123");
+
+		assertEquals(2, this.test.refresh());
+
+		assertSame(QuartileRanking.Q2, j1.getScimagoQIndexByYear(year));
+		assertSame(QuartileRanking.Q2, j2.getScimagoQIndexByYear(year));
+		assertEquals(1, requests("123"));
+	}
+
+	@Test
+	public void refresh_retry() throws Exception {
+		final int year = this.today.getYear();
+		this.quartiles.put("123", QuartileRanking.Q3);
+		this.failures.put("123", new AtomicInteger(2));
+		final Journal j1 = addJournal(1, "123");
+
+		assertEquals(1, this.test.refresh());
+
+		assertSame(QuartileRanking.Q3, j1.getScimagoQIndexByYear(year));
+		assertEquals(3, requests("123"));
+	}
+
+	@Test
+	public void refresh_retryExhausted() throws Exception {
+		final int year = this.today.getYear();
+		this.quartiles.put("123", QuartileRanking.Q3);
+		this.failures.put("123", new AtomicInteger(3));
+		this.quartiles.put("456", QuartileRanking.Q1);
+		final Journal j1 = addJournal(1, "123");
+		final Journal j2 = addJournal(2, "456");
+
+		assertEquals(1, this.test.refresh());
+
+		assertNull(j1.getScimagoQIndexByYear(year));
+		assertSame(QuartileRanking.Q1, j2.getScimagoQIndexByYear(year));
+		assertEquals(3, requests("123"));
+		assertFalse(cacheFile("123", this.today).exists());
+		verify(this.journalRepository, never()).save(j1);
+	}
+
+	@Test
+	public void refresh_batches() throws Exception {
+		for (int i = 1; i <= 5; ++i) {
+			this.quartiles.put(Integer.toString(i * 100), QuartileRanking.Q1);
+			addJournal(i, Integer.toString(i * 100));
+		}
+
+		assertEquals(5, this.test.refresh());
+
+		// One read-only transaction and three transactions for saving 2, 2 and 1 journals
+		verify(this.transactionManager, times(4)).getTransaction(any());
+		verify(this.journalRepository, times(5)).save(any());
+	}
+
+}
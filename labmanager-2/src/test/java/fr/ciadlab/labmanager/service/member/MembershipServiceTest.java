@@ -36,7 +36,10 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -52,6 +55,7 @@ import fr.ciadlab.labmanager.entities.organization.ResearchOrganization;
 import fr.ciadlab.labmanager.repository.member.MembershipRepository;
 import fr.ciadlab.labmanager.repository.member.PersonRepository;
 import fr.ciadlab.labmanager.repository.organization.ResearchOrganizationRepository;
+import fr.ciadlab.labmanager.service.organization.OrganizationMembershipClosure;
 import fr.ciadlab.labmanager.utils.bap.FrenchBap;
 import fr.ciadlab.labmanager.utils.cnu.CnuSection;
 import fr.ciadlab.labmanager.utils.conrs.ConrsSection;
@@ -108,7 +112,8 @@ public class MembershipServiceTest {
 		this.organizationRepository = mock(ResearchOrganizationRepository.class);
 		this.membershipRepository = mock(MembershipRepository.class);
 		this.personRepository = mock(PersonRepository.class);
-		this.test = new MembershipService(this.messages, new Constants(), this.organizationRepository, this.membershipRepository, this.personRepository);
+		this.test = new MembershipService(this.messages, new Constants(), this.organizationRepository, this.membershipRepository, this.personRepository,
+				new OrganizationMembershipClosure(this.organizationRepository, this.membershipRepository));
 
 		// Prepare some memberships to be inside the repository
 		// The lenient configuration is used to configure the mocks for all the tests
@@ -183,6 +188,27 @@ public class MembershipServiceTest {
 			}
 			return Optional.empty();
 		});
+		lenient().when(this.organizationRepository.findAll()).thenReturn(Arrays.asList(this.o1, this.o2));
+		lenient().when(this.membershipRepository.findDistinctPersonIdsByResearchOrganizationId(anyInt())).then(it -> {
+			final int orgaId = ((Integer) it.getArgument(0)).intValue();
+			switch (orgaId) {
+			case 1234:
+				return Sets.newHashSet(12345, 23456);
+			case 2345:
+				return Sets.newHashSet(12345, 34567);
+			}
+			return Collections.emptySet();
+		});
+		lenient().when(this.personRepository.findDistinctByIdIn(any())).then(it -> {
+			final Collection<Integer> ids = it.getArgument(0);
+			final Set<Person> persons = new HashSet<>();
+			for (final Person person : Arrays.asList(this.p1, this.p2, this.p3)) {
+				if (ids.contains(Integer.valueOf(person.getId()))) {
+					persons.add(person);
+				}
+			}
+			return persons;
+		});
 		lenient().when(this.personRepository.findDistinctByMembershipsResearchOrganizationId(anyInt())).then(it -> {
 			final int orgaId = ((Integer) it.getArgument(0)).intValue();
 			switch (orgaId) {
@@ -322,6 +348,28 @@ public class MembershipServiceTest {
 		assertTrue(pers2.contains(this.p3));
 	}
 
+	@Test
+	public void getMemberIdentifiersOf() {
+		when(this.o1.getSubOrganizations()).thenReturn(Collections.singleton(this.o2));
+
+		assertTrue(this.test.getMemberIdentifiersOf(1, true).isEmpty());
+		assertEquals(Sets.newHashSet(12345, 23456), this.test.getMemberIdentifiersOf(1234, false));
+		assertEquals(Sets.newHashSet(12345, 23456, 34567), this.test.getMemberIdentifiersOf(1234, true));
+		assertEquals(Sets.newHashSet(12345, 34567), this.test.getMemberIdentifiersOf(2345, true));
+	}
+
+	@Test
+	public void getMemberIdentifiersOf_afterRemoveMembership() throws Exception {
+		when(this.o1.getSubOrganizations()).thenReturn(Collections.singleton(this.o2));
+		assertEquals(Sets.newHashSet(12345, 23456, 34567), this.test.getMemberIdentifiersOf(1234, true));
+
+		when(this.membershipRepository.findById(anyInt())).thenReturn(Optional.of(this.ms3));
+		when(this.membershipRepository.findDistinctPersonIdsByResearchOrganizationId(eq(2345))).thenReturn(Collections.singleton(12345));
+		this.test.removeMembership(456);
+
+		assertEquals(Sets.newHashSet(12345, 23456), this.test.getMemberIdentifiersOf(1234, true));
+	}
+
 	@Test
 	public void getPersonsByOrganizationNameStatus() {
 		final Set<Person> pers0 = this.test.getPersonsByOrganizationNameStatus(null, null);
@@ -602,6 +650,7 @@ public class MembershipServiceTest {
 		verify(this.ms1).setConrsSection(same(ConrsSection.CONRS_06));
 		verify(this.ms1).setFrenchBap(same(FrenchBap.BAP_E));
 		verify(this.ms1).setMainPosition(eq(false));
+		verify(this.ms1, atLeastOnce()).getResearchOrganization();
 		verifyNoMoreInteractions(this.ms1);
 	}
 
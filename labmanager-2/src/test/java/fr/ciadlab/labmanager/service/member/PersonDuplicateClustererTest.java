@@ -0,0 +1,197 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.service.member;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import fr.ciadlab.labmanager.entities.EntityUtils;
+import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.utils.names.DefaultPersonNameParser;
+import fr.ciadlab.labmanager.utils.names.PersonNameComparator;
+import fr.ciadlab.labmanager.utils.names.PersonNameParser;
+import fr.ciadlab.labmanager.utils.names.SorensenDicePersonNameComparator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link PersonDuplicateClusterer}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class PersonDuplicateClustererTest {
+
+	private static final String[] FIRST_NAMES = {
+		"Stephane", "Abderrafiaa", "Yazan", "Olivier", "Jean-Michel", "Franck", "Fabrice",
+		"Nicolas", "Christophe", "Marie-Claude", "Zhi", "Li", "Anne", "Hugo",
+	};
+
+	private static final String[] LAST_NAMES = {
+		"Galland", "Koukam", "Mualla", "Lamotte", "Contet", "Gechter", "Lauri", "Gaud",
+		"Guyeux", "Nicod", "Wang", "Yan", "Martin", "Durand", "Bernard", "Dupont",
+	};
+
+	private PersonNameParser nameParser;
+
+	private PersonNameComparator nameComparator;
+
+	private Comparator<Person> comparator;
+
+	private PersonDuplicateClusterer test;
+
+	private static Person createPerson(int id, String firstName, String lastName) {
+		final Person person = new Person();
+		person.setId(id);
+		person.setFirstName(firstName);
+		person.setLastName(lastName);
+		return person;
+	}
+
+	private static String alter(Random random, String name) {
+		final StringBuilder b = new StringBuilder(name);
+		final int index = random.nextInt(b.length());
+		switch (random.nextInt(3)) {
+		case 0:
+			b.deleteCharAt(index);
+			break;
+		case 1:
+			b.insert(index, (char) ('a' + random.nextInt(26)));
+			break;
+		default:
+			b.setCharAt(index, (char) ('a' + random.nextInt(26)));
+			break;
+		}
+		return b.toString();
+	}
+
+	/** Exhaustive pairwise algorithm that is used as reference for the expected groups.
+	 */
+	private List<Set<Person>> exhaustive(List<Person> persons) {
+		final List<Set<Person>> groups = new ArrayList<>();
+		final List<Person> list = new ArrayList<>(persons);
+		for (int i = 0; i < list.size() - 1; ++i) {
+			final Person reference = list.get(i);
+			final Set<Person> group = new TreeSet<>(this.comparator);
+			group.add(reference);
+			final ListIterator<Person> iterator = list.listIterator(i + 1);
+			while (iterator.hasNext()) {
+				final Person other = iterator.next();
+				if (this.nameComparator.isSimilar(reference.getFirstName(), reference.getLastName(),
+						other.getFirstName(), other.getLastName())) {
+					group.add(other);
+					iterator.remove();
+				}
+			}
+			if (group.size() > 1) {
+				groups.add(group);
+			}
+		}
+		return groups;
+	}
+
+	@BeforeEach
+	public void setUp() {
+		this.nameParser = new DefaultPersonNameParser();
+		this.nameComparator = new SorensenDicePersonNameComparator(this.nameParser);
+		this.comparator = EntityUtils.getPreferredPersonComparator();
+		this.test = new PersonDuplicateClusterer(this.nameParser, this.nameComparator);
+	}
+
+	@Test
+	public void cluster_empty() {
+		assertTrue(this.test.cluster(new ArrayList<>(), this.comparator).isEmpty());
+	}
+
+	@Test
+	public void cluster_single() {
+		assertTrue(this.test.cluster(Arrays.asList(createPerson(1, "Stephane", "Galland")), this.comparator).isEmpty());
+	}
+
+	@Test
+	public void cluster_noDuplicate() {
+		final List<Person> persons = Arrays.asList(
+				createPerson(1, "Stephane", "Galland"),
+				createPerson(2, "Abderrafiaa", "Koukam"),
+				createPerson(3, "Yazan", "Mualla"));
+		assertTrue(this.test.cluster(persons, this.comparator).isEmpty());
+	}
+
+	@Test
+	public void cluster_duplicates() {
+		final Person p0 = createPerson(1, "Stephane", "Galland");
+		final Person p1 = createPerson(2, "Abderrafiaa", "Koukam");
+		final Person p2 = createPerson(3, "Stéphane", "Galland");
+		final Person p3 = createPerson(4, "Galland", "Stephane");
+		final Person p4 = createPerson(5, "Yazan", "Mualla");
+		final Person p5 = createPerson(6, "Abderrafiâa", "Koukam");
+		final List<Person> persons = Arrays.asList(p0, p1, p2, p3, p4, p5);
+		final List<Set<Person>> groups = this.test.cluster(persons, this.comparator);
+		assertEquals(exhaustive(persons), groups);
+		assertEquals(2, groups.size());
+		assertTrue(groups.get(0).contains(p0));
+		assertTrue(groups.get(0).contains(p2));
+		assertTrue(groups.get(0).contains(p3));
+		assertTrue(groups.get(1).contains(p1));
+		assertTrue(groups.get(1).contains(p5));
+	}
+
+	@Test
+	public void cluster_shortNames() {
+		final Person p0 = createPerson(1, "F1", "L1");
+		final Person p1 = createPerson(2, "F2", "L2");
+		final Person p2 = createPerson(3, "F1", "L1");
+		final List<Person> persons = Arrays.asList(p0, p1, p2);
+		final List<Set<Person>> groups = this.test.cluster(persons, this.comparator);
+		assertEquals(exhaustive(persons), groups);
+		assertEquals(1, groups.size());
+	}
+
+	@Test
+	public void cluster_sameAsExhaustive() {
+		final Random random = new Random(1234);
+		final List<Person> persons = new ArrayList<>();
+		for (int i = 0; i < 400; ++i) {
+			String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+			String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)] + LAST_NAMES[random.nextInt(LAST_NAMES.length)].toLowerCase();
+			if (random.nextInt(4) == 0) {
+				last = alter(random, last);
+			}
+			if (random.nextInt(8) == 0) {
+				first = alter(random, first);
+			}
+			if (random.nextInt(10) == 0) {
+				persons.add(createPerson(i + 1, last, first));
+			} else {
+				persons.add(createPerson(i + 1, first, last));
+			}
+		}
+		assertEquals(exhaustive(persons), this.test.cluster(persons, this.comparator));
+	}
+
+}
@@ -0,0 +1,149 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.service.member;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.repository.member.PersonRepository;
+import fr.ciadlab.labmanager.utils.names.DefaultPersonNameParser;
+import fr.ciadlab.labmanager.utils.names.PersonNameComparator;
+import fr.ciadlab.labmanager.utils.names.PersonNameParser;
+import fr.ciadlab.labmanager.utils.names.SorensenDicePersonNameComparator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link PersonNameIndex}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class PersonNameIndexTest {
+
+	private PersonRepository personRepository;
+
+	private PersonNameParser nameParser;
+
+	private PersonNameComparator nameComparator;
+
+	private MeterRegistry meterRegistry;
+
+	private PersonNameIndex test;
+
+	private static Person createPerson(int id, String firstName, String lastName) {
+		final Person person = new Person();
+		person.setId(id);
+		person.setFirstName(firstName);
+		person.setLastName(lastName);
+		return person;
+	}
+
+	@BeforeEach
+	public void setUp() {
+		this.personRepository = mock(PersonRepository.class);
+		when(this.personRepository.findAll()).thenReturn(new ArrayList<>(Arrays.asList(
+				createPerson(1, "Stephane", "Galland"),
+				createPerson(2, "Abderrafiaa", "Koukam"),
+				createPerson(3, "Stefane", "Galland"),
+				createPerson(4, "Yazan", "Mualla"))));
+		this.nameParser = new DefaultPersonNameParser();
+		this.nameComparator = new SorensenDicePersonNameComparator(this.nameParser);
+		this.meterRegistry = new SimpleMeterRegistry();
+		this.test = new PersonNameIndex(this.personRepository, this.nameParser, this.nameComparator, this.meterRegistry);
+	}
+
+	@Test
+	public void findMostSimilar_empty() {
+		assertEquals(0, this.test.findMostSimilar(null, "Galland"));
+		assertEquals(0, this.test.findMostSimilar("Stephane", ""));
+		assertEquals(0, this.test.size());
+	}
+
+	@Test
+	public void findMostSimilar_same() {
+		assertEquals(1, this.test.findMostSimilar("Stephane", "Galland"));
+		assertEquals(2, this.test.findMostSimilar("Abderrafiaa", "Koukam"));
+		assertEquals(4, this.test.size());
+		verify(this.personRepository, times(1)).findAll();
+	}
+
+	@Test
+	public void findMostSimilar_similar() {
+		assertEquals(1, this.test.findMostSimilar("Stéphane", "Galland"));
+		assertEquals(2, this.test.findMostSimilar("Abderrafiâa", "KOUKAM"));
+	}
+
+	@Test
+	public void findMostSimilar_swapped() {
+		assertEquals(4, this.test.findMostSimilar("Mualla", "Yazan"));
+	}
+
+	@Test
+	public void findMostSimilar_unknown() {
+		assertEquals(0, this.test.findMostSimilar("Olivier", "Lamotte"));
+	}
+
+	@Test
+	public void update() {
+		this.test.findMostSimilar("Olivier", "Lamotte");
+		this.test.update(createPerson(5, "Olivier", "Lamotte"));
+		assertEquals(5, this.test.findMostSimilar("Olivier", "Lamotte"));
+		this.test.update(createPerson(4, "Yazan", "Lamotte"));
+		assertEquals(4, this.test.findMostSimilar("Yazan", "Lamotte"));
+		assertEquals(0, this.test.findMostSimilar("Yazan", "Mualla"));
+	}
+
+	@Test
+	public void remove() {
+		assertEquals(2, this.test.findMostSimilar("Abderrafiaa", "Koukam"));
+		this.test.remove(2);
+		assertEquals(0, this.test.findMostSimilar("Abderrafiaa", "Koukam"));
+		assertEquals(3, this.test.size());
+	}
+
+	@Test
+	public void invalidate() {
+		this.test.findMostSimilar("Stephane", "Galland");
+		this.test.invalidate();
+		this.test.findMostSimilar("Stephane", "Galland");
+		verify(this.personRepository, times(2)).findAll();
+	}
+
+	@Test
+	public void counters() {
+		this.test.findMostSimilar("Stephane", "Galland");
+		this.test.findMostSimilar("Yazan", "Mualla");
+		this.test.findMostSimilar("Olivier", "Lamotte");
+		assertEquals(2, this.test.getHitCount());
+		assertEquals(1, this.test.getMissCount());
+		assertEquals(2., this.meterRegistry.get("labmanager.person.name.index.hits").counter().count());
+		assertEquals(1., this.meterRegistry.get("labmanager.person.name.index.misses").counter().count());
+	}
+
+}
@@ -35,6 +35,7 @@ import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -52,6 +53,7 @@ import fr.ciadlab.labmanager.utils.names.DefaultPersonNameParser;
 import fr.ciadlab.labmanager.utils.names.PersonNameComparator;
 import fr.ciadlab.labmanager.utils.names.PersonNameParser;
 import fr.ciadlab.labmanager.utils.names.SorensenDicePersonNameComparator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -90,6 +92,8 @@ public class PersonServiceTest {
 
 	private PersonNameComparator nameComparator;
 
+	private PersonNameIndex nameIndex;
+
 	private PersonService test;
 
 	@BeforeEach
@@ -102,8 +106,10 @@ public class PersonServiceTest {
 		this.nameParser = new DefaultPersonNameParser();
 		// Create a real comparator instance to be used in the test
 		this.nameComparator = new SorensenDicePersonNameComparator(this.nameParser);
+		// Create a real index instance to be used in the test
+		this.nameIndex = new PersonNameIndex(this.personRepository, this.nameParser, this.nameComparator, new SimpleMeterRegistry());
 		this.test = new PersonService(this.messages, new Constants(), this.publicationRepository, this.authorshipRepository, this.personRepository,
-				this.nameParser, this.nameComparator);
+				this.nameParser, this.nameComparator, this.nameIndex);
 
 		// Prepare some persons to be inside the repository
 		// The lenient configuration is used to configure the mocks for all the tests
@@ -381,6 +387,25 @@ public class PersonServiceTest {
 		assertEquals("L3", list.get(2).getLastName());
 	}
 
+	@Test
+	public void extractPersonsFrom_cache() {
+		final Map<String, Person> cache = new HashMap<>();
+		List<Person> list = this.test.extractPersonsFrom("L1, F1 and L2a, F2a", false, false, false, cache);
+		assertEquals(2, list.size());
+		assertSame(this.pers0, list.get(0));
+		assertEquals(1, cache.size());
+
+		list = this.test.extractPersonsFrom("L1, F1 and L3, F3", false, false, false, cache);
+		assertEquals(2, list.size());
+		assertSame(this.pers0, list.get(0));
+		assertSame(this.pers2, list.get(1));
+		assertEquals(2, cache.size());
+
+		// The known person L1, F1 is read only once from the database
+		verify(this.personRepository, times(1)).findByFirstNameAndLastName(eq("F1"), eq("L1"));
+		verify(this.personRepository, times(1)).findById(eq(123));
+	}
+
 	@Test
 	public void extractPersonsFrom_kwownAndUknownPersons() {
 		List<Person> list = this.test.extractPersonsFrom("L1, F1 and L2a, F2a and L3, F3", false, false, false);
@@ -0,0 +1,325 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.service.organization;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.google.common.collect.Sets;
+import fr.ciadlab.labmanager.entities.member.Membership;
+import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.entities.organization.ResearchOrganization;
+import fr.ciadlab.labmanager.repository.member.MembershipRepository;
+import fr.ciadlab.labmanager.repository.organization.ResearchOrganizationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Tests for {@link OrganizationMembershipClosure}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+@ExtendWith(MockitoExtension.class)
+public class OrganizationMembershipClosureTest {
+
+	private ResearchOrganization o1;
+
+	private ResearchOrganization o2;
+
+	private ResearchOrganization o3;
+
+	private Set<ResearchOrganization> subs1;
+
+	private ResearchOrganizationRepository organizationRepository;
+
+	private MembershipRepository membershipRepository;
+
+	private OrganizationMembershipClosure test;
+
+	@BeforeEach
+	public void setUp() {
+		this.organizationRepository = mock(ResearchOrganizationRepository.class);
+		this.membershipRepository = mock(MembershipRepository.class);
+		this.test = new OrganizationMembershipClosure(this.organizationRepository, this.membershipRepository);
+
+		// Hierarchy: o1 -> o2 -> o3
+		this.o1 = mock(ResearchOrganization.class);
+		lenient().when(this.o1.getId()).thenReturn(1);
+		this.o2 = mock(ResearchOrganization.class);
+		lenient().when(this.o2.getId()).thenReturn(2);
+		this.o3 = mock(ResearchOrganization.class);
+		lenient().when(this.o3.getId()).thenReturn(3);
+		this.subs1 = new HashSet<>(Collections.singleton(this.o2));
+		lenient().when(this.o1.getSubOrganizations()).thenReturn(this.subs1);
+		lenient().when(this.o2.getSubOrganizations()).thenReturn(Collections.singleton(this.o3));
+		lenient().when(this.o3.getSubOrganizations()).thenReturn(Collections.emptySet());
+		lenient().when(this.organizationRepository.findAll()).thenReturn(Arrays.asList(this.o1, this.o2, this.o3));
+
+		lenient().when(this.membershipRepository.findDistinctPersonIdsByResearchOrganizationId(anyInt())).then(it -> {
+			final int orgaId = ((Integer) it.getArgument(0)).intValue();
+			switch (orgaId) {
+			case 1:
+				return Sets.newHashSet(30, 10);
+			case 2:
+				return Sets.newHashSet(10, 20);
+			case 3:
+				return Sets.newHashSet(40);
+			}
+			return Collections.emptySet();
+		});
+	}
+
+	@Test
+	public void contains() {
+		assertTrue(this.test.contains(1));
+		assertTrue(this.test.contains(3));
+		assertFalse(this.test.contains(4));
+	}
+
+	@Test
+	public void getOrganizations() {
+		assertArrayEquals(new int[] {1, 2, 3}, this.test.getOrganizations(1));
+		assertArrayEquals(new int[] {2, 3}, this.test.getOrganizations(2));
+		assertArrayEquals(new int[] {3}, this.test.getOrganizations(3));
+		assertArrayEquals(new int[0], this.test.getOrganizations(4));
+	}
+
+	@Test
+	public void getOrganizations_loop() {
+		when(this.o3.getSubOrganizations()).thenReturn(Collections.singleton(this.o1));
+		assertArrayEquals(new int[] {1, 2, 3}, this.test.getOrganizations(2));
+	}
+
+	@Test
+	public void getMembers() {
+		assertArrayEquals(new int[] {10, 30}, this.test.getMembers(1, false));
+		assertArrayEquals(new int[] {10, 20, 30, 40}, this.test.getMembers(1, true));
+		assertArrayEquals(new int[] {10, 20, 40}, this.test.getMembers(2, true));
+		assertArrayEquals(new int[] {40}, this.test.getMembers(3, true));
+		assertArrayEquals(new int[0], this.test.getMembers(4, true));
+	}
+
+	@Test
+	public void getMembers_cached() {
+		this.test.getMembers(1, true);
+		this.test.getMembers(1, true);
+		this.test.getMembers(2, true);
+		verify(this.organizationRepository, times(1)).findAll();
+		verify(this.membershipRepository, times(1)).findDistinctPersonIdsByResearchOrganizationId(eq(1));
+		verify(this.membershipRepository, times(1)).findDistinctPersonIdsByResearchOrganizationId(eq(2));
+		verify(this.membershipRepository, times(1)).findDistinctPersonIdsByResearchOrganizationId(eq(3));
+	}
+
+	@Test
+	public void membershipChanged() {
+		assertArrayEquals(new int[] {10, 20, 30, 40}, this.test.getMembers(1, true));
+		assertArrayEquals(new int[] {10, 20}, this.test.getMembers(2, false));
+
+		when(this.membershipRepository.findDistinctPersonIdsByResearchOrganizationId(eq(3))).thenReturn(Sets.newHashSet(40, 50));
+		this.test.membershipChanged(50, 3);
+
+		assertArrayEquals(new int[] {10, 20, 30, 40, 50}, this.test.getMembers(1, true));
+		assertArrayEquals(new int[] {10, 20, 40, 50}, this.test.getMembers(2, true));
+		// Direct members of the super organizations are not reloaded
+		verify(this.membershipRepository, times(1)).findDistinctPersonIdsByResearchOrganizationId(eq(1));
+		verify(this.membershipRepository, times(1)).findDistinctPersonIdsByResearchOrganizationId(eq(2));
+	}
+
+	@Test
+	public void membershipChanged_move() {
+		assertArrayEquals(new int[] {10, 20}, this.test.getMembers(2, false));
+		assertArrayEquals(new int[] {40}, this.test.getMembers(3, false));
+
+		// Move the membership of 20 from o2 to o3
+		when(this.membershipRepository.findDistinctPersonIdsByResearchOrganizationId(eq(2))).thenReturn(Sets.newHashSet(10));
+		when(this.membershipRepository.findDistinctPersonIdsByResearchOrganizationId(eq(3))).thenReturn(Sets.newHashSet(20, 40));
+		this.test.membershipChanged(20, 3);
+
+		assertArrayEquals(new int[] {10}, this.test.getMembers(2, false));
+		assertArrayEquals(new int[] {20, 40}, this.test.getMembers(3, false));
+	}
+
+	@Test
+	public void membershipChanged_unknown() {
+		this.test.getMembers(1, true);
+		this.test.membershipChanged(0, 0);
+		this.test.getMembers(1, true);
+		verify(this.organizationRepository, times(1)).findAll();
+		verify(this.membershipRepository, times(2)).findDistinctPersonIdsByResearchOrganizationId(eq(1));
+		verify(this.membershipRepository, times(2)).findDistinctPersonIdsByResearchOrganizationId(eq(3));
+	}
+
+	@Test
+	public void organizationChanged_unlink() {
+		assertArrayEquals(new int[] {10, 20, 30, 40}, this.test.getMembers(1, true));
+
+		this.subs1.clear();
+		this.test.organizationChanged(2, 0);
+
+		assertArrayEquals(new int[] {1}, this.test.getOrganizations(1));
+		assertArrayEquals(new int[] {10, 30}, this.test.getMembers(1, true));
+		assertArrayEquals(new int[] {10, 20, 40}, this.test.getMembers(2, true));
+	}
+
+	@Test
+	public void organizationChanged_link() {
+		this.test.getMembers(1, true);
+		this.test.organizationChanged(2, 0);
+		assertArrayEquals(new int[] {1}, this.test.getOrganizations(1));
+
+		this.test.organizationChanged(2, 1);
+
+		assertArrayEquals(new int[] {1, 2, 3}, this.test.getOrganizations(1));
+		assertArrayEquals(new int[] {10, 20, 30, 40}, this.test.getMembers(1, true));
+	}
+
+	@Test
+	public void organizationChanged_move() {
+		this.test.getMembers(1, true);
+
+		// Move o3 from o2 to o1
+		this.test.organizationChanged(3, 1);
+
+		assertArrayEquals(new int[] {2}, this.test.getOrganizations(2));
+		assertArrayEquals(new int[] {10, 20}, this.test.getMembers(2, true));
+		assertArrayEquals(new int[] {1, 2, 3}, this.test.getOrganizations(1));
+	}
+
+	@Test
+	public void organizationChanged_sameSuperOrganization() {
+		this.test.getMembers(1, true);
+		this.test.organizationChanged(3, 2);
+		this.test.getMembers(1, true);
+		verify(this.organizationRepository, times(1)).findAll();
+		verify(this.membershipRepository, times(1)).findDistinctPersonIdsByResearchOrganizationId(eq(1));
+	}
+
+	@Test
+	public void organizationChanged_newOrganization() {
+		this.test.getOrganizations(1);
+		this.test.organizationChanged(4, 1);
+		assertTrue(this.test.contains(4));
+		assertArrayEquals(new int[] {1, 2, 3, 4}, this.test.getOrganizations(1));
+		verify(this.organizationRepository, times(1)).findAll();
+	}
+
+	@Test
+	public void organizationChanged_unknownSuperOrganization() {
+		this.test.getOrganizations(1);
+		this.test.organizationChanged(4, 5);
+		this.test.getOrganizations(1);
+		verify(this.organizationRepository, times(2)).findAll();
+	}
+
+	@Test
+	public void organizationRemoved() {
+		this.test.getOrganizations(1);
+		this.test.organizationRemoved(3);
+		this.test.getOrganizations(1);
+		verify(this.organizationRepository, times(2)).findAll();
+	}
+
+	@Test
+	public void listener_commit() {
+		final OrganizationMembershipClosureListener listener = new OrganizationMembershipClosureListener();
+		listener.setOrganizationMembershipClosure(this.test);
+		assertArrayEquals(new int[] {10, 20, 30, 40}, this.test.getMembers(1, true));
+
+		final Person person = mock(Person.class);
+		when(person.getId()).thenReturn(50);
+		final Membership membership = mock(Membership.class);
+		when(membership.getPerson()).thenReturn(person);
+		when(membership.getResearchOrganization()).thenReturn(this.o3);
+		when(this.membershipRepository.findDistinctPersonIdsByResearchOrganizationId(eq(3))).thenReturn(Sets.newHashSet(50));
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			listener.entitySaved(membership);
+			// Not applied before the commit
+			assertArrayEquals(new int[] {10, 20, 30, 40}, this.test.getMembers(1, true));
+			for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCommit();
+			}
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertArrayEquals(new int[] {10, 20, 30, 50}, this.test.getMembers(1, true));
+	}
+
+	@Test
+	public void listener_rollback() {
+		final OrganizationMembershipClosureListener listener = new OrganizationMembershipClosureListener();
+		listener.setOrganizationMembershipClosure(this.test);
+		assertArrayEquals(new int[] {10, 20, 30, 40}, this.test.getMembers(1, true));
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			listener.entityRemoved(this.o3);
+			for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+			}
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertArrayEquals(new int[] {10, 20, 30, 40}, this.test.getMembers(1, true));
+		verify(this.organizationRepository, times(1)).findAll();
+	}
+
+	@Test
+	public void listener_organizationChanged() {
+		final OrganizationMembershipClosureListener listener = new OrganizationMembershipClosureListener();
+		listener.setOrganizationMembershipClosure(this.test);
+		this.test.getMembers(1, true);
+
+		when(this.o3.getSuperOrganization()).thenReturn(this.o1);
+		listener.entitySaved(this.o3);
+
+		assertArrayEquals(new int[] {2}, this.test.getOrganizations(2));
+		assertArrayEquals(new int[] {1, 2, 3}, this.test.getOrganizations(1));
+	}
+
+	@Test
+	public void invalidate() {
+		this.test.getMembers(1, true);
+		this.test.invalidate();
+		this.test.getMembers(1, true);
+		verify(this.organizationRepository, times(2)).findAll();
+		verify(this.membershipRepository, times(2)).findDistinctPersonIdsByResearchOrganizationId(eq(1));
+	}
+
+}
@@ -79,13 +79,16 @@ public class ResearchOrganizationServiceTest {
 
 	private ResearchOrganizationRepository organizationRepository;
 
+	private OrganizationMembershipClosure organizationClosure;
+
 	private ResearchOrganizationService test;
 
 	@BeforeEach
 	public void setUp() {
 		this.messages = mock(MessageSourceAccessor.class);
 		this.organizationRepository = mock(ResearchOrganizationRepository.class);
-		this.test = new ResearchOrganizationService(this.messages, new Constants(), this.organizationRepository);
+		this.organizationClosure = mock(OrganizationMembershipClosure.class);
+		this.test = new ResearchOrganizationService(this.messages, new Constants(), this.organizationRepository, this.organizationClosure);
 
 		// Prepare some organizations to be inside the repository
 		// The lenient configuration is used to configure the mocks for all the tests
@@ -305,6 +308,7 @@ public class ResearchOrganizationServiceTest {
 	public void linkSubOrganization_invalidSub() {
 		final boolean r = this.test.linkSubOrganization(234, 1);
 		assertFalse(r);
+		verifyNoInteractions(this.organizationClosure);
 	}
 
 	@Test
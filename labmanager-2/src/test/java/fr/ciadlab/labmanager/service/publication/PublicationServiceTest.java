@@ -42,22 +42,28 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import fr.ciadlab.labmanager.configuration.Constants;
 import fr.ciadlab.labmanager.entities.member.Person;
 import fr.ciadlab.labmanager.entities.publication.Authorship;
 import fr.ciadlab.labmanager.entities.publication.Publication;
+import fr.ciadlab.labmanager.entities.publication.PublicationDuplicateIndex;
 import fr.ciadlab.labmanager.io.ExporterConfigurator;
 import fr.ciadlab.labmanager.io.bibtex.BibTeX;
 import fr.ciadlab.labmanager.io.filemanager.DownloadableFileManager;
@@ -81,6 +87,7 @@ import fr.ciadlab.labmanager.service.publication.type.MiscDocumentService;
 import fr.ciadlab.labmanager.service.publication.type.PatentService;
 import fr.ciadlab.labmanager.service.publication.type.ReportService;
 import fr.ciadlab.labmanager.service.publication.type.ThesisService;
+import fr.ciadlab.labmanager.utils.ComposedException;
 import fr.ciadlab.labmanager.utils.names.DefaultPersonNameParser;
 import fr.ciadlab.labmanager.utils.names.PersonNameParser;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure2;
@@ -90,6 +97,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.support.MessageSourceAccessor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
 
 /** Tests for {@link PublicationService}.
  * 
@@ -158,6 +174,8 @@ public class PublicationServiceTest {
 
 	private ThesisService thesisService;
 
+	private PlatformTransactionManager transactionManager;
+
 	@BeforeEach
 	public void setUp() {
 		this.fileManager = mock(DownloadableFileManager.class);
@@ -184,15 +202,8 @@ public class PublicationServiceTest {
 		this.patentService = mock(PatentService.class);
 		this.reportService = mock(ReportService.class);
 		this.thesisService = mock(ThesisService.class);
-		this.test = new PublicationService(this.messages, new Constants(), this.publicationRepository, this.prePublicationFactory,
-				this.authorshipRepository,
-				this.personService, this.personRepository,
-				this.journalRepository, this.nameParser, this.bibtex, this.html, this.odt, this.json, this.fileManager,
-				this.membershipService,
-				this.bookService, this.bookChapterService, this.conferencePaperService,
-				this.journalEditionService, this.journalPaperService, this.keyNoteService,
-				this.miscDocumentService, this.patentService, this.reportService,
-				this.thesisService);
+		this.transactionManager = mock(PlatformTransactionManager.class);
+		this.test = createService(200);
 
 		// Prepare some publications to be inside the repository
 		// The lenient configuration is used to configure the mocks for all the tests
@@ -248,6 +259,55 @@ public class PublicationServiceTest {
 		assertSame(expected, set);
 	}
 
+	@Test
+	public void getDuplicateCandidates() {
+		final List<Publication> expected = Arrays.asList(this.pub0, this.pub2);
+		when(this.publicationRepository.findAllByDuplicateKeys(any(), any(), any())).then(it -> expected);
+		final Publication pub = mock(Publication.class);
+		when(pub.getDOI()).thenReturn("https://doi.org/10.1000/XYZ");
+		when(pub.getTitle()).thenReturn("Multi-Agent Simulation");
+
+		List<Publication> list = this.test.getDuplicateCandidates(pub);
+		assertEquals(expected, list);
+
+		verify(this.publicationRepository).findAllByDuplicateKeys(eq("10.1000/xyz"), isNull(),
+				eq(PublicationDuplicateIndex.getTitleFingerprint("multi agent simulation")));
+	}
+
+	@Test
+	public void getDuplicateCandidates_titleKeys() {
+		when(this.publicationRepository.findAllByDuplicateKeys(any(), any(), any())).thenReturn(Arrays.asList(this.pub0, this.pub2));
+		when(this.publicationRepository.findAllByTitleKeys(any(), anyInt(), anyInt())).thenReturn(Arrays.asList(this.pub2, this.pub1));
+		final Publication pub = mock(Publication.class);
+		when(pub.getTitle()).thenReturn("Multi-Agent Simulation of Traffic");
+		when(pub.getPublicationYear()).thenReturn(2022);
+
+		List<Publication> list = this.test.getDuplicateCandidates(pub);
+		assertEquals(Arrays.asList(this.pub0, this.pub2, this.pub1), list);
+
+		verify(this.publicationRepository).findAllByTitleKeys(
+				eq(new LinkedHashSet<>(Arrays.asList("multi agent", "agent simulation", "simulation traffic"))),
+				eq(2021), eq(2023));
+	}
+
+	@Test
+	public void getDuplicateCandidates_noKey() {
+		final Publication pub = mock(Publication.class);
+		assertTrue(this.test.getDuplicateCandidates(pub).isEmpty());
+		verifyNoInteractions(this.publicationRepository);
+	}
+
+	@Test
+	public void updateDuplicateKeys() {
+		when(this.publicationRepository.findAllWithoutDuplicateKeys()).thenReturn(Arrays.asList(this.pub0, this.pub2));
+
+		assertEquals(2, this.test.updateDuplicateKeys());
+
+		verify(this.pub0).updateDuplicateKeys();
+		verify(this.pub2).updateDuplicateKeys();
+		verify(this.publicationRepository).saveAll(any());
+	}
+
 	@Test
 	public void removePublication() {
 		this.test.removePublication(234, false);
@@ -268,16 +328,6 @@ public class PublicationServiceTest {
 		when(pers1.getId()).thenReturn(2345);
 		doReturn(Arrays.asList(pers0)).when(this.pub0).getTemporaryAuthors();
 		doReturn(Arrays.asList(pers1)).when(this.pub1).getTemporaryAuthors();
-		
-		when(this.personRepository.findById(anyInt())).thenAnswer(it -> {
-			switch ((Integer) it.getArgument(0)) {
-			case 1234:
-				return Optional.of(pers0);
-			case 2345:
-				return Optional.of(pers1);
-			}
-			return Optional.empty();
-		});
 
 		this.test.save(pub0, pub1);
 
@@ -287,17 +337,86 @@ public class PublicationServiceTest {
 		verify(this.publicationRepository, atLeastOnce()).save(same(pub0));
 		verify(this.publicationRepository, atLeastOnce()).save(same(pub1));
 
-		verify(this.personRepository, atLeastOnce()).save(same(pers0));
-		verify(this.personRepository, atLeastOnce()).save(same(pers1));
+		verify(this.personRepository, atLeastOnce()).saveAll(eq(Arrays.asList(pers0)));
+		verify(this.personRepository, atLeastOnce()).saveAll(eq(Arrays.asList(pers1)));
+		verify(this.personRepository, never()).findById(anyInt());
 
-		ArgumentCaptor<Authorship> arg0 = ArgumentCaptor.forClass(Authorship.class);
-		verify(this.authorshipRepository, times(2)).save(arg0.capture());
-		assertAuthorship(arg0, 1234, 123, 0);
-		assertAuthorship(arg0, 2345, 234, 0);
+		final List<Authorship> authorships = captureSavedAuthorships(2);
+		assertEquals(2, authorships.size());
+		assertAuthorship(authorships, 1234, 123, 0);
+		assertAuthorship(authorships, 2345, 234, 0);
+		verify(this.authorshipRepository, never()).save(any());
 
 		verifyNoInteractions(this.journalRepository);
 	}
 
+	@Test
+	public void addAuthorships() {
+		Person pers0 = mock(Person.class);
+		when(pers0.getId()).thenReturn(1234);
+		Person pers1 = mock(Person.class);
+		when(pers1.getId()).thenReturn(2345);
+		Person pers2 = mock(Person.class);
+		when(pers2.getId()).thenReturn(3456);
+
+		Set<Authorship> rawAuthorships = new HashSet<>();
+		when(this.pub0.getAuthorshipsRaw()).thenReturn(rawAuthorships);
+		Authorship existingAuthorship = mock(Authorship.class);
+		when(existingAuthorship.getPerson()).thenReturn(pers1);
+		when(existingAuthorship.getAuthorRank()).thenReturn(0);
+		rawAuthorships.add(existingAuthorship);
+
+		final List<Authorship> added = this.test.addAuthorships(this.pub0, Arrays.asList(pers0, pers1, pers2));
+
+		assertEquals(2, added.size());
+		assertAuthorship(added.get(0), 1234, 123, 1);
+		assertAuthorship(added.get(1), 3456, 123, 2);
+		assertEquals(3, rawAuthorships.size());
+		assertTrue(rawAuthorships.containsAll(added));
+
+		assertEquals(added, captureSavedAuthorships(1));
+		verify(this.authorshipRepository, never()).save(any());
+		verify(existingAuthorship, never()).setAuthorRank(anyInt());
+	}
+
+	@Test
+	public void addAuthorships_noNewAuthor() {
+		Person pers0 = mock(Person.class);
+		when(pers0.getId()).thenReturn(1234);
+		Set<Authorship> rawAuthorships = new HashSet<>();
+		when(this.pub0.getAuthorshipsRaw()).thenReturn(rawAuthorships);
+		Authorship existingAuthorship = mock(Authorship.class);
+		when(existingAuthorship.getPerson()).thenReturn(pers0);
+		rawAuthorships.add(existingAuthorship);
+
+		final List<Authorship> added = this.test.addAuthorships(this.pub0, Arrays.asList(pers0));
+
+		assertTrue(added.isEmpty());
+		verifyNoInteractions(this.authorshipRepository);
+	}
+
+	private List<Authorship> captureSavedAuthorships(int batches) {
+		final ArgumentCaptor<Iterable<Authorship>> arg = ArgumentCaptor.forClass(Iterable.class);
+		verify(this.authorshipRepository, times(batches)).saveAll(arg.capture());
+		final List<Authorship> authorships = new ArrayList<>();
+		for (final Iterable<Authorship> batch : arg.getAllValues()) {
+			batch.forEach(authorships::add);
+		}
+		return authorships;
+	}
+
+	private void assertAuthorship(List<Authorship> authorships, int personId, int publicationId, int rank) {
+		for (final Authorship aut : authorships) {
+			int pid = aut.getPerson().getId();
+			int pubid = aut.getPublication().getId();
+			int r = aut.getAuthorRank();
+			if (personId == pid && publicationId == pubid && rank == r) {
+				return;
+			}
+		}
+		fail("Authorship not found");
+	}
+
 	private void assertAuthorship(ArgumentCaptor<Authorship> authorships, int personId, int publicationId, int rank) {
 		for (final Authorship aut : authorships.getAllValues()) {
 			int pid = aut.getPerson().getId();
@@ -316,6 +435,18 @@ public class PublicationServiceTest {
 		assertEquals(rank, authorship.getAuthorRank(), "Invalid rank");
 	}
 
+	private PublicationService createService(int importChunkSize) {
+		return new PublicationService(this.messages, new Constants(), this.publicationRepository, this.prePublicationFactory,
+				this.authorshipRepository,
+				this.personService, this.personRepository,
+				this.journalRepository, this.nameParser, this.bibtex, this.html, this.odt, this.json, this.fileManager,
+				this.membershipService,
+				this.bookService, this.bookChapterService, this.conferencePaperService,
+				this.journalEditionService, this.journalPaperService, this.keyNoteService,
+				this.miscDocumentService, this.patentService, this.reportService,
+				this.thesisService, this.transactionManager, importChunkSize);
+	}
+
 	@Test
 	public void importPublications_null() throws Exception {
 		List<Integer> ids = this.test.importPublications(null, null);
@@ -352,19 +483,7 @@ public class PublicationServiceTest {
 		Publication p1 = mock(Publication.class);
 		when(p1.getId()).thenReturn(874);
 		when(p1.getAuthors()).thenReturn(Arrays.asList(a1, a2));
-		when(this.bibtex.extractPublications(any(Reader.class), anyBoolean(), anyBoolean(), anyBoolean())).thenReturn(Arrays.asList(p0, p1));
-		when(this.personRepository.findById(anyInt())).thenAnswer(it -> {
-			switch ((Integer) it.getArgument(0)) {
-			case 1234:
-				return Optional.of(a0);
-			case 2345:
-				return Optional.of(a1);
-			case 3456:
-				return Optional.of(a2);
-			}
-			return Optional.empty();
-		});
-		when(this.personRepository.findByAuthorshipsPublicationIdOrderByAuthorshipsAuthorRank(anyInt())).thenReturn(Collections.singletonList(null));
+		when(this.bibtex.getPublicationStreamFrom(any(Reader.class), anyBoolean(), anyBoolean(), anyBoolean())).thenReturn(Stream.of(p0, p1));
 
 		lenient().when(this.publicationRepository.findById(anyInt())).then(it -> {
 			switch (((Integer) it.getArgument(0)).intValue()) {
@@ -392,20 +511,105 @@ public class PublicationServiceTest {
 		verify(this.publicationRepository, atLeastOnce()).save(same(p0));
 		verify(this.publicationRepository, atLeastOnce()).save(same(p1));
 
-		verify(this.personRepository, atLeastOnce()).save(same(a1));
+		verify(this.personRepository, atLeastOnce()).saveAll(eq(Arrays.asList(a0, a1)));
+		verify(this.personRepository, atLeastOnce()).saveAll(eq(Arrays.asList(a1, a2)));
 
 		verify(p0, atLeastOnce()).setTemporaryAuthors(same(null));
 
 		verify(p1, atLeastOnce()).setTemporaryAuthors(same(null));
 
-		verify( this.personRepository, atLeastOnce()).findByAuthorshipsPublicationIdOrderByAuthorshipsAuthorRank(eq(874));
-		
-		ArgumentCaptor<Authorship> arg0 = ArgumentCaptor.forClass(Authorship.class);
-		verify(this.authorshipRepository, atLeastOnce()).save(arg0.capture());
-		assertAuthorship(arg0, 1234, 987, 0);
-		assertAuthorship(arg0, 2345, 987, 1);
-		assertAuthorship(arg0, 2345, 874, 0);
-		assertAuthorship(arg0, 3456, 874, 1);
+		final List<Authorship> authorships = captureSavedAuthorships(2);
+		assertEquals(4, authorships.size());
+		assertAuthorship(authorships, 1234, 987, 0);
+		assertAuthorship(authorships, 2345, 987, 1);
+		assertAuthorship(authorships, 2345, 874, 0);
+		assertAuthorship(authorships, 3456, 874, 1);
+	}
+
+	@Test
+	public void importPublications_knownAuthors() throws Exception {
+		String bibtex = "--valid-bibtex--";
+		Person a0 = mock(Person.class);
+		when(a0.getId()).thenReturn(1234);
+		when(a0.getFirstName()).thenReturn("Fa0");
+		when(a0.getLastName()).thenReturn("La0");
+		Person a1 = mock(Person.class);
+		when(a1.getFirstName()).thenReturn("Fa1");
+		when(a1.getLastName()).thenReturn("La1");
+		Person a1db = mock(Person.class);
+		when(a1db.getId()).thenReturn(2345);
+		Publication p0 = mock(Publication.class);
+		when(p0.getId()).thenReturn(987);
+		when(p0.getAuthors()).thenReturn(Arrays.asList(a0, a1));
+		when(this.bibtex.getPublicationStreamFrom(any(Reader.class), anyBoolean(), anyBoolean(), anyBoolean())).thenReturn(Stream.of(p0));
+		when(this.personService.getPersonIdBySimilarName(eq("Fa1"), eq("La1"))).thenReturn(2345);
+		when(this.personRepository.findAllById(any())).thenReturn(Arrays.asList(a1db));
+
+		List<Integer> ids = this.test.importPublications(new StringReader(bibtex), null);
+
+		assertEquals(Arrays.asList(987), ids);
+		verify(this.personRepository).saveAll(eq(Arrays.asList(a0)));
+		verify(this.personRepository).findAllById(eq(Arrays.asList(2345)));
+		verify(this.personRepository, never()).findById(anyInt());
+
+		final List<Authorship> authorships = captureSavedAuthorships(1);
+		assertEquals(2, authorships.size());
+		assertAuthorship(authorships, 1234, 987, 0);
+		assertAuthorship(authorships, 2345, 987, 1);
+	}
+
+	@Test
+	public void importPublications_chunks() throws Exception {
+		final List<Publication> publications = new ArrayList<>();
+		for (int i = 0; i < 5; ++i) {
+			Person author = mock(Person.class);
+			when(author.getId()).thenReturn(100 + i);
+			Publication publication = mock(Publication.class);
+			when(publication.getId()).thenReturn(200 + i);
+			when(publication.getAuthors()).thenReturn(Arrays.asList(author));
+			publications.add(publication);
+		}
+		when(this.bibtex.getPublicationStreamFrom(any(Reader.class), anyBoolean(), anyBoolean(), anyBoolean())).thenReturn(publications.stream());
+		final List<String> progress = new ArrayList<>();
+
+		List<Integer> ids = createService(2).importPublications(new StringReader("--valid-bibtex--"), null,
+				(read, imported) -> progress.add(read + "/" + imported));
+
+		assertEquals(Arrays.asList(200, 201, 202, 203, 204), ids);
+		assertEquals(Arrays.asList("2/2", "4/4", "5/5"), progress);
+		// One transaction per publication
+		verify(this.transactionManager, times(5)).getTransaction(any());
+		verify(this.transactionManager, times(5)).commit(any());
+	}
+
+	@Test
+	public void importPublications_failureIsolated() throws Exception {
+		final List<Publication> publications = new ArrayList<>();
+		for (int i = 0; i < 3; ++i) {
+			Person author = mock(Person.class);
+			lenient().when(author.getId()).thenReturn(100 + i);
+			Publication publication = mock(Publication.class);
+			lenient().when(publication.getId()).thenReturn(200 + i);
+			lenient().when(publication.getAuthors()).thenReturn(Arrays.asList(author));
+			publications.add(publication);
+		}
+		when(this.bibtex.getPublicationStreamFrom(any(Reader.class), anyBoolean(), anyBoolean(), anyBoolean())).thenReturn(publications.stream());
+		when(this.publicationRepository.save(same(publications.get(1)))).thenThrow(new DataIntegrityViolationException("duplicate"));
+		when(this.transactionManager.getTransaction(any())).thenAnswer(it -> new SimpleTransactionStatus());
+
+		try {
+			createService(200).importPublications(new StringReader("--valid-bibtex--"), null);
+			fail("Expecting ComposedException");
+		} catch (ComposedException ex) {
+			assertEquals(1, ex.getCauses().size());
+		}
+
+		verify(this.publicationRepository).save(same(publications.get(2)));
+		final ArgumentCaptor<TransactionStatus> statuses = ArgumentCaptor.forClass(TransactionStatus.class);
+		verify(this.transactionManager, times(3)).commit(statuses.capture());
+		assertFalse(statuses.getAllValues().get(0).isRollbackOnly());
+		assertTrue(statuses.getAllValues().get(1).isRollbackOnly());
+		assertFalse(statuses.getAllValues().get(2).isRollbackOnly());
 	}
 
 	@Test
@@ -491,6 +695,17 @@ public class PublicationServiceTest {
 		assertNotNull(arg1.getValue());
 	}
 
+	@Test
+	public void exportOdtToStream() throws Exception {
+		ExporterConfigurator configurator = new ExporterConfigurator(mock(JournalService.class));
+		Collection<Publication> pubs = Arrays.asList(this.pub0, this.pub2);
+		OutputStream output = new ByteArrayOutputStream();
+
+		this.test.exportOdtToStream(pubs, configurator, output);
+
+		verify(this.odt, only()).exportPublicationsToStream(same(pubs), same(configurator), same(output));
+	}
+
 	@Test
 	public void exportJson_Collection_null() throws Exception {
 		ExporterConfigurator configurator = new ExporterConfigurator(mock(JournalService.class));
@@ -576,6 +791,29 @@ public class PublicationServiceTest {
 		assertTrue(list.contains(this.pub2));
 	}
 
+	@Test
+	public void getPublications() {
+		final Specification<Publication> filter = mock(Specification.class);
+		final Pageable pageable = PageRequest.of(1, 2);
+		when(this.publicationRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(
+				new PageImpl<>(Arrays.asList(this.pub0, this.pub2), pageable, 10));
+
+		final Page<Publication> page = this.test.getPublications(filter, pageable);
+		assertNotNull(page);
+		assertEquals(10, page.getTotalElements());
+		assertEquals(Arrays.asList(this.pub0, this.pub2), page.getContent());
+		verify(this.publicationRepository).findAll(same(filter), same(pageable));
+	}
+
+	@Test
+	public void countPublications() {
+		final Specification<Publication> filter = mock(Specification.class);
+		when(this.publicationRepository.count(any(Specification.class))).thenReturn(123l);
+
+		assertEquals(123l, this.test.countPublications(filter));
+		verify(this.publicationRepository).count(same(filter));
+	}
+
 	@Test
 	public void getPublicationsByIds() {
 		when(this.publicationRepository.findAllById(any())).thenReturn(
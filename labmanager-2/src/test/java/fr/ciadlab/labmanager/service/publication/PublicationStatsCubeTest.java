@@ -0,0 +1,173 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+package fr.ciadlab.labmanager.service.publication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.entities.publication.Authorship;
+import fr.ciadlab.labmanager.entities.publication.Publication;
+import fr.ciadlab.labmanager.entities.publication.PublicationType;
+import fr.ciadlab.labmanager.repository.publication.PublicationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Tests for {@link PublicationStatsCube}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class PublicationStatsCubeTest {
+
+	private PublicationRepository repository;
+
+	private Publication pub0;
+
+	private Publication pub1;
+
+	private PublicationStatsCube test;
+
+	@BeforeEach
+	public void setUp() {
+		this.repository = mock(PublicationRepository.class);
+		this.pub0 = createPublication(1, 2020, PublicationType.INTERNATIONAL_JOURNAL_PAPER, true, 10, 11);
+		this.pub1 = createPublication(2, 2021, PublicationType.INTERNATIONAL_CONFERENCE_PAPER, false, 10);
+		when(this.repository.findAll()).thenReturn(Arrays.asList(this.pub0, this.pub1));
+		this.test = new PublicationStatsCube(this.repository, mock(PlatformTransactionManager.class));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	private static Publication createPublication(int id, int year, PublicationType type, boolean ranked, int... authors) {
+		final Publication publication = mock(Publication.class);
+		when(publication.getId()).thenReturn(id);
+		when(publication.getPublicationYear()).thenReturn(year);
+		when(publication.getType()).thenReturn(type);
+		when(publication.isRanked()).thenReturn(ranked);
+		final HashSet<Authorship> authorships = new HashSet<>();
+		for (final int author : authors) {
+			final Person person = mock(Person.class);
+			when(person.getId()).thenReturn(author);
+			final Authorship authorship = mock(Authorship.class);
+			when(authorship.getPerson()).thenReturn(person);
+			authorships.add(authorship);
+		}
+		when(publication.getAuthorshipsRaw()).thenReturn(authorships);
+		return publication;
+	}
+
+	private List<String> counts(int personId) {
+		final List<String> counts = new ArrayList<>();
+		this.test.forEachCount(personId, (year, type, ranked, count) -> {
+			counts.add(year + ":" + type.name() + ":" + ranked + ":" + count);
+		});
+		return counts;
+	}
+
+	@Test
+	public void forEachCount() {
+		assertEquals(Arrays.asList(
+				"2020:INTERNATIONAL_JOURNAL_PAPER:true:1",
+				"2021:INTERNATIONAL_CONFERENCE_PAPER:false:1"), counts(0));
+		assertEquals(Arrays.asList(
+				"2020:INTERNATIONAL_JOURNAL_PAPER:true:1",
+				"2021:INTERNATIONAL_CONFERENCE_PAPER:false:1"), counts(10));
+		assertEquals(Arrays.asList(
+				"2020:INTERNATIONAL_JOURNAL_PAPER:true:1"), counts(11));
+		assertEquals(Collections.emptyList(), counts(12));
+		verify(this.repository, times(1)).findAll();
+	}
+
+	@Test
+	public void publicationChanged_updated() {
+		counts(0);
+		final Publication pub1b = createPublication(2, 2020, PublicationType.INTERNATIONAL_JOURNAL_PAPER, true, 11);
+		when(this.repository.findAllById(any())).thenReturn(Arrays.asList(pub1b));
+		this.test.publicationChanged(2);
+		assertEquals(Arrays.asList(
+				"2020:INTERNATIONAL_JOURNAL_PAPER:true:2"), counts(0));
+		assertEquals(Arrays.asList(
+				"2020:INTERNATIONAL_JOURNAL_PAPER:true:1"), counts(10));
+		assertEquals(Arrays.asList(
+				"2020:INTERNATIONAL_JOURNAL_PAPER:true:2"), counts(11));
+		verify(this.repository, times(1)).findAll();
+		verify(this.repository, times(1)).findAllById(any());
+	}
+
+	@Test
+	public void publicationChanged_deleted() {
+		counts(0);
+		when(this.repository.findAllById(any())).thenReturn(Collections.emptyList());
+		this.test.publicationChanged(1);
+		assertEquals(Arrays.asList(
+				"2021:INTERNATIONAL_CONFERENCE_PAPER:false:1"), counts(0));
+		assertEquals(Collections.emptyList(), counts(11));
+		verify(this.repository, times(1)).findAll();
+	}
+
+	@Test
+	public void publicationChanged_afterCommit() {
+		counts(0);
+		TransactionSynchronizationManager.initSynchronization();
+		this.test.publicationChanged(1);
+		// Not committed
+		counts(0);
+		verify(this.repository, never()).findAllById(any());
+
+		when(this.repository.findAllById(any())).thenReturn(Collections.emptyList());
+		for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCommit();
+		}
+		assertEquals(Arrays.asList(
+				"2021:INTERNATIONAL_CONFERENCE_PAPER:false:1"), counts(0));
+	}
+
+	@Test
+	public void invalidateAll() {
+		counts(0);
+		when(this.repository.findAll()).thenReturn(Arrays.asList(this.pub1));
+		this.test.invalidateAll();
+		assertEquals(Arrays.asList(
+				"2021:INTERNATIONAL_CONFERENCE_PAPER:false:1"), counts(0));
+		assertEquals(Collections.emptyList(), counts(11));
+		verify(this.repository, times(2)).findAll();
+	}
+
+}
@@ -0,0 +1,266 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+package fr.ciadlab.labmanager.service.publication.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import fr.ciadlab.labmanager.service.DataScope;
+import fr.ciadlab.labmanager.service.DataVersionTracker;
+import fr.ciadlab.labmanager.service.publication.export.ExportJobManager.ArtifactWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.helpers.NOPLogger;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Tests for {@link ExportJobManager}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class ExportJobManagerTest {
+
+	private static final DataScope[] SCOPES = {DataScope.PUBLICATION, DataScope.JOURNAL};
+
+	@TempDir
+	public Path folder;
+
+	private CountDownLatch writing;
+
+	private AtomicInteger writings;
+
+	private ArtifactWriter writer;
+
+	private DataVersionTracker dataVersionTracker;
+
+	private ExportJobManager test;
+
+	@BeforeEach
+	public void setUp() {
+		this.writing = new CountDownLatch(0);
+		this.writings = new AtomicInteger();
+		this.writer = output -> {
+			this.writings.incrementAndGet();
+			this.writing.await(5, TimeUnit.SECONDS);
+			output.write("abc".getBytes(StandardCharsets.UTF_8));
+		};
+		this.dataVersionTracker = new DataVersionTracker();
+		this.test = new ExportJobManager(this.dataVersionTracker, mock(PlatformTransactionManager.class), this.folder.toString(), 1, 1, 2, 10);
+		this.test.setLogger(NOPLogger.NOP_LOGGER);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.test.shutdown();
+	}
+
+	private ExportJob submitAndWait(String fingerprint) throws Exception {
+		final ExportJob job = this.test.submit(ExportFormat.BIBTEX, fingerprint, this.writer, SCOPES);
+		assertTrue(job.await(5, TimeUnit.SECONDS));
+		return job;
+	}
+
+	@Test
+	public void isValidJobId() {
+		assertFalse(ExportJobManager.isValidJobId(null));
+		assertFalse(ExportJobManager.isValidJobId("../abc"));
+		assertTrue(ExportJobManager.isValidJobId("0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef"));
+	}
+
+	@Test
+	public void submit() throws Exception {
+		final ExportJob job = submitAndWait("a");
+		assertTrue(ExportJobManager.isValidJobId(job.getId()));
+		assertSame(ExportFormat.BIBTEX, job.getFormat());
+		assertSame(ExportJobStatus.DONE, job.getStatus());
+		assertTrue(job.isAvailable());
+		assertNull(job.getError());
+		assertEquals(job.getId() + ".bib", job.getArtifact().getName());
+		assertEquals("abc", Files.readString(job.getArtifact().toPath()));
+		assertSame(job, this.test.getJob(job.getId()));
+		// No temporary file
+		assertEquals(1, this.folder.toFile().list().length);
+	}
+
+	@Test
+	public void submit_coalesced() throws Exception {
+		this.writing = new CountDownLatch(1);
+		final ExportJob job0 = this.test.submit(ExportFormat.BIBTEX, "a", this.writer, SCOPES);
+		final ExportJob job1 = this.test.submit(ExportFormat.BIBTEX, "a", this.writer, SCOPES);
+		assertSame(job0, job1);
+		assertFalse(job0.getStatus().isFinished());
+		this.writing.countDown();
+		assertTrue(job0.await(5, TimeUnit.SECONDS));
+		assertSame(job0, this.test.submit(ExportFormat.BIBTEX, "a", this.writer, SCOPES));
+		assertEquals(1, this.writings.get());
+	}
+
+	@Test
+	public void submit_otherQuery() throws Exception {
+		final ExportJob job0 = submitAndWait("a");
+		final ExportJob job1 = submitAndWait("b");
+		final ExportJob job2 = this.test.submit(ExportFormat.HTML, "a", this.writer, SCOPES);
+		assertTrue(job2.await(5, TimeUnit.SECONDS));
+		assertNotSame(job0.getId(), job1.getId());
+		assertNotSame(job0.getId(), job2.getId());
+		assertEquals(3, this.writings.get());
+	}
+
+	@Test
+	public void submit_dataChanged() throws Exception {
+		final ExportJob job0 = submitAndWait("a");
+		this.dataVersionTracker.dataChanged(DataScope.JOURNAL);
+		assertEquals(1, this.test.getDataVersion(SCOPES));
+		final ExportJob job1 = submitAndWait("a");
+		assertNotSame(job0, job1);
+		assertEquals(1, job1.getDataVersion());
+		assertEquals(2, this.writings.get());
+		// The artifact of the previous data is deleted
+		assertNull(this.test.getJob(job0.getId()));
+		assertFalse(job0.getArtifact().exists());
+		assertTrue(job1.isAvailable());
+	}
+
+	@Test
+	public void submit_otherScopeChanged() throws Exception {
+		final ExportJob job0 = submitAndWait("a");
+		this.dataVersionTracker.dataChanged(DataScope.MEMBERSHIP);
+		assertEquals(0, this.test.getDataVersion(SCOPES));
+		assertSame(job0, submitAndWait("a"));
+		assertEquals(1, this.writings.get());
+		assertTrue(job0.isAvailable());
+	}
+
+	@Test
+	public void submit_dataChangedDuringDownload() throws Exception {
+		final ExportJob job0 = submitAndWait("a");
+		try (final InputStream input = job0.openArtifact()) {
+			this.dataVersionTracker.dataChanged(DataScope.PUBLICATION);
+			submitAndWait("a");
+			// The job is discarded but the artifact is kept until the end of the download
+			assertNull(this.test.getJob(job0.getId()));
+			assertFalse(job0.isAvailable());
+			assertNull(job0.openArtifact());
+			assertTrue(job0.getArtifact().exists());
+			assertEquals("abc", new String(input.readAllBytes(), StandardCharsets.UTF_8));
+		}
+		assertFalse(job0.getArtifact().exists());
+	}
+
+	@Test
+	public void openArtifact() throws Exception {
+		final ExportJob job = submitAndWait("a");
+		try (final InputStream input = job.openArtifact()) {
+			assertEquals("abc", new String(input.readAllBytes(), StandardCharsets.UTF_8));
+		}
+		assertTrue(job.isAvailable());
+	}
+
+	@Test
+	public void submit_failed() throws Exception {
+		final ExportJob job0 = this.test.submit(ExportFormat.ODT, "a", output -> {
+			throw new IOException("error");
+		}, SCOPES);
+		assertTrue(job0.await(5, TimeUnit.SECONDS));
+		assertSame(ExportJobStatus.FAILED, job0.getStatus());
+		assertEquals("error", job0.getError());
+		assertFalse(job0.isAvailable());
+		assertEquals(0, this.folder.toFile().list().length);
+		// A failed job is run again
+		final ExportJob job1 = this.test.submit(ExportFormat.ODT, "a", this.writer, SCOPES);
+		assertNotSame(job0, job1);
+		assertTrue(job1.await(5, TimeUnit.SECONDS));
+		assertTrue(job1.isAvailable());
+	}
+
+	@Test
+	public void submit_maxArtifacts() throws Exception {
+		final ExportJob job0 = submitAndWait("a");
+		final ExportJob job1 = submitAndWait("b");
+		final ExportJob job2 = submitAndWait("c");
+		final ExportJob job3 = submitAndWait("d");
+		// At most 2 finished jobs are kept in addition to the submitted job
+		assertNull(this.test.getJob(job0.getId()));
+		assertFalse(job0.getArtifact().exists());
+		assertSame(job1, this.test.getJob(job1.getId()));
+		assertSame(job3, this.test.getJob(job3.getId()));
+	}
+
+	@Test
+	public void submit_queueFull() throws Exception {
+		this.writing = new CountDownLatch(1);
+		final CountDownLatch started = new CountDownLatch(1);
+		final ArtifactWriter blocking = output -> {
+			started.countDown();
+			this.writer.write(output);
+		};
+		this.test.submit(ExportFormat.BIBTEX, "a", blocking, SCOPES);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		this.test.submit(ExportFormat.BIBTEX, "b", this.writer, SCOPES);
+		assertThrows(RejectedExecutionException.class, () -> this.test.submit(ExportFormat.BIBTEX, "c", this.writer, SCOPES));
+		this.writing.countDown();
+	}
+
+	@Test
+	public void await_timeout() throws Exception {
+		this.writing = new CountDownLatch(1);
+		final ExportJob job = this.test.submit(ExportFormat.BIBTEX, "a", this.writer, SCOPES);
+		assertFalse(this.test.await(job, 0));
+		this.writing.countDown();
+		assertTrue(this.test.await(job, 5));
+	}
+
+	@Test
+	public void deleteArtifacts() throws Exception {
+		final String id = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+		final File artifact = this.folder.resolve(id + ".bib").toFile();
+		Files.write(artifact.toPath(), new byte[] {1});
+		final File tempFile = this.folder.resolve(id + ".odt123456.tmp").toFile();
+		Files.write(tempFile.toPath(), new byte[] {1});
+		final File other = this.folder.resolve("old.bib").toFile();
+		Files.write(other.toPath(), new byte[] {1});
+		final File otherExtension = this.folder.resolve(id + ".txt").toFile();
+		Files.write(otherExtension.toPath(), new byte[] {1});
+		this.test.deleteArtifacts();
+		assertFalse(artifact.exists());
+		assertFalse(tempFile.exists());
+		assertTrue(other.exists());
+		assertTrue(otherExtension.exists());
+	}
+
+}
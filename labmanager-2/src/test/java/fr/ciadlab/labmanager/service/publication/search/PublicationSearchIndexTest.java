@@ -0,0 +1,322 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+package fr.ciadlab.labmanager.service.publication.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import fr.ciadlab.labmanager.entities.journal.Journal;
+import fr.ciadlab.labmanager.entities.member.Membership;
+import fr.ciadlab.labmanager.entities.member.Person;
+import fr.ciadlab.labmanager.entities.organization.ResearchOrganization;
+import fr.ciadlab.labmanager.entities.publication.Authorship;
+import fr.ciadlab.labmanager.entities.publication.Publication;
+import fr.ciadlab.labmanager.entities.publication.PublicationType;
+import fr.ciadlab.labmanager.entities.publication.type.JournalPaper;
+import fr.ciadlab.labmanager.repository.publication.PublicationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Tests for {@link PublicationSearchIndex}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class PublicationSearchIndexTest {
+
+	private PublicationRepository repository;
+
+	private ResearchOrganization ciad;
+
+	private Person author0;
+
+	private Person author1;
+
+	private Publication pub0;
+
+	private Publication pub1;
+
+	private Publication pub2;
+
+	private PublicationSearchIndex test;
+
+	@BeforeEach
+	public void setUp() {
+		this.repository = mock(PublicationRepository.class);
+		this.ciad = mock(ResearchOrganization.class);
+		when(this.ciad.getId()).thenReturn(5);
+		when(this.ciad.getAcronymOrName()).thenReturn("CIAD");
+		this.author0 = createPerson(10, "Stéphane Galland", this.ciad);
+		this.author1 = createPerson(11, "John Doe");
+		this.pub0 = createPublication(1, 2020, PublicationType.INTERNATIONAL_JOURNAL_PAPER,
+				"Multiagent simulation of traffic", "Journal of Simulation", "agents", "A model of vehicles.", this.author0);
+		this.pub1 = createPublication(2, 2021, PublicationType.INTERNATIONAL_CONFERENCE_PAPER,
+				"Vehicle routing", "Conference on Agents", "", "The traffic simulation of vehicles.", this.author1);
+		this.pub2 = createPublication(3, 2021, PublicationType.INTERNATIONAL_JOURNAL_PAPER,
+				"Deep learning", "Journal of AI", "", "", this.author0, this.author1);
+		when(this.repository.findAll()).thenReturn(Arrays.asList(this.pub0, this.pub1, this.pub2));
+		this.test = new PublicationSearchIndex(this.repository, mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+	}
+
+	private static Person createPerson(int id, String name, ResearchOrganization... organizations) {
+		final Person person = mock(Person.class);
+		when(person.getId()).thenReturn(id);
+		when(person.getFullName()).thenReturn(name);
+		final HashSet<Membership> memberships = new HashSet<>();
+		for (final ResearchOrganization organization : organizations) {
+			final Membership membership = mock(Membership.class);
+			when(membership.getResearchOrganization()).thenReturn(organization);
+			when(membership.isActiveIn(any(), any())).thenReturn(true);
+			memberships.add(membership);
+		}
+		when(person.getMemberships()).thenReturn(memberships);
+		return person;
+	}
+
+	private static Publication createPublication(int id, int year, PublicationType type, String title, String target,
+			String keywords, String abstractText, Person... authors) {
+		final Publication publication = mock(Publication.class);
+		when(publication.getId()).thenReturn(id);
+		when(publication.getPublicationYear()).thenReturn(year);
+		when(publication.getType()).thenReturn(type);
+		when(publication.getTitle()).thenReturn(title);
+		when(publication.getPublicationTarget()).thenReturn(target);
+		when(publication.getKeywords()).thenReturn(keywords);
+		when(publication.getAbstractText()).thenReturn(abstractText);
+		final List<Authorship> authorships = new ArrayList<>();
+		for (final Person author : authors) {
+			final Authorship authorship = mock(Authorship.class);
+			when(authorship.getPerson()).thenReturn(author);
+			authorships.add(authorship);
+		}
+		when(publication.getAuthorships()).thenReturn(authorships);
+		return publication;
+	}
+
+	private static List<Integer> ids(PublicationSearchResult result) {
+		final List<Integer> ids = new ArrayList<>();
+		for (final PublicationSearchResult.Hit hit : result.getHits()) {
+			ids.add(Integer.valueOf(hit.getId()));
+		}
+		return ids;
+	}
+
+	@Test
+	public void tokenize() {
+		assertEquals(Arrays.asList("multi", "agent", "systeme", "2022"), PublicationSearchIndex.tokenize("Multi-agent Système, 2022!"));
+		assertEquals(Collections.emptyList(), PublicationSearchIndex.tokenize(null));
+		assertEquals(Collections.emptyList(), PublicationSearchIndex.tokenize(" ; "));
+	}
+
+	@Test
+	public void refresh() {
+		assertEquals(0, this.test.size());
+		this.test.refresh();
+		assertEquals(3, this.test.size());
+		this.test.search("traffic", null, null, null, 0, 0);
+		verify(this.repository, times(1)).findAll();
+	}
+
+	@Test
+	public void search_emptyQuery() {
+		final PublicationSearchResult result = this.test.search(" ", null, null, null, 0, 0);
+		assertEquals(0, result.getTotal());
+		assertTrue(result.getHits().isEmpty());
+	}
+
+	@Test
+	public void search_unknownWord() {
+		final PublicationSearchResult result = this.test.search("traffic unknown", null, null, null, 0, 0);
+		assertEquals(0, result.getTotal());
+		assertTrue(result.getHits().isEmpty());
+	}
+
+	@Test
+	public void search_ranked() {
+		// The word is in the title of pub0 and in the abstract of pub1
+		final PublicationSearchResult result = this.test.search("Traffic", null, null, null, 0, 0);
+		assertEquals(2, result.getTotal());
+		assertEquals(Arrays.asList(1, 2), ids(result));
+		final PublicationSearchResult.Hit hit = result.getHits().get(0);
+		assertEquals("Multiagent simulation of traffic", hit.getTitle());
+		assertEquals(2020, hit.getYear());
+		assertEquals(PublicationType.INTERNATIONAL_JOURNAL_PAPER, hit.getType());
+		assertEquals("Journal of Simulation", hit.getTarget());
+		assertEquals(Arrays.asList("Stéphane Galland"), hit.getAuthors());
+		assertTrue(hit.getScore() > result.getHits().get(1).getScore());
+	}
+
+	@Test
+	public void search_allWords() {
+		assertEquals(Arrays.asList(2), ids(this.test.search("vehicle routing", null, null, null, 0, 0)));
+	}
+
+	@Test
+	public void search_authorsAndTargets() {
+		assertEquals(Arrays.asList(3, 1), ids(this.test.search("stephane galland", null, null, null, 0, 0)));
+		assertEquals(Arrays.asList(1, 2), ids(this.test.search("agents", null, null, null, 0, 0)));
+		assertEquals(Arrays.asList(3, 1), ids(this.test.search("journal", null, null, null, 0, 0)));
+	}
+
+	@Test
+	public void search_facets() {
+		final PublicationSearchResult result = this.test.search("journal", null, null, null, 0, 1);
+		assertEquals(2, result.getTotal());
+		assertEquals(1, result.getHits().size());
+		final Map<Integer, Integer> years = result.getYearFacets();
+		assertEquals(Arrays.asList(2021, 2020), new ArrayList<>(years.keySet()));
+		assertEquals(1, years.get(2021).intValue());
+		assertEquals(1, years.get(2020).intValue());
+		assertEquals(2, result.getTypeFacets().get(PublicationType.INTERNATIONAL_JOURNAL_PAPER).intValue());
+		assertEquals(2, result.getOrganizationFacets().get(5).intValue());
+		assertEquals("CIAD", result.getOrganizationName(5));
+	}
+
+	@Test
+	public void search_filters() {
+		assertEquals(Arrays.asList(3), ids(this.test.search("journal", 2021, null, null, 0, 0)));
+		assertEquals(Arrays.asList(2), ids(this.test.search("traffic", null, PublicationType.INTERNATIONAL_CONFERENCE_PAPER, null, 0, 0)));
+		assertEquals(Arrays.asList(1), ids(this.test.search("traffic", null, null, 5, 0, 0)));
+	}
+
+	@Test
+	public void search_page() {
+		final PublicationSearchResult result = this.test.search("journal", null, null, null, 1, 5);
+		assertEquals(2, result.getTotal());
+		assertEquals(Arrays.asList(1), ids(result));
+		assertEquals(0, this.test.search("journal", null, null, null, 10, 5).getHits().size());
+	}
+
+	@Test
+	public void publicationChanged() {
+		this.test.refresh();
+		final Publication pub1b = createPublication(2, 2021, PublicationType.INTERNATIONAL_CONFERENCE_PAPER,
+				"Vehicle routing", "Conference on Robots", "", "", this.author1);
+		when(this.repository.findAllById(any())).thenReturn(Arrays.asList(pub1b));
+		this.test.publicationChanged(2);
+		assertEquals(Arrays.asList(1), ids(this.test.search("traffic", null, null, null, 0, 0)));
+		assertEquals(Arrays.asList(2), ids(this.test.search("robots", null, null, null, 0, 0)));
+		verify(this.repository, times(1)).findAll();
+	}
+
+	@Test
+	public void publicationChanged_deleted() {
+		this.test.refresh();
+		when(this.repository.findAllById(any())).thenReturn(Collections.emptyList());
+		this.test.publicationChanged(1);
+		assertEquals(Arrays.asList(2), ids(this.test.search("traffic", null, null, null, 0, 0)));
+		assertEquals(2, this.test.size());
+	}
+
+	@Test
+	public void invalidateAll() {
+		this.test.refresh();
+		when(this.repository.findAll()).thenReturn(Arrays.asList(this.pub2));
+		this.test.invalidateAll();
+		assertEquals(0, this.test.search("traffic", null, null, null, 0, 0).getTotal());
+		assertEquals(1, this.test.size());
+		verify(this.repository, times(2)).findAll();
+	}
+
+	@Test
+	public void search_noPendingChanges() {
+		this.test.refresh();
+		this.test.search("traffic", null, null, null, 0, 0);
+		this.test.search("vehicle", null, null, null, 0, 0);
+		verify(this.repository, times(1)).findAll();
+		verify(this.repository, never()).findAllById(any());
+	}
+
+	@Test
+	public void personChanged() {
+		this.test.refresh();
+		final Person author1b = createPerson(11, "John Smith");
+		final Publication pub1b = createPublication(2, 2021, PublicationType.INTERNATIONAL_CONFERENCE_PAPER,
+				"Vehicle routing", "Conference on Agents", "", "The traffic simulation of vehicles.", author1b);
+		final Publication pub2b = createPublication(3, 2021, PublicationType.INTERNATIONAL_JOURNAL_PAPER,
+				"Deep learning", "Journal of AI", "", "", this.author0, author1b);
+		when(this.repository.findAllById(any())).thenReturn(Arrays.asList(pub1b, pub2b));
+		this.test.personChanged(11);
+		assertEquals(2, this.test.search("smith", null, null, null, 0, 0).getTotal());
+		assertEquals(0, this.test.search("doe", null, null, null, 0, 0).getTotal());
+		verify(this.repository).findAllById(eq(new HashSet<>(Arrays.asList(2, 3))));
+		verify(this.repository, times(1)).findAll();
+	}
+
+	@Test
+	public void organizationChanged() {
+		this.test.refresh();
+		when(this.repository.findAllById(any())).thenReturn(Arrays.asList(this.pub0, this.pub2));
+		this.test.organizationChanged(5);
+		this.test.search("traffic", null, null, null, 0, 0);
+		verify(this.repository).findAllById(eq(new HashSet<>(Arrays.asList(1, 3))));
+		verify(this.repository, times(1)).findAll();
+	}
+
+	@Test
+	public void journalChanged() {
+		final Journal journal = mock(Journal.class);
+		when(journal.getId()).thenReturn(7);
+		final JournalPaper paper = mock(JournalPaper.class);
+		when(paper.getId()).thenReturn(4);
+		when(paper.getPublicationYear()).thenReturn(2022);
+		when(paper.getJournal()).thenReturn(journal);
+		when(this.repository.findAll()).thenReturn(Arrays.asList(this.pub0, this.pub1, this.pub2, paper));
+		this.test.refresh();
+		when(this.repository.findAllById(any())).thenReturn(Arrays.asList(paper));
+		this.test.journalChanged(7);
+		this.test.search("traffic", null, null, null, 0, 0);
+		verify(this.repository).findAllById(eq(new HashSet<>(Arrays.asList(4))));
+		verify(this.repository, times(1)).findAll();
+	}
+
+	@Test
+	public void listener() {
+		final PublicationSearchListener listener = new PublicationSearchListener();
+		listener.setPublicationSearchIndex(this.test);
+		this.test.refresh();
+		when(this.repository.findAllById(any())).thenReturn(Arrays.asList(this.pub1, this.pub2));
+
+		listener.entityChanged(this.author1);
+		this.test.search("traffic", null, null, null, 0, 0);
+		verify(this.repository).findAllById(eq(new HashSet<>(Arrays.asList(2, 3))));
+
+		// A detached membership changes all the publications
+		listener.entityChanged(mock(Membership.class));
+		this.test.search("traffic", null, null, null, 0, 0);
+		verify(this.repository, times(2)).findAll();
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+
+package fr.ciadlab.labmanager.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Tests for {@link AbstractEntityListener}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class AbstractEntityListenerTest {
+
+	private AtomicInteger target;
+
+	private AbstractEntityListener<AtomicInteger> test;
+
+	@BeforeEach
+	public void setUp() {
+		this.target = new AtomicInteger();
+		this.test = new AbstractEntityListener<>() {
+			//
+		};
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	public void notifyTarget_notInjected() {
+		this.test.notifyTarget(it -> it.incrementAndGet());
+		this.test.notifyTargetAfterCommit(it -> it.incrementAndGet());
+		assertEquals(0, this.target.get());
+	}
+
+	@Test
+	public void notifyTarget() {
+		this.test.setTarget(this.target);
+		this.test.notifyTarget(it -> it.incrementAndGet());
+		assertEquals(1, this.target.get());
+	}
+
+	@Test
+	public void notifyTargetAfterCommit() {
+		this.test.setTarget(this.target);
+		TransactionSynchronizationManager.initSynchronization();
+		this.test.notifyTargetAfterCommit(it -> it.incrementAndGet());
+		assertEquals(0, this.target.get());
+		for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCommit();
+		}
+		assertEquals(1, this.target.get());
+	}
+
+}
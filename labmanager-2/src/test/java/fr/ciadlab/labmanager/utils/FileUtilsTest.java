@@ -0,0 +1,73 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+
+package fr.ciadlab.labmanager.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Tests for {@link FileUtils}.
+ * 
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class FileUtilsTest {
+
+	@TempDir
+	public Path folder;
+
+	@Test
+	public void writeAtomically() throws Exception {
+		final File file = this.folder.resolve("sub").resolve("file.bin").toFile();
+		FileUtils.writeAtomically(file, output -> output.write(new byte[] {1, 2, 3}));
+		assertArrayEquals(new byte[] {1, 2, 3}, Files.readAllBytes(file.toPath()));
+		assertEquals(1, file.getParentFile().list().length);
+	}
+
+	@Test
+	public void writeAtomically_replace() throws Exception {
+		final File file = this.folder.resolve("file.bin").toFile();
+		Files.write(file.toPath(), new byte[] {1});
+		FileUtils.writeAtomically(file, output -> output.write(new byte[] {2, 3}));
+		assertArrayEquals(new byte[] {2, 3}, Files.readAllBytes(file.toPath()));
+	}
+
+	@Test
+	public void writeAtomically_error() throws Exception {
+		final File file = this.folder.resolve("file.bin").toFile();
+		Files.write(file.toPath(), new byte[] {1});
+		assertThrows(IOException.class, () -> FileUtils.writeAtomically(file, output -> {
+			output.write(new byte[] {2, 3});
+			throw new IOException();
+		}));
+		assertArrayEquals(new byte[] {1}, Files.readAllBytes(file.toPath()));
+		assertEquals(1, this.folder.toFile().list().length);
+	}
+
+}
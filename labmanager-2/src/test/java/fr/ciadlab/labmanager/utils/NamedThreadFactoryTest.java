@@ -0,0 +1,54 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+
+package fr.ciadlab.labmanager.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link NamedThreadFactory}.
+ * 
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class NamedThreadFactoryTest {
+
+	@Test
+	public void newThread() {
+		final NamedThreadFactory factory = new NamedThreadFactory("worker-");
+		final Thread thread1 = factory.newThread(() -> {});
+		final Thread thread2 = factory.newThread(() -> {});
+		assertEquals("worker-1", thread1.getName());
+		assertEquals("worker-2", thread2.getName());
+		assertTrue(thread1.isDaemon());
+		assertEquals(Thread.NORM_PRIORITY, thread1.getPriority());
+	}
+
+	@Test
+	public void newThread_priority() {
+		final NamedThreadFactory factory = new NamedThreadFactory("worker-", Thread.MIN_PRIORITY);
+		final Thread thread = factory.newThread(() -> {});
+		assertTrue(thread.isDaemon());
+		assertEquals(Thread.MIN_PRIORITY, thread.getPriority());
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/** Tests for {@link StreamingTransactionRunner}.
+ * 
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class StreamingTransactionRunnerTest {
+
+	@Test
+	public void buildUrl() {
+		assertEquals("jdbc:mysql://localhost:3306/db", StreamingTransactionRunner.buildUrl("jdbc:mysql://localhost:3306/db", ""));
+		assertEquals("jdbc:mysql://localhost:3306/db?useCursorFetch=true",
+				StreamingTransactionRunner.buildUrl("jdbc:mysql://localhost:3306/db", "useCursorFetch=true"));
+		assertEquals("jdbc:mysql://localhost:3306/db?serverTimezone=UTC&useCursorFetch=true",
+				StreamingTransactionRunner.buildUrl("jdbc:mysql://localhost:3306/db?serverTimezone=UTC", "useCursorFetch=true"));
+	}
+
+	@Test
+	public void executeWithoutResult_noConnectionProperties() {
+		final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenAnswer(it -> new SimpleTransactionStatus());
+		final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+		final DataSourceProperties dataSourceProperties = mock(DataSourceProperties.class);
+		final StreamingTransactionRunner test = new StreamingTransactionRunner(transactionManager, entityManagerFactory,
+				dataSourceProperties, " ");
+		final AtomicBoolean run = new AtomicBoolean();
+		test.executeWithoutResult(status -> run.set(true));
+		assertTrue(run.get());
+		verify(transactionManager).getTransaction(any());
+		verify(transactionManager).commit(any());
+		// The connections of the application are used
+		verifyNoInteractions(entityManagerFactory, dataSourceProperties);
+	}
+
+}
@@ -0,0 +1,76 @@
+/*
+ * $Id$
+ *
+ * Copyright (c) 2019-22, CIAD Laboratory, Universite de Technologie de Belfort Montbeliard
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information
+ * of the CIAD laboratory and the Université de Technologie
+ * de Belfort-Montbéliard ("Confidential Information").
+ * You shall not disclose such Confidential Information and shall use
+ * it only in accordance with the terms of the license agreement
+ * you entered into with the CIAD-UTBM.
+ *
+ * http://www.ciad-lab.fr/
+ */
+
+package fr.ciadlab.labmanager.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Tests for {@link TransactionUtils}.
+ *
+ * @author $Author: sgalland$
+ * @version $Name$ $Revision$ $Date$
+ * @mavengroupid $GroupId$
+ * @mavenartifactid $ArtifactId$
+ */
+@SuppressWarnings("all")
+public class TransactionUtilsTest {
+
+	@AfterEach
+	public void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	public void afterCommit_noTransaction() {
+		final AtomicInteger count = new AtomicInteger();
+		TransactionUtils.afterCommit(() -> count.incrementAndGet());
+		assertEquals(1, count.get());
+	}
+
+	@Test
+	public void afterCommit_commit() {
+		final AtomicInteger count = new AtomicInteger();
+		TransactionSynchronizationManager.initSynchronization();
+		TransactionUtils.afterCommit(() -> count.incrementAndGet());
+		assertEquals(0, count.get());
+		for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCommit();
+			synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+		}
+		assertEquals(1, count.get());
+	}
+
+	@Test
+	public void afterCommit_rollback() {
+		final AtomicInteger count = new AtomicInteger();
+		TransactionSynchronizationManager.initSynchronization();
+		TransactionUtils.afterCommit(() -> count.incrementAndGet());
+		for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+		}
+		assertEquals(0, count.get());
+	}
+
+}